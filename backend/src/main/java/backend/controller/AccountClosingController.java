@@ -0,0 +1,128 @@
+package backend.controller;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import backend.dao.AccountDao;
+import backend.dao.DAOManager;
+import backend.model.account.Account;
+
+/**
+ * Closes the completed months of all accounts by creating their balance snapshots. The snapshots allow for the
+ * determination of the balance at any point in time without reading the postings of previous months.
+ *
+ * The closing is performed once on application startup and then once a day in a background thread.
+ *
+ * @author Michael
+ */
+public class AccountClosingController {
+    /**
+     * The number of hours between two closing runs.
+     */
+    private static final long CLOSING_INTERVAL_HOURS = 24;
+
+    /**
+     * The number of accounts read per page.
+     */
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * The DAO to access account data.
+     */
+    private AccountDao accountDAO;
+
+    /**
+     * Executes the closing runs.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(AccountClosingController.class);
+
+    /**
+     * Access to localized application resources.
+     */
+    private ResourceBundle resources;
+
+    /**
+     * Initializes the controller.
+     */
+    public AccountClosingController() {
+        this.resources = ResourceBundle.getBundle("backend");
+        this.accountDAO = DAOManager.getInstance().getAccountDAO();
+    }
+
+    /**
+     * Starts the periodic closing runs in a background thread. The first run is performed immediately.
+     */
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-closing");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scheduler.scheduleWithFixedDelay(this::closeAccounts, 0, CLOSING_INTERVAL_HOURS, TimeUnit.HOURS);
+    }
+
+    /**
+     * Stops the periodic closing runs. A running closing is finished before.
+     */
+    public void stop() {
+        if (this.scheduler == null) {
+            return;
+        }
+
+        this.scheduler.shutdown();
+
+        try {
+            this.scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates the missing balance snapshots of all accounts. An error of a single account does not stop the closing
+     * of the other accounts.
+     */
+    public void closeAccounts() {
+        List<Account> accounts;
+        Integer afterId = null;
+        int createdSnapshots = 0;
+        int closedAccounts = 0;
+
+        do {
+            try {
+                accounts = this.accountDAO.getAccounts(afterId, PAGE_SIZE);
+            } catch (Exception e) {
+                LOGGER.error(this.resources.getString("account.getAccountsError"), e);
+                return;
+            }
+
+            for (Account account : accounts) {
+                try {
+                    createdSnapshots += this.accountDAO.createBalanceSnapshots(account.getId());
+                    closedAccounts++;
+                } catch (Exception e) {
+                    LOGGER.error(MessageFormat.format(this.resources.getString("accountClosing.error"),
+                            account.getId()), e);
+                }
+
+                afterId = account.getId();
+            }
+        } while (accounts.size() == PAGE_SIZE);
+
+        LOGGER.info(MessageFormat.format(this.resources.getString("accountClosing.finished"), createdSnapshots,
+                closedAccounts));
+    }
+}
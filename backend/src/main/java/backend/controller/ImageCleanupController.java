@@ -1,32 +1,40 @@
 package backend.controller;
 
 import java.text.MessageFormat;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.ResourceBundle;
-import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import backend.dao.DAOManager;
 import backend.dao.ImageDao;
-import backend.dao.MaterialDao;
 import backend.dao.NativeSqlDao;
-import backend.model.image.ImageMetaData;
 
 /**
  * Looks for images in the database that are not referenced by any master data object. Those unreferenced images are
  * regarded as obsolete and are being deleted.
  *
+ * The unreferenced images are determined by a single query per chunk of image IDs and deleted by a single statement
+ * per chunk. The cleanup is performed periodically in a background thread. Images are uploaded before they are
+ * assigned to a master data object. Therefore a periodic run only deletes images that already existed at the previous
+ * run, so that recently uploaded images are not deleted before they have been assigned.
+ *
  * @author Michael
  */
 public class ImageCleanupController {
     /**
-     * The DAO to access material data.
+     * The number of hours between two cleanup runs.
      */
-    private MaterialDao materialDAO;
+    private static final long CLEANUP_INTERVAL_HOURS = 24;
+
+    /**
+     * The maximum number of images deleted per chunk.
+     */
+    private static final int CHUNK_SIZE = 500;
 
     /**
      * The DAO to access image data.
@@ -38,6 +46,46 @@ public class ImageCleanupController {
      */
     private NativeSqlDao nativeSqlDAO;
 
+    /**
+     * Executes the cleanup runs.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The highest image ID at the previous run. Images with a higher ID are not deleted by the next periodic run.
+     */
+    private Integer maxImageIdOfPreviousRun;
+
+    /**
+     * The number of images deleted by the current or last run.
+     */
+    private volatile int deletedImages;
+
+    /**
+     * The ID up to which the images have been checked by the current or last run.
+     */
+    private volatile Integer checkedImageId;
+
+    /**
+     * The highest ID of the images checked by the current or last run.
+     */
+    private volatile Integer maxImageId;
+
+    /**
+     * The start time of the current or last run in milliseconds.
+     */
+    private volatile long startTime;
+
+    /**
+     * The duration of the last run in milliseconds.
+     */
+    private volatile long duration;
+
+    /**
+     * Indicates if a cleanup run is currently performed.
+     */
+    private volatile boolean running;
+
     /**
      * Application logging.
      */
@@ -53,82 +101,177 @@ public class ImageCleanupController {
      */
     public ImageCleanupController() {
         this.resources = ResourceBundle.getBundle("backend");
-        this.materialDAO = DAOManager.getInstance().getMaterialDAO();
         this.imageDAO = DAOManager.getInstance().getImageDAO();
         this.nativeSqlDAO = DAOManager.getInstance().getNativeSqlDAO();
     }
 
     /**
-     * Cleans obsolete images from the database.
+     * Starts the periodic cleanup runs in a background thread. The first run is performed immediately and deletes the
+     * unreferenced images that existed on start.
+     */
+    public void start() {
+        try {
+            this.maxImageIdOfPreviousRun = this.imageDAO.getMaxImageId();
+        } catch (Exception e) {
+            LOGGER.error(this.resources.getString("imageCleanupController.cleanupFailed"), e);
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scheduler.scheduleWithFixedDelay(this::cleanupPreviousImages, 0, CLEANUP_INTERVAL_HOURS,
+                TimeUnit.HOURS);
+    }
+
+    /**
+     * Stops the periodic cleanup runs. A running cleanup is finished before.
+     */
+    public void stop() {
+        if (this.scheduler == null) {
+            return;
+        }
+
+        this.scheduler.shutdown();
+
+        try {
+            this.scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cleans all obsolete images from the database.
      */
     public void cleanup() {
-        Set<Integer> imagesInUse = new HashSet<Integer>();
+        try {
+            this.cleanup(this.imageDAO.getMaxImageId());
+        } catch (Exception e) {
+            LOGGER.error(this.resources.getString("imageCleanupController.cleanupFailed"), e);
+        }
+    }
 
+    /**
+     * Cleans the obsolete images that already existed at the previous run from the database.
+     */
+    private void cleanupPreviousImages() {
         try {
-            imagesInUse = this.getAllImageIdsReferencedByMaterial();
-            this.deleteImages(imagesInUse);
-            //this.executeCheckpointCommand();
-        } catch (Exception exception) {
-            LOGGER.error("imageCleanupController.cleanupFailed", exception.getMessage());
+            Integer maxImageId = this.imageDAO.getMaxImageId();
+
+            this.cleanup(this.maxImageIdOfPreviousRun);
+            this.maxImageIdOfPreviousRun = maxImageId;
+        } catch (Exception e) {
+            LOGGER.error(this.resources.getString("imageCleanupController.cleanupFailed"), e);
         }
     }
 
     /**
-     * Returns the IDs of all images that are referenced by a material.
+     * Performs a run that deletes the obsolete images up to the given ID. The progress of the run is recorded for
+     * monitoring.
      *
-     * @return A set containing the IDs of all images that are referenced by a material.
-     * @throws Exception In case the determination of referenced image IDs failed.
+     * @param maxImageId The highest ID of the images to be deleted. Null, if no image exists.
+     * @throws Exception In case the determination or deletion of the images fails.
      */
-    private Set<Integer> getAllImageIdsReferencedByMaterial() throws Exception {
-        return this.materialDAO.getAllImageIds();
+    private void cleanup(final Integer maxImageId) throws Exception {
+        this.startTime = System.currentTimeMillis();
+        this.deletedImages = 0;
+        this.checkedImageId = null;
+        this.maxImageId = maxImageId;
+        this.running = true;
+
+        try {
+            if (maxImageId != null) {
+                this.deleteUnreferencedImages(maxImageId);
+            }
+        } finally {
+            this.duration = System.currentTimeMillis() - this.startTime;
+            this.running = false;
+        }
     }
 
     /**
-     * Deletes all images except those with the given IDs.
+     * Deletes the obsolete images up to the given ID chunk by chunk. Each chunk is committed on its own. Afterwards the
+     * database files are compacted, if images have been deleted.
      *
-     * @param imagesInUse The IDs of all images that are still in use.
-     * @throws Exception In case the deletion fails.
-     */
-    private void deleteImages(final Set<Integer> imagesInUse) throws Exception {
-        List<ImageMetaData> allImages = this.imageDAO.getAllImageMetaData();
-        Set<Integer> allImageIds = new HashSet<Integer>();
-        Iterator<Integer> imageIdIterator;
-        Integer imageId;
-
-        // Build the set with all image IDs.
-        for (ImageMetaData tempImageMetaData : allImages) {
-            allImageIds.add(tempImageMetaData.getId());
-        }
+     * @param maxImageId The highest ID of the images to be deleted.
+     * @throws Exception In case the determination or deletion of the images fails.
+     */
+    private void deleteUnreferencedImages(final int maxImageId) throws Exception {
+        List<Integer> imageIds;
+        int chunks = 0;
+
+        do {
+            imageIds = this.imageDAO.getUnreferencedImageIds(this.checkedImageId, maxImageId, CHUNK_SIZE);
 
-        // Remove the IDs of images that are referenced by master data object and therefore are still in use.
-        allImageIds.removeAll(imagesInUse);
+            if (!imageIds.isEmpty()) {
+                this.deletedImages += this.imageDAO.deleteUnreferencedImages(imageIds);
+                this.checkedImageId = imageIds.get(imageIds.size() - 1);
+                chunks++;
 
-        // Delete all images that are not referenced by any master data object.
-        imageIdIterator = allImageIds.iterator();
-        while (imageIdIterator.hasNext()) {
-            imageId = imageIdIterator.next();
-            this.imageDAO.deleteImage(imageId);
+                LOGGER.debug(MessageFormat.format(this.resources.getString("imageCleanupController.chunkDeleted"),
+                        this.deletedImages, this.checkedImageId, maxImageId));
+            }
+        } while (imageIds.size() == CHUNK_SIZE);
+
+        this.checkedImageId = maxImageId;
+
+        if (this.deletedImages > 0) {
+            this.executeCheckpointCommand();
         }
 
         LOGGER.info(MessageFormat.format(this.resources.getString("imageCleanupController.imagesDeleted"),
-                allImageIds.size()));
+                this.deletedImages, chunks, System.currentTimeMillis() - this.startTime));
     }
 
     /**
-     * Executes the HSQL "CHECKPOINT" command to remove obsolete data from the *.lobs file where image data are stored.
+     * Executes the HSQL "CHECKPOINT" command. The command writes the changes of the deletion to the database files and
+     * releases the space of the deleted rows.
      *
      * @see https://hsqldb.org/doc/guide/management-chapt.html#mtc_large_objects
-     * @see https://stackoverflow.com/questions/13921277/hsqldb-and-lobs-file-size
-     * @see https://stackoverflow.com/questions/55944703/hsqldb-automatically-perform-checkpoint-after-delete
      *
      * @throws Exception In case the SQL checkpoint command execution fails.
      */
-    @SuppressWarnings("unused")
     private void executeCheckpointCommand() throws Exception {
-        /*
-         * This command causes connection leaks.
-         * Since HSQLDB automatically reuses space of deleted lobs, this command is considered obsolete.
-         */
-        this.nativeSqlDAO.executeStatement("CHECKPOINT;");
+        this.nativeSqlDAO.executeStatement("CHECKPOINT");
+    }
+
+    /**
+     * @return The number of images deleted by the current or last run.
+     */
+    public int getDeletedImages() {
+        return deletedImages;
+    }
+
+    /**
+     * @return The ID up to which the images have been checked by the current or last run. Null, if no images have been
+     *         checked yet.
+     */
+    public Integer getCheckedImageId() {
+        return checkedImageId;
+    }
+
+    /**
+     * Provides the progress of the current or last run.
+     *
+     * @return The progress of the cleanup.
+     */
+    public ImageCleanupMetrics getMetrics() {
+        ImageCleanupMetrics metrics = new ImageCleanupMetrics();
+
+        metrics.setRunning(this.running);
+        metrics.setDeletedImages(this.deletedImages);
+        metrics.setCheckedImageId(this.checkedImageId);
+        metrics.setMaxImageId(this.maxImageId);
+
+        if (metrics.isRunning()) {
+            metrics.setDuration(System.currentTimeMillis() - this.startTime);
+        } else {
+            metrics.setDuration(this.duration);
+        }
+
+        return metrics;
     }
 }
@@ -0,0 +1,103 @@
+package backend.controller;
+
+/**
+ * A snapshot of the progress of the current or last run of the image cleanup.
+ *
+ * @author Michael
+ */
+public class ImageCleanupMetrics {
+    /**
+     * Indicates if a cleanup run is currently performed.
+     */
+    private boolean running;
+
+    /**
+     * The number of images deleted by the current or last run.
+     */
+    private int deletedImages;
+
+    /**
+     * The ID up to which the images have been checked by the current or last run.
+     */
+    private Integer checkedImageId;
+
+    /**
+     * The highest ID of the images checked by the current or last run.
+     */
+    private Integer maxImageId;
+
+    /**
+     * The duration of the current or last run in milliseconds.
+     */
+    private long duration;
+
+    /**
+     * @return the running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @param running the running to set
+     */
+    public void setRunning(final boolean running) {
+        this.running = running;
+    }
+
+    /**
+     * @return the deletedImages
+     */
+    public int getDeletedImages() {
+        return deletedImages;
+    }
+
+    /**
+     * @param deletedImages the deletedImages to set
+     */
+    public void setDeletedImages(final int deletedImages) {
+        this.deletedImages = deletedImages;
+    }
+
+    /**
+     * @return the checkedImageId
+     */
+    public Integer getCheckedImageId() {
+        return checkedImageId;
+    }
+
+    /**
+     * @param checkedImageId the checkedImageId to set
+     */
+    public void setCheckedImageId(final Integer checkedImageId) {
+        this.checkedImageId = checkedImageId;
+    }
+
+    /**
+     * @return the maxImageId
+     */
+    public Integer getMaxImageId() {
+        return maxImageId;
+    }
+
+    /**
+     * @param maxImageId the maxImageId to set
+     */
+    public void setMaxImageId(final Integer maxImageId) {
+        this.maxImageId = maxImageId;
+    }
+
+    /**
+     * @return the duration
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @param duration the duration to set
+     */
+    public void setDuration(final long duration) {
+        this.duration = duration;
+    }
+}
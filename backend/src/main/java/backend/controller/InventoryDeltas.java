@@ -0,0 +1,49 @@
+package backend.controller;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import backend.dao.DAOManager;
+import backend.exception.InsufficientInventoryException;
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryDeltaStatus;
+
+/**
+ * Applies the inventory deltas of an order in a single batch and maps rejected deltas to exceptions.
+ *
+ * If the current thread has an active unit of work, the deltas are written within its transaction. Therefore they are
+ * committed or rolled back together with the order.
+ *
+ * @author Michael
+ */
+final class InventoryDeltas {
+    /**
+     * Constructor not to be used.
+     */
+    private InventoryDeltas() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Applies the given inventory deltas. Either all deltas are applied or none.
+     *
+     * @param deltas The inventory deltas.
+     * @throws InsufficientInventoryException The inventory of a material is less than the quantity to be removed.
+     * @throws Exception                      In case the update of the material inventory fails.
+     */
+    static void apply(final List<InventoryDelta> deltas) throws InsufficientInventoryException, Exception {
+        List<InventoryDeltaStatus> statuses = DAOManager.getInstance().getMaterialDAO().updateInventories(deltas);
+
+        for (int i = 0; i < statuses.size(); i++) {
+            if (statuses.get(i) == InventoryDeltaStatus.INSUFFICIENT_INVENTORY) {
+                throw new InsufficientInventoryException(deltas.get(i).getMaterial());
+            }
+
+            if (statuses.get(i) == InventoryDeltaStatus.MATERIAL_NOT_FOUND) {
+                throw new Exception(MessageFormat.format(ResourceBundle.getBundle("backend").getString(
+                        "material.notFound"), deltas.get(i).getMaterial().getId()));
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package backend.controller;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import backend.dao.DAOManager;
+import backend.dao.InventoryMovementDao;
+import backend.dao.MaterialDao;
+import backend.model.material.InventoryDifference;
+
+/**
+ * Creates the inventory snapshots of all materials and reconciles the inventory of each material with its inventory
+ * movements. Differences are logged as warnings.
+ *
+ * The materials are reconciled in pages. The pages are compared by several threads in parallel. The reconciliation is
+ * performed once on application startup and then once a day in a background thread.
+ *
+ * @author Michael
+ */
+public class InventoryReconciliationController {
+    /**
+     * The number of hours between two reconciliation runs.
+     */
+    private static final long RECONCILIATION_INTERVAL_HOURS = 24;
+
+    /**
+     * The number of minutes a movement has to be appended before it is included in a snapshot. Transactions appending
+     * movements are expected to be finished within this time.
+     */
+    private static final long SNAPSHOT_DELAY_MINUTES = 60;
+
+    /**
+     * The number of materials compared per page.
+     */
+    private static final int PAGE_SIZE = 500;
+
+    /**
+     * The number of threads comparing pages in parallel.
+     */
+    private static final int THREAD_COUNT = 4;
+
+    /**
+     * The DAO to access material data.
+     */
+    private MaterialDao materialDAO;
+
+    /**
+     * The DAO to access inventory movement data.
+     */
+    private InventoryMovementDao inventoryMovementDAO;
+
+    /**
+     * Executes the reconciliation runs.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(InventoryReconciliationController.class);
+
+    /**
+     * Access to localized application resources.
+     */
+    private ResourceBundle resources;
+
+    /**
+     * Initializes the controller.
+     */
+    public InventoryReconciliationController() {
+        this.resources = ResourceBundle.getBundle("backend");
+        this.materialDAO = DAOManager.getInstance().getMaterialDAO();
+        this.inventoryMovementDAO = DAOManager.getInstance().getInventoryMovementDAO();
+    }
+
+    /**
+     * Starts the periodic reconciliation runs in a background thread. The first run is performed immediately.
+     */
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scheduler.scheduleWithFixedDelay(this::createSnapshotsAndReconcile, 0, RECONCILIATION_INTERVAL_HOURS,
+                TimeUnit.HOURS);
+    }
+
+    /**
+     * Stops the periodic reconciliation runs. A running reconciliation is finished before.
+     */
+    public void stop() {
+        if (this.scheduler == null) {
+            return;
+        }
+
+        this.scheduler.shutdown();
+
+        try {
+            this.scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends the opening balances of materials whose inventory has not been journaled yet. This has to be done before
+     * the inventories are changed, otherwise the reconciliation reports differences for these materials.
+     */
+    public void createOpeningBalances() {
+        try {
+            LOGGER.info(MessageFormat.format(
+                    this.resources.getString("inventoryReconciliation.openingBalancesCreated"),
+                    this.inventoryMovementDAO.createOpeningBalances()));
+        } catch (Exception e) {
+            LOGGER.error(this.resources.getString("inventoryReconciliation.openingBalanceError"), e);
+        }
+    }
+
+    /**
+     * Creates the inventory snapshots and reconciles the inventories of all materials afterwards.
+     */
+    public void createSnapshotsAndReconcile() {
+        Date before = new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(SNAPSHOT_DELAY_MINUTES));
+
+        try {
+            LOGGER.info(MessageFormat.format(this.resources.getString("inventoryReconciliation.snapshotsCreated"),
+                    this.inventoryMovementDAO.createSnapshots(before)));
+        } catch (Exception e) {
+            LOGGER.error(this.resources.getString("inventoryReconciliation.snapshotError"), e);
+        }
+
+        this.reconcile();
+    }
+
+    /**
+     * Compares the inventory of all materials with the inventory according to their movements. An error of a single
+     * page does not stop the reconciliation of the other pages.
+     *
+     * @return The materials whose inventory differs from the inventory according to their movements.
+     */
+    public List<InventoryDifference> reconcile() {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        List<Future<List<InventoryDifference>>> pages = new ArrayList<Future<List<InventoryDifference>>>();
+        List<InventoryDifference> differences = new ArrayList<InventoryDifference>();
+        List<Integer> materialIds;
+        Integer afterId = null;
+        int comparedMaterials = 0;
+
+        try {
+            do {
+                materialIds = this.materialDAO.getMaterialIds(afterId, PAGE_SIZE);
+
+                if (!materialIds.isEmpty()) {
+                    List<Integer> pageIds = materialIds;
+                    pages.add(executor.submit(() -> this.inventoryMovementDAO.getInventoryDifferences(pageIds)));
+                    comparedMaterials += materialIds.size();
+                    afterId = materialIds.get(materialIds.size() - 1);
+                }
+            } while (materialIds.size() == PAGE_SIZE);
+
+            for (Future<List<InventoryDifference>> page : pages) {
+                differences.addAll(this.getDifferences(page));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.error(this.resources.getString("material.getMaterialsError"), e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LOGGER.info(MessageFormat.format(this.resources.getString("inventoryReconciliation.finished"),
+                comparedMaterials, differences.size()));
+
+        return differences;
+    }
+
+    /**
+     * Waits for the comparison of a page and logs the differences found.
+     *
+     * @param page The comparison of the page.
+     * @return The differences of the page. Empty, if the comparison failed.
+     * @throws InterruptedException The thread has been interrupted while waiting.
+     */
+    private List<InventoryDifference> getDifferences(final Future<List<InventoryDifference>> page)
+            throws InterruptedException {
+        List<InventoryDifference> differences;
+
+        try {
+            differences = page.get();
+        } catch (ExecutionException e) {
+            LOGGER.error(this.resources.getString("inventoryReconciliation.error"), e.getCause());
+            return new ArrayList<InventoryDifference>();
+        }
+
+        for (InventoryDifference difference : differences) {
+            LOGGER.warn(MessageFormat.format(this.resources.getString("inventoryReconciliation.difference"),
+                    difference.getMaterialId(), difference.getMaterialInventory(), difference.getJournalInventory()));
+        }
+
+        return differences;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.ResourceBundle;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import backend.controller.image.ImageDerivativeGenerator;
 import backend.dao.DAOManager;
 
 /**
@@ -29,6 +30,21 @@ public final class MainController {
      */
     private ResourceBundle resources;
 
+    /**
+     * Creates the balance snapshots of the accounts periodically.
+     */
+    private AccountClosingController accountClosingController;
+
+    /**
+     * Creates the inventory snapshots and reconciles the material inventories periodically.
+     */
+    private InventoryReconciliationController inventoryReconciliationController;
+
+    /**
+     * Deletes images that are not referenced by any master data object periodically.
+     */
+    private ImageCleanupController imageCleanupController;
+
     /**
      * Creates and initializes the main controller.
      */
@@ -54,9 +70,21 @@ public final class MainController {
      */
     public void applicationStartup() {
         DAOManager.getInstance();
-        ImageCleanupController imageCleanupController = new ImageCleanupController();
 
-        imageCleanupController.cleanup();
+        // The opening balances have to be journaled before any inventory is changed.
+        this.inventoryReconciliationController = new InventoryReconciliationController();
+        this.inventoryReconciliationController.createOpeningBalances();
+
+        this.imageCleanupController = new ImageCleanupController();
+        this.imageCleanupController.start();
+
+        ImageDerivativeGenerator.start(DAOManager.getInstance().getImageDAO());
+
+        this.accountClosingController = new AccountClosingController();
+        this.accountClosingController.start();
+
+        this.inventoryReconciliationController.start();
+
         LOGGER.info(this.resources.getString("status.started"));
     }
 
@@ -64,6 +92,20 @@ public final class MainController {
      * Performs tasks on application shutdown.
      */
     public void applicationShutdown() {
+        if (this.accountClosingController != null) {
+            this.accountClosingController.stop();
+        }
+
+        if (this.inventoryReconciliationController != null) {
+            this.inventoryReconciliationController.stop();
+        }
+
+        if (this.imageCleanupController != null) {
+            this.imageCleanupController.stop();
+        }
+
+        ImageDerivativeGenerator.stop();
+
         try {
             DAOManager.getInstance().close();
         } catch (IOException e) {
@@ -73,4 +115,13 @@ public final class MainController {
         // The logger is already disabled here. Workaround: Therefore log to std-out.
         System.out.println(this.resources.getString("status.stopped"));
     }
+
+    /**
+     * Provides the controller of the periodic image cleanup.
+     *
+     * @return The image cleanup controller. Null, if the application has not been started.
+     */
+    public ImageCleanupController getImageCleanupController() {
+        return this.imageCleanupController;
+    }
 }
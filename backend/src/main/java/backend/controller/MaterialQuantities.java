@@ -0,0 +1,149 @@
+package backend.controller;
+
+import java.util.Arrays;
+
+/**
+ * Sums up quantities per material. The material IDs and quantities are stored in primitive arrays, so that no objects
+ * are created per addition. The materials are kept in the order of their first addition.
+ *
+ * @author Michael
+ */
+final class MaterialQuantities {
+    /**
+     * The initial number of slots of the hash table.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Spreads consecutive material IDs over the hash table.
+     */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /**
+     * Mixes the upper bits of the hash into the lower bits that select the slot.
+     */
+    private static final int HASH_SHIFT = 16;
+
+    /**
+     * The hash table. Each slot contains the index of a material plus one. Zero marks an empty slot.
+     */
+    private int[] slots;
+
+    /**
+     * The IDs of the materials in the order of their first addition.
+     */
+    private int[] materialIds;
+
+    /**
+     * The summed up quantities in the order of the materials.
+     */
+    private long[] quantities;
+
+    /**
+     * The number of materials.
+     */
+    private int size;
+
+    /**
+     * Initializes an empty instance.
+     *
+     * @param expectedSize The expected number of materials.
+     */
+    MaterialQuantities(final int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+
+        while (capacity < expectedSize * 2) {
+            capacity = capacity * 2;
+        }
+
+        this.slots = new int[capacity];
+        this.materialIds = new int[capacity / 2];
+        this.quantities = new long[capacity / 2];
+    }
+
+    /**
+     * Adds the given quantity to the quantity of the given material.
+     *
+     * @param materialId The ID of the material.
+     * @param quantity   The quantity to be added. A negative quantity is subtracted.
+     * @return The index of the material.
+     */
+    int add(final int materialId, final long quantity) {
+        int slot = this.getSlot(materialId);
+        int index = this.slots[slot] - 1;
+
+        if (index < 0) {
+            index = this.size++;
+            this.slots[slot] = index + 1;
+            this.materialIds[index] = materialId;
+
+            if (this.size * 2 == this.slots.length) {
+                this.grow();
+            }
+        }
+
+        this.quantities[index] += quantity;
+
+        return index;
+    }
+
+    /**
+     * Provides the number of materials.
+     *
+     * @return The number of materials.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Provides the ID of the material at the given index.
+     *
+     * @param index The index of the material.
+     * @return The ID of the material.
+     */
+    int getMaterialId(final int index) {
+        return this.materialIds[index];
+    }
+
+    /**
+     * Provides the summed up quantity of the material at the given index.
+     *
+     * @param index The index of the material.
+     * @return The quantity.
+     */
+    long getQuantity(final int index) {
+        return this.quantities[index];
+    }
+
+    /**
+     * Determines the slot of the given material. The slot is either occupied by the material or empty.
+     *
+     * @param materialId The ID of the material.
+     * @return The slot.
+     */
+    private int getSlot(final int materialId) {
+        int mask = this.slots.length - 1;
+        int hash = materialId * HASH_MULTIPLIER;
+        int slot = (hash ^ (hash >>> HASH_SHIFT)) & mask;
+
+        while (this.slots[slot] != 0 && this.materialIds[this.slots[slot] - 1] != materialId) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Doubles the capacity. The hash table is rebuilt.
+     */
+    private void grow() {
+        this.slots = new int[this.slots.length * 2];
+        this.materialIds = Arrays.copyOf(this.materialIds, this.slots.length / 2);
+        this.quantities = Arrays.copyOf(this.quantities, this.slots.length / 2);
+
+        for (int i = 0; i < this.size; i++) {
+            this.slots[this.getSlot(this.materialIds[i])] = i + 1;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package backend.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import backend.model.material.InventoryDelta;
+import backend.model.material.Material;
+
+/**
+ * Determines the inventory deltas of the items of an order. Used by the inventory controllers of all order types.
+ *
+ * The changes of an updated order are determined by summing up the quantities of the order items and the database items
+ * per material in a single pass. Materials that are ordered on several items are netted.
+ *
+ * @param <T> The type of the order items.
+ * @author Michael
+ */
+final class OrderDeltas<T> {
+    /**
+     * Creates the inventory delta of an order item.
+     *
+     * @param <T> The type of the order items.
+     */
+    @FunctionalInterface
+    interface DeltaFactory<T> {
+        /**
+         * Creates the inventory delta of the given item.
+         *
+         * @param item     The item whose material inventory is changed.
+         * @param quantity The quantity added to the inventory. A negative quantity is removed from the inventory.
+         * @return The inventory delta.
+         */
+        InventoryDelta create(T item, long quantity);
+    }
+
+    /**
+     * Provides the material of an item.
+     */
+    private final Function<T, Material> material;
+
+    /**
+     * Provides the ordered quantity of an item.
+     */
+    private final ToLongFunction<T> quantity;
+
+    /**
+     * Creates the inventory delta of an item.
+     */
+    private final DeltaFactory<T> deltaFactory;
+
+    /**
+     * Initializes the engine for a type of order items.
+     *
+     * @param material     Provides the material of an item.
+     * @param quantity     Provides the ordered quantity of an item.
+     * @param deltaFactory Creates the inventory delta of an item.
+     */
+    OrderDeltas(final Function<T, Material> material, final ToLongFunction<T> quantity,
+            final DeltaFactory<T> deltaFactory) {
+        this.material = material;
+        this.quantity = quantity;
+        this.deltaFactory = deltaFactory;
+    }
+
+    /**
+     * Determines the inventory deltas of all given items.
+     *
+     * @param items The order items.
+     * @param sign  1 to add the ordered quantities to the inventory; -1 to remove them from the inventory.
+     * @return One delta per item.
+     */
+    List<InventoryDelta> getDeltas(final Collection<T> items, final long sign) {
+        List<InventoryDelta> deltas = new ArrayList<InventoryDelta>(items.size());
+
+        for (T item : items) {
+            deltas.add(this.deltaFactory.create(item, sign * this.quantity.applyAsLong(item)));
+        }
+
+        return deltas;
+    }
+
+    /**
+     * Determines the inventory deltas of an updated order. The delta of a material is the difference between its total
+     * quantity on the items of the order and its total quantity on the database items.
+     *
+     * @param items         The items of the updated order.
+     * @param databaseItems The items of the database state of the order.
+     * @param sign          1 to add an increase of the ordered quantities to the inventory; -1 to remove it from the
+     *                      inventory.
+     * @return One delta per material whose total quantity has changed. The delta references the last item of the
+     *         material; an item of the updated order is preferred.
+     */
+    List<InventoryDelta> getChanges(final Collection<T> items, final Collection<T> databaseItems, final long sign) {
+        MaterialQuantities quantities = new MaterialQuantities(items.size() + databaseItems.size());
+        List<T> materialItems = new ArrayList<T>(items.size() + databaseItems.size());
+        List<InventoryDelta> deltas = new ArrayList<InventoryDelta>();
+
+        this.addItems(quantities, materialItems, databaseItems, -1);
+        this.addItems(quantities, materialItems, items, 1);
+
+        for (int i = 0; i < quantities.size(); i++) {
+            if (quantities.getQuantity(i) != 0) {
+                deltas.add(this.deltaFactory.create(materialItems.get(i), sign * quantities.getQuantity(i)));
+            }
+        }
+
+        return deltas;
+    }
+
+    /**
+     * Adds the quantities of the given items to the quantities of their materials.
+     *
+     * @param quantities    The quantities per material.
+     * @param materialItems The last item of each material in the order of the quantities.
+     * @param items         The items to be added.
+     * @param sign          1 to add the quantities; -1 to subtract them.
+     */
+    private void addItems(final MaterialQuantities quantities, final List<T> materialItems, final Collection<T> items,
+            final long sign) {
+
+        for (T item : items) {
+            int index = quantities.add(this.material.apply(item).getId(), sign * this.quantity.applyAsLong(item));
+
+            if (index == materialItems.size()) {
+                materialItems.add(item);
+            } else {
+                materialItems.set(index, item);
+            }
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package backend.controller;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import backend.dao.BillOfMaterialDao;
 import backend.dao.DAOManager;
-import backend.dao.MaterialDao;
-import backend.model.billOfMaterial.BillOfMaterial;
-import backend.model.billOfMaterial.BillOfMaterialItem;
+import backend.exception.InsufficientInventoryException;
+import backend.model.billOfMaterial.BillOfMaterialExplosion;
+import backend.model.billOfMaterial.BillOfMaterialGraph;
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryMovementType;
 import backend.model.material.Material;
 import backend.model.productionOrder.ProductionOrder;
 import backend.model.productionOrder.ProductionOrderItem;
@@ -26,21 +28,20 @@ public class ProductionOrderInventoryController {
      *
      * @param productionOrder         The production order being updated.
      * @param databaseProductionOrder The database state of the production order before the update has been performed.
-     * @throws Exception In case the update of the material inventory fails.
+     * @throws InsufficientInventoryException The inventory of a material is less than the quantity to be removed.
+     * @throws Exception                      In case the update of the material inventory fails.
      */
     public void updateMaterialInventoryOnOrderUpdate(final ProductionOrder productionOrder,
-            final ProductionOrder databaseProductionOrder) throws Exception {
+            final ProductionOrder databaseProductionOrder) throws InsufficientInventoryException, Exception {
         if (databaseProductionOrder.getStatus() != ProductionOrderStatus.FINISHED
                 && productionOrder.getStatus() == ProductionOrderStatus.FINISHED) {
-            this.updateMaterialInventoryForOrder(productionOrder, true);
-            this.updateMaterialInventoryForBom(productionOrder, false);
+            this.updateMaterialInventory(productionOrder, true);
             return;
         }
 
         if (databaseProductionOrder.getStatus() == ProductionOrderStatus.FINISHED
                 && productionOrder.getStatus() != ProductionOrderStatus.FINISHED) {
-            this.updateMaterialInventoryForOrder(productionOrder, false);
-            this.updateMaterialInventoryForBom(productionOrder, true);
+            this.updateMaterialInventory(productionOrder, false);
             return;
         }
     }
@@ -49,83 +50,94 @@ public class ProductionOrderInventoryController {
      * Updates the material inventory on deletion of a production order.
      *
      * @param productionOrder The production order that is being deleted.
-     * @throws Exception In case the update of the material inventory fails.
+     * @throws InsufficientInventoryException The inventory of a material is less than the quantity to be removed.
+     * @throws Exception                      In case the update of the material inventory fails.
      */
-    public void updateMaterialInventoryOnOrderDeletion(final ProductionOrder productionOrder) throws Exception {
+    public void updateMaterialInventoryOnOrderDeletion(final ProductionOrder productionOrder)
+            throws InsufficientInventoryException, Exception {
         if (productionOrder.getStatus() == ProductionOrderStatus.FINISHED) {
-            this.updateMaterialInventoryForOrder(productionOrder, false);
-            this.updateMaterialInventoryForBom(productionOrder, true);
+            this.updateMaterialInventory(productionOrder, false);
         }
     }
 
     /**
-     * Updates the material inventory quantities for the whole production order. The quantities of the production order
-     * items are updated.
+     * Updates the material inventory for the whole production order. The inventory of the produced materials and the
+     * inventory of the materials used for production are updated in a single batch.
      *
      * @param productionOrder The production order of which the material quantities are updated.
-     * @param add             Add order quantities to inventory if true; remove order quantities from inventory if
-     *                        false.
-     * @throws Exception In case the update of the material inventory fails.
+     * @param produce         Add the produced quantities to the inventory and remove the materials used for
+     *                        production if true; revert the production if false.
+     * @throws InsufficientInventoryException The inventory of a material is less than the quantity to be removed.
+     * @throws Exception                      In case the update of the material inventory fails.
      */
-    private void updateMaterialInventoryForOrder(final ProductionOrder productionOrder, final boolean add)
-            throws Exception {
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
-        Material currentMaterial;
+    private void updateMaterialInventory(final ProductionOrder productionOrder, final boolean produce)
+            throws InsufficientInventoryException, Exception {
+        long sign = produce ? 1 : -1;
+        List<InventoryDelta> deltas = this.getOrderDeltas(productionOrder).getDeltas(productionOrder.getItems(), sign);
 
-        for (ProductionOrderItem item : productionOrder.getItems()) {
-            currentMaterial = item.getMaterial();
+        deltas.addAll(this.getBomDeltas(productionOrder, -sign));
+        InventoryDeltas.apply(deltas);
+    }
 
-            if (add) {
-                currentMaterial.setInventory(currentMaterial.getInventory() + item.getQuantity());
-            } else {
-                currentMaterial.setInventory(currentMaterial.getInventory() - item.getQuantity());
-            }
-            materialDAO.updateMaterial(currentMaterial);
-        }
+    /**
+     * Provides the engine determining the inventory deltas of the items of the production order.
+     *
+     * @param productionOrder The production order.
+     * @return The engine.
+     */
+    private OrderDeltas<ProductionOrderItem> getOrderDeltas(final ProductionOrder productionOrder) {
+        return new OrderDeltas<ProductionOrderItem>(ProductionOrderItem::getMaterial, ProductionOrderItem::getQuantity,
+                (item, quantity) -> new InventoryDelta(item.getMaterial(), quantity,
+                        InventoryMovementType.PRODUCTION_ORDER, productionOrder.getId(), item.getId()));
     }
 
     /**
-     * Updates the inventory of the materials that are used for production. The quantities defined in the bill of
-     * material of the production order items are updated.
+     * Determines the inventory deltas of the materials that are used for production. The bill of material of each
+     * production order item is exploded over all levels, so the components of sub-assemblies are used.
      *
-     * @param productionOrder The production order of which the material quantities are updated.
-     * @param add             Add BOM quantities to inventory if true; remove BOM quantities from inventory if false.
-     * @throws Exception In case the update of the material inventory fails.
+     * @param productionOrder The production order.
+     * @param sign            1 to add the BOM quantities to the inventory; -1 to remove them from the inventory.
+     * @return The inventory deltas of the materials used for production.
+     * @throws Exception In case the bills of material can not be read.
      */
-    private void updateMaterialInventoryForBom(final ProductionOrder productionOrder, final boolean add)
+    private List<InventoryDelta> getBomDeltas(final ProductionOrder productionOrder, final long sign)
             throws Exception {
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
-        BillOfMaterialDao billOfMaterialDAO = DAOManager.getInstance().getBillOfMaterialDAO();
-        Material currentMaterial;
-        List<BillOfMaterial> billOfMaterials;
-        BillOfMaterial billOfMaterial;
+        BillOfMaterialGraph billOfMaterialGraph = DAOManager.getInstance().getBillOfMaterialDAO()
+                .getBillOfMaterialGraph();
+        List<InventoryDelta> deltas = new ArrayList<InventoryDelta>();
+        BillOfMaterialExplosion explosion;
 
         for (ProductionOrderItem item : productionOrder.getItems()) {
-            // 1. Get the bill of material of the produced order item. The bill of material defines which materials are
-            // used for production.
-            billOfMaterials = billOfMaterialDAO.getBillOfMaterials(item.getMaterial());
+            // ProductionOrderService assures that a BOM exists when updating. Without a BOM the explosion is empty.
+            explosion = billOfMaterialGraph.explode(item.getMaterial().getId());
 
-            if (billOfMaterials.size() == 0) {
-                continue; // Prevents null pointer errors; just in case. ProductionOrderService assures that a BOM
-                          // exists when updating.
+            for (int i = 0; i < explosion.size(); i++) {
+                deltas.add(new InventoryDelta(this.getComponent(billOfMaterialGraph, explosion.getMaterialId(i)),
+                        sign * explosion.getQuantity(i) * item.getQuantity(), InventoryMovementType.PRODUCTION_ORDER,
+                        productionOrder.getId(), item.getId()));
             }
+        }
 
-            billOfMaterial = billOfMaterials.get(0);
+        return deltas;
+    }
 
-            // 2. Update the quantities of all materials that are used to produce the production order item.
-            for (BillOfMaterialItem bomItem : billOfMaterial.getItems()) {
-                currentMaterial = bomItem.getMaterial();
+    /**
+     * Provides a copy of a component of the bill of material graph. The components of the graph are shared and must
+     * not be modified by the inventory update.
+     *
+     * @param billOfMaterialGraph The bill of material graph.
+     * @param materialId          The ID of the component.
+     * @return The copy of the component.
+     */
+    private Material getComponent(final BillOfMaterialGraph billOfMaterialGraph, final int materialId) {
+        Material component = billOfMaterialGraph.getComponent(materialId);
+        Material copy = new Material();
 
-                if (add) {
-                    currentMaterial.setInventory(
-                            currentMaterial.getInventory() + (bomItem.getQuantity() * item.getQuantity()));
-                } else {
-                    currentMaterial.setInventory(
-                            currentMaterial.getInventory() - (bomItem.getQuantity() * item.getQuantity()));
-                }
+        copy.setId(component.getId());
+        copy.setName(component.getName());
+        copy.setUnit(component.getUnit());
+        copy.setInventory(component.getInventory());
 
-                materialDAO.updateMaterial(currentMaterial);
-            }
-        }
+        return copy;
     }
 }
@@ -1,11 +1,10 @@
 package backend.controller;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
-import backend.dao.DAOManager;
-import backend.dao.MaterialDao;
-import backend.model.material.Material;
+import backend.exception.InsufficientInventoryException;
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryMovementType;
 import backend.model.purchaseOrder.PurchaseOrder;
 import backend.model.purchaseOrder.PurchaseOrderItem;
 import backend.model.purchaseOrder.PurchaseOrderStatus;
@@ -24,10 +23,11 @@ public class PurchaseOrderInventoryController {
      *
      * @param purchaseOrder         The purchase order being updated.
      * @param databasePurchaseOrder The database state of the purchase order before the update has been performed.
-     * @throws Exception In case the update of the material inventory fails.
+     * @throws InsufficientInventoryException The inventory of a material is less than the quantity to be removed.
+     * @throws Exception                      In case the update of the material inventory fails.
      */
     public void updateMaterialInventoryOnOrderUpdate(final PurchaseOrder purchaseOrder,
-            final PurchaseOrder databasePurchaseOrder) throws Exception {
+            final PurchaseOrder databasePurchaseOrder) throws InsufficientInventoryException, Exception {
         // If the GOODS_RECEIPT status changes from inactive to active, the ordered materials are added to the
         // inventory.
         if (!databasePurchaseOrder.isStatusActive(PurchaseOrderStatus.GOODS_RECEIPT)
@@ -73,9 +73,11 @@ public class PurchaseOrderInventoryController {
      * Updates the material inventory on deletion of a purchase order.
      *
      * @param purchaseOrder The purchase order that is being deleted.
-     * @throws Exception In case the update of the material inventory fails.
+     * @throws InsufficientInventoryException The inventory of a material is less than the quantity to be removed.
+     * @throws Exception                      In case the update of the material inventory fails.
      */
-    public void updateMaterialInventoryOnOrderDeletion(final PurchaseOrder purchaseOrder) throws Exception {
+    public void updateMaterialInventoryOnOrderDeletion(final PurchaseOrder purchaseOrder)
+            throws InsufficientInventoryException, Exception {
         // If the GOODS_RECEIPT status is active, the ordered material quantities have to be reduced from the inventory.
         if (purchaseOrder.isStatusActive(PurchaseOrderStatus.GOODS_RECEIPT)) {
             this.reduceMaterialInventoryForOrder(purchaseOrder);
@@ -89,31 +91,23 @@ public class PurchaseOrderInventoryController {
      * @throws Exception In case the update of the material inventory fails.
      */
     private void addMaterialInventoryForOrder(final PurchaseOrder purchaseOrder) throws Exception {
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
-        Material currentMaterial;
+        List<InventoryDelta> deltas = this.getOrderDeltas(purchaseOrder).getDeltas(purchaseOrder.getItems(), 1);
 
-        for (PurchaseOrderItem item : purchaseOrder.getItems()) {
-            currentMaterial = item.getMaterial();
-            currentMaterial.setInventory(currentMaterial.getInventory() + item.getQuantity());
-            materialDAO.updateMaterial(currentMaterial);
-        }
+        InventoryDeltas.apply(deltas);
     }
 
     /**
      * Reduces the inventory of the materials that are ordered.
      *
      * @param purchaseOrder The purchase order whose material inventories have to be reduced.
-     * @throws Exception In case the update of the material inventory fails.
+     * @throws InsufficientInventoryException The inventory of a material is less than the ordered quantity.
+     * @throws Exception                      In case the update of the material inventory fails.
      */
-    private void reduceMaterialInventoryForOrder(final PurchaseOrder purchaseOrder) throws Exception {
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
-        Material currentMaterial;
-
-        for (PurchaseOrderItem item : purchaseOrder.getItems()) {
-            currentMaterial = item.getMaterial();
-            currentMaterial.setInventory(currentMaterial.getInventory() - item.getQuantity());
-            materialDAO.updateMaterial(currentMaterial);
-        }
+    private void reduceMaterialInventoryForOrder(final PurchaseOrder purchaseOrder)
+            throws InsufficientInventoryException, Exception {
+        List<InventoryDelta> deltas = this.getOrderDeltas(purchaseOrder).getDeltas(purchaseOrder.getItems(), -1);
+
+        InventoryDeltas.apply(deltas);
     }
 
     /**
@@ -122,111 +116,39 @@ public class PurchaseOrderInventoryController {
      *
      * @param purchaseOrder         The current state of the PurchaseOrder.
      * @param databasePurchaseOrder The database state of the PurchaseOrder.
-     * @throws Exception In case the update of the material inventory fails.
+     * @throws InsufficientInventoryException The inventory of a material is less than the reduced quantity.
+     * @throws Exception                      In case the update of the material inventory fails.
      */
     private void updateMaterialInventoryForItems(final PurchaseOrder purchaseOrder,
-            final PurchaseOrder databasePurchaseOrder) throws Exception {
-        HashMap<Integer, Long> additions = this.getMaterialAdditions(purchaseOrder, databasePurchaseOrder);
-        HashMap<Integer, Long> reductions = this.getMaterialReductions(purchaseOrder, databasePurchaseOrder);
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
-        Material currentMaterial;
-
-        // Increase the material inventory by the additionally ordered quantities.
-        for (Map.Entry<Integer, Long> entry : additions.entrySet()) {
-            currentMaterial = materialDAO.getMaterial(entry.getKey());
-            currentMaterial.setInventory(currentMaterial.getInventory() + entry.getValue());
-            materialDAO.updateMaterial(currentMaterial);
-        }
+            final PurchaseOrder databasePurchaseOrder) throws InsufficientInventoryException, Exception {
+        List<InventoryDelta> deltas = this.getOrderDeltas(purchaseOrder).getChanges(purchaseOrder.getItems(),
+                databasePurchaseOrder.getItems(), 1);
 
-        // Decrease the material inventory by the reduced ordered quantities.
-        for (Map.Entry<Integer, Long> entry : reductions.entrySet()) {
-            currentMaterial = materialDAO.getMaterial(entry.getKey());
-            currentMaterial.setInventory(currentMaterial.getInventory() - entry.getValue());
-            materialDAO.updateMaterial(currentMaterial);
-        }
+        InventoryDeltas.apply(deltas);
     }
 
     /**
-     * Compares the database state of the purchase order with the given purchase order. All material additions of the
-     * purchase order are returned.
+     * Provides the engine determining the inventory deltas of the items of the purchase order.
      *
-     * @param purchaseOrder         The purchase order that is being checked for additions.
-     * @param databasePurchaseOrder The database version of the purchase order.
-     * @return The IDs and quantities of all materials that have their quantities increased compared to the database
-     *         state.
+     * @param purchaseOrder The purchase order.
+     * @return The engine.
      */
-    private HashMap<Integer, Long> getMaterialAdditions(final PurchaseOrder purchaseOrder,
-            final PurchaseOrder databasePurchaseOrder) {
-        HashMap<Integer, Long> additions = new HashMap<Integer, Long>(); // <MaterialId, Quantity>
-        boolean materialExistsInDatabaseItem;
-        Long databaseItemQuantity;
-
-        for (PurchaseOrderItem tempOrderItem : purchaseOrder.getItems()) {
-            materialExistsInDatabaseItem = false;
-            databaseItemQuantity = Long.valueOf(0);
-
-            for (PurchaseOrderItem tempDatabaseItem : databasePurchaseOrder.getItems()) {
-                if (tempDatabaseItem.getMaterial().getId().intValue() == tempOrderItem.getMaterial().getId()
-                        .intValue()) {
-                    materialExistsInDatabaseItem = true;
-                    databaseItemQuantity = databaseItemQuantity + tempDatabaseItem.getQuantity();
-                }
-            }
-
-            // Add quantities for a new material.
-            if (!materialExistsInDatabaseItem) {
-                additions.put(tempOrderItem.getMaterial().getId(), tempOrderItem.getQuantity());
-            }
-
-            if (materialExistsInDatabaseItem && tempOrderItem.getQuantity() > databaseItemQuantity) {
-                // Determine possible additional quantities of an existing material.
-                additions.put(tempOrderItem.getMaterial().getId(), tempOrderItem.getQuantity() - databaseItemQuantity);
-            }
-        }
-
-        return additions;
+    private OrderDeltas<PurchaseOrderItem> getOrderDeltas(final PurchaseOrder purchaseOrder) {
+        return new OrderDeltas<PurchaseOrderItem>(PurchaseOrderItem::getMaterial, PurchaseOrderItem::getQuantity,
+                (item, quantity) -> this.getDelta(purchaseOrder, item, quantity));
     }
 
     /**
-     * Compares the database state of the purchase order with the given purchase order. All material reductions of the
-     * purchase order are returned.
+     * Creates the inventory delta of an item of the purchase order.
      *
-     * @param purchaseOrder         The purchase order that is being checked for reductions.
-     * @param databasePurchaseOrder The database version of the purchase order.
-     * @return The IDs and quantities of all materials that have their quantities reduced compared to the database
-     *         state.
+     * @param purchaseOrder The purchase order.
+     * @param item          The item whose material inventory is changed.
+     * @param quantity      The quantity added to the inventory. A negative quantity is removed from the inventory.
+     * @return The inventory delta.
      */
-    private HashMap<Integer, Long> getMaterialReductions(final PurchaseOrder purchaseOrder,
-            final PurchaseOrder databasePurchaseOrder) {
-        HashMap<Integer, Long> reductions = new HashMap<Integer, Long>(); // <MaterialId, Quantity>
-        boolean materialExistsInOrderItem;
-        Long orderItemQuantity;
-
-        for (PurchaseOrderItem tempDatabaseItem : databasePurchaseOrder.getItems()) {
-            materialExistsInOrderItem = false;
-            orderItemQuantity = Long.valueOf(0);
-
-            for (PurchaseOrderItem tempOrderItem : purchaseOrder.getItems()) {
-                if (tempDatabaseItem.getMaterial().getId().intValue() == tempOrderItem.getMaterial().getId()
-                        .intValue()) {
-                    materialExistsInOrderItem = true;
-                    orderItemQuantity = orderItemQuantity + tempOrderItem.getQuantity();
-                }
-
-            }
-
-            // Add quantities for a removed material.
-            if (!materialExistsInOrderItem) {
-                reductions.put(tempDatabaseItem.getMaterial().getId(), tempDatabaseItem.getQuantity());
-            }
-
-            if (materialExistsInOrderItem && tempDatabaseItem.getQuantity() > orderItemQuantity) {
-                // Determine possible quantity reductions of an existing material.
-                reductions.put(tempDatabaseItem.getMaterial().getId(),
-                        tempDatabaseItem.getQuantity() - orderItemQuantity);
-            }
-        }
-
-        return reductions;
+    private InventoryDelta getDelta(final PurchaseOrder purchaseOrder, final PurchaseOrderItem item,
+            final long quantity) {
+        return new InventoryDelta(item.getMaterial(), quantity, InventoryMovementType.PURCHASE_ORDER,
+                purchaseOrder.getId(), item.getId());
     }
 }
@@ -2,7 +2,6 @@ package backend.controller;
 
 import backend.dao.AccountDao;
 import backend.dao.DAOManager;
-import backend.exception.ObjectUnchangedException;
 import backend.model.account.Account;
 import backend.model.account.Posting;
 import backend.model.account.PostingType;
@@ -68,33 +67,26 @@ public class PurchaseOrderPaymentController {
      * Removes the total price of the purchase order from the referenced payment account.
      *
      * @param purchaseOrder The purchase order.
-     * @throws Exception                Update of the account failed.
-     * @throws ObjectUnchangedException The account has not been changed.
+     * @throws Exception Booking of the posting failed.
      */
-    private void reduceAccountBalance(final PurchaseOrder purchaseOrder) throws ObjectUnchangedException, Exception {
+    private void reduceAccountBalance(final PurchaseOrder purchaseOrder) throws Exception {
         AccountDao accountDAO = DAOManager.getInstance().getAccountDAO();
         Account paymentAccount = purchaseOrder.getPaymentAccount();
 
-        paymentAccount
-                .setBalance(purchaseOrder.getPaymentAccount().getBalance().subtract(purchaseOrder.getPriceTotal()));
-        paymentAccount.getPostings().add(this.getPosting(purchaseOrder, PostingType.DISBURSAL));
-        accountDAO.updateAccount(paymentAccount);
+        accountDAO.bookPosting(paymentAccount, this.getPosting(purchaseOrder, PostingType.DISBURSAL));
     }
 
     /**
      * Increases the balance of the referenced payment account by the total price of the purchase order.
      *
      * @param purchaseOrder The purchase order.
-     * @throws Exception                Update of the account failed.
-     * @throws ObjectUnchangedException The account has not been changed.
+     * @throws Exception Booking of the posting failed.
      */
-    public void increaseAccountBalance(final PurchaseOrder purchaseOrder) throws ObjectUnchangedException, Exception {
+    public void increaseAccountBalance(final PurchaseOrder purchaseOrder) throws Exception {
         AccountDao accountDAO = DAOManager.getInstance().getAccountDAO();
         Account paymentAccount = purchaseOrder.getPaymentAccount();
 
-        paymentAccount.setBalance(purchaseOrder.getPaymentAccount().getBalance().add(purchaseOrder.getPriceTotal()));
-        paymentAccount.getPostings().add(this.getPosting(purchaseOrder, PostingType.RECEIPT));
-        accountDAO.updateAccount(paymentAccount);
+        accountDAO.bookPosting(paymentAccount, this.getPosting(purchaseOrder, PostingType.RECEIPT));
     }
 
     /**
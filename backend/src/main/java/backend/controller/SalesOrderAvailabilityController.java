@@ -0,0 +1,86 @@
+package backend.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import backend.dao.DAOManager;
+import backend.exception.QuantityExceedsAvailabilityException;
+import backend.model.material.InventoryDelta;
+import backend.model.salesOrder.SalesOrder;
+import backend.model.salesOrder.SalesOrderItem;
+import backend.model.salesOrder.SalesOrderStatus;
+
+/**
+ * Checks the availability of the materials ordered by sales orders.
+ *
+ * A sales order removes the ordered quantities from the inventory. The inventory may however already be promised to
+ * open production orders that require the material as component at a later date. Therefore the additionally ordered
+ * quantity of each material must not exceed the quantity that is available at the requested delivery date.
+ *
+ * @author Michael
+ */
+public class SalesOrderAvailabilityController {
+    /**
+     * Checks if the quantities additionally required by the sales order are available at its requested delivery date.
+     *
+     * @param salesOrder         The sales order being added or updated.
+     * @param databaseSalesOrder The database state of the sales order before the update. Null, if the sales order is
+     *                           added.
+     * @throws QuantityExceedsAvailabilityException The additionally ordered quantity of an item is not available.
+     * @throws Exception                            In case the availability can not be determined.
+     */
+    public void checkAvailability(final SalesOrder salesOrder, final SalesOrder databaseSalesOrder)
+            throws QuantityExceedsAvailabilityException, Exception {
+        Map<Integer, Long> requiredQuantities = new HashMap<Integer, Long>();
+        Map<Integer, Long> availableQuantities;
+
+        // A canceled sales order does not require any material.
+        if (salesOrder.getStatus() == SalesOrderStatus.CANCELED) {
+            return;
+        }
+
+        for (InventoryDelta delta : this.getDeltas(salesOrder, databaseSalesOrder)) {
+            if (delta.getQuantity() < 0) {
+                requiredQuantities.put(delta.getMaterial().getId(), -delta.getQuantity());
+            }
+        }
+
+        if (requiredQuantities.isEmpty()) {
+            return;
+        }
+
+        availableQuantities = DAOManager.getInstance().getAvailabilityDAO()
+                .getAvailableQuantities(requiredQuantities.keySet(), salesOrder.getRequestedDeliveryDate());
+
+        for (SalesOrderItem item : salesOrder.getItems()) {
+            Integer materialId = item.getMaterial().getId();
+
+            if (requiredQuantities.containsKey(materialId)
+                    && requiredQuantities.get(materialId) > availableQuantities.get(materialId)) {
+                throw new QuantityExceedsAvailabilityException(item, availableQuantities.get(materialId));
+            }
+        }
+    }
+
+    /**
+     * Determines the inventory deltas of the sales order in the same way as the SalesOrderInventoryController. The
+     * quantities of materials ordered on several items are netted.
+     *
+     * @param salesOrder         The sales order being added or updated.
+     * @param databaseSalesOrder The database state of the sales order before the update. Null, if the sales order is
+     *                           added.
+     * @return One delta per material whose ordered quantity changes.
+     */
+    private List<InventoryDelta> getDeltas(final SalesOrder salesOrder, final SalesOrder databaseSalesOrder) {
+        OrderDeltas<SalesOrderItem> orderDeltas = new OrderDeltas<SalesOrderItem>(SalesOrderItem::getMaterial,
+                SalesOrderItem::getQuantity, (item, quantity) -> new InventoryDelta(item.getMaterial(), quantity));
+
+        if (databaseSalesOrder == null) {
+            return orderDeltas.getChanges(salesOrder.getItems(), new ArrayList<SalesOrderItem>(), -1);
+        }
+
+        return orderDeltas.getChanges(salesOrder.getItems(), databaseSalesOrder.getItems(), -1);
+    }
+}
@@ -1,11 +1,11 @@
 package backend.controller;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
-import backend.dao.DAOManager;
-import backend.dao.MaterialDao;
-import backend.model.material.Material;
+import backend.exception.InsufficientInventoryException;
+import backend.exception.QuantityExceedsInventoryException;
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryMovementType;
 import backend.model.salesOrder.SalesOrder;
 import backend.model.salesOrder.SalesOrderItem;
 import backend.model.salesOrder.SalesOrderStatus;
@@ -23,17 +23,14 @@ public class SalesOrderInventoryController {
      * Reduces the inventory of the materials that are ordered.
      *
      * @param salesOrder The sales order whose material inventories have to be reduced.
-     * @throws Exception In case the update of the material inventory fails.
+     * @throws QuantityExceedsInventoryException The ordered quantity of an item exceeds the inventory.
+     * @throws Exception                         In case the update of the material inventory fails.
      */
-    public void reduceMaterialInventory(final SalesOrder salesOrder) throws Exception {
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
-        Material currentMaterial;
+    public void reduceMaterialInventory(final SalesOrder salesOrder)
+            throws QuantityExceedsInventoryException, Exception {
+        List<InventoryDelta> deltas = this.getOrderDeltas(salesOrder).getDeltas(salesOrder.getItems(), -1);
 
-        for (SalesOrderItem item : salesOrder.getItems()) {
-            currentMaterial = item.getMaterial();
-            currentMaterial.setInventory(currentMaterial.getInventory() - item.getQuantity());
-            materialDAO.updateMaterial(currentMaterial);
-        }
+        this.applyDeltas(salesOrder, deltas);
     }
 
     /**
@@ -43,14 +40,9 @@ public class SalesOrderInventoryController {
      * @throws Exception In case the update of the material inventory fails.
      */
     public void addMaterialInventoryForOrder(final SalesOrder salesOrder) throws Exception {
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
-        Material currentMaterial;
+        List<InventoryDelta> deltas = this.getOrderDeltas(salesOrder).getDeltas(salesOrder.getItems(), 1);
 
-        for (SalesOrderItem item : salesOrder.getItems()) {
-            currentMaterial = item.getMaterial();
-            currentMaterial.setInventory(currentMaterial.getInventory() + item.getQuantity());
-            materialDAO.updateMaterial(currentMaterial);
-        }
+        this.applyDeltas(salesOrder, deltas);
     }
 
     /**
@@ -58,10 +50,11 @@ public class SalesOrderInventoryController {
      *
      * @param salesOrder         The sales order being updated.
      * @param databaseSalesOrder The database state of the sales order before the update has been performed.
-     * @throws Exception In case the update of the material inventory fails.
+     * @throws QuantityExceedsInventoryException The additionally ordered quantity of an item exceeds the inventory.
+     * @throws Exception                         In case the update of the material inventory fails.
      */
     public void updateMaterialInventory(final SalesOrder salesOrder, final SalesOrder databaseSalesOrder)
-            throws Exception {
+            throws QuantityExceedsInventoryException, Exception {
         // If the sales order status changes to "Canceled", the ordered quantities are added back to the inventory.
         if (databaseSalesOrder.getStatus() != SalesOrderStatus.CANCELED
                 && salesOrder.getStatus() == SalesOrderStatus.CANCELED) {
@@ -81,108 +74,57 @@ public class SalesOrderInventoryController {
      * @throws Exception In case the update of the material inventory fails.
      */
     private void updateMaterialInventoryForItems(final SalesOrder salesOrder, final SalesOrder databaseSalesOrder)
-            throws Exception {
-        HashMap<Integer, Long> additions = this.getMaterialAdditions(salesOrder, databaseSalesOrder);
-        HashMap<Integer, Long> reductions = this.getMaterialReductions(salesOrder, databaseSalesOrder);
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
-        Material currentMaterial;
+            throws QuantityExceedsInventoryException, Exception {
+        List<InventoryDelta> deltas = this.getOrderDeltas(salesOrder).getChanges(salesOrder.getItems(),
+                databaseSalesOrder.getItems(), -1);
 
-        // Reduce the material inventory by the additionally ordered quantities.
-        for (Map.Entry<Integer, Long> entry : additions.entrySet()) {
-            currentMaterial = materialDAO.getMaterial(entry.getKey());
-            currentMaterial.setInventory(currentMaterial.getInventory() - entry.getValue());
-            materialDAO.updateMaterial(currentMaterial);
-        }
-
-        // Increase the material inventory by the reduced ordered quantities.
-        for (Map.Entry<Integer, Long> entry : reductions.entrySet()) {
-            currentMaterial = materialDAO.getMaterial(entry.getKey());
-            currentMaterial.setInventory(currentMaterial.getInventory() + entry.getValue());
-            materialDAO.updateMaterial(currentMaterial);
-        }
+        this.applyDeltas(salesOrder, deltas);
     }
 
     /**
-     * Compares the database state of the sales order with the given sales order. All material additions of the sales
-     * order are returned.
+     * Provides the engine determining the inventory deltas of the items of the sales order.
      *
-     * @param salesOrder         The sales order that is being checked for additions.
-     * @param databaseSalesOrder The database version of the sales order.
-     * @return The IDs and quantities of all materials that have their quantities increased compared to the database
-     *         state.
+     * @param salesOrder The sales order.
+     * @return The engine.
      */
-    private HashMap<Integer, Long> getMaterialAdditions(final SalesOrder salesOrder,
-            final SalesOrder databaseSalesOrder) {
-        HashMap<Integer, Long> additions = new HashMap<Integer, Long>(); // <MaterialId, Quantity>
-        boolean materialExistsInDatabaseItem;
-        Long databaseItemQuantity;
-
-        for (SalesOrderItem tempOrderItem : salesOrder.getItems()) {
-            materialExistsInDatabaseItem = false;
-            databaseItemQuantity = Long.valueOf(0);
-
-            for (SalesOrderItem tempDatabaseItem : databaseSalesOrder.getItems()) {
-                if (tempDatabaseItem.getMaterial().getId().intValue() == tempOrderItem.getMaterial().getId()
-                        .intValue()) {
-                    materialExistsInDatabaseItem = true;
-                    databaseItemQuantity = databaseItemQuantity + tempDatabaseItem.getQuantity();
-                }
-            }
-
-            // Add quantities for a new material.
-            if (!materialExistsInDatabaseItem) {
-                additions.put(tempOrderItem.getMaterial().getId(), tempOrderItem.getQuantity());
-            }
-
-            if (materialExistsInDatabaseItem && tempOrderItem.getQuantity() > databaseItemQuantity) {
-                // Determine possible additional quantities of an existing material.
-                additions.put(tempOrderItem.getMaterial().getId(), tempOrderItem.getQuantity() - databaseItemQuantity);
-            }
-        }
-
-        return additions;
+    private OrderDeltas<SalesOrderItem> getOrderDeltas(final SalesOrder salesOrder) {
+        return new OrderDeltas<SalesOrderItem>(SalesOrderItem::getMaterial, SalesOrderItem::getQuantity,
+                (item, quantity) -> this.getDelta(salesOrder, item, quantity));
     }
 
     /**
-     * Compares the database state of the sales order with the given sales order. All material reductions of the sales
-     * order are returned.
+     * Creates the inventory delta of an item of the sales order.
      *
-     * @param salesOrder         The sales order that is being checked for reductions.
-     * @param databaseSalesOrder The database version of the sales order.
-     * @return The IDs and quantities of all materials that have their quantities reduced compared to the database
-     *         state.
+     * @param salesOrder The sales order.
+     * @param item       The item whose material inventory is changed.
+     * @param quantity   The quantity added to the inventory. A negative quantity is removed from the inventory.
+     * @return The inventory delta.
      */
-    private HashMap<Integer, Long> getMaterialReductions(final SalesOrder salesOrder,
-            final SalesOrder databaseSalesOrder) {
-        HashMap<Integer, Long> reductions = new HashMap<Integer, Long>(); // <MaterialId, Quantity>
-        boolean materialExistsInOrderItem;
-        Long orderItemQuantity;
-
-        for (SalesOrderItem tempDatabaseItem : databaseSalesOrder.getItems()) {
-            materialExistsInOrderItem = false;
-            orderItemQuantity = Long.valueOf(0);
+    private InventoryDelta getDelta(final SalesOrder salesOrder, final SalesOrderItem item, final long quantity) {
+        return new InventoryDelta(item.getMaterial(), quantity, InventoryMovementType.SALES_ORDER, salesOrder.getId(),
+                item.getId());
+    }
 
-            for (SalesOrderItem tempOrderItem : salesOrder.getItems()) {
-                if (tempDatabaseItem.getMaterial().getId().intValue() == tempOrderItem.getMaterial().getId()
-                        .intValue()) {
-                    materialExistsInOrderItem = true;
-                    orderItemQuantity = orderItemQuantity + tempOrderItem.getQuantity();
+    /**
+     * Applies the inventory deltas of the sales order. A rejected delta is mapped to the item of the sales order.
+     *
+     * @param salesOrder The sales order.
+     * @param deltas     The inventory deltas of the sales order.
+     * @throws QuantityExceedsInventoryException The ordered quantity of an item exceeds the inventory.
+     * @throws Exception                         In case the update of the material inventory fails.
+     */
+    private void applyDeltas(final SalesOrder salesOrder, final List<InventoryDelta> deltas)
+            throws QuantityExceedsInventoryException, Exception {
+        try {
+            InventoryDeltas.apply(deltas);
+        } catch (InsufficientInventoryException insufficientInventoryException) {
+            for (SalesOrderItem item : salesOrder.getItems()) {
+                if (item.getMaterial().getId().equals(insufficientInventoryException.getMaterial().getId())) {
+                    throw new QuantityExceedsInventoryException(item);
                 }
-
-            }
-
-            // Add quantities for a removed material.
-            if (!materialExistsInOrderItem) {
-                reductions.put(tempDatabaseItem.getMaterial().getId(), tempDatabaseItem.getQuantity());
             }
 
-            if (materialExistsInOrderItem && tempDatabaseItem.getQuantity() > orderItemQuantity) {
-                // Determine possible quantity reductions of an existing material.
-                reductions.put(tempDatabaseItem.getMaterial().getId(),
-                        tempDatabaseItem.getQuantity() - orderItemQuantity);
-            }
+            throw insufficientInventoryException;
         }
-
-        return reductions;
     }
 }
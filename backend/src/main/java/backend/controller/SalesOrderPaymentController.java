@@ -2,7 +2,6 @@ package backend.controller;
 
 import backend.dao.AccountDao;
 import backend.dao.DAOManager;
-import backend.exception.ObjectUnchangedException;
 import backend.model.account.Account;
 import backend.model.account.Posting;
 import backend.model.account.PostingType;
@@ -68,32 +67,26 @@ public class SalesOrderPaymentController {
      * Adds the total price of the sales order to the referenced payment account.
      *
      * @param salesOrder The sales order.
-     * @throws Exception                Update of the account failed.
-     * @throws ObjectUnchangedException The account has not been changed.
+     * @throws Exception Booking of the posting failed.
      */
-    private void addPaymentToAccount(final SalesOrder salesOrder) throws ObjectUnchangedException, Exception {
+    private void addPaymentToAccount(final SalesOrder salesOrder) throws Exception {
         AccountDao accountDAO = DAOManager.getInstance().getAccountDAO();
         Account paymentAccount = salesOrder.getPaymentAccount();
 
-        paymentAccount.setBalance(salesOrder.getPaymentAccount().getBalance().add(salesOrder.getPriceTotal()));
-        paymentAccount.getPostings().add(this.getPosting(salesOrder, PostingType.RECEIPT));
-        accountDAO.updateAccount(paymentAccount);
+        accountDAO.bookPosting(paymentAccount, this.getPosting(salesOrder, PostingType.RECEIPT));
     }
 
     /**
      * Removes the total price of the sales order from the referenced payment account.
      *
      * @param salesOrder The sales order.
-     * @throws Exception                Update of the account failed.
-     * @throws ObjectUnchangedException The account has not been changed.
+     * @throws Exception Booking of the posting failed.
      */
-    public void removePaymentFromAccount(final SalesOrder salesOrder) throws ObjectUnchangedException, Exception {
+    public void removePaymentFromAccount(final SalesOrder salesOrder) throws Exception {
         AccountDao accountDAO = DAOManager.getInstance().getAccountDAO();
         Account paymentAccount = salesOrder.getPaymentAccount();
 
-        paymentAccount.setBalance(salesOrder.getPaymentAccount().getBalance().subtract(salesOrder.getPriceTotal()));
-        paymentAccount.getPostings().add(this.getPosting(salesOrder, PostingType.DISBURSAL));
-        accountDAO.updateAccount(paymentAccount);
+        accountDAO.bookPosting(paymentAccount, this.getPosting(salesOrder, PostingType.DISBURSAL));
     }
 
     /**
@@ -0,0 +1,108 @@
+package backend.controller.image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the data of image derivatives in memory. The cache is bounded by the total size of the cached data. If the
+ * bound is exceeded, the least recently used derivatives are evicted.
+ *
+ * @author Michael
+ */
+public class DerivativeCache {
+    /**
+     * The initial capacity of the map of cached data.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The load factor of the map of cached data.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The maximum total size of the cached data in bytes.
+     */
+    private final long maxSize;
+
+    /**
+     * The cached data by their key in order of their last access.
+     */
+    private final LinkedHashMap<String, byte[]> entries;
+
+    /**
+     * The total size of the cached data in bytes.
+     */
+    private long size;
+
+    /**
+     * Initializes the cache.
+     *
+     * @param maxSize The maximum total size of the cached data in bytes.
+     */
+    public DerivativeCache(final long maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<String, byte[]>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    }
+
+    /**
+     * Gets the cached data with the given key.
+     *
+     * @param key The key of the derivative.
+     * @return The data, if cached; null otherwise.
+     */
+    public synchronized byte[] get(final String key) {
+        return this.entries.get(key);
+    }
+
+    /**
+     * Adds data to the cache and evicts the least recently used data if the cache exceeds its maximum size. Data that
+     * are larger than the whole cache are not cached at all.
+     *
+     * @param key  The key of the derivative.
+     * @param data The data of the derivative.
+     */
+    public synchronized void put(final String key, final byte[] data) {
+        byte[] previousData;
+        Iterator<Map.Entry<String, byte[]>> iterator;
+
+        if (data.length > this.maxSize) {
+            return;
+        }
+
+        previousData = this.entries.put(key, data);
+
+        if (previousData != null) {
+            this.size -= previousData.length;
+        }
+
+        this.size += data.length;
+        iterator = this.entries.entrySet().iterator();
+
+        while (this.size > this.maxSize && iterator.hasNext()) {
+            this.size -= iterator.next().getValue().length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Removes the data with the given key from the cache.
+     *
+     * @param key The key of the derivative.
+     */
+    public synchronized void remove(final String key) {
+        byte[] data = this.entries.remove(key);
+
+        if (data != null) {
+            this.size -= data.length;
+        }
+    }
+
+    /**
+     * @return The total size of the cached data in bytes.
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+}
@@ -0,0 +1,354 @@
+package backend.controller.image;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import backend.dao.ImageDao;
+import backend.dao.image.ImageStore;
+import backend.model.image.ImageMetaData;
+import backend.model.image.ImageSize;
+
+/**
+ * Generates the downscaled derivatives of images. After an upload the derivatives of all sizes are generated by a
+ * small pool of background threads and stored next to the image data. If the pool is busy, further images are
+ * discarded instead of being queued without limit.
+ *
+ * Derivatives that have not been generated yet are rendered on request and kept in a cache bounded by memory size.
+ * The generation of the stored derivatives is submitted again in this case.
+ *
+ * @author Michael
+ */
+public final class ImageDerivativeGenerator {
+    /**
+     * The number of threads generating derivatives.
+     */
+    private static final int THREAD_COUNT = 2;
+
+    /**
+     * The maximum number of images waiting for the generation of their derivatives.
+     */
+    private static final int QUEUE_CAPACITY = 100;
+
+    /**
+     * The maximum total size in bytes of the derivatives kept in memory.
+     */
+    private static final long CACHE_SIZE = 32L * 1024 * 1024;
+
+    /**
+     * The maximum time in seconds to wait for running generations on stop.
+     */
+    private static final long STOP_TIMEOUT = 10;
+
+    /**
+     * The running generator. Null, if the generator has not been started.
+     */
+    private static volatile ImageDerivativeGenerator instance;
+
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(ImageDerivativeGenerator.class);
+
+    /**
+     * Access to localized application resources.
+     */
+    private final ResourceBundle resources;
+
+    /**
+     * DAO for image access.
+     */
+    private final ImageDao imageDAO;
+
+    /**
+     * Executes the generation of derivatives.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The derivatives rendered on request.
+     */
+    private final DerivativeCache cache;
+
+    /**
+     * Initializes the generator.
+     *
+     * @param imageDAO DAO for image access.
+     */
+    private ImageDerivativeGenerator(final ImageDao imageDAO) {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.resources = ResourceBundle.getBundle("backend");
+        this.imageDAO = imageDAO;
+        this.cache = new DerivativeCache(CACHE_SIZE);
+        this.executor = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Starts the generator, if it is not running yet.
+     *
+     * @param imageDAO DAO for image access.
+     */
+    public static synchronized void start(final ImageDao imageDAO) {
+        if (instance == null) {
+            instance = new ImageDerivativeGenerator(imageDAO);
+        }
+    }
+
+    /**
+     * Stops the generator. Running generations are finished before; waiting generations are discarded.
+     */
+    public static synchronized void stop() {
+        if (instance == null) {
+            return;
+        }
+
+        instance.executor.getQueue().clear();
+        instance.executor.shutdown();
+
+        try {
+            instance.executor.awaitTermination(STOP_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        instance = null;
+    }
+
+    /**
+     * Provides the running generator.
+     *
+     * @return The generator; null, if the generator has not been started.
+     */
+    public static ImageDerivativeGenerator getInstance() {
+        return instance;
+    }
+
+    /**
+     * Submits the generation of all missing derivatives of the image with the given ID. The generation is discarded if
+     * too many images are waiting.
+     *
+     * @param imageId The ID of the image.
+     */
+    public void submit(final Integer imageId) {
+        this.executor.execute(() -> this.generate(imageId));
+    }
+
+    /**
+     * Provides the derivative of an image in the given size. Stored derivatives are read from the image store. Other
+     * derivatives are taken from the cache or rendered and cached.
+     *
+     * @param imageMetaData The meta data of the image.
+     * @param size          The size of the derivative.
+     * @return The data of the derivative; null, if the image data could not be decoded.
+     * @throws IOException In case the image data could not be read.
+     */
+    public byte[] getDerivative(final ImageMetaData imageMetaData, final ImageSize size) throws IOException {
+        String key = ImageStore.getDerivativeKey(imageMetaData.getContentHash(), size.getDerivativeName());
+        byte[] derivative;
+
+        if (imageMetaData.getDerivatives().contains(size)) {
+            return this.imageDAO.readContent(key);
+        }
+
+        derivative = this.cache.get(key);
+
+        if (derivative == null) {
+            derivative = render(this.imageDAO.readContent(imageMetaData.getContentHash()), size);
+
+            if (derivative != null) {
+                this.cache.put(key, derivative);
+                this.submit(imageMetaData.getId());
+            }
+        }
+
+        return derivative;
+    }
+
+    /**
+     * Generates and stores all missing derivatives of the image with the given ID.
+     *
+     * @param imageId The ID of the image.
+     */
+    private void generate(final Integer imageId) {
+        try {
+            ImageMetaData imageMetaData = this.imageDAO.getImageMetaData(imageId);
+            Set<ImageSize> missingSizes = EnumSet.allOf(ImageSize.class);
+            byte[] data;
+
+            if (imageMetaData == null || imageMetaData.getContentHash() == null) {
+                return;
+            }
+
+            missingSizes.removeAll(imageMetaData.getDerivatives());
+
+            if (missingSizes.isEmpty()) {
+                return;
+            }
+
+            data = this.imageDAO.readContent(imageMetaData.getContentHash());
+
+            for (ImageSize size : missingSizes) {
+                byte[] derivative = render(data, size);
+
+                if (derivative != null) {
+                    this.imageDAO.insertImageDerivative(imageId, size, derivative);
+                    this.cache.remove(
+                            ImageStore.getDerivativeKey(imageMetaData.getContentHash(), size.getDerivativeName()));
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error(MessageFormat.format(this.resources.getString("imageDerivatives.generationError"), imageId),
+                    e);
+        }
+    }
+
+    /**
+     * Renders a derivative of the given image data. The image is never upscaled. Images that already fit into the
+     * given size are provided unchanged. Large images are decoded with subsampling and downscaled in steps of half the
+     * size, which is faster than a single high quality scaling and looks alike. Images with transparency are encoded
+     * as PNG, other images as JPEG.
+     *
+     * @param data The image data.
+     * @param size The size of the derivative.
+     * @return The data of the derivative; null, if the image data could not be decoded.
+     * @throws IOException In case the derivative could not be encoded.
+     */
+    public static byte[] render(final byte[] data, final ImageSize size) throws IOException {
+        BufferedImage image = read(data, size.getMaxDimension());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        boolean hasAlpha;
+        double scale;
+
+        if (image == null) {
+            return null;
+        }
+
+        // Subsampled images are always larger than the given size. Therefore the image has its original size here.
+        scale = Math.min((double) size.getMaxDimension() / image.getWidth(),
+                (double) size.getMaxDimension() / image.getHeight());
+
+        if (scale >= 1) {
+            return data;
+        }
+
+        hasAlpha = image.getColorModel().hasAlpha();
+        image = scale(image, (int) Math.max(1, Math.round(image.getWidth() * scale)),
+                (int) Math.max(1, Math.round(image.getHeight() * scale)), hasAlpha);
+        ImageIO.write(image, hasAlpha ? "png" : "jpg", output);
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Scales the given image down to the given size. The image is halved repeatedly using bilinear interpolation until
+     * the remaining scaling step is less than half.
+     *
+     * @param image    The image.
+     * @param width    The width of the scaled image.
+     * @param height   The height of the scaled image.
+     * @param hasAlpha True, if the transparency of the image has to be kept.
+     * @return The scaled image.
+     */
+    private static BufferedImage scale(final BufferedImage image, final int width, final int height,
+            final boolean hasAlpha) {
+        BufferedImage scaledImage = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            scaledImage = draw(scaledImage, currentWidth, currentHeight, hasAlpha);
+        } while (currentWidth > width || currentHeight > height);
+
+        return scaledImage;
+    }
+
+    /**
+     * Draws the given image in the given size using bilinear interpolation.
+     *
+     * @param image    The image.
+     * @param width    The width of the new image.
+     * @param height   The height of the new image.
+     * @param hasAlpha True, if the transparency of the image has to be kept.
+     * @return The new image.
+     */
+    private static BufferedImage draw(final BufferedImage image, final int width, final int height,
+            final boolean hasAlpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return target;
+    }
+
+    /**
+     * Decodes the given image data. If the image is much larger than needed, only every n-th pixel is decoded.
+     *
+     * @param data         The image data.
+     * @param maxDimension The maximum width and height the image is scaled to.
+     * @return The image; null, if no reader for the data exists.
+     * @throws IOException In case the image data could not be decoded.
+     */
+    private static BufferedImage read(final byte[] data, final int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            ImageReader reader;
+
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            reader = readers.next();
+
+            try {
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling;
+
+                reader.setInput(input, true, true);
+
+                // Keep at least twice the target size for the final scaling steps.
+                subsampling = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / (2 * maxDimension));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * This module generates downscaled derivatives of images like thumbnails in background threads and caches
+ * derivatives that are rendered on demand.
+ *
+ * @author Michael
+ */
+package backend.controller.image;
@@ -0,0 +1,76 @@
+package backend.controller.planning;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plans the materials of a low-level code layer. The materials are split into ranges that are planned in parallel.
+ * Each material is only written by the task planning it.
+ *
+ * @author Michael
+ */
+class LayerTask extends RecursiveAction {
+    /**
+     * The serialization version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of materials planned by a single task without splitting.
+     */
+    private static final int TASK_SIZE = 1024;
+
+    /**
+     * The planning the layer belongs to.
+     */
+    private final transient RequirementsPlanning planning;
+
+    /**
+     * The indexes of the materials ordered by low-level code.
+     */
+    private final int[] order;
+
+    /**
+     * The position of the first material of the range within the order.
+     */
+    private final int from;
+
+    /**
+     * The position after the last material of the range within the order.
+     */
+    private final int to;
+
+    /**
+     * Initializes the task.
+     *
+     * @param planning The planning the layer belongs to.
+     * @param order    The indexes of the materials ordered by low-level code.
+     * @param from     The position of the first material of the range within the order.
+     * @param to       The position after the last material of the range within the order.
+     */
+    LayerTask(final RequirementsPlanning planning, final int[] order, final int from, final int to) {
+        this.planning = planning;
+        this.order = order;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Plans the materials of the range.
+     */
+    @Override
+    protected void compute() {
+        int middle;
+
+        if (this.to - this.from <= TASK_SIZE) {
+            for (int i = this.from; i < this.to; i++) {
+                this.planning.planMaterial(this.order[i]);
+            }
+
+            return;
+        }
+
+        middle = (this.from + this.to) >>> 1;
+        invokeAll(new LayerTask(this.planning, this.order, this.from, middle),
+                new LayerTask(this.planning, this.order, middle, this.to));
+    }
+}
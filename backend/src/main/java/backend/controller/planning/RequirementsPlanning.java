@@ -0,0 +1,468 @@
+package backend.controller.planning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import backend.model.billOfMaterial.BillOfMaterialExplosion;
+import backend.model.billOfMaterial.BillOfMaterialGraph;
+import backend.model.material.Material;
+import backend.model.planning.PlanningInput;
+import backend.model.planning.PlanningProposal;
+import backend.model.planning.PlanningProposalType;
+
+/**
+ * Determines the time-phased net requirements of all materials and proposes an order for each net requirement.
+ *
+ * The events of a material are netted against its inventory day by day. If the projected inventory of a day is
+ * negative, an order of the missing quantity is proposed for that day. Materials having a bill of material are proposed
+ * for production, all others for purchase. The production of a material consumes its components as exploded by the
+ * bill of material graph.
+ *
+ * The materials are planned in layers of their low-level code. A component is planned after all materials using it,
+ * so that it can pull the demand of their proposals. The materials of a layer are planned in parallel.
+ *
+ * @author Michael
+ */
+public class RequirementsPlanning {
+    /**
+     * The number of bits the day is shifted by within the sort key of an event.
+     */
+    private static final int DAY_SHIFT = 32;
+
+    /**
+     * The bits of the sort key of an event that contain the position of the event.
+     */
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+
+    /**
+     * The initial capacity of the proposals of a material.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * The days of a material without proposals.
+     */
+    private static final int[] NO_DAYS = new int[0];
+
+    /**
+     * The quantities of a material without proposals.
+     */
+    private static final long[] NO_QUANTITIES = new long[0];
+
+    /**
+     * The inventories, demands and supplies of the materials.
+     */
+    private final PlanningInput input;
+
+    /**
+     * The graph of all bills of material.
+     */
+    private final BillOfMaterialGraph graph;
+
+    /**
+     * The current day. Requirements of earlier days are proposed for this day.
+     */
+    private final int today;
+
+    /**
+     * The pool planning the materials of a layer.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The position of the first event of each material. The last element is the total number of events.
+     */
+    private int[] eventStart;
+
+    /**
+     * The days of the events grouped by material.
+     */
+    private int[] eventDays;
+
+    /**
+     * The quantities of the events grouped by material.
+     */
+    private long[] eventQuantities;
+
+    /**
+     * The position of the first usage of each material. The last element is the total number of usages.
+     */
+    private int[] usageStart;
+
+    /**
+     * The indexes of the materials consuming the material of the usage grouped by consumed material.
+     */
+    private int[] usageParents;
+
+    /**
+     * The quantities consumed per unit of the consuming material grouped by consumed material.
+     */
+    private long[] usageQuantities;
+
+    /**
+     * The low-level code of each material. Materials not used by any other material have the code 0.
+     */
+    private int[] lowLevelCodes;
+
+    /**
+     * The days of the proposals of each material.
+     */
+    private int[][] proposalDays;
+
+    /**
+     * The quantities of the proposals of each material.
+     */
+    private long[][] proposalQuantities;
+
+    /**
+     * Initializes the planning.
+     *
+     * @param input The inventories, demands and supplies of the materials.
+     * @param graph The graph of all bills of material.
+     * @param today The current day as days since the epoch.
+     * @param pool  The pool planning the materials of a layer.
+     */
+    public RequirementsPlanning(final PlanningInput input, final BillOfMaterialGraph graph, final int today,
+            final ForkJoinPool pool) {
+        this.input = input;
+        this.graph = graph;
+        this.today = today;
+        this.pool = pool;
+    }
+
+    /**
+     * Plans all materials.
+     *
+     * @return The proposals ordered by material and day. The materials of the proposals only contain the ID.
+     */
+    public List<PlanningProposal> plan() {
+        int[] order;
+        int from = 0;
+
+        this.indexEvents();
+        this.indexUsages();
+        order = this.getLayerOrder();
+        this.proposalDays = new int[order.length][];
+        this.proposalQuantities = new long[order.length][];
+
+        while (from < order.length) {
+            int to = from;
+
+            while (to < order.length && this.lowLevelCodes[order[to]] == this.lowLevelCodes[order[from]]) {
+                to++;
+            }
+
+            this.pool.invoke(new LayerTask(this, order, from, to));
+            from = to;
+        }
+
+        return this.getProposals();
+    }
+
+    /**
+     * Plans the material with the given index. All materials using it have to be planned before.
+     *
+     * @param index The index of the material.
+     */
+    void planMaterial(final int index) {
+        int size = this.eventStart[index + 1] - this.eventStart[index];
+        long[] keys;
+        long[] quantities;
+        int position = 0;
+
+        for (int usage = this.usageStart[index]; usage < this.usageStart[index + 1]; usage++) {
+            size += this.proposalDays[this.usageParents[usage]].length;
+        }
+
+        keys = new long[size];
+        quantities = new long[size];
+
+        for (int event = this.eventStart[index]; event < this.eventStart[index + 1]; event++) {
+            keys[position] = this.getKey(this.eventDays[event], position);
+            quantities[position++] = this.eventQuantities[event];
+        }
+
+        for (int usage = this.usageStart[index]; usage < this.usageStart[index + 1]; usage++) {
+            int parent = this.usageParents[usage];
+
+            for (int i = 0; i < this.proposalDays[parent].length; i++) {
+                keys[position] = this.getKey(this.proposalDays[parent][i], position);
+                quantities[position++] = -Math.multiplyExact(this.proposalQuantities[parent][i],
+                        this.usageQuantities[usage]);
+            }
+        }
+
+        Arrays.sort(keys);
+        this.netRequirements(index, keys, quantities);
+    }
+
+    /**
+     * Nets the sorted events of a material against its inventory and stores the proposals of the material.
+     *
+     * @param index      The index of the material.
+     * @param keys       The sort keys of the events in ascending order.
+     * @param quantities The quantities of the events by position.
+     */
+    private void netRequirements(final int index, final long[] keys, final long[] quantities) {
+        int[] days = NO_DAYS;
+        long[] proposedQuantities = NO_QUANTITIES;
+        int size = 0;
+        long projected = this.input.getInventory(index);
+
+        for (int i = 0; i < keys.length; i++) {
+            int day = (int) (keys[i] >> DAY_SHIFT);
+
+            projected = Math.addExact(projected, quantities[(int) (keys[i] & POSITION_MASK)]);
+
+            if (projected >= 0 || (i + 1 < keys.length && (int) (keys[i + 1] >> DAY_SHIFT) == day)) {
+                continue;
+            }
+
+            day = Math.max(day, this.today);
+
+            if (size > 0 && days[size - 1] == day) {
+                proposedQuantities[size - 1] -= projected;
+            } else {
+                if (size == days.length) {
+                    days = Arrays.copyOf(days, Math.max(INITIAL_CAPACITY, size * 2));
+                    proposedQuantities = Arrays.copyOf(proposedQuantities, days.length);
+                }
+
+                days[size] = day;
+                proposedQuantities[size++] = -projected;
+            }
+
+            projected = 0;
+        }
+
+        this.proposalDays[index] = size == days.length ? days : Arrays.copyOf(days, size);
+        this.proposalQuantities[index] = size == days.length ? proposedQuantities
+                : Arrays.copyOf(proposedQuantities, size);
+    }
+
+    /**
+     * Provides the sort key of an event. Events are sorted by day and then by position.
+     *
+     * @param day      The day of the event.
+     * @param position The position of the event.
+     * @return The sort key.
+     */
+    private long getKey(final int day, final int position) {
+        return ((long) day << DAY_SHIFT) | position;
+    }
+
+    /**
+     * Groups the demands and supplies by material. Productions supply the produced material and demand its components.
+     */
+    private void indexEvents() {
+        int[] next;
+
+        this.eventStart = new int[this.input.getMaterialCount() + 1];
+        this.forEachEvent((index, day, quantity) -> this.eventStart[index + 1]++);
+
+        for (int i = 0; i < this.input.getMaterialCount(); i++) {
+            this.eventStart[i + 1] += this.eventStart[i];
+        }
+
+        next = Arrays.copyOf(this.eventStart, this.input.getMaterialCount());
+        this.eventDays = new int[this.eventStart[this.input.getMaterialCount()]];
+        this.eventQuantities = new long[this.eventDays.length];
+        this.forEachEvent((index, day, quantity) -> {
+            this.eventDays[next[index]] = day;
+            this.eventQuantities[next[index]++] = quantity;
+        });
+    }
+
+    /**
+     * Passes all events of planned materials to the given consumer.
+     *
+     * @param consumer The consumer of the events.
+     */
+    private void forEachEvent(final EventConsumer consumer) {
+        PlanningInput.Events events = this.input.getEvents();
+        PlanningInput.Events productions = this.input.getProductions();
+
+        for (int i = 0; i < events.size(); i++) {
+            this.accept(consumer, events.getMaterialId(i), events.getDay(i), events.getQuantity(i));
+        }
+
+        for (int i = 0; i < productions.size(); i++) {
+            BillOfMaterialExplosion explosion = this.graph.explode(productions.getMaterialId(i));
+
+            this.accept(consumer, productions.getMaterialId(i), productions.getDay(i), productions.getQuantity(i));
+
+            for (int j = 0; j < explosion.size(); j++) {
+                this.accept(consumer, explosion.getMaterialId(j), productions.getDay(i),
+                        -Math.multiplyExact(productions.getQuantity(i), explosion.getQuantity(j)));
+            }
+        }
+    }
+
+    /**
+     * Passes an event to the given consumer, if its material is planned.
+     *
+     * @param consumer   The consumer of the events.
+     * @param materialId The ID of the material.
+     * @param day        The day of the event.
+     * @param quantity   The quantity of the event.
+     */
+    private void accept(final EventConsumer consumer, final int materialId, final int day, final long quantity) {
+        int index = this.input.getMaterialIndex(materialId);
+
+        if (index >= 0) {
+            consumer.accept(index, day, quantity);
+        }
+    }
+
+    /**
+     * Groups the materials consumed by the production of materials having a bill of material by consumed material.
+     */
+    private void indexUsages() {
+        int[] next;
+
+        this.usageStart = new int[this.input.getMaterialCount() + 1];
+        this.forEachUsage((component, parent, quantity) -> this.usageStart[component + 1]++);
+
+        for (int i = 0; i < this.input.getMaterialCount(); i++) {
+            this.usageStart[i + 1] += this.usageStart[i];
+        }
+
+        next = Arrays.copyOf(this.usageStart, this.input.getMaterialCount());
+        this.usageParents = new int[this.usageStart[this.input.getMaterialCount()]];
+        this.usageQuantities = new long[this.usageParents.length];
+        this.forEachUsage((component, parent, quantity) -> {
+            this.usageParents[next[component]] = parent;
+            this.usageQuantities[next[component]++] = quantity;
+        });
+    }
+
+    /**
+     * Passes the consumed materials of all planned materials having a bill of material to the given consumer. The
+     * consumer gets the index of the consumed material, the index of the consuming material and the quantity consumed
+     * per unit.
+     *
+     * @param consumer The consumer of the usages.
+     */
+    private void forEachUsage(final EventConsumer consumer) {
+        for (int parent = 0; parent < this.input.getMaterialCount(); parent++) {
+            BillOfMaterialExplosion explosion;
+
+            if (!this.graph.hasBillOfMaterial(this.input.getMaterialId(parent))) {
+                continue;
+            }
+
+            explosion = this.graph.explode(this.input.getMaterialId(parent));
+
+            for (int j = 0; j < explosion.size(); j++) {
+                int component = this.input.getMaterialIndex(explosion.getMaterialId(j));
+
+                if (component >= 0) {
+                    consumer.accept(component, parent, explosion.getQuantity(j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the low-level codes of all materials.
+     *
+     * @return The indexes of the materials ordered by low-level code.
+     */
+    private int[] getLayerOrder() {
+        int[] order = new int[this.input.getMaterialCount()];
+        int[] layerStart;
+        int maxCode = 0;
+
+        this.lowLevelCodes = new int[order.length];
+        Arrays.fill(this.lowLevelCodes, -1);
+
+        for (int i = 0; i < order.length; i++) {
+            maxCode = Math.max(maxCode, this.getLowLevelCode(i));
+        }
+
+        layerStart = new int[maxCode + 2];
+
+        for (int code : this.lowLevelCodes) {
+            layerStart[code + 1]++;
+        }
+
+        for (int code = 0; code <= maxCode; code++) {
+            layerStart[code + 1] += layerStart[code];
+        }
+
+        for (int i = 0; i < order.length; i++) {
+            order[layerStart[this.lowLevelCodes[i]]++] = i;
+        }
+
+        return order;
+    }
+
+    /**
+     * Determines the low-level code of a material. The code is one more than the highest code of the materials
+     * consuming it.
+     *
+     * @param index The index of the material.
+     * @return The low-level code.
+     */
+    private int getLowLevelCode(final int index) {
+        int code = 0;
+
+        if (this.lowLevelCodes[index] >= 0) {
+            return this.lowLevelCodes[index];
+        }
+
+        for (int usage = this.usageStart[index]; usage < this.usageStart[index + 1]; usage++) {
+            code = Math.max(code, this.getLowLevelCode(this.usageParents[usage]) + 1);
+        }
+
+        this.lowLevelCodes[index] = code;
+
+        return code;
+    }
+
+    /**
+     * Creates the proposals of all materials.
+     *
+     * @return The proposals ordered by material and day.
+     */
+    private List<PlanningProposal> getProposals() {
+        List<PlanningProposal> proposals = new ArrayList<PlanningProposal>();
+
+        for (int index = 0; index < this.proposalDays.length; index++) {
+            int materialId = this.input.getMaterialId(index);
+            PlanningProposalType type = this.graph.hasBillOfMaterial(materialId) ? PlanningProposalType.PRODUCTION
+                    : PlanningProposalType.PURCHASE;
+
+            for (int i = 0; i < this.proposalDays[index].length; i++) {
+                PlanningProposal proposal = new PlanningProposal();
+                Material material = new Material();
+
+                material.setId(materialId);
+                proposal.setMaterial(material);
+                proposal.setType(type);
+                proposal.setQuantity(this.proposalQuantities[index][i]);
+                proposal.setRequirementDate(PlanningInput.toDate(this.proposalDays[index][i]));
+                proposals.add(proposal);
+            }
+        }
+
+        return proposals;
+    }
+
+    /**
+     * Consumes a quantity related to a material.
+     */
+    @FunctionalInterface
+    private interface EventConsumer {
+        /**
+         * Consumes the quantity.
+         *
+         * @param index    The index of the material.
+         * @param value    The day of an event or the index of a consuming material.
+         * @param quantity The quantity.
+         */
+        void accept(int index, int value, long quantity);
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * This module provides the material requirements planning that proposes purchase and production orders for the net
+ * requirements of the materials.
+ *
+ * @author Michael
+ */
+package backend.controller.planning;
@@ -1,9 +1,14 @@
 package backend.dao;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.account.Account;
+import backend.model.account.Posting;
 
 /**
  * Interface for account persistence..
@@ -35,6 +40,16 @@ public interface AccountDao {
      */
     List<Account> getAccounts() throws Exception;
 
+    /**
+     * Gets a page of accounts ordered by ID.
+     *
+     * @param afterId Only accounts with an ID greater than this ID are selected. Can be null.
+     * @param limit   The maximum number of accounts. Can be null.
+     * @return The accounts of the page.
+     * @throws Exception Account retrieval failed.
+     */
+    List<Account> getAccounts(Integer afterId, Integer limit) throws Exception;
+
     /**
      * Gets the account with the given id.
      *
@@ -44,11 +59,53 @@ public interface AccountDao {
      */
     Account getAccount(Integer id) throws Exception;
 
+    /**
+     * Gets the accounts with the given IDs.
+     *
+     * @param ids The IDs of the accounts.
+     * @return The accounts that exist. IDs without account are skipped.
+     * @throws Exception Account retrieval failed.
+     */
+    List<Account> getAccountsById(Collection<Integer> ids) throws Exception;
+
     /**
      * Updates the given account.
      *
      * @param account The account to be updated.
+     * @throws ObjectOutdatedException  The account has been changed by someone else in the meantime.
      * @throws Exception Account update failed.
      */
-    void updateAccount(Account account) throws ObjectUnchangedException, Exception;
+    void updateAccount(Account account) throws ObjectUnchangedException, ObjectOutdatedException, Exception;
+
+    /**
+     * Books the given posting on the account. The posting is inserted and its amount is added to the balance of the
+     * account in case of a receipt or subtracted in case of a disbursal. The balance and version of the given account
+     * are updated to the new database state.
+     *
+     * @param account The account on which the posting is booked.
+     * @param posting The posting to be booked.
+     * @throws Exception Booking failed. Neither the posting has been inserted nor the balance has been changed.
+     */
+    void bookPosting(Account account, Posting posting) throws Exception;
+
+    /**
+     * Gets the balance of the account at the given point in time. Postings at the given point in time are not included.
+     * The balance is determined using the balance snapshot of the latest completed month before the point in time, so
+     * that only the postings since the snapshot have to be read.
+     *
+     * @param accountId The ID of the account.
+     * @param timestamp The point in time.
+     * @return The balance. Null, if the account does not exist.
+     * @throws Exception Balance determination failed.
+     */
+    BigDecimal getBalance(Integer accountId, Date timestamp) throws Exception;
+
+    /**
+     * Creates the missing balance snapshots of all months of the account that are completed.
+     *
+     * @param accountId The ID of the account.
+     * @return The number of created snapshots.
+     * @throws Exception Snapshot creation failed. No snapshot has been created.
+     */
+    int createBalanceSnapshots(Integer accountId) throws Exception;
 }
@@ -1,25 +1,40 @@
 package backend.dao;
 
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
-import java.util.Map;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.account.Account;
-import jakarta.persistence.EntityGraph;
+import backend.model.account.Posting;
+import backend.model.account.PostingType;
+import jakarta.persistence.Cache;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.TypedQuery;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
 
+import org.hibernate.Session;
+
 /**
  * Provides access to account database persistence using Hibernate.
  *
  * @author Michael
  */
 public class AccountHibernateDao implements AccountDao {
+    /**
+     * Adds an amount to the balance of an account and increments its version.
+     */
+    private static final String UPDATE_BALANCE = "UPDATE ACCOUNT SET BALANCE = BALANCE + ?, VERSION = VERSION + 1 "
+            + "WHERE ACCOUNT_ID = ?";
+
     /**
      * Factory for database session.
      */
@@ -39,21 +54,18 @@ public class AccountHibernateDao implements AccountDao {
      */
     @Override
     public void insertAccount(final Account account) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.persist(account);
-            entityManager.flush(); // Assures, that the generated account ID is available.
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
     }
 
@@ -62,24 +74,24 @@ public class AccountHibernateDao implements AccountDao {
      */
     @Override
     public void deleteAccount(final Account account) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
         Account deleteAccount = entityManager.find(Account.class, account.getId());
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
+            BalanceSnapshots.deleteAll(entityManager, deleteAccount);
+            this.deletePostings(entityManager, deleteAccount);
             entityManager.remove(deleteAccount);
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
     }
 
@@ -88,37 +100,28 @@ public class AccountHibernateDao implements AccountDao {
      */
     @Override
     public List<Account> getAccounts() throws Exception {
-        List<Account> accounts = null;
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-
-        // Use entity graphs to load data of referenced Posting instances.
-        EntityGraph<Account> graph = entityManager.createEntityGraph(Account.class);
-        graph.addAttributeNodes("postings");
-        graph.addSubgraph("postings").addAttributeNodes("counterparty");
-        Map<String, Object> hints = new HashMap<String, Object>();
-        hints.put("jakarta.persistence.loadgraph", graph);
+        return this.getAccounts(null, null);
+    }
 
-        entityManager.getTransaction().begin();
+    /**
+     * Gets a page of accounts ordered by ID.
+     */
+    @Override
+    public List<Account> getAccounts(final Integer afterId, final Integer limit) throws Exception {
+        List<Account> accounts = null;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<Account> criteriaQuery = criteriaBuilder.createQuery(Account.class);
-            Root<Account> criteria = criteriaQuery.from(Account.class);
-            criteriaQuery.select(criteria);
-            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
-            TypedQuery<Account> typedQuery = entityManager.createQuery(criteriaQuery);
-            typedQuery.setHint("jakarta.persistence.loadgraph", graph); // Also fetch all posting data.
-            accounts = typedQuery.getResultList();
-
-            entityManager.getTransaction().commit();
+            accounts = KeysetPagination.getPage(entityManager, Account.class, null, null, afterId, limit);
+
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
 
         return accounts;
@@ -129,52 +132,237 @@ public class AccountHibernateDao implements AccountDao {
      */
     @Override
     public Account getAccount(final Integer id) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
-        // Use entity graphs to load data of referenced Posting instances.
-        EntityGraph<Account> graph = entityManager.createEntityGraph(Account.class);
-        graph.addAttributeNodes("postings");
-        graph.addSubgraph("postings").addAttributeNodes("counterparty");
-        Map<String, Object> hints = new HashMap<String, Object>();
-        hints.put("jakarta.persistence.loadgraph", graph);
-
-        entityManager.getTransaction().begin();
-        Account account = entityManager.find(Account.class, id, hints);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        UnitOfWork.begin(entityManager);
+        Account account = entityManager.find(Account.class, id);
+        UnitOfWork.commit(entityManager);
+        UnitOfWork.close(entityManager);
 
         return account;
     }
 
+    /**
+     * Gets the accounts with the given IDs.
+     */
+    @Override
+    public List<Account> getAccountsById(final Collection<Integer> ids) throws Exception {
+        return BatchReader.findAll(this.sessionFactory, Account.class, ids);
+    }
+
     /**
      * Updates an Account.
      */
     @Override
-    public void updateAccount(final Account account) throws ObjectUnchangedException, Exception {
+    public void updateAccount(final Account account)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception {
         EntityManager entityManager;
 
-        this.checkAccountDataChanged(account);
+        // Changes of objects managed by the unit of work are tracked by the EntityManager and written on commit.
+        if (UnitOfWork.isManaged(account)) {
+            return;
+        }
+
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
+
+        try {
+            OptimisticLocking.merge(entityManager, account, false);
+            UnitOfWork.commit(entityManager);
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            UnitOfWork.commit(entityManager);
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+    }
+
+    /**
+     * Books a Posting on an Account.
+     */
+    @Override
+    public void bookPosting(final Account account, final Posting posting) throws Exception {
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
+
+        try {
+            // The posting only references the account. The account and its other postings are not read.
+            posting.setAccount(entityManager.getReference(Account.class, account.getId()));
+            entityManager.persist(posting);
+            BalanceSnapshots.invalidate(entityManager, posting);
+            this.addToBalance(entityManager, account.getId(), this.getBalanceChange(posting));
+            this.readBalance(entityManager, account);
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+    }
+
+    /**
+     * Gets the balance of an Account at the given point in time.
+     */
+    @Override
+    public BigDecimal getBalance(final Integer accountId, final Date timestamp) throws Exception {
+        BigDecimal balance = null;
+        Account account;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
+
+        try {
+            account = entityManager.find(Account.class, accountId);
+
+            if (account != null) {
+                balance = BalanceSnapshots.getBalance(entityManager, account, timestamp);
+            }
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return balance;
+    }
+
+    /**
+     * Creates the balance snapshots of all completed months of an Account.
+     */
+    @Override
+    public int createBalanceSnapshots(final Integer accountId) throws Exception {
+        int createdSnapshots;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
+
+        try {
+            createdSnapshots = BalanceSnapshots.createSnapshots(entityManager, accountId, new Date());
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return createdSnapshots;
+    }
+
+    /**
+     * Adds the given amount to the balance of the account using a single UPDATE statement. The version of the account
+     * is incremented, so that updates based on the previous balance are rejected.
+     *
+     * The statement is sent using JDBC. A bulk update of Hibernate would invalidate the cached state of all accounts.
+     * Only the updated account is removed from the second-level cache instead. Pending changes of the EntityManager are
+     * flushed before.
+     *
+     * @param entityManager The EntityManager.
+     * @param accountId     The ID of the account.
+     * @param amount        The amount to be added. A negative amount reduces the balance.
+     * @throws EntityNotFoundException The account does not exist.
+     */
+    private void addToBalance(final EntityManager entityManager, final Integer accountId, final BigDecimal amount)
+            throws EntityNotFoundException {
+        int updateCount;
+
+        entityManager.flush();
+        updateCount = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_BALANCE)) {
+                statement.setBigDecimal(1, amount);
+                statement.setInt(2, accountId);
+
+                return statement.executeUpdate();
+            }
+        });
+
+        this.evictFromCache(entityManager, accountId);
 
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
-        entityManager.merge(account);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        if (updateCount == 0) {
+            throw new EntityNotFoundException();
+        }
     }
 
     /**
-     * Checks if the data of the given account differ from the account that is persisted at database level.
+     * Removes the account from the second-level cache. The account is removed again after the transaction has been
+     * completed. Otherwise a concurrent read could cache the previous balance until the update is committed.
      *
-     * @param account The account to be checked.
-     * @throws ObjectUnchangedException In case the account has not been changed.
-     * @throws Exception                In case an error occurred during determination of the account stored at the
-     *                                  database.
+     * @param entityManager The EntityManager that has updated the account.
+     * @param accountId     The ID of the account.
      */
-    private void checkAccountDataChanged(final Account account) throws ObjectUnchangedException, Exception {
-        Account databaseAccount = this.getAccount(account.getId());
+    private void evictFromCache(final EntityManager entityManager, final Integer accountId) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+
+        cache.evict(Account.class, accountId);
+        UnitOfWork.afterCompletion(entityManager, () -> cache.evict(Account.class, accountId));
+    }
+
+    /**
+     * Reads the balance and version of the account from the database.
+     *
+     * @param entityManager The EntityManager.
+     * @param account       The account whose balance and version are set to the database state.
+     */
+    private void readBalance(final EntityManager entityManager, final Account account) {
+        CriteriaBuilder criteriaBuilder;
+        CriteriaQuery<Tuple> criteriaQuery;
+        Root<Account> criteria;
+        Tuple databaseState;
+
+        // The state of an account managed by the unit of work has to be refreshed. Otherwise it would be written back.
+        if (entityManager.contains(account)) {
+            entityManager.refresh(account);
+            return;
+        }
 
-        if (databaseAccount.equals(account)) {
-            throw new ObjectUnchangedException();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        criteriaQuery = criteriaBuilder.createTupleQuery();
+        criteria = criteriaQuery.from(Account.class);
+        criteriaQuery.multiselect(criteria.get("balance"), criteria.get("version"));
+        criteriaQuery.where(criteriaBuilder.equal(criteria.get("id"), account.getId()));
+
+        databaseState = entityManager.createQuery(criteriaQuery).getSingleResult();
+        account.setBalance(databaseState.get(0, BigDecimal.class));
+        account.setVersion(databaseState.get(1, Long.class));
+    }
+
+    /**
+     * Determines the change of the account balance caused by the given posting.
+     *
+     * @param posting The posting.
+     * @return The amount of a receipt or the negative amount of a disbursal.
+     */
+    private BigDecimal getBalanceChange(final Posting posting) {
+        if (posting.getType() == PostingType.DISBURSAL) {
+            return posting.getAmount().negate();
         }
+
+        return posting.getAmount();
+    }
+
+    /**
+     * Deletes all postings of the given account using a single DELETE statement.
+     *
+     * @param entityManager The EntityManager.
+     * @param account       The account whose postings are deleted.
+     */
+    private void deletePostings(final EntityManager entityManager, final Account account) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Posting> criteriaDelete = criteriaBuilder.createCriteriaDelete(Posting.class);
+        Root<Posting> criteria = criteriaDelete.from(Posting.class);
+
+        criteriaDelete.where(criteriaBuilder.equal(criteria.get("account"), account));
+        entityManager.createQuery(criteriaDelete).executeUpdate();
     }
 }
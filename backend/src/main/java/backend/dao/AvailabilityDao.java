@@ -0,0 +1,33 @@
+package backend.dao;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Interface for the availability of materials based on their inventory and the open orders.
+ *
+ * @author Michael
+ */
+public interface AvailabilityDao {
+    /**
+     * Determines the quantity of a material that can be promised for the given date without endangering the supply of
+     * the open orders that require the material at this date or later.
+     *
+     * @param materialId      The ID of the material.
+     * @param requirementDate The date at which the material is required. The current day, if null.
+     * @return The available quantity.
+     * @throws Exception Determination failed.
+     */
+    long getAvailableQuantity(Integer materialId, Date requirementDate) throws Exception;
+
+    /**
+     * Determines the quantities of multiple materials that can be promised for the given date.
+     *
+     * @param materialIds     The IDs of the materials.
+     * @param requirementDate The date at which the materials are required. The current day, if null.
+     * @return The available quantity of each material.
+     * @throws Exception Determination failed.
+     */
+    Map<Integer, Long> getAvailableQuantities(Collection<Integer> materialIds, Date requirementDate) throws Exception;
+}
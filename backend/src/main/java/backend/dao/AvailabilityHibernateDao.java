@@ -0,0 +1,449 @@
+package backend.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import backend.model.billOfMaterial.BillOfMaterialExplosion;
+import backend.model.billOfMaterial.BillOfMaterialGraph;
+import backend.model.material.Material;
+import backend.model.planning.AvailabilityProjection;
+import backend.model.planning.PlanningInput;
+
+/**
+ * Provides the availability of materials using a projection that is held in memory.
+ *
+ * The projection is loaded from the database on its first use. Afterwards the DAOs of materials, purchase orders and
+ * production orders refresh the changed materials and orders, once their transaction has been completed. The
+ * projection is loaded again, if the bills of material have changed.
+ *
+ * @author Michael
+ */
+public class AvailabilityHibernateDao implements AvailabilityDao {
+    /**
+     * The prefix of the keys of purchase orders within the projection.
+     */
+    private static final String PURCHASE_ORDER_KEY = "PurchaseOrder:";
+
+    /**
+     * The prefix of the keys of production orders within the projection.
+     */
+    private static final String PRODUCTION_ORDER_KEY = "ProductionOrder:";
+
+    /**
+     * Factory for database session.
+     */
+    private EntityManagerFactory sessionFactory;
+
+    /**
+     * DAO to manage BillOfMaterial data.
+     */
+    private BillOfMaterialDao billOfMaterialDao;
+
+    /**
+     * The loaded projection. Null, if the projection has to be loaded.
+     */
+    private volatile LoadedProjection loadedProjection;
+
+    /**
+     * Incremented on each refresh. A projection loaded during a refresh is not cached.
+     */
+    private long changeCount;
+
+    /**
+     * Default constructor.
+     *
+     * @param sessionFactory    The database session factory.
+     * @param billOfMaterialDao DAO providing the bills of material used by production orders.
+     */
+    public AvailabilityHibernateDao(final EntityManagerFactory sessionFactory,
+            final BillOfMaterialDao billOfMaterialDao) {
+        this.sessionFactory = sessionFactory;
+        this.billOfMaterialDao = billOfMaterialDao;
+    }
+
+    /**
+     * Determines the available quantity of a material at the given date.
+     */
+    @Override
+    public long getAvailableQuantity(final Integer materialId, final Date requirementDate) throws Exception {
+        return this.getProjection().getAvailableQuantity(materialId, this.getDay(requirementDate));
+    }
+
+    /**
+     * Determines the available quantities of multiple materials at the given date.
+     */
+    @Override
+    public Map<Integer, Long> getAvailableQuantities(final Collection<Integer> materialIds,
+            final Date requirementDate) throws Exception {
+        AvailabilityProjection projection = this.getProjection();
+        Map<Integer, Long> availableQuantities = new HashMap<Integer, Long>();
+        int day = this.getDay(requirementDate);
+
+        for (Integer materialId : materialIds) {
+            availableQuantities.put(materialId, projection.getAvailableQuantity(materialId, day));
+        }
+
+        return availableQuantities;
+    }
+
+    /**
+     * Reads the inventory of the given materials again.
+     *
+     * @param materialIds The IDs of the materials whose inventory has changed. Materials without ID are ignored.
+     */
+    void refreshInventories(final Collection<Integer> materialIds) {
+        Set<Integer> remainingIds = new HashSet<Integer>(materialIds);
+
+        remainingIds.remove(null);
+
+        if (remainingIds.isEmpty()) {
+            return;
+        }
+
+        this.refresh((entityManager, loaded) -> {
+            for (Tuple material : this.getInventories(entityManager, new ArrayList<Integer>(remainingIds))) {
+                loaded.projection.setInventory(material.get(0, Integer.class), material.get(1, Long.class));
+                remainingIds.remove(material.get(0, Integer.class));
+            }
+
+            for (Integer materialId : remainingIds) {
+                loaded.projection.setInventory(materialId, 0);
+            }
+        });
+    }
+
+    /**
+     * Reads the items of the given purchase order again.
+     *
+     * @param orderId The ID of the purchase order that has changed. Orders without ID are ignored.
+     */
+    void refreshPurchaseOrder(final Integer orderId) {
+        if (orderId == null) {
+            return;
+        }
+
+        this.refresh((entityManager, loaded) -> this.setOrders(loaded.projection, PURCHASE_ORDER_KEY,
+                OpenOrderItems.getPurchaseOrderItems(entityManager, orderId), null, orderId));
+    }
+
+    /**
+     * Reads the items of the given production order again.
+     *
+     * @param orderId The ID of the production order that has changed. Orders without ID are ignored.
+     */
+    void refreshProductionOrder(final Integer orderId) {
+        if (orderId == null) {
+            return;
+        }
+
+        this.refresh((entityManager, loaded) -> this.setOrders(loaded.projection, PRODUCTION_ORDER_KEY,
+                OpenOrderItems.getProductionOrderItems(entityManager, orderId), loaded.graph, orderId));
+    }
+
+    /**
+     * Provides the projection. The projection is loaded, if it has not been loaded yet or if the bills of material
+     * have changed since it has been loaded.
+     *
+     * @return The projection.
+     * @throws Exception Loading of the projection failed.
+     */
+    private AvailabilityProjection getProjection() throws Exception {
+        BillOfMaterialGraph graph = this.billOfMaterialDao.getBillOfMaterialGraph();
+        LoadedProjection loaded = this.loadedProjection;
+        AvailabilityProjection projection;
+        long count;
+
+        if (loaded != null && loaded.graph == graph) {
+            return loaded.projection;
+        }
+
+        synchronized (this) {
+            count = this.changeCount;
+        }
+
+        projection = this.loadProjection(graph);
+
+        synchronized (this) {
+            if (count == this.changeCount) {
+                this.loadedProjection = new LoadedProjection(projection, graph);
+            }
+        }
+
+        return projection;
+    }
+
+    /**
+     * Loads the projection. The projection is loaded by a separate EntityManager, so that changes of the unit of work
+     * of the current thread that are not committed yet are not included.
+     *
+     * @param graph The graph of all bills of material.
+     * @return The projection.
+     * @throws Exception Loading of the projection failed.
+     */
+    private AvailabilityProjection loadProjection(final BillOfMaterialGraph graph) throws Exception {
+        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        AvailabilityProjection projection = new AvailabilityProjection();
+
+        entityManager.getTransaction().begin();
+        projection.beginBulkUpdate();
+
+        try {
+            for (Tuple material : this.getInventories(entityManager, null)) {
+                projection.setInventory(material.get(0, Integer.class), material.get(1, Long.class));
+            }
+
+            this.setOrders(projection, PURCHASE_ORDER_KEY, OpenOrderItems.getPurchaseOrderItems(entityManager, null),
+                    null, null);
+            this.setOrders(projection, PRODUCTION_ORDER_KEY,
+                    OpenOrderItems.getProductionOrderItems(entityManager, null), graph, null);
+            projection.endBulkUpdate();
+            entityManager.getTransaction().commit();
+        } catch (Exception exception) {
+            entityManager.getTransaction().rollback();
+            throw exception;
+        } finally {
+            entityManager.close();
+        }
+
+        return projection;
+    }
+
+    /**
+     * Refreshes the loaded projection by a separate EntityManager. Refreshes are performed one after another, so that
+     * the last refresh of an object reads its latest state. If the refresh fails, the projection is discarded and
+     * loaded again on its next use.
+     *
+     * @param action Reads the changed objects and updates the projection.
+     */
+    private synchronized void refresh(final RefreshAction action) {
+        LoadedProjection loaded = this.loadedProjection;
+        EntityManager entityManager;
+
+        this.changeCount++;
+
+        if (loaded == null) {
+            return;
+        }
+
+        entityManager = this.sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        try {
+            loaded.projection.beginBulkUpdate();
+            action.refresh(entityManager, loaded);
+            loaded.projection.endBulkUpdate();
+            entityManager.getTransaction().commit();
+        } catch (Exception exception) {
+            this.loadedProjection = null;
+
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Reads the inventory of materials.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param materialIds   The IDs of the materials. Null to read all materials.
+     * @return The ID and the inventory of each material.
+     */
+    private List<Tuple> getInventories(final EntityManager entityManager, final Collection<Integer> materialIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<Material> criteria = criteriaQuery.from(Material.class);
+
+        criteriaQuery.multiselect(criteria.get("id"), criteria.get("inventory"));
+
+        if (materialIds != null) {
+            criteriaQuery.where(criteria.get("id").in(materialIds));
+        }
+
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+
+    /**
+     * Sets the scheduled quantities of orders within the projection. The items of purchase orders are supplied at
+     * their date. The items of production orders are supplied at their date and the components of their bill of
+     * material are required at the same date.
+     *
+     * @param projection The projection.
+     * @param keyPrefix  The prefix of the keys of the orders.
+     * @param items      The items of the open orders.
+     * @param graph      The graph of all bills of material. Null, if the orders do not require components.
+     * @param orderId    The ID of the refreshed order, which is removed if it has no open items. Can be null.
+     */
+    private void setOrders(final AvailabilityProjection projection, final String keyPrefix, final List<Tuple> items,
+            final BillOfMaterialGraph graph, final Integer orderId) {
+        Map<Integer, ScheduledQuantities> orders = new LinkedHashMap<Integer, ScheduledQuantities>();
+
+        if (orderId != null) {
+            orders.put(orderId, new ScheduledQuantities());
+        }
+
+        for (Tuple item : items) {
+            ScheduledQuantities quantities = orders.computeIfAbsent(item.get(OpenOrderItems.ORDER_ID, Integer.class),
+                    id -> new ScheduledQuantities());
+            int materialId = item.get(OpenOrderItems.MATERIAL_ID, Integer.class);
+            int day = this.getOrderDay(item.get(OpenOrderItems.DATE, Date.class));
+            long quantity = item.get(OpenOrderItems.QUANTITY, Long.class);
+
+            quantities.add(materialId, day, quantity);
+
+            if (graph != null) {
+                BillOfMaterialExplosion explosion = graph.explode(materialId);
+
+                for (int i = 0; i < explosion.size(); i++) {
+                    quantities.add(explosion.getMaterialId(i), day, -quantity * explosion.getQuantity(i));
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, ScheduledQuantities> order : orders.entrySet()) {
+            ScheduledQuantities quantities = order.getValue();
+
+            projection.setOrder(keyPrefix + order.getKey(), quantities.getMaterialIds(), quantities.getDays(),
+                    quantities.getQuantities());
+        }
+    }
+
+    /**
+     * Converts the requirement date of a material to days since the epoch.
+     *
+     * @param requirementDate The date. Can be null.
+     * @return The days since the epoch. The current day, if no date is given.
+     */
+    private int getDay(final Date requirementDate) {
+        if (requirementDate == null) {
+            return PlanningInput.toDay(new Date());
+        }
+
+        return PlanningInput.toDay(requirementDate);
+    }
+
+    /**
+     * Converts the date of an order to days since the epoch.
+     *
+     * @param date The date. Can be null.
+     * @return The days since the epoch. Orders without a date are scheduled after all other orders, so that they are
+     *         never promised.
+     */
+    private int getOrderDay(final Date date) {
+        if (date == null) {
+            return Integer.MAX_VALUE;
+        }
+
+        return PlanningInput.toDay(date);
+    }
+
+    /**
+     * A projection together with the graph of the bills of material it has been loaded with.
+     */
+    private static final class LoadedProjection {
+        /**
+         * The projection.
+         */
+        private final AvailabilityProjection projection;
+
+        /**
+         * The graph of all bills of material.
+         */
+        private final BillOfMaterialGraph graph;
+
+        /**
+         * Initializes the loaded projection.
+         *
+         * @param projection The projection.
+         * @param graph      The graph of all bills of material.
+         */
+        private LoadedProjection(final AvailabilityProjection projection, final BillOfMaterialGraph graph) {
+            this.projection = projection;
+            this.graph = graph;
+        }
+    }
+
+    /**
+     * The scheduled quantities of a single order.
+     */
+    private static final class ScheduledQuantities {
+        /**
+         * The IDs of the materials.
+         */
+        private final List<Integer> materialIds = new ArrayList<Integer>();
+
+        /**
+         * The days of the quantities.
+         */
+        private final List<Integer> days = new ArrayList<Integer>();
+
+        /**
+         * The quantities.
+         */
+        private final List<Long> quantities = new ArrayList<Long>();
+
+        /**
+         * Adds a quantity.
+         *
+         * @param materialId The ID of the material.
+         * @param day        The day of the quantity.
+         * @param quantity   The quantity.
+         */
+        private void add(final int materialId, final int day, final long quantity) {
+            this.materialIds.add(materialId);
+            this.days.add(day);
+            this.quantities.add(quantity);
+        }
+
+        /**
+         * @return The IDs of the materials.
+         */
+        private int[] getMaterialIds() {
+            return this.materialIds.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * @return The days of the quantities.
+         */
+        private int[] getDays() {
+            return this.days.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * @return The quantities.
+         */
+        private long[] getQuantities() {
+            return this.quantities.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    /**
+     * Reads changed objects and updates the loaded projection.
+     */
+    @FunctionalInterface
+    private interface RefreshAction {
+        /**
+         * Reads the changed objects and updates the loaded projection.
+         *
+         * @param entityManager The EntityManager of the transaction.
+         * @param loaded        The loaded projection.
+         */
+        void refresh(EntityManager entityManager, LoadedProjection loaded);
+    }
+}
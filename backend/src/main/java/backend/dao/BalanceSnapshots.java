@@ -0,0 +1,296 @@
+package backend.dao;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import backend.model.account.Account;
+import backend.model.account.AccountBalanceSnapshot;
+import backend.model.account.Posting;
+import backend.model.account.PostingType;
+
+/**
+ * Maintains the balance snapshots of accounts and determines the balance of an account at any point in time.
+ *
+ * A snapshot is created at the start of each month and contains the balance at the end of the previous month. The
+ * balance at a point in time is the balance of the latest snapshot before it plus the postings in between. Therefore
+ * only the postings of a single month have to be summed up.
+ *
+ * @author Michael
+ */
+final class BalanceSnapshots {
+    /**
+     * Constructor not to be used.
+     */
+    private BalanceSnapshots() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Creates the missing snapshots of all months completed before the given point in time.
+     *
+     * The snapshots are derived backwards from the current balance of the account, starting with the latest completed
+     * month. Months before the latest existing snapshot or before the month of the first posting are not considered.
+     * The account is locked while the snapshots are created, so that no posting is booked in the meantime.
+     *
+     * @param entityManager The EntityManager.
+     * @param accountId     The ID of the account.
+     * @param now           The current point in time.
+     * @return The number of created snapshots.
+     */
+    static int createSnapshots(final EntityManager entityManager, final Integer accountId, final Date now) {
+        Account account = entityManager.find(Account.class, accountId, LockModeType.PESSIMISTIC_WRITE);
+        ZonedDateTime periodEnd = getStartOfMonth(now);
+        ZonedDateTime lowerBound;
+        ZonedDateTime periodStart;
+        AccountBalanceSnapshot latestSnapshot;
+        Date firstPosting;
+        BigDecimal balance;
+        int createdSnapshots = 0;
+
+        if (account == null) {
+            return 0;
+        }
+
+        latestSnapshot = getSnapshot(entityManager, accountId, null, true);
+        firstPosting = getFirstPostingTimestamp(entityManager, accountId);
+
+        if (latestSnapshot != null) {
+            lowerBound = getStartOfMonth(latestSnapshot.getPeriodEnd());
+        } else if (firstPosting != null) {
+            lowerBound = getStartOfMonth(firstPosting).minusMonths(1);
+        } else {
+            lowerBound = periodEnd.minusMonths(1);
+        }
+
+        balance = account.getBalance().subtract(getPostingTotal(entityManager, accountId, toDate(periodEnd), null));
+
+        while (periodEnd.isAfter(lowerBound)) {
+            AccountBalanceSnapshot snapshot = new AccountBalanceSnapshot();
+            snapshot.setAccount(account);
+            snapshot.setPeriodEnd(toDate(periodEnd));
+            snapshot.setBalance(balance);
+            entityManager.persist(snapshot);
+            createdSnapshots++;
+
+            periodStart = periodEnd.minusMonths(1);
+            balance = balance.subtract(
+                    getPostingTotal(entityManager, accountId, toDate(periodStart), toDate(periodEnd)));
+            periodEnd = periodStart;
+        }
+
+        return createdSnapshots;
+    }
+
+    /**
+     * Determines the balance of the account at the given point in time. Postings at the given point in time are not
+     * included.
+     *
+     * @param entityManager The EntityManager.
+     * @param account       The account.
+     * @param timestamp     The point in time.
+     * @return The balance.
+     */
+    static BigDecimal getBalance(final EntityManager entityManager, final Account account, final Date timestamp) {
+        AccountBalanceSnapshot snapshot = getSnapshot(entityManager, account.getId(), timestamp, true);
+
+        if (snapshot != null) {
+            return snapshot.getBalance()
+                    .add(getPostingTotal(entityManager, account.getId(), snapshot.getPeriodEnd(), timestamp));
+        }
+
+        // The point in time is before the first snapshot. Calculate backwards from the next snapshot, if existing.
+        snapshot = getSnapshot(entityManager, account.getId(), timestamp, false);
+
+        if (snapshot != null) {
+            return snapshot.getBalance()
+                    .subtract(getPostingTotal(entityManager, account.getId(), timestamp, snapshot.getPeriodEnd()));
+        }
+
+        return account.getBalance().subtract(getPostingTotal(entityManager, account.getId(), timestamp, null));
+    }
+
+    /**
+     * Deletes the snapshots that are invalidated by a posting at the given point in time. These are all snapshots of
+     * periods ending after the posting.
+     *
+     * @param entityManager The EntityManager.
+     * @param posting       The inserted or deleted posting.
+     */
+    static void invalidate(final EntityManager entityManager, final Posting posting) {
+        CriteriaBuilder criteriaBuilder;
+        CriteriaDelete<AccountBalanceSnapshot> criteriaDelete;
+        Root<AccountBalanceSnapshot> criteria;
+
+        if (posting.getAccount() == null || posting.getTimestamp() == null) {
+            return;
+        }
+
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        criteriaDelete = criteriaBuilder.createCriteriaDelete(AccountBalanceSnapshot.class);
+        criteria = criteriaDelete.from(AccountBalanceSnapshot.class);
+
+        criteriaDelete.where(criteriaBuilder.equal(criteria.get("account").get("id"), posting.getAccount().getId()),
+                criteriaBuilder.greaterThan(criteria.<Date>get("periodEnd"), posting.getTimestamp()));
+        entityManager.createQuery(criteriaDelete).executeUpdate();
+    }
+
+    /**
+     * Deletes all snapshots of the given account.
+     *
+     * @param entityManager The EntityManager.
+     * @param account       The account.
+     */
+    static void deleteAll(final EntityManager entityManager, final Account account) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<AccountBalanceSnapshot> criteriaDelete = criteriaBuilder
+                .createCriteriaDelete(AccountBalanceSnapshot.class);
+        Root<AccountBalanceSnapshot> criteria = criteriaDelete.from(AccountBalanceSnapshot.class);
+
+        criteriaDelete.where(criteriaBuilder.equal(criteria.get("account"), account));
+        entityManager.createQuery(criteriaDelete).executeUpdate();
+    }
+
+    /**
+     * Determines the snapshot closest to the given point in time.
+     *
+     * @param entityManager The EntityManager.
+     * @param accountId     The ID of the account.
+     * @param timestamp     The point in time. If null, the latest snapshot is determined.
+     * @param before        true, to determine the latest snapshot at or before the point in time; false, to determine
+     *                      the earliest snapshot after the point in time.
+     * @return The snapshot. Null, if no such snapshot exists.
+     */
+    private static AccountBalanceSnapshot getSnapshot(final EntityManager entityManager, final Integer accountId,
+            final Date timestamp, final boolean before) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AccountBalanceSnapshot> criteriaQuery = criteriaBuilder
+                .createQuery(AccountBalanceSnapshot.class);
+        Root<AccountBalanceSnapshot> criteria = criteriaQuery.from(AccountBalanceSnapshot.class);
+        Expression<Date> periodEnd = criteria.<Date>get("periodEnd");
+        List<Predicate> predicates = new ArrayList<Predicate>();
+        TypedQuery<AccountBalanceSnapshot> typedQuery;
+        List<AccountBalanceSnapshot> snapshots;
+
+        predicates.add(criteriaBuilder.equal(criteria.get("account").get("id"), accountId));
+
+        if (timestamp != null && before) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(periodEnd, timestamp));
+        } else if (timestamp != null) {
+            predicates.add(criteriaBuilder.greaterThan(periodEnd, timestamp));
+        }
+
+        criteriaQuery.select(criteria);
+        criteriaQuery.where(predicates.toArray(new Predicate[predicates.size()]));
+
+        if (before) {
+            criteriaQuery.orderBy(criteriaBuilder.desc(periodEnd));
+        } else {
+            criteriaQuery.orderBy(criteriaBuilder.asc(periodEnd));
+        }
+
+        typedQuery = entityManager.createQuery(criteriaQuery);
+        typedQuery.setMaxResults(1);
+        snapshots = typedQuery.getResultList();
+
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+
+        return snapshots.get(0);
+    }
+
+    /**
+     * Sums up the amounts of the postings of the account within the given time range. Disbursals are subtracted.
+     *
+     * @param entityManager The EntityManager.
+     * @param accountId     The ID of the account.
+     * @param from          The start of the time range (inclusive).
+     * @param to            The end of the time range (exclusive). Can be null for an open end.
+     * @return The total of the postings.
+     */
+    static BigDecimal getPostingTotal(final EntityManager entityManager, final Integer accountId, final Date from,
+            final Date to) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BigDecimal> criteriaQuery = criteriaBuilder.createQuery(BigDecimal.class);
+        Root<Posting> criteria = criteriaQuery.from(Posting.class);
+        Expression<BigDecimal> amount = criteria.<BigDecimal>get("amount");
+        Expression<Date> timestamp = criteria.<Date>get("timestamp");
+        List<Predicate> predicates = new ArrayList<Predicate>();
+        BigDecimal total;
+
+        predicates.add(criteriaBuilder.equal(criteria.get("account").get("id"), accountId));
+        predicates.add(criteriaBuilder.greaterThanOrEqualTo(timestamp, from));
+
+        if (to != null) {
+            predicates.add(criteriaBuilder.lessThan(timestamp, to));
+        }
+
+        criteriaQuery.select(criteriaBuilder.sum(criteriaBuilder.<BigDecimal>selectCase()
+                .when(criteriaBuilder.equal(criteria.get("type"), PostingType.DISBURSAL), criteriaBuilder.neg(amount))
+                .otherwise(amount)));
+        criteriaQuery.where(predicates.toArray(new Predicate[predicates.size()]));
+
+        total = entityManager.createQuery(criteriaQuery).getSingleResult();
+
+        if (total == null) {
+            return BigDecimal.ZERO;
+        }
+
+        return total;
+    }
+
+    /**
+     * Determines the point in time of the first posting of the account.
+     *
+     * @param entityManager The EntityManager.
+     * @param accountId     The ID of the account.
+     * @return The point in time of the first posting. Null, if the account has no postings.
+     */
+    private static Date getFirstPostingTimestamp(final EntityManager entityManager, final Integer accountId) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Date> criteriaQuery = criteriaBuilder.createQuery(Date.class);
+        Root<Posting> criteria = criteriaQuery.from(Posting.class);
+
+        criteriaQuery.select(criteriaBuilder.least(criteria.<Date>get("timestamp")));
+        criteriaQuery.where(criteriaBuilder.equal(criteria.get("account").get("id"), accountId));
+
+        return entityManager.createQuery(criteriaQuery).getSingleResult();
+    }
+
+    /**
+     * Determines the start of the month of the given point in time.
+     *
+     * @param timestamp The point in time.
+     * @return The start of the month in the default time zone.
+     */
+    private static ZonedDateTime getStartOfMonth(final Date timestamp) {
+        return timestamp.toInstant().atZone(ZoneId.systemDefault()).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    /**
+     * Converts the given point in time to a Date.
+     *
+     * @param dateTime The point in time.
+     * @return The Date.
+     */
+    private static Date toDate(final ZonedDateTime dateTime) {
+        return Date.from(dateTime.toInstant());
+    }
+}
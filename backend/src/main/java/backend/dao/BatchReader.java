@@ -0,0 +1,68 @@
+package backend.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+
+/**
+ * Reads multiple entities of a type by their IDs in a single transaction. The entities are loaded in batches using IN
+ * queries instead of a query per ID. Entities that are already contained in the persistence context or the
+ * second-level cache are not read from the database again.
+ *
+ * @author Michael
+ */
+final class BatchReader {
+    /**
+     * Constructor not to be used.
+     */
+    private BatchReader() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Reads the entities with the given IDs.
+     *
+     * @param <T>            The type of the entities.
+     * @param sessionFactory The database session factory.
+     * @param type           The type of the entities.
+     * @param ids            The IDs of the entities.
+     * @return The entities that exist. IDs without entity are skipped.
+     * @throws Exception In case the retrieval failed.
+     */
+    static <T> List<T> findAll(final EntityManagerFactory sessionFactory, final Class<T> type,
+            final Collection<Integer> ids) throws Exception {
+        List<T> entities = new ArrayList<T>(ids.size());
+        EntityManager entityManager;
+
+        if (ids.isEmpty()) {
+            return entities;
+        }
+
+        entityManager = UnitOfWork.getEntityManager(sessionFactory);
+        UnitOfWork.begin(entityManager);
+
+        try {
+            for (T entity : entityManager.unwrap(Session.class).byMultipleIds(type)
+                    .multiLoad(new ArrayList<Integer>(ids))) {
+                if (entity != null) {
+                    entities.add(entity);
+                }
+            }
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return entities;
+    }
+}
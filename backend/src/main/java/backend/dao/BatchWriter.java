@@ -0,0 +1,68 @@
+package backend.dao;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Persists lists of entities in a single transaction using JDBC batching. The persistence context is flushed and
+ * cleared after each chunk, so that the memory consumption does not grow with the number of entities. If a unit of work
+ * is active, the entities are persisted as part of it.
+ *
+ * @author Michael
+ */
+final class BatchWriter {
+    /**
+     * The number of entities written per chunk. Matches the property "hibernate.jdbc.batch_size" of the
+     * persistence.xml, so that each chunk is sent as a single JDBC batch.
+     */
+    static final int CHUNK_SIZE = 50;
+
+    /**
+     * Constructor not to be used.
+     */
+    private BatchWriter() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Persists all given entities in a single transaction. Either all entities are persisted or none.
+     *
+     * @param <T>            The type of the entities.
+     * @param sessionFactory The database session factory.
+     * @param entities       The entities to be persisted.
+     * @throws Exception In case the insertion failed.
+     */
+    static <T> void persistAll(final EntityManagerFactory sessionFactory, final List<T> entities) throws Exception {
+        EntityManager entityManager = UnitOfWork.getEntityManager(sessionFactory);
+        int persistedEntities = 0;
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            for (T entity : entities) {
+                entityManager.persist(entity);
+                persistedEntities++;
+
+                if (persistedEntities % CHUNK_SIZE == 0) {
+                    // Sends the chunk as JDBC batch and detaches the written entities. Entities of a unit of work
+                    // stay attached, because further DAO calls of the unit of work may still work on them.
+                    entityManager.flush();
+
+                    if (!UnitOfWork.isParticipating(entityManager)) {
+                        entityManager.clear();
+                    }
+                }
+            }
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary!?
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+    }
+}
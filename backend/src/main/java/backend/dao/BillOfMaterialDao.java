@@ -2,9 +2,12 @@ package backend.dao;
 
 import java.util.List;
 
+import backend.exception.CircularReferenceException;
 import backend.exception.EntityExistsException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.billOfMaterial.BillOfMaterial;
+import backend.model.billOfMaterial.BillOfMaterialGraph;
 import backend.model.material.Material;
 
 /**
@@ -17,10 +20,12 @@ public interface BillOfMaterialDao {
      * Inserts a BillOfMaterial.
      *
      * @param billOfMaterial The BillOfMaterial to be inserted.
-     * @throws EntityExistsException Another BillOfMaterial with the same material exists.
-     * @throws Exception             Insertion failed.
+     * @throws EntityExistsException       Another BillOfMaterial with the same material exists.
+     * @throws CircularReferenceException The material of the BillOfMaterial would be a component of itself.
+     * @throws Exception                  Insertion failed.
      */
-    void insertBillOfMaterial(BillOfMaterial billOfMaterial) throws EntityExistsException, Exception;
+    void insertBillOfMaterial(BillOfMaterial billOfMaterial)
+            throws EntityExistsException, CircularReferenceException, Exception;
 
     /**
      * Deletes a BillOfMaterial.
@@ -39,6 +44,17 @@ public interface BillOfMaterialDao {
      */
     List<BillOfMaterial> getBillOfMaterials(Material material) throws Exception;
 
+    /**
+     * Gets a page of BillOfMaterials ordered by ID.
+     *
+     * @param material The material on which the BillOfMaterial is based.
+     * @param afterId  Only BillOfMaterials with an ID greater than this ID are selected. Can be null.
+     * @param limit    The maximum number of BillOfMaterials. Can be null.
+     * @return The BillOfMaterials of the page.
+     * @throws Exception BillOfMaterial retrieval failed.
+     */
+    List<BillOfMaterial> getBillOfMaterials(Material material, Integer afterId, Integer limit) throws Exception;
+
     /**
      * Gets the BillOfMaterial with the given id.
      *
@@ -52,10 +68,20 @@ public interface BillOfMaterialDao {
      * Updates the given BillOfMaterial.
      *
      * @param billOfMaterial The BillOfMaterial to be updated.
-     * @throws ObjectUnchangedException The BillOfMaterial has not been changed. Another BillOfMaterial with the same
-     *                                  material exists.
-     * @throws Exception                BillOfMaterial update failed.
+     * @throws ObjectUnchangedException   The BillOfMaterial has not been changed. Another BillOfMaterial with the
+     *                                    same material exists.
+     * @throws ObjectOutdatedException    The BillOfMaterial has been changed by someone else in the meantime.
+     * @throws CircularReferenceException The material of the BillOfMaterial would be a component of itself.
+     * @throws Exception                  BillOfMaterial update failed.
+     */
+    void updateBillOfMaterial(BillOfMaterial billOfMaterial) throws ObjectUnchangedException, ObjectOutdatedException,
+            EntityExistsException, CircularReferenceException, Exception;
+
+    /**
+     * Gets the graph of all BillOfMaterials. The graph is cached until a BillOfMaterial is changed.
+     *
+     * @return The graph of all BillOfMaterials.
+     * @throws Exception BillOfMaterial retrieval failed.
      */
-    void updateBillOfMaterial(BillOfMaterial billOfMaterial)
-            throws ObjectUnchangedException, EntityExistsException, Exception;
+    BillOfMaterialGraph getBillOfMaterialGraph() throws Exception;
 }
@@ -3,18 +3,21 @@ package backend.dao;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
+import backend.exception.CircularReferenceException;
 import backend.exception.EntityExistsException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.billOfMaterial.BillOfMaterial;
+import backend.model.billOfMaterial.BillOfMaterialGraph;
 import backend.model.material.Material;
 
 /**
@@ -28,6 +31,16 @@ public class BillOfMaterialHibernateDao implements BillOfMaterialDao {
      */
     private EntityManagerFactory sessionFactory;
 
+    /**
+     * The cached graph of all BillOfMaterials. Null, if the graph has to be loaded.
+     */
+    private volatile BillOfMaterialGraph billOfMaterialGraph;
+
+    /**
+     * Incremented on each change of a BillOfMaterial. A graph loaded during a change is not cached.
+     */
+    private long graphGeneration;
+
     /**
      * Default constructor.
      *
@@ -41,26 +54,26 @@ public class BillOfMaterialHibernateDao implements BillOfMaterialDao {
      * Inserts a BillOfMaterial.
      */
     @Override
-    public void insertBillOfMaterial(final BillOfMaterial billOfMaterial) throws EntityExistsException, Exception {
+    public void insertBillOfMaterial(final BillOfMaterial billOfMaterial)
+            throws EntityExistsException, CircularReferenceException, Exception {
         EntityManager entityManager;
 
         this.checkAnotherBomOfMaterialExists(billOfMaterial);
+        this.checkCircularReference(billOfMaterial);
 
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.persist(billOfMaterial);
-            entityManager.flush(); // Assures, that the generated BillOfMaterial ID is available.
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager, this::invalidateBillOfMaterialGraph);
         }
     }
 
@@ -69,24 +82,23 @@ public class BillOfMaterialHibernateDao implements BillOfMaterialDao {
      */
     @Override
     public void deleteBillOfMaterial(final BillOfMaterial billOfMaterial) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
         BillOfMaterial deleteBillOfMaterial = entityManager.find(BillOfMaterial.class, billOfMaterial.getId());
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.remove(deleteBillOfMaterial);
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager, this::invalidateBillOfMaterialGraph);
         }
     }
 
@@ -95,36 +107,34 @@ public class BillOfMaterialHibernateDao implements BillOfMaterialDao {
      */
     @Override
     public List<BillOfMaterial> getBillOfMaterials(final Material material) throws Exception {
+        return this.getBillOfMaterials(material, null, null);
+    }
+
+    /**
+     * Gets a page of BillOfMaterials ordered by ID.
+     */
+    @Override
+    public List<BillOfMaterial> getBillOfMaterials(final Material material, final Integer afterId,
+            final Integer limit) throws Exception {
         List<BillOfMaterial> billOfMaterials = null;
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced BillOfMaterialItem instances.
-        EntityGraph<BillOfMaterial> graph = entityManager.createEntityGraph(BillOfMaterial.class);
-        graph.addAttributeNodes("items");
-        graph.addSubgraph("items").addAttributeNodes("material");
+        EntityGraph<BillOfMaterial> graph = this.getItemsGraph(entityManager);
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<BillOfMaterial> criteriaQuery = criteriaBuilder.createQuery(BillOfMaterial.class);
-            Root<BillOfMaterial> criteria = criteriaQuery.from(BillOfMaterial.class);
-            criteriaQuery.select(criteria);
-            this.applyBomMaterialQueryParameter(material, criteriaQuery, criteriaBuilder, criteria);
-            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
-            TypedQuery<BillOfMaterial> typedQuery = entityManager.createQuery(criteriaQuery);
-            typedQuery.setHint("jakarta.persistence.loadgraph", graph); // Also fetch all item data.
-            billOfMaterials = typedQuery.getResultList();
+            billOfMaterials = KeysetPagination.getPage(entityManager, BillOfMaterial.class, graph,
+                    this.getBomMaterialRestriction(material), afterId, limit);
 
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
 
         return billOfMaterials;
@@ -135,19 +145,17 @@ public class BillOfMaterialHibernateDao implements BillOfMaterialDao {
      */
     @Override
     public BillOfMaterial getBillOfMaterial(final Integer id) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced BillOfMaterialItem instances.
-        EntityGraph<BillOfMaterial> graph = entityManager.createEntityGraph(BillOfMaterial.class);
-        graph.addAttributeNodes("items");
-        graph.addSubgraph("items").addAttributeNodes("material");
+        EntityGraph<BillOfMaterial> graph = this.getItemsGraph(entityManager);
         Map<String, Object> hints = new HashMap<String, Object>();
         hints.put("jakarta.persistence.loadgraph", graph);
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
         BillOfMaterial billOfMaterial = entityManager.find(BillOfMaterial.class, id, hints);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        UnitOfWork.commit(entityManager);
+        UnitOfWork.close(entityManager);
 
         return billOfMaterial;
     }
@@ -156,55 +164,134 @@ public class BillOfMaterialHibernateDao implements BillOfMaterialDao {
      * Updates a BillOfMaterial.
      */
     @Override
-    public void updateBillOfMaterial(final BillOfMaterial billOfMaterial)
-            throws ObjectUnchangedException, EntityExistsException, Exception {
+    public void updateBillOfMaterial(final BillOfMaterial billOfMaterial) throws ObjectUnchangedException,
+            ObjectOutdatedException, EntityExistsException, CircularReferenceException, Exception {
         EntityManager entityManager;
 
-        this.checkBillOfMaterialDataChanged(billOfMaterial);
+        // Changes of objects managed by the unit of work are tracked by the EntityManager and written on commit.
+        if (UnitOfWork.isManaged(billOfMaterial)) {
+            this.checkCircularReference(billOfMaterial);
+            UnitOfWork.afterCompletion(UnitOfWork.getEntityManager(this.sessionFactory),
+                    this::invalidateBillOfMaterialGraph);
+            return;
+        }
+
         this.checkAnotherBomOfMaterialExists(billOfMaterial);
+        this.checkCircularReference(billOfMaterial);
 
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
-        entityManager.merge(billOfMaterial);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
+
+        try {
+            OptimisticLocking.merge(entityManager, billOfMaterial, true);
+            UnitOfWork.commit(entityManager);
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            UnitOfWork.commit(entityManager);
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager, this::invalidateBillOfMaterialGraph);
+        }
     }
 
     /**
-     * Applies the material query parameter to the BillOfMaterial query.
-     *
-     * @param material        The query parameter for BillOfMaterial material.
-     * @param criteriaQuery   The BillOfMaterial criteria query.
-     * @param criteriaBuilder The builder of criterias.
-     * @param criteria        The root entity of the BillOfMaterial that is being queried.
+     * Gets the graph of all BillOfMaterials.
      */
-    private void applyBomMaterialQueryParameter(final Material material,
-            final CriteriaQuery<BillOfMaterial> criteriaQuery, final CriteriaBuilder criteriaBuilder,
-            final Root<BillOfMaterial> criteria) {
+    @Override
+    public BillOfMaterialGraph getBillOfMaterialGraph() throws Exception {
+        BillOfMaterialGraph graph = this.billOfMaterialGraph;
+        long generation;
 
-        if (material == null) {
-            return; // No further query restrictions needed.
+        if (graph != null) {
+            return graph;
         }
 
-        criteriaQuery.where(criteriaBuilder.equal(criteria.get("material"), material));
+        synchronized (this) {
+            generation = this.graphGeneration;
+        }
+
+        graph = this.loadBillOfMaterialGraph();
+
+        synchronized (this) {
+            if (generation == this.graphGeneration) {
+                this.billOfMaterialGraph = graph;
+            }
+        }
+
+        return graph;
     }
 
     /**
-     * Checks if the data of the given BillOfMaterial differ from the BillOfMaterial that is persisted at database
-     * level.
+     * Loads the graph of all BillOfMaterials. The graph is loaded by a separate EntityManager, so that changes of the
+     * unit of work of the current thread that are not committed yet are not included.
      *
-     * @param billOfMaterial The BillOfMaterial to be checked.
-     * @throws ObjectUnchangedException In case the BillOfMaterial has not been changed.
-     * @throws Exception                In case an error occurred during determination of the BillOfMaterial stored at
-     *                                  the database.
+     * @return The graph of all BillOfMaterials.
+     * @throws Exception BillOfMaterial retrieval failed.
      */
-    private void checkBillOfMaterialDataChanged(final BillOfMaterial billOfMaterial)
-            throws ObjectUnchangedException, Exception {
-        BillOfMaterial databaseBillOfMaterial = this.getBillOfMaterial(billOfMaterial.getId());
+    private BillOfMaterialGraph loadBillOfMaterialGraph() throws Exception {
+        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        BillOfMaterialGraph graph;
 
-        if (databaseBillOfMaterial.equals(billOfMaterial)) {
-            throw new ObjectUnchangedException();
+        entityManager.getTransaction().begin();
+
+        try {
+            graph = new BillOfMaterialGraph(KeysetPagination.getPage(entityManager, BillOfMaterial.class,
+                    this.getItemsGraph(entityManager), this.getBomMaterialRestriction(null), null, null));
+            entityManager.getTransaction().commit();
+        } catch (Exception exception) {
+            entityManager.getTransaction().rollback();
+            throw exception;
+        } finally {
+            entityManager.close();
         }
+
+        return graph;
+    }
+
+    /**
+     * Discards the cached graph of all BillOfMaterials. The graph is loaded again on its next use.
+     */
+    private synchronized void invalidateBillOfMaterialGraph() {
+        this.graphGeneration++;
+        this.billOfMaterialGraph = null;
+    }
+
+    /**
+     * Provides an entity graph that loads the items of a BillOfMaterial and their materials.
+     *
+     * @param entityManager The EntityManager.
+     * @return The entity graph.
+     */
+    private EntityGraph<BillOfMaterial> getItemsGraph(final EntityManager entityManager) {
+        EntityGraph<BillOfMaterial> graph = entityManager.createEntityGraph(BillOfMaterial.class);
+
+        graph.addAttributeNodes("items");
+        graph.addSubgraph("items").addAttributeNodes("material");
+
+        return graph;
+    }
+
+    /**
+     * Provides the restriction of the BillOfMaterial query based on the material query parameter.
+     *
+     * @param material The query parameter for BillOfMaterial material.
+     * @return The restriction of the BillOfMaterial query.
+     */
+    private BiFunction<CriteriaBuilder, Root<BillOfMaterial>, Predicate> getBomMaterialRestriction(
+            final Material material) {
+
+        return (criteriaBuilder, criteria) -> {
+            if (material == null) {
+                return null; // No further query restrictions needed.
+            }
+
+            return criteriaBuilder.equal(criteria.get("material"), material);
+        };
     }
 
     /**
@@ -231,4 +318,19 @@ public class BillOfMaterialHibernateDao implements BillOfMaterialDao {
             }
         }
     }
+
+    /**
+     * Checks if the material of the given BillOfMaterial would be a direct or indirect component of itself.
+     *
+     * @param billOfMaterial The BillOfMaterial which the user tries to save or update.
+     * @throws CircularReferenceException The material would be a component of itself.
+     * @throws Exception                  Determination of the BillOfMaterial graph failed.
+     */
+    private void checkCircularReference(final BillOfMaterial billOfMaterial)
+            throws CircularReferenceException, Exception {
+
+        if (this.getBillOfMaterialGraph().createsCycle(billOfMaterial)) {
+            throw new CircularReferenceException(billOfMaterial.getMaterial().getId());
+        }
+    }
 }
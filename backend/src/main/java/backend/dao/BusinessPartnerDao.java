@@ -1,8 +1,11 @@
 package backend.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import backend.exception.ObjectInUseException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.businessPartner.BPTypeQueryParameter;
 import backend.model.businessPartner.BusinessPartner;
@@ -21,6 +24,14 @@ public interface BusinessPartnerDao {
      */
     void insertBusinessPartner(BusinessPartner businessPartner) throws Exception;
 
+    /**
+     * Inserts the given business partners in a single transaction.
+     *
+     * @param businessPartners The business partners to be inserted.
+     * @throws Exception Insertion failed. None of the business partners has been inserted.
+     */
+    void insertBusinessPartners(List<BusinessPartner> businessPartners) throws Exception;
+
     /**
      * Deletes a business partner.
      *
@@ -39,6 +50,18 @@ public interface BusinessPartnerDao {
      */
     List<BusinessPartner> getBusinessPartners(BPTypeQueryParameter bpTypeQuery) throws Exception;
 
+    /**
+     * Gets a page of business partners ordered by ID.
+     *
+     * @param bpTypeQuery The type of the business partners to be queried.
+     * @param afterId     Only business partners with an ID greater than this ID are selected. Can be null.
+     * @param limit       The maximum number of business partners. Can be null.
+     * @return The business partners of the page.
+     * @throws Exception Business partner retrieval failed.
+     */
+    List<BusinessPartner> getBusinessPartners(BPTypeQueryParameter bpTypeQuery, Integer afterId, Integer limit)
+            throws Exception;
+
     /**
      * Gets the business partner with the given id.
      *
@@ -48,12 +71,33 @@ public interface BusinessPartnerDao {
      */
     BusinessPartner getBusinessPartner(Integer id) throws Exception;
 
+    /**
+     * Gets the business partners with the given IDs.
+     *
+     * @param ids The IDs of the business partners.
+     * @return The business partners that exist. IDs without business partner are skipped.
+     * @throws Exception Business partner retrieval failed.
+     */
+    List<BusinessPartner> getBusinessPartnersById(Collection<Integer> ids) throws Exception;
+
     /**
      * Updates the given business partner.
      *
      * @param businessPartner The business partner to be updated.
      * @throws ObjectUnchangedException The business partner has not been changed.
+     * @throws ObjectOutdatedException  The business partner has been changed by someone else in the meantime.
      * @throws Exception                Business partner update failed.
      */
-    void updateBusinessPartner(BusinessPartner businessPartner) throws ObjectUnchangedException, Exception;
+    void updateBusinessPartner(BusinessPartner businessPartner)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception;
+
+    /**
+     * Gets the IDs of the given business partners that are referenced by another business object. Business partners
+     * not referenced can be deleted.
+     *
+     * @param businessPartnerIds The IDs of the business partners to be checked.
+     * @return The IDs of the business partners that are in use.
+     * @throws Exception ID determination failed.
+     */
+    Set<Integer> getBusinessPartnerIdsInUse(Collection<Integer> businessPartnerIds) throws Exception;
 }
@@ -1,17 +1,20 @@
 package backend.dao;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
 import backend.exception.ObjectInUseException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.account.Posting;
 import backend.model.businessPartner.BPTypeQueryParameter;
@@ -45,49 +48,52 @@ public class BusinessPartnerHibernateDao implements BusinessPartnerDao {
      */
     @Override
     public void insertBusinessPartner(final BusinessPartner businessPartner) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.persist(businessPartner);
-            entityManager.flush(); // Assures, that the generated business partner ID is available.
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
     }
 
+    /**
+     * Inserts a list of BusinessPartners.
+     */
+    @Override
+    public void insertBusinessPartners(final List<BusinessPartner> businessPartners) throws Exception {
+        BatchWriter.persistAll(this.sessionFactory, businessPartners);
+    }
+
     /**
      * Deletes a BusinessPartner.
      */
     @Override
     public void deleteBusinessPartner(final BusinessPartner businessPartner) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         this.checkBusinessPartnerInUse(businessPartner, entityManager);
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
         BusinessPartner deleteBusinessPartner = entityManager.find(BusinessPartner.class, businessPartner.getId());
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.remove(deleteBusinessPartner);
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
     }
 
@@ -96,29 +102,31 @@ public class BusinessPartnerHibernateDao implements BusinessPartnerDao {
      */
     @Override
     public List<BusinessPartner> getBusinessPartners(final BPTypeQueryParameter bpTypeQuery) throws Exception {
+        return this.getBusinessPartners(bpTypeQuery, null, null);
+    }
+
+    /**
+     * Gets a page of business partners ordered by ID.
+     */
+    @Override
+    public List<BusinessPartner> getBusinessPartners(final BPTypeQueryParameter bpTypeQuery, final Integer afterId,
+            final Integer limit) throws Exception {
         List<BusinessPartner> businessPartners = null;
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<BusinessPartner> criteriaQuery = criteriaBuilder.createQuery(BusinessPartner.class);
-            Root<BusinessPartner> criteria = criteriaQuery.from(BusinessPartner.class);
-            criteriaQuery.select(criteria);
-            this.applyBPTypeQueryParameter(bpTypeQuery, criteriaQuery, criteriaBuilder, criteria);
-            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
-            TypedQuery<BusinessPartner> typedQuery = entityManager.createQuery(criteriaQuery);
-            businessPartners = typedQuery.getResultList();
-
-            entityManager.getTransaction().commit();
+            businessPartners = KeysetPagination.getPage(entityManager, BusinessPartner.class, null,
+                    this.getBPTypeRestriction(bpTypeQuery), afterId, limit);
+
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
 
         return businessPartners;
@@ -129,85 +137,122 @@ public class BusinessPartnerHibernateDao implements BusinessPartnerDao {
      */
     @Override
     public BusinessPartner getBusinessPartner(final Integer id) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
         BusinessPartner businessPartner = entityManager.find(BusinessPartner.class, id);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        UnitOfWork.commit(entityManager);
+        UnitOfWork.close(entityManager);
 
         return businessPartner;
     }
 
+    /**
+     * Gets the business partners with the given IDs.
+     */
+    @Override
+    public List<BusinessPartner> getBusinessPartnersById(final Collection<Integer> ids) throws Exception {
+        return BatchReader.findAll(this.sessionFactory, BusinessPartner.class, ids);
+    }
+
     /**
      * Updates a BusinessPartner.
      */
     @Override
     public void updateBusinessPartner(final BusinessPartner businessPartner)
-            throws ObjectUnchangedException, Exception {
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception {
         EntityManager entityManager;
 
-        this.checkBusinessPartnerDataChanged(businessPartner);
+        // Changes of objects managed by the unit of work are tracked by the EntityManager and written on commit.
+        if (UnitOfWork.isManaged(businessPartner)) {
+            return;
+        }
+
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
-        entityManager.merge(businessPartner);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        try {
+            OptimisticLocking.merge(entityManager, businessPartner, false);
+            UnitOfWork.commit(entityManager);
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            UnitOfWork.commit(entityManager);
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
     }
 
     /**
-     * Checks if the data of the given business partner differ from the business partner that is persisted at database
-     * level.
+     * Provides the restriction of the business partner query based on the business partner type query parameter.
      *
-     * @param businessPartner The business partner to be checked.
-     * @throws ObjectUnchangedException In case the business partner has not been changed.
-     * @throws Exception                In case an error occurred during determination of the business partner stored at
-     *                                  the database.
+     * @param bpTypeQuery The query parameter for business partner types.
+     * @return The restriction of the business partner query.
      */
-    private void checkBusinessPartnerDataChanged(final BusinessPartner businessPartner)
-            throws ObjectUnchangedException, Exception {
-        BusinessPartner databaseBusinessPartner = this.getBusinessPartner(businessPartner.getId());
+    private BiFunction<CriteriaBuilder, Root<BusinessPartner>, Predicate> getBPTypeRestriction(
+            final BPTypeQueryParameter bpTypeQuery) {
 
-        if (databaseBusinessPartner.equals(businessPartner)) {
-            throw new ObjectUnchangedException();
-        }
+        return (criteriaBuilder, bpCriteria) -> {
+            Expression<Collection<BusinessPartnerType>> types = bpCriteria.get("types");
+            BusinessPartnerType bpType = null;
+
+            if (bpTypeQuery == null) {
+                return null;
+            }
+
+            // Convert the type that is used to define the query into the type that is used in the data model.
+            switch (bpTypeQuery) {
+            case CUSTOMER:
+                bpType = BusinessPartnerType.CUSTOMER;
+                break;
+            case VENDOR:
+                bpType = BusinessPartnerType.VENDOR;
+                break;
+            case ALL:
+                return null;
+            default:
+                return null;
+            }
+
+            return criteriaBuilder.isMember(bpType, types);
+        };
     }
 
     /**
-     * Applies the type query parameter to the business partner query.
-     *
-     * @param bpTypeQuery     Specifies the business partners to be selected based on the type attribute.
-     * @param bpCriteriaQuery The business partner criteria query.
-     * @param criteriaBuilder The builder of criterias.
-     * @param bpCriteria      Root type of the business partner in the from clause.
+     * Gets the IDs of the given business partners that are referenced by another business object.
      */
-    private void applyBPTypeQueryParameter(final BPTypeQueryParameter bpTypeQuery,
-            final CriteriaQuery<BusinessPartner> bpCriteriaQuery, final CriteriaBuilder criteriaBuilder,
-            final Root<BusinessPartner> bpCriteria) {
-
-        Expression<Collection<BusinessPartnerType>> types = bpCriteria.get("types");
-        BusinessPartnerType bpType = null;
+    @Override
+    public Set<Integer> getBusinessPartnerIdsInUse(final Collection<Integer> businessPartnerIds) throws Exception {
+        Set<Integer> unusedIds = new HashSet<Integer>(businessPartnerIds);
+        Set<Integer> usedIds = new HashSet<Integer>(businessPartnerIds);
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
-        if (bpTypeQuery == null) {
-            return;
+        try {
+            // Each check only has to consider the business partners for which no reference has been found yet.
+            unusedIds.removeAll(ReferenceCheck.getReferencedIds(entityManager, SalesOrder.class, unusedIds,
+                    "soldToParty", "shipToParty", "billToParty"));
+            unusedIds.removeAll(ReferenceCheck.getReferencedIds(entityManager, PurchaseOrder.class, unusedIds,
+                    "vendor"));
+            unusedIds.removeAll(ReferenceCheck.getReferencedIds(entityManager, Posting.class, unusedIds,
+                    "counterparty"));
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
         }
 
-        // Convert the type that is used to define the query into the type that is used in the data model.
-        switch (bpTypeQuery) {
-        case CUSTOMER:
-            bpType = BusinessPartnerType.CUSTOMER;
-            break;
-        case VENDOR:
-            bpType = BusinessPartnerType.VENDOR;
-            break;
-        case ALL:
-            return;
-        default:
-            return;
-        }
+        usedIds.removeAll(unusedIds);
 
-        bpCriteriaQuery.where(criteriaBuilder.isMember(bpType, types));
+        return usedIds;
     }
 
     /**
@@ -233,23 +278,12 @@ public class BusinessPartnerHibernateDao implements BusinessPartnerDao {
      */
     private void checkBusinessPartnerUsedInSalesOrder(final BusinessPartner businessPartner,
             final EntityManager entityManager) throws ObjectInUseException {
-        SalesOrder salesOrder;
-        List<SalesOrder> salesOrders;
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<SalesOrder> criteriaQuery = criteriaBuilder.createQuery(SalesOrder.class);
-
-        Root<SalesOrder> criteria = criteriaQuery.from(SalesOrder.class);
-        criteriaQuery.select(criteria).distinct(true);
-        criteriaQuery.where(criteriaBuilder.or(criteriaBuilder.equal(criteria.get("soldToParty"), businessPartner),
-                criteriaBuilder.equal(criteria.get("shipToParty"), businessPartner),
-                criteriaBuilder.equal(criteria.get("billToParty"), businessPartner)));
-
-        TypedQuery<SalesOrder> typedQuery = entityManager.createQuery(criteriaQuery);
-        salesOrders = typedQuery.getResultList();
-
-        if (salesOrders.size() > 0) {
-            salesOrder = salesOrders.get(0);
-            throw new ObjectInUseException(businessPartner.getId(), salesOrder.getId(), salesOrder);
+        Integer salesOrderId = ReferenceCheck.getUsingId(entityManager, SalesOrder.class, null,
+                businessPartner.getId(), "soldToParty", "shipToParty", "billToParty");
+
+        if (salesOrderId != null) {
+            throw new ObjectInUseException(businessPartner.getId(), salesOrderId,
+                    entityManager.getReference(SalesOrder.class, salesOrderId));
         }
     }
 
@@ -262,21 +296,12 @@ public class BusinessPartnerHibernateDao implements BusinessPartnerDao {
      */
     private void checkBusinessPartnerUsedInPurchaseOrder(final BusinessPartner businessPartner,
             final EntityManager entityManager) throws ObjectInUseException {
-        PurchaseOrder purchaseOrder;
-        List<PurchaseOrder> purchaseOrders;
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<PurchaseOrder> criteriaQuery = criteriaBuilder.createQuery(PurchaseOrder.class);
-
-        Root<PurchaseOrder> criteria = criteriaQuery.from(PurchaseOrder.class);
-        criteriaQuery.select(criteria).distinct(true);
-        criteriaQuery.where(criteriaBuilder.equal(criteria.get("vendor"), businessPartner));
+        Integer purchaseOrderId = ReferenceCheck.getUsingId(entityManager, PurchaseOrder.class, null,
+                businessPartner.getId(), "vendor");
 
-        TypedQuery<PurchaseOrder> typedQuery = entityManager.createQuery(criteriaQuery);
-        purchaseOrders = typedQuery.getResultList();
-
-        if (purchaseOrders.size() > 0) {
-            purchaseOrder = purchaseOrders.get(0);
-            throw new ObjectInUseException(businessPartner.getId(), purchaseOrder.getId(), purchaseOrder);
+        if (purchaseOrderId != null) {
+            throw new ObjectInUseException(businessPartner.getId(), purchaseOrderId,
+                    entityManager.getReference(PurchaseOrder.class, purchaseOrderId));
         }
     }
 
@@ -289,21 +314,12 @@ public class BusinessPartnerHibernateDao implements BusinessPartnerDao {
      */
     private void checkBusinessPartnerUsedInPosting(final BusinessPartner businessPartner,
             final EntityManager entityManager) throws ObjectInUseException {
-        Posting posting;
-        List<Posting> postings;
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Posting> criteriaQuery = criteriaBuilder.createQuery(Posting.class);
-
-        Root<Posting> criteria = criteriaQuery.from(Posting.class);
-        criteriaQuery.select(criteria).distinct(true);
-        criteriaQuery.where(criteriaBuilder.equal(criteria.get("counterparty"), businessPartner));
-
-        TypedQuery<Posting> typedQuery = entityManager.createQuery(criteriaQuery);
-        postings = typedQuery.getResultList();
+        Integer postingId = ReferenceCheck.getUsingId(entityManager, Posting.class, null, businessPartner.getId(),
+                "counterparty");
 
-        if (postings.size() > 0) {
-            posting = postings.get(0);
-            throw new ObjectInUseException(businessPartner.getId(), posting.getId(), posting);
+        if (postingId != null) {
+            throw new ObjectInUseException(businessPartner.getId(), postingId,
+                    entityManager.getReference(Posting.class, postingId));
         }
     }
 }
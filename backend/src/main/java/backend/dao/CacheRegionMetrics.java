@@ -0,0 +1,103 @@
+package backend.dao;
+
+/**
+ * A snapshot of the statistics of a single region of the second-level cache.
+ *
+ * @author Michael
+ */
+public class CacheRegionMetrics {
+    /**
+     * The name of the cache region.
+     */
+    private String regionName;
+
+    /**
+     * The number of successful lookups in the region.
+     */
+    private long hitCount;
+
+    /**
+     * The number of lookups in the region that did not find an entry.
+     */
+    private long missCount;
+
+    /**
+     * The number of entries put into the region.
+     */
+    private long putCount;
+
+    /**
+     * The number of entries currently held in memory by the region.
+     */
+    private long elementCount;
+
+    /**
+     * @return the regionName
+     */
+    public String getRegionName() {
+        return regionName;
+    }
+
+    /**
+     * @param regionName the regionName to set
+     */
+    public void setRegionName(final String regionName) {
+        this.regionName = regionName;
+    }
+
+    /**
+     * @return the hitCount
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @param hitCount the hitCount to set
+     */
+    public void setHitCount(final long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * @return the missCount
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @param missCount the missCount to set
+     */
+    public void setMissCount(final long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * @return the putCount
+     */
+    public long getPutCount() {
+        return putCount;
+    }
+
+    /**
+     * @param putCount the putCount to set
+     */
+    public void setPutCount(final long putCount) {
+        this.putCount = putCount;
+    }
+
+    /**
+     * @return the elementCount
+     */
+    public long getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * @param elementCount the elementCount to set
+     */
+    public void setElementCount(final long elementCount) {
+        this.elementCount = elementCount;
+    }
+}
@@ -2,16 +2,35 @@ package backend.dao;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import backend.dao.image.ImageStoreConfiguration;
+import backend.dao.pool.ConnectionPool;
+import backend.dao.pool.ConnectionPoolMetrics;
+
 /**
  * Manages a central database connection and provides DAOs for database access.
  *
  * @author Michael
  */
 public final class DAOManager implements Closeable {
+    /**
+     * The name of the persistence unit. The name must match with the persistence unit defined in the persistence.xml
+     * file.
+     */
+    private static final String PERSISTENCE_UNIT = "my-persistence-unit";
+
     /**
      * Instance of this class.
      */
@@ -62,6 +81,11 @@ public final class DAOManager implements Closeable {
      */
     private PostingDao postingDao;
 
+    /**
+     * DAO to manage inventory movement data.
+     */
+    private InventoryMovementDao inventoryMovementDao;
+
     /**
      * DAO to manage image data.
      */
@@ -82,6 +106,16 @@ public final class DAOManager implements Closeable {
      */
     private ProductionOrderDao productionOrderDao;
 
+    /**
+     * DAO to manage requirements planning data.
+     */
+    private PlanningDao planningDao;
+
+    /**
+     * DAO to manage availability data.
+     */
+    private AvailabilityHibernateDao availabilityDao;
+
     /**
      * Initializes the DAOManager.
      */
@@ -103,13 +137,18 @@ public final class DAOManager implements Closeable {
     }
 
     /**
-     * Builds a session factory for database access.
+     * Builds a session factory for database access. Existing databases are migrated before.
      *
      * @return Session factory for database access.
      */
     private EntityManagerFactory getSessionFactory() {
-        // The given string must match with the persistence unit defined in the persistence.xml file.
-        return Persistence.createEntityManagerFactory("my-persistence-unit");
+        try {
+            DatabaseMigration.migrate(PERSISTENCE_UNIT);
+        } catch (Exception exception) {
+            throw new IllegalStateException("The database could not be migrated.", exception);
+        }
+
+        return Persistence.createEntityManagerFactory(PERSISTENCE_UNIT);
     }
 
     /**
@@ -145,7 +184,8 @@ public final class DAOManager implements Closeable {
      */
     public MaterialDao getMaterialDAO() {
         if (this.materialDao == null) {
-            this.materialDao = new MaterialHibernateDao(this.sessionFactory);
+            this.materialDao = new MaterialHibernateDao(this.sessionFactory,
+                    this.getAvailabilityHibernateDao());
         }
 
         return this.materialDao;
@@ -184,7 +224,8 @@ public final class DAOManager implements Closeable {
      */
     public PurchaseOrderDao getPurchaseOrderDAO() {
         if (this.purchaseOrderDao == null) {
-            this.purchaseOrderDao = new PurchaseOrderHibernateDao(this.sessionFactory);
+            this.purchaseOrderDao = new PurchaseOrderHibernateDao(this.sessionFactory,
+                    this.getAvailabilityHibernateDao());
         }
 
         return this.purchaseOrderDao;
@@ -216,6 +257,19 @@ public final class DAOManager implements Closeable {
         return this.postingDao;
     }
 
+    /**
+     * Returns a DAO to manage inventory movement data.
+     *
+     * @return The InventoryMovementDAO.
+     */
+    public InventoryMovementDao getInventoryMovementDAO() {
+        if (this.inventoryMovementDao == null) {
+            this.inventoryMovementDao = new InventoryMovementHibernateDao(this.sessionFactory);
+        }
+
+        return this.inventoryMovementDao;
+    }
+
     /**
      * Returns a DAO to manage image data.
      *
@@ -223,12 +277,28 @@ public final class DAOManager implements Closeable {
      */
     public ImageDao getImageDAO() {
         if (this.imageDao == null) {
-            this.imageDao = new ImageHibernateDao(this.sessionFactory);
+            ImageStoreConfiguration configuration = this.loadImageStoreConfiguration();
+            this.imageDao = new ImageHibernateDao(this.sessionFactory, configuration.createImageStore(),
+                    configuration.getMaxImageSize());
         }
 
         return this.imageDao;
     }
 
+    /**
+     * Loads the configuration of the image store.
+     *
+     * @return The image store configuration.
+     * @throws UncheckedIOException In case the image store configuration could not be read.
+     */
+    private ImageStoreConfiguration loadImageStoreConfiguration() throws UncheckedIOException {
+        try {
+            return ImageStoreConfiguration.load(ImageStoreConfiguration.DEFAULT_CONFIGURATION_FILE);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
     /**
      * Returns a DAO to execute native SQL commands.
      *
@@ -262,12 +332,111 @@ public final class DAOManager implements Closeable {
      */
     public ProductionOrderDao getProductionOrderDAO() {
         if (this.productionOrderDao == null) {
-            this.productionOrderDao = new ProductionOrderHibernateDao(this.sessionFactory);
+            this.productionOrderDao = new ProductionOrderHibernateDao(this.sessionFactory,
+                    this.getAvailabilityHibernateDao());
         }
 
         return this.productionOrderDao;
     }
 
+    /**
+     * Returns a DAO to manage requirements planning data.
+     *
+     * @return The PlanningDao.
+     */
+    public PlanningDao getPlanningDAO() {
+        if (this.planningDao == null) {
+            this.planningDao = new PlanningHibernateDao(this.sessionFactory);
+        }
+
+        return this.planningDao;
+    }
+
+    /**
+     * Returns a DAO to determine the availability of materials.
+     *
+     * @return The AvailabilityDao.
+     */
+    public AvailabilityDao getAvailabilityDAO() {
+        return this.getAvailabilityHibernateDao();
+    }
+
+    /**
+     * Provides the DAO determining the availability of materials. The DAOs changing the availability refresh it.
+     *
+     * @return The AvailabilityHibernateDao.
+     */
+    private AvailabilityHibernateDao getAvailabilityHibernateDao() {
+        if (this.availabilityDao == null) {
+            this.availabilityDao = new AvailabilityHibernateDao(this.sessionFactory, this.getBillOfMaterialDAO());
+        }
+
+        return this.availabilityDao;
+    }
+
+    /**
+     * Begins a unit of work for the current thread. All DAO calls of the current thread participate in the unit of work
+     * until it is closed.
+     *
+     * @return The unit of work.
+     */
+    public UnitOfWork beginUnitOfWork() {
+        return new UnitOfWork(this.sessionFactory);
+    }
+
+    /**
+     * Provides the current metrics of the database connection pool.
+     *
+     * @return The connection pool metrics; null, if the session factory does not use the ConnectionPool.
+     */
+    public ConnectionPoolMetrics getConnectionPoolMetrics() {
+        ConnectionProvider connectionProvider = this.sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(ConnectionProvider.class);
+
+        if (connectionProvider == null || !connectionProvider.isUnwrappableAs(ConnectionPool.class)) {
+            return null;
+        }
+
+        return connectionProvider.unwrap(ConnectionPool.class).getMetrics();
+    }
+
+    /**
+     * Provides the statistics of all regions of the second-level cache.
+     *
+     * @return The statistics of each cache region. The list is empty, if statistics are disabled.
+     */
+    public List<CacheRegionMetrics> getCacheRegionMetrics() {
+        Statistics statistics = this.sessionFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionMetrics> regionMetrics = new ArrayList<>();
+
+        if (!statistics.isStatisticsEnabled()) {
+            return regionMetrics;
+        }
+
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(regionName);
+            CacheRegionMetrics metrics = new CacheRegionMetrics();
+
+            metrics.setRegionName(regionName);
+            metrics.setHitCount(regionStatistics.getHitCount());
+            metrics.setMissCount(regionStatistics.getMissCount());
+            metrics.setPutCount(regionStatistics.getPutCount());
+            metrics.setElementCount(regionStatistics.getElementCountInMemory());
+            regionMetrics.add(metrics);
+        }
+
+        return regionMetrics;
+    }
+
+    /**
+     * Removes all entities and collections from the second-level cache.
+     *
+     * This is necessary if the database has been modified without using the DAOs, for example by native SQL.
+     */
+    public void evictSecondLevelCache() {
+        this.sessionFactory.getCache().evictAll();
+    }
+
     @Override
     public void close() throws IOException {
         try {
@@ -0,0 +1,214 @@
+package backend.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import backend.dao.image.ImageStoreConfiguration;
+import backend.model.SequenceConfiguration;
+
+/**
+ * Migrates the schema and the data of existing databases on startup. The migrations are performed before Hibernate is
+ * started, because Hibernate refuses to start or fails to access tables whose structure differs from the mapping.
+ *
+ * The database and the migrations to be performed are defined by the properties of the persistence unit. The
+ * migrations use a connection of their own that is closed before Hibernate opens its connections.
+ *
+ * @author Michael
+ */
+public final class DatabaseMigration {
+    /**
+     * The persistence property that activates the migration of the sequence increments on startup.
+     */
+    public static final String SEQUENCE_MIGRATION_PROPERTY = "backend.sequence.migration";
+
+    /**
+     * The persistence property that activates the migration of the version columns on startup.
+     */
+    public static final String VERSION_MIGRATION_PROPERTY = "backend.version.migration";
+
+    /**
+     * The persistence property that activates the migration of the image data to the image store on startup.
+     */
+    public static final String IMAGE_MIGRATION_PROPERTY = "backend.image.migration";
+
+    /**
+     * The location of the persistence unit definitions on the classpath.
+     */
+    private static final String PERSISTENCE_FILE = "META-INF/persistence.xml";
+
+    /**
+     * Constructor not to be used.
+     */
+    private DatabaseMigration() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Performs the migrations activated in the given persistence unit.
+     *
+     * @param persistenceUnit The name of the persistence unit.
+     * @throws Exception In case a migration failed.
+     */
+    public static void migrate(final String persistenceUnit) throws Exception {
+        Properties properties = getPersistenceProperties(persistenceUnit);
+        Properties connectionProperties = new Properties();
+
+        if (!isActive(properties, SEQUENCE_MIGRATION_PROPERTY) && !isActive(properties, VERSION_MIGRATION_PROPERTY)
+                && !isActive(properties, IMAGE_MIGRATION_PROPERTY)) {
+            return;
+        }
+
+        if (properties.getProperty("jakarta.persistence.jdbc.driver") != null) {
+            Class.forName(properties.getProperty("jakarta.persistence.jdbc.driver"));
+        }
+
+        connectionProperties.setProperty("user", properties.getProperty("jakarta.persistence.jdbc.user", ""));
+        connectionProperties.setProperty("password", properties.getProperty("jakarta.persistence.jdbc.password", ""));
+
+        try (Connection connection = DriverManager.getConnection(properties.getProperty("jakarta.persistence.jdbc.url"),
+                connectionProperties)) {
+            migrate(connection, properties, persistenceUnit);
+        }
+    }
+
+    /**
+     * Performs the migrations activated in the given persistence properties.
+     *
+     * @param connection      The database connection used for the migrations.
+     * @param properties      The properties of the persistence unit.
+     * @param persistenceUnit The name of the persistence unit.
+     * @throws SQLException           In case a migration failed.
+     * @throws IOException            In case the image store or the persistence.xml could not be accessed.
+     * @throws ClassNotFoundException In case an entity class of the persistence unit does not exist.
+     */
+    private static void migrate(final Connection connection, final Properties properties,
+            final String persistenceUnit) throws SQLException, IOException, ClassNotFoundException {
+        // Sequences have to be aligned before Hibernate compares them with the mapping.
+        if (isActive(properties, SEQUENCE_MIGRATION_PROPERTY)) {
+            new SequenceMigration(connection,
+                    SequenceConfiguration.getSequenceNames(getEntityClasses(persistenceUnit)))
+                    .migrate(SequenceConfiguration.getAllocationSize());
+        }
+
+        // The schema generation does not add the version columns to existing tables.
+        if (isActive(properties, VERSION_MIGRATION_PROPERTY)) {
+            new VersionColumnMigration(connection).migrate();
+        }
+
+        // The removed BLOB column is still defined as mandatory in existing image tables.
+        if (isActive(properties, IMAGE_MIGRATION_PROPERTY)) {
+            new ImageDataMigration(connection,
+                    ImageStoreConfiguration.load(ImageStoreConfiguration.DEFAULT_CONFIGURATION_FILE).createImageStore())
+                    .migrate();
+        }
+    }
+
+    /**
+     * Checks if the given migration is activated.
+     *
+     * @param properties The properties of the persistence unit.
+     * @param property   The property that activates the migration.
+     * @return true, if the migration is activated; false otherwise.
+     */
+    private static boolean isActive(final Properties properties, final String property) {
+        return Boolean.parseBoolean(properties.getProperty(property));
+    }
+
+    /**
+     * Reads the properties of the given persistence unit from the persistence.xml.
+     *
+     * @param persistenceUnit The name of the persistence unit.
+     * @return The properties of the persistence unit.
+     * @throws IOException In case the persistence.xml could not be read.
+     */
+    static Properties getPersistenceProperties(final String persistenceUnit) throws IOException {
+        Properties properties = new Properties();
+
+        for (Element unit : getPersistenceUnits(persistenceUnit)) {
+            NodeList propertyElements = unit.getElementsByTagNameNS("*", "property");
+
+            for (int i = 0; i < propertyElements.getLength(); i++) {
+                Element property = (Element) propertyElements.item(i);
+                properties.setProperty(property.getAttribute("name"), property.getAttribute("value"));
+            }
+        }
+
+        return properties;
+    }
+
+    /**
+     * Provides the entity classes of the given persistence unit listed in the persistence.xml. The classes are not
+     * initialized.
+     *
+     * @param persistenceUnit The name of the persistence unit.
+     * @return The entity classes of the persistence unit.
+     * @throws IOException            In case the persistence.xml could not be read.
+     * @throws ClassNotFoundException In case a listed class does not exist.
+     */
+    static List<Class<?>> getEntityClasses(final String persistenceUnit) throws IOException, ClassNotFoundException {
+        List<Class<?>> entityClasses = new ArrayList<Class<?>>();
+
+        for (Element unit : getPersistenceUnits(persistenceUnit)) {
+            NodeList classElements = unit.getElementsByTagNameNS("*", "class");
+
+            for (int i = 0; i < classElements.getLength(); i++) {
+                entityClasses.add(Class.forName(classElements.item(i).getTextContent().trim(), false,
+                        DatabaseMigration.class.getClassLoader()));
+            }
+        }
+
+        return entityClasses;
+    }
+
+    /**
+     * Reads the definitions of the given persistence unit from the persistence.xml.
+     *
+     * @param persistenceUnit The name of the persistence unit.
+     * @return The elements defining the persistence unit.
+     * @throws IOException In case the persistence.xml could not be read.
+     */
+    private static List<Element> getPersistenceUnits(final String persistenceUnit) throws IOException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        List<Element> persistenceUnits = new ArrayList<Element>();
+        Document document;
+        NodeList units;
+
+        factory.setNamespaceAware(true);
+
+        try (InputStream inputStream = DatabaseMigration.class.getClassLoader().getResourceAsStream(PERSISTENCE_FILE)) {
+            if (inputStream == null) {
+                throw new IOException("The file " + PERSISTENCE_FILE + " does not exist.");
+            }
+
+            document = factory.newDocumentBuilder().parse(inputStream);
+        } catch (ParserConfigurationException | SAXException exception) {
+            throw new IOException(exception);
+        }
+
+        units = document.getElementsByTagNameNS("*", "persistence-unit");
+
+        for (int i = 0; i < units.getLength(); i++) {
+            Element unit = (Element) units.item(i);
+
+            if (persistenceUnit.equals(unit.getAttribute("name"))) {
+                persistenceUnits.add(unit);
+            }
+        }
+
+        return persistenceUnits;
+    }
+}
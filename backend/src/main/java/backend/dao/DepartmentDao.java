@@ -4,6 +4,7 @@ import java.util.List;
 
 import jakarta.persistence.EntityExistsException;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.department.Department;
 
@@ -61,7 +62,8 @@ public interface DepartmentDao {
      *
      * @param department The department to be updated.
      * @throws ObjectUnchangedException The department has not been changed.
+     * @throws ObjectOutdatedException  The department has been changed by someone else in the meantime.
      * @throws Exception                Department update failed.
      */
-    void updateDepartment(Department department) throws ObjectUnchangedException, Exception;
+    void updateDepartment(Department department) throws ObjectUnchangedException, ObjectOutdatedException, Exception;
 }
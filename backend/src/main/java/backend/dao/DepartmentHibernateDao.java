@@ -12,6 +12,7 @@ import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Root;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.department.Department;
 
@@ -140,15 +141,27 @@ public class DepartmentHibernateDao implements DepartmentDao {
      * Updates a Department.
      */
     @Override
-    public void updateDepartment(final Department department) throws ObjectUnchangedException, Exception {
+    public void updateDepartment(final Department department)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception {
         EntityManager entityManager = this.sessionFactory.createEntityManager();
-
-        this.checkDepartmentDataChanged(department);
-
         entityManager.getTransaction().begin();
-        entityManager.merge(department);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+
+        try {
+            OptimisticLocking.merge(entityManager, department, false);
+            entityManager.getTransaction().commit();
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            entityManager.getTransaction().commit();
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            throw exception;
+        } finally {
+            entityManager.close();
+        }
     }
 
     /**
@@ -183,19 +196,4 @@ public class DepartmentHibernateDao implements DepartmentDao {
         }
     }
 
-    /**
-     * Checks if the data of the given department differ from the department that is persisted at database level.
-     *
-     * @param department The department to be checked.
-     * @throws ObjectUnchangedException In case the department has not been changed.
-     * @throws Exception                In case an error occurred during determination of the department stored at the
-     *                                  database.
-     */
-    private void checkDepartmentDataChanged(final Department department) throws ObjectUnchangedException, Exception {
-        Department databaseDepartment = this.getDepartmentByCode(department.getCode());
-
-        if (databaseDepartment.equals(department)) {
-            throw new ObjectUnchangedException();
-        }
-    }
 }
@@ -2,6 +2,7 @@ package backend.dao;
 
 import java.util.List;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.employee.Employee;
 import backend.model.employee.EmployeeHeadQueryParameter;
@@ -37,6 +38,18 @@ public interface EmployeeDao {
      */
     List<Employee> getEmployees(EmployeeHeadQueryParameter employeeHeadQuery) throws Exception;
 
+    /**
+     * Gets a page of employees ordered by ID.
+     *
+     * @param employeeHeadQuery Specifies the employees to be selected based on the head attribute.
+     * @param afterId           Only employees with an ID greater than this ID are selected. Can be null.
+     * @param limit             The maximum number of employees. Can be null.
+     * @return The employees of the page.
+     * @throws Exception Employee retrieval failed.
+     */
+    List<Employee> getEmployees(EmployeeHeadQueryParameter employeeHeadQuery, Integer afterId, Integer limit)
+            throws Exception;
+
     /**
      * Gets the employee with the given id.
      *
@@ -52,7 +65,8 @@ public interface EmployeeDao {
      *
      * @param employee The employee to be updated.
      * @throws ObjectUnchangedException The employee has not been changed.
+     * @throws ObjectOutdatedException  The employee has been changed by someone else in the meantime.
      * @throws Exception                Employee update failed.
      */
-    void updateEmployee(Employee employee) throws ObjectUnchangedException, Exception;
+    void updateEmployee(Employee employee) throws ObjectUnchangedException, ObjectOutdatedException, Exception;
 }
@@ -1,15 +1,16 @@
 package backend.dao;
 
 import java.util.List;
+import java.util.function.BiFunction;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.employee.Employee;
 import backend.model.employee.EmployeeHeadQueryParameter;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
 /**
@@ -43,7 +44,6 @@ public class EmployeeHibernateDao implements EmployeeDao {
 
         try {
             entityManager.persist(employee);
-            entityManager.flush(); // Assures, that the generated employee ID is available.
             entityManager.getTransaction().commit();
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
@@ -87,19 +87,22 @@ public class EmployeeHibernateDao implements EmployeeDao {
      */
     @Override
     public List<Employee> getEmployees(final EmployeeHeadQueryParameter employeeHeadQuery) throws Exception {
+        return this.getEmployees(employeeHeadQuery, null, null);
+    }
+
+    /**
+     * Gets a page of employees ordered by ID.
+     */
+    @Override
+    public List<Employee> getEmployees(final EmployeeHeadQueryParameter employeeHeadQuery, final Integer afterId,
+            final Integer limit) throws Exception {
         List<Employee> employees = null;
         EntityManager entityManager = this.sessionFactory.createEntityManager();
         entityManager.getTransaction().begin();
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<Employee> criteriaQuery = criteriaBuilder.createQuery(Employee.class);
-            Root<Employee> criteria = criteriaQuery.from(Employee.class);
-            criteriaQuery.select(criteria);
-            this.applyEmployeeHeadQueryParameter(employeeHeadQuery, criteriaQuery, criteria);
-            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
-            TypedQuery<Employee> typedQuery = entityManager.createQuery(criteriaQuery);
-            employees = typedQuery.getResultList();
+            employees = KeysetPagination.getPage(entityManager, Employee.class, null,
+                    this.getEmployeeHeadRestriction(employeeHeadQuery), afterId, limit);
 
             entityManager.getTransaction().commit();
         } catch (Exception exception) {
@@ -134,56 +137,50 @@ public class EmployeeHibernateDao implements EmployeeDao {
      * Updates the given employee.
      */
     @Override
-    public void updateEmployee(final Employee employee) throws ObjectUnchangedException, Exception {
-        EntityManager entityManager;
-
-        this.checkEmployeeDataChanged(employee);
-
-        entityManager = this.sessionFactory.createEntityManager();
+    public void updateEmployee(final Employee employee)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception {
+        EntityManager entityManager = this.sessionFactory.createEntityManager();
         entityManager.getTransaction().begin();
-        entityManager.merge(employee);
-        entityManager.getTransaction().commit();
-        entityManager.close();
-    }
-
-    /**
-     * Checks if the data of the given employee differ from the employee that is persisted at database level.
-     *
-     * @param employee The employee to be checked.
-     * @throws ObjectUnchangedException In case the employee has not been changed.
-     * @throws Exception                In case an error occurred during determination of the employee stored at the
-     *                                  database.
-     */
-    private void checkEmployeeDataChanged(final Employee employee) throws ObjectUnchangedException, Exception {
-        Employee databaseEmployee = this.getEmployee(employee.getId());
 
-        if (databaseEmployee.equals(employee)) {
-            throw new ObjectUnchangedException();
+        try {
+            OptimisticLocking.merge(entityManager, employee, true);
+            entityManager.getTransaction().commit();
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            entityManager.getTransaction().commit();
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            throw exception;
+        } finally {
+            entityManager.close();
         }
     }
 
     /**
-     * Applies the employee head query parameter to the employee query.
+     * Provides the restriction of the employee query based on the employee head query parameter.
      *
-     * @param employeeHeadQuery     Specifies the employees to be selected based on the head attribute.
-     * @param employeeCriteriaQuery The employee criteria query.
-     * @param employeeCriteria      Root type of the employee in the from clause.
+     * @param employeeHeadQuery Specifies the employees to be selected based on the head attribute.
+     * @return The restriction of the employee query.
      */
-    private void applyEmployeeHeadQueryParameter(final EmployeeHeadQueryParameter employeeHeadQuery,
-            final CriteriaQuery<Employee> employeeCriteriaQuery, final Root<Employee> employeeCriteria) {
+    private BiFunction<CriteriaBuilder, Root<Employee>, Predicate> getEmployeeHeadRestriction(
+            final EmployeeHeadQueryParameter employeeHeadQuery) {
 
-        if (employeeHeadQuery == EmployeeHeadQueryParameter.ALL || employeeHeadQuery == null) {
-            return; // No further query restrictions needed.
-        }
+        return (criteriaBuilder, employeeCriteria) -> {
+            if (employeeHeadQuery == EmployeeHeadQueryParameter.NO_HEAD_ONLY) {
+                // Select only those employees that have no head defined.
+                return employeeCriteria.get("headOfDepartment").isNull();
+            }
 
-        if (employeeHeadQuery == EmployeeHeadQueryParameter.NO_HEAD_ONLY) {
-            // Select only those employees that have no head defined.
-            employeeCriteriaQuery.where(employeeCriteria.get("headOfDepartment").isNull());
-        }
+            if (employeeHeadQuery == EmployeeHeadQueryParameter.HEAD_ONLY) {
+                // Select only those employees that are head of any department.
+                return employeeCriteria.get("headOfDepartment").isNotNull();
+            }
 
-        if (employeeHeadQuery == EmployeeHeadQueryParameter.HEAD_ONLY) {
-            // Select only those employees that are head of any department.
-            employeeCriteriaQuery.where(employeeCriteria.get("headOfDepartment").isNotNull());
-        }
+            return null; // No further query restrictions needed.
+        };
     }
 }
@@ -1,10 +1,15 @@
 package backend.dao;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
+import backend.exception.ImageTooLargeException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.image.ImageData;
 import backend.model.image.ImageMetaData;
+import backend.model.image.ImageSize;
 
 /**
  * Interface for image persistence.
@@ -20,6 +25,17 @@ public interface ImageDao {
      */
     void insertImage(ImageData image) throws Exception;
 
+    /**
+     * Inserts an image whose data are read from the given stream. The data are passed to the image store without
+     * being held in memory as a whole.
+     *
+     * @param image The image to be inserted. The data of the image are ignored.
+     * @param data  The stream providing the image data. The stream is read until its end but not closed.
+     * @throws ImageTooLargeException The image data exceed the maximum size.
+     * @throws Exception              Insertion failed.
+     */
+    void insertImage(ImageData image, InputStream data) throws ImageTooLargeException, Exception;
+
     /**
      * Deletes an image.
      *
@@ -62,4 +78,77 @@ public interface ImageDao {
      * @throws Exception Image metadata retrieval failed.
      */
     List<ImageMetaData> getAllImageMetaData() throws Exception;
+
+    /**
+     * Gets the size of the image data with the given hash.
+     *
+     * @param contentHash The hash of the image data.
+     * @return The size of the image data in bytes.
+     * @throws IOException The image data do not exist or could not be accessed.
+     */
+    long getContentSize(String contentHash) throws IOException;
+
+    /**
+     * Transfers a range of the image data with the given hash to the given channel without loading the data into
+     * memory as a whole.
+     *
+     * @param contentHash The hash of the image data.
+     * @param position    The position of the first byte to be transferred.
+     * @param count       The number of bytes to be transferred.
+     * @param target      The channel the data are transferred to.
+     * @return The number of transferred bytes.
+     * @throws IOException The image data do not exist or could not be transferred.
+     */
+    long transferContent(String contentHash, long position, long count, WritableByteChannel target)
+            throws IOException;
+
+    /**
+     * Reads the image data or the derivative with the given key at once.
+     *
+     * @param contentKey The hash of the image data or the key of a derivative.
+     * @return The data.
+     * @throws IOException The data do not exist or could not be read.
+     */
+    byte[] readContent(String contentKey) throws IOException;
+
+    /**
+     * Stores a downscaled derivative of an image and records it in the meta data of the image. Nothing is stored, if
+     * the image does not exist anymore.
+     *
+     * @param imageId The ID of the image.
+     * @param size    The size of the derivative.
+     * @param data    The data of the derivative.
+     * @throws Exception Insertion failed.
+     */
+    void insertImageDerivative(Integer imageId, ImageSize size, byte[] data) throws Exception;
+
+    /**
+     * Gets the IDs of images that are not referenced by any material. The IDs are determined by a single query in
+     * ascending order.
+     *
+     * @param afterId Only IDs greater than this ID are determined. Can be null.
+     * @param maxId   Only IDs less than or equal to this ID are determined.
+     * @param limit   The maximum number of IDs.
+     * @return The IDs of the unreferenced images.
+     * @throws Exception Determination of the IDs failed.
+     */
+    List<Integer> getUnreferencedImageIds(Integer afterId, Integer maxId, int limit) throws Exception;
+
+    /**
+     * Gets the highest ID of all images.
+     *
+     * @return The highest ID; null, if no image exists.
+     * @throws Exception Determination of the ID failed.
+     */
+    Integer getMaxImageId() throws Exception;
+
+    /**
+     * Deletes the images with the given IDs in a single transaction. Images that have been assigned to a material in
+     * the meantime are kept.
+     *
+     * @param imageIds The IDs of the images to be deleted.
+     * @return The number of deleted images.
+     * @throws Exception Deletion failed.
+     */
+    int deleteUnreferencedImages(List<Integer> imageIds) throws Exception;
 }
@@ -0,0 +1,200 @@
+package backend.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import backend.dao.image.ImageStore;
+
+/**
+ * Moves the binary data of images from the database to the image store. Databases created before the introduction of
+ * the image store keep the data of each image in the BLOB column "DATA" of the image table. The migration writes the
+ * data to the image store, records the hash of the data and finally drops the BLOB column. Afterwards the migration
+ * has nothing left to do. Columns added to the image table later on are created as well, if they are missing.
+ *
+ * @author Michael
+ */
+public class ImageDataMigration {
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(ImageDataMigration.class);
+
+    /**
+     * The name of the image table.
+     */
+    private static final String IMAGE_TABLE = "IMAGE";
+
+    /**
+     * The name of the BLOB column that contained the image data.
+     */
+    private static final String DATA_COLUMN = "DATA";
+
+    /**
+     * The name of the column containing the hash of the image data.
+     */
+    private static final String HASH_COLUMN = "CONTENT_HASH";
+
+    /**
+     * The name of the column containing the sizes of the derivatives of an image.
+     */
+    private static final String DERIVATIVES_COLUMN = "DERIVATIVES";
+
+    /**
+     * Access to localized application resources.
+     */
+    private ResourceBundle resources = ResourceBundle.getBundle("backend");
+
+    /**
+     * The database connection used for the migration.
+     */
+    private Connection connection;
+
+    /**
+     * The store the image data are moved to.
+     */
+    private ImageStore imageStore;
+
+    /**
+     * Initializes the migration.
+     *
+     * @param connection The database connection used for the migration.
+     * @param imageStore The store the image data are moved to.
+     */
+    public ImageDataMigration(final Connection connection, final ImageStore imageStore) {
+        this.connection = connection;
+        this.imageStore = imageStore;
+    }
+
+    /**
+     * Moves the data of all images that are still stored at database level to the image store. The image table is
+     * skipped if it does not exist yet because it is created by the schema generation.
+     *
+     * @return The number of images whose data have been moved.
+     * @throws SQLException In case the database could not be migrated.
+     * @throws IOException  In case the data could not be written to the image store.
+     */
+    public int migrate() throws SQLException, IOException {
+        int migratedImages;
+
+        if (!this.isTableExisting()) {
+            return 0;
+        }
+
+        this.addColumnIfMissing(HASH_COLUMN, "VARCHAR(64)");
+        this.addColumnIfMissing(DERIVATIVES_COLUMN, "VARCHAR(100)");
+
+        if (!this.isColumnExisting(DATA_COLUMN)) {
+            return 0;
+        }
+
+        migratedImages = this.moveImageData();
+
+        // The column is only dropped after all data have been moved. An interrupted migration continues on next start.
+        this.executeUpdate("ALTER TABLE " + IMAGE_TABLE + " DROP COLUMN " + DATA_COLUMN);
+        // Releases the space of the removed data in the database files.
+        this.executeUpdate("CHECKPOINT DEFRAG");
+
+        LOGGER.info(MessageFormat.format(this.resources.getString("imageDataMigration.dataMoved"), migratedImages));
+
+        return migratedImages;
+    }
+
+    /**
+     * Writes the data of all images without hash to the image store and records the hash of the data.
+     *
+     * @return The number of images whose data have been moved.
+     * @throws SQLException In case the database could not be migrated.
+     * @throws IOException  In case the data could not be written to the image store.
+     */
+    private int moveImageData() throws SQLException, IOException {
+        int movedImages = 0;
+
+        try (Statement statement = this.connection.createStatement();
+                ResultSet images = statement.executeQuery("SELECT IMAGE_ID, " + DATA_COLUMN + " FROM " + IMAGE_TABLE
+                        + " WHERE " + HASH_COLUMN + " IS NULL AND " + DATA_COLUMN + " IS NOT NULL");
+                PreparedStatement update = this.connection.prepareStatement(
+                        "UPDATE " + IMAGE_TABLE + " SET " + HASH_COLUMN + " = ? WHERE IMAGE_ID = ?")) {
+            while (images.next()) {
+                String hash;
+
+                try (InputStream data = images.getBinaryStream(DATA_COLUMN)) {
+                    hash = this.imageStore.store(data);
+                }
+
+                update.setString(1, hash);
+                update.setInt(2, images.getInt("IMAGE_ID"));
+                update.executeUpdate();
+                movedImages++;
+            }
+        }
+
+        if (!this.connection.getAutoCommit()) {
+            this.connection.commit();
+        }
+
+        return movedImages;
+    }
+
+    /**
+     * Adds a column to the image table, if it does not exist yet.
+     *
+     * @param columnName The name of the column.
+     * @param columnType The SQL type of the column.
+     * @throws SQLException In case the column could not be added.
+     */
+    private void addColumnIfMissing(final String columnName, final String columnType) throws SQLException {
+        if (!this.isColumnExisting(columnName)) {
+            this.executeUpdate("ALTER TABLE " + IMAGE_TABLE + " ADD COLUMN " + columnName + " " + columnType);
+        }
+    }
+
+    /**
+     * Executes the given SQL statement.
+     *
+     * @param sql The SQL statement.
+     * @throws SQLException In case the execution failed.
+     */
+    private void executeUpdate(final String sql) throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    /**
+     * Checks if the image table exists.
+     *
+     * @return true, if the table exists; false otherwise.
+     * @throws SQLException In case the table information could not be read.
+     */
+    private boolean isTableExisting() throws SQLException {
+        try (ResultSet tables = this.connection.getMetaData().getTables(null, null, IMAGE_TABLE, null)) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Checks if the image table has a column with the given name.
+     *
+     * @param columnName The name of the column.
+     * @return true, if the column exists; false otherwise.
+     * @throws SQLException In case the table information could not be read.
+     */
+    private boolean isColumnExisting(final String columnName) throws SQLException {
+        DatabaseMetaData metaData = this.connection.getMetaData();
+
+        try (ResultSet columns = metaData.getColumns(null, null, IMAGE_TABLE, columnName)) {
+            return columns.next();
+        }
+    }
+}
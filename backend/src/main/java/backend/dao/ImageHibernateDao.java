@@ -1,20 +1,37 @@
 package backend.dao;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
+import backend.dao.image.ImageStore;
+import backend.dao.image.ImageUploadStream;
+import backend.dao.image.StagedContent;
 import backend.exception.ObjectUnchangedException;
 import backend.model.image.ImageData;
 import backend.model.image.ImageMetaData;
+import backend.model.image.ImageSize;
+import backend.model.material.Material;
 
 /**
- * Provides access to image database persistence using Hibernate.
+ * Provides access to image database persistence using Hibernate. The binary data of the images are kept in an image
+ * store. Images with identical data share the same data in the store.
  *
  * @author Michael
  */
@@ -24,26 +41,147 @@ public class ImageHibernateDao implements ImageDao {
      */
     private EntityManagerFactory sessionFactory;
 
+    /**
+     * The store of the binary image data.
+     */
+    private final ImageStore imageStore;
+
+    /**
+     * The maximum size of image data in bytes.
+     */
+    private final long maxImageSize;
+
+    /**
+     * Lock that prevents data of the image store from being deleted while an image referencing the same data is being
+     * inserted. Images are inserted concurrently using the read lock; deletions use the write lock. Uploads are written
+     * to the store before the read lock is taken.
+     */
+    private final ReadWriteLock contentLock = new ReentrantReadWriteLock();
+
+    /**
+     * Lock that prevents concurrent updates of the meta data from overwriting the recorded derivatives.
+     */
+    private final Object metaDataLock = new Object();
+
     /**
      * Default constructor.
      *
      * @param sessionFactory The database session factory.
+     * @param imageStore     The store of the binary image data.
+     * @param maxImageSize   The maximum size of image data in bytes.
      */
-    public ImageHibernateDao(final EntityManagerFactory sessionFactory) {
+    public ImageHibernateDao(final EntityManagerFactory sessionFactory, final ImageStore imageStore,
+            final long maxImageSize) {
         this.sessionFactory = sessionFactory;
+        this.imageStore = imageStore;
+        this.maxImageSize = maxImageSize;
     }
 
     /**
-     * Inserts an image.
+     * Inserts an image. The data of the image are written to the image store unless identical data already exist. The
+     * data are removed from the store again, if the image could not be persisted and no other image shares them.
      */
     @Override
     public void insertImage(final ImageData image) throws Exception {
+        String contentHash = null;
+        Exception failure = null;
+
+        this.contentLock.readLock().lock();
+
+        try {
+            if (image.getData() != null) {
+                contentHash = this.imageStore.store(image.getData());
+                image.setContentHash(contentHash);
+            }
+
+            this.persistImage(image);
+        } catch (Exception exception) {
+            failure = exception;
+        } finally {
+            this.contentLock.readLock().unlock();
+        }
+
+        if (failure != null) {
+            this.deleteUnreferencedContent(contentHash, failure);
+            throw failure;
+        }
+    }
+
+    /**
+     * Inserts an image whose data are streamed to the image store. The MIME type of the image is determined from the
+     * data, unless it is already defined.
+     *
+     * The data are written to a temporary location of the store without holding the lock. The lock is only held while
+     * the data are moved to their final location and the image is persisted. The data are removed from the store
+     * again, if the image could not be persisted and no other image shares them.
+     */
+    @Override
+    public void insertImage(final ImageData image, final InputStream data) throws Exception {
+        ImageUploadStream uploadStream = new ImageUploadStream(data, this.maxImageSize);
+        Exception failure = null;
+
+        try (StagedContent content = this.imageStore.stage(uploadStream)) {
+            image.setContentHash(content.getHash());
+
+            if (image.getMimeType() == null) {
+                image.setMimeType(uploadStream.getMimeType());
+            }
+
+            this.contentLock.readLock().lock();
+
+            try {
+                content.commit();
+                this.persistImage(image);
+            } catch (Exception exception) {
+                failure = exception;
+            } finally {
+                this.contentLock.readLock().unlock();
+            }
+        }
+
+        if (failure != null) {
+            this.deleteUnreferencedContent(image.getContentHash(), failure);
+            throw failure;
+        }
+    }
+
+    /**
+     * Deletes the data with the given hash from the image store, if no image references them. This removes data that
+     * have been stored for an image that could not be persisted.
+     *
+     * @param contentHash The hash of the data. Nothing is deleted, if the hash is null.
+     * @param failure     The failure of the insertion. A failed deletion is added to it as suppressed exception.
+     */
+    private void deleteUnreferencedContent(final String contentHash, final Exception failure) {
+        if (contentHash == null) {
+            return;
+        }
+
+        this.contentLock.writeLock().lock();
+
+        try {
+            if (!this.isContentReferenced(contentHash)) {
+                this.imageStore.delete(contentHash);
+            }
+        } catch (Exception exception) {
+            failure.addSuppressed(exception);
+        } finally {
+            this.contentLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Persists the given image at database level.
+     *
+     * @param image The image to be persisted.
+     * @throws Exception In case the image could not be persisted.
+     */
+    private void persistImage(final ImageData image) throws Exception {
         EntityManager entityManager = this.sessionFactory.createEntityManager();
         entityManager.getTransaction().begin();
 
         try {
             entityManager.persist(image);
-            entityManager.flush(); // Assures, that the generated image ID is available.
             entityManager.getTransaction().commit();
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
@@ -57,10 +195,33 @@ public class ImageHibernateDao implements ImageDao {
     }
 
     /**
-     * Delete an image.
+     * Delete an image. The data of the image are removed from the image store if no other image shares them.
      */
     @Override
     public void deleteImage(final Integer imageId) throws Exception {
+        String contentHash;
+
+        this.contentLock.writeLock().lock();
+
+        try {
+            contentHash = this.removeImage(imageId);
+
+            if (contentHash != null && !this.isContentReferenced(contentHash)) {
+                this.imageStore.delete(contentHash);
+            }
+        } finally {
+            this.contentLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the image with the given ID from the database.
+     *
+     * @param imageId The ID of the image to be removed.
+     * @return The hash of the data of the removed image.
+     * @throws Exception In case the image could not be removed.
+     */
+    private String removeImage(final Integer imageId) throws Exception {
         EntityManager entityManager = this.sessionFactory.createEntityManager();
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
@@ -71,6 +232,8 @@ public class ImageHibernateDao implements ImageDao {
         try {
             entityManager.remove(deleteImage);
             entityManager.getTransaction().commit();
+
+            return deleteImage.getContentHash();
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
             if (entityManager.getTransaction().isActive()) {
@@ -83,7 +246,7 @@ public class ImageHibernateDao implements ImageDao {
     }
 
     /**
-     * Gets the data of the image with the given id.
+     * Gets the data of the image with the given id. The binary data are read from the image store.
      */
     @Override
     public ImageData getImageData(final Integer id) throws Exception {
@@ -94,6 +257,10 @@ public class ImageHibernateDao implements ImageDao {
         entityManager.getTransaction().commit();
         entityManager.close();
 
+        if (image != null && image.getContentHash() != null) {
+            image.setData(this.imageStore.read(image.getContentHash()));
+        }
+
         return image;
     }
 
@@ -119,13 +286,16 @@ public class ImageHibernateDao implements ImageDao {
     public void updateImageMetaData(final ImageMetaData imageMetaData) throws Exception {
         EntityManager entityManager;
 
-        this.checkImageMetaDataChanged(imageMetaData);
+        synchronized (this.metaDataLock) {
+            // The derivatives are maintained by the backend and can not be changed by the client.
+            imageMetaData.setDerivatives(this.checkImageMetaDataChanged(imageMetaData).getDerivatives());
 
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
-        entityManager.merge(imageMetaData);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+            entityManager = this.sessionFactory.createEntityManager();
+            entityManager.getTransaction().begin();
+            entityManager.merge(imageMetaData);
+            entityManager.getTransaction().commit();
+            entityManager.close();
+        }
     }
 
     /**
@@ -160,20 +330,308 @@ public class ImageHibernateDao implements ImageDao {
         return allImageMetaData;
     }
 
+    /**
+     * Gets the size of the image data with the given hash.
+     */
+    @Override
+    public long getContentSize(final String contentHash) throws IOException {
+        return this.imageStore.getSize(contentHash);
+    }
+
+    /**
+     * Transfers a range of the image data with the given hash to the given channel.
+     */
+    @Override
+    public long transferContent(final String contentHash, final long position, final long count,
+            final WritableByteChannel target) throws IOException {
+        return this.imageStore.transferTo(contentHash, position, count, target);
+    }
+
+    /**
+     * Reads the image data or the derivative with the given key.
+     */
+    @Override
+    public byte[] readContent(final String contentKey) throws IOException {
+        return this.imageStore.read(contentKey);
+    }
+
+    /**
+     * Stores a downscaled derivative of an image next to the image data and records it in the meta data of the image.
+     * The read lock prevents the image data from being deleted in the meantime.
+     */
+    @Override
+    public void insertImageDerivative(final Integer imageId, final ImageSize size, final byte[] data)
+            throws Exception {
+        this.contentLock.readLock().lock();
+
+        try {
+            synchronized (this.metaDataLock) {
+                this.recordImageDerivative(imageId, size, data);
+            }
+        } finally {
+            this.contentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a downscaled derivative of an image and adds its size to the derivatives of the image meta data.
+     *
+     * @param imageId The ID of the image.
+     * @param size    The size of the derivative.
+     * @param data    The data of the derivative.
+     * @throws Exception In case the derivative could not be stored.
+     */
+    private void recordImageDerivative(final Integer imageId, final ImageSize size, final byte[] data)
+            throws Exception {
+        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        try {
+            ImageMetaData imageMetaData = entityManager.find(ImageMetaData.class, imageId);
+
+            if (imageMetaData != null && imageMetaData.getContentHash() != null) {
+                Set<ImageSize> derivatives = imageMetaData.getDerivatives();
+
+                this.imageStore.storeDerivative(imageMetaData.getContentHash(), size.getDerivativeName(), data);
+                derivatives.add(size);
+                imageMetaData.setDerivatives(derivatives);
+            }
+
+            entityManager.getTransaction().commit();
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            throw exception;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Gets the IDs of images that are not referenced by any material. Materials are the only master data objects that
+     * reference images.
+     */
+    @Override
+    public List<Integer> getUnreferencedImageIds(final Integer afterId, final Integer maxId, final int limit)
+            throws Exception {
+        List<Integer> imageIds = null;
+        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        try {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Integer> criteriaQuery = criteriaBuilder.createQuery(Integer.class);
+            Root<ImageMetaData> criteria = criteriaQuery.from(ImageMetaData.class);
+            List<Predicate> predicates = new ArrayList<Predicate>();
+
+            predicates.add(this.getUnreferencedPredicate(criteriaBuilder, criteriaQuery, criteria));
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(criteria.<Integer>get("id"), maxId));
+
+            if (afterId != null) {
+                predicates.add(criteriaBuilder.greaterThan(criteria.<Integer>get("id"), afterId));
+            }
+
+            criteriaQuery.select(criteria.get("id"));
+            criteriaQuery.where(predicates.toArray(new Predicate[predicates.size()]));
+            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id")));
+            imageIds = entityManager.createQuery(criteriaQuery).setMaxResults(limit).getResultList();
+
+            entityManager.getTransaction().commit();
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            throw exception;
+        } finally {
+            entityManager.close();
+        }
+
+        return imageIds;
+    }
+
+    /**
+     * Gets the highest ID of all images.
+     */
+    @Override
+    public Integer getMaxImageId() throws Exception {
+        Integer maxImageId = null;
+        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        try {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Integer> criteriaQuery = criteriaBuilder.createQuery(Integer.class);
+            Root<ImageMetaData> criteria = criteriaQuery.from(ImageMetaData.class);
+            criteriaQuery.select(criteriaBuilder.max(criteria.<Integer>get("id")));
+            maxImageId = entityManager.createQuery(criteriaQuery).getSingleResult();
+
+            entityManager.getTransaction().commit();
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            throw exception;
+        } finally {
+            entityManager.close();
+        }
+
+        return maxImageId;
+    }
+
+    /**
+     * Deletes the given images by a single statement. The data of the images are removed from the image store if no
+     * other image shares them.
+     */
+    @Override
+    public int deleteUnreferencedImages(final List<Integer> imageIds) throws Exception {
+        List<String> contentHashes;
+        int deletedImages;
+
+        if (imageIds.isEmpty()) {
+            return 0;
+        }
+
+        this.contentLock.writeLock().lock();
+
+        try {
+            EntityManager entityManager = this.sessionFactory.createEntityManager();
+            entityManager.getTransaction().begin();
+
+            try {
+                contentHashes = this.getContentHashes(entityManager, imageIds);
+                deletedImages = this.removeUnreferencedImages(entityManager, imageIds);
+                entityManager.getTransaction().commit();
+            } catch (Exception exception) {
+                // If something breaks a rollback is necessary.
+                if (entityManager.getTransaction().isActive()) {
+                    entityManager.getTransaction().rollback();
+                }
+                throw exception;
+            } finally {
+                entityManager.close();
+            }
+
+            for (String contentHash : contentHashes) {
+                if (!this.isContentReferenced(contentHash)) {
+                    this.imageStore.delete(contentHash);
+                }
+            }
+        } finally {
+            this.contentLock.writeLock().unlock();
+        }
+
+        return deletedImages;
+    }
+
+    /**
+     * Gets the distinct hashes of the data of the given images.
+     *
+     * @param entityManager The EntityManager.
+     * @param imageIds      The IDs of the images.
+     * @return The hashes of the image data.
+     */
+    private List<String> getContentHashes(final EntityManager entityManager, final List<Integer> imageIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> criteriaQuery = criteriaBuilder.createQuery(String.class);
+        Root<ImageMetaData> criteria = criteriaQuery.from(ImageMetaData.class);
+
+        criteriaQuery.select(criteria.get("contentHash")).distinct(true);
+        criteriaQuery.where(criteria.get("id").in(imageIds), criteria.get("contentHash").isNotNull());
+
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+
+    /**
+     * Removes the given images from the database unless they are referenced by a material.
+     *
+     * @param entityManager The EntityManager.
+     * @param imageIds      The IDs of the images.
+     * @return The number of removed images.
+     */
+    private int removeUnreferencedImages(final EntityManager entityManager, final List<Integer> imageIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<ImageMetaData> criteriaDelete = criteriaBuilder.createCriteriaDelete(ImageMetaData.class);
+        Root<ImageMetaData> criteria = criteriaDelete.from(ImageMetaData.class);
+
+        criteriaDelete.where(criteria.get("id").in(imageIds),
+                this.getUnreferencedPredicate(criteriaBuilder, criteriaDelete, criteria));
+
+        return entityManager.createQuery(criteriaDelete).executeUpdate();
+    }
+
+    /**
+     * Provides the restriction to images that are not referenced by any material.
+     *
+     * @param criteriaBuilder The CriteriaBuilder.
+     * @param query           The query or statement the restriction is used in.
+     * @param image           The image in the from clause of the query.
+     * @return The predicate of the restriction.
+     */
+    private Predicate getUnreferencedPredicate(final CriteriaBuilder criteriaBuilder,
+            final CommonAbstractCriteria query, final Root<ImageMetaData> image) {
+        Subquery<Integer> materials = query.subquery(Integer.class);
+        Root<Material> material = materials.from(Material.class);
+
+        materials.select(material.get("id"));
+        materials.where(criteriaBuilder.equal(material.get("image"), image));
+
+        return criteriaBuilder.not(criteriaBuilder.exists(materials));
+    }
+
+    /**
+     * Checks if any image references the data with the given hash.
+     *
+     * @param contentHash The hash of the data.
+     * @return true, if at least one image references the data; false otherwise.
+     * @throws Exception In case the references could not be determined.
+     */
+    private boolean isContentReferenced(final String contentHash) throws Exception {
+        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        try {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> criteriaQuery = criteriaBuilder.createQuery(Long.class);
+            Root<ImageData> criteria = criteriaQuery.from(ImageData.class);
+            criteriaQuery.select(criteriaBuilder.count(criteria));
+            criteriaQuery.where(criteriaBuilder.equal(criteria.get("contentHash"), contentHash));
+            Long references = entityManager.createQuery(criteriaQuery).getSingleResult();
+
+            entityManager.getTransaction().commit();
+
+            return references > 0;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            throw exception;
+        } finally {
+            entityManager.close();
+        }
+    }
+
     /**
      * Checks if the given image meta data differ from the image meta data that are persisted at database level.
      *
      * @param imageMetaData The image meta data to be checked.
+     * @return The image meta data that are persisted at database level.
      * @throws ObjectUnchangedException In case the image meta data have not been changed.
      * @throws Exception                In case an error occurred during determination of the image meta data stored at
      *                                  the database.
      */
-    private void checkImageMetaDataChanged(final ImageMetaData imageMetaData)
+    private ImageMetaData checkImageMetaDataChanged(final ImageMetaData imageMetaData)
             throws ObjectUnchangedException, Exception {
         ImageMetaData databaseImageMetaData = this.getImageMetaData(imageMetaData.getId());
 
         if (databaseImageMetaData.equals(imageMetaData)) {
             throw new ObjectUnchangedException();
         }
+
+        return databaseImageMetaData;
     }
 }
@@ -0,0 +1,196 @@
+package backend.dao;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import org.hibernate.Session;
+
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryDeltaStatus;
+import backend.model.material.Material;
+
+/**
+ * Applies inventory deltas of materials using conditional updates that are sent to the database as a single JDBC batch.
+ *
+ * The deltas of each material are applied by the database in a single statement. The inventory is not read before.
+ * Therefore concurrent deltas of the same material can not overwrite each other. Reductions that would make the
+ * inventory negative are not applied by the database. The version of the material is not incremented, because the
+ * inventory is excluded from optimistic locking.
+ *
+ * @author Michael
+ */
+final class InventoryBatch {
+    /**
+     * Adds the quantity to the inventory, if the inventory is at least the given minimum.
+     */
+    private static final String UPDATE_INVENTORY = "UPDATE MATERIAL SET INVENTORY = INVENTORY + ? "
+            + "WHERE MATERIAL_ID = ? AND INVENTORY >= ?";
+
+    /**
+     * Constructor not to be used.
+     */
+    private InventoryBatch() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Applies the given deltas. Deltas of the same material are coalesced into a single update. Pending changes of the
+     * EntityManager are flushed before.
+     *
+     * @param entityManager The EntityManager.
+     * @param deltas        The inventory deltas.
+     * @return The status of each delta in the order of the deltas.
+     */
+    static List<InventoryDeltaStatus> apply(final EntityManager entityManager, final List<InventoryDelta> deltas) {
+        Map<Integer, Long> quantities = new LinkedHashMap<Integer, Long>(); // <MaterialId, Quantity>
+        List<InventoryDeltaStatus> statuses = new ArrayList<InventoryDeltaStatus>();
+        Set<Integer> rejectedIds = new HashSet<Integer>();
+        Set<Integer> existingIds;
+        int[] updateCounts;
+        int i = 0;
+
+        for (InventoryDelta delta : deltas) {
+            quantities.merge(delta.getMaterial().getId(), delta.getQuantity(), Long::sum);
+        }
+
+        entityManager.flush();
+        updateCounts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_INVENTORY)) {
+                for (Map.Entry<Integer, Long> quantity : quantities.entrySet()) {
+                    statement.setLong(1, quantity.getValue());
+                    statement.setInt(2, quantity.getKey());
+                    statement.setLong(3, getMinimumInventory(quantity.getValue()));
+                    statement.addBatch();
+                }
+
+                return statement.executeBatch();
+            }
+        });
+
+        // A material is rejected, if no row has been updated. Drivers not providing the number of updated rows of a
+        // batch statement report SUCCESS_NO_INFO. Those materials are regarded as updated.
+        for (Integer materialId : quantities.keySet()) {
+            if (updateCounts[i++] == 0) {
+                rejectedIds.add(materialId);
+            }
+        }
+
+        existingIds = getExistingIds(entityManager, rejectedIds);
+
+        for (InventoryDelta delta : deltas) {
+            if (!rejectedIds.contains(delta.getMaterial().getId())) {
+                statuses.add(InventoryDeltaStatus.OK);
+            } else if (existingIds.contains(delta.getMaterial().getId())) {
+                statuses.add(InventoryDeltaStatus.INSUFFICIENT_INVENTORY);
+            } else {
+                statuses.add(InventoryDeltaStatus.MATERIAL_NOT_FOUND);
+            }
+        }
+
+        return statuses;
+    }
+
+    /**
+     * Reads the inventory of the materials of the given deltas from the database. The materials
+     * managed by the EntityManager are refreshed. Otherwise they would write back their outdated inventory.
+     *
+     * @param entityManager The EntityManager.
+     * @param deltas        The inventory deltas.
+     */
+    static void readInventories(final EntityManager entityManager, final List<InventoryDelta> deltas) {
+        Map<Integer, List<Material>> detachedMaterials = new HashMap<Integer, List<Material>>();
+        CriteriaBuilder criteriaBuilder;
+        CriteriaQuery<Tuple> criteriaQuery;
+        Root<Material> criteria;
+
+        for (InventoryDelta delta : deltas) {
+            if (entityManager.contains(delta.getMaterial())) {
+                entityManager.refresh(delta.getMaterial());
+            } else {
+                detachedMaterials.computeIfAbsent(delta.getMaterial().getId(), id -> new ArrayList<Material>())
+                        .add(delta.getMaterial());
+            }
+        }
+
+        if (detachedMaterials.isEmpty()) {
+            return;
+        }
+
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        criteriaQuery = criteriaBuilder.createTupleQuery();
+        criteria = criteriaQuery.from(Material.class);
+        criteriaQuery.multiselect(criteria.get("id"), criteria.get("inventory"));
+        criteriaQuery.where(criteria.get("id").in(detachedMaterials.keySet()));
+
+        for (Tuple databaseState : entityManager.createQuery(criteriaQuery).getResultList()) {
+            for (Material material : detachedMaterials.get(databaseState.get(0, Integer.class))) {
+                material.setInventory(databaseState.get(1, Long.class));
+            }
+        }
+    }
+
+    /**
+     * Removes the materials of the given deltas from the second-level cache. The updates have been written using
+     * JDBC, so the cached state is outdated.
+     *
+     * @param entityManager The EntityManager.
+     * @param deltas        The inventory deltas.
+     */
+    static void evictFromCache(final EntityManager entityManager, final List<InventoryDelta> deltas) {
+        for (InventoryDelta delta : deltas) {
+            entityManager.getEntityManagerFactory().getCache().evict(Material.class, delta.getMaterial().getId());
+        }
+    }
+
+    /**
+     * Determines the inventory a material needs at least for the given quantity to be applied. Only reductions are
+     * checked. Receipts are applied, even if the inventory is negative.
+     *
+     * @param quantity The quantity to be added to the inventory.
+     * @return The minimum inventory.
+     */
+    private static long getMinimumInventory(final long quantity) {
+        if (quantity < 0) {
+            return -quantity;
+        }
+
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Determines which of the given material IDs exist.
+     *
+     * @param entityManager The EntityManager.
+     * @param materialIds   The IDs of the materials.
+     * @return The IDs of the existing materials.
+     */
+    private static Set<Integer> getExistingIds(final EntityManager entityManager, final Set<Integer> materialIds) {
+        CriteriaBuilder criteriaBuilder;
+        CriteriaQuery<Integer> criteriaQuery;
+        Root<Material> criteria;
+
+        if (materialIds.isEmpty()) {
+            return new HashSet<Integer>();
+        }
+
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        criteriaQuery = criteriaBuilder.createQuery(Integer.class);
+        criteria = criteriaQuery.from(Material.class);
+        criteriaQuery.select(criteria.get("id"));
+        criteriaQuery.where(criteria.get("id").in(materialIds));
+
+        return new HashSet<Integer>(entityManager.createQuery(criteriaQuery).getResultList());
+    }
+}
@@ -0,0 +1,333 @@
+package backend.dao;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryMovement;
+import backend.model.material.InventoryMovementType;
+import backend.model.material.InventorySnapshot;
+import backend.model.material.Material;
+
+/**
+ * Maintains the inventory movements of materials and their snapshots.
+ *
+ * Each change of the inventory of a material is appended as movement in the transaction that changes the inventory.
+ * The inventory according to the movements is the inventory of the latest snapshot of the material plus the movements
+ * after it. Therefore only the movements since the last snapshot have to be summed up.
+ *
+ * @author Michael
+ */
+final class InventoryJournal {
+    /**
+     * Constructor not to be used.
+     */
+    private InventoryJournal() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Appends a movement for each of the given inventory deltas.
+     *
+     * @param entityManager The EntityManager.
+     * @param deltas        The applied inventory deltas.
+     */
+    static void append(final EntityManager entityManager, final List<InventoryDelta> deltas) {
+        Date timestamp = new Date();
+
+        for (InventoryDelta delta : deltas) {
+            InventoryMovement movement = getMovement(
+                    entityManager.getReference(Material.class, delta.getMaterial().getId()), delta.getQuantity(),
+                    delta.getType(), timestamp);
+            movement.setSourceId(delta.getSourceId());
+            movement.setSourceItemId(delta.getSourceItemId());
+            entityManager.persist(movement);
+        }
+    }
+
+    /**
+     * Appends a movement that is not caused by an order. Nothing is appended, if the quantity is zero or null.
+     *
+     * @param entityManager The EntityManager.
+     * @param materialId    The ID of the material.
+     * @param quantity      The quantity added to the inventory. A negative quantity is removed from the inventory.
+     * @param type          The cause of the movement.
+     */
+    static void append(final EntityManager entityManager, final Integer materialId, final Long quantity,
+            final InventoryMovementType type) {
+
+        if (quantity != null && quantity != 0) {
+            entityManager.persist(
+                    getMovement(entityManager.getReference(Material.class, materialId), quantity, type, new Date()));
+        }
+    }
+
+    /**
+     * Deletes all movements and snapshots of the given material.
+     *
+     * @param entityManager The EntityManager.
+     * @param material      The material.
+     */
+    static void deleteAll(final EntityManager entityManager, final Material material) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<InventorySnapshot> snapshotDelete = criteriaBuilder
+                .createCriteriaDelete(InventorySnapshot.class);
+        CriteriaDelete<InventoryMovement> movementDelete = criteriaBuilder
+                .createCriteriaDelete(InventoryMovement.class);
+        Root<InventorySnapshot> snapshot = snapshotDelete.from(InventorySnapshot.class);
+        Root<InventoryMovement> movement = movementDelete.from(InventoryMovement.class);
+
+        snapshotDelete.where(criteriaBuilder.equal(snapshot.get("material").get("id"), material.getId()));
+        movementDelete.where(criteriaBuilder.equal(movement.get("material").get("id"), material.getId()));
+        entityManager.createQuery(snapshotDelete).executeUpdate();
+        entityManager.createQuery(movementDelete).executeUpdate();
+    }
+
+    /**
+     * Appends the opening balance of each material whose inventory has not been journaled yet.
+     *
+     * Materials of databases created before the introduction of the journal have an inventory but neither movements
+     * nor snapshots. Their inventory is appended as initial inventory, so that the journal starts with the inventory
+     * of the material. Materials already having movements or snapshots are not changed. Therefore the opening balances
+     * are only appended once.
+     *
+     * @param entityManager The EntityManager.
+     * @return The number of appended opening balances.
+     */
+    static int createOpeningBalances(final EntityManager entityManager) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<Material> material = criteriaQuery.from(Material.class);
+        Subquery<Integer> movements = criteriaQuery.subquery(Integer.class);
+        Root<InventoryMovement> movement = movements.from(InventoryMovement.class);
+        Subquery<Integer> snapshots = criteriaQuery.subquery(Integer.class);
+        Root<InventorySnapshot> snapshot = snapshots.from(InventorySnapshot.class);
+        Date timestamp = new Date();
+        int createdBalances = 0;
+
+        movements.select(movement.<Integer>get("id"));
+        movements.where(criteriaBuilder.equal(movement.get("material"), material));
+        snapshots.select(snapshot.<Integer>get("id"));
+        snapshots.where(criteriaBuilder.equal(snapshot.get("material"), material));
+
+        criteriaQuery.multiselect(material.get("id"), material.get("inventory"));
+        criteriaQuery.where(criteriaBuilder.notEqual(material.get("inventory"), 0L),
+                criteriaBuilder.not(criteriaBuilder.exists(movements)),
+                criteriaBuilder.not(criteriaBuilder.exists(snapshots)));
+
+        for (Tuple inventory : entityManager.createQuery(criteriaQuery).getResultList()) {
+            Material reference = entityManager.getReference(Material.class, inventory.get(0, Integer.class));
+            entityManager.persist(getMovement(reference, inventory.get(1, Long.class),
+                    InventoryMovementType.INITIAL_INVENTORY, timestamp));
+            createdBalances++;
+        }
+
+        return createdBalances;
+    }
+
+    /**
+     * Creates a snapshot for each material having movements after its latest snapshot. Afterwards all snapshots but
+     * the latest of each material are deleted, because the inventory is only determined based on the latest snapshot.
+     *
+     * The snapshots include all movements up to the latest movement appended before the given point in time. The point
+     * in time has to be far enough in the past, so that no transaction appending older movements is still running.
+     *
+     * @param entityManager The EntityManager.
+     * @param before        Only movements up to the latest movement appended before this point in time are included.
+     * @return The number of created snapshots.
+     */
+    static int createSnapshots(final EntityManager entityManager, final Date before) {
+        Integer lastMovementId = getLastMovementId(entityManager, before);
+        Map<Integer, Long> inventories;
+        Date createdAt = new Date();
+        int createdSnapshots = 0;
+
+        if (lastMovementId == null) {
+            return 0;
+        }
+
+        inventories = getSnapshotInventories(entityManager);
+
+        for (Tuple total : getMovementTotals(entityManager, lastMovementId)) {
+            InventorySnapshot snapshot = new InventorySnapshot();
+            snapshot.setMaterial(entityManager.getReference(Material.class, total.get(0, Integer.class)));
+            snapshot.setLastMovementId(lastMovementId);
+            snapshot.setInventory(
+                    inventories.getOrDefault(total.get(0, Integer.class), 0L) + total.get(1, Long.class));
+            snapshot.setCreatedAt(createdAt);
+            entityManager.persist(snapshot);
+            createdSnapshots++;
+        }
+
+        entityManager.flush();
+        pruneSnapshots(entityManager);
+
+        return createdSnapshots;
+    }
+
+    /**
+     * Provides an expression for the inventory of a material according to its movements. The expression consists of
+     * subqueries correlated to the given material.
+     *
+     * @param criteriaBuilder The CriteriaBuilder.
+     * @param query           The query that uses the expression.
+     * @param material        The material in the from clause of the query.
+     * @return The inventory according to the movements.
+     */
+    static Expression<Long> getInventory(final CriteriaBuilder criteriaBuilder, final AbstractQuery<?> query,
+            final Root<Material> material) {
+
+        Subquery<Long> snapshotInventory = query.subquery(Long.class);
+        Root<InventorySnapshot> snapshot = snapshotInventory.from(InventorySnapshot.class);
+        Subquery<Long> tailInventory = query.subquery(Long.class);
+        Root<InventoryMovement> movement = tailInventory.from(InventoryMovement.class);
+
+        snapshotInventory.select(snapshot.<Long>get("inventory"));
+        snapshotInventory.where(criteriaBuilder.equal(snapshot.get("material"), material), criteriaBuilder
+                .equal(snapshot.get("lastMovementId"), getLastSnapshotId(criteriaBuilder, query, material)));
+
+        tailInventory.select(criteriaBuilder.sum(movement.<Long>get("quantity")));
+        tailInventory.where(criteriaBuilder.equal(movement.get("material"), material),
+                criteriaBuilder.greaterThan(movement.<Integer>get("id"),
+                        criteriaBuilder.coalesce(getLastSnapshotId(criteriaBuilder, query, material), 0)));
+
+        return criteriaBuilder.sum(criteriaBuilder.coalesce(snapshotInventory, 0L),
+                criteriaBuilder.coalesce(tailInventory, 0L));
+    }
+
+    /**
+     * Creates a movement. The movement is not persisted.
+     *
+     * @param material  The material.
+     * @param quantity  The quantity added to the inventory. A negative quantity is removed from the inventory.
+     * @param type      The cause of the movement.
+     * @param timestamp The date and time of the movement.
+     * @return The movement.
+     */
+    static InventoryMovement getMovement(final Material material, final long quantity,
+            final InventoryMovementType type, final Date timestamp) {
+
+        InventoryMovement movement = new InventoryMovement();
+
+        movement.setMaterial(material);
+        movement.setQuantity(quantity);
+        movement.setType(type);
+        movement.setTimestamp(timestamp);
+
+        return movement;
+    }
+
+    /**
+     * Deletes all snapshots that are superseded by a later snapshot of the same material.
+     *
+     * @param entityManager The EntityManager.
+     */
+    private static void pruneSnapshots(final EntityManager entityManager) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<InventorySnapshot> snapshotDelete = criteriaBuilder
+                .createCriteriaDelete(InventorySnapshot.class);
+        Root<InventorySnapshot> snapshot = snapshotDelete.from(InventorySnapshot.class);
+
+        snapshotDelete.where(criteriaBuilder.lessThan(snapshot.<Integer>get("lastMovementId"),
+                getLastSnapshotId(criteriaBuilder, snapshotDelete, snapshot.get("material"))));
+
+        entityManager.createQuery(snapshotDelete).executeUpdate();
+    }
+
+    /**
+     * Provides a subquery for the ID of the latest movement included in the latest snapshot of a material.
+     *
+     * @param criteriaBuilder The CriteriaBuilder.
+     * @param query           The query that uses the subquery.
+     * @param material        The material.
+     * @return The subquery. Its result is null, if the material has no snapshot.
+     */
+    private static Subquery<Integer> getLastSnapshotId(final CriteriaBuilder criteriaBuilder,
+            final CommonAbstractCriteria query, final Expression<?> material) {
+
+        Subquery<Integer> lastSnapshotId = query.subquery(Integer.class);
+        Root<InventorySnapshot> snapshot = lastSnapshotId.from(InventorySnapshot.class);
+
+        lastSnapshotId.select(criteriaBuilder.max(snapshot.<Integer>get("lastMovementId")));
+        lastSnapshotId.where(criteriaBuilder.equal(snapshot.get("material"), material));
+
+        return lastSnapshotId;
+    }
+
+    /**
+     * Determines the ID of the latest movement appended before the given point in time.
+     *
+     * @param entityManager The EntityManager.
+     * @param before        The point in time.
+     * @return The ID of the movement. Null, if no movement has been appended before.
+     */
+    private static Integer getLastMovementId(final EntityManager entityManager, final Date before) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> criteriaQuery = criteriaBuilder.createQuery(Integer.class);
+        Root<InventoryMovement> movement = criteriaQuery.from(InventoryMovement.class);
+
+        criteriaQuery.select(criteriaBuilder.max(movement.<Integer>get("id")));
+        criteriaQuery.where(criteriaBuilder.lessThan(movement.<Date>get("timestamp"), before));
+
+        return entityManager.createQuery(criteriaQuery).getSingleResult();
+    }
+
+    /**
+     * Determines the inventory of the latest snapshot of each material.
+     *
+     * @param entityManager The EntityManager.
+     * @return The inventories of the latest snapshots. The key is the ID of the material.
+     */
+    private static Map<Integer, Long> getSnapshotInventories(final EntityManager entityManager) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<InventorySnapshot> snapshot = criteriaQuery.from(InventorySnapshot.class);
+        Map<Integer, Long> inventories = new HashMap<Integer, Long>();
+
+        criteriaQuery.multiselect(snapshot.get("material").get("id"), snapshot.get("inventory"));
+        criteriaQuery.where(criteriaBuilder.equal(snapshot.get("lastMovementId"),
+                getLastSnapshotId(criteriaBuilder, criteriaQuery, snapshot.get("material"))));
+
+        for (Tuple inventory : entityManager.createQuery(criteriaQuery).getResultList()) {
+            inventories.put(inventory.get(0, Integer.class), inventory.get(1, Long.class));
+        }
+
+        return inventories;
+    }
+
+    /**
+     * Sums up the movements of each material after its latest snapshot up to the given movement.
+     *
+     * @param entityManager  The EntityManager.
+     * @param lastMovementId The ID of the latest movement included.
+     * @return The ID of the material and the total of its movements. Materials without movements are not included.
+     */
+    private static List<Tuple> getMovementTotals(final EntityManager entityManager, final Integer lastMovementId) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<InventoryMovement> movement = criteriaQuery.from(InventoryMovement.class);
+        Expression<Integer> id = movement.<Integer>get("id");
+
+        criteriaQuery.multiselect(movement.get("material").get("id"),
+                criteriaBuilder.sum(movement.<Long>get("quantity")));
+        criteriaQuery.where(criteriaBuilder.lessThanOrEqualTo(id, lastMovementId), criteriaBuilder.greaterThan(id,
+                criteriaBuilder.coalesce(getLastSnapshotId(criteriaBuilder, criteriaQuery, movement.get("material")),
+                        0)));
+        criteriaQuery.groupBy(movement.get("material").get("id"));
+
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+}
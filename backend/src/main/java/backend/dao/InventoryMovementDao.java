@@ -0,0 +1,68 @@
+package backend.dao;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import backend.model.material.InventoryDifference;
+import backend.model.material.InventoryMovement;
+
+/**
+ * Interface for inventory movement persistence. Movements are appended by the material persistence whenever the
+ * inventory of a material changes.
+ *
+ * @author Michael
+ */
+public interface InventoryMovementDao {
+    /**
+     * Gets a page of the inventory movements of the given material ordered by ID.
+     *
+     * @param materialId The ID of the material.
+     * @param afterId    Only movements with an ID greater than this ID are selected. Can be null.
+     * @param limit      The maximum number of movements. Can be null.
+     * @return The movements of the page.
+     * @throws Exception Movement retrieval failed.
+     */
+    List<InventoryMovement> getInventoryMovements(Integer materialId, Integer afterId, Integer limit)
+            throws Exception;
+
+    /**
+     * Determines the inventory of the given material according to its movements. The inventory is determined based on
+     * the latest snapshot of the material and the movements after it.
+     *
+     * @param materialId The ID of the material.
+     * @return The inventory. Null, if the material does not exist.
+     * @throws Exception Inventory determination failed.
+     */
+    Long getInventory(Integer materialId) throws Exception;
+
+    /**
+     * Appends the inventory of each material that has neither movements nor snapshots as initial inventory. These are
+     * the materials of databases created before the introduction of the inventory movements.
+     *
+     * @return The number of appended opening balances.
+     * @throws Exception Appending failed. None of the opening balances has been appended.
+     */
+    int createOpeningBalances() throws Exception;
+
+    /**
+     * Creates a snapshot for each material having movements after its latest snapshot. Snapshots superseded by the new
+     * snapshots are deleted.
+     *
+     * @param before Only movements up to the latest movement appended before this point in time are included in the
+     *               snapshots.
+     * @return The number of created snapshots.
+     * @throws Exception Snapshot creation failed. None of the snapshots has been created.
+     */
+    int createSnapshots(Date before) throws Exception;
+
+    /**
+     * Compares the inventory of the given materials with the inventory according to their movements. Both are read
+     * within a single statement.
+     *
+     * @param materialIds The IDs of the materials.
+     * @return The materials whose inventory differs from the inventory according to their movements.
+     * @throws Exception Comparison failed.
+     */
+    List<InventoryDifference> getInventoryDifferences(Collection<Integer> materialIds) throws Exception;
+}
@@ -0,0 +1,196 @@
+package backend.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+import backend.model.material.InventoryDifference;
+import backend.model.material.InventoryMovement;
+import backend.model.material.Material;
+
+/**
+ * Provides access to inventory movement database persistence using Hibernate.
+ *
+ * @author Michael
+ */
+public class InventoryMovementHibernateDao implements InventoryMovementDao {
+    /**
+     * Factory for database session.
+     */
+    private EntityManagerFactory sessionFactory;
+
+    /**
+     * Default constructor.
+     *
+     * @param sessionFactory The database session factory.
+     */
+    public InventoryMovementHibernateDao(final EntityManagerFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Gets a page of the inventory movements of the given material ordered by ID.
+     */
+    @Override
+    public List<InventoryMovement> getInventoryMovements(final Integer materialId, final Integer afterId,
+            final Integer limit) throws Exception {
+        List<InventoryMovement> movements = null;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            movements = KeysetPagination.getPage(entityManager, InventoryMovement.class, null,
+                    (criteriaBuilder, criteria) -> criteriaBuilder.equal(criteria.get("material").get("id"),
+                            materialId),
+                    afterId, limit);
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return movements;
+    }
+
+    /**
+     * Determines the inventory of the given material according to its movements.
+     */
+    @Override
+    public Long getInventory(final Integer materialId) throws Exception {
+        List<Long> inventories = null;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> criteriaQuery = criteriaBuilder.createQuery(Long.class);
+            Root<Material> criteria = criteriaQuery.from(Material.class);
+            criteriaQuery.select(InventoryJournal.getInventory(criteriaBuilder, criteriaQuery, criteria));
+            criteriaQuery.where(criteriaBuilder.equal(criteria.get("id"), materialId));
+            inventories = entityManager.createQuery(criteriaQuery).getResultList();
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        if (inventories.isEmpty()) {
+            return null;
+        }
+
+        return inventories.get(0);
+    }
+
+    /**
+     * Appends the inventory of each material that has neither movements nor snapshots as initial inventory.
+     */
+    @Override
+    public int createOpeningBalances() throws Exception {
+        int createdBalances = 0;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            createdBalances = InventoryJournal.createOpeningBalances(entityManager);
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return createdBalances;
+    }
+
+    /**
+     * Creates a snapshot for each material having movements after its latest snapshot.
+     */
+    @Override
+    public int createSnapshots(final Date before) throws Exception {
+        int createdSnapshots = 0;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            createdSnapshots = InventoryJournal.createSnapshots(entityManager, before);
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return createdSnapshots;
+    }
+
+    /**
+     * Compares the inventory of the given materials with the inventory according to their movements.
+     */
+    @Override
+    public List<InventoryDifference> getInventoryDifferences(final Collection<Integer> materialIds)
+            throws Exception {
+        List<InventoryDifference> differences = new ArrayList<InventoryDifference>();
+        List<Tuple> inventories = null;
+        EntityManager entityManager;
+
+        if (materialIds.isEmpty()) {
+            return differences;
+        }
+
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
+
+        try {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+            Root<Material> criteria = criteriaQuery.from(Material.class);
+            Expression<Long> journalInventory = InventoryJournal.getInventory(criteriaBuilder, criteriaQuery,
+                    criteria);
+            criteriaQuery.multiselect(criteria.get("id"), criteria.get("inventory"), journalInventory);
+            criteriaQuery.where(criteria.get("id").in(materialIds),
+                    criteriaBuilder.notEqual(criteria.get("inventory"), journalInventory));
+            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id")));
+            inventories = entityManager.createQuery(criteriaQuery).getResultList();
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        for (Tuple inventory : inventories) {
+            differences.add(new InventoryDifference(inventory.get(0, Integer.class), inventory.get(1, Long.class),
+                    inventory.get(2, Long.class)));
+        }
+
+        return differences;
+    }
+}
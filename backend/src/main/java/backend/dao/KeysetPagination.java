@@ -0,0 +1,142 @@
+package backend.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Reads business objects page by page using keyset pagination on the ID.
+ *
+ * A page starts after the ID of the last object of the previous page. Unlike an offset, the position of a page is found
+ * by the primary key index. Therefore the effort of reading a page does not grow with the number of preceding pages.
+ *
+ * @author Michael
+ */
+final class KeysetPagination {
+    /**
+     * Constructor not to be used.
+     */
+    private KeysetPagination() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Reads a page of business objects ordered by ID ascending.
+     *
+     * If a limit is given, the IDs of the page are determined first. The business objects are read afterwards
+     * including the given entity graph. This way the limit is applied by the database even if the entity graph
+     * fetches collections.
+     *
+     * @param <T>           The type of the business objects.
+     * @param entityManager The EntityManager.
+     * @param type          The type of the business objects.
+     * @param graph         The entity graph of referenced objects to be fetched. Can be null.
+     * @param restriction   Provides the query restriction of the business objects. The restriction can be null.
+     * @param afterId       Only business objects with an ID greater than this ID are read. Can be null.
+     * @param limit         The maximum number of business objects to be read. Can be null.
+     * @return The business objects of the page.
+     */
+    static <T> List<T> getPage(final EntityManager entityManager, final Class<T> type, final EntityGraph<T> graph,
+            final BiFunction<CriteriaBuilder, Root<T>, Predicate> restriction, final Integer afterId,
+            final Integer limit) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(type);
+        Root<T> criteria = criteriaQuery.from(type);
+        List<Integer> ids;
+
+        criteriaQuery.select(criteria);
+
+        if (limit == null) {
+            criteriaQuery.where(getPredicates(criteriaBuilder, criteria, restriction, afterId));
+        } else {
+            ids = getPageIds(entityManager, type, restriction, afterId, limit);
+
+            if (ids.isEmpty()) {
+                return new ArrayList<T>();
+            }
+
+            criteriaQuery.where(criteria.get("id").in(ids));
+        }
+
+        criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
+        TypedQuery<T> typedQuery = entityManager.createQuery(criteriaQuery);
+
+        if (graph != null) {
+            typedQuery.setHint("jakarta.persistence.loadgraph", graph); // Also fetch referenced data.
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Determines the IDs of a page of business objects. Only the IDs are read, not the business objects.
+     *
+     * @param <T>           The type of the business objects.
+     * @param entityManager The EntityManager.
+     * @param type          The type of the business objects.
+     * @param restriction   Provides the query restriction of the business objects. The restriction can be null.
+     * @param afterId       Only IDs greater than this ID are determined. Can be null.
+     * @param limit         The maximum number of IDs. Can be null.
+     * @return The IDs ordered ascending.
+     */
+    static <T> List<Integer> getPageIds(final EntityManager entityManager, final Class<T> type,
+            final BiFunction<CriteriaBuilder, Root<T>, Predicate> restriction, final Integer afterId,
+            final Integer limit) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> criteriaQuery = criteriaBuilder.createQuery(Integer.class);
+        Root<T> criteria = criteriaQuery.from(type);
+
+        criteriaQuery.select(criteria.get("id"));
+        criteriaQuery.where(getPredicates(criteriaBuilder, criteria, restriction, afterId));
+        criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id")));
+
+        TypedQuery<Integer> typedQuery = entityManager.createQuery(criteriaQuery);
+
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Combines the query restriction and the keyset restriction.
+     *
+     * @param <T>             The type of the business objects.
+     * @param criteriaBuilder The CriteriaBuilder.
+     * @param criteria        Root type of the business objects in the from clause.
+     * @param restriction     Provides the query restriction of the business objects. The restriction can be null.
+     * @param afterId         Only business objects with an ID greater than this ID are selected. Can be null.
+     * @return The predicates of the where clause.
+     */
+    private static <T> Predicate[] getPredicates(final CriteriaBuilder criteriaBuilder, final Root<T> criteria,
+            final BiFunction<CriteriaBuilder, Root<T>, Predicate> restriction, final Integer afterId) {
+
+        List<Predicate> predicates = new ArrayList<Predicate>();
+        Predicate restrictionPredicate = null;
+
+        if (restriction != null) {
+            restrictionPredicate = restriction.apply(criteriaBuilder, criteria);
+        }
+
+        if (restrictionPredicate != null) {
+            predicates.add(restrictionPredicate);
+        }
+
+        if (afterId != null) {
+            predicates.add(criteriaBuilder.greaterThan(criteria.<Integer>get("id"), afterId));
+        }
+
+        return predicates.toArray(new Predicate[predicates.size()]);
+    }
+}
@@ -1,10 +1,14 @@
 package backend.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 import backend.exception.ObjectInUseException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryDeltaStatus;
 import backend.model.material.Material;
 
 /**
@@ -21,6 +25,14 @@ public interface MaterialDao {
      */
     void insertMaterial(Material material) throws Exception;
 
+    /**
+     * Inserts the given Materials in a single transaction.
+     *
+     * @param materials The Materials to be inserted.
+     * @throws Exception Insertion failed. None of the Materials has been inserted.
+     */
+    void insertMaterials(List<Material> materials) throws Exception;
+
     /**
      * Deletes a material.
      *
@@ -38,6 +50,26 @@ public interface MaterialDao {
      */
     List<Material> getMaterials() throws Exception;
 
+    /**
+     * Gets a page of materials ordered by ID.
+     *
+     * @param afterId Only materials with an ID greater than this ID are selected. Can be null.
+     * @param limit   The maximum number of materials. Can be null.
+     * @return The materials of the page.
+     * @throws Exception Material retrieval failed.
+     */
+    List<Material> getMaterials(Integer afterId, Integer limit) throws Exception;
+
+    /**
+     * Gets the IDs of a page of materials ordered by ID. The materials themselves are not read.
+     *
+     * @param afterId Only IDs greater than this ID are selected. Can be null.
+     * @param limit   The maximum number of IDs. Can be null.
+     * @return The IDs of the page.
+     * @throws Exception ID retrieval failed.
+     */
+    List<Integer> getMaterialIds(Integer afterId, Integer limit) throws Exception;
+
     /**
      * Gets the material with the given id.
      *
@@ -47,20 +79,46 @@ public interface MaterialDao {
      */
     Material getMaterial(Integer id) throws Exception;
 
+    /**
+     * Gets the materials with the given IDs.
+     *
+     * @param ids The IDs of the materials.
+     * @return The materials that exist. IDs without material are skipped.
+     * @throws Exception Material retrieval failed.
+     */
+    List<Material> getMaterialsById(Collection<Integer> ids) throws Exception;
+
     /**
      * Updates the given material.
      *
      * @param material The material to be updated.
      * @throws ObjectUnchangedException The material has not been changed.
+     * @throws ObjectOutdatedException  The material has been changed by someone else in the meantime.
      * @throws Exception                Material update failed.
      */
-    void updateMaterial(Material material) throws ObjectUnchangedException, Exception;
+    void updateMaterial(Material material) throws ObjectUnchangedException, ObjectOutdatedException, Exception;
 
     /**
-     * Gets the IDs of all images that are referenced by the materials.
+     * Gets the IDs of the given materials that are referenced by another business object. Materials not referenced can
+     * be deleted.
      *
-     * @return The IDs of all images that are referenced by the materials.
+     * @param materialIds The IDs of the materials to be checked.
+     * @return The IDs of the materials that are in use.
      * @throws Exception ID determination failed.
      */
-    Set<Integer> getAllImageIds() throws Exception;
+    Set<Integer> getMaterialIdsInUse(Collection<Integer> materialIds) throws Exception;
+
+    /**
+     * Applies the given inventory deltas. Each delta is applied by a conditional update of the database, so that
+     * concurrent deltas of the same material are not lost. A reduction that would make the inventory negative is
+     * rejected. The version of the materials is not incremented.
+     *
+     * Either all deltas are applied or none. If a delta is rejected within a unit of work, the unit of work is marked
+     * for rollback. The inventory of the given materials is updated with the database state.
+     *
+     * @param deltas The inventory deltas.
+     * @return The status of each delta in the order of the deltas.
+     * @throws Exception Inventory update failed.
+     */
+    List<InventoryDeltaStatus> updateInventories(List<InventoryDelta> deltas) throws Exception;
 }
@@ -1,23 +1,31 @@
 package backend.dao;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Root;
 
 import backend.exception.ObjectInUseException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.billOfMaterial.BillOfMaterial;
 import backend.model.billOfMaterial.BillOfMaterialItem;
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryDeltaStatus;
+import backend.model.material.InventoryMovementType;
 import backend.model.material.Material;
+import backend.model.productionOrder.ProductionOrder;
 import backend.model.productionOrder.ProductionOrderItem;
+import backend.model.purchaseOrder.PurchaseOrder;
 import backend.model.purchaseOrder.PurchaseOrderItem;
+import backend.model.salesOrder.SalesOrder;
 import backend.model.salesOrder.SalesOrderItem;
 
 /**
@@ -31,13 +39,21 @@ public class MaterialHibernateDao implements MaterialDao {
      */
     private EntityManagerFactory sessionFactory;
 
+    /**
+     * DAO whose availability of materials is refreshed on changes of the inventory.
+     */
+    private AvailabilityHibernateDao availabilityDao;
+
     /**
      * Default constructor.
      *
-     * @param sessionFactory The database session factory.
+     * @param sessionFactory  The database session factory.
+     * @param availabilityDao DAO whose availability of materials is refreshed on changes of the inventory.
      */
-    public MaterialHibernateDao(final EntityManagerFactory sessionFactory) {
+    public MaterialHibernateDao(final EntityManagerFactory sessionFactory,
+            final AvailabilityHibernateDao availabilityDao) {
         this.sessionFactory = sessionFactory;
+        this.availabilityDao = availabilityDao;
     }
 
     /**
@@ -45,49 +61,75 @@ public class MaterialHibernateDao implements MaterialDao {
      */
     @Override
     public void insertMaterial(final Material material) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.persist(material);
-            entityManager.flush(); // Assures, that the generated material ID is available.
-            entityManager.getTransaction().commit();
+            InventoryJournal.append(entityManager, material.getId(), material.getInventory(),
+                    InventoryMovementType.INITIAL_INVENTORY);
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshInventories(Arrays.asList(material.getId())));
         }
     }
 
+    /**
+     * Inserts a list of Materials.
+     */
+    @Override
+    public void insertMaterials(final List<Material> materials) throws Exception {
+        List<Object> entities = new ArrayList<Object>();
+        Date timestamp = new Date();
+
+        // Each material is followed by the movement of its initial inventory, which references the material.
+        for (Material material : materials) {
+            entities.add(material);
+
+            if (material.getInventory() != null && material.getInventory() != 0) {
+                entities.add(InventoryJournal.getMovement(material, material.getInventory(),
+                        InventoryMovementType.INITIAL_INVENTORY, timestamp));
+            }
+        }
+
+        BatchWriter.persistAll(this.sessionFactory, entities);
+        UnitOfWork.afterCompletion(() -> this.availabilityDao
+                .refreshInventories(materials.stream().map(Material::getId).collect(Collectors.toList())));
+    }
+
     /**
      * Deletes a Material.
      */
     @Override
     public void deleteMaterial(final Material material) throws ObjectInUseException, Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         this.checkMaterialInUse(material, entityManager);
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
         Material deleteMaterial = entityManager.find(Material.class, material.getId());
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
+            InventoryJournal.deleteAll(entityManager, deleteMaterial);
+            PlanningHibernateDao.deleteProposals(entityManager, deleteMaterial);
             entityManager.remove(deleteMaterial);
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshInventories(Arrays.asList(material.getId())));
         }
     }
 
@@ -96,116 +138,198 @@ public class MaterialHibernateDao implements MaterialDao {
      */
     @Override
     public List<Material> getMaterials() throws Exception {
+        return this.getMaterials(null, null);
+    }
+
+    /**
+     * Gets a page of materials ordered by ID.
+     */
+    @Override
+    public List<Material> getMaterials(final Integer afterId, final Integer limit) throws Exception {
         List<Material> materials = null;
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<Material> criteriaQuery = criteriaBuilder.createQuery(Material.class);
-            Root<Material> criteria = criteriaQuery.from(Material.class);
-            criteriaQuery.select(criteria);
-            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
-            TypedQuery<Material> typedQuery = entityManager.createQuery(criteriaQuery);
-            materials = typedQuery.getResultList();
-
-            entityManager.getTransaction().commit();
+            materials = KeysetPagination.getPage(entityManager, Material.class, null, null, afterId, limit);
+
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
 
         return materials;
     }
 
+    /**
+     * Gets the IDs of a page of materials ordered by ID.
+     */
+    @Override
+    public List<Integer> getMaterialIds(final Integer afterId, final Integer limit) throws Exception {
+        List<Integer> ids = null;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            ids = KeysetPagination.getPageIds(entityManager, Material.class, null, afterId, limit);
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return ids;
+    }
+
     /**
      * Gets the Material with the given id.
      */
     @Override
     public Material getMaterial(final Integer id) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
         Material material = entityManager.find(Material.class, id);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        UnitOfWork.commit(entityManager);
+        UnitOfWork.close(entityManager);
 
         return material;
     }
 
+    /**
+     * Gets the materials with the given IDs.
+     */
+    @Override
+    public List<Material> getMaterialsById(final Collection<Integer> ids) throws Exception {
+        return BatchReader.findAll(this.sessionFactory, Material.class, ids);
+    }
+
     /**
      * Updates the given Material.
      */
     @Override
-    public void updateMaterial(final Material material) throws ObjectUnchangedException, Exception {
+    public void updateMaterial(final Material material)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception {
         EntityManager entityManager;
 
-        this.checkMaterialDataChanged(material);
+        // Changes of objects managed by the unit of work are tracked by the EntityManager. They are written right away,
+        // so that the next update of the material journals its correction based on this state.
+        if (UnitOfWork.isManaged(material)) {
+            entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+            this.appendCorrection(entityManager, material);
+            entityManager.flush();
+            UnitOfWork.afterCompletion(() -> this.availabilityDao.refreshInventories(Arrays.asList(material.getId())));
+            return;
+        }
+
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
-        entityManager.merge(material);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        try {
+            // The version check of the merge assures that the loaded inventory has not been changed in the meantime.
+            OptimisticLocking.merge(entityManager, material, false,
+                    mergedMaterial -> this.appendCorrection(entityManager, mergedMaterial));
+            UnitOfWork.commit(entityManager);
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            UnitOfWork.commit(entityManager);
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshInventories(Arrays.asList(material.getId())));
+        }
     }
 
     /**
-     * Updates the given Material.
+     * Applies the given inventory deltas.
      */
     @Override
-    public Set<Integer> getAllImageIds() throws Exception {
-        List<Material> materials = null;
-        Set<Integer> imageIds = new HashSet<Integer>();
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+    public List<InventoryDeltaStatus> updateInventories(final List<InventoryDelta> deltas) throws Exception {
+        List<InventoryDeltaStatus> statuses;
+        EntityManager entityManager;
+
+        if (deltas.isEmpty()) {
+            return new ArrayList<InventoryDeltaStatus>();
+        }
+
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<Material> criteriaQuery = criteriaBuilder.createQuery(Material.class);
-            Root<Material> criteria = criteriaQuery.from(Material.class);
-            criteriaQuery.select(criteria);
-            criteriaQuery.where(criteria.get("image").isNotNull());
-            TypedQuery<Material> typedQuery = entityManager.createQuery(criteriaQuery);
-            materials = typedQuery.getResultList();
-
-            entityManager.getTransaction().commit();
+            statuses = InventoryBatch.apply(entityManager, deltas);
+
+            if (statuses.stream().allMatch(status -> status == InventoryDeltaStatus.OK)) {
+                InventoryJournal.append(entityManager, deltas);
+                InventoryBatch.readInventories(entityManager, deltas);
+                UnitOfWork.commit(entityManager);
+            } else {
+                UnitOfWork.rollback(entityManager);
+                InventoryBatch.readInventories(entityManager, deltas);
+            }
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            InventoryBatch.evictFromCache(entityManager, deltas);
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager, () -> this.availabilityDao.refreshInventories(
+                    deltas.stream().map(delta -> delta.getMaterial().getId()).collect(Collectors.toList())));
         }
 
-        // Get the image IDs of all materials that have an image defined.
-        for (Material tempMaterial : materials) {
-            imageIds.add(tempMaterial.getImage().getId());
-        }
-
-        return imageIds;
+        return statuses;
     }
 
     /**
-     * Checks if the data of the given material differ from the material that is persisted at database level.
-     *
-     * @param material The material to be checked.
-     * @throws ObjectUnchangedException In case the material has not been changed.
-     * @throws Exception                In case an error occurred during determination of the material stored at the
-     *                                  database.
+     * Gets the IDs of the given materials that are referenced by another business object.
      */
-    private void checkMaterialDataChanged(final Material material) throws ObjectUnchangedException, Exception {
-        Material databaseMaterial = this.getMaterial(material.getId());
+    @Override
+    public Set<Integer> getMaterialIdsInUse(final Collection<Integer> materialIds) throws Exception {
+        Set<Integer> unusedIds = new HashSet<Integer>(materialIds);
+        Set<Integer> usedIds = new HashSet<Integer>(materialIds);
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
-        if (databaseMaterial.equals(material)) {
-            throw new ObjectUnchangedException();
+        try {
+            // Each check only has to consider the materials for which no reference has been found yet.
+            unusedIds.removeAll(ReferenceCheck.getReferencedIds(entityManager, SalesOrderItem.class, unusedIds,
+                    "material"));
+            unusedIds.removeAll(ReferenceCheck.getReferencedIds(entityManager, PurchaseOrderItem.class, unusedIds,
+                    "material"));
+            unusedIds.removeAll(ReferenceCheck.getReferencedIds(entityManager, BillOfMaterial.class, unusedIds,
+                    "material"));
+            unusedIds.removeAll(ReferenceCheck.getReferencedIds(entityManager, BillOfMaterialItem.class, unusedIds,
+                    "material"));
+            unusedIds.removeAll(ReferenceCheck.getReferencedIds(entityManager, ProductionOrderItem.class, unusedIds,
+                    "material"));
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
         }
+
+        usedIds.removeAll(unusedIds);
+
+        return usedIds;
     }
 
     /**
@@ -232,22 +356,12 @@ public class MaterialHibernateDao implements MaterialDao {
      */
     private void checkMaterialUsedInSalesOrder(final Material material, final EntityManager entityManager)
             throws ObjectInUseException {
-        SalesOrderItem salesOrderItem;
-        List<SalesOrderItem> salesOrderItems;
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<SalesOrderItem> criteriaQuery = criteriaBuilder.createQuery(SalesOrderItem.class);
-
-        Root<SalesOrderItem> criteria = criteriaQuery.from(SalesOrderItem.class);
-        criteriaQuery.select(criteria).distinct(true);
-        criteriaQuery.where(criteriaBuilder.equal(criteria.get("material"), material));
-
-        TypedQuery<SalesOrderItem> typedQuery = entityManager.createQuery(criteriaQuery);
-        salesOrderItems = typedQuery.getResultList();
-
-        if (salesOrderItems.size() > 0) {
-            salesOrderItem = salesOrderItems.get(0);
-            throw new ObjectInUseException(material.getId(), salesOrderItem.getSalesOrder().getId(),
-                    salesOrderItem.getSalesOrder());
+        Integer salesOrderId = ReferenceCheck.getUsingId(entityManager, SalesOrderItem.class, "salesOrder",
+                material.getId(), "material");
+
+        if (salesOrderId != null) {
+            throw new ObjectInUseException(material.getId(), salesOrderId,
+                    entityManager.getReference(SalesOrder.class, salesOrderId));
         }
     }
 
@@ -260,22 +374,12 @@ public class MaterialHibernateDao implements MaterialDao {
      */
     private void checkMaterialUsedInPurchaseOrder(final Material material, final EntityManager entityManager)
             throws ObjectInUseException {
-        PurchaseOrderItem purchaseOrderItem;
-        List<PurchaseOrderItem> purchaseOrderItems;
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<PurchaseOrderItem> criteriaQuery = criteriaBuilder.createQuery(PurchaseOrderItem.class);
-
-        Root<PurchaseOrderItem> criteria = criteriaQuery.from(PurchaseOrderItem.class);
-        criteriaQuery.select(criteria).distinct(true);
-        criteriaQuery.where(criteriaBuilder.equal(criteria.get("material"), material));
-
-        TypedQuery<PurchaseOrderItem> typedQuery = entityManager.createQuery(criteriaQuery);
-        purchaseOrderItems = typedQuery.getResultList();
-
-        if (purchaseOrderItems.size() > 0) {
-            purchaseOrderItem = purchaseOrderItems.get(0);
-            throw new ObjectInUseException(material.getId(), purchaseOrderItem.getPurchaseOrder().getId(),
-                    purchaseOrderItem.getPurchaseOrder());
+        Integer purchaseOrderId = ReferenceCheck.getUsingId(entityManager, PurchaseOrderItem.class, "purchaseOrder",
+                material.getId(), "material");
+
+        if (purchaseOrderId != null) {
+            throw new ObjectInUseException(material.getId(), purchaseOrderId,
+                    entityManager.getReference(PurchaseOrder.class, purchaseOrderId));
         }
     }
 
@@ -288,22 +392,12 @@ public class MaterialHibernateDao implements MaterialDao {
      */
     private void checkMaterialUsedInProductionOrder(final Material material, final EntityManager entityManager)
             throws ObjectInUseException {
-        ProductionOrderItem productionOrderItem;
-        List<ProductionOrderItem> productionOrderItems;
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ProductionOrderItem> criteriaQuery = criteriaBuilder.createQuery(ProductionOrderItem.class);
-
-        Root<ProductionOrderItem> criteria = criteriaQuery.from(ProductionOrderItem.class);
-        criteriaQuery.select(criteria).distinct(true);
-        criteriaQuery.where(criteriaBuilder.equal(criteria.get("material"), material));
-
-        TypedQuery<ProductionOrderItem> typedQuery = entityManager.createQuery(criteriaQuery);
-        productionOrderItems = typedQuery.getResultList();
-
-        if (productionOrderItems.size() > 0) {
-            productionOrderItem = productionOrderItems.get(0);
-            throw new ObjectInUseException(material.getId(), productionOrderItem.getProductionOrder().getId(),
-                    productionOrderItem.getProductionOrder());
+        Integer productionOrderId = ReferenceCheck.getUsingId(entityManager, ProductionOrderItem.class,
+                "productionOrder", material.getId(), "material");
+
+        if (productionOrderId != null) {
+            throw new ObjectInUseException(material.getId(), productionOrderId,
+                    entityManager.getReference(ProductionOrder.class, productionOrderId));
         }
     }
 
@@ -329,21 +423,12 @@ public class MaterialHibernateDao implements MaterialDao {
      */
     private void checkMaterialUsedInBomHead(final Material material, final EntityManager entityManager)
             throws ObjectInUseException {
-        BillOfMaterial billOfMaterial;
-        List<BillOfMaterial> billOfMaterials;
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<BillOfMaterial> criteriaQuery = criteriaBuilder.createQuery(BillOfMaterial.class);
-
-        Root<BillOfMaterial> criteria = criteriaQuery.from(BillOfMaterial.class);
-        criteriaQuery.select(criteria).distinct(true);
-        criteriaQuery.where(criteriaBuilder.equal(criteria.get("material"), material));
-
-        TypedQuery<BillOfMaterial> typedQuery = entityManager.createQuery(criteriaQuery);
-        billOfMaterials = typedQuery.getResultList();
+        Integer billOfMaterialId = ReferenceCheck.getUsingId(entityManager, BillOfMaterial.class, null,
+                material.getId(), "material");
 
-        if (billOfMaterials.size() > 0) {
-            billOfMaterial = billOfMaterials.get(0);
-            throw new ObjectInUseException(material.getId(), billOfMaterial.getId(), billOfMaterial);
+        if (billOfMaterialId != null) {
+            throw new ObjectInUseException(material.getId(), billOfMaterialId,
+                    entityManager.getReference(BillOfMaterial.class, billOfMaterialId));
         }
     }
 
@@ -356,22 +441,25 @@ public class MaterialHibernateDao implements MaterialDao {
      */
     private void checkMaterialUsedInBomItem(final Material material, final EntityManager entityManager)
             throws ObjectInUseException {
-        BillOfMaterialItem billOfMaterialItem;
-        List<BillOfMaterialItem> billOfMaterialItems;
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<BillOfMaterialItem> criteriaQuery = criteriaBuilder.createQuery(BillOfMaterialItem.class);
-
-        Root<BillOfMaterialItem> criteria = criteriaQuery.from(BillOfMaterialItem.class);
-        criteriaQuery.select(criteria).distinct(true);
-        criteriaQuery.where(criteriaBuilder.equal(criteria.get("material"), material));
-
-        TypedQuery<BillOfMaterialItem> typedQuery = entityManager.createQuery(criteriaQuery);
-        billOfMaterialItems = typedQuery.getResultList();
-
-        if (billOfMaterialItems.size() > 0) {
-            billOfMaterialItem = billOfMaterialItems.get(0);
-            throw new ObjectInUseException(material.getId(), billOfMaterialItem.getBillOfMaterial().getId(),
-                    billOfMaterialItem.getBillOfMaterial());
+        Integer billOfMaterialId = ReferenceCheck.getUsingId(entityManager, BillOfMaterialItem.class,
+                "billOfMaterial", material.getId(), "material");
+
+        if (billOfMaterialId != null) {
+            throw new ObjectInUseException(material.getId(), billOfMaterialId,
+                    entityManager.getReference(BillOfMaterial.class, billOfMaterialId));
         }
     }
+
+    /**
+     * Journals the change of the inventory of the given material as correction.
+     *
+     * @param entityManager The EntityManager that manages the material.
+     * @param material      The changed material. Its changes have not been written to the database yet.
+     */
+    private void appendCorrection(final EntityManager entityManager, final Material material) {
+        Long loadedInventory = (Long) OptimisticLocking.getLoadedValue(entityManager, material, "inventory");
+
+        InventoryJournal.append(entityManager, material.getId(), material.getInventory() - loadedInventory,
+                InventoryMovementType.CORRECTION);
+    }
 }
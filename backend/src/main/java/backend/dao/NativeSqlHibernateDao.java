@@ -36,6 +36,7 @@ public class NativeSqlHibernateDao implements NativeSqlDao {
 
         try {
             q.executeUpdate();
+            entityManager.getTransaction().commit();
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
             if (entityManager.getTransaction().isActive()) {
@@ -0,0 +1,151 @@
+package backend.dao;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import backend.model.productionOrder.ProductionOrderItem;
+import backend.model.productionOrder.ProductionOrderStatus;
+import backend.model.purchaseOrder.PurchaseOrder;
+import backend.model.purchaseOrder.PurchaseOrderItem;
+import backend.model.purchaseOrder.PurchaseOrderStatus;
+import backend.model.salesOrder.SalesOrderItem;
+import backend.model.salesOrder.SalesOrderStatus;
+
+/**
+ * Reads the items of the open orders that are relevant for the planning of material requirements. Only the order ID,
+ * the material ID, the date and the quantity of each item are read.
+ *
+ * @author Michael
+ */
+final class OpenOrderItems {
+    /**
+     * The index of the order ID within the tuple of an item.
+     */
+    static final int ORDER_ID = 0;
+
+    /**
+     * The index of the material ID within the tuple of an item.
+     */
+    static final int MATERIAL_ID = 1;
+
+    /**
+     * The index of the date within the tuple of an item.
+     */
+    static final int DATE = 2;
+
+    /**
+     * The index of the quantity within the tuple of an item.
+     */
+    static final int QUANTITY = 3;
+
+    /**
+     * Constructor not to be used.
+     */
+    private OpenOrderItems() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Reads the items of all open sales orders.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @return The items. The date is the requested delivery date of the order.
+     */
+    static List<Tuple> getSalesOrderItems(final EntityManager entityManager) {
+        return getOrderItems(entityManager, SalesOrderItem.class, "salesOrder", "requestedDeliveryDate",
+                (criteriaBuilder, criteriaQuery, order) -> order.get("status").in(SalesOrderStatus.OPEN,
+                        SalesOrderStatus.IN_PROCESS),
+                null);
+    }
+
+    /**
+     * Reads the items of the purchase orders whose goods have not been received yet.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param orderId       Only the items of the order with this ID are read. Null to read the items of all orders.
+     * @return The items. The date is the requested delivery date of the order.
+     */
+    static List<Tuple> getPurchaseOrderItems(final EntityManager entityManager, final Integer orderId) {
+        return getOrderItems(entityManager, PurchaseOrderItem.class, "purchaseOrder", "requestedDeliveryDate",
+                (criteriaBuilder, criteriaQuery, order) -> {
+                    Subquery<Integer> closedOrders = criteriaQuery.subquery(Integer.class);
+                    Root<PurchaseOrder> closedOrder = closedOrders.from(PurchaseOrder.class);
+                    Join<PurchaseOrder, PurchaseOrderStatus> status = closedOrder.join("status");
+                    closedOrders.select(closedOrder.<Integer>get("id"));
+                    closedOrders.where(criteriaBuilder.equal(closedOrder.get("id"), order.get("id")),
+                            status.in(PurchaseOrderStatus.GOODS_RECEIPT, PurchaseOrderStatus.CANCELED));
+
+                    return criteriaBuilder.not(criteriaBuilder.exists(closedOrders));
+                }, orderId);
+    }
+
+    /**
+     * Reads the items of all open production orders.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param orderId       Only the items of the order with this ID are read. Null to read the items of all orders.
+     * @return The items. The date is the planned execution date of the order.
+     */
+    static List<Tuple> getProductionOrderItems(final EntityManager entityManager, final Integer orderId) {
+        return getOrderItems(entityManager, ProductionOrderItem.class, "productionOrder", "plannedExecutionDate",
+                (criteriaBuilder, criteriaQuery, order) -> order.get("status").in(ProductionOrderStatus.OPEN,
+                        ProductionOrderStatus.IN_PROCESS),
+                orderId);
+    }
+
+    /**
+     * Reads the order ID, the material ID, the date and the quantity of the items of the selected orders.
+     *
+     * @param <I>            The type of the order items.
+     * @param entityManager  The EntityManager of the transaction.
+     * @param itemType       The type of the order items.
+     * @param orderAttribute The attribute of the item referencing its order.
+     * @param dateAttribute  The attribute of the order containing the date of the items.
+     * @param restriction    Selects the orders.
+     * @param orderId        Only the items of the order with this ID are read. Null to read the items of all orders.
+     * @return The order ID, the material ID, the date and the quantity of each item.
+     */
+    private static <I> List<Tuple> getOrderItems(final EntityManager entityManager, final Class<I> itemType,
+            final String orderAttribute, final String dateAttribute, final OrderRestriction restriction,
+            final Integer orderId) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<I> criteria = criteriaQuery.from(itemType);
+        Join<I, ?> order = criteria.join(orderAttribute);
+        Predicate predicate = restriction.getPredicate(criteriaBuilder, criteriaQuery, order);
+
+        if (orderId != null) {
+            predicate = criteriaBuilder.and(predicate, criteriaBuilder.equal(order.get("id"), orderId));
+        }
+
+        criteriaQuery.multiselect(order.get("id"), criteria.get("material").get("id"), order.get(dateAttribute),
+                criteria.get("quantity"));
+        criteriaQuery.where(predicate);
+
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+
+    /**
+     * Provides the restriction of the orders whose items are read.
+     */
+    @FunctionalInterface
+    private interface OrderRestriction {
+        /**
+         * Provides the restriction.
+         *
+         * @param criteriaBuilder The CriteriaBuilder of the query.
+         * @param criteriaQuery   The query.
+         * @param order           The order of the items.
+         * @return The restriction of the orders.
+         */
+        Predicate getPredicate(CriteriaBuilder criteriaBuilder, CriteriaQuery<Tuple> criteriaQuery, Join<?, ?> order);
+    }
+}
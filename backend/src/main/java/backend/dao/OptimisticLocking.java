@@ -0,0 +1,159 @@
+package backend.dao;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceUnitUtil;
+
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.CollectionEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import backend.exception.ObjectOutdatedException;
+import backend.exception.ObjectUnchangedException;
+import backend.model.VersionedEntity;
+
+/**
+ * Writes updates of versioned business objects using optimistic locking.
+ *
+ * The given object is merged directly. The update is written as a conditional UPDATE statement that only succeeds, if
+ * the version at the database still matches the version of the updated object. Therefore the database state does not
+ * have to be read and compared before to detect concurrent modifications.
+ *
+ * @author Michael
+ */
+final class OptimisticLocking {
+    /**
+     * Constructor not to be used.
+     */
+    private OptimisticLocking() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Merges the given object into the database state.
+     *
+     * @param <T>            The type of the object.
+     * @param entityManager  The EntityManager.
+     * @param entity         The object to be merged.
+     * @param forceIncrement Increment the version even if only dependent objects have changed, for example the items
+     *                       of an order.
+     * @throws ObjectUnchangedException In case the object has not been changed.
+     * @throws ObjectOutdatedException  In case the object has been changed by someone else since it has been read or
+     *                                  the object has no version.
+     * @see #merge(EntityManager, VersionedEntity, boolean, Consumer)
+     */
+    static <T extends VersionedEntity> void merge(final EntityManager entityManager, final T entity,
+            final boolean forceIncrement) throws ObjectUnchangedException, ObjectOutdatedException {
+        merge(entityManager, entity, forceIncrement, mergedEntity -> {
+        });
+    }
+
+    /**
+     * Merges the given object into the database state.
+     *
+     * An object without a version is rejected as outdated, because it is unknown which state the changes are based on.
+     * Clients have to send the version they have read. After the update, the object has the version of the database
+     * state. An object is unchanged, if the merge does not leave anything to be written.
+     *
+     * @param <T>            The type of the object.
+     * @param entityManager  The EntityManager.
+     * @param entity         The object to be merged.
+     * @param forceIncrement Increment the version even if only dependent objects have changed, for example the items
+     *                       of an order.
+     * @param beforeWrite    Work performed with the merged object before the update is written. The loaded state of
+     *                       the merged object is still available.
+     * @throws ObjectUnchangedException In case the object has not been changed.
+     * @throws ObjectOutdatedException  In case the object has been changed by someone else since it has been read or
+     *                                  the object has no version.
+     */
+    static <T extends VersionedEntity> void merge(final EntityManager entityManager, final T entity,
+            final boolean forceIncrement, final Consumer<T> beforeWrite)
+            throws ObjectUnchangedException, ObjectOutdatedException {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        T mergedEntity;
+        Long version;
+
+        if (entity.getVersion() == null) {
+            throw new ObjectOutdatedException();
+        }
+
+        // Changes already made by the unit of work must not be regarded as changes of the merged object.
+        if (UnitOfWork.isParticipating(entityManager)) {
+            entityManager.flush();
+        }
+
+        try {
+            mergedEntity = entityManager.merge(entity);
+
+            // The merge of an object that does not exist at the database inserts a new object.
+            if (!persistenceUnitUtil.getIdentifier(entity).equals(persistenceUnitUtil.getIdentifier(mergedEntity))) {
+                throw new EntityNotFoundException();
+            }
+
+            clearUnchangedCollections(session);
+
+            if (!session.isDirty()) {
+                throw new ObjectUnchangedException();
+            }
+
+            beforeWrite.accept(mergedEntity);
+            version = mergedEntity.getVersion();
+            entityManager.flush();
+
+            // Changes of dependent objects only do not increment the version of the object itself.
+            if (forceIncrement && version.equals(mergedEntity.getVersion())) {
+                entityManager.lock(mergedEntity, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+                version = version + 1;
+            } else {
+                version = mergedEntity.getVersion();
+            }
+        } catch (OptimisticLockException exception) {
+            throw new ObjectOutdatedException();
+        }
+
+        entity.setVersion(version);
+    }
+
+    /**
+     * Provides the value of the given property as it has been loaded from the database or written by the last flush.
+     *
+     * @param entityManager The EntityManager.
+     * @param entity        An object managed by the EntityManager.
+     * @param propertyName  The name of the property.
+     * @return The loaded value of the property.
+     */
+    static Object getLoadedValue(final EntityManager entityManager, final Object entity, final String propertyName) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+
+        return session.getPersistenceContextInternal().getEntry(entity).getLoadedValue(propertyName);
+    }
+
+    /**
+     * The merge replaces the elements of collections. This marks the collections as dirty, even if they contain the
+     * same elements as before. Those collections are reset, so that they do not increment the version of their owner.
+     *
+     * @param session The Session.
+     */
+    private static void clearUnchangedCollections(final SessionImplementor session) {
+        Map<PersistentCollection<?>, CollectionEntry> collections = session.getPersistenceContextInternal()
+                .getCollectionEntries();
+
+        if (collections == null) {
+            return;
+        }
+
+        for (Map.Entry<PersistentCollection<?>, CollectionEntry> collection : collections.entrySet()) {
+            if (collection.getKey().isDirty() && collection.getKey().wasInitialized()
+                    && collection.getValue().getLoadedPersister() != null
+                    && collection.getKey().equalsSnapshot(collection.getValue().getLoadedPersister())) {
+                collection.getKey().clearDirty();
+            }
+        }
+    }
+}
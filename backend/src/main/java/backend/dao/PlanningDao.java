@@ -0,0 +1,42 @@
+package backend.dao;
+
+import java.util.List;
+
+import backend.model.planning.PlanningInput;
+import backend.model.planning.PlanningProposal;
+
+/**
+ * Interface for requirements planning persistence.
+ *
+ * @author Michael
+ */
+public interface PlanningDao {
+    /**
+     * Reads the inventories of all materials and the demands and supplies of all open orders within a single
+     * transaction.
+     *
+     * @param today The current day as days since the epoch. Used for orders without a date.
+     * @return The input of the requirements planning.
+     * @throws Exception Retrieval failed.
+     */
+    PlanningInput getPlanningInput(int today) throws Exception;
+
+    /**
+     * Replaces all planning proposals by the given proposals. Either all proposals are replaced or none.
+     *
+     * @param proposals The new proposals. The materials of the proposals only need to contain the ID.
+     * @throws Exception Replacement failed.
+     */
+    void replacePlanningProposals(List<PlanningProposal> proposals) throws Exception;
+
+    /**
+     * Gets a page of the planning proposals ordered by ID.
+     *
+     * @param materialId Only proposals of this material are selected. Can be null.
+     * @param afterId    Only proposals with an ID greater than this ID are selected. Can be null.
+     * @param limit      The maximum number of proposals. Can be null.
+     * @return The proposals of the page.
+     * @throws Exception Proposal retrieval failed.
+     */
+    List<PlanningProposal> getPlanningProposals(Integer materialId, Integer afterId, Integer limit) throws Exception;
+}
@@ -0,0 +1,229 @@
+package backend.dao;
+
+import java.util.Date;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import backend.model.material.Material;
+import backend.model.planning.PlanningInput;
+import backend.model.planning.PlanningProposal;
+
+/**
+ * Provides access to requirements planning database persistence using Hibernate.
+ *
+ * @author Michael
+ */
+public class PlanningHibernateDao implements PlanningDao {
+    /**
+     * Factory for database session.
+     */
+    private EntityManagerFactory sessionFactory;
+
+    /**
+     * Default constructor.
+     *
+     * @param sessionFactory The database session factory.
+     */
+    public PlanningHibernateDao(final EntityManagerFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Reads the inventories of all materials and the demands and supplies of all open orders.
+     */
+    @Override
+    public PlanningInput getPlanningInput(final int today) throws Exception {
+        PlanningInput input = new PlanningInput();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            this.addMaterials(entityManager, input);
+            this.addSalesOrders(entityManager, input, today);
+            this.addPurchaseOrders(entityManager, input, today);
+            this.addProductionOrders(entityManager, input, today);
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return input;
+    }
+
+    /**
+     * Replaces all planning proposals by the given proposals.
+     */
+    @Override
+    public void replacePlanningProposals(final List<PlanningProposal> proposals) throws Exception {
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        int persistedProposals = 0;
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            CriteriaDelete<PlanningProposal> criteriaDelete = entityManager.getCriteriaBuilder()
+                    .createCriteriaDelete(PlanningProposal.class);
+            criteriaDelete.from(PlanningProposal.class);
+            entityManager.createQuery(criteriaDelete).executeUpdate();
+
+            for (PlanningProposal proposal : proposals) {
+                proposal.setMaterial(entityManager.getReference(Material.class, proposal.getMaterialId()));
+                entityManager.persist(proposal);
+                persistedProposals++;
+
+                if (persistedProposals % BatchWriter.CHUNK_SIZE == 0) {
+                    entityManager.flush();
+
+                    if (!UnitOfWork.isParticipating(entityManager)) {
+                        entityManager.clear();
+                    }
+                }
+            }
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+    }
+
+    /**
+     * Gets a page of the planning proposals ordered by ID.
+     */
+    @Override
+    public List<PlanningProposal> getPlanningProposals(final Integer materialId, final Integer afterId,
+            final Integer limit) throws Exception {
+        List<PlanningProposal> proposals = null;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            proposals = KeysetPagination.getPage(entityManager, PlanningProposal.class, null,
+                    (criteriaBuilder, criteria) -> materialId == null ? null
+                            : criteriaBuilder.equal(criteria.get("material").get("id"), materialId),
+                    afterId, limit);
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return proposals;
+    }
+
+    /**
+     * Deletes the planning proposals of the given material within the transaction of the given EntityManager.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param material      The material whose proposals are deleted.
+     */
+    static void deleteProposals(final EntityManager entityManager, final Material material) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<PlanningProposal> criteriaDelete = criteriaBuilder.createCriteriaDelete(PlanningProposal.class);
+        Root<PlanningProposal> proposal = criteriaDelete.from(PlanningProposal.class);
+
+        criteriaDelete.where(criteriaBuilder.equal(proposal.get("material").get("id"), material.getId()));
+        entityManager.createQuery(criteriaDelete).executeUpdate();
+    }
+
+    /**
+     * Adds the inventories of all materials to the planning input.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param input         The planning input.
+     */
+    private void addMaterials(final EntityManager entityManager, final PlanningInput input) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<Material> criteria = criteriaQuery.from(Material.class);
+
+        criteriaQuery.multiselect(criteria.get("id"), criteria.get("inventory"));
+        criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id")));
+
+        for (Tuple material : entityManager.createQuery(criteriaQuery).getResultList()) {
+            input.addMaterial(material.get(0, Integer.class), material.get(1, Long.class));
+        }
+    }
+
+    /**
+     * Adds the items of all open sales orders as demand to the planning input. The inventory of the items has
+     * already been reduced when the sales order has been created.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param input         The planning input.
+     * @param today         The current day as days since the epoch.
+     */
+    private void addSalesOrders(final EntityManager entityManager, final PlanningInput input, final int today) {
+        for (Tuple item : OpenOrderItems.getSalesOrderItems(entityManager)) {
+            input.addReservedDemand(item.get(OpenOrderItems.MATERIAL_ID, Integer.class),
+                    this.getDay(item.get(OpenOrderItems.DATE, Date.class), today),
+                    item.get(OpenOrderItems.QUANTITY, Long.class));
+        }
+    }
+
+    /**
+     * Adds the items of all purchase orders whose goods have not been received as supply to the planning input.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param input         The planning input.
+     * @param today         The current day as days since the epoch.
+     */
+    private void addPurchaseOrders(final EntityManager entityManager, final PlanningInput input, final int today) {
+        for (Tuple item : OpenOrderItems.getPurchaseOrderItems(entityManager, null)) {
+            input.addSupply(item.get(OpenOrderItems.MATERIAL_ID, Integer.class),
+                    this.getDay(item.get(OpenOrderItems.DATE, Date.class), today),
+                    item.get(OpenOrderItems.QUANTITY, Long.class));
+        }
+    }
+
+    /**
+     * Adds the items of all open production orders as production to the planning input.
+     *
+     * @param entityManager The EntityManager of the transaction.
+     * @param input         The planning input.
+     * @param today         The current day as days since the epoch.
+     */
+    private void addProductionOrders(final EntityManager entityManager, final PlanningInput input, final int today) {
+        for (Tuple item : OpenOrderItems.getProductionOrderItems(entityManager, null)) {
+            input.addProduction(item.get(OpenOrderItems.MATERIAL_ID, Integer.class),
+                    this.getDay(item.get(OpenOrderItems.DATE, Date.class), today),
+                    item.get(OpenOrderItems.QUANTITY, Long.class));
+        }
+    }
+
+    /**
+     * Converts the date of an order item to days since the epoch.
+     *
+     * @param date  The date. Can be null.
+     * @param today The current day as days since the epoch.
+     * @return The days since the epoch. The current day, if the order has no date.
+     */
+    private int getDay(final Date date, final int today) {
+        if (date == null) {
+            return today;
+        }
+
+        return PlanningInput.toDay(date);
+    }
+}
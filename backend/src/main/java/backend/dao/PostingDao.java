@@ -1,5 +1,9 @@
 package backend.dao;
 
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
 import backend.model.account.Posting;
 
 /**
@@ -16,6 +20,14 @@ public interface PostingDao {
      */
     void insertPosting(Posting posting) throws Exception;
 
+    /**
+     * Inserts the given postings in a single transaction.
+     *
+     * @param postings The postings to be inserted.
+     * @throws Exception Insertion failed. None of the postings has been inserted.
+     */
+    void insertPostings(List<Posting> postings) throws Exception;
+
     /**
      * Deletes a posting.
      *
@@ -32,4 +44,30 @@ public interface PostingDao {
      * @throws Exception Posting retrieval failed.
      */
     Posting getPosting(Integer id) throws Exception;
+
+    /**
+     * Gets a page of the postings of the given account ordered by ID.
+     *
+     * @param accountId The ID of the account.
+     * @param afterId   Only postings with an ID greater than this ID are selected. Can be null.
+     * @param limit     The maximum number of postings. Can be null.
+     * @return The postings of the page.
+     * @throws Exception Posting retrieval failed.
+     */
+    List<Posting> getPostings(Integer accountId, Integer afterId, Integer limit) throws Exception;
+
+    /**
+     * Reads the postings of the given account within the given time range ordered by timestamp. The postings are
+     * streamed from the database and handed over one by one. Therefore the postings of the time range are not held in
+     * memory at once.
+     *
+     * @param accountId      The ID of the account.
+     * @param from           The start of the time range (inclusive).
+     * @param to             The end of the time range (exclusive).
+     * @param counterpartyId Only postings with this counterparty are read. Can be null.
+     * @param consumer       Receives each posting.
+     * @throws Exception Postings could not be read.
+     */
+    void readPostings(Integer accountId, Date from, Date to, Integer counterpartyId, Consumer<Posting> consumer)
+            throws Exception;
 }
@@ -1,12 +1,22 @@
 package backend.dao;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import backend.model.account.Posting;
 import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 
 /**
  * Provides access to posting database persistence using Hibernate.
@@ -14,6 +24,11 @@ import jakarta.persistence.EntityManagerFactory;
  * @author Michael
  */
 public class PostingHibernateDao implements PostingDao {
+    /**
+     * The number of postings fetched per database round trip when postings are streamed.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
     /**
      * Factory for database session.
      */
@@ -33,47 +48,53 @@ public class PostingHibernateDao implements PostingDao {
      */
     @Override
     public void insertPosting(final Posting posting) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.persist(posting);
-            entityManager.flush(); // Assures, that the generated posting ID is available.
-            entityManager.getTransaction().commit();
+            BalanceSnapshots.invalidate(entityManager, posting);
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
     }
 
+    /**
+     * Inserts a list of Postings.
+     */
+    @Override
+    public void insertPostings(final List<Posting> postings) throws Exception {
+        this.invalidateBalanceSnapshots(postings);
+        BatchWriter.persistAll(this.sessionFactory, postings);
+    }
+
     /**
      * Deletes a Posting.
      */
     @Override
     public void deletePosting(final Posting posting) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
         Posting deletePosting = entityManager.find(Posting.class, posting.getId());
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
+            BalanceSnapshots.invalidate(entityManager, deletePosting);
             entityManager.remove(deletePosting);
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
     }
 
@@ -82,7 +103,7 @@ public class PostingHibernateDao implements PostingDao {
      */
     @Override
     public Posting getPosting(final Integer id) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced Posting instances.
         EntityGraph<Posting> graph = entityManager.createEntityGraph(Posting.class);
@@ -90,11 +111,159 @@ public class PostingHibernateDao implements PostingDao {
         Map<String, Object> hints = new HashMap<String, Object>();
         hints.put("jakarta.persistence.loadgraph", graph);
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
         Posting posting = entityManager.find(Posting.class, id, hints);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        UnitOfWork.commit(entityManager);
+        UnitOfWork.close(entityManager);
 
         return posting;
     }
+
+    /**
+     * Gets a page of the postings of the given account ordered by ID.
+     */
+    @Override
+    public List<Posting> getPostings(final Integer accountId, final Integer afterId, final Integer limit)
+            throws Exception {
+        List<Posting> postings = null;
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        // Use entity graphs to load data of referenced BusinessPartner instances.
+        EntityGraph<Posting> graph = entityManager.createEntityGraph(Posting.class);
+        graph.addAttributeNodes("counterparty");
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            postings = KeysetPagination.getPage(entityManager, Posting.class, graph,
+                    (criteriaBuilder, criteria) -> criteriaBuilder.equal(criteria.get("account").get("id"), accountId),
+                    afterId, limit);
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return postings;
+    }
+
+    /**
+     * Reads the postings of the given account within the given time range ordered by timestamp.
+     */
+    @Override
+    public void readPostings(final Integer accountId, final Date from, final Date to, final Integer counterpartyId,
+            final Consumer<Posting> consumer) throws Exception {
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        TypedQuery<Posting> typedQuery = this.getPostingsQuery(entityManager, accountId, from, to, counterpartyId);
+
+        UnitOfWork.begin(entityManager);
+
+        try (Stream<Posting> postings = typedQuery.getResultStream()) {
+            // Each posting is detached after it has been handed over. This way the memory consumption does not grow
+            // with the number of postings of the time range. Postings of a unit of work stay attached.
+            postings.forEach(posting -> {
+                consumer.accept(posting);
+
+                if (!UnitOfWork.isParticipating(entityManager)) {
+                    entityManager.detach(posting);
+                }
+            });
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+    }
+
+    /**
+     * Provides the query of the postings of the given account within the given time range ordered by timestamp.
+     *
+     * @param entityManager  The EntityManager.
+     * @param accountId      The ID of the account.
+     * @param from           The start of the time range (inclusive).
+     * @param to             The end of the time range (exclusive).
+     * @param counterpartyId Only postings with this counterparty are selected. Can be null.
+     * @return The query.
+     */
+    private TypedQuery<Posting> getPostingsQuery(final EntityManager entityManager, final Integer accountId,
+            final Date from, final Date to, final Integer counterpartyId) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Posting> criteriaQuery = criteriaBuilder.createQuery(Posting.class);
+        Root<Posting> criteria = criteriaQuery.from(Posting.class);
+        List<Predicate> predicates = new ArrayList<Predicate>();
+
+        // Use entity graphs to load data of referenced BusinessPartner instances.
+        EntityGraph<Posting> graph = entityManager.createEntityGraph(Posting.class);
+        graph.addAttributeNodes("counterparty");
+
+        predicates.add(criteriaBuilder.equal(criteria.get("account").get("id"), accountId));
+        predicates.add(criteriaBuilder.greaterThanOrEqualTo(criteria.<Date>get("timestamp"), from));
+        predicates.add(criteriaBuilder.lessThan(criteria.<Date>get("timestamp"), to));
+
+        if (counterpartyId != null) {
+            predicates.add(criteriaBuilder.equal(criteria.get("counterparty").get("id"), counterpartyId));
+        }
+
+        criteriaQuery.select(criteria);
+        criteriaQuery.where(predicates.toArray(new Predicate[predicates.size()]));
+        criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("timestamp")), criteriaBuilder.asc(criteria.get("id")));
+
+        TypedQuery<Posting> typedQuery = entityManager.createQuery(criteriaQuery);
+        typedQuery.setHint("jakarta.persistence.loadgraph", graph);
+        typedQuery.setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE);
+        typedQuery.setHint("org.hibernate.readOnly", true);
+
+        return typedQuery;
+    }
+
+    /**
+     * Deletes the balance snapshots that are invalidated by the given postings. For each account only the earliest
+     * posting is relevant.
+     *
+     * @param postings The postings to be inserted.
+     * @throws Exception Deletion of the snapshots failed.
+     */
+    private void invalidateBalanceSnapshots(final List<Posting> postings) throws Exception {
+        Map<Integer, Posting> earliestPostings = new HashMap<Integer, Posting>();
+        EntityManager entityManager;
+
+        for (Posting posting : postings) {
+            if (posting.getAccount() == null || posting.getTimestamp() == null) {
+                continue;
+            }
+
+            earliestPostings.merge(posting.getAccount().getId(), posting,
+                    (first, second) -> first.getTimestamp().after(second.getTimestamp()) ? second : first);
+        }
+
+        if (earliestPostings.isEmpty()) {
+            return;
+        }
+
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
+
+        try {
+            for (Posting posting : earliestPostings.values()) {
+                BalanceSnapshots.invalidate(entityManager, posting);
+            }
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package backend.dao;
 
 import java.util.List;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.productionOrder.ProductionOrder;
 import backend.model.productionOrder.ProductionOrderStatus;
@@ -37,6 +38,18 @@ public interface ProductionOrderDao {
      */
     List<ProductionOrder> getProductionOrders(ProductionOrderStatus orderStatusQuery) throws Exception;
 
+    /**
+     * Gets a page of production orders ordered by ID.
+     *
+     * @param orderStatusQuery Specifies the production orders to be selected based on the status.
+     * @param afterId          Only production orders with an ID greater than this ID are selected. Can be null.
+     * @param limit            The maximum number of production orders. Can be null.
+     * @return The production orders of the page.
+     * @throws Exception Production order retrieval failed.
+     */
+    List<ProductionOrder> getProductionOrders(ProductionOrderStatus orderStatusQuery, Integer afterId, Integer limit)
+            throws Exception;
+
     /**
      * Gets the ProductionOrder with the given id.
      *
@@ -51,7 +64,9 @@ public interface ProductionOrderDao {
      *
      * @param productionOrder The production order to be updated.
      * @throws ObjectUnchangedException The production order has not been changed.
+     * @throws ObjectOutdatedException  The production order has been changed by someone else in the meantime.
      * @throws Exception                Production order update failed.
      */
-    void updateProductionOrder(ProductionOrder productionOrder) throws ObjectUnchangedException, Exception;
+    void updateProductionOrder(ProductionOrder productionOrder)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception;
 }
@@ -3,15 +3,16 @@ package backend.dao;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.productionOrder.ProductionOrder;
 import backend.model.productionOrder.ProductionOrderStatus;
@@ -27,13 +28,21 @@ public class ProductionOrderHibernateDao implements ProductionOrderDao {
      */
     private EntityManagerFactory sessionFactory;
 
+    /**
+     * DAO whose availability of materials is refreshed on changes of production orders.
+     */
+    private AvailabilityHibernateDao availabilityDao;
+
     /**
      * Default constructor.
      *
-     * @param sessionFactory The database session factory.
+     * @param sessionFactory  The database session factory.
+     * @param availabilityDao DAO whose availability of materials is refreshed on changes.
      */
-    public ProductionOrderHibernateDao(final EntityManagerFactory sessionFactory) {
+    public ProductionOrderHibernateDao(final EntityManagerFactory sessionFactory,
+            final AvailabilityHibernateDao availabilityDao) {
         this.sessionFactory = sessionFactory;
+        this.availabilityDao = availabilityDao;
     }
 
     /**
@@ -41,21 +50,20 @@ public class ProductionOrderHibernateDao implements ProductionOrderDao {
      */
     @Override
     public void insertProductionOrder(final ProductionOrder productionOrder) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.persist(productionOrder);
-            entityManager.flush(); // Assures, that the generated production order ID is available.
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshProductionOrder(productionOrder.getId()));
         }
     }
 
@@ -64,24 +72,24 @@ public class ProductionOrderHibernateDao implements ProductionOrderDao {
      */
     @Override
     public void deleteProductionOrder(final ProductionOrder productionOrder) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
         ProductionOrder deleteProductionOrder = entityManager.find(ProductionOrder.class, productionOrder.getId());
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.remove(deleteProductionOrder);
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshProductionOrder(productionOrder.getId()));
         }
     }
 
@@ -90,36 +98,36 @@ public class ProductionOrderHibernateDao implements ProductionOrderDao {
      */
     @Override
     public List<ProductionOrder> getProductionOrders(final ProductionOrderStatus orderStatusQuery) throws Exception {
+        return this.getProductionOrders(orderStatusQuery, null, null);
+    }
+
+    /**
+     * Gets a page of production orders ordered by ID.
+     */
+    @Override
+    public List<ProductionOrder> getProductionOrders(final ProductionOrderStatus orderStatusQuery,
+            final Integer afterId, final Integer limit) throws Exception {
         List<ProductionOrder> productionOrders = null;
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced ProductionOrderItem instances.
         EntityGraph<ProductionOrder> graph = entityManager.createEntityGraph(ProductionOrder.class);
         graph.addAttributeNodes("items");
         graph.addSubgraph("items").addAttributeNodes("material");
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<ProductionOrder> criteriaQuery = criteriaBuilder.createQuery(ProductionOrder.class);
-            Root<ProductionOrder> criteria = criteriaQuery.from(ProductionOrder.class);
-            criteriaQuery.select(criteria);
-            this.applyOrderStatusQueryParameter(orderStatusQuery, criteriaQuery, criteriaBuilder, criteria);
-            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
-            TypedQuery<ProductionOrder> typedQuery = entityManager.createQuery(criteriaQuery);
-            typedQuery.setHint("jakarta.persistence.loadgraph", graph); // Also fetch all item data.
-            productionOrders = typedQuery.getResultList();
-
-            entityManager.getTransaction().commit();
+            productionOrders = KeysetPagination.getPage(entityManager, ProductionOrder.class, graph,
+                    this.getOrderStatusRestriction(orderStatusQuery), afterId, limit);
+
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
 
         return productionOrders;
@@ -130,7 +138,7 @@ public class ProductionOrderHibernateDao implements ProductionOrderDao {
      */
     @Override
     public ProductionOrder getProductionOrder(final Integer id) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced ProductionOrderItem instances.
         EntityGraph<ProductionOrder> graph = entityManager.createEntityGraph(ProductionOrder.class);
@@ -139,10 +147,10 @@ public class ProductionOrderHibernateDao implements ProductionOrderDao {
         Map<String, Object> hints = new HashMap<String, Object>();
         hints.put("jakarta.persistence.loadgraph", graph);
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
         ProductionOrder productionOrder = entityManager.find(ProductionOrder.class, id, hints);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        UnitOfWork.commit(entityManager);
+        UnitOfWork.close(entityManager);
 
         return productionOrder;
     }
@@ -152,52 +160,51 @@ public class ProductionOrderHibernateDao implements ProductionOrderDao {
      */
     @Override
     public void updateProductionOrder(final ProductionOrder productionOrder)
-            throws ObjectUnchangedException, Exception {
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception {
         EntityManager entityManager;
 
-        this.checkProductionOrderDataChanged(productionOrder);
-
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
-        entityManager.merge(productionOrder);
-        entityManager.getTransaction().commit();
-        entityManager.close();
-    }
+        // Changes of objects managed by the unit of work are tracked by the EntityManager and written on commit.
+        if (UnitOfWork.isManaged(productionOrder)) {
+            UnitOfWork.afterCompletion(() -> this.availabilityDao.refreshProductionOrder(productionOrder.getId()));
+            return;
+        }
 
-    /**
-     * Checks if the data of the given production order differ from the production order that is persisted at database
-     * level.
-     *
-     * @param productionOrder The production order to be checked.
-     * @throws ObjectUnchangedException In case the production order has not been changed.
-     * @throws Exception                In case an error occurred during determination of the production order stored at
-     *                                  the database.
-     */
-    private void checkProductionOrderDataChanged(final ProductionOrder productionOrder)
-            throws ObjectUnchangedException, Exception {
-        ProductionOrder databaseProductionOrder = this.getProductionOrder(productionOrder.getId());
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
-        if (databaseProductionOrder.equals(productionOrder)) {
-            throw new ObjectUnchangedException();
+        try {
+            OptimisticLocking.merge(entityManager, productionOrder, true);
+            UnitOfWork.commit(entityManager);
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            UnitOfWork.commit(entityManager);
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshProductionOrder(productionOrder.getId()));
         }
     }
 
     /**
-     * Applies the order status query parameter to the production order query.
+     * Provides the restriction of the production order query based on the order status query parameter.
      *
-     * @param orderStatusQuery   The query parameter for production order status.
-     * @param orderCriteriaQuery The production order criteria query.
-     * @param criteriaBuilder    The builder of criterias.
-     * @param criteria           The root entity of the production order that is being queried.
+     * @param orderStatusQuery The query parameter for production order status.
+     * @return The restriction of the production order query.
      */
-    private void applyOrderStatusQueryParameter(final ProductionOrderStatus orderStatusQuery,
-            final CriteriaQuery<ProductionOrder> orderCriteriaQuery, final CriteriaBuilder criteriaBuilder,
-            final Root<ProductionOrder> criteria) {
+    private BiFunction<CriteriaBuilder, Root<ProductionOrder>, Predicate> getOrderStatusRestriction(
+            final ProductionOrderStatus orderStatusQuery) {
 
-        if (orderStatusQuery == null) {
-            return; // No further query restrictions needed.
-        }
+        return (criteriaBuilder, criteria) -> {
+            if (orderStatusQuery == null) {
+                return null; // No further query restrictions needed.
+            }
 
-        orderCriteriaQuery.where(criteriaBuilder.equal(criteria.get("status"), orderStatusQuery));
+            return criteriaBuilder.equal(criteria.get("status"), orderStatusQuery);
+        };
     }
 }
@@ -2,9 +2,11 @@ package backend.dao;
 
 import java.util.List;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.purchaseOrder.PurchaseOrder;
 import backend.model.purchaseOrder.PurchaseOrderStatus;
+import backend.model.purchaseOrder.PurchaseOrderWS;
 
 /**
  * Interface for purchase order persistence.
@@ -37,6 +39,18 @@ public interface PurchaseOrderDao {
      */
     List<PurchaseOrder> getPurchaseOrders(PurchaseOrderStatus orderStatusQuery) throws Exception;
 
+    /**
+     * Gets a page of purchase orders ordered by ID.
+     *
+     * @param orderStatusQuery Specifies the purchase orders to be selected based on the status.
+     * @param afterId          Only purchase orders with an ID greater than this ID are selected. Can be null.
+     * @param limit            The maximum number of purchase orders. Can be null.
+     * @return The purchase orders of the page.
+     * @throws Exception Purchase order retrieval failed.
+     */
+    List<PurchaseOrder> getPurchaseOrders(PurchaseOrderStatus orderStatusQuery, Integer afterId, Integer limit)
+            throws Exception;
+
     /**
      * Gets the purchase order with the given id.
      *
@@ -46,12 +60,35 @@ public interface PurchaseOrderDao {
      */
     PurchaseOrder getPurchaseOrder(Integer id) throws Exception;
 
+    /**
+     * Gets a page of lean purchase orders ordered by ID. Referenced objects are only provided by their ID.
+     *
+     * @param orderStatusQuery Specifies the purchase orders to be selected based on the status.
+     * @param afterId          Only purchase orders with an ID greater than this ID are selected. Can be null.
+     * @param limit            The maximum number of purchase orders. Can be null.
+     * @return The lean purchase orders of the page.
+     * @throws Exception Purchase order retrieval failed.
+     */
+    List<PurchaseOrderWS> getLeanPurchaseOrders(PurchaseOrderStatus orderStatusQuery, Integer afterId, Integer limit)
+            throws Exception;
+
+    /**
+     * Gets the lean purchase order with the given ID. Referenced objects are only provided by their ID.
+     *
+     * @param id The ID of the purchase order.
+     * @return The lean purchase order; null, if no purchase order with the given ID exists.
+     * @throws Exception Purchase order retrieval failed.
+     */
+    PurchaseOrderWS getLeanPurchaseOrder(Integer id) throws Exception;
+
     /**
      * Updates the given purchase order.
      *
      * @param purchaseOrder The purchase order to be updated.
      * @throws ObjectUnchangedException The purchase order has not been changed.
+     * @throws ObjectOutdatedException  The purchase order has been changed by someone else in the meantime.
      * @throws Exception                Purchase order update failed.
      */
-    void updatePurchaseOrder(PurchaseOrder purchaseOrder) throws ObjectUnchangedException, Exception;
+    void updatePurchaseOrder(PurchaseOrder purchaseOrder)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception;
 }
@@ -1,22 +1,34 @@
 package backend.dao;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.purchaseOrder.PurchaseOrder;
+import backend.model.purchaseOrder.PurchaseOrderItem;
+import backend.model.purchaseOrder.PurchaseOrderItemWS;
 import backend.model.purchaseOrder.PurchaseOrderStatus;
+import backend.model.purchaseOrder.PurchaseOrderWS;
 
 /**
  * Provides access to purchase order database persistence using Hibernate.
@@ -29,13 +41,21 @@ public class PurchaseOrderHibernateDao implements PurchaseOrderDao {
      */
     private EntityManagerFactory sessionFactory;
 
+    /**
+     * DAO whose availability of materials is refreshed on changes of purchase orders.
+     */
+    private AvailabilityHibernateDao availabilityDao;
+
     /**
      * Default constructor.
      *
-     * @param sessionFactory The database session factory.
+     * @param sessionFactory  The database session factory.
+     * @param availabilityDao DAO whose availability of materials is refreshed on changes.
      */
-    public PurchaseOrderHibernateDao(final EntityManagerFactory sessionFactory) {
+    public PurchaseOrderHibernateDao(final EntityManagerFactory sessionFactory,
+            final AvailabilityHibernateDao availabilityDao) {
         this.sessionFactory = sessionFactory;
+        this.availabilityDao = availabilityDao;
     }
 
     /**
@@ -43,21 +63,20 @@ public class PurchaseOrderHibernateDao implements PurchaseOrderDao {
      */
     @Override
     public void insertPurchaseOrder(final PurchaseOrder purchaseOrder) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.persist(purchaseOrder);
-            entityManager.flush(); // Assures, that the generated sales order ID is available.
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshPurchaseOrder(purchaseOrder.getId()));
         }
     }
 
@@ -66,24 +85,24 @@ public class PurchaseOrderHibernateDao implements PurchaseOrderDao {
      */
     @Override
     public void deletePurchaseOrder(final PurchaseOrder purchaseOrder) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
         PurchaseOrder deletePurchaseOrder = entityManager.find(PurchaseOrder.class, purchaseOrder.getId());
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.remove(deletePurchaseOrder);
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshPurchaseOrder(purchaseOrder.getId()));
         }
     }
 
@@ -92,40 +111,36 @@ public class PurchaseOrderHibernateDao implements PurchaseOrderDao {
      */
     @Override
     public List<PurchaseOrder> getPurchaseOrders(final PurchaseOrderStatus orderStatusQuery) throws Exception {
+        return this.getPurchaseOrders(orderStatusQuery, null, null);
+    }
+
+    /**
+     * Gets a page of purchase orders ordered by ID.
+     */
+    @Override
+    public List<PurchaseOrder> getPurchaseOrders(final PurchaseOrderStatus orderStatusQuery, final Integer afterId,
+            final Integer limit) throws Exception {
         List<PurchaseOrder> purchaseOrders = null;
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced PurchaseOrderItem instances.
         EntityGraph<PurchaseOrder> graph = entityManager.createEntityGraph(PurchaseOrder.class);
         graph.addAttributeNodes("items", "status", "vendor", "paymentAccount");
-
-        graph.addSubgraph("paymentAccount").addAttributeNodes("postings");
-        graph.addSubgraph("paymentAccount").addSubgraph("postings").addAttributeNodes("counterparty");
-
         graph.addSubgraph("items").addAttributeNodes("material");
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<PurchaseOrder> criteriaQuery = criteriaBuilder.createQuery(PurchaseOrder.class);
-            Root<PurchaseOrder> criteria = criteriaQuery.from(PurchaseOrder.class);
-            criteriaQuery.select(criteria);
-            this.applyOrderStatusQueryParameter(orderStatusQuery, criteriaQuery, criteriaBuilder, criteria);
-            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
-            TypedQuery<PurchaseOrder> typedQuery = entityManager.createQuery(criteriaQuery);
-            typedQuery.setHint("jakarta.persistence.loadgraph", graph); // Also fetch all item data.
-            purchaseOrders = typedQuery.getResultList();
-
-            entityManager.getTransaction().commit();
+            purchaseOrders = KeysetPagination.getPage(entityManager, PurchaseOrder.class, graph,
+                    this.getOrderStatusRestriction(orderStatusQuery), afterId, limit);
+
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
 
         return purchaseOrders;
@@ -136,7 +151,7 @@ public class PurchaseOrderHibernateDao implements PurchaseOrderDao {
      */
     @Override
     public PurchaseOrder getPurchaseOrder(final Integer id) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced PurchaseOrderItem instances.
         EntityGraph<PurchaseOrder> graph = entityManager.createEntityGraph(PurchaseOrder.class);
@@ -144,66 +159,233 @@ public class PurchaseOrderHibernateDao implements PurchaseOrderDao {
         Map<String, Object> hints = new HashMap<String, Object>();
         hints.put("jakarta.persistence.loadgraph", graph);
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
         PurchaseOrder purchaseOrder = entityManager.find(PurchaseOrder.class, id, hints);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        UnitOfWork.commit(entityManager);
+        UnitOfWork.close(entityManager);
 
         return purchaseOrder;
     }
 
     /**
-     * Updates a PurchaseOrder.
+     * Gets a page of lean purchase orders ordered by ID. The purchase orders, their status and their items are read by
+     * projection queries. Therefore no referenced business partner, account or material is loaded.
      */
     @Override
-    public void updatePurchaseOrder(final PurchaseOrder purchaseOrder) throws ObjectUnchangedException, Exception {
-        EntityManager entityManager;
+    public List<PurchaseOrderWS> getLeanPurchaseOrders(final PurchaseOrderStatus orderStatusQuery,
+            final Integer afterId, final Integer limit) throws Exception {
+        return this.readLeanPurchaseOrders((criteriaBuilder, criteria) -> {
+            List<Predicate> predicates = new ArrayList<Predicate>();
+            Predicate statusPredicate = this.getOrderStatusRestriction(orderStatusQuery).apply(criteriaBuilder,
+                    criteria);
+
+            if (statusPredicate != null) {
+                predicates.add(statusPredicate);
+            }
 
-        this.checkPurchaseOrderDataChanged(purchaseOrder);
+            if (afterId != null) {
+                predicates.add(criteriaBuilder.greaterThan(criteria.<Integer>get("id"), afterId));
+            }
 
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
-        entityManager.merge(purchaseOrder);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+            return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
+        }, limit);
     }
 
     /**
-     * Checks if the data of the given purchase order differ from the purchase order that is persisted at database
-     * level.
+     * Gets the lean purchase order with the given ID.
+     */
+    @Override
+    public PurchaseOrderWS getLeanPurchaseOrder(final Integer id) throws Exception {
+        List<PurchaseOrderWS> purchaseOrders = this.readLeanPurchaseOrders(
+                (criteriaBuilder, criteria) -> criteriaBuilder.equal(criteria.get("id"), id), null);
+
+        if (purchaseOrders.isEmpty()) {
+            return null;
+        }
+
+        return purchaseOrders.get(0);
+    }
+
+    /**
+     * Reads lean purchase orders including their status and items. The orders are read by one query. The status and
+     * the items of all orders are read by one query each.
      *
-     * @param purchaseOrder The purchase order to be checked.
-     * @throws ObjectUnchangedException In case the purchase order has not been changed.
-     * @throws Exception                In case an error occurred during determination of the purchase order stored at
-     *                                  the database.
+     * @param restriction Provides the query restriction of the purchase orders.
+     * @param limit       The maximum number of purchase orders. Can be null.
+     * @return The lean purchase orders ordered by ID.
+     * @throws Exception In case the purchase orders could not be read.
      */
-    private void checkPurchaseOrderDataChanged(final PurchaseOrder purchaseOrder)
-            throws ObjectUnchangedException, Exception {
-        PurchaseOrder databasePurchaseOrder = this.getPurchaseOrder(purchaseOrder.getId());
+    private List<PurchaseOrderWS> readLeanPurchaseOrders(
+            final BiFunction<CriteriaBuilder, Root<PurchaseOrder>, Predicate> restriction, final Integer limit)
+            throws Exception {
+        Map<Integer, PurchaseOrderWS> purchaseOrders = new LinkedHashMap<Integer, PurchaseOrderWS>();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            for (Tuple order : this.getOrderTuples(entityManager, restriction, limit)) {
+                PurchaseOrderWS purchaseOrder = new PurchaseOrderWS();
+                purchaseOrder.setPurchaseOrderId(order.get(0, Integer.class));
+                purchaseOrder.setVersion(order.get(1, Long.class));
+                purchaseOrder.setVendorId(order.get(2, Integer.class));
+                purchaseOrder.setPaymentAccountId(order.get(3, Integer.class));
+                purchaseOrder.setOrderDate(order.get(4, Date.class));
+                purchaseOrder.setRequestedDeliveryDate(order.get(5, Date.class));
+                purchaseOrders.put(purchaseOrder.getPurchaseOrderId(), purchaseOrder);
+            }
 
-        if (databasePurchaseOrder.equals(purchaseOrder)) {
-            throw new ObjectUnchangedException();
+            if (!purchaseOrders.isEmpty()) {
+                for (Tuple status : this.getStatusTuples(entityManager, purchaseOrders.keySet())) {
+                    purchaseOrders.get(status.get(0, Integer.class)).getStatus()
+                            .add(status.get(1, PurchaseOrderStatus.class));
+                }
+
+                for (Tuple item : this.getItemTuples(entityManager, purchaseOrders.keySet())) {
+                    PurchaseOrderItemWS purchaseOrderItem = new PurchaseOrderItemWS();
+                    purchaseOrderItem.setItemId(item.get(1, Integer.class));
+                    purchaseOrderItem.setMaterialId(item.get(2, Integer.class));
+                    purchaseOrderItem.setQuantity(item.get(3, Long.class));
+                    purchaseOrderItem.setPriceTotal(item.get(4, BigDecimal.class));
+                    purchaseOrders.get(item.get(0, Integer.class)).addItem(purchaseOrderItem);
+                }
+            }
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
         }
+
+        return new ArrayList<PurchaseOrderWS>(purchaseOrders.values());
     }
 
     /**
-     * Applies the order status query parameter to the purchase order query.
+     * Reads the attributes of purchase orders and the IDs of their references.
      *
-     * @param orderStatusQuery   The query parameter for purchase order status.
-     * @param orderCriteriaQuery The purchase order criteria query.
-     * @param criteriaBuilder    The builder of criterias.
-     * @param criteria           The root entity of the purchase order that is being queried.
+     * @param entityManager The EntityManager.
+     * @param restriction   Provides the query restriction of the purchase orders.
+     * @param limit         The maximum number of purchase orders. Can be null.
+     * @return The attributes of each purchase order ordered by ID.
      */
-    private void applyOrderStatusQueryParameter(final PurchaseOrderStatus orderStatusQuery,
-            final CriteriaQuery<PurchaseOrder> orderCriteriaQuery, final CriteriaBuilder criteriaBuilder,
-            final Root<PurchaseOrder> criteria) {
+    private List<Tuple> getOrderTuples(final EntityManager entityManager,
+            final BiFunction<CriteriaBuilder, Root<PurchaseOrder>, Predicate> restriction, final Integer limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<PurchaseOrder> criteria = criteriaQuery.from(PurchaseOrder.class);
+        TypedQuery<Tuple> typedQuery;
+
+        criteriaQuery.multiselect(criteria.get("id"), criteria.get("version"),
+                criteria.join("vendor", JoinType.LEFT).get("id"),
+                criteria.join("paymentAccount", JoinType.LEFT).get("id"), criteria.get("orderDate"),
+                criteria.get("requestedDeliveryDate"));
+        criteriaQuery.where(restriction.apply(criteriaBuilder, criteria));
+        criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id")));
+        typedQuery = entityManager.createQuery(criteriaQuery);
+
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Reads the status of the given purchase orders.
+     *
+     * @param entityManager    The EntityManager.
+     * @param purchaseOrderIds The IDs of the purchase orders.
+     * @return The purchase order ID and one status per entry.
+     */
+    private List<Tuple> getStatusTuples(final EntityManager entityManager,
+            final Collection<Integer> purchaseOrderIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<PurchaseOrder> criteria = criteriaQuery.from(PurchaseOrder.class);
+
+        criteriaQuery.multiselect(criteria.get("id"), criteria.join("status"));
+        criteriaQuery.where(criteria.get("id").in(purchaseOrderIds));
+
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+
+    /**
+     * Reads the attributes of the items of the given purchase orders and the IDs of their materials.
+     *
+     * @param entityManager    The EntityManager.
+     * @param purchaseOrderIds The IDs of the purchase orders.
+     * @return The purchase order ID and the attributes of each item ordered by purchase order and item ID.
+     */
+    private List<Tuple> getItemTuples(final EntityManager entityManager,
+            final Collection<Integer> purchaseOrderIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<PurchaseOrderItem> criteria = criteriaQuery.from(PurchaseOrderItem.class);
+
+        criteriaQuery.multiselect(criteria.get("purchaseOrder").get("id"), criteria.get("id"),
+                criteria.get("material").get("id"), criteria.get("quantity"), criteria.get("priceTotal"));
+        criteriaQuery.where(criteria.get("purchaseOrder").get("id").in(purchaseOrderIds));
+        criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("purchaseOrder").get("id")),
+                criteriaBuilder.asc(criteria.get("id")));
+
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+
+    /**
+     * Updates a PurchaseOrder.
+     */
+    @Override
+    public void updatePurchaseOrder(final PurchaseOrder purchaseOrder)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception {
+        EntityManager entityManager;
+
+        // Changes of objects managed by the unit of work are tracked by the EntityManager and written on commit.
+        if (UnitOfWork.isManaged(purchaseOrder)) {
+            UnitOfWork.afterCompletion(() -> this.availabilityDao.refreshPurchaseOrder(purchaseOrder.getId()));
+            return;
+        }
 
-        Expression<Collection<PurchaseOrderStatus>> status = criteria.get("status");
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
-        if (orderStatusQuery == null) {
-            return; // No further query restrictions needed.
+        try {
+            OptimisticLocking.merge(entityManager, purchaseOrder, true);
+            UnitOfWork.commit(entityManager);
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            UnitOfWork.commit(entityManager);
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+            UnitOfWork.afterCompletion(entityManager,
+                    () -> this.availabilityDao.refreshPurchaseOrder(purchaseOrder.getId()));
         }
+    }
+
+    /**
+     * Provides the restriction of the purchase order query based on the order status query parameter.
+     *
+     * @param orderStatusQuery The query parameter for purchase order status.
+     * @return The restriction of the purchase order query.
+     */
+    private BiFunction<CriteriaBuilder, Root<PurchaseOrder>, Predicate> getOrderStatusRestriction(
+            final PurchaseOrderStatus orderStatusQuery) {
+
+        return (criteriaBuilder, criteria) -> {
+            Expression<Collection<PurchaseOrderStatus>> status = criteria.get("status");
+
+            if (orderStatusQuery == null) {
+                return null; // No further query restrictions needed.
+            }
 
-        orderCriteriaQuery.where(criteriaBuilder.isMember(orderStatusQuery, status));
+            return criteriaBuilder.isMember(orderStatusQuery, status);
+        };
     }
 }
@@ -0,0 +1,136 @@
+package backend.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Checks if business objects are referenced by other business objects before they are deleted.
+ *
+ * Only the IDs of the referencing objects are selected. The check of a single object stops at the first reference
+ * found. Therefore the effort does not grow with the number of referencing objects.
+ *
+ * @author Michael
+ */
+final class ReferenceCheck {
+    /**
+     * The maximum number of IDs in the IN list of a single query.
+     */
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    /**
+     * Constructor not to be used.
+     */
+    private ReferenceCheck() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Determines the ID of the first object that references the object with the given ID.
+     *
+     * @param <T>                 The type of the referencing objects.
+     * @param entityManager       The EntityManager.
+     * @param type                The type of the referencing objects.
+     * @param usingAttribute      The attribute of the referencing object that provides the using object, for example
+     *                            the order of an order item. If null, the referencing object itself is the using
+     *                            object.
+     * @param referencedId        The ID of the referenced object.
+     * @param referenceAttributes The attributes of the referencing object that can reference the object.
+     * @return The ID of the using object. Null, if the object is not referenced.
+     */
+    static <T> Integer getUsingId(final EntityManager entityManager, final Class<T> type, final String usingAttribute,
+            final Integer referencedId, final String... referenceAttributes) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> criteriaQuery = criteriaBuilder.createQuery(Integer.class);
+        Root<T> criteria = criteriaQuery.from(type);
+        List<Predicate> predicates = new ArrayList<Predicate>();
+        List<Integer> usingIds;
+
+        for (String referenceAttribute : referenceAttributes) {
+            predicates.add(criteriaBuilder.equal(criteria.get(referenceAttribute).get("id"), referencedId));
+        }
+
+        if (usingAttribute == null) {
+            criteriaQuery.select(criteria.get("id"));
+        } else {
+            criteriaQuery.select(criteria.get(usingAttribute).get("id"));
+        }
+
+        criteriaQuery.where(criteriaBuilder.or(predicates.toArray(new Predicate[predicates.size()])));
+
+        TypedQuery<Integer> typedQuery = entityManager.createQuery(criteriaQuery);
+        typedQuery.setMaxResults(1);
+        usingIds = typedQuery.getResultList();
+
+        if (usingIds.isEmpty()) {
+            return null;
+        }
+
+        return usingIds.get(0);
+    }
+
+    /**
+     * Determines which of the given IDs are referenced by objects of the given type.
+     *
+     * The IDs are checked in chunks. Each chunk is checked with a single query per reference attribute.
+     *
+     * @param <T>                 The type of the referencing objects.
+     * @param entityManager       The EntityManager.
+     * @param type                The type of the referencing objects.
+     * @param ids                 The IDs of the objects to be checked.
+     * @param referenceAttributes The attributes of the referencing object that can reference the objects.
+     * @return The referenced IDs.
+     */
+    static <T> Set<Integer> getReferencedIds(final EntityManager entityManager, final Class<T> type,
+            final Collection<Integer> ids, final String... referenceAttributes) {
+
+        Set<Integer> referencedIds = new HashSet<Integer>();
+        List<Integer> idList = new ArrayList<Integer>(ids);
+        List<Integer> chunk;
+
+        for (int fromIndex = 0; fromIndex < idList.size(); fromIndex += MAX_IDS_PER_QUERY) {
+            chunk = idList.subList(fromIndex, Math.min(fromIndex + MAX_IDS_PER_QUERY, idList.size()));
+
+            for (String referenceAttribute : referenceAttributes) {
+                referencedIds.addAll(getReferencedIds(entityManager, type, chunk, referenceAttribute));
+            }
+        }
+
+        return referencedIds;
+    }
+
+    /**
+     * Determines which of the given IDs are referenced by the given attribute of objects of the given type.
+     *
+     * @param <T>                The type of the referencing objects.
+     * @param entityManager      The EntityManager.
+     * @param type               The type of the referencing objects.
+     * @param ids                The IDs of the objects to be checked.
+     * @param referenceAttribute The attribute of the referencing object that can reference the objects.
+     * @return The referenced IDs.
+     */
+    private static <T> List<Integer> getReferencedIds(final EntityManager entityManager, final Class<T> type,
+            final List<Integer> ids, final String referenceAttribute) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> criteriaQuery = criteriaBuilder.createQuery(Integer.class);
+        Root<T> criteria = criteriaQuery.from(type);
+        Path<Integer> referencedId = criteria.get(referenceAttribute).get("id");
+
+        criteriaQuery.select(referencedId).distinct(true);
+        criteriaQuery.where(referencedId.in(ids));
+
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+}
@@ -2,9 +2,11 @@ package backend.dao;
 
 import java.util.List;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.salesOrder.SalesOrder;
 import backend.model.salesOrder.SalesOrderStatus;
+import backend.model.salesOrder.SalesOrderWS;
 
 /**
  * Interface for sales order persistence.
@@ -20,6 +22,14 @@ public interface SalesOrderDao {
      */
     void insertSalesOrder(SalesOrder salesOrder) throws Exception;
 
+    /**
+     * Inserts the given sales orders in a single transaction.
+     *
+     * @param salesOrders The sales orders to be inserted.
+     * @throws Exception Insertion failed. None of the sales orders has been inserted.
+     */
+    void insertSalesOrders(List<SalesOrder> salesOrders) throws Exception;
+
     /**
      * Deletes a sales order.
      *
@@ -37,6 +47,17 @@ public interface SalesOrderDao {
      */
     List<SalesOrder> getSalesOrders(SalesOrderStatus orderStatusQuery) throws Exception;
 
+    /**
+     * Gets a page of sales orders ordered by ID.
+     *
+     * @param orderStatusQuery Specifies the sales orders to be selected based on the status.
+     * @param afterId          Only sales orders with an ID greater than this ID are selected. Can be null.
+     * @param limit            The maximum number of sales orders. Can be null.
+     * @return The sales orders of the page.
+     * @throws Exception Sales order retrieval failed.
+     */
+    List<SalesOrder> getSalesOrders(SalesOrderStatus orderStatusQuery, Integer afterId, Integer limit) throws Exception;
+
     /**
      * Gets the sales order with the given id.
      *
@@ -51,7 +72,29 @@ public interface SalesOrderDao {
      *
      * @param salesOrder The sales order to be updated.
      * @throws ObjectUnchangedException The sales order has not been changed.
+     * @throws ObjectOutdatedException  The sales order has been changed by someone else in the meantime.
      * @throws Exception                Sales order update failed.
      */
-    void updateSalesOrder(SalesOrder salesOrder) throws ObjectUnchangedException, Exception;
+    void updateSalesOrder(SalesOrder salesOrder) throws ObjectUnchangedException, ObjectOutdatedException, Exception;
+
+    /**
+     * Gets a page of lean sales orders ordered by ID. Referenced objects are only provided by their ID.
+     *
+     * @param orderStatusQuery Specifies the sales orders to be selected based on the status.
+     * @param afterId          Only sales orders with an ID greater than this ID are selected. Can be null.
+     * @param limit            The maximum number of sales orders. Can be null.
+     * @return The lean sales orders of the page.
+     * @throws Exception Sales order retrieval failed.
+     */
+    List<SalesOrderWS> getLeanSalesOrders(SalesOrderStatus orderStatusQuery, Integer afterId, Integer limit)
+            throws Exception;
+
+    /**
+     * Gets the lean sales order with the given ID. Referenced objects are only provided by their ID.
+     *
+     * @param id The ID of the sales order.
+     * @return The lean sales order; null, if no sales order with the given ID exists.
+     * @throws Exception Sales order retrieval failed.
+     */
+    SalesOrderWS getLeanSalesOrder(Integer id) throws Exception;
 }
@@ -1,20 +1,33 @@
 package backend.dao;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.salesOrder.SalesOrder;
+import backend.model.salesOrder.SalesOrderItem;
+import backend.model.salesOrder.SalesOrderItemWS;
 import backend.model.salesOrder.SalesOrderStatus;
+import backend.model.salesOrder.SalesOrderWS;
 
 /**
  * Provides access to sales order database persistence using Hibernate.
@@ -41,47 +54,50 @@ public class SalesOrderHibernateDao implements SalesOrderDao {
      */
     @Override
     public void insertSalesOrder(final SalesOrder salesOrder) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.persist(salesOrder);
-            entityManager.flush(); // Assures, that the generated sales order ID is available.
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary!?
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
     }
 
+    /**
+     * Inserts a list of SalesOrders.
+     */
+    @Override
+    public void insertSalesOrders(final List<SalesOrder> salesOrders) throws Exception {
+        BatchWriter.persistAll(this.sessionFactory, salesOrders);
+    }
+
     /**
      * Deletes a SalesOrder.
      */
     @Override
     public void deleteSalesOrder(final SalesOrder salesOrder) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // In order to successfully delete an entity, it first has to be fetched from the database.
         SalesOrder deleteSalesOrder = entityManager.find(SalesOrder.class, salesOrder.getId());
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
             entityManager.remove(deleteSalesOrder);
-            entityManager.getTransaction().commit();
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
     }
 
@@ -90,47 +106,195 @@ public class SalesOrderHibernateDao implements SalesOrderDao {
      */
     @Override
     public List<SalesOrder> getSalesOrders(final SalesOrderStatus orderStatusQuery) throws Exception {
+        return this.getSalesOrders(orderStatusQuery, null, null);
+    }
+
+    /**
+     * Gets a page of sales orders ordered by ID.
+     */
+    @Override
+    public List<SalesOrder> getSalesOrders(final SalesOrderStatus orderStatusQuery, final Integer afterId,
+            final Integer limit) throws Exception {
         List<SalesOrder> salesOrders = null;
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced SalesOrderItem instances.
         EntityGraph<SalesOrder> graph = entityManager.createEntityGraph(SalesOrder.class);
         graph.addAttributeNodes("items", "soldToParty", "shipToParty", "billToParty", "paymentAccount");
         graph.addSubgraph("items").addAttributeNodes("material");
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
 
         try {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-            CriteriaQuery<SalesOrder> criteriaQuery = criteriaBuilder.createQuery(SalesOrder.class);
-            Root<SalesOrder> criteria = criteriaQuery.from(SalesOrder.class);
-            criteriaQuery.select(criteria);
-            this.applyOrderStatusQueryParameter(orderStatusQuery, criteriaQuery, criteriaBuilder, criteria);
-            criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id"))); // Order by id ascending
-            TypedQuery<SalesOrder> typedQuery = entityManager.createQuery(criteriaQuery);
-            typedQuery.setHint("jakarta.persistence.loadgraph", graph); // Also fetch all item data.
-            salesOrders = typedQuery.getResultList();
-
-            entityManager.getTransaction().commit();
+            salesOrders = KeysetPagination.getPage(entityManager, SalesOrder.class, graph,
+                    this.getOrderStatusRestriction(orderStatusQuery), afterId, limit);
+
+            UnitOfWork.commit(entityManager);
         } catch (Exception exception) {
             // If something breaks a rollback is necessary.
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
+            UnitOfWork.rollback(entityManager);
             throw exception;
         } finally {
-            entityManager.close();
+            UnitOfWork.close(entityManager);
         }
 
         return salesOrders;
     }
 
+    /**
+     * Gets a page of lean sales orders ordered by ID. The sales orders and their items are read by projection queries.
+     * Therefore no referenced business partner, account or material is loaded.
+     */
+    @Override
+    public List<SalesOrderWS> getLeanSalesOrders(final SalesOrderStatus orderStatusQuery, final Integer afterId,
+            final Integer limit) throws Exception {
+        return this.readLeanSalesOrders((criteriaBuilder, criteria) -> {
+            List<Predicate> predicates = new ArrayList<Predicate>();
+            Predicate statusPredicate = this.getOrderStatusRestriction(orderStatusQuery).apply(criteriaBuilder,
+                    criteria);
+
+            if (statusPredicate != null) {
+                predicates.add(statusPredicate);
+            }
+
+            if (afterId != null) {
+                predicates.add(criteriaBuilder.greaterThan(criteria.<Integer>get("id"), afterId));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
+        }, limit);
+    }
+
+    /**
+     * Gets the lean sales order with the given ID.
+     */
+    @Override
+    public SalesOrderWS getLeanSalesOrder(final Integer id) throws Exception {
+        List<SalesOrderWS> salesOrders = this.readLeanSalesOrders(
+                (criteriaBuilder, criteria) -> criteriaBuilder.equal(criteria.get("id"), id), null);
+
+        if (salesOrders.isEmpty()) {
+            return null;
+        }
+
+        return salesOrders.get(0);
+    }
+
+    /**
+     * Reads lean sales orders and their items. The orders are read by one query and the items of all orders by a
+     * second query.
+     *
+     * @param restriction Provides the query restriction of the sales orders.
+     * @param limit       The maximum number of sales orders. Can be null.
+     * @return The lean sales orders ordered by ID.
+     * @throws Exception In case the sales orders could not be read.
+     */
+    private List<SalesOrderWS> readLeanSalesOrders(
+            final BiFunction<CriteriaBuilder, Root<SalesOrder>, Predicate> restriction, final Integer limit)
+            throws Exception {
+        Map<Integer, SalesOrderWS> salesOrders = new LinkedHashMap<Integer, SalesOrderWS>();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+
+        UnitOfWork.begin(entityManager);
+
+        try {
+            for (Tuple order : this.getOrderTuples(entityManager, restriction, limit)) {
+                SalesOrderWS salesOrder = new SalesOrderWS();
+                salesOrder.setSalesOrderId(order.get(0, Integer.class));
+                salesOrder.setVersion(order.get(1, Long.class));
+                salesOrder.setSoldToId(order.get(2, Integer.class));
+                salesOrder.setShipToId(order.get(3, Integer.class));
+                salesOrder.setBillToId(order.get(4, Integer.class));
+                salesOrder.setPaymentAccountId(order.get(5, Integer.class));
+                salesOrder.setOrderDate(order.get(6, Date.class));
+                salesOrder.setRequestedDeliveryDate(order.get(7, Date.class));
+                salesOrder.setStatus(order.get(8, SalesOrderStatus.class));
+                salesOrders.put(salesOrder.getSalesOrderId(), salesOrder);
+            }
+
+            if (!salesOrders.isEmpty()) {
+                for (Tuple item : this.getItemTuples(entityManager, salesOrders.keySet())) {
+                    SalesOrderItemWS salesOrderItem = new SalesOrderItemWS();
+                    salesOrderItem.setItemId(item.get(1, Integer.class));
+                    salesOrderItem.setMaterialId(item.get(2, Integer.class));
+                    salesOrderItem.setQuantity(item.get(3, Long.class));
+                    salesOrderItem.setPriceTotal(item.get(4, BigDecimal.class));
+                    salesOrders.get(item.get(0, Integer.class)).addItem(salesOrderItem);
+                }
+            }
+
+            UnitOfWork.commit(entityManager);
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
+        }
+
+        return new ArrayList<SalesOrderWS>(salesOrders.values());
+    }
+
+    /**
+     * Reads the attributes of sales orders and the IDs of their references.
+     *
+     * @param entityManager The EntityManager.
+     * @param restriction   Provides the query restriction of the sales orders.
+     * @param limit         The maximum number of sales orders. Can be null.
+     * @return The attributes of each sales order ordered by ID.
+     */
+    private List<Tuple> getOrderTuples(final EntityManager entityManager,
+            final BiFunction<CriteriaBuilder, Root<SalesOrder>, Predicate> restriction, final Integer limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<SalesOrder> criteria = criteriaQuery.from(SalesOrder.class);
+        TypedQuery<Tuple> typedQuery;
+
+        criteriaQuery.multiselect(criteria.get("id"), criteria.get("version"),
+                criteria.join("soldToParty", JoinType.LEFT).get("id"),
+                criteria.join("shipToParty", JoinType.LEFT).get("id"),
+                criteria.join("billToParty", JoinType.LEFT).get("id"),
+                criteria.join("paymentAccount", JoinType.LEFT).get("id"), criteria.get("orderDate"),
+                criteria.get("requestedDeliveryDate"), criteria.get("status"));
+        criteriaQuery.where(restriction.apply(criteriaBuilder, criteria));
+        criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("id")));
+        typedQuery = entityManager.createQuery(criteriaQuery);
+
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Reads the attributes of the items of the given sales orders and the IDs of their materials.
+     *
+     * @param entityManager The EntityManager.
+     * @param salesOrderIds The IDs of the sales orders.
+     * @return The sales order ID and the attributes of each item ordered by sales order and item ID.
+     */
+    private List<Tuple> getItemTuples(final EntityManager entityManager,
+            final Collection<Integer> salesOrderIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<SalesOrderItem> criteria = criteriaQuery.from(SalesOrderItem.class);
+
+        criteriaQuery.multiselect(criteria.get("salesOrder").get("id"), criteria.get("id"),
+                criteria.get("material").get("id"), criteria.get("quantity"), criteria.get("priceTotal"));
+        criteriaQuery.where(criteria.get("salesOrder").get("id").in(salesOrderIds));
+        criteriaQuery.orderBy(criteriaBuilder.asc(criteria.get("salesOrder").get("id")),
+                criteriaBuilder.asc(criteria.get("id")));
+
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+
     /**
      * Gets the SalesOrder with the given ID.
      */
     @Override
     public SalesOrder getSalesOrder(final Integer id) throws Exception {
-        EntityManager entityManager = this.sessionFactory.createEntityManager();
+        EntityManager entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
 
         // Use entity graphs to load data of referenced SalesOrderItem instances.
         EntityGraph<SalesOrder> graph = entityManager.createEntityGraph(SalesOrder.class);
@@ -139,10 +303,10 @@ public class SalesOrderHibernateDao implements SalesOrderDao {
         Map<String, Object> hints = new HashMap<String, Object>();
         hints.put("jakarta.persistence.loadgraph", graph);
 
-        entityManager.getTransaction().begin();
+        UnitOfWork.begin(entityManager);
         SalesOrder salesOrder = entityManager.find(SalesOrder.class, id, hints);
-        entityManager.getTransaction().commit();
-        entityManager.close();
+        UnitOfWork.commit(entityManager);
+        UnitOfWork.close(entityManager);
 
         return salesOrder;
     }
@@ -151,50 +315,49 @@ public class SalesOrderHibernateDao implements SalesOrderDao {
      * Updates a SalesOrder.
      */
     @Override
-    public void updateSalesOrder(final SalesOrder salesOrder) throws ObjectUnchangedException, Exception {
+    public void updateSalesOrder(final SalesOrder salesOrder)
+            throws ObjectUnchangedException, ObjectOutdatedException, Exception {
         EntityManager entityManager;
 
-        this.checkSalesOrderDataChanged(salesOrder);
+        // Changes of objects managed by the unit of work are tracked by the EntityManager and written on commit.
+        if (UnitOfWork.isManaged(salesOrder)) {
+            return;
+        }
 
-        entityManager = this.sessionFactory.createEntityManager();
-        entityManager.getTransaction().begin();
-        entityManager.merge(salesOrder);
-        entityManager.getTransaction().commit();
-        entityManager.close();
-    }
+        entityManager = UnitOfWork.getEntityManager(this.sessionFactory);
+        UnitOfWork.begin(entityManager);
 
-    /**
-     * Checks if the data of the given sales order differ from the sales order that is persisted at database level.
-     *
-     * @param salesOrder The sales order to be checked.
-     * @throws ObjectUnchangedException In case the sales order has not been changed.
-     * @throws Exception                In case an error occurred during determination of the sales order stored at the
-     *                                  database.
-     */
-    private void checkSalesOrderDataChanged(final SalesOrder salesOrder) throws ObjectUnchangedException, Exception {
-        SalesOrder databaseSalesOrder = this.getSalesOrder(salesOrder.getId());
-
-        if (databaseSalesOrder.equals(salesOrder)) {
-            throw new ObjectUnchangedException();
+        try {
+            OptimisticLocking.merge(entityManager, salesOrder, true);
+            UnitOfWork.commit(entityManager);
+        } catch (ObjectUnchangedException objectUnchangedException) {
+            // Nothing has been written, so the transaction does not need to be rolled back.
+            UnitOfWork.commit(entityManager);
+            throw objectUnchangedException;
+        } catch (Exception exception) {
+            // If something breaks a rollback is necessary.
+            UnitOfWork.rollback(entityManager);
+            throw exception;
+        } finally {
+            UnitOfWork.close(entityManager);
         }
     }
 
     /**
-     * Applies the order status query parameter to the sales order query.
+     * Provides the restriction of the sales order query based on the order status query parameter.
      *
-     * @param orderStatusQuery   The query parameter for sales order status.
-     * @param orderCriteriaQuery The sales order criteria query.
-     * @param criteriaBuilder    The builder of criterias.
-     * @param criteria           The root entity of the sales order that is being queried.
+     * @param orderStatusQuery The query parameter for sales order status.
+     * @return The restriction of the sales order query.
      */
-    private void applyOrderStatusQueryParameter(final SalesOrderStatus orderStatusQuery,
-            final CriteriaQuery<SalesOrder> orderCriteriaQuery, final CriteriaBuilder criteriaBuilder,
-            final Root<SalesOrder> criteria) {
+    private BiFunction<CriteriaBuilder, Root<SalesOrder>, Predicate> getOrderStatusRestriction(
+            final SalesOrderStatus orderStatusQuery) {
 
-        if (orderStatusQuery == null) {
-            return; // No further query restrictions needed.
-        }
+        return (criteriaBuilder, criteria) -> {
+            if (orderStatusQuery == null) {
+                return null; // No further query restrictions needed.
+            }
 
-        orderCriteriaQuery.where(criteriaBuilder.equal(criteria.get("status"), orderStatusQuery));
+            return criteriaBuilder.equal(criteria.get("status"), orderStatusQuery);
+        };
     }
 }
@@ -0,0 +1,110 @@
+package backend.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Aligns the increment of existing entity sequences with the allocation size defined in the SequenceConfiguration.
+ * Databases created with an allocation size of 1 are migrated this way without changing the current value of the
+ * sequences. Therefore all existing IDs stay intact and new IDs are allocated above them.
+ *
+ * The sequences to be migrated are the sequences of the ID generators of the mapped entities.
+ *
+ * @author Michael
+ */
+public class SequenceMigration {
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(SequenceMigration.class);
+
+    /**
+     * Access to localized application resources.
+     */
+    private ResourceBundle resources = ResourceBundle.getBundle("backend");
+
+    /**
+     * The database connection used for the migration.
+     */
+    private Connection connection;
+
+    /**
+     * The names of the sequences to be migrated.
+     */
+    private Collection<String> sequenceNames;
+
+    /**
+     * Initializes the migration.
+     *
+     * @param connection    The database connection used for the migration.
+     * @param sequenceNames The names of the sequences to be migrated.
+     */
+    public SequenceMigration(final Connection connection, final Collection<String> sequenceNames) {
+        this.connection = connection;
+        this.sequenceNames = sequenceNames;
+    }
+
+    /**
+     * Changes the increment of all sequences to be migrated whose increment differs from the given allocation size.
+     * Sequences not existing yet are skipped because they are created by the schema generation.
+     *
+     * @param allocationSize The allocation size.
+     * @return The number of migrated sequences.
+     * @throws SQLException In case the migration failed.
+     */
+    public int migrate(final int allocationSize) throws SQLException {
+        Map<String, Long> increments = this.getSequenceIncrements();
+        Long increment;
+        int migratedSequences = 0;
+
+        for (String sequenceName : this.sequenceNames) {
+            increment = increments.get(sequenceName.toUpperCase(Locale.ROOT));
+
+            if (increment == null || increment == allocationSize) {
+                continue;
+            }
+
+            try (Statement statement = this.connection.createStatement()) {
+                statement.executeUpdate("ALTER SEQUENCE " + sequenceName + " INCREMENT BY " + allocationSize);
+            }
+
+            LOGGER.info(MessageFormat.format(this.resources.getString("sequenceMigration.incrementChanged"),
+                    sequenceName, increment, allocationSize));
+            migratedSequences++;
+        }
+
+        return migratedSequences;
+    }
+
+    /**
+     * Determines the increments of all existing sequences.
+     *
+     * @return The increments of the sequences. The key is the upper case name of the sequence.
+     * @throws SQLException In case the sequence information could not be read.
+     */
+    private Map<String, Long> getSequenceIncrements() throws SQLException {
+        Map<String, Long> increments = new HashMap<String, Long>();
+        String query = "SELECT SEQUENCE_NAME, INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES";
+
+        try (Statement statement = this.connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                increments.put(resultSet.getString("SEQUENCE_NAME").toUpperCase(Locale.ROOT),
+                        Long.valueOf(resultSet.getString("INCREMENT").trim()));
+            }
+        }
+
+        return increments;
+    }
+}
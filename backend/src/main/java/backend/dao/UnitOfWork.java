@@ -0,0 +1,215 @@
+package backend.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * A unit of work spans a single EntityManager and a single transaction over multiple DAO calls of the current thread.
+ *
+ * While a unit of work is active, the DAOs participate in it instead of opening their own EntityManager and
+ * transaction. The work of all DAO calls is committed at once by {@link #commit()}. If the unit of work is closed
+ * without being committed, all work is rolled back.
+ *
+ * <pre>
+ * try (UnitOfWork unitOfWork = DAOManager.getInstance().beginUnitOfWork()) {
+ *     // DAO calls
+ *     unitOfWork.commit();
+ * }
+ * </pre>
+ *
+ * @author Michael
+ */
+public final class UnitOfWork implements AutoCloseable {
+    /**
+     * The unit of work of the current thread.
+     */
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<UnitOfWork>();
+
+    /**
+     * The EntityManager that is shared by all DAO calls of the unit of work.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Indicates if the unit of work has been committed.
+     */
+    private boolean committed;
+
+    /**
+     * The actions that are executed, once the unit of work has been committed or rolled back.
+     */
+    private final List<Runnable> completionActions = new ArrayList<Runnable>();
+
+    /**
+     * Begins a new unit of work for the current thread.
+     *
+     * @param sessionFactory The database session factory.
+     * @throws IllegalStateException In case the current thread already has an active unit of work.
+     */
+    UnitOfWork(final EntityManagerFactory sessionFactory) {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("A unit of work is already active for the current thread.");
+        }
+
+        this.entityManager = sessionFactory.createEntityManager();
+        this.entityManager.getTransaction().begin();
+        CURRENT.set(this);
+    }
+
+    /**
+     * Commits the work of all DAO calls of the unit of work.
+     *
+     * @throws IllegalStateException In case the unit of work has already been committed.
+     */
+    public void commit() {
+        if (this.committed) {
+            throw new IllegalStateException("The unit of work has already been committed.");
+        }
+
+        this.entityManager.getTransaction().commit();
+        this.committed = true;
+    }
+
+    /**
+     * Ends the unit of work. All work that has not been committed is rolled back.
+     */
+    @Override
+    public void close() {
+        try {
+            if (this.entityManager.getTransaction().isActive()) {
+                this.entityManager.getTransaction().rollback();
+            }
+        } finally {
+            this.entityManager.close();
+            CURRENT.remove();
+            this.completionActions.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Executes the given action once the transaction of the given EntityManager has been completed. If the
+     * EntityManager belongs to the unit of work of the current thread, the action is executed when the unit of work is
+     * closed. Otherwise it is executed immediately.
+     *
+     * @param entityManager The EntityManager whose transaction has been committed or rolled back by the DAO.
+     * @param action        The action.
+     */
+    static void afterCompletion(final EntityManager entityManager, final Runnable action) {
+        if (isParticipating(entityManager)) {
+            CURRENT.get().completionActions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Executes the given action once the unit of work of the current thread has been committed or rolled back. If the
+     * current thread has no active unit of work, the action is executed immediately.
+     *
+     * @param action The action.
+     */
+    static void afterCompletion(final Runnable action) {
+        UnitOfWork unitOfWork = CURRENT.get();
+
+        if (unitOfWork != null) {
+            unitOfWork.completionActions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Checks if the given entity is managed by the unit of work of the current thread.
+     *
+     * @param entity The entity.
+     * @return true, if the entity is managed by the unit of work; false otherwise.
+     */
+    static boolean isManaged(final Object entity) {
+        UnitOfWork unitOfWork = CURRENT.get();
+
+        return unitOfWork != null && unitOfWork.entityManager.contains(entity);
+    }
+
+    /**
+     * Provides the EntityManager for a DAO call. This is the EntityManager of the unit of work of the current thread,
+     * if any. Otherwise a new EntityManager is created.
+     *
+     * @param sessionFactory The database session factory.
+     * @return The EntityManager.
+     */
+    static EntityManager getEntityManager(final EntityManagerFactory sessionFactory) {
+        UnitOfWork unitOfWork = CURRENT.get();
+
+        if (unitOfWork != null) {
+            return unitOfWork.entityManager;
+        }
+
+        return sessionFactory.createEntityManager();
+    }
+
+    /**
+     * Checks if the given EntityManager belongs to the unit of work of the current thread.
+     *
+     * @param entityManager The EntityManager.
+     * @return true, if the EntityManager belongs to the unit of work; false otherwise.
+     */
+    static boolean isParticipating(final EntityManager entityManager) {
+        UnitOfWork unitOfWork = CURRENT.get();
+
+        return unitOfWork != null && unitOfWork.entityManager == entityManager;
+    }
+
+    /**
+     * Begins the transaction of a DAO call. The transaction of a unit of work has already been started.
+     *
+     * @param entityManager The EntityManager of the DAO call.
+     */
+    static void begin(final EntityManager entityManager) {
+        if (!isParticipating(entityManager)) {
+            entityManager.getTransaction().begin();
+        }
+    }
+
+    /**
+     * Commits the transaction of a DAO call. The transaction of a unit of work is committed by the unit of work.
+     *
+     * @param entityManager The EntityManager of the DAO call.
+     */
+    static void commit(final EntityManager entityManager) {
+        if (!isParticipating(entityManager)) {
+            entityManager.getTransaction().commit();
+        }
+    }
+
+    /**
+     * Rolls back the transaction of a failed DAO call. The transaction of a unit of work is marked for rollback
+     * instead, so that it can not be committed anymore.
+     *
+     * @param entityManager The EntityManager of the DAO call.
+     */
+    static void rollback(final EntityManager entityManager) {
+        if (!entityManager.getTransaction().isActive()) {
+            return;
+        }
+
+        if (isParticipating(entityManager)) {
+            entityManager.getTransaction().setRollbackOnly();
+        } else {
+            entityManager.getTransaction().rollback();
+        }
+    }
+
+    /**
+     * Closes the EntityManager of a DAO call. The EntityManager of a unit of work is closed by the unit of work.
+     *
+     * @param entityManager The EntityManager of the DAO call.
+     */
+    static void close(final EntityManager entityManager) {
+        if (!isParticipating(entityManager)) {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package backend.dao;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Adds the version column used for optimistic locking to the tables of existing databases. Tables created before the
+ * introduction of optimistic locking do not have the column, because the schema generation only creates missing
+ * tables. All existing rows start with version 0.
+ *
+ * @author Michael
+ */
+public class VersionColumnMigration {
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(VersionColumnMigration.class);
+
+    /**
+     * The name of the version column.
+     */
+    private static final String VERSION_COLUMN = "VERSION";
+
+    /**
+     * The tables of all versioned business objects.
+     */
+    private static final String[] VERSIONED_TABLES = {"ACCOUNT", "BILL_OF_MATERIAL", "BUSINESS_PARTNER", "DEPARTMENT",
+            "EMPLOYEE", "MATERIAL", "PRODUCTION_ORDER", "PURCHASE_ORDER", "SALES_ORDER"};
+
+    /**
+     * Access to localized application resources.
+     */
+    private ResourceBundle resources = ResourceBundle.getBundle("backend");
+
+    /**
+     * The database connection used for the migration.
+     */
+    private Connection connection;
+
+    /**
+     * Initializes the migration.
+     *
+     * @param connection The database connection used for the migration.
+     */
+    public VersionColumnMigration(final Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Adds the version column to all existing tables of versioned business objects that do not have the column yet.
+     * Tables not existing yet are skipped because they are created by the schema generation.
+     *
+     * @return The number of migrated tables.
+     * @throws SQLException In case the migration failed.
+     */
+    public int migrate() throws SQLException {
+        int migratedTables = 0;
+
+        for (String tableName : VERSIONED_TABLES) {
+            if (!this.isVersionColumnMissing(tableName)) {
+                continue;
+            }
+
+            try (Statement statement = this.connection.createStatement()) {
+                statement.executeUpdate("ALTER TABLE " + tableName + " ADD COLUMN " + VERSION_COLUMN
+                        + " BIGINT DEFAULT 0 NOT NULL");
+            }
+
+            LOGGER.info(MessageFormat.format(this.resources.getString("versionColumnMigration.columnAdded"),
+                    tableName));
+            migratedTables++;
+        }
+
+        return migratedTables;
+    }
+
+    /**
+     * Checks if the given table exists without the version column.
+     *
+     * @param tableName The name of the table.
+     * @return true, if the table exists and has no version column; false otherwise.
+     * @throws SQLException In case the table information could not be read.
+     */
+    private boolean isVersionColumnMissing(final String tableName) throws SQLException {
+        DatabaseMetaData metaData = this.connection.getMetaData();
+
+        try (ResultSet tables = metaData.getTables(null, null, tableName, null)) {
+            if (!tables.next()) {
+                return false;
+            }
+        }
+
+        try (ResultSet columns = metaData.getColumns(null, null, tableName, VERSION_COLUMN)) {
+            return !columns.next();
+        }
+    }
+}
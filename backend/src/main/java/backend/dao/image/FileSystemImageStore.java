@@ -0,0 +1,354 @@
+package backend.dao.image;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Stores the binary data of images in a directory tree of the file system. Each file is named after the SHA-256 hash
+ * of its data and located in two levels of subdirectories named after the first characters of the hash, for example
+ * "ab/cd/abcd...". Derivatives are located in the same directory and named after the hash followed by a dot and the
+ * name of the derivative. New data are written to a temporary file first and then moved to their final location.
+ * Therefore readers never see partially written files.
+ *
+ * @author Michael
+ */
+public class FileSystemImageStore implements ImageStore {
+    /**
+     * The algorithm used to hash the data.
+     */
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    /**
+     * The pattern of a valid hash.
+     */
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    /**
+     * The pattern of a valid key of data or a derivative. Other values are rejected to prevent access to files outside
+     * of the store.
+     */
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}(\\.[a-z]+)?");
+
+    /**
+     * The pattern of a valid name of a derivative.
+     */
+    private static final Pattern DERIVATIVE_NAME_PATTERN = Pattern.compile("[a-z]+");
+
+    /**
+     * The number of hash characters used for the name of a subdirectory.
+     */
+    private static final int SHARD_LENGTH = 2;
+
+    /**
+     * The name of the directory containing files that are being written.
+     */
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+
+    /**
+     * The root directory of the store.
+     */
+    private final Path rootDirectory;
+
+    /**
+     * Initializes the store.
+     *
+     * @param rootDirectory The root directory of the store. The directory is created when data are stored the first
+     *                      time.
+     */
+    public FileSystemImageStore(final Path rootDirectory) {
+        this.rootDirectory = rootDirectory;
+    }
+
+    /**
+     * Stores the given data. The data are only written if no data with the same hash exist.
+     */
+    @Override
+    public String store(final byte[] data) throws IOException {
+        String hash = HexFormat.of().formatHex(createDigest().digest(data));
+
+        if (this.exists(hash)) {
+            return hash;
+        }
+
+        return this.store(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Stores the data provided by the given stream. The data are staged and committed at once.
+     */
+    @Override
+    public String store(final InputStream inputStream) throws IOException {
+        try (StagedContent content = this.stage(inputStream)) {
+            content.commit();
+
+            return content.getHash();
+        }
+    }
+
+    /**
+     * Writes the data provided by the given stream to a temporary file while the hash is determined. The temporary
+     * file is deleted, if the data could not be written completely.
+     */
+    @Override
+    public StagedContent stage(final InputStream inputStream) throws IOException {
+        MessageDigest digest = createDigest();
+        Path temporaryFile = this.createTemporaryFile();
+
+        try (OutputStream outputStream = new DigestOutputStream(Files.newOutputStream(temporaryFile), digest)) {
+            inputStream.transferTo(outputStream);
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(temporaryFile);
+            throw exception;
+        }
+
+        return new StagedFile(temporaryFile, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Stores a derivative of the data with the given hash.
+     */
+    @Override
+    public String storeDerivative(final String hash, final String name, final byte[] data) throws IOException {
+        String key;
+        Path temporaryFile;
+
+        if (!HASH_PATTERN.matcher(hash).matches() || !DERIVATIVE_NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid derivative " + name + " of image " + hash);
+        }
+
+        key = ImageStore.getDerivativeKey(hash, name);
+        temporaryFile = this.createTemporaryFile();
+
+        try {
+            Files.write(temporaryFile, data);
+            this.moveToStore(temporaryFile, key);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+
+        return key;
+    }
+
+    /**
+     * Reads the data with the given hash using a file channel.
+     */
+    @Override
+    public byte[] read(final String hash) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.getPath(hash), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer;
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The image " + hash + " is too large to be read at once.");
+            }
+
+            buffer = ByteBuffer.allocate((int) size);
+
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("The image " + hash + " has been truncated while being read.");
+                }
+            }
+
+            return buffer.array();
+        }
+    }
+
+    /**
+     * Transfers a range of the data with the given hash using {@link FileChannel#transferTo}. Depending on the
+     * operating system the data are copied directly from the file system cache to the target.
+     */
+    @Override
+    public long transferTo(final String hash, final long position, final long count, final WritableByteChannel target)
+            throws IOException {
+        long transferred = 0;
+
+        try (FileChannel channel = FileChannel.open(this.getPath(hash), StandardOpenOption.READ)) {
+            long end = Math.min(position + count, channel.size());
+
+            while (position + transferred < end) {
+                long bytes = channel.transferTo(position + transferred, end - position - transferred, target);
+
+                if (bytes <= 0) {
+                    break;
+                }
+
+                transferred += bytes;
+            }
+        }
+
+        return transferred;
+    }
+
+    /**
+     * Provides the size of the data with the given hash.
+     */
+    @Override
+    public long getSize(final String hash) throws IOException {
+        return Files.size(this.getPath(hash));
+    }
+
+    /**
+     * Checks if data with the given hash exist.
+     */
+    @Override
+    public boolean exists(final String hash) {
+        return Files.isRegularFile(this.getPath(hash));
+    }
+
+    /**
+     * Deletes the data with the given hash and all derivatives of the data.
+     */
+    @Override
+    public void delete(final String hash) throws IOException {
+        Path file = this.getPath(hash);
+
+        if (Files.isDirectory(file.getParent())) {
+            try (DirectoryStream<Path> derivatives = Files.newDirectoryStream(file.getParent(), hash + ".*")) {
+                for (Path derivative : derivatives) {
+                    Files.deleteIfExists(derivative);
+                }
+            }
+        }
+
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Creates a temporary file in the store.
+     *
+     * @return The temporary file.
+     * @throws IOException In case the file could not be created.
+     */
+    private Path createTemporaryFile() throws IOException {
+        Path temporaryDirectory = this.rootDirectory.resolve(TEMPORARY_DIRECTORY);
+
+        Files.createDirectories(temporaryDirectory);
+
+        return Files.createTempFile(temporaryDirectory, "image", ".tmp");
+    }
+
+    /**
+     * Moves a completely written temporary file to the location of the given key. If data with the same key already
+     * exist, the temporary file is left in place to be deleted by the caller.
+     *
+     * @param temporaryFile The temporary file.
+     * @param key           The key of the data of the temporary file.
+     * @throws IOException In case the file could not be moved.
+     */
+    private void moveToStore(final Path temporaryFile, final String key) throws IOException {
+        Path file = this.getPath(key);
+
+        if (Files.exists(file)) {
+            return;
+        }
+
+        Files.createDirectories(file.getParent());
+
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+            Files.move(temporaryFile, file);
+        } catch (FileAlreadyExistsException fileAlreadyExistsException) {
+            // The same data have been stored concurrently.
+            return;
+        }
+    }
+
+    /**
+     * Provides the path of the file containing the data with the given key.
+     *
+     * @param key The SHA-256 hash of the data or the key of a derivative.
+     * @return The path of the file.
+     * @throws IllegalArgumentException In case the given value is no valid key.
+     */
+    private Path getPath(final String key) throws IllegalArgumentException {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+
+        return this.rootDirectory.resolve(key.substring(0, SHARD_LENGTH))
+                .resolve(key.substring(SHARD_LENGTH, 2 * SHARD_LENGTH)).resolve(key);
+    }
+
+    /**
+     * Data written to a temporary file of the store.
+     */
+    private final class StagedFile implements StagedContent {
+        /**
+         * The temporary file containing the data.
+         */
+        private final Path temporaryFile;
+
+        /**
+         * The SHA-256 hash of the data.
+         */
+        private final String hash;
+
+        /**
+         * Initializes the staged data.
+         *
+         * @param temporaryFile The temporary file containing the data.
+         * @param hash          The SHA-256 hash of the data.
+         */
+        private StagedFile(final Path temporaryFile, final String hash) {
+            this.temporaryFile = temporaryFile;
+            this.hash = hash;
+        }
+
+        /**
+         * Provides the hash of the data.
+         */
+        @Override
+        public String getHash() {
+            return this.hash;
+        }
+
+        /**
+         * Moves the temporary file to the location of the hash.
+         */
+        @Override
+        public void commit() throws IOException {
+            moveToStore(this.temporaryFile, this.hash);
+        }
+
+        /**
+         * Deletes the temporary file, if it has not been moved to the store.
+         */
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(this.temporaryFile);
+        }
+    }
+
+    /**
+     * Creates the digest used to hash the data.
+     *
+     * @return The digest.
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            // Every Java platform has to support SHA-256.
+            throw new IllegalStateException(noSuchAlgorithmException);
+        }
+    }
+}
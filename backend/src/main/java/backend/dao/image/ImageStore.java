@@ -0,0 +1,113 @@
+package backend.dao.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Stores the binary data of images outside of the database. The data are addressed by their SHA-256 hash. Storing
+ * data that already exist does not create a second copy.
+ *
+ * Derivatives of the data, for example downscaled images, are stored next to the data. A derivative is addressed by a
+ * key consisting of the hash of the data and the name of the derivative. All methods reading data accept such keys.
+ *
+ * @author Michael
+ */
+public interface ImageStore {
+    /**
+     * Stores the given data.
+     *
+     * @param data The data.
+     * @return The SHA-256 hash of the data as hexadecimal string.
+     * @throws IOException In case the data could not be stored.
+     */
+    String store(byte[] data) throws IOException;
+
+    /**
+     * Stores the data provided by the given stream. The stream is read until its end but not closed.
+     *
+     * @param inputStream The stream providing the data.
+     * @return The SHA-256 hash of the data as hexadecimal string.
+     * @throws IOException In case the data could not be stored.
+     */
+    String store(InputStream inputStream) throws IOException;
+
+    /**
+     * Writes the data provided by the given stream to a temporary location of the store. The data are not visible to
+     * readers until they are committed. The stream is read until its end but not closed.
+     *
+     * @param inputStream The stream providing the data.
+     * @return The staged data. Has to be closed by the caller.
+     * @throws IOException In case the data could not be written.
+     */
+    StagedContent stage(InputStream inputStream) throws IOException;
+
+    /**
+     * Stores a derivative of the data with the given hash. An existing derivative with the same name is kept.
+     *
+     * @param hash The SHA-256 hash of the data the derivative is based on.
+     * @param name The name of the derivative. Consists of lower case letters only.
+     * @param data The data of the derivative.
+     * @return The key of the derivative.
+     * @throws IOException In case the derivative could not be stored.
+     */
+    String storeDerivative(String hash, String name, byte[] data) throws IOException;
+
+    /**
+     * Reads the data with the given hash.
+     *
+     * @param hash The SHA-256 hash of the data or the key of a derivative.
+     * @return The data.
+     * @throws IOException In case the data do not exist or could not be read.
+     */
+    byte[] read(String hash) throws IOException;
+
+    /**
+     * Transfers a range of the data with the given hash to the given channel.
+     *
+     * @param hash     The SHA-256 hash of the data or the key of a derivative.
+     * @param position The position of the first byte to be transferred.
+     * @param count    The number of bytes to be transferred.
+     * @param target   The channel the data are transferred to.
+     * @return The number of transferred bytes.
+     * @throws IOException In case the data do not exist or could not be transferred.
+     */
+    long transferTo(String hash, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * Provides the size of the data with the given hash.
+     *
+     * @param hash The SHA-256 hash of the data or the key of a derivative.
+     * @return The size in bytes.
+     * @throws IOException In case the data do not exist.
+     */
+    long getSize(String hash) throws IOException;
+
+    /**
+     * Checks if data with the given hash exist.
+     *
+     * @param hash The SHA-256 hash of the data or the key of a derivative.
+     * @return true, if the data exist; false otherwise.
+     */
+    boolean exists(String hash);
+
+    /**
+     * Deletes the data with the given hash together with all derivatives of the data. The caller has to ensure that
+     * the data are not referenced anymore.
+     *
+     * @param hash The SHA-256 hash of the data.
+     * @throws IOException In case the data could not be deleted.
+     */
+    void delete(String hash) throws IOException;
+
+    /**
+     * Provides the key of a derivative of the data with the given hash.
+     *
+     * @param hash The SHA-256 hash of the data the derivative is based on.
+     * @param name The name of the derivative.
+     * @return The key of the derivative.
+     */
+    static String getDerivativeKey(final String hash, final String name) {
+        return hash + "." + name;
+    }
+}
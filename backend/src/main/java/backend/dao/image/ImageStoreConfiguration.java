@@ -0,0 +1,156 @@
+package backend.dao.image;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.Properties;
+import java.util.ResourceBundle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The configuration of the image store. The configuration is read from a properties file that either is located at
+ * the path given by the system property {@value #CONFIGURATION_PATH_PROPERTY} or on the classpath.
+ *
+ * @author Michael
+ */
+public class ImageStoreConfiguration {
+    /**
+     * The system property that defines the path to an external configuration file.
+     */
+    public static final String CONFIGURATION_PATH_PROPERTY = "erp.imageStore.configuration";
+
+    /**
+     * The name of the configuration file on the classpath.
+     */
+    public static final String DEFAULT_CONFIGURATION_FILE = "imageStore.properties";
+
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(ImageStoreConfiguration.class);
+
+    /**
+     * The default root directory of the store.
+     */
+    private static final String DEFAULT_DIRECTORY = "database/images";
+
+    /**
+     * The default maximum size of image data in bytes (10 MiB).
+     */
+    private static final long DEFAULT_MAX_IMAGE_SIZE = 10485760;
+
+    /**
+     * The root directory of the store.
+     */
+    private String directory = DEFAULT_DIRECTORY;
+
+    /**
+     * The maximum size of image data in bytes. Uploads of larger images are aborted.
+     */
+    private long maxImageSize = DEFAULT_MAX_IMAGE_SIZE;
+
+    /**
+     * Default constructor using the default values.
+     */
+    public ImageStoreConfiguration() {
+    }
+
+    /**
+     * Initializes the configuration based on the given properties. Missing properties use the default value.
+     *
+     * @param properties The properties.
+     */
+    public ImageStoreConfiguration(final Properties properties) {
+        this.directory = properties.getProperty("store.directory", this.directory).trim();
+        this.maxImageSize = Long
+                .parseLong(properties.getProperty("store.maxImageSize", String.valueOf(this.maxImageSize)).trim());
+
+        this.validate();
+    }
+
+    /**
+     * Loads the configuration. An external file defined by the system property {@value #CONFIGURATION_PATH_PROPERTY}
+     * takes precedence over the given file on the classpath.
+     *
+     * @param classpathResource The name of the configuration file on the classpath.
+     * @return The configuration.
+     * @throws IOException In case the configuration file could not be read.
+     */
+    public static ImageStoreConfiguration load(final String classpathResource) throws IOException {
+        ResourceBundle resources = ResourceBundle.getBundle("backend");
+        Properties properties = new Properties();
+        String externalPath = System.getProperty(CONFIGURATION_PATH_PROPERTY);
+
+        if (externalPath != null && Files.isReadable(Paths.get(externalPath))) {
+            try (InputStream inputStream = new FileInputStream(Paths.get(externalPath).toFile())) {
+                properties.load(inputStream);
+            }
+
+            return new ImageStoreConfiguration(properties);
+        }
+
+        try (InputStream inputStream = ImageStoreConfiguration.class.getClassLoader()
+                .getResourceAsStream(classpathResource)) {
+            if (inputStream == null) {
+                LOGGER.warn(MessageFormat.format(resources.getString("imageStore.configurationNotFound"),
+                        classpathResource));
+                return new ImageStoreConfiguration();
+            }
+
+            properties.load(inputStream);
+        }
+
+        return new ImageStoreConfiguration(properties);
+    }
+
+    /**
+     * Creates the image store defined by the configuration.
+     *
+     * @return The image store.
+     */
+    public ImageStore createImageStore() {
+        return new FileSystemImageStore(this.getDirectoryPath());
+    }
+
+    /**
+     * Validates the configuration.
+     *
+     * @throws IllegalArgumentException In case the configured values are inconsistent.
+     */
+    private void validate() throws IllegalArgumentException {
+        if (this.directory.isEmpty()) {
+            throw new IllegalArgumentException("store.directory must not be empty.");
+        }
+
+        if (this.maxImageSize < 1) {
+            throw new IllegalArgumentException("store.maxImageSize has to be at least 1.");
+        }
+    }
+
+    /**
+     * @return the directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the maxImageSize
+     */
+    public long getMaxImageSize() {
+        return maxImageSize;
+    }
+
+    /**
+     * @return The root directory of the store as path.
+     */
+    public Path getDirectoryPath() {
+        return Paths.get(this.directory);
+    }
+}
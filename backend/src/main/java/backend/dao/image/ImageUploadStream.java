@@ -0,0 +1,212 @@
+package backend.dao.image;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import backend.exception.ImageTooLargeException;
+
+/**
+ * Reads the data of an uploaded image. While the data are passed through, their size is checked against the maximum
+ * size and the first bytes are kept to determine the MIME type. Reading is aborted as soon as the maximum size is
+ * exceeded, without consuming the rest of the upload.
+ *
+ * @author Michael
+ */
+public class ImageUploadStream extends FilterInputStream {
+    /**
+     * The number of leading bytes used to determine the MIME type.
+     */
+    private static final int HEADER_LENGTH = 12;
+
+    /**
+     * The signature of PNG files.
+     */
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * The signature of JPEG files.
+     */
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+
+    /**
+     * The signature of GIF files.
+     */
+    private static final byte[] GIF_SIGNATURE = {'G', 'I', 'F', '8'};
+
+    /**
+     * The signature of BMP files.
+     */
+    private static final byte[] BMP_SIGNATURE = {'B', 'M'};
+
+    /**
+     * The signature of RIFF container files. WebP images are RIFF containers.
+     */
+    private static final byte[] RIFF_SIGNATURE = {'R', 'I', 'F', 'F'};
+
+    /**
+     * The format identifier of WebP images within the RIFF container.
+     */
+    private static final byte[] WEBP_SIGNATURE = {'W', 'E', 'B', 'P'};
+
+    /**
+     * The position of the format identifier within the RIFF container.
+     */
+    private static final int RIFF_FORMAT_OFFSET = 8;
+
+    /**
+     * The size of the buffer used to skip bytes.
+     */
+    private static final int SKIP_BUFFER_SIZE = 8192;
+
+    /**
+     * The maximum size of the image data in bytes.
+     */
+    private final long maxSize;
+
+    /**
+     * The leading bytes of the image data.
+     */
+    private final byte[] header = new byte[HEADER_LENGTH];
+
+    /**
+     * The number of bytes read so far.
+     */
+    private long size;
+
+    /**
+     * Initializes the stream.
+     *
+     * @param inputStream The stream providing the uploaded data.
+     * @param maxSize     The maximum size of the image data in bytes.
+     */
+    public ImageUploadStream(final InputStream inputStream, final long maxSize) {
+        super(inputStream);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Reads the next byte.
+     */
+    @Override
+    public int read() throws IOException {
+        byte[] singleByte = new byte[1];
+
+        if (this.read(singleByte, 0, 1) < 0) {
+            return -1;
+        }
+
+        return Byte.toUnsignedInt(singleByte[0]);
+    }
+
+    /**
+     * Reads up to the given number of bytes into the given array.
+     *
+     * @throws ImageTooLargeException In case the data exceed the maximum size.
+     */
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        int bytes = this.in.read(buffer, offset, length);
+
+        if (bytes <= 0) {
+            return bytes;
+        }
+
+        if (this.size < HEADER_LENGTH) {
+            System.arraycopy(buffer, offset, this.header, (int) this.size,
+                    (int) Math.min(bytes, HEADER_LENGTH - this.size));
+        }
+
+        this.size += bytes;
+
+        if (this.size > this.maxSize) {
+            throw new ImageTooLargeException(this.maxSize);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Skips the given number of bytes. The bytes are read to be considered by the size check.
+     */
+    @Override
+    public long skip(final long count) throws IOException {
+        byte[] buffer = new byte[(int) Math.max(0, Math.min(count, SKIP_BUFFER_SIZE))];
+        long skipped = 0;
+        int bytes = 0;
+
+        while (skipped < count && bytes >= 0) {
+            bytes = this.read(buffer, 0, (int) Math.min(count - skipped, buffer.length));
+            skipped += Math.max(bytes, 0);
+        }
+
+        return skipped;
+    }
+
+    /**
+     * Marking is not supported because reset would falsify the size.
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * @return The number of bytes read so far.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Determines the MIME type based on the leading bytes of the data read so far.
+     *
+     * @return The MIME type; null, if the data are no image of a known format.
+     */
+    public String getMimeType() {
+        return detectMimeType(this.header, (int) Math.min(this.size, HEADER_LENGTH));
+    }
+
+    /**
+     * Determines the MIME type of image data based on their leading bytes.
+     *
+     * @param data   The image data or at least their leading bytes.
+     * @param length The number of valid bytes at the beginning of the given array.
+     * @return The MIME type; null, if the data are no image of a known format.
+     */
+    public static String detectMimeType(final byte[] data, final int length) {
+        if (startsWith(data, length, 0, PNG_SIGNATURE)) {
+            return "image/png";
+        } else if (startsWith(data, length, 0, JPEG_SIGNATURE)) {
+            return "image/jpeg";
+        } else if (startsWith(data, length, 0, GIF_SIGNATURE)) {
+            return "image/gif";
+        } else if (startsWith(data, length, 0, RIFF_SIGNATURE)
+                && startsWith(data, length, RIFF_FORMAT_OFFSET, WEBP_SIGNATURE)) {
+            return "image/webp";
+        } else if (startsWith(data, length, 0, BMP_SIGNATURE)) {
+            return "image/bmp";
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if the leading bytes contain the given signature at the given position.
+     *
+     * @param data      The leading bytes.
+     * @param length    The number of valid leading bytes.
+     * @param position  The position of the signature.
+     * @param signature The signature.
+     * @return true, if the signature is found at the position; false otherwise.
+     */
+    private static boolean startsWith(final byte[] data, final int length, final int position,
+            final byte[] signature) {
+        if (length < position + signature.length) {
+            return false;
+        }
+
+        return Arrays.equals(data, position, position + signature.length, signature, 0, signature.length);
+    }
+}
@@ -0,0 +1,27 @@
+package backend.dao.image;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Data that have been written to a temporary location of an image store but are not part of the store yet. The data
+ * become visible to readers of the store by {@link #commit()}. Closing discards the data, unless they have been
+ * committed.
+ *
+ * @author Michael
+ */
+public interface StagedContent extends Closeable {
+    /**
+     * Provides the hash of the data.
+     *
+     * @return The SHA-256 hash of the data as hexadecimal string.
+     */
+    String getHash();
+
+    /**
+     * Moves the data to their final location in the store. Nothing is moved, if data with the same hash already exist.
+     *
+     * @throws IOException In case the data could not be moved.
+     */
+    void commit() throws IOException;
+}
@@ -0,0 +1,6 @@
+/**
+ * This module stores the binary data of images outside of the database, addressed by the hash of the data.
+ *
+ * @author Michael
+ */
+package backend.dao.image;
@@ -0,0 +1,128 @@
+package backend.dao.pool;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the time needed to acquire a connection from the pool in a fixed set of buckets.
+ *
+ * @author Michael
+ */
+public class AcquireLatencyHistogram {
+    /**
+     * The upper bounds in milliseconds of each bucket. The last bucket takes all values exceeding the last bound.
+     */
+    private static final long[] BUCKET_BOUNDS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 5000};
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /**
+     * The number of recorded values per bucket.
+     */
+    private final AtomicLongArray buckets;
+
+    /**
+     * The number of recorded values.
+     */
+    private final AtomicLong count;
+
+    /**
+     * The sum of all recorded values in nanoseconds.
+     */
+    private final AtomicLong totalNanos;
+
+    /**
+     * The maximum recorded value in nanoseconds.
+     */
+    private final AtomicLong maxNanos;
+
+    /**
+     * Initializes the histogram.
+     */
+    public AcquireLatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+        this.count = new AtomicLong();
+        this.totalNanos = new AtomicLong();
+        this.maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Records the given latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(final long nanos) {
+        long millis = nanos / NANOS_PER_MILLI;
+        int bucketIndex = BUCKET_BOUNDS.length;
+
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            if (millis < BUCKET_BOUNDS[i]) {
+                bucketIndex = i;
+                break;
+            }
+        }
+
+        this.buckets.incrementAndGet(bucketIndex);
+        this.count.incrementAndGet();
+        this.totalNanos.addAndGet(nanos);
+        this.maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Provides the upper bounds of the buckets in milliseconds.
+     *
+     * @return The upper bounds of the buckets.
+     */
+    public static long[] getBucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * Provides a copy of the current bucket counts.
+     *
+     * @return The number of recorded values per bucket.
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[this.buckets.length()];
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.buckets.get(i);
+        }
+
+        return counts;
+    }
+
+    /**
+     * @return the count
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Provides the mean latency in milliseconds.
+     *
+     * @return The mean latency in milliseconds.
+     */
+    public double getMeanMillis() {
+        long currentCount = this.count.get();
+
+        if (currentCount == 0) {
+            return 0;
+        }
+
+        return (double) this.totalNanos.get() / currentCount / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Provides the maximum latency in milliseconds.
+     *
+     * @return The maximum latency in milliseconds.
+     */
+    public double getMaxMillis() {
+        return (double) this.maxNanos.get() / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,364 @@
+package backend.dao.pool;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A pool of physical JDBC connections. The number of connections is limited by the maximum pool size. Callers that
+ * request a connection while all connections are in use wait until a connection is returned or the acquire timeout
+ * elapses.
+ *
+ * @author Michael
+ */
+public class ConnectionPool {
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(ConnectionPool.class);
+
+    /**
+     * Access to localized application resources.
+     */
+    private ResourceBundle resources = ResourceBundle.getBundle("backend");
+
+    /**
+     * The configuration of the pool.
+     */
+    private final ConnectionPoolConfiguration configuration;
+
+    /**
+     * The JDBC URL of the database.
+     */
+    private final String url;
+
+    /**
+     * The properties (user, password) used to open physical connections.
+     */
+    private final Properties connectionProperties;
+
+    /**
+     * The connections currently not borrowed. Connections are borrowed and returned at the head (LIFO), so that
+     * connections at the tail become idle and are evicted.
+     */
+    private final LinkedBlockingDeque<PooledConnection> idleConnections;
+
+    /**
+     * The connections currently borrowed.
+     */
+    private final Set<PooledConnection> activeConnections;
+
+    /**
+     * Permits limiting the number of connections to the maximum pool size.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The number of threads waiting for a connection.
+     */
+    private final AtomicInteger waitingThreads;
+
+    /**
+     * The number of successful acquisitions.
+     */
+    private final AtomicLong acquireCount;
+
+    /**
+     * The number of acquisitions that failed because of a timeout.
+     */
+    private final AtomicLong acquireTimeoutCount;
+
+    /**
+     * The number of statements served from the statement cache.
+     */
+    private final AtomicLong statementCacheHits;
+
+    /**
+     * The number of statements that had to be prepared.
+     */
+    private final AtomicLong statementCacheMisses;
+
+    /**
+     * The number of evicted idle connections.
+     */
+    private final AtomicLong evictedConnections;
+
+    /**
+     * The number of connections reported as possible leak.
+     */
+    private final AtomicLong leakSuspicions;
+
+    /**
+     * The time needed to acquire a connection.
+     */
+    private final AcquireLatencyHistogram acquireLatency;
+
+    /**
+     * Executes the periodic eviction of idle connections and the leak detection.
+     */
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * Indicates if the pool has been shut down.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Initializes the pool and opens the minimum number of connections.
+     *
+     * @param configuration        The configuration of the pool.
+     * @param url                  The JDBC URL of the database.
+     * @param connectionProperties The properties (user, password) used to open physical connections.
+     * @throws SQLException In case the initial connections could not be opened.
+     */
+    public ConnectionPool(final ConnectionPoolConfiguration configuration, final String url,
+            final Properties connectionProperties) throws SQLException {
+        this.configuration = configuration;
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.idleConnections = new LinkedBlockingDeque<PooledConnection>();
+        this.activeConnections = ConcurrentHashMap.newKeySet();
+        this.permits = new Semaphore(configuration.getMaxSize(), true);
+        this.waitingThreads = new AtomicInteger();
+        this.acquireCount = new AtomicLong();
+        this.acquireTimeoutCount = new AtomicLong();
+        this.statementCacheHits = new AtomicLong();
+        this.statementCacheMisses = new AtomicLong();
+        this.evictedConnections = new AtomicLong();
+        this.leakSuspicions = new AtomicLong();
+        this.acquireLatency = new AcquireLatencyHistogram();
+
+        for (int i = 0; i < configuration.getMinSize(); i++) {
+            this.idleConnections.offerLast(this.openConnection());
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::performHousekeeping, configuration.getEvictionInterval(),
+                configuration.getEvictionInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Provides a connection of the pool. The connection has to be closed by the caller in order to return it to the
+     * pool.
+     *
+     * @return A connection.
+     * @throws SQLException In case no connection could be acquired within the acquire timeout.
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        boolean permitAcquired;
+        PooledConnection pooledConnection;
+
+        if (this.closed) {
+            throw new SQLException("The connection pool has been closed.");
+        }
+
+        this.waitingThreads.incrementAndGet();
+        try {
+            permitAcquired = this.permits.tryAcquire(this.configuration.getAcquireTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(exception);
+        } finally {
+            this.waitingThreads.decrementAndGet();
+        }
+
+        if (!permitAcquired) {
+            this.acquireTimeoutCount.incrementAndGet();
+            throw new SQLException(MessageFormat.format(this.resources.getString("connectionPool.acquireTimeout"),
+                    this.configuration.getAcquireTimeout()));
+        }
+
+        try {
+            pooledConnection = this.takeValidConnection();
+        } catch (SQLException | RuntimeException exception) {
+            this.permits.release();
+            throw exception;
+        }
+
+        this.activeConnections.add(pooledConnection);
+        this.acquireCount.incrementAndGet();
+        this.acquireLatency.record(System.nanoTime() - start);
+
+        return pooledConnection.borrow(this.configuration.getLeakDetectionThreshold() > 0);
+    }
+
+    /**
+     * Takes a valid idle connection or opens a new one, if no idle connection is available.
+     *
+     * @return A valid connection.
+     * @throws SQLException In case a new connection could not be opened.
+     */
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection pooledConnection = this.idleConnections.pollFirst();
+
+        while (pooledConnection != null) {
+            if (!this.configuration.isValidateOnBorrow()
+                    || pooledConnection.isValid(this.configuration.getValidationTimeout())) {
+                return pooledConnection;
+            }
+
+            pooledConnection.closePhysically();
+            pooledConnection = this.idleConnections.pollFirst();
+        }
+
+        return this.openConnection();
+    }
+
+    /**
+     * Returns a borrowed connection to the pool.
+     *
+     * @param pooledConnection The connection to be returned.
+     */
+    void release(final PooledConnection pooledConnection) {
+        if (!this.activeConnections.remove(pooledConnection)) {
+            return;
+        }
+
+        // A connection whose state could not be reset is not handed out again.
+        if (!pooledConnection.reset() || this.closed) {
+            pooledConnection.closePhysically();
+        } else {
+            this.idleConnections.offerFirst(pooledConnection);
+        }
+
+        this.permits.release();
+    }
+
+    /**
+     * Opens a new physical connection.
+     *
+     * @return The new connection.
+     * @throws SQLException In case the connection could not be opened.
+     */
+    private PooledConnection openConnection() throws SQLException {
+        Connection physicalConnection = DriverManager.getConnection(this.url, this.connectionProperties);
+
+        try {
+            return new PooledConnection(this, physicalConnection, this.configuration.getStatementCacheSize());
+        } catch (SQLException exception) {
+            physicalConnection.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Evicts connections that have been idle longer than the idle timeout as long as the minimum pool size is kept
+     * and reports connections that have been borrowed longer than the leak detection threshold.
+     */
+    private void performHousekeeping() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = this.idleConnections.descendingIterator();
+
+        try {
+            while (iterator.hasNext() && this.idleConnections.size() > this.configuration.getMinSize()) {
+                PooledConnection pooledConnection = iterator.next();
+
+                if (now - pooledConnection.getLastReturned() > this.configuration.getIdleTimeout()
+                        && this.idleConnections.remove(pooledConnection)) {
+                    pooledConnection.closePhysically();
+                    this.evictedConnections.incrementAndGet();
+                }
+            }
+
+            if (this.configuration.getLeakDetectionThreshold() > 0) {
+                this.detectLeaks(now);
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.error(exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Reports connections that have been borrowed longer than the leak detection threshold.
+     *
+     * @param now The current time in milliseconds.
+     */
+    private void detectLeaks(final long now) {
+        for (PooledConnection pooledConnection : this.activeConnections) {
+            if (!pooledConnection.isLeakReported()
+                    && now - pooledConnection.getLastBorrowed() > this.configuration.getLeakDetectionThreshold()) {
+                pooledConnection.setLeakReported(true);
+                this.leakSuspicions.incrementAndGet();
+                LOGGER.warn(MessageFormat.format(this.resources.getString("connectionPool.leakDetected"),
+                        this.configuration.getLeakDetectionThreshold()), pooledConnection.getBorrowStack());
+            }
+        }
+    }
+
+    /**
+     * Records that a statement has been served from the statement cache.
+     */
+    void recordStatementCacheHit() {
+        this.statementCacheHits.incrementAndGet();
+    }
+
+    /**
+     * Records that a statement had to be prepared.
+     */
+    void recordStatementCacheMiss() {
+        this.statementCacheMisses.incrementAndGet();
+    }
+
+    /**
+     * Provides a snapshot of the current state and the statistics of the pool.
+     *
+     * @return The pool metrics.
+     */
+    public ConnectionPoolMetrics getMetrics() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+
+        metrics.setActiveConnections(this.activeConnections.size());
+        metrics.setIdleConnections(this.idleConnections.size());
+        metrics.setWaitingThreads(this.waitingThreads.get());
+        metrics.setMaxConnections(this.configuration.getMaxSize());
+        metrics.setAcquireCount(this.acquireCount.get());
+        metrics.setAcquireTimeoutCount(this.acquireTimeoutCount.get());
+        metrics.setAcquireMeanMillis(this.acquireLatency.getMeanMillis());
+        metrics.setAcquireMaxMillis(this.acquireLatency.getMaxMillis());
+        metrics.setAcquireLatencyBucketBounds(AcquireLatencyHistogram.getBucketBounds());
+        metrics.setAcquireLatencyBucketCounts(this.acquireLatency.getBucketCounts());
+        metrics.setStatementCacheHits(this.statementCacheHits.get());
+        metrics.setStatementCacheMisses(this.statementCacheMisses.get());
+        metrics.setEvictedConnections(this.evictedConnections.get());
+        metrics.setLeakSuspicions(this.leakSuspicions.get());
+
+        return metrics;
+    }
+
+    /**
+     * Shuts the pool down. Idle connections are closed immediately, borrowed connections when they are returned.
+     */
+    public void close() {
+        PooledConnection pooledConnection;
+
+        this.closed = true;
+        this.housekeeper.shutdownNow();
+
+        pooledConnection = this.idleConnections.pollFirst();
+        while (pooledConnection != null) {
+            pooledConnection.closePhysically();
+            pooledConnection = this.idleConnections.pollFirst();
+        }
+    }
+}
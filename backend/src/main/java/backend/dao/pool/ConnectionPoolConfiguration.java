@@ -0,0 +1,268 @@
+package backend.dao.pool;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.Properties;
+import java.util.ResourceBundle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The configuration of the connection pool. The configuration is read from a properties file that either is located
+ * at the path given by the system property {@value #CONFIGURATION_PATH_PROPERTY} or on the classpath.
+ *
+ * @author Michael
+ */
+public class ConnectionPoolConfiguration {
+    /**
+     * The system property that defines the path to an external configuration file.
+     */
+    public static final String CONFIGURATION_PATH_PROPERTY = "erp.connectionPool.configuration";
+
+    /**
+     * The name of the configuration file on the classpath.
+     */
+    public static final String DEFAULT_CONFIGURATION_FILE = "connectionPool.properties";
+
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(ConnectionPoolConfiguration.class);
+
+    /**
+     * The default minimum pool size.
+     */
+    private static final int DEFAULT_MIN_SIZE = 2;
+
+    /**
+     * The default maximum pool size.
+     */
+    private static final int DEFAULT_MAX_SIZE = 10;
+
+    /**
+     * The default acquire timeout in milliseconds.
+     */
+    private static final long DEFAULT_ACQUIRE_TIMEOUT = 30000;
+
+    /**
+     * The default validation timeout in seconds.
+     */
+    private static final int DEFAULT_VALIDATION_TIMEOUT = 5;
+
+    /**
+     * The default size of the statement cache.
+     */
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;
+
+    /**
+     * The default idle timeout in milliseconds.
+     */
+    private static final long DEFAULT_IDLE_TIMEOUT = 600000;
+
+    /**
+     * The default eviction interval in milliseconds.
+     */
+    private static final long DEFAULT_EVICTION_INTERVAL = 60000;
+
+    /**
+     * The minimum number of connections the pool holds.
+     */
+    private int minSize = DEFAULT_MIN_SIZE;
+
+    /**
+     * The maximum number of connections the pool holds.
+     */
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * The maximum time in milliseconds a caller waits for a connection.
+     */
+    private long acquireTimeout = DEFAULT_ACQUIRE_TIMEOUT;
+
+    /**
+     * Indicates if a connection is validated before it is handed out.
+     */
+    private boolean validateOnBorrow = true;
+
+    /**
+     * The time in seconds a connection validation may take.
+     */
+    private int validationTimeout = DEFAULT_VALIDATION_TIMEOUT;
+
+    /**
+     * The maximum number of prepared statements cached per connection. 0 disables statement caching.
+     */
+    private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+
+    /**
+     * The time in milliseconds after which an idle connection exceeding the minimum pool size is closed.
+     */
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    /**
+     * The interval in milliseconds in which idle connections are evicted and leaks are detected.
+     */
+    private long evictionInterval = DEFAULT_EVICTION_INTERVAL;
+
+    /**
+     * The time in milliseconds after which a borrowed connection is reported as possible leak. 0 disables detection.
+     */
+    private long leakDetectionThreshold = 0;
+
+    /**
+     * Default constructor using the default values.
+     */
+    public ConnectionPoolConfiguration() {
+    }
+
+    /**
+     * Initializes the configuration based on the given properties. Missing properties use the default value.
+     *
+     * @param properties The properties.
+     */
+    public ConnectionPoolConfiguration(final Properties properties) {
+        this.minSize = Integer.parseInt(properties.getProperty("pool.minSize", String.valueOf(this.minSize)).trim());
+        this.maxSize = Integer.parseInt(properties.getProperty("pool.maxSize", String.valueOf(this.maxSize)).trim());
+        this.acquireTimeout = Long
+                .parseLong(properties.getProperty("pool.acquireTimeout", String.valueOf(this.acquireTimeout)).trim());
+        this.validateOnBorrow = Boolean.parseBoolean(
+                properties.getProperty("pool.validateOnBorrow", String.valueOf(this.validateOnBorrow)).trim());
+        this.validationTimeout = Integer.parseInt(
+                properties.getProperty("pool.validationTimeout", String.valueOf(this.validationTimeout)).trim());
+        this.statementCacheSize = Integer.parseInt(
+                properties.getProperty("pool.statementCacheSize", String.valueOf(this.statementCacheSize)).trim());
+        this.idleTimeout = Long
+                .parseLong(properties.getProperty("pool.idleTimeout", String.valueOf(this.idleTimeout)).trim());
+        this.evictionInterval = Long.parseLong(
+                properties.getProperty("pool.evictionInterval", String.valueOf(this.evictionInterval)).trim());
+        this.leakDetectionThreshold = Long.parseLong(properties
+                .getProperty("pool.leakDetectionThreshold", String.valueOf(this.leakDetectionThreshold)).trim());
+
+        this.validate();
+    }
+
+    /**
+     * Loads the configuration. An external file defined by the system property {@value #CONFIGURATION_PATH_PROPERTY}
+     * takes precedence over the given file on the classpath.
+     *
+     * @param classpathResource The name of the configuration file on the classpath.
+     * @return The configuration.
+     * @throws IOException In case the configuration file could not be read.
+     */
+    public static ConnectionPoolConfiguration load(final String classpathResource) throws IOException {
+        ResourceBundle resources = ResourceBundle.getBundle("backend");
+        Properties properties = new Properties();
+        String externalPath = System.getProperty(CONFIGURATION_PATH_PROPERTY);
+
+        if (externalPath != null && Files.isReadable(Paths.get(externalPath))) {
+            Path path = Paths.get(externalPath);
+
+            try (InputStream inputStream = new FileInputStream(path.toFile())) {
+                properties.load(inputStream);
+            }
+
+            return new ConnectionPoolConfiguration(properties);
+        }
+
+        try (InputStream inputStream = ConnectionPoolConfiguration.class.getClassLoader()
+                .getResourceAsStream(classpathResource)) {
+            if (inputStream == null) {
+                LOGGER.warn(MessageFormat.format(resources.getString("connectionPool.configurationNotFound"),
+                        classpathResource));
+                return new ConnectionPoolConfiguration();
+            }
+
+            properties.load(inputStream);
+        }
+
+        return new ConnectionPoolConfiguration(properties);
+    }
+
+    /**
+     * Validates the configuration.
+     *
+     * @throws IllegalArgumentException In case the configured values are inconsistent.
+     */
+    private void validate() throws IllegalArgumentException {
+        if (this.maxSize < 1) {
+            throw new IllegalArgumentException("pool.maxSize has to be at least 1.");
+        }
+
+        if (this.minSize < 0 || this.minSize > this.maxSize) {
+            throw new IllegalArgumentException("pool.minSize has to be between 0 and pool.maxSize.");
+        }
+
+        if (this.statementCacheSize < 0) {
+            throw new IllegalArgumentException("pool.statementCacheSize must not be negative.");
+        }
+    }
+
+    /**
+     * @return the minSize
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * @return the maxSize
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the acquireTimeout
+     */
+    public long getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    /**
+     * @return the validateOnBorrow
+     */
+    public boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    /**
+     * @return the validationTimeout
+     */
+    public int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    /**
+     * @return the statementCacheSize
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * @return the idleTimeout
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * @return the evictionInterval
+     */
+    public long getEvictionInterval() {
+        return evictionInterval;
+    }
+
+    /**
+     * @return the leakDetectionThreshold
+     */
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+}
@@ -0,0 +1,274 @@
+package backend.dao.pool;
+
+/**
+ * A snapshot of the state and the statistics of the connection pool.
+ *
+ * @author Michael
+ */
+public class ConnectionPoolMetrics {
+    /**
+     * The number of connections currently borrowed.
+     */
+    private int activeConnections;
+
+    /**
+     * The number of connections currently idle in the pool.
+     */
+    private int idleConnections;
+
+    /**
+     * The number of threads currently waiting for a connection.
+     */
+    private int waitingThreads;
+
+    /**
+     * The maximum number of connections of the pool.
+     */
+    private int maxConnections;
+
+    /**
+     * The total number of successful connection acquisitions.
+     */
+    private long acquireCount;
+
+    /**
+     * The total number of acquisitions that failed because of a timeout.
+     */
+    private long acquireTimeoutCount;
+
+    /**
+     * The mean time in milliseconds needed to acquire a connection.
+     */
+    private double acquireMeanMillis;
+
+    /**
+     * The maximum time in milliseconds needed to acquire a connection.
+     */
+    private double acquireMaxMillis;
+
+    /**
+     * The upper bounds in milliseconds of the acquire latency buckets.
+     */
+    private long[] acquireLatencyBucketBounds;
+
+    /**
+     * The number of acquisitions per latency bucket. The last bucket counts all values exceeding the last bound.
+     */
+    private long[] acquireLatencyBucketCounts;
+
+    /**
+     * The number of prepared statements served from the statement cache.
+     */
+    private long statementCacheHits;
+
+    /**
+     * The number of prepared statements that had to be created.
+     */
+    private long statementCacheMisses;
+
+    /**
+     * The number of idle connections that have been evicted.
+     */
+    private long evictedConnections;
+
+    /**
+     * The number of borrowed connections that have been reported as possible leak.
+     */
+    private long leakSuspicions;
+
+    /**
+     * @return the activeConnections
+     */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    /**
+     * @param activeConnections the activeConnections to set
+     */
+    public void setActiveConnections(final int activeConnections) {
+        this.activeConnections = activeConnections;
+    }
+
+    /**
+     * @return the idleConnections
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * @param idleConnections the idleConnections to set
+     */
+    public void setIdleConnections(final int idleConnections) {
+        this.idleConnections = idleConnections;
+    }
+
+    /**
+     * @return the waitingThreads
+     */
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    /**
+     * @param waitingThreads the waitingThreads to set
+     */
+    public void setWaitingThreads(final int waitingThreads) {
+        this.waitingThreads = waitingThreads;
+    }
+
+    /**
+     * @return the maxConnections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @param maxConnections the maxConnections to set
+     */
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return the acquireCount
+     */
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    /**
+     * @param acquireCount the acquireCount to set
+     */
+    public void setAcquireCount(final long acquireCount) {
+        this.acquireCount = acquireCount;
+    }
+
+    /**
+     * @return the acquireTimeoutCount
+     */
+    public long getAcquireTimeoutCount() {
+        return acquireTimeoutCount;
+    }
+
+    /**
+     * @param acquireTimeoutCount the acquireTimeoutCount to set
+     */
+    public void setAcquireTimeoutCount(final long acquireTimeoutCount) {
+        this.acquireTimeoutCount = acquireTimeoutCount;
+    }
+
+    /**
+     * @return the acquireMeanMillis
+     */
+    public double getAcquireMeanMillis() {
+        return acquireMeanMillis;
+    }
+
+    /**
+     * @param acquireMeanMillis the acquireMeanMillis to set
+     */
+    public void setAcquireMeanMillis(final double acquireMeanMillis) {
+        this.acquireMeanMillis = acquireMeanMillis;
+    }
+
+    /**
+     * @return the acquireMaxMillis
+     */
+    public double getAcquireMaxMillis() {
+        return acquireMaxMillis;
+    }
+
+    /**
+     * @param acquireMaxMillis the acquireMaxMillis to set
+     */
+    public void setAcquireMaxMillis(final double acquireMaxMillis) {
+        this.acquireMaxMillis = acquireMaxMillis;
+    }
+
+    /**
+     * @return the acquireLatencyBucketBounds
+     */
+    public long[] getAcquireLatencyBucketBounds() {
+        return acquireLatencyBucketBounds;
+    }
+
+    /**
+     * @param acquireLatencyBucketBounds the acquireLatencyBucketBounds to set
+     */
+    public void setAcquireLatencyBucketBounds(final long[] acquireLatencyBucketBounds) {
+        this.acquireLatencyBucketBounds = acquireLatencyBucketBounds;
+    }
+
+    /**
+     * @return the acquireLatencyBucketCounts
+     */
+    public long[] getAcquireLatencyBucketCounts() {
+        return acquireLatencyBucketCounts;
+    }
+
+    /**
+     * @param acquireLatencyBucketCounts the acquireLatencyBucketCounts to set
+     */
+    public void setAcquireLatencyBucketCounts(final long[] acquireLatencyBucketCounts) {
+        this.acquireLatencyBucketCounts = acquireLatencyBucketCounts;
+    }
+
+    /**
+     * @return the statementCacheHits
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /**
+     * @param statementCacheHits the statementCacheHits to set
+     */
+    public void setStatementCacheHits(final long statementCacheHits) {
+        this.statementCacheHits = statementCacheHits;
+    }
+
+    /**
+     * @return the statementCacheMisses
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    /**
+     * @param statementCacheMisses the statementCacheMisses to set
+     */
+    public void setStatementCacheMisses(final long statementCacheMisses) {
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    /**
+     * @return the evictedConnections
+     */
+    public long getEvictedConnections() {
+        return evictedConnections;
+    }
+
+    /**
+     * @param evictedConnections the evictedConnections to set
+     */
+    public void setEvictedConnections(final long evictedConnections) {
+        this.evictedConnections = evictedConnections;
+    }
+
+    /**
+     * @return the leakSuspicions
+     */
+    public long getLeakSuspicions() {
+        return leakSuspicions;
+    }
+
+    /**
+     * @param leakSuspicions the leakSuspicions to set
+     */
+    public void setLeakSuspicions(final long leakSuspicions) {
+        this.leakSuspicions = leakSuspicions;
+    }
+}
@@ -0,0 +1,533 @@
+package backend.dao.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A physical database connection managed by the pool. The connection is handed out as proxy whose close() method
+ * returns the connection to the pool instead of closing it. Prepared statements are cached per connection.
+ *
+ * @author Michael
+ */
+class PooledConnection implements InvocationHandler {
+    /**
+     * The initial capacity of the statement cache.
+     */
+    private static final int INITIAL_CACHE_CAPACITY = 16;
+
+    /**
+     * The load factor of the statement cache.
+     */
+    private static final float CACHE_LOAD_FACTOR = 0.75f;
+
+    /**
+     * The pool the connection belongs to.
+     */
+    private final ConnectionPool pool;
+
+    /**
+     * The physical connection.
+     */
+    private final Connection physicalConnection;
+
+    /**
+     * The proxy that is handed out to the callers of the pool.
+     */
+    private final Connection proxy;
+
+    /**
+     * The cached prepared statements in access order.
+     */
+    private final LinkedHashMap<String, CachedStatement> statementCache;
+
+    /**
+     * The maximum number of cached statements.
+     */
+    private final int statementCacheSize;
+
+    /**
+     * The auto-commit mode of the physical connection when it has been opened.
+     */
+    private final boolean initialAutoCommit;
+
+    /**
+     * The read-only mode of the physical connection when it has been opened.
+     */
+    private final boolean initialReadOnly;
+
+    /**
+     * The transaction isolation level of the physical connection when it has been opened.
+     */
+    private final int initialTransactionIsolation;
+
+    /**
+     * The catalog of the physical connection when it has been opened.
+     */
+    private final String initialCatalog;
+
+    /**
+     * Indicates if the connection has been returned to the pool by the current borrower.
+     */
+    private volatile boolean logicallyClosed;
+
+    /**
+     * The point in time (System.currentTimeMillis) the connection has been returned to the pool the last time.
+     */
+    private volatile long lastReturned;
+
+    /**
+     * The point in time (System.currentTimeMillis) the connection has been borrowed the last time.
+     */
+    private volatile long lastBorrowed;
+
+    /**
+     * The stack of the thread that borrowed the connection. Only recorded if leak detection is active.
+     */
+    private volatile Throwable borrowStack;
+
+    /**
+     * Indicates if the connection has already been reported as possible leak during the current borrowing.
+     */
+    private volatile boolean leakReported;
+
+    /**
+     * Initializes the pooled connection.
+     *
+     * @param pool               The pool the connection belongs to.
+     * @param physicalConnection The physical connection.
+     * @param statementCacheSize The maximum number of cached statements.
+     * @throws SQLException In case the initial state of the physical connection could not be read.
+     */
+    PooledConnection(final ConnectionPool pool, final Connection physicalConnection, final int statementCacheSize)
+            throws SQLException {
+        this.pool = pool;
+        this.physicalConnection = physicalConnection;
+        this.statementCacheSize = statementCacheSize;
+        this.initialAutoCommit = physicalConnection.getAutoCommit();
+        this.initialReadOnly = physicalConnection.isReadOnly();
+        this.initialTransactionIsolation = physicalConnection.getTransactionIsolation();
+        this.initialCatalog = physicalConnection.getCatalog();
+        this.statementCache = new LinkedHashMap<String, CachedStatement>(INITIAL_CACHE_CAPACITY, CACHE_LOAD_FACTOR,
+                true);
+        this.logicallyClosed = true;
+        this.lastReturned = System.currentTimeMillis();
+        this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, this);
+    }
+
+    /**
+     * Marks the connection as borrowed.
+     *
+     * @param recordStack Indicates if the stack of the borrowing thread is recorded for leak detection.
+     * @return The proxy of the connection.
+     */
+    Connection borrow(final boolean recordStack) {
+        this.logicallyClosed = false;
+        this.leakReported = false;
+        this.lastBorrowed = System.currentTimeMillis();
+        this.borrowStack = recordStack ? new Throwable("Connection borrowed here") : null;
+
+        return this.proxy;
+    }
+
+    /**
+     * Handles calls of the connection proxy. Closing returns the connection to the pool; prepared statements are
+     * served from the statement cache. All other calls are delegated to the physical connection.
+     */
+    @Override
+    public Object invoke(final Object proxyObject, final Method method, final Object[] args) throws Throwable {
+        String methodName = method.getName();
+
+        if ("close".equals(methodName)) {
+            if (!this.logicallyClosed) {
+                this.logicallyClosed = true;
+                this.pool.release(this);
+            }
+            return null;
+        }
+
+        if ("isClosed".equals(methodName)) {
+            return this.logicallyClosed || this.physicalConnection.isClosed();
+        }
+
+        if ("equals".equals(methodName)) {
+            return proxyObject == args[0];
+        }
+
+        if ("hashCode".equals(methodName)) {
+            return System.identityHashCode(proxyObject);
+        }
+
+        if ("toString".equals(methodName)) {
+            return "Pooled" + this.physicalConnection.toString();
+        }
+
+        if (this.logicallyClosed) {
+            throw new SQLException("The connection has already been returned to the pool.");
+        }
+
+        if ("prepareStatement".equals(methodName) && this.statementCacheSize > 0 && isCacheable(args)) {
+            return this.prepareCachedStatement(method, args);
+        }
+
+        try {
+            return method.invoke(this.physicalConnection, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Checks if the arguments of a prepareStatement call allow caching of the statement. Only statements defined by
+     * the SQL string and optionally result set type and concurrency are cached.
+     *
+     * @param args The arguments of the prepareStatement call.
+     * @return true, if the statement can be cached; false otherwise.
+     */
+    private static boolean isCacheable(final Object[] args) {
+        if (args.length == 1) {
+            return true;
+        }
+
+        return args.length == 3 && args[1] instanceof Integer && args[2] instanceof Integer;
+    }
+
+    /**
+     * Provides a prepared statement from the cache or prepares and caches a new one.
+     *
+     * @param method The prepareStatement method that has been called.
+     * @param args   The arguments of the call.
+     * @return A proxy of the prepared statement.
+     * @throws Throwable In case the statement could not be prepared.
+     */
+    private synchronized Object prepareCachedStatement(final Method method, final Object[] args) throws Throwable {
+        String key = args.length == 1 ? (String) args[0] : args[1] + ":" + args[2] + ":" + args[0];
+        CachedStatement cachedStatement = this.statementCache.get(key);
+        PreparedStatement statement;
+
+        if (cachedStatement != null && cachedStatement.isEvicted()) {
+            this.statementCache.remove(key);
+            cachedStatement = null;
+        }
+
+        if (cachedStatement != null && !cachedStatement.isInUse()) {
+            this.pool.recordStatementCacheHit();
+            return cachedStatement.checkOut();
+        }
+
+        try {
+            statement = (PreparedStatement) method.invoke(this.physicalConnection, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+
+        this.pool.recordStatementCacheMiss();
+
+        if (cachedStatement != null) {
+            // The same statement is currently used twice on this connection. Do not cache the second one.
+            return new CachedStatement(statement, false).checkOut();
+        }
+
+        cachedStatement = new CachedStatement(statement, true);
+        this.statementCache.put(key, cachedStatement);
+        this.evictSurplusStatements();
+
+        return cachedStatement.checkOut();
+    }
+
+    /**
+     * Closes the least recently used statements exceeding the cache size.
+     */
+    private void evictSurplusStatements() {
+        Iterator<Map.Entry<String, CachedStatement>> iterator = this.statementCache.entrySet().iterator();
+
+        while (this.statementCache.size() > this.statementCacheSize && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next().getValue();
+            iterator.remove();
+            eldest.evict();
+        }
+    }
+
+    /**
+     * Releases statements the borrower did not close and resets the connection state for the next borrower. A
+     * transaction left open by the borrower is rolled back. The auto-commit mode, read-only mode, transaction isolation
+     * and catalog are restored to the state the connection had when it was opened.
+     *
+     * @return true, if the connection has been reset; false, if the connection can not be reused.
+     */
+    synchronized boolean reset() {
+        for (CachedStatement cachedStatement : this.statementCache.values()) {
+            cachedStatement.forceCheckIn();
+        }
+
+        this.borrowStack = null;
+        this.lastReturned = System.currentTimeMillis();
+
+        try {
+            if (!this.physicalConnection.getAutoCommit()) {
+                this.physicalConnection.rollback();
+            }
+
+            if (this.physicalConnection.getAutoCommit() != this.initialAutoCommit) {
+                this.physicalConnection.setAutoCommit(this.initialAutoCommit);
+            }
+
+            if (this.physicalConnection.isReadOnly() != this.initialReadOnly) {
+                this.physicalConnection.setReadOnly(this.initialReadOnly);
+            }
+
+            if (this.physicalConnection.getTransactionIsolation() != this.initialTransactionIsolation) {
+                this.physicalConnection.setTransactionIsolation(this.initialTransactionIsolation);
+            }
+
+            if (this.initialCatalog != null && !this.initialCatalog.equals(this.physicalConnection.getCatalog())) {
+                this.physicalConnection.setCatalog(this.initialCatalog);
+            }
+
+            this.physicalConnection.clearWarnings();
+        } catch (SQLException exception) {
+            ConnectionPool.LOGGER.warn(exception.getMessage());
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates the physical connection.
+     *
+     * @param timeoutSeconds The maximum time in seconds the validation may take.
+     * @return true, if the connection is valid; false otherwise.
+     */
+    boolean isValid(final int timeoutSeconds) {
+        try {
+            return this.physicalConnection.isValid(timeoutSeconds);
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes all cached statements and the physical connection.
+     */
+    synchronized void closePhysically() {
+        for (CachedStatement cachedStatement : this.statementCache.values()) {
+            cachedStatement.evict();
+        }
+        this.statementCache.clear();
+
+        try {
+            this.physicalConnection.close();
+        } catch (SQLException exception) {
+            ConnectionPool.LOGGER.warn(exception.getMessage());
+        }
+    }
+
+    /**
+     * @return the lastReturned
+     */
+    long getLastReturned() {
+        return lastReturned;
+    }
+
+    /**
+     * @return the lastBorrowed
+     */
+    long getLastBorrowed() {
+        return lastBorrowed;
+    }
+
+    /**
+     * @return the borrowStack
+     */
+    Throwable getBorrowStack() {
+        return borrowStack;
+    }
+
+    /**
+     * @return the leakReported
+     */
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    /**
+     * @param leakReported the leakReported to set
+     */
+    void setLeakReported(final boolean leakReported) {
+        this.leakReported = leakReported;
+    }
+
+    /**
+     * @return the logicallyClosed
+     */
+    boolean isLogicallyClosed() {
+        return logicallyClosed;
+    }
+
+    /**
+     * A prepared statement that is kept open after the caller closed it in order to be reused.
+     */
+    private static final class CachedStatement implements InvocationHandler {
+        /**
+         * The physical statement.
+         */
+        private final PreparedStatement statement;
+
+        /**
+         * Indicates if the statement is held by the cache.
+         */
+        private final boolean cached;
+
+        /**
+         * The proxy that is handed out to the caller.
+         */
+        private final PreparedStatement proxy;
+
+        /**
+         * Indicates if the statement is currently used by a caller.
+         */
+        private boolean inUse;
+
+        /**
+         * Indicates if the statement has been removed from the cache.
+         */
+        private boolean evicted;
+
+        /**
+         * Initializes the cached statement.
+         *
+         * @param statement The physical statement.
+         * @param cached    Indicates if the statement is held by the cache.
+         */
+        CachedStatement(final PreparedStatement statement, final boolean cached) {
+            this.statement = statement;
+            this.cached = cached;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, this);
+        }
+
+        /**
+         * Marks the statement as used.
+         *
+         * @return The proxy of the statement.
+         */
+        synchronized PreparedStatement checkOut() {
+            this.inUse = true;
+            return this.proxy;
+        }
+
+        /**
+         * @return the inUse
+         */
+        synchronized boolean isInUse() {
+            return inUse;
+        }
+
+        /**
+         * @return the evicted
+         */
+        synchronized boolean isEvicted() {
+            return evicted;
+        }
+
+        /**
+         * Returns the statement to the cache even if the caller did not close it.
+         */
+        synchronized void forceCheckIn() {
+            if (this.inUse) {
+                this.checkIn();
+            }
+        }
+
+        /**
+         * Removes the statement from the cache. The physical statement is closed as soon as it is not used anymore.
+         */
+        synchronized void evict() {
+            this.evicted = true;
+
+            if (!this.inUse) {
+                this.closeQuietly();
+            }
+        }
+
+        /**
+         * Handles calls of the statement proxy. Closing returns the statement to the cache.
+         */
+        @Override
+        public synchronized Object invoke(final Object proxyObject, final Method method, final Object[] args)
+                throws Throwable {
+            String methodName = method.getName();
+
+            if ("close".equals(methodName)) {
+                if (this.inUse) {
+                    this.checkIn();
+                }
+                return null;
+            }
+
+            if ("isClosed".equals(methodName)) {
+                return !this.inUse || this.statement.isClosed();
+            }
+
+            if ("equals".equals(methodName)) {
+                return proxyObject == args[0];
+            }
+
+            if ("hashCode".equals(methodName)) {
+                return System.identityHashCode(proxyObject);
+            }
+
+            try {
+                return method.invoke(this.statement, args);
+            } catch (InvocationTargetException exception) {
+                throw exception.getCause();
+            }
+        }
+
+        /**
+         * Resets the statement for reuse or closes it, if it is not cached anymore.
+         */
+        private void checkIn() {
+            this.inUse = false;
+
+            if (!this.cached || this.evicted) {
+                this.closeQuietly();
+                return;
+            }
+
+            try {
+                this.statement.clearParameters();
+                this.statement.clearBatch();
+                this.statement.clearWarnings();
+                this.statement.setMaxRows(0);
+                this.statement.setQueryTimeout(0);
+                this.statement.setFetchSize(0);
+                this.statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+            } catch (SQLException exception) {
+                this.evicted = true;
+                this.closeQuietly();
+            }
+        }
+
+        /**
+         * Closes the physical statement.
+         */
+        private void closeQuietly() {
+            try {
+                this.statement.close();
+            } catch (SQLException exception) {
+                ConnectionPool.LOGGER.warn(exception.getMessage());
+            }
+        }
+    }
+}
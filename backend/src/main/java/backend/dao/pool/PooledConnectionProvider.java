@@ -0,0 +1,156 @@
+package backend.dao.pool;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+/**
+ * Provides JDBC connections of a ConnectionPool to Hibernate. The provider is activated in the persistence.xml using
+ * the property "hibernate.connection.provider_class". The database is accessed using the standard
+ * "jakarta.persistence.jdbc.*" properties; the pool itself is configured by a separate properties file.
+ *
+ * @author Michael
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+    /**
+     * The persistence property that defines the name of the pool configuration file on the classpath.
+     */
+    public static final String CONFIGURATION_FILE_PROPERTY = "backend.connectionPool.configuration";
+
+    /**
+     * Default serialVersionUID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The connection pool.
+     */
+    private transient ConnectionPool connectionPool;
+
+    /**
+     * Initializes the connection pool based on the persistence properties.
+     */
+    @Override
+    public void configure(final Map<String, Object> configurationValues) {
+        String url = getSetting(configurationValues, AvailableSettings.JAKARTA_JDBC_URL, AvailableSettings.URL);
+        String user = getSetting(configurationValues, AvailableSettings.JAKARTA_JDBC_USER, AvailableSettings.USER);
+        String password = getSetting(configurationValues, AvailableSettings.JAKARTA_JDBC_PASSWORD,
+                AvailableSettings.PASS);
+        String driver = getSetting(configurationValues, AvailableSettings.JAKARTA_JDBC_DRIVER,
+                AvailableSettings.DRIVER);
+        String configurationFile = getSetting(configurationValues, CONFIGURATION_FILE_PROPERTY,
+                CONFIGURATION_FILE_PROPERTY);
+        Properties connectionProperties = new Properties();
+
+        if (configurationFile == null) {
+            configurationFile = ConnectionPoolConfiguration.DEFAULT_CONFIGURATION_FILE;
+        }
+
+        if (user != null) {
+            connectionProperties.setProperty("user", user);
+        }
+
+        if (password != null) {
+            connectionProperties.setProperty("password", password);
+        }
+
+        try {
+            if (driver != null) {
+                Class.forName(driver);
+            }
+
+            this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.load(configurationFile), url,
+                    connectionProperties);
+        } catch (ClassNotFoundException | IOException | SQLException exception) {
+            throw new HibernateException("The connection pool could not be initialized.", exception);
+        }
+    }
+
+    /**
+     * Reads a setting using the given key or the given fallback key.
+     *
+     * @param configurationValues The configuration values.
+     * @param key                 The key of the setting.
+     * @param fallbackKey         The key used if no value is defined for the primary key.
+     * @return The value of the setting; null, if the setting is not defined.
+     */
+    private static String getSetting(final Map<String, Object> configurationValues, final String key,
+            final String fallbackKey) {
+        Object value = configurationValues.get(key);
+
+        if (value == null) {
+            value = configurationValues.get(fallbackKey);
+        }
+
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Provides a connection of the pool.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.connectionPool.getConnection();
+    }
+
+    /**
+     * Returns the given connection to the pool.
+     */
+    @Override
+    public void closeConnection(final Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Aggressive release of connections is not supported.
+     */
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    /**
+     * Checks if the provider can be unwrapped as the given type.
+     */
+    @Override
+    public boolean isUnwrappableAs(final Class<?> unwrapType) {
+        return ConnectionProvider.class.equals(unwrapType) || PooledConnectionProvider.class.equals(unwrapType)
+                || ConnectionPool.class.equals(unwrapType);
+    }
+
+    /**
+     * Unwraps the provider or the underlying connection pool.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(final Class<T> unwrapType) {
+        if (ConnectionPool.class.equals(unwrapType)) {
+            return (T) this.connectionPool;
+        }
+
+        if (this.isUnwrappableAs(unwrapType)) {
+            return (T) this;
+        }
+
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    /**
+     * Closes the connection pool.
+     */
+    @Override
+    public void stop() {
+        if (this.connectionPool != null) {
+            this.connectionPool.close();
+        }
+    }
+}
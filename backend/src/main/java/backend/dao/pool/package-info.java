@@ -0,0 +1,6 @@
+/**
+ * This module provides pooling of physical database connections that are used by the persistence layer.
+ *
+ * @author Michael
+ */
+package backend.dao.pool;
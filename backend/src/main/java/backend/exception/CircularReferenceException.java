@@ -0,0 +1,41 @@
+package backend.exception;
+
+/**
+ * Exception that indicates that an object would reference itself directly or indirectly.
+ *
+ * @author Michael
+ */
+public class CircularReferenceException extends Exception {
+    /**
+     * Serialization ID.
+     */
+    private static final long serialVersionUID = -6348102957214406813L;
+
+    /**
+     * The identifier of the object that would reference itself.
+     */
+    private Integer id;
+
+    /**
+     * Constructor.
+     *
+     * @param id The identifier of the object that would reference itself.
+     */
+    public CircularReferenceException(final Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the id
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id to set
+     */
+    public void setId(final Integer id) {
+        this.id = id;
+    }
+}
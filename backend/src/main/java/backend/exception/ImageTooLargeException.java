@@ -0,0 +1,44 @@
+package backend.exception;
+
+import java.io.IOException;
+
+/**
+ * Exception that indicates that the data of an image exceed the maximum size. The exception is an IOException because
+ * it aborts reading the image data from a stream.
+ *
+ * @author Michael
+ */
+public class ImageTooLargeException extends IOException {
+    /**
+     * Serialization ID.
+     */
+    private static final long serialVersionUID = 4826209547336891350L;
+
+    /**
+     * The maximum size of image data in bytes.
+     */
+    private long maxSize;
+
+    /**
+     * Default constructor.
+     *
+     * @param maxSize The maximum size of image data in bytes.
+     */
+    public ImageTooLargeException(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the maxSize
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param maxSize the maxSize to set
+     */
+    public void setMaxSize(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+}
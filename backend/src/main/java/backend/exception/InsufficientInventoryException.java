@@ -0,0 +1,43 @@
+package backend.exception;
+
+import backend.model.material.Material;
+
+/**
+ * Exception that indicates that the inventory of a material is less than the quantity to be removed.
+ *
+ * @author Michael
+ */
+public class InsufficientInventoryException extends Exception {
+    /**
+     * Serialization ID.
+     */
+    private static final long serialVersionUID = -3106247651844317532L;
+
+    /**
+     * The material whose inventory is insufficient.
+     */
+    private Material material;
+
+    /**
+     * Default constructor.
+     *
+     * @param material The material whose inventory is insufficient.
+     */
+    public InsufficientInventoryException(final Material material) {
+        this.material = material;
+    }
+
+    /**
+     * @return the material
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * @param material the material to set
+     */
+    public void setMaterial(final Material material) {
+        this.material = material;
+    }
+}
@@ -0,0 +1,20 @@
+package backend.exception;
+
+/**
+ * Exception that indicates that an object has been changed by someone else since it has been read.
+ *
+ * @author Michael
+ */
+public class ObjectOutdatedException extends Exception {
+    /**
+     * Serialization ID.
+     */
+    private static final long serialVersionUID = 4417264851236870215L;
+
+    /**
+     * Default constructor.
+     */
+    public ObjectOutdatedException() {
+
+    }
+}
@@ -0,0 +1,51 @@
+package backend.exception;
+
+import backend.model.salesOrder.SalesOrderItem;
+
+/**
+ * Exception that indicates that the ordered quantity exceeds the quantity of the material that is available at the
+ * requested delivery date.
+ *
+ * @author Michael
+ */
+public class QuantityExceedsAvailabilityException extends Exception {
+    /**
+     * Serialization ID.
+     */
+    private static final long serialVersionUID = -2284650151328407163L;
+
+    /**
+     * The sales order item where the quantity exceeds the available quantity.
+     */
+    private SalesOrderItem salesOrderItem;
+
+    /**
+     * The quantity of the material that is available at the requested delivery date.
+     */
+    private long availableQuantity;
+
+    /**
+     * Default-Constructor.
+     *
+     * @param salesOrderItem    The sales order item where the quantity exceeds the available quantity.
+     * @param availableQuantity The quantity of the material that is available at the requested delivery date.
+     */
+    public QuantityExceedsAvailabilityException(final SalesOrderItem salesOrderItem, final long availableQuantity) {
+        this.salesOrderItem = salesOrderItem;
+        this.availableQuantity = availableQuantity;
+    }
+
+    /**
+     * @return the salesOrderItem
+     */
+    public SalesOrderItem getSalesOrderItem() {
+        return salesOrderItem;
+    }
+
+    /**
+     * @return the availableQuantity
+     */
+    public long getAvailableQuantity() {
+        return availableQuantity;
+    }
+}
@@ -0,0 +1,28 @@
+package backend.model;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Generates IDs using a database sequence whose values are allocated in blocks. The size of the blocks is defined by
+ * the {@link SequenceConfiguration} and therefore can be changed without building the application again.
+ *
+ * @author Michael
+ */
+public class BlockSequenceGenerator extends SequenceStyleGenerator {
+    /**
+     * Configures the generator with the allocation size of the sequence configuration.
+     */
+    @Override
+    public void configure(final Type type, final Properties parameters, final ServiceRegistry serviceRegistry)
+            throws MappingException {
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(SequenceConfiguration.getAllocationSize()));
+        parameters.putIfAbsent(INITIAL_PARAM, "1");
+
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
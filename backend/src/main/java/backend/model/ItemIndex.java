@@ -0,0 +1,348 @@
+package backend.model;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An index of the items of an order or bill of material by their ID. The index and the price total of the items are
+ * determined once and reused until the items change.
+ *
+ * The owner of the items invalidates the index if an item is changed. The owner provides its items only as view
+ * created by {@link #track(Set)} or {@link #track(List)}. Each change of the items by such a view increases the
+ * modification count of the index. The index is rebuilt automatically, if the modification count has been increased,
+ * the collection of items has been replaced or its size has changed.
+ *
+ * @param <T> The type of the items.
+ * @author Michael
+ */
+public final class ItemIndex<T> {
+    /**
+     * Provides the ID of an item.
+     */
+    private final Function<T, Integer> idProvider;
+
+    /**
+     * The collection of items the index has been built for.
+     */
+    private Collection<T> indexedItems;
+
+    /**
+     * The number of items at the time the index has been built.
+     */
+    private int indexedSize;
+
+    /**
+     * The number of changes of the items made by the views of the index.
+     */
+    private int modificationCount;
+
+    /**
+     * The modification count at the time the index has been built.
+     */
+    private int indexedModificationCount;
+
+    /**
+     * The items by their ID.
+     */
+    private Map<Integer, T> itemsById;
+
+    /**
+     * The price total of all items. Null, if not determined yet.
+     */
+    private BigDecimal priceTotal;
+
+    /**
+     * Initializes the index.
+     *
+     * @param idProvider Provides the ID of an item.
+     */
+    public ItemIndex(final Function<T, Integer> idProvider) {
+        this.idProvider = idProvider;
+    }
+
+    /**
+     * Gets the item with the given ID.
+     *
+     * @param items  The items of the owner.
+     * @param itemId The ID of the item.
+     * @return The item with the given ID, if found; null otherwise. The first item is returned, if multiple items share
+     *         the ID.
+     */
+    public T getItem(final Collection<T> items, final Integer itemId) {
+        this.update(items);
+
+        return this.itemsById.get(itemId);
+    }
+
+    /**
+     * Gets the price total of all items.
+     *
+     * @param items         The items of the owner.
+     * @param priceProvider Provides the price total of an item.
+     * @return The price total of all items.
+     */
+    public BigDecimal getPriceTotal(final Collection<T> items, final Function<T, BigDecimal> priceProvider) {
+        this.update(items);
+
+        if (this.priceTotal == null) {
+            BigDecimal total = BigDecimal.valueOf(0);
+
+            for (T item : items) {
+                total = total.add(priceProvider.apply(item));
+            }
+
+            this.priceTotal = total;
+        }
+
+        return this.priceTotal;
+    }
+
+    /**
+     * Provides a view of the given items. Changes of the items by the view invalidate the index.
+     *
+     * @param items The items of the owner. Can be null.
+     * @return The view of the items. Null, if the items are null.
+     */
+    public Set<T> track(final Set<T> items) {
+        if (items == null || items instanceof ItemIndex.TrackedSet && ((TrackedSet) items).getIndex() == this) {
+            return items;
+        }
+
+        return new TrackedSet(items);
+    }
+
+    /**
+     * Provides a view of the given items. Changes of the items by the view invalidate the index.
+     *
+     * @param items The items of the owner. Can be null.
+     * @return The view of the items. Null, if the items are null.
+     */
+    public List<T> track(final List<T> items) {
+        if (items == null || items instanceof ItemIndex.TrackedList && ((TrackedList) items).getIndex() == this) {
+            return items;
+        }
+
+        return new TrackedList(items);
+    }
+
+    /**
+     * Invalidates the index. It is rebuilt when it is accessed the next time.
+     */
+    public void invalidate() {
+        this.indexedItems = null;
+        this.itemsById = null;
+        this.priceTotal = null;
+    }
+
+    /**
+     * Rebuilds the index, if it has been invalidated or does not belong to the given items anymore.
+     *
+     * @param items The items of the owner.
+     */
+    private void update(final Collection<T> items) {
+        if (this.itemsById != null && this.indexedItems == items && this.indexedSize == items.size()
+                && this.indexedModificationCount == this.modificationCount) {
+            return;
+        }
+
+        this.invalidate();
+        this.itemsById = new HashMap<Integer, T>(items.size() * 2);
+
+        for (T item : items) {
+            this.itemsById.putIfAbsent(this.idProvider.apply(item), item);
+        }
+
+        this.indexedItems = items;
+        this.indexedSize = items.size();
+        this.indexedModificationCount = this.modificationCount;
+    }
+
+    /**
+     * A view of a set of items that counts its changes.
+     */
+    private final class TrackedSet extends AbstractSet<T> {
+        /**
+         * The items of the owner.
+         */
+        private final Set<T> items;
+
+        /**
+         * Initializes the view.
+         *
+         * @param items The items of the owner.
+         */
+        private TrackedSet(final Set<T> items) {
+            this.items = items;
+        }
+
+        /**
+         * @return The index the view belongs to.
+         */
+        private ItemIndex<T> getIndex() {
+            return ItemIndex.this;
+        }
+
+        /**
+         * Provides an iterator that counts the removal of items.
+         */
+        @Override
+        public Iterator<T> iterator() {
+            Iterator<T> iterator = this.items.iterator();
+
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    modificationCount++;
+                }
+            };
+        }
+
+        /**
+         * Provides the number of items.
+         */
+        @Override
+        public int size() {
+            return this.items.size();
+        }
+
+        /**
+         * Checks if the item is contained.
+         */
+        @Override
+        public boolean contains(final Object item) {
+            return this.items.contains(item);
+        }
+
+        /**
+         * Adds the item and counts the change.
+         */
+        @Override
+        public boolean add(final T item) {
+            modificationCount++;
+            return this.items.add(item);
+        }
+
+        /**
+         * Removes the item and counts the change.
+         */
+        @Override
+        public boolean remove(final Object item) {
+            modificationCount++;
+            return this.items.remove(item);
+        }
+
+        /**
+         * Removes all items and counts the change.
+         */
+        @Override
+        public void clear() {
+            modificationCount++;
+            this.items.clear();
+        }
+    }
+
+    /**
+     * A view of a list of items that counts its changes.
+     */
+    private final class TrackedList extends AbstractList<T> {
+        /**
+         * The items of the owner.
+         */
+        private final List<T> items;
+
+        /**
+         * Initializes the view.
+         *
+         * @param items The items of the owner.
+         */
+        private TrackedList(final List<T> items) {
+            this.items = items;
+        }
+
+        /**
+         * @return The index the view belongs to.
+         */
+        private ItemIndex<T> getIndex() {
+            return ItemIndex.this;
+        }
+
+        /**
+         * Provides the item at the given position.
+         */
+        @Override
+        public T get(final int index) {
+            return this.items.get(index);
+        }
+
+        /**
+         * Provides the number of items.
+         */
+        @Override
+        public int size() {
+            return this.items.size();
+        }
+
+        /**
+         * Checks if the item is contained.
+         */
+        @Override
+        public boolean contains(final Object item) {
+            return this.items.contains(item);
+        }
+
+        /**
+         * Replaces the item at the given position and counts the change.
+         */
+        @Override
+        public T set(final int index, final T item) {
+            modificationCount++;
+            return this.items.set(index, item);
+        }
+
+        /**
+         * Inserts the item at the given position and counts the change.
+         */
+        @Override
+        public void add(final int index, final T item) {
+            modificationCount++;
+            this.items.add(index, item);
+        }
+
+        /**
+         * Removes the item at the given position and counts the change.
+         */
+        @Override
+        public T remove(final int index) {
+            modificationCount++;
+            return this.items.remove(index);
+        }
+
+        /**
+         * Removes all items and counts the change.
+         */
+        @Override
+        public void clear() {
+            modificationCount++;
+            this.items.clear();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package backend.model;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * The configuration of the database sequences that generate the IDs of all entities. The configuration is read from a
+ * properties file that either is located at the path given by the system property
+ * {@value #CONFIGURATION_PATH_PROPERTY} or on the classpath.
+ *
+ * @author Michael
+ */
+public final class SequenceConfiguration {
+    /**
+     * The system property that defines the path to an external configuration file.
+     */
+    public static final String CONFIGURATION_PATH_PROPERTY = "erp.sequence.configuration";
+
+    /**
+     * The name of the configuration file on the classpath.
+     */
+    public static final String DEFAULT_CONFIGURATION_FILE = "sequence.properties";
+
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(SequenceConfiguration.class);
+
+    /**
+     * The default number of IDs that are allocated by a single sequence call.
+     */
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    /**
+     * The configured allocation size. The value is read once, because all sequences and the ID generators have to use
+     * the same value during the lifetime of the application.
+     */
+    private static Integer allocationSize;
+
+    /**
+     * Constructor not to be used.
+     */
+    private SequenceConfiguration() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Provides the names of all sequences that use the allocation size. These are the sequences of the ID generators
+     * of type {@link BlockSequenceGenerator} that are declared by the given entity classes.
+     *
+     * @param entityClasses The mapped entity classes.
+     * @return The names of the sequences.
+     */
+    public static Set<String> getSequenceNames(final Collection<Class<?>> entityClasses) {
+        Set<String> sequenceNames = new TreeSet<String>();
+
+        for (Class<?> entityClass : entityClasses) {
+            for (GenericGenerator generator : entityClass.getDeclaredAnnotationsByType(GenericGenerator.class)) {
+                if (generator.type() != BlockSequenceGenerator.class) {
+                    continue;
+                }
+
+                for (Parameter parameter : generator.parameters()) {
+                    if (SequenceStyleGenerator.SEQUENCE_PARAM.equals(parameter.name())) {
+                        sequenceNames.add(parameter.value());
+                    }
+                }
+            }
+        }
+
+        return sequenceNames;
+    }
+
+    /**
+     * Provides the number of IDs that are allocated by a single sequence call. The IDs of an allocated block are
+     * handed out in memory by the pooled-lo optimizer defined in the persistence.xml.
+     *
+     * @return The allocation size.
+     */
+    public static synchronized int getAllocationSize() {
+        if (allocationSize == null) {
+            try {
+                allocationSize = getAllocationSize(load(DEFAULT_CONFIGURATION_FILE));
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        return allocationSize;
+    }
+
+    /**
+     * Reads the allocation size from the given properties. A missing property uses the default value.
+     *
+     * @param properties The properties.
+     * @return The allocation size.
+     * @throws IllegalArgumentException In case the configured allocation size is less than 1.
+     */
+    static int getAllocationSize(final Properties properties) throws IllegalArgumentException {
+        int size = Integer.parseInt(
+                properties.getProperty("sequence.allocationSize", String.valueOf(DEFAULT_ALLOCATION_SIZE)).trim());
+
+        if (size < 1) {
+            throw new IllegalArgumentException("sequence.allocationSize has to be at least 1.");
+        }
+
+        return size;
+    }
+
+    /**
+     * Loads the configuration properties. An external file defined by the system property
+     * {@value #CONFIGURATION_PATH_PROPERTY} takes precedence over the given file on the classpath.
+     *
+     * @param classpathResource The name of the configuration file on the classpath.
+     * @return The configuration properties. Empty, if no configuration file exists.
+     * @throws IOException In case the configuration file could not be read.
+     */
+    private static Properties load(final String classpathResource) throws IOException {
+        Properties properties = new Properties();
+        String externalPath = System.getProperty(CONFIGURATION_PATH_PROPERTY);
+
+        if (externalPath != null && Files.isReadable(Paths.get(externalPath))) {
+            try (InputStream inputStream = new FileInputStream(Paths.get(externalPath).toFile())) {
+                properties.load(inputStream);
+            }
+
+            return properties;
+        }
+
+        try (InputStream inputStream = SequenceConfiguration.class.getClassLoader()
+                .getResourceAsStream(classpathResource)) {
+            if (inputStream == null) {
+                LOGGER.warn(MessageFormat.format(
+                        ResourceBundle.getBundle("backend").getString("sequence.configurationNotFound"),
+                        classpathResource));
+                return properties;
+            }
+
+            properties.load(inputStream);
+        }
+
+        return properties;
+    }
+}
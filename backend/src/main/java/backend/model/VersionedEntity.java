@@ -0,0 +1,37 @@
+package backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+
+/**
+ * Base class of all business objects whose updates are protected by optimistic locking.
+ *
+ * The version is incremented with each update. An update is only written to the database, if the version of the
+ * updated object matches the version stored at the database.
+ *
+ * @author Michael
+ */
+@MappedSuperclass
+public abstract class VersionedEntity {
+    /**
+     * The version of the object.
+     */
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
+
+    /**
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version the version to set
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+}
@@ -1,21 +1,16 @@
 package backend.model.account;
 
 import java.math.BigDecimal;
-import java.util.HashSet;
 import java.util.Set;
 
-import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToMany;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
@@ -25,20 +20,32 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
+import backend.model.BlockSequenceGenerator;
 import backend.model.Currency;
+import backend.model.VersionedEntity;
 
 /**
  * An account represents the current cash balance of an entity.
  *
+ * The postings of an account are not part of the account. They grow continuously and are read page by page.
+ *
  * @author Michael
  */
 @Table(name = "ACCOUNT")
 @Entity
-@SequenceGenerator(name = "accountSequence", initialValue = 1, allocationSize = 1)
-public class Account {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account")
+@GenericGenerator(name = "accountSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "accountSequence"))
+public class Account extends VersionedEntity {
     /**
      * The maximum description field length allowed.
      */
@@ -81,20 +88,6 @@ public class Account {
     @NotNull(message = "{account.currency.notNull.message}")
     private Currency currency;
 
-    /**
-     * The postings of the account.
-     */
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
-    @JoinColumn(name = "ACCOUNT_ID")
-    private Set<Posting> postings;
-
-    /**
-     * Default constructor.
-     */
-    public Account() {
-        this.postings = new HashSet<Posting>();
-    }
-
     /**
      * Validates the account.
      *
@@ -178,20 +171,6 @@ public class Account {
         this.currency = currency;
     }
 
-    /**
-     * @return the postings
-     */
-    public Set<Posting> getPostings() {
-        return postings;
-    }
-
-    /**
-     * @param postings the postings to set
-     */
-    public void setPostings(final Set<Posting> postings) {
-        this.postings = postings;
-    }
-
     /**
      * Calculates the hashCode of an Account.
      */
@@ -203,7 +182,6 @@ public class Account {
         result = prime * result + ((currency == null) ? 0 : currency.hashCode());
         result = prime * result + ((description == null) ? 0 : description.hashCode());
         result = prime * result + ((id == null) ? 0 : id.hashCode());
-        result = prime * result + ((postings == null) ? 0 : postings.hashCode());
         return result;
     }
 
@@ -247,60 +225,6 @@ public class Account {
             return false;
         }
 
-        if (!this.arePostingsEqual(other)) {
-            return false;
-        }
-
-        return true;
-    }
-
-    /**
-     * Checks if the list of postings is equal.
-     *
-     * @param other The other account for comparison.
-     * @return true, if postings are equal; false otherwise.
-     */
-    private boolean arePostingsEqual(final Account other) {
-        if (this.postings == null && other.postings != null) {
-            return false;
-        }
-
-        if (this.postings != null && other.postings == null) {
-            return false;
-        }
-
-        if (this.postings.size() != other.postings.size()) {
-            return false;
-        }
-
-        for (Posting tempPosting : this.postings) {
-            Posting otherPosting = other.getPostingWithId(tempPosting.getId());
-
-            if (otherPosting == null) {
-                return false;
-            }
-
-            if (!tempPosting.equals(otherPosting)) {
-                return false;
-            }
-        }
-
         return true;
     }
-
-    /**
-     * Gets the posting with the given id.
-     *
-     * @param postingId The id of the posting.
-     * @return The posting with the given id, if found.
-     */
-    public Posting getPostingWithId(final Integer postingId) {
-        for (Posting tempPosting : this.postings) {
-            if (tempPosting.getId().equals(postingId)) {
-                return tempPosting;
-            }
-        }
-
-        return null;
-    }
 }
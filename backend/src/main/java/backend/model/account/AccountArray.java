@@ -16,6 +16,11 @@ public class AccountArray {
      */
     private List<Account> accounts = null;
 
+    /**
+     * The ID to be used as afterId to read the next page of accounts. Null, if there are no further accounts.
+     */
+    private Integer nextAfterId;
+
     /**
      * @return the accounts
      */
@@ -31,4 +36,18 @@ public class AccountArray {
     public void setAccounts(final List<Account> accounts) {
         this.accounts = accounts;
     }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
 }
@@ -0,0 +1,122 @@
+package backend.model.account;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import backend.model.BlockSequenceGenerator;
+
+/**
+ * The balance of an account at the end of a period.
+ *
+ * The opening balance of any point in time is determined by the latest snapshot before that point in time and the
+ * postings between both. Therefore the postings of previous periods do not have to be read.
+ *
+ * @author Michael
+ */
+@Table(name = "ACCOUNT_BALANCE_SNAPSHOT", uniqueConstraints = @UniqueConstraint(name = "UK_SNAPSHOT_ACCOUNT_PERIOD",
+        columnNames = {"ACCOUNT_ID", "PERIOD_END"}))
+@Entity
+@GenericGenerator(name = "accountBalanceSnapshotSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "accountBalanceSnapshotSequence"))
+public class AccountBalanceSnapshot {
+    /**
+     * The distinct identification number.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accountBalanceSnapshotSequence")
+    @Column(name = "SNAPSHOT_ID")
+    private Integer id;
+
+    /**
+     * The account whose balance is recorded.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ACCOUNT_ID", nullable = false)
+    @JsonIgnore
+    private Account account;
+
+    /**
+     * The end of the period. Postings at or after this point in time belong to the following period.
+     */
+    @Column(name = "PERIOD_END", nullable = false)
+    private Date periodEnd;
+
+    /**
+     * The balance of the account at the end of the period.
+     */
+    @Column(name = "BALANCE", nullable = false)
+    private BigDecimal balance;
+
+    /**
+     * @return the id
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id to set
+     */
+    public void setId(final Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the account
+     */
+    public Account getAccount() {
+        return account;
+    }
+
+    /**
+     * @param account the account to set
+     */
+    public void setAccount(final Account account) {
+        this.account = account;
+    }
+
+    /**
+     * @return the periodEnd
+     */
+    public Date getPeriodEnd() {
+        return periodEnd;
+    }
+
+    /**
+     * @param periodEnd the periodEnd to set
+     */
+    public void setPeriodEnd(final Date periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    /**
+     * @return the balance
+     */
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    /**
+     * @param balance the balance to set
+     */
+    public void setBalance(final BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -14,9 +14,15 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import backend.model.BlockSequenceGenerator;
 import backend.model.Currency;
 import backend.model.businessPartner.BusinessPartner;
 import jakarta.persistence.Column;
@@ -27,9 +33,9 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 /**
@@ -38,9 +44,12 @@ import jakarta.persistence.Table;
  * @author Michael
  *
  */
-@Table(name = "POSTING")
+// The index supports reading the postings of an account in the order of time, for example for account statements.
+@Table(name = "POSTING", indexes = @Index(name = "IDX_POSTING_ACCOUNT_TIMESTAMP",
+        columnList = "ACCOUNT_ID, TIMESTAMP"))
 @Entity
-@SequenceGenerator(name = "postingSequence", initialValue = 1, allocationSize = 1)
+@GenericGenerator(name = "postingSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "postingSequence"))
 public class Posting {
     /**
      * The maximum type field length allowed.
@@ -66,6 +75,14 @@ public class Posting {
     @Min(value = 1, message = "{posting.id.min.message}")
     private Integer id;
 
+    /**
+     * The account on which the posting has been booked.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ACCOUNT_ID")
+    @JsonIgnore
+    private Account account;
+
     /**
      * The posting type.
      */
@@ -159,6 +176,20 @@ public class Posting {
         this.id = id;
     }
 
+    /**
+     * @return the account
+     */
+    public Account getAccount() {
+        return account;
+    }
+
+    /**
+     * @param account the account to set
+     */
+    public void setAccount(final Account account) {
+        this.account = account;
+    }
+
     /**
      * @return the type
      */
@@ -0,0 +1,53 @@
+package backend.model.account;
+
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+
+/**
+ * A list of postings.
+ *
+ * @author Michael
+ */
+public class PostingArray {
+    /**
+     * A list of postings.
+     */
+    private List<Posting> postings = null;
+
+    /**
+     * The ID to be used as afterId to read the next page of postings. Null, if there are no further postings.
+     */
+    private Integer nextAfterId;
+
+    /**
+     * @return the postings
+     */
+    @XmlElementWrapper(name = "postings")
+    @XmlElement(name = "posting")
+    public List<Posting> getPostings() {
+        return postings;
+    }
+
+    /**
+     * @param postings the postings to set
+     */
+    public void setPostings(final List<Posting> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,8 +15,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -24,6 +25,11 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
@@ -31,6 +37,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import backend.exception.DuplicateIdentifierException;
 import backend.exception.NoItemsException;
+import backend.model.BlockSequenceGenerator;
+import backend.model.ItemIndex;
+import backend.model.VersionedEntity;
 import backend.model.material.Material;
 
 /**
@@ -40,9 +49,12 @@ import backend.model.material.Material;
  */
 @Table(name = "BILL_OF_MATERIAL")
 @Entity
-@SequenceGenerator(name = "billOfMaterialSequence", initialValue = 1, allocationSize = 1)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "billOfMaterial")
+@GenericGenerator(name = "billOfMaterialSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "billOfMaterialSequence"))
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
-public class BillOfMaterial {
+public class BillOfMaterial extends VersionedEntity {
     /**
      * The maximum name field length allowed.
      */
@@ -89,8 +101,16 @@ public class BillOfMaterial {
      * The items needed to create a material.
      */
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "billOfMaterial")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "billOfMaterial.items")
     private List<BillOfMaterialItem> items;
 
+    /**
+     * The index of the items by their ID.
+     */
+    @Transient
+    private final ItemIndex<BillOfMaterialItem> itemIndex = new ItemIndex<BillOfMaterialItem>(
+            BillOfMaterialItem::getId);
+
     /**
      * Default constructor.
      */
@@ -106,6 +126,7 @@ public class BillOfMaterial {
     public void addItem(final BillOfMaterialItem item) {
         item.setBillOfMaterial(this);
         this.items.add(item);
+        this.itemIndex.invalidate();
     }
 
     /**
@@ -165,10 +186,10 @@ public class BillOfMaterial {
     }
 
     /**
-     * @return the items
+     * @return the items. Changes of the items are tracked by the index of the items.
      */
     public List<BillOfMaterialItem> getItems() {
-        return items;
+        return this.itemIndex.track(this.items);
     }
 
     /**
@@ -176,6 +197,7 @@ public class BillOfMaterial {
      */
     public void setItems(final List<BillOfMaterialItem> items) {
         this.items = items;
+        this.itemIndex.invalidate();
     }
 
     /**
@@ -285,13 +307,14 @@ public class BillOfMaterial {
      * @return The item with the given id, if found.
      */
     public BillOfMaterialItem getItemWithId(final Integer itemId) {
-        for (BillOfMaterialItem tempItem : this.items) {
-            if (tempItem.getId() == itemId) {
-                return tempItem;
-            }
-        }
+        return this.itemIndex.getItem(this.items, itemId);
+    }
 
-        return null;
+    /**
+     * Invalidates the index of the items. Called if an item has been changed.
+     */
+    void invalidateItemIndex() {
+        this.itemIndex.invalidate();
     }
 
     /**
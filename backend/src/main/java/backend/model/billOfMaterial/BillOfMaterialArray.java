@@ -16,6 +16,12 @@ public class BillOfMaterialArray {
      */
     private List<BillOfMaterial> billOfMaterials = null;
 
+    /**
+     * The ID to be used as afterId to read the next page of bills of material. Null, if there are no further
+     * bills of material.
+     */
+    private Integer nextAfterId;
+
     /**
      * @return the billOfMaterials
      */
@@ -31,4 +37,18 @@ public class BillOfMaterialArray {
     public void setBillOfMaterials(final List<BillOfMaterial> billOfMaterials) {
         this.billOfMaterials = billOfMaterials;
     }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
 }
@@ -0,0 +1,73 @@
+package backend.model.billOfMaterial;
+
+/**
+ * The materials that are consumed to produce one unit of a material. Components that have a bill of material
+ * themselves are replaced by their own components, so only materials without a bill of material are included.
+ *
+ * @author Michael
+ */
+public final class BillOfMaterialExplosion {
+    /**
+     * The IDs of the consumed materials.
+     */
+    private final int[] materialIds;
+
+    /**
+     * The consumed quantities in the order of the material IDs.
+     */
+    private final long[] quantities;
+
+    /**
+     * Initializes the explosion.
+     *
+     * @param materialIds The IDs of the consumed materials.
+     * @param quantities  The consumed quantities in the order of the material IDs.
+     */
+    BillOfMaterialExplosion(final int[] materialIds, final long[] quantities) {
+        this.materialIds = materialIds;
+        this.quantities = quantities;
+    }
+
+    /**
+     * Provides the number of consumed materials.
+     *
+     * @return The number of consumed materials.
+     */
+    public int size() {
+        return this.materialIds.length;
+    }
+
+    /**
+     * Provides the ID of the consumed material at the given index.
+     *
+     * @param index The index.
+     * @return The ID of the material.
+     */
+    public int getMaterialId(final int index) {
+        return this.materialIds[index];
+    }
+
+    /**
+     * Provides the consumed quantity of the material at the given index.
+     *
+     * @param index The index.
+     * @return The quantity consumed to produce one unit.
+     */
+    public long getQuantity(final int index) {
+        return this.quantities[index];
+    }
+
+    /**
+     * @return A copy of the IDs of the consumed materials.
+     */
+    public int[] getMaterialIds() {
+        return this.materialIds.clone();
+    }
+
+    /**
+     * @return A copy of the consumed quantities in the order of the material IDs.
+     */
+    public long[] getQuantities() {
+        return this.quantities.clone();
+    }
+}
@@ -0,0 +1,174 @@
+package backend.model.billOfMaterial;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import backend.model.material.Material;
+
+/**
+ * The structure of all bills of material. Each material having a bill of material is connected to its components.
+ * The graph is immutable and can be used by several threads. The explosions of the materials are computed on first
+ * use and memoized.
+ *
+ * @author Michael
+ */
+public final class BillOfMaterialGraph {
+    /**
+     * The IDs of the components of each material having a bill of material.
+     */
+    private final Map<Integer, int[]> componentIds = new HashMap<Integer, int[]>();
+
+    /**
+     * The quantities of the components of each material having a bill of material.
+     */
+    private final Map<Integer, long[]> componentQuantities = new HashMap<Integer, long[]>();
+
+    /**
+     * The components as loaded with the bills of material.
+     */
+    private final Map<Integer, Material> components = new HashMap<Integer, Material>();
+
+    /**
+     * The memoized explosions.
+     */
+    private final Map<Integer, BillOfMaterialExplosion> explosions = new ConcurrentHashMap<Integer,
+            BillOfMaterialExplosion>();
+
+    /**
+     * Initializes the graph.
+     *
+     * @param billOfMaterials All bills of material including their items.
+     */
+    public BillOfMaterialGraph(final List<BillOfMaterial> billOfMaterials) {
+        for (BillOfMaterial billOfMaterial : billOfMaterials) {
+            int[] ids = new int[billOfMaterial.getItems().size()];
+            long[] quantities = new long[ids.length];
+
+            for (int i = 0; i < ids.length; i++) {
+                BillOfMaterialItem item = billOfMaterial.getItems().get(i);
+
+                ids[i] = item.getMaterial().getId();
+                quantities[i] = item.getQuantity();
+                this.components.put(ids[i], item.getMaterial());
+            }
+
+            this.componentIds.put(billOfMaterial.getMaterial().getId(), ids);
+            this.componentQuantities.put(billOfMaterial.getMaterial().getId(), quantities);
+        }
+    }
+
+    /**
+     * Checks if the given material has a bill of material.
+     *
+     * @param materialId The ID of the material.
+     * @return true, if the material has a bill of material; false otherwise.
+     */
+    public boolean hasBillOfMaterial(final Integer materialId) {
+        return this.componentIds.containsKey(materialId);
+    }
+
+    /**
+     * Provides a component as loaded with the bills of material. The component is shared by all users of the graph and
+     * must not be modified.
+     *
+     * @param materialId The ID of the component.
+     * @return The component. Null, if the material is not used by any bill of material.
+     */
+    public Material getComponent(final Integer materialId) {
+        return this.components.get(materialId);
+    }
+
+    /**
+     * Checks if the given bill of material would make its material a component of itself. The given bill of material
+     * replaces the bill of material of its material in the graph.
+     *
+     * @param billOfMaterial The bill of material to be saved.
+     * @return true, if the material would be a direct or indirect component of itself; false otherwise.
+     */
+    public boolean createsCycle(final BillOfMaterial billOfMaterial) {
+        Integer materialId = billOfMaterial.getMaterial().getId();
+        Deque<Integer> pendingIds = new ArrayDeque<Integer>();
+        Set<Integer> visitedIds = new HashSet<Integer>();
+
+        for (BillOfMaterialItem item : billOfMaterial.getItems()) {
+            pendingIds.push(item.getMaterial().getId());
+        }
+
+        while (!pendingIds.isEmpty()) {
+            Integer componentId = pendingIds.pop();
+
+            if (componentId.equals(materialId)) {
+                return true;
+            }
+
+            if (visitedIds.add(componentId) && this.componentIds.containsKey(componentId)) {
+                for (int id : this.componentIds.get(componentId)) {
+                    pendingIds.push(id);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Determines the materials consumed to produce one unit of the given material. Components having a bill of
+     * material are exploded over all levels.
+     *
+     * @param materialId The ID of the material.
+     * @return The consumed materials. Empty, if the material has no bill of material.
+     */
+    public BillOfMaterialExplosion explode(final Integer materialId) {
+        return this.explode(materialId, new HashSet<Integer>());
+    }
+
+    /**
+     * Determines the materials consumed to produce one unit of the given material.
+     *
+     * @param materialId The ID of the material.
+     * @param path       The IDs of the materials being exploded that use the given material.
+     * @return The consumed materials.
+     */
+    private BillOfMaterialExplosion explode(final Integer materialId, final Set<Integer> path) {
+        BillOfMaterialExplosion explosion = this.explosions.get(materialId);
+        Map<Integer, Long> quantities = new LinkedHashMap<Integer, Long>(); // <MaterialId, Quantity>
+        int[] ids = this.componentIds.getOrDefault(materialId, new int[0]);
+        long[] componentQuantity = this.componentQuantities.getOrDefault(materialId, new long[0]);
+
+        if (explosion != null) {
+            return explosion;
+        }
+
+        if (!path.add(materialId)) {
+            throw new IllegalStateException("Material " + materialId + " is a component of itself.");
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            if (!this.componentIds.containsKey(ids[i])) {
+                quantities.merge(ids[i], componentQuantity[i], Math::addExact);
+                continue;
+            }
+
+            BillOfMaterialExplosion componentExplosion = this.explode(ids[i], path);
+
+            for (int j = 0; j < componentExplosion.size(); j++) {
+                quantities.merge(componentExplosion.getMaterialId(j),
+                        Math.multiplyExact(componentQuantity[i], componentExplosion.getQuantity(j)), Math::addExact);
+            }
+        }
+
+        path.remove(materialId);
+        explosion = new BillOfMaterialExplosion(quantities.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                quantities.values().stream().mapToLong(Long::longValue).toArray());
+        this.explosions.putIfAbsent(materialId, explosion);
+
+        return explosion;
+    }
+}
@@ -9,12 +9,16 @@ import jakarta.validation.ValidatorFactory;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import backend.model.material.Material;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -31,6 +35,8 @@ import jakarta.persistence.Table;
  */
 @Table(name = "BILL_OF_MATERIAL_ITEM")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "billOfMaterialItem")
 @IdClass(BillOfMaterialItemId.class)
 public class BillOfMaterialItem {
     /**
@@ -86,6 +92,7 @@ public class BillOfMaterialItem {
      */
     public void setId(final Integer id) {
         this.id = id;
+        this.invalidateItemIndex();
     }
 
     /**
@@ -208,4 +215,13 @@ public class BillOfMaterialItem {
             throw new Exception(violation.getMessage());
         }
     }
+
+    /**
+     * Invalidates the item index of the bill of material, if the bill of material has been loaded.
+     */
+    private void invalidateItemIndex() {
+        if (this.billOfMaterial != null && Hibernate.isInitialized(this.billOfMaterial)) {
+            this.billOfMaterial.invalidateItemIndex();
+        }
+    }
 }
@@ -15,6 +15,11 @@ public class BillOfMaterialWS {
      */
     private Integer billOfMaterialId;
 
+    /**
+     * The version of the bill of material that has been read. Used to detect concurrent modifications.
+     */
+    private Long version;
+
     /**
      * The name.
      */
@@ -65,6 +70,20 @@ public class BillOfMaterialWS {
         this.billOfMaterialId = billOfMaterialId;
     }
 
+    /**
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version the version to set
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
     /**
      * @return the name
      */
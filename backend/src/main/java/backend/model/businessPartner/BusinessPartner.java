@@ -3,6 +3,7 @@ package backend.model.businessPartner;
 import java.util.HashSet;
 import java.util.Set;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -14,7 +15,6 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
@@ -25,9 +25,17 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
+import backend.model.BlockSequenceGenerator;
+import backend.model.VersionedEntity;
+
 /**
  * A business partner.
  *
@@ -35,8 +43,11 @@ import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLev
  */
 @Table(name = "BUSINESS_PARTNER")
 @Entity
-@SequenceGenerator(name = "bpSequence", initialValue = 1, allocationSize = 1)
-public class BusinessPartner {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "businessPartner")
+@GenericGenerator(name = "bpSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "bpSequence"))
+public class BusinessPartner extends VersionedEntity {
     /**
      * The maximum company name field length allowed.
      */
@@ -159,6 +170,7 @@ public class BusinessPartner {
     @CollectionTable(name = "BUSINESS_PARTNER_TYPES", joinColumns = { @JoinColumn(name = "BUSINESS_PARTNER_ID") })
     @Column(name = "type", nullable = false, length = MAX_BP_TYPE_LENGTH)
     @ElementCollection(targetClass = BusinessPartnerType.class, fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "businessPartner.types")
     @Enumerated(EnumType.STRING)
     @NotEmpty(message = "{businessPartner.types.notEmpty.message}")
     private Set<BusinessPartnerType> types;
@@ -18,6 +18,12 @@ public class BusinessPartnerArray {
      */
     private List<BusinessPartner> businessPartners = null;
 
+    /**
+     * The ID to be used as afterId to read the next page of business partners. Null, if there are no further
+     * business partners.
+     */
+    private Integer nextAfterId;
+
     /**
      * @return the businessPartners
      */
@@ -33,4 +39,18 @@ public class BusinessPartnerArray {
     public void setBusinessPartners(final List<BusinessPartner> businessPartners) {
         this.businessPartners = businessPartners;
     }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
 }
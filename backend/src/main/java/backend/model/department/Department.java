@@ -19,6 +19,7 @@ import jakarta.xml.bind.annotation.XmlRootElement;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
+import backend.model.VersionedEntity;
 import backend.model.employee.Employee;
 
 /**
@@ -29,7 +30,7 @@ import backend.model.employee.Employee;
 @XmlRootElement(name = "department")
 @Table(name = "DEPARTMENT")
 @Entity
-public class Department {
+public class Department extends VersionedEntity {
     /**
      * The maximum code field length allowed.
      */
@@ -12,7 +12,6 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
@@ -25,10 +24,15 @@ import jakarta.validation.constraints.Size;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlTransient;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
 import backend.exception.IdentifierMismatchException;
+import backend.model.BlockSequenceGenerator;
+import backend.model.VersionedEntity;
 import backend.model.department.Department;
 
 /**
@@ -39,8 +43,9 @@ import backend.model.department.Department;
 @XmlRootElement(name = "employee")
 @Table(name = "EMPLOYEE")
 @Entity
-@SequenceGenerator(name = "employeeSequence", initialValue = 1, allocationSize = 1)
-public class Employee {
+@GenericGenerator(name = "employeeSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "employeeSequence"))
+public class Employee extends VersionedEntity {
     /**
      * The maximum employee ID value allowed.
      */
@@ -18,6 +18,11 @@ public class EmployeeArray {
      */
     private List<Employee> employees = null;
 
+    /**
+     * The ID to be used as afterId to read the next page of employees. Null, if there are no further employees.
+     */
+    private Integer nextAfterId;
+
     /**
      * @return the employees
      */
@@ -33,4 +38,18 @@ public class EmployeeArray {
     public void setEmployees(final List<Employee> employees) {
         this.employees = employees;
     }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
 }
@@ -5,7 +5,12 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
-import jakarta.persistence.SequenceGenerator;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import backend.model.BlockSequenceGenerator;
 
 /**
  * A graphical image.
@@ -13,7 +18,8 @@ import jakarta.persistence.SequenceGenerator;
  * @author Michael
  */
 @MappedSuperclass
-@SequenceGenerator(name = "imageSequence", initialValue = 1, allocationSize = 1)
+@GenericGenerator(name = "imageSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "imageSequence"))
 public class BaseImage {
     /**
      * The distinct identification number.
@@ -4,8 +4,8 @@ import java.util.Set;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -13,7 +13,8 @@ import jakarta.validation.ValidatorFactory;
 import jakarta.validation.constraints.NotNull;
 
 /**
- * The data part of the image that is actually persisted as entity at database level.
+ * The data part of the image. The binary data are kept in the image store; the database only holds the hash the data
+ * are addressed by.
  *
  * @author Michael
  */
@@ -21,13 +22,34 @@ import jakarta.validation.constraints.NotNull;
 @Table(name = "IMAGE")
 public class ImageData extends BaseImage {
     /**
-     * The image data.
+     * The length of a SHA-256 hash as hexadecimal string.
      */
-    @Lob
-    @Column(name = "DATA", nullable = false, columnDefinition = "BLOB")
+    private static final int HASH_LENGTH = 64;
+
+    /**
+     * The maximum mime type field length allowed.
+     */
+    private static final int MAX_MIME_TYPE_LENGTH = 25;
+
+    /**
+     * The image data. The data are not persisted at database level but in the image store.
+     */
+    @Transient
     @NotNull(message = "{image.data.notNull.message}")
     private byte[] data;
 
+    /**
+     * The SHA-256 hash of the image data. The hash is the address of the data in the image store.
+     */
+    @Column(name = "CONTENT_HASH", length = HASH_LENGTH)
+    private String contentHash;
+
+    /**
+     * The MIME type of the image as determined on upload. The MIME type can be changed using the image meta data.
+     */
+    @Column(name = "MIME_TYPE", length = MAX_MIME_TYPE_LENGTH, updatable = false)
+    private String mimeType;
+
     /**
      * @return the data
      */
@@ -42,6 +64,34 @@ public class ImageData extends BaseImage {
         this.data = data;
     }
 
+    /**
+     * @return the contentHash
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * @param contentHash the contentHash to set
+     */
+    public void setContentHash(final String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * @return the mimeType
+     */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * @param mimeType the mimeType to set
+     */
+    public void setMimeType(final String mimeType) {
+        this.mimeType = mimeType;
+    }
+
     /**
      * Validates the image.
      *
@@ -1,6 +1,9 @@
 package backend.model.image;
 
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -27,6 +30,21 @@ public class ImageMetaData extends BaseImage {
      */
     private static final int MAX_MIME_TYPE_LENGTH = 25;
 
+    /**
+     * The length of a SHA-256 hash as hexadecimal string.
+     */
+    private static final int HASH_LENGTH = 64;
+
+    /**
+     * The maximum length of the list of derivatives.
+     */
+    private static final int MAX_DERIVATIVES_LENGTH = 100;
+
+    /**
+     * The separator of the sizes in the list of derivatives.
+     */
+    private static final String DERIVATIVES_SEPARATOR = ",";
+
     /**
      * The MIME type of the file. For example: "image/png".
      */
@@ -34,6 +52,19 @@ public class ImageMetaData extends BaseImage {
     @Size(min = 1, max = MAX_MIME_TYPE_LENGTH, message = "{image.mimeType.size.message}")
     private String mimeType;
 
+    /**
+     * The SHA-256 hash of the image data. The hash is maintained together with the image data and therefore can not be
+     * changed using the meta data.
+     */
+    @Column(name = "CONTENT_HASH", length = HASH_LENGTH, insertable = false, updatable = false)
+    private String contentHash;
+
+    /**
+     * The names of the sizes in which downscaled derivatives of the image exist, separated by comma.
+     */
+    @Column(name = "DERIVATIVES", length = MAX_DERIVATIVES_LENGTH)
+    private String derivatives;
+
     /**
      * @return the mimeType
      */
@@ -48,6 +79,46 @@ public class ImageMetaData extends BaseImage {
         this.mimeType = mimeType;
     }
 
+    /**
+     * @return the contentHash
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * @param contentHash the contentHash to set
+     */
+    public void setContentHash(final String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * @return The sizes in which downscaled derivatives of the image exist.
+     */
+    public Set<ImageSize> getDerivatives() {
+        Set<ImageSize> sizes = EnumSet.noneOf(ImageSize.class);
+
+        if (this.derivatives != null && !this.derivatives.isEmpty()) {
+            Arrays.stream(this.derivatives.split(DERIVATIVES_SEPARATOR)).map(ImageSize::valueOf).forEach(sizes::add);
+        }
+
+        return sizes;
+    }
+
+    /**
+     * @param derivatives The sizes in which downscaled derivatives of the image exist.
+     */
+    public void setDerivatives(final Set<ImageSize> derivatives) {
+        if (derivatives == null || derivatives.isEmpty()) {
+            this.derivatives = null;
+            return;
+        }
+
+        this.derivatives = EnumSet.copyOf(derivatives).stream().map(ImageSize::name)
+                .collect(Collectors.joining(DERIVATIVES_SEPARATOR));
+    }
+
     /**
      * Calculates the hashCode of an ImageMetaData.
      */
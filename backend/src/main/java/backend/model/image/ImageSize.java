@@ -0,0 +1,58 @@
+package backend.model.image;
+
+import java.util.Locale;
+
+/**
+ * A downscaled size in which images are provided in addition to their original size.
+ *
+ * @author Michael
+ */
+public enum ImageSize {
+    /**
+     * Small image for lists.
+     */
+    THUMBNAIL(128),
+    /**
+     * Medium image for previews.
+     */
+    PREVIEW(512);
+
+    /**
+     * The maximum width and height of the image in pixels.
+     */
+    private final int maxDimension;
+
+    /**
+     * Initializes the size.
+     *
+     * @param maxDimension The maximum width and height of the image in pixels.
+     */
+    ImageSize(final int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * @return The maximum width and height of the image in pixels.
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * @return The name of derivatives of this size in the image store.
+     */
+    public String getDerivativeName() {
+        return this.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Provides the size with the given name regardless of the case. Used to convert request parameters.
+     *
+     * @param name The name of the size.
+     * @return The size.
+     * @throws IllegalArgumentException In case no size with the given name exists.
+     */
+    public static ImageSize fromString(final String name) throws IllegalArgumentException {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,131 @@
+package backend.model.material;
+
+/**
+ * A change of the inventory of a material.
+ *
+ * @author Michael
+ */
+public class InventoryDelta {
+    /**
+     * The material whose inventory is changed.
+     */
+    private Material material;
+
+    /**
+     * The quantity added to the inventory. A negative quantity is removed from the inventory.
+     */
+    private long quantity;
+
+    /**
+     * The cause of the change.
+     */
+    private InventoryMovementType type;
+
+    /**
+     * The ID of the order that causes the change. Null, if the change is not caused by an order.
+     */
+    private Integer sourceId;
+
+    /**
+     * The ID of the order item that causes the change. Null, if the change is not caused by an order.
+     */
+    private Integer sourceItemId;
+
+    /**
+     * Initializes an inventory delta that corrects the inventory.
+     *
+     * @param material The material whose inventory is changed.
+     * @param quantity The quantity added to the inventory. A negative quantity is removed from the inventory.
+     */
+    public InventoryDelta(final Material material, final long quantity) {
+        this(material, quantity, InventoryMovementType.CORRECTION, null, null);
+    }
+
+    /**
+     * Initializes an inventory delta caused by an order.
+     *
+     * @param material     The material whose inventory is changed.
+     * @param quantity     The quantity added to the inventory. A negative quantity is removed from the inventory.
+     * @param type         The cause of the change.
+     * @param sourceId     The ID of the order that causes the change.
+     * @param sourceItemId The ID of the order item that causes the change.
+     */
+    public InventoryDelta(final Material material, final long quantity, final InventoryMovementType type,
+            final Integer sourceId, final Integer sourceItemId) {
+        this.material = material;
+        this.quantity = quantity;
+        this.type = type;
+        this.sourceId = sourceId;
+        this.sourceItemId = sourceItemId;
+    }
+
+    /**
+     * @return the material
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * @param material the material to set
+     */
+    public void setMaterial(final Material material) {
+        this.material = material;
+    }
+
+    /**
+     * @return the quantity
+     */
+    public long getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * @param quantity the quantity to set
+     */
+    public void setQuantity(final long quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * @return the type
+     */
+    public InventoryMovementType getType() {
+        return type;
+    }
+
+    /**
+     * @param type the type to set
+     */
+    public void setType(final InventoryMovementType type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the sourceId
+     */
+    public Integer getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * @param sourceId the sourceId to set
+     */
+    public void setSourceId(final Integer sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    /**
+     * @return the sourceItemId
+     */
+    public Integer getSourceItemId() {
+        return sourceItemId;
+    }
+
+    /**
+     * @param sourceItemId the sourceItemId to set
+     */
+    public void setSourceItemId(final Integer sourceItemId) {
+        this.sourceItemId = sourceItemId;
+    }
+}
@@ -0,0 +1,21 @@
+package backend.model.material;
+
+/**
+ * The outcome of an inventory delta.
+ *
+ * @author Michael
+ */
+public enum InventoryDeltaStatus {
+    /**
+     * The delta can be applied.
+     */
+    OK,
+    /**
+     * The inventory of the material is less than the quantity to be removed.
+     */
+    INSUFFICIENT_INVENTORY,
+    /**
+     * The material does not exist.
+     */
+    MATERIAL_NOT_FOUND
+}
@@ -0,0 +1,57 @@
+package backend.model.material;
+
+/**
+ * A difference between the inventory stored at a material and the inventory according to its movements.
+ *
+ * @author Michael
+ */
+public class InventoryDifference {
+    /**
+     * The ID of the material.
+     */
+    private Integer materialId;
+
+    /**
+     * The inventory stored at the material.
+     */
+    private long materialInventory;
+
+    /**
+     * The inventory according to the movements of the material.
+     */
+    private long journalInventory;
+
+    /**
+     * Initializes the inventory difference.
+     *
+     * @param materialId        The ID of the material.
+     * @param materialInventory The inventory stored at the material.
+     * @param journalInventory  The inventory according to the movements of the material.
+     */
+    public InventoryDifference(final Integer materialId, final long materialInventory, final long journalInventory) {
+        this.materialId = materialId;
+        this.materialInventory = materialInventory;
+        this.journalInventory = journalInventory;
+    }
+
+    /**
+     * @return the materialId
+     */
+    public Integer getMaterialId() {
+        return materialId;
+    }
+
+    /**
+     * @return the materialInventory
+     */
+    public long getMaterialInventory() {
+        return materialInventory;
+    }
+
+    /**
+     * @return the journalInventory
+     */
+    public long getJournalInventory() {
+        return journalInventory;
+    }
+}
@@ -0,0 +1,188 @@
+package backend.model.material;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import backend.model.BlockSequenceGenerator;
+
+/**
+ * A change of the inventory of a material.
+ *
+ * Movements are only appended and never changed. The inventory of a material is the total of all its movements.
+ *
+ * @author Michael
+ */
+@Table(name = "INVENTORY_MOVEMENT", indexes = @Index(name = "IDX_MOVEMENT_MATERIAL_ID",
+        columnList = "MATERIAL_ID, MOVEMENT_ID"))
+@Entity
+@GenericGenerator(name = "inventoryMovementSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "inventoryMovementSequence"))
+public class InventoryMovement {
+    /**
+     * The maximum type field length allowed.
+     */
+    private static final int MAX_TYPE_LENGTH = 20;
+
+    /**
+     * The distinct identification number.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventoryMovementSequence")
+    @Column(name = "MOVEMENT_ID")
+    private Integer id;
+
+    /**
+     * The material whose inventory has been changed.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "MATERIAL_ID", nullable = false)
+    @JsonIgnore
+    private Material material;
+
+    /**
+     * The quantity added to the inventory. A negative quantity has been removed from the inventory.
+     */
+    @Column(name = "QUANTITY", nullable = false)
+    private Long quantity;
+
+    /**
+     * The date and time of the movement.
+     */
+    @Column(name = "TIMESTAMP", nullable = false)
+    private Date timestamp;
+
+    /**
+     * The cause of the movement.
+     */
+    @Column(name = "TYPE", length = MAX_TYPE_LENGTH, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private InventoryMovementType type;
+
+    /**
+     * The ID of the order that caused the movement. Null, if the movement has not been caused by an order.
+     */
+    @Column(name = "SOURCE_ID")
+    private Integer sourceId;
+
+    /**
+     * The ID of the order item that caused the movement. Null, if the movement has not been caused by an order.
+     */
+    @Column(name = "SOURCE_ITEM_ID")
+    private Integer sourceItemId;
+
+    /**
+     * @return the id
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id to set
+     */
+    public void setId(final Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the material
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * @param material the material to set
+     */
+    public void setMaterial(final Material material) {
+        this.material = material;
+    }
+
+    /**
+     * @return the quantity
+     */
+    public Long getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * @param quantity the quantity to set
+     */
+    public void setQuantity(final Long quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * @return the timestamp
+     */
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @param timestamp the timestamp to set
+     */
+    public void setTimestamp(final Date timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return the type
+     */
+    public InventoryMovementType getType() {
+        return type;
+    }
+
+    /**
+     * @param type the type to set
+     */
+    public void setType(final InventoryMovementType type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the sourceId
+     */
+    public Integer getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * @param sourceId the sourceId to set
+     */
+    public void setSourceId(final Integer sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    /**
+     * @return the sourceItemId
+     */
+    public Integer getSourceItemId() {
+        return sourceItemId;
+    }
+
+    /**
+     * @param sourceItemId the sourceItemId to set
+     */
+    public void setSourceItemId(final Integer sourceItemId) {
+        this.sourceItemId = sourceItemId;
+    }
+}
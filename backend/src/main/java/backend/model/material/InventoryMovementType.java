@@ -0,0 +1,33 @@
+package backend.model.material;
+
+/**
+ * The cause of an inventory movement.
+ *
+ * @author Michael
+ */
+public enum InventoryMovementType {
+    /**
+     * The inventory a material has been created with.
+     */
+    INITIAL_INVENTORY,
+
+    /**
+     * A manual correction of the inventory.
+     */
+    CORRECTION,
+
+    /**
+     * Material delivered to a customer by a sales order.
+     */
+    SALES_ORDER,
+
+    /**
+     * Material received from a vendor by a purchase order.
+     */
+    PURCHASE_ORDER,
+
+    /**
+     * Material produced or consumed by a production order.
+     */
+    PRODUCTION_ORDER
+}
@@ -0,0 +1,141 @@
+package backend.model.material;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import backend.model.BlockSequenceGenerator;
+
+/**
+ * The inventory of a material according to its movements up to a certain movement.
+ *
+ * The inventory is the inventory of the latest snapshot plus the movements after it. Therefore the older movements do
+ * not have to be read.
+ *
+ * @author Michael
+ */
+@Table(name = "INVENTORY_SNAPSHOT", uniqueConstraints = @UniqueConstraint(name = "UK_SNAPSHOT_MATERIAL_MOVEMENT",
+        columnNames = {"MATERIAL_ID", "LAST_MOVEMENT_ID"}))
+@Entity
+@GenericGenerator(name = "inventorySnapshotSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "inventorySnapshotSequence"))
+public class InventorySnapshot {
+    /**
+     * The distinct identification number.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventorySnapshotSequence")
+    @Column(name = "SNAPSHOT_ID")
+    private Integer id;
+
+    /**
+     * The material whose inventory is recorded.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "MATERIAL_ID", nullable = false)
+    @JsonIgnore
+    private Material material;
+
+    /**
+     * The ID of the latest movement included in the snapshot.
+     */
+    @Column(name = "LAST_MOVEMENT_ID", nullable = false)
+    private Integer lastMovementId;
+
+    /**
+     * The total of all movements of the material up to and including the latest movement.
+     */
+    @Column(name = "INVENTORY", nullable = false)
+    private Long inventory;
+
+    /**
+     * The date and time the snapshot has been created.
+     */
+    @Column(name = "CREATED_AT", nullable = false)
+    private Date createdAt;
+
+    /**
+     * @return the id
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id to set
+     */
+    public void setId(final Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the material
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * @param material the material to set
+     */
+    public void setMaterial(final Material material) {
+        this.material = material;
+    }
+
+    /**
+     * @return the lastMovementId
+     */
+    public Integer getLastMovementId() {
+        return lastMovementId;
+    }
+
+    /**
+     * @param lastMovementId the lastMovementId to set
+     */
+    public void setLastMovementId(final Integer lastMovementId) {
+        this.lastMovementId = lastMovementId;
+    }
+
+    /**
+     * @return the inventory
+     */
+    public Long getInventory() {
+        return inventory;
+    }
+
+    /**
+     * @param inventory the inventory to set
+     */
+    public void setInventory(final Long inventory) {
+        this.inventory = inventory;
+    }
+
+    /**
+     * @return the createdAt
+     */
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @param createdAt the createdAt to set
+     */
+    public void setCreatedAt(final Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
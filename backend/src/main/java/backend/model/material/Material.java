@@ -3,6 +3,7 @@ package backend.model.material;
 import java.math.BigDecimal;
 import java.util.Set;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,7 +14,6 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
@@ -23,12 +23,20 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import backend.model.BlockSequenceGenerator;
 import backend.model.Currency;
+import backend.model.VersionedEntity;
 import backend.model.image.ImageMetaData;
 
 /**
@@ -38,8 +46,11 @@ import backend.model.image.ImageMetaData;
  */
 @Table(name = "MATERIAL")
 @Entity
-@SequenceGenerator(name = "materialSequence", initialValue = 1, allocationSize = 1)
-public class Material {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "material")
+@GenericGenerator(name = "materialSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "materialSequence"))
+public class Material extends VersionedEntity {
     /**
      * The maximum name field length allowed.
      */
@@ -108,9 +119,11 @@ public class Material {
     private Currency currency;
 
     /**
-     * The inventory measured in the unit of measurement.
+     * The inventory measured in the unit of measurement. Changes of the inventory are written as inventory deltas.
+     * They do not increment the version, so that they do not conflict with concurrent updates of the master data.
      */
     @Column(name = "INVENTORY")
+    @OptimisticLock(excluded = true)
     @Min(value = 0, message = "{material.inventory.min.message}")
     @NotNull(message = "{material.inventory.notNull.message}")
     private Long inventory;
@@ -257,6 +270,7 @@ public class Material {
         wsMaterial.setPricePerUnit(this.getPricePerUnit());
         wsMaterial.setCurrency(this.getCurrency());
         wsMaterial.setInventory(this.getInventory());
+        wsMaterial.setVersion(this.getVersion());
 
         if (this.getImage() != null && this.getImage().getId() != null) {
             wsMaterial.setImageId(this.getImage().getId());
@@ -18,6 +18,11 @@ public class MaterialArray {
      */
     private List<Material> materials = null;
 
+    /**
+     * The ID to be used as afterId to read the next page of materials. Null, if there are no further materials.
+     */
+    private Integer nextAfterId;
+
     /**
      * @return the materials
      */
@@ -33,4 +38,18 @@ public class MaterialArray {
     public void setMaterials(final List<Material> materials) {
         this.materials = materials;
     }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
 }
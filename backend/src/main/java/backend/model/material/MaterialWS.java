@@ -16,6 +16,11 @@ public class MaterialWS {
      */
     private Integer materialId;
 
+    /**
+     * The version of the material that has been read. Used to detect concurrent modifications.
+     */
+    private Long version;
+
     /**
      * The name.
      */
@@ -65,6 +70,20 @@ public class MaterialWS {
         this.materialId = materialId;
     }
 
+    /**
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version the version to set
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
     /**
      * @return the name
      */
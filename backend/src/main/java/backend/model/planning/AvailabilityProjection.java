@@ -0,0 +1,308 @@
+package backend.model.planning;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The time-phased supply and demand of the materials. The projection consists of the inventory of each material and
+ * the quantities the open orders add to or remove from the inventory at a certain day.
+ *
+ * The projection is updated incrementally. After each update, an immutable timeline of the changed materials is
+ * published, so that the available quantities can be read without locking.
+ *
+ * @author Michael
+ */
+public final class AvailabilityProjection {
+    /**
+     * The timeline of materials without inventory and scheduled quantities.
+     */
+    private static final Timeline EMPTY_TIMELINE = new Timeline(0, new int[0], new long[0], new long[0]);
+
+    /**
+     * The published timelines of the materials.
+     */
+    private final Map<Integer, Timeline> timelines = new ConcurrentHashMap<Integer, Timeline>();
+
+    /**
+     * The inventories of the materials. Guarded by the projection.
+     */
+    private final Map<Integer, Long> inventories = new HashMap<Integer, Long>();
+
+    /**
+     * The scheduled quantities of each material by day. Guarded by the projection.
+     */
+    private final Map<Integer, TreeMap<Integer, Long>> scheduledQuantities = new HashMap<Integer,
+            TreeMap<Integer, Long>>();
+
+    /**
+     * The scheduled quantities of each order. Guarded by the projection.
+     */
+    private final Map<String, OrderQuantities> orders = new HashMap<String, OrderQuantities>();
+
+    /**
+     * The IDs of the materials changed during a bulk update. Null, if no bulk update is active. Guarded by the
+     * projection.
+     */
+    private Set<Integer> bulkMaterialIds;
+
+    /**
+     * Begins a bulk update. The timelines of the changed materials are published once the bulk update ends, so that
+     * each timeline is built only once for many changes.
+     */
+    public synchronized void beginBulkUpdate() {
+        this.bulkMaterialIds = new HashSet<Integer>();
+    }
+
+    /**
+     * Ends a bulk update and publishes the timelines of all materials changed during the bulk update.
+     */
+    public synchronized void endBulkUpdate() {
+        Set<Integer> materialIds = this.bulkMaterialIds;
+
+        this.bulkMaterialIds = null;
+
+        if (materialIds != null) {
+            materialIds.forEach(this::publish);
+        }
+    }
+
+    /**
+     * Sets the inventory of a material.
+     *
+     * @param materialId The ID of the material.
+     * @param inventory  The inventory.
+     */
+    public synchronized void setInventory(final int materialId, final long inventory) {
+        this.inventories.put(materialId, inventory);
+        this.changed(materialId);
+    }
+
+    /**
+     * Replaces the scheduled quantities of an order.
+     *
+     * @param orderKey    The distinct key of the order.
+     * @param materialIds The IDs of the materials.
+     * @param days        The days at which the quantities are scheduled as days since the epoch.
+     * @param quantities  The quantities added to the inventory. Negative quantities are removed from the inventory.
+     */
+    public synchronized void setOrder(final String orderKey, final int[] materialIds, final int[] days,
+            final long[] quantities) {
+        OrderQuantities previousQuantities = this.orders.remove(orderKey);
+        Set<Integer> changedMaterialIds = new HashSet<Integer>();
+
+        if (previousQuantities != null) {
+            this.schedule(previousQuantities, -1, changedMaterialIds);
+        }
+
+        if (materialIds.length > 0) {
+            OrderQuantities orderQuantities = new OrderQuantities(materialIds, days, quantities);
+
+            this.orders.put(orderKey, orderQuantities);
+            this.schedule(orderQuantities, 1, changedMaterialIds);
+        }
+
+        changedMaterialIds.forEach(this::changed);
+    }
+
+    /**
+     * Removes the scheduled quantities of an order.
+     *
+     * @param orderKey The distinct key of the order.
+     */
+    public void removeOrder(final String orderKey) {
+        this.setOrder(orderKey, new int[0], new int[0], new long[0]);
+    }
+
+    /**
+     * Determines the quantity of a material that can be promised for the given day without endangering the scheduled
+     * demand of the material at this day or later.
+     *
+     * @param materialId The ID of the material.
+     * @param day        The day at which the material is required as days since the epoch.
+     * @return The available quantity. Zero, if the projected inventory is negative.
+     */
+    public long getAvailableQuantity(final int materialId, final int day) {
+        return this.timelines.getOrDefault(materialId, EMPTY_TIMELINE).getAvailableQuantity(day);
+    }
+
+    /**
+     * Adds the quantities of an order to the scheduled quantities of the materials.
+     *
+     * @param orderQuantities    The quantities of the order.
+     * @param sign               1 to add the quantities, -1 to remove them.
+     * @param changedMaterialIds Receives the IDs of the changed materials.
+     */
+    private void schedule(final OrderQuantities orderQuantities, final long sign,
+            final Set<Integer> changedMaterialIds) {
+
+        for (int i = 0; i < orderQuantities.materialIds.length; i++) {
+            TreeMap<Integer, Long> materialQuantities = this.scheduledQuantities
+                    .computeIfAbsent(orderQuantities.materialIds[i], id -> new TreeMap<Integer, Long>());
+            Long quantity = materialQuantities.merge(orderQuantities.days[i], sign * orderQuantities.quantities[i],
+                    Math::addExact);
+
+            if (quantity == 0) {
+                materialQuantities.remove(orderQuantities.days[i]);
+            }
+
+            if (materialQuantities.isEmpty()) {
+                this.scheduledQuantities.remove(orderQuantities.materialIds[i]);
+            }
+
+            changedMaterialIds.add(orderQuantities.materialIds[i]);
+        }
+    }
+
+    /**
+     * Publishes the timeline of a changed material, unless a bulk update is active.
+     *
+     * @param materialId The ID of the material.
+     */
+    private void changed(final Integer materialId) {
+        if (this.bulkMaterialIds != null) {
+            this.bulkMaterialIds.add(materialId);
+        } else {
+            this.publish(materialId);
+        }
+    }
+
+    /**
+     * Publishes the timeline of a material according to its current inventory and scheduled quantities.
+     *
+     * @param materialId The ID of the material.
+     */
+    private void publish(final Integer materialId) {
+        TreeMap<Integer, Long> materialQuantities = this.scheduledQuantities.get(materialId);
+        int size = materialQuantities != null ? materialQuantities.size() : 0;
+        int[] days = new int[size];
+        long[] cumulativeQuantities = new long[size];
+        long[] minimumQuantities = new long[size];
+        long cumulativeQuantity = 0;
+        int index = 0;
+
+        if (materialQuantities != null) {
+            for (Map.Entry<Integer, Long> quantity : materialQuantities.entrySet()) {
+                cumulativeQuantity = Math.addExact(cumulativeQuantity, quantity.getValue());
+                days[index] = quantity.getKey();
+                cumulativeQuantities[index++] = cumulativeQuantity;
+            }
+        }
+
+        for (int i = size - 1; i >= 0; i--) {
+            minimumQuantities[i] = i == size - 1 ? cumulativeQuantities[i]
+                    : Math.min(cumulativeQuantities[i], minimumQuantities[i + 1]);
+        }
+
+        this.timelines.put(materialId, new Timeline(this.inventories.getOrDefault(materialId, 0L), days,
+                cumulativeQuantities, minimumQuantities));
+    }
+
+    /**
+     * The scheduled quantities of an order.
+     */
+    private static final class OrderQuantities {
+        /**
+         * The IDs of the materials.
+         */
+        private final int[] materialIds;
+
+        /**
+         * The days of the quantities.
+         */
+        private final int[] days;
+
+        /**
+         * The quantities.
+         */
+        private final long[] quantities;
+
+        /**
+         * Initializes the quantities of an order.
+         *
+         * @param materialIds The IDs of the materials.
+         * @param days        The days of the quantities.
+         * @param quantities  The quantities.
+         */
+        private OrderQuantities(final int[] materialIds, final int[] days, final long[] quantities) {
+            this.materialIds = materialIds.clone();
+            this.days = days.clone();
+            this.quantities = quantities.clone();
+        }
+    }
+
+    /**
+     * The immutable projection of the inventory of a material.
+     */
+    private static final class Timeline {
+        /**
+         * The inventory of the material.
+         */
+        private final long inventory;
+
+        /**
+         * The days with scheduled quantities in ascending order.
+         */
+        private final int[] days;
+
+        /**
+         * The sum of the scheduled quantities up to and including each day.
+         */
+        private final long[] cumulativeQuantities;
+
+        /**
+         * The minimum of the cumulative quantities of each day and all later days.
+         */
+        private final long[] minimumQuantities;
+
+        /**
+         * Initializes the timeline.
+         *
+         * @param inventory            The inventory of the material.
+         * @param days                 The days with scheduled quantities in ascending order.
+         * @param cumulativeQuantities The sum of the scheduled quantities up to and including each day.
+         * @param minimumQuantities    The minimum of the cumulative quantities of each day and all later days.
+         */
+        private Timeline(final long inventory, final int[] days, final long[] cumulativeQuantities,
+                final long[] minimumQuantities) {
+            this.inventory = inventory;
+            this.days = days;
+            this.cumulativeQuantities = cumulativeQuantities;
+            this.minimumQuantities = minimumQuantities;
+        }
+
+        /**
+         * Determines the lowest projected inventory at the given day or later.
+         *
+         * @param day The day as days since the epoch.
+         * @return The available quantity. Zero, if the projected inventory is negative.
+         */
+        private long getAvailableQuantity(final int day) {
+            int low = 0;
+            int high = this.days.length;
+            long minimumQuantity;
+
+            // Determines the first day after the given day.
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+
+                if (this.days[middle] <= day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            minimumQuantity = low > 0 ? this.cumulativeQuantities[low - 1] : 0;
+
+            if (low < this.days.length) {
+                minimumQuantity = Math.min(minimumQuantity, this.minimumQuantities[low]);
+            }
+
+            return Math.max(0, this.inventory + minimumQuantity);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package backend.model.planning;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * The inventories, demands and supplies the requirements planning is based on. The data is held in primitive arrays,
+ * so that the planning of several hundred thousand materials does not depend on entity graphs.
+ *
+ * Dates are given as days since the epoch. Positive quantities of events are supplies, negative quantities demands.
+ *
+ * @author Michael
+ */
+public final class PlanningInput {
+    /**
+     * The day of events that are available before any demand. Quantities that are on hand are supplied at this day.
+     */
+    public static final int ON_HAND_DAY = Integer.MIN_VALUE;
+
+    /**
+     * The initial capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The IDs of the materials in ascending order.
+     */
+    private int[] materialIds = new int[INITIAL_CAPACITY];
+
+    /**
+     * The inventories in the order of the material IDs.
+     */
+    private long[] inventories = new long[INITIAL_CAPACITY];
+
+    /**
+     * The number of materials.
+     */
+    private int materialCount;
+
+    /**
+     * The demands and supplies of the materials.
+     */
+    private final Events events = new Events();
+
+    /**
+     * The planned productions whose components are consumed according to the bills of material.
+     */
+    private final Events productions = new Events();
+
+    /**
+     * Adds a material. Materials have to be added in ascending order of their IDs.
+     *
+     * @param materialId The ID of the material.
+     * @param inventory  The inventory of the material.
+     */
+    public void addMaterial(final int materialId, final long inventory) {
+        if (this.materialCount > 0 && materialId <= this.materialIds[this.materialCount - 1]) {
+            throw new IllegalArgumentException("Materials have to be added in ascending order of their IDs.");
+        }
+
+        if (this.materialCount == this.materialIds.length) {
+            this.materialIds = Arrays.copyOf(this.materialIds, this.materialCount * 2);
+            this.inventories = Arrays.copyOf(this.inventories, this.materialCount * 2);
+        }
+
+        this.materialIds[this.materialCount] = materialId;
+        this.inventories[this.materialCount] = inventory;
+        this.materialCount++;
+    }
+
+    /**
+     * Adds a demand of a material.
+     *
+     * @param materialId The ID of the material.
+     * @param day        The day at which the material is required.
+     * @param quantity   The required quantity.
+     */
+    public void addDemand(final int materialId, final int day, final long quantity) {
+        this.events.add(materialId, day, -quantity);
+    }
+
+    /**
+     * Adds a demand of a material whose quantity has already been deducted from the inventory. The quantity is still on
+     * hand until the day at which the material is required.
+     *
+     * @param materialId The ID of the material.
+     * @param day        The day at which the material is required.
+     * @param quantity   The required quantity.
+     */
+    public void addReservedDemand(final int materialId, final int day, final long quantity) {
+        this.events.add(materialId, ON_HAND_DAY, quantity);
+        this.events.add(materialId, day, -quantity);
+    }
+
+    /**
+     * Adds a supply of a material.
+     *
+     * @param materialId The ID of the material.
+     * @param day        The day at which the material is received.
+     * @param quantity   The received quantity.
+     */
+    public void addSupply(final int materialId, final int day, final long quantity) {
+        this.events.add(materialId, day, quantity);
+    }
+
+    /**
+     * Adds a planned production of a material. The production supplies the material and consumes its components.
+     *
+     * @param materialId The ID of the produced material.
+     * @param day        The day at which the material is produced.
+     * @param quantity   The produced quantity.
+     */
+    public void addProduction(final int materialId, final int day, final long quantity) {
+        this.productions.add(materialId, day, quantity);
+    }
+
+    /**
+     * @return The number of materials.
+     */
+    public int getMaterialCount() {
+        return this.materialCount;
+    }
+
+    /**
+     * Provides the ID of the material at the given index.
+     *
+     * @param index The index.
+     * @return The ID of the material.
+     */
+    public int getMaterialId(final int index) {
+        return this.materialIds[index];
+    }
+
+    /**
+     * Provides the inventory of the material at the given index.
+     *
+     * @param index The index.
+     * @return The inventory of the material.
+     */
+    public long getInventory(final int index) {
+        return this.inventories[index];
+    }
+
+    /**
+     * Determines the index of the given material.
+     *
+     * @param materialId The ID of the material.
+     * @return The index of the material. Negative, if the material has not been added.
+     */
+    public int getMaterialIndex(final int materialId) {
+        return Arrays.binarySearch(this.materialIds, 0, this.materialCount, materialId);
+    }
+
+    /**
+     * @return The demands and supplies of the materials.
+     */
+    public Events getEvents() {
+        return this.events;
+    }
+
+    /**
+     * @return The planned productions.
+     */
+    public Events getProductions() {
+        return this.productions;
+    }
+
+    /**
+     * Converts a date to the number of days since the epoch in the default time zone.
+     *
+     * @param date The date.
+     * @return The days since the epoch.
+     */
+    public static int toDay(final Date date) {
+        return (int) Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * Converts a number of days since the epoch to the start of the day in the default time zone.
+     *
+     * @param day The days since the epoch.
+     * @return The date.
+     */
+    public static Date toDate(final int day) {
+        return Date.from(LocalDate.ofEpochDay(day).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Quantities of materials at certain days.
+     */
+    public static final class Events {
+        /**
+         * The IDs of the materials.
+         */
+        private int[] materialIds = new int[INITIAL_CAPACITY];
+
+        /**
+         * The days of the events.
+         */
+        private int[] days = new int[INITIAL_CAPACITY];
+
+        /**
+         * The quantities of the events.
+         */
+        private long[] quantities = new long[INITIAL_CAPACITY];
+
+        /**
+         * The number of events.
+         */
+        private int size;
+
+        /**
+         * Adds an event.
+         *
+         * @param materialId The ID of the material.
+         * @param day        The day of the event.
+         * @param quantity   The quantity of the event.
+         */
+        private void add(final int materialId, final int day, final long quantity) {
+            if (this.size == this.materialIds.length) {
+                this.materialIds = Arrays.copyOf(this.materialIds, this.size * 2);
+                this.days = Arrays.copyOf(this.days, this.size * 2);
+                this.quantities = Arrays.copyOf(this.quantities, this.size * 2);
+            }
+
+            this.materialIds[this.size] = materialId;
+            this.days[this.size] = day;
+            this.quantities[this.size] = quantity;
+            this.size++;
+        }
+
+        /**
+         * @return The number of events.
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Provides the ID of the material of the event at the given index.
+         *
+         * @param index The index.
+         * @return The ID of the material.
+         */
+        public int getMaterialId(final int index) {
+            return this.materialIds[index];
+        }
+
+        /**
+         * Provides the day of the event at the given index.
+         *
+         * @param index The index.
+         * @return The days since the epoch.
+         */
+        public int getDay(final int index) {
+            return this.days[index];
+        }
+
+        /**
+         * Provides the quantity of the event at the given index.
+         *
+         * @param index The index.
+         * @return The quantity.
+         */
+        public long getQuantity(final int index) {
+            return this.quantities[index];
+        }
+    }
+}
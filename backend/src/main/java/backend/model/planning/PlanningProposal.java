@@ -0,0 +1,180 @@
+package backend.model.planning;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import backend.model.BlockSequenceGenerator;
+import backend.model.material.Material;
+
+/**
+ * An order proposed by the requirements planning to cover the net requirement of a material at a certain date.
+ *
+ * The proposals of a planning run replace the proposals of the previous run.
+ *
+ * @author Michael
+ */
+@Table(name = "PLANNING_PROPOSAL")
+@Entity
+@GenericGenerator(name = "planningProposalSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "planningProposalSequence"))
+public class PlanningProposal {
+    /**
+     * The maximum type field length allowed.
+     */
+    private static final int MAX_TYPE_LENGTH = 20;
+
+    /**
+     * The distinct identification number.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "planningProposalSequence")
+    @Column(name = "PROPOSAL_ID")
+    private Integer id;
+
+    /**
+     * The material whose requirement is covered.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "MATERIAL_ID", nullable = false)
+    @JsonIgnore
+    private Material material;
+
+    /**
+     * The kind of the proposed order.
+     */
+    @Column(name = "TYPE", length = MAX_TYPE_LENGTH, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PlanningProposalType type;
+
+    /**
+     * The quantity to be ordered.
+     */
+    @Column(name = "QUANTITY", nullable = false)
+    private Long quantity;
+
+    /**
+     * The date at which the quantity is required.
+     */
+    @Column(name = "REQUIREMENT_DATE", nullable = false)
+    private Date requirementDate;
+
+    /**
+     * The date and time of the planning run that created the proposal.
+     */
+    @Column(name = "CREATED_AT", nullable = false)
+    private Date createdAt;
+
+    /**
+     * @return the id
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id to set
+     */
+    public void setId(final Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the material
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * @param material the material to set
+     */
+    public void setMaterial(final Material material) {
+        this.material = material;
+    }
+
+    /**
+     * Provides the ID of the material without loading the material.
+     *
+     * @return The ID of the material whose requirement is covered.
+     */
+    public Integer getMaterialId() {
+        if (this.material == null) {
+            return null;
+        }
+
+        return this.material.getId();
+    }
+
+    /**
+     * @return the type
+     */
+    public PlanningProposalType getType() {
+        return type;
+    }
+
+    /**
+     * @param type the type to set
+     */
+    public void setType(final PlanningProposalType type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the quantity
+     */
+    public Long getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * @param quantity the quantity to set
+     */
+    public void setQuantity(final Long quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * @return the requirementDate
+     */
+    public Date getRequirementDate() {
+        return requirementDate;
+    }
+
+    /**
+     * @param requirementDate the requirementDate to set
+     */
+    public void setRequirementDate(final Date requirementDate) {
+        this.requirementDate = requirementDate;
+    }
+
+    /**
+     * @return the createdAt
+     */
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @param createdAt the createdAt to set
+     */
+    public void setCreatedAt(final Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
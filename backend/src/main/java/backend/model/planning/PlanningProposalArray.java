@@ -0,0 +1,55 @@
+package backend.model.planning;
+
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+/**
+ * A list of planning proposals.
+ *
+ * @author Michael
+ */
+@XmlRootElement(name = "planningProposals")
+public class PlanningProposalArray {
+    /**
+     * A list of planning proposals.
+     */
+    private List<PlanningProposal> planningProposals = null;
+
+    /**
+     * The ID to be used as afterId to read the next page of proposals. Null, if there are no further proposals.
+     */
+    private Integer nextAfterId;
+
+    /**
+     * @return the planningProposals
+     */
+    @XmlElementWrapper(name = "planningProposals")
+    @XmlElement(name = "planningProposal")
+    public List<PlanningProposal> getPlanningProposals() {
+        return planningProposals;
+    }
+
+    /**
+     * @param planningProposals the planningProposals to set
+     */
+    public void setPlanningProposals(final List<PlanningProposal> planningProposals) {
+        this.planningProposals = planningProposals;
+    }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
@@ -0,0 +1,18 @@
+package backend.model.planning;
+
+/**
+ * The kind of order proposed by the requirements planning.
+ *
+ * @author Michael
+ */
+public enum PlanningProposalType {
+    /**
+     * The material has to be purchased from a vendor.
+     */
+    PURCHASE,
+
+    /**
+     * The material has to be produced according to its bill of material.
+     */
+    PRODUCTION
+}
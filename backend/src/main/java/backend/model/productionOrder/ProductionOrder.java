@@ -15,8 +15,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -24,10 +24,17 @@ import jakarta.validation.ValidatorFactory;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import backend.exception.DuplicateIdentifierException;
 import backend.exception.NoItemsException;
+import backend.model.BlockSequenceGenerator;
+import backend.model.ItemIndex;
+import backend.model.VersionedEntity;
 
 /**
  * Represents an order to produce a certain amount of materials.
@@ -36,9 +43,10 @@ import backend.exception.NoItemsException;
  */
 @Table(name = "PRODUCTION_ORDER")
 @Entity
-@SequenceGenerator(name = "productionOrderSequence", initialValue = 1, allocationSize = 1)
+@GenericGenerator(name = "productionOrderSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "productionOrderSequence"))
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
-public class ProductionOrder {
+public class ProductionOrder extends VersionedEntity {
     /**
      * The maximum status field length allowed.
      */
@@ -86,6 +94,13 @@ public class ProductionOrder {
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "productionOrder")
     private List<ProductionOrderItem> items;
 
+    /**
+     * The index of the items by their ID.
+     */
+    @Transient
+    private final ItemIndex<ProductionOrderItem> itemIndex = new ItemIndex<ProductionOrderItem>(
+            ProductionOrderItem::getId);
+
     /**
      * Default constructor.
      */
@@ -102,6 +117,7 @@ public class ProductionOrder {
     public void addItem(final ProductionOrderItem item) {
         item.setProductionOrder(this);
         this.items.add(item);
+        this.itemIndex.invalidate();
     }
 
     /**
@@ -176,10 +192,10 @@ public class ProductionOrder {
     }
 
     /**
-     * @return the items
+     * @return the items. Changes of the items are tracked by the index of the items.
      */
     public List<ProductionOrderItem> getItems() {
-        return items;
+        return this.itemIndex.track(this.items);
     }
 
     /**
@@ -187,6 +203,7 @@ public class ProductionOrder {
      */
     public void setItems(final List<ProductionOrderItem> items) {
         this.items = items;
+        this.itemIndex.invalidate();
     }
 
     /**
@@ -331,13 +348,14 @@ public class ProductionOrder {
      * @return The item with the given id, if found.
      */
     public ProductionOrderItem getItemWithId(final Integer itemId) {
-        for (ProductionOrderItem tempItem : this.items) {
-            if (tempItem.getId() == itemId) {
-                return tempItem;
-            }
-        }
+        return this.itemIndex.getItem(this.items, itemId);
+    }
 
-        return null;
+    /**
+     * Invalidates the index of the items. Called if an item has been changed.
+     */
+    void invalidateItemIndex() {
+        this.itemIndex.invalidate();
     }
 
     /**
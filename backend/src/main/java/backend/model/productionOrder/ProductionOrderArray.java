@@ -18,6 +18,12 @@ public class ProductionOrderArray {
      */
     private List<ProductionOrder> productionOrders = null;
 
+    /**
+     * The ID to be used as afterId to read the next page of production orders. Null, if there are no further
+     * production orders.
+     */
+    private Integer nextAfterId;
+
     /**
      * @return the productionOrders
      */
@@ -33,4 +39,18 @@ public class ProductionOrderArray {
     public void setProductionOrders(final List<ProductionOrder> productionOrders) {
         this.productionOrders = productionOrders;
     }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
 }
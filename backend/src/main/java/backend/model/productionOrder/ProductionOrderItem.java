@@ -21,6 +21,8 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
+import org.hibernate.Hibernate;
+
 /**
  * An item of a production order representing a material in a certain quantity that is going to be produced.
  *
@@ -83,6 +85,7 @@ public class ProductionOrderItem {
      */
     public void setId(final Integer id) {
         this.id = id;
+        this.invalidateItemIndex();
     }
 
     /**
@@ -202,4 +205,13 @@ public class ProductionOrderItem {
             throw new Exception(violation.getMessage());
         }
     }
+
+    /**
+     * Invalidates the item index of the production order, if the production order has been loaded.
+     */
+    private void invalidateItemIndex() {
+        if (this.productionOrder != null && Hibernate.isInitialized(this.productionOrder)) {
+            this.productionOrder.invalidateItemIndex();
+        }
+    }
 }
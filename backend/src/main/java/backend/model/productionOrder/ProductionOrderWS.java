@@ -16,6 +16,11 @@ public class ProductionOrderWS {
      */
     private Integer productionOrderId;
 
+    /**
+     * The version of the production order that has been read. Used to detect concurrent modifications.
+     */
+    private Long version;
+
     /**
      * The order date.
      */
@@ -71,6 +76,20 @@ public class ProductionOrderWS {
         this.productionOrderId = productionOrderId;
     }
 
+    /**
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version the version to set
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
     /**
      * @return the orderDate
      */
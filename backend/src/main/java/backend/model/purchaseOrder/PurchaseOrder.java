@@ -5,6 +5,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -13,7 +14,10 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import backend.exception.DuplicateIdentifierException;
 import backend.exception.NoItemsException;
+import backend.model.BlockSequenceGenerator;
 import backend.model.Currency;
+import backend.model.ItemIndex;
+import backend.model.VersionedEntity;
 import backend.model.account.Account;
 import backend.model.businessPartner.BusinessPartner;
 import jakarta.persistence.CascadeType;
@@ -30,9 +34,12 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 /**
  * Represents an order of goods from a vendor.
  *
@@ -40,9 +47,10 @@ import jakarta.persistence.Table;
  */
 @Table(name = "PURCHASE_ORDER")
 @Entity
-@SequenceGenerator(name = "purchaseOrderSequence", initialValue = 1, allocationSize = 1)
+@GenericGenerator(name = "purchaseOrderSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "purchaseOrderSequence"))
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
-public class PurchaseOrder {
+public class PurchaseOrder extends VersionedEntity {
     /**
      * The maximum status field length allowed.
      */
@@ -101,6 +109,12 @@ public class PurchaseOrder {
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "purchaseOrder")
     private Set<PurchaseOrderItem> items;
 
+    /**
+     * The index of the items by their ID.
+     */
+    @Transient
+    private final ItemIndex<PurchaseOrderItem> itemIndex = new ItemIndex<PurchaseOrderItem>(PurchaseOrderItem::getId);
+
     /**
      * Default constructor.
      */
@@ -119,6 +133,7 @@ public class PurchaseOrder {
     public void addItem(final PurchaseOrderItem item) {
         item.setPurchaseOrder(this);
         this.items.add(item);
+        this.itemIndex.invalidate();
     }
 
     /**
@@ -240,10 +255,10 @@ public class PurchaseOrder {
     }
 
     /**
-     * @return the items
+     * @return the items. Changes of the items are tracked by the index of the items.
      */
     public Set<PurchaseOrderItem> getItems() {
-        return items;
+        return this.itemIndex.track(this.items);
     }
 
     /**
@@ -251,6 +266,7 @@ public class PurchaseOrder {
      */
     public void setItems(final Set<PurchaseOrderItem> items) {
         this.items = items;
+        this.itemIndex.invalidate();
     }
 
     /**
@@ -459,28 +475,23 @@ public class PurchaseOrder {
      * @return The item with the given id, if found.
      */
     public PurchaseOrderItem getItemWithId(final Integer itemId) {
-        for (PurchaseOrderItem tempItem : this.items) {
-            if (tempItem.getId() == itemId) {
-                return tempItem;
-            }
-        }
+        return this.itemIndex.getItem(this.items, itemId);
+    }
 
-        return null;
+    /**
+     * Invalidates the index of the items. Called if an item has been changed.
+     */
+    void invalidateItemIndex() {
+        this.itemIndex.invalidate();
     }
 
     /**
-     * Gets the total price of all items.
+     * Gets the total price of all items. The total price is determined once and reused until the items change.
      *
      * @return The total price of all items.
      */
     public BigDecimal getPriceTotal() {
-        BigDecimal priceTotal = BigDecimal.valueOf(0);
-
-        for (PurchaseOrderItem tempItem : this.items) {
-            priceTotal = priceTotal.add(tempItem.getPriceTotal());
-        }
-
-        return priceTotal;
+        return this.itemIndex.getPriceTotal(this.items, PurchaseOrderItem::getPriceTotal);
     }
 
     /**
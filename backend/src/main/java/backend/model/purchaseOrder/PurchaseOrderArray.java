@@ -16,6 +16,12 @@ public class PurchaseOrderArray {
      */
     private List<PurchaseOrder> purchaseOrders = null;
 
+    /**
+     * The ID to be used as afterId to read the next page of purchase orders. Null, if there are no further
+     * purchase orders.
+     */
+    private Integer nextAfterId;
+
     /**
      * @return the purchaseOrders
      */
@@ -31,4 +37,18 @@ public class PurchaseOrderArray {
     public void setPurchaseOrders(final List<PurchaseOrder> purchaseOrders) {
         this.purchaseOrders = purchaseOrders;
     }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
 }
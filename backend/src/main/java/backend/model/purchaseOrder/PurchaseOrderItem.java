@@ -10,6 +10,7 @@ import jakarta.validation.ValidatorFactory;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import org.hibernate.Hibernate;
 import org.hibernate.validator.HibernateValidator;
 import org.hibernate.validator.messageinterpolation.ExpressionLanguageFeatureLevel;
 
@@ -93,6 +94,7 @@ public class PurchaseOrderItem {
      */
     public void setId(final Integer id) {
         this.id = id;
+        this.invalidateItemIndex();
     }
 
     /**
@@ -122,6 +124,7 @@ public class PurchaseOrderItem {
     public void setMaterial(final Material material) {
         this.material = material;
         this.updatePriceTotal();
+        this.invalidateItemIndex();
     }
 
     /**
@@ -137,6 +140,7 @@ public class PurchaseOrderItem {
     public void setQuantity(final Long quantity) {
         this.quantity = quantity;
         this.updatePriceTotal();
+        this.invalidateItemIndex();
     }
 
     /**
@@ -151,6 +155,7 @@ public class PurchaseOrderItem {
      */
     public void setPriceTotal(final BigDecimal priceTotal) {
         this.priceTotal = priceTotal;
+        this.invalidateItemIndex();
     }
 
     /**
@@ -250,4 +255,13 @@ public class PurchaseOrderItem {
             throw new Exception(violation.getMessage());
         }
     }
+
+    /**
+     * Invalidates the item index of the purchase order, if the purchase order has been loaded.
+     */
+    private void invalidateItemIndex() {
+        if (this.purchaseOrder != null && Hibernate.isInitialized(this.purchaseOrder)) {
+            this.purchaseOrder.invalidateItemIndex();
+        }
+    }
 }
@@ -2,6 +2,10 @@ package backend.model.purchaseOrder;
 
 import java.math.BigDecimal;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import backend.model.material.Material;
+
 /**
  * A lean version of a purchase order item that is used by the WebService to transfer object data. The main difference
  * to the regular PurchaseOrderItem is that IDs are used instead of object references.
@@ -29,6 +33,11 @@ public class PurchaseOrderItemWS {
      */
     private BigDecimal priceTotal;
 
+    /**
+     * The material that is being ordered. Only provided on read, if the relation is expanded. Ignored on write.
+     */
+    private Material material;
+
     /**
      * @return the itemId
      */
@@ -84,4 +93,19 @@ public class PurchaseOrderItemWS {
     public void setPriceTotal(final BigDecimal priceTotal) {
         this.priceTotal = priceTotal;
     }
+
+    /**
+     * @return the material
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * @param material the material to set
+     */
+    public void setMaterial(final Material material) {
+        this.material = material;
+    }
 }
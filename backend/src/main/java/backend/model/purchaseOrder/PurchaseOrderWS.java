@@ -6,9 +6,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import backend.model.account.Account;
+import backend.model.businessPartner.BusinessPartner;
+
 /**
  * A lean version of a purchase order that is used by the WebService to transfer object data. The main difference to the
- * regular PurchaseOrder is that IDs are used instead of object references.
+ * regular PurchaseOrder is that IDs are used instead of object references. On read, selected references can be
+ * expanded to the referenced objects.
  *
  * @author Michael
  */
@@ -18,6 +24,11 @@ public class PurchaseOrderWS {
      */
     private Integer purchaseOrderId;
 
+    /**
+     * The version of the purchase order that has been read. Used to detect concurrent modifications.
+     */
+    private Long version;
+
     /**
      * The ID of the vendor.
      */
@@ -48,6 +59,16 @@ public class PurchaseOrderWS {
      */
     private List<PurchaseOrderItemWS> items;
 
+    /**
+     * The vendor. Only provided on read, if the relation is expanded. Ignored on write.
+     */
+    private BusinessPartner vendor;
+
+    /**
+     * The payment account. Only provided on read, if the relation is expanded. Ignored on write.
+     */
+    private Account paymentAccount;
+
     /**
      * Constructor.
      */
@@ -79,6 +100,20 @@ public class PurchaseOrderWS {
         this.purchaseOrderId = purchaseOrderId;
     }
 
+    /**
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version the version to set
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
     /**
      * @return the vendorId
      */
@@ -162,4 +197,34 @@ public class PurchaseOrderWS {
     public void setItems(final List<PurchaseOrderItemWS> items) {
         this.items = items;
     }
+
+    /**
+     * @return the vendor
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public BusinessPartner getVendor() {
+        return vendor;
+    }
+
+    /**
+     * @param vendor the vendor to set
+     */
+    public void setVendor(final BusinessPartner vendor) {
+        this.vendor = vendor;
+    }
+
+    /**
+     * @return the paymentAccount
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Account getPaymentAccount() {
+        return paymentAccount;
+    }
+
+    /**
+     * @param paymentAccount the paymentAccount to set
+     */
+    public void setPaymentAccount(final Account paymentAccount) {
+        this.paymentAccount = paymentAccount;
+    }
 }
@@ -0,0 +1,54 @@
+package backend.model.purchaseOrder;
+
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+
+/**
+ * A list of lean purchase orders.
+ *
+ * @author Michael
+ */
+public class PurchaseOrderWSArray {
+    /**
+     * A list of purchase orders.
+     */
+    private List<PurchaseOrderWS> purchaseOrders = null;
+
+    /**
+     * The ID to be used as afterId to read the next page of purchase orders. Null, if there are no further
+     * purchase orders.
+     */
+    private Integer nextAfterId;
+
+    /**
+     * @return the purchaseOrders
+     */
+    @XmlElementWrapper(name = "purchaseOrders")
+    @XmlElement(name = "purchaseOrder")
+    public List<PurchaseOrderWS> getPurchaseOrders() {
+        return purchaseOrders;
+    }
+
+    /**
+     * @param purchaseOrders the purchaseOrders to set
+     */
+    public void setPurchaseOrders(final List<PurchaseOrderWS> purchaseOrders) {
+        this.purchaseOrders = purchaseOrders;
+    }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
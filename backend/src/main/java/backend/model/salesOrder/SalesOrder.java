@@ -17,17 +17,24 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import backend.exception.DuplicateIdentifierException;
 import backend.exception.NoItemsException;
 import backend.exception.QuantityExceedsInventoryException;
+import backend.model.BlockSequenceGenerator;
 import backend.model.Currency;
+import backend.model.ItemIndex;
+import backend.model.VersionedEntity;
 import backend.model.account.Account;
 import backend.model.businessPartner.BusinessPartner;
 
@@ -38,9 +45,10 @@ import backend.model.businessPartner.BusinessPartner;
  */
 @Table(name = "SALES_ORDER")
 @Entity
-@SequenceGenerator(name = "salesOrderSequence", initialValue = 1, allocationSize = 1)
+@GenericGenerator(name = "salesOrderSequence", type = BlockSequenceGenerator.class, parameters = @Parameter(
+        name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "salesOrderSequence"))
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
-public class SalesOrder {
+public class SalesOrder extends VersionedEntity {
     /**
      * The maximum status field length allowed.
      */
@@ -113,6 +121,12 @@ public class SalesOrder {
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "salesOrder")
     private Set<SalesOrderItem> items;
 
+    /**
+     * The index of the items by their ID.
+     */
+    @Transient
+    private final ItemIndex<SalesOrderItem> itemIndex = new ItemIndex<SalesOrderItem>(SalesOrderItem::getId);
+
     /**
      * Default constructor.
      */
@@ -129,6 +143,7 @@ public class SalesOrder {
     public void addItem(final SalesOrderItem item) {
         item.setSalesOrder(this);
         this.items.add(item);
+        this.itemIndex.invalidate();
     }
 
     /**
@@ -230,10 +245,10 @@ public class SalesOrder {
     }
 
     /**
-     * @return the items
+     * @return the items. Changes of the items are tracked by the index of the items.
      */
     public Set<SalesOrderItem> getItems() {
-        return items;
+        return this.itemIndex.track(this.items);
     }
 
     /**
@@ -241,6 +256,7 @@ public class SalesOrder {
      */
     public void setItems(final Set<SalesOrderItem> items) {
         this.items = items;
+        this.itemIndex.invalidate();
     }
 
     /**
@@ -448,28 +464,23 @@ public class SalesOrder {
      * @return The item with the given id, if found.
      */
     public SalesOrderItem getItemWithId(final Integer itemId) {
-        for (SalesOrderItem tempItem : this.items) {
-            if (tempItem.getId() == itemId) {
-                return tempItem;
-            }
-        }
+        return this.itemIndex.getItem(this.items, itemId);
+    }
 
-        return null;
+    /**
+     * Invalidates the index of the items. Called if an item has been changed.
+     */
+    void invalidateItemIndex() {
+        this.itemIndex.invalidate();
     }
 
     /**
-     * Gets the total price of all items.
+     * Gets the total price of all items. The total price is determined once and reused until the items change.
      *
      * @return The total price of all items.
      */
     public BigDecimal getPriceTotal() {
-        BigDecimal priceTotal = BigDecimal.valueOf(0);
-
-        for (SalesOrderItem tempItem : this.items) {
-            priceTotal = priceTotal.add(tempItem.getPriceTotal());
-        }
-
-        return priceTotal;
+        return this.itemIndex.getPriceTotal(this.items, SalesOrderItem::getPriceTotal);
     }
 
     /**
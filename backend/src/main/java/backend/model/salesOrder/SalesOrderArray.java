@@ -18,6 +18,11 @@ public class SalesOrderArray {
      */
     private List<SalesOrder> salesOrders = null;
 
+    /**
+     * The ID to be used as afterId to read the next page of sales orders. Null, if there are no further sales orders.
+     */
+    private Integer nextAfterId;
+
     /**
      * @return the salesOrders
      */
@@ -33,4 +38,18 @@ public class SalesOrderArray {
     public void setSalesOrders(final List<SalesOrder> salesOrders) {
         this.salesOrders = salesOrders;
     }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
 }
@@ -18,6 +18,8 @@ import jakarta.validation.ValidatorFactory;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import org.hibernate.Hibernate;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import backend.exception.QuantityExceedsInventoryException;
@@ -91,6 +93,7 @@ public class SalesOrderItem {
      */
     public void setId(final Integer id) {
         this.id = id;
+        this.invalidateItemIndex();
     }
 
     /**
@@ -106,6 +109,7 @@ public class SalesOrderItem {
     public void setMaterial(final Material material) {
         this.material = material;
         this.updatePriceTotal();
+        this.invalidateItemIndex();
     }
 
     /**
@@ -121,6 +125,7 @@ public class SalesOrderItem {
     public void setQuantity(final Long quantity) {
         this.quantity = quantity;
         this.updatePriceTotal();
+        this.invalidateItemIndex();
     }
 
     /**
@@ -251,4 +256,13 @@ public class SalesOrderItem {
             throw new QuantityExceedsInventoryException(this);
         }
     }
+
+    /**
+     * Invalidates the item index of the sales order, if the sales order has been loaded.
+     */
+    private void invalidateItemIndex() {
+        if (this.salesOrder != null && Hibernate.isInitialized(this.salesOrder)) {
+            this.salesOrder.invalidateItemIndex();
+        }
+    }
 }
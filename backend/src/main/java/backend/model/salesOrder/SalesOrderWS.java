@@ -4,9 +4,15 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import backend.model.account.Account;
+import backend.model.businessPartner.BusinessPartner;
+
 /**
  * A lean version of a sales order that is used by the WebService to transfer object data. The main difference to the
- * regular SalesOrder is that IDs are used instead of object references.
+ * regular SalesOrder is that IDs are used instead of object references. On read, selected references can be
+ * expanded to the referenced objects.
  *
  * @author Michael
  */
@@ -16,6 +22,11 @@ public class SalesOrderWS {
      */
     private Integer salesOrderId;
 
+    /**
+     * The version of the sales order that has been read. Used to detect concurrent modifications.
+     */
+    private Long version;
+
     /**
      * The ID of the sold-to party.
      */
@@ -56,6 +67,26 @@ public class SalesOrderWS {
      */
     private List<SalesOrderItemWS> items;
 
+    /**
+     * The sold-to party. Only provided on read, if the relation is expanded. Ignored on write.
+     */
+    private BusinessPartner soldToParty;
+
+    /**
+     * The ship-to party. Only provided on read, if the relation is expanded. Ignored on write.
+     */
+    private BusinessPartner shipToParty;
+
+    /**
+     * The bill-to party. Only provided on read, if the relation is expanded. Ignored on write.
+     */
+    private BusinessPartner billToParty;
+
+    /**
+     * The payment account. Only provided on read, if the relation is expanded. Ignored on write.
+     */
+    private Account paymentAccount;
+
     /**
      * Constructor.
      */
@@ -86,6 +117,20 @@ public class SalesOrderWS {
         this.salesOrderId = salesOrderId;
     }
 
+    /**
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version the version to set
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
     /**
      * @return the soldToId
      */
@@ -197,4 +242,64 @@ public class SalesOrderWS {
     public void setStatus(final SalesOrderStatus status) {
         this.status = status;
     }
+
+    /**
+     * @return the soldToParty
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public BusinessPartner getSoldToParty() {
+        return soldToParty;
+    }
+
+    /**
+     * @param soldToParty the soldToParty to set
+     */
+    public void setSoldToParty(final BusinessPartner soldToParty) {
+        this.soldToParty = soldToParty;
+    }
+
+    /**
+     * @return the shipToParty
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public BusinessPartner getShipToParty() {
+        return shipToParty;
+    }
+
+    /**
+     * @param shipToParty the shipToParty to set
+     */
+    public void setShipToParty(final BusinessPartner shipToParty) {
+        this.shipToParty = shipToParty;
+    }
+
+    /**
+     * @return the billToParty
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public BusinessPartner getBillToParty() {
+        return billToParty;
+    }
+
+    /**
+     * @param billToParty the billToParty to set
+     */
+    public void setBillToParty(final BusinessPartner billToParty) {
+        this.billToParty = billToParty;
+    }
+
+    /**
+     * @return the paymentAccount
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Account getPaymentAccount() {
+        return paymentAccount;
+    }
+
+    /**
+     * @param paymentAccount the paymentAccount to set
+     */
+    public void setPaymentAccount(final Account paymentAccount) {
+        this.paymentAccount = paymentAccount;
+    }
 }
@@ -0,0 +1,53 @@
+package backend.model.salesOrder;
+
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+
+/**
+ * A list of lean sales orders.
+ *
+ * @author Michael
+ */
+public class SalesOrderWSArray {
+    /**
+     * A list of sales orders.
+     */
+    private List<SalesOrderWS> salesOrders = null;
+
+    /**
+     * The ID to be used as afterId to read the next page of sales orders. Null, if there are no further sales orders.
+     */
+    private Integer nextAfterId;
+
+    /**
+     * @return the salesOrders
+     */
+    @XmlElementWrapper(name = "salesOrders")
+    @XmlElement(name = "salesOrder")
+    public List<SalesOrderWS> getSalesOrders() {
+        return salesOrders;
+    }
+
+    /**
+     * @param salesOrders the salesOrders to set
+     */
+    public void setSalesOrders(final List<SalesOrderWS> salesOrders) {
+        this.salesOrders = salesOrders;
+    }
+
+    /**
+     * @return the nextAfterId
+     */
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    /**
+     * @param nextAfterId the nextAfterId to set
+     */
+    public void setNextAfterId(final Integer nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
@@ -1,6 +1,12 @@
 package backend.webservice.common;
 
+import java.math.BigDecimal;
 import java.text.MessageFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
 import java.util.ResourceBundle;
 
 import org.apache.logging.log4j.LogManager;
@@ -8,9 +14,13 @@ import org.apache.logging.log4j.Logger;
 
 import backend.dao.AccountDao;
 import backend.dao.DAOManager;
+import backend.dao.PostingDao;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.account.Account;
 import backend.model.account.AccountArray;
+import backend.model.account.Posting;
+import backend.model.account.PostingArray;
 import backend.model.webservice.WebServiceMessage;
 import backend.model.webservice.WebServiceMessageType;
 import backend.model.webservice.WebServiceResult;
@@ -26,6 +36,11 @@ public class AccountService {
      */
     private AccountDao accountDAO;
 
+    /**
+     * DAO for posting access.
+     */
+    private PostingDao postingDAO;
+
     /**
      * Access to localized application resources.
      */
@@ -41,6 +56,7 @@ public class AccountService {
      */
     public AccountService() {
         this.accountDAO = DAOManager.getInstance().getAccountDAO();
+        this.postingDAO = DAOManager.getInstance().getPostingDAO();
     }
 
     /**
@@ -96,6 +112,134 @@ public class AccountService {
         return getAccountsResult;
     }
 
+    /**
+     * Provides a page of accounts ordered by ID.
+     *
+     * @param afterId Only accounts with an ID greater than this ID are provided. Can be null.
+     * @param limit   The maximum number of accounts. All objects are provided, if neither limit nor afterId is given.
+     *                The default limit is used, if only afterId is given.
+     * @return The accounts of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getAccounts(final Integer afterId, final Integer limit) {
+        AccountArray accounts = new AccountArray();
+        WebServiceResult getAccountsResult = new WebServiceResult(null);
+        List<Account> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getAccountsResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getAccountsResult;
+        }
+
+        try {
+            page = this.accountDAO.getAccounts(afterId, Pagination.getQueryLimit(afterId, limit));
+            accounts.setNextAfterId(Pagination.trimPage(page, afterId, limit, Account::getId));
+            accounts.setAccounts(page);
+            getAccountsResult.setData(accounts);
+        } catch (Exception e) {
+            getAccountsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("account.getAccountsError")));
+
+            LOGGER.error(this.resources.getString("account.getAccountsError"), e);
+        }
+
+        return getAccountsResult;
+    }
+
+    /**
+     * Provides a page of the postings of the account with the given id ordered by ID.
+     *
+     * @param id      The id of the account.
+     * @param afterId Only postings with an ID greater than this ID are provided. Can be null.
+     * @param limit   The maximum number of postings. All objects are provided, if neither limit nor afterId is given.
+     *                The default limit is used, if only afterId is given.
+     * @return The postings of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getPostings(final Integer id, final Integer afterId, final Integer limit) {
+        PostingArray postings = new PostingArray();
+        WebServiceResult getPostingsResult = new WebServiceResult(null);
+        List<Posting> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getPostingsResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getPostingsResult;
+        }
+
+        try {
+            page = this.postingDAO.getPostings(id, afterId, Pagination.getQueryLimit(afterId, limit));
+            postings.setNextAfterId(Pagination.trimPage(page, afterId, limit, Posting::getId));
+            postings.setPostings(page);
+            getPostingsResult.setData(postings);
+        } catch (Exception e) {
+            getPostingsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("account.getPostingsError"), id)));
+
+            LOGGER.error(MessageFormat.format(this.resources.getString("account.getPostingsError"), id), e);
+        }
+
+        return getPostingsResult;
+    }
+
+    /**
+     * Provides the statement of the account with the given id for a time range. The statement is written by the
+     * provided AccountStatementWriter.
+     *
+     * @param id             The id of the account.
+     * @param from           The first day of the time range in the format yyyy-MM-dd.
+     * @param to             The last day of the time range in the format yyyy-MM-dd.
+     * @param counterpartyId Only postings with the business partner of this ID are provided. Can be null.
+     * @return The AccountStatementWriter of the statement.
+     */
+    public WebServiceResult getAccountStatement(final Integer id, final String from, final String to,
+            final Integer counterpartyId) {
+
+        WebServiceResult getStatementResult = new WebServiceResult(null);
+        LocalDate fromDate = this.parseDay(from);
+        LocalDate toDate = this.parseDay(to);
+        Date periodStart;
+        Account account;
+        BigDecimal openingBalance;
+
+        if (fromDate == null || toDate == null) {
+            getStatementResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("account.statementInvalidDate")));
+            return getStatementResult;
+        }
+
+        if (fromDate.isAfter(toDate)) {
+            getStatementResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("account.statementInvalidPeriod")));
+            return getStatementResult;
+        }
+
+        periodStart = this.getStartOfDay(fromDate);
+
+        try {
+            account = this.accountDAO.getAccount(id);
+
+            if (account == null) {
+                getStatementResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        MessageFormat.format(this.resources.getString("account.notFound"), id)));
+                return getStatementResult;
+            }
+
+            if (counterpartyId == null) {
+                openingBalance = this.accountDAO.getBalance(id, periodStart);
+            } else {
+                openingBalance = BigDecimal.ZERO;
+            }
+
+            getStatementResult.setData(new AccountStatementWriter(this.postingDAO, account, periodStart,
+                    this.getStartOfDay(toDate.plusDays(1)), counterpartyId, openingBalance));
+        } catch (Exception e) {
+            getStatementResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("account.statementError"), id)));
+
+            LOGGER.error(MessageFormat.format(this.resources.getString("account.statementError"), id), e);
+        }
+
+        return getStatementResult;
+    }
+
     /**
      * Adds an account.
      *
@@ -189,6 +333,9 @@ public class AccountService {
         } catch (ObjectUnchangedException objectUnchangedException) {
             updateAccountResult.addMessage(new WebServiceMessage(WebServiceMessageType.I,
                     MessageFormat.format(this.resources.getString("account.updateUnchanged"), account.getId())));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            updateAccountResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("account.updateConflict"), account.getId())));
         } catch (Exception e) {
             updateAccountResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
                     MessageFormat.format(this.resources.getString("account.updateError"), account.getId())));
@@ -198,4 +345,32 @@ public class AccountService {
 
         return updateAccountResult;
     }
+
+    /**
+     * Parses the given day.
+     *
+     * @param day The day in the format yyyy-MM-dd.
+     * @return The day. Null, if no valid day is given.
+     */
+    private LocalDate parseDay(final String day) {
+        if (day == null) {
+            return null;
+        }
+
+        try {
+            return LocalDate.parse(day);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Provides the start of the given day in the default time zone.
+     *
+     * @param day The day.
+     * @return The start of the day.
+     */
+    private Date getStartOfDay(final LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
 }
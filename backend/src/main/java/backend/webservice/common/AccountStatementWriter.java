@@ -0,0 +1,151 @@
+package backend.webservice.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import backend.dao.PostingDao;
+import backend.model.account.Account;
+import backend.model.account.Posting;
+import backend.model.account.PostingType;
+
+/**
+ * Writes the statement of an account for a time range as JSON.
+ *
+ * The postings are read from the database and written to the output one by one. Therefore statements of any length can
+ * be provided without holding all postings in memory. Each posting is followed by the balance after the posting.
+ *
+ * If the statement is restricted to a counterparty, the balance does not start with the balance of the account but with
+ * zero. The balance then is the total of the postings with the counterparty within the time range.
+ *
+ * @author Michael
+ */
+public class AccountStatementWriter {
+    /**
+     * DAO for posting access.
+     */
+    private final PostingDao postingDAO;
+
+    /**
+     * The account.
+     */
+    private final Account account;
+
+    /**
+     * The start of the time range (inclusive).
+     */
+    private final Date from;
+
+    /**
+     * The end of the time range (exclusive).
+     */
+    private final Date to;
+
+    /**
+     * The ID of the counterparty the statement is restricted to. Null, if the statement is not restricted.
+     */
+    private final Integer counterpartyId;
+
+    /**
+     * The balance at the start of the time range.
+     */
+    private final BigDecimal openingBalance;
+
+    /**
+     * Initializes the writer.
+     *
+     * @param postingDAO     DAO for posting access.
+     * @param account        The account.
+     * @param from           The start of the time range (inclusive).
+     * @param to             The end of the time range (exclusive).
+     * @param counterpartyId The ID of the counterparty the statement is restricted to. Can be null.
+     * @param openingBalance The balance at the start of the time range.
+     */
+    public AccountStatementWriter(final PostingDao postingDAO, final Account account, final Date from, final Date to,
+            final Integer counterpartyId, final BigDecimal openingBalance) {
+
+        this.postingDAO = postingDAO;
+        this.account = account;
+        this.from = from;
+        this.to = to;
+        this.counterpartyId = counterpartyId;
+        this.openingBalance = openingBalance;
+    }
+
+    /**
+     * Writes the statement.
+     *
+     * @param outputStream The stream the statement is written to. The stream is not closed.
+     * @param objectMapper Writes the postings and other Java objects as JSON. The ObjectMapper of the WebService is
+     *                     used, so that the postings are represented like in all other responses.
+     * @throws IOException Writing the statement failed.
+     */
+    public void write(final OutputStream outputStream, final ObjectMapper objectMapper) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        BigDecimal[] balance = {this.openingBalance};
+
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeNumberField("accountId", this.account.getId());
+        generator.writeObjectField("currency", this.account.getCurrency());
+        generator.writeObjectField("from", this.from);
+        generator.writeObjectField("to", this.to);
+        generator.writeObjectField("counterpartyId", this.counterpartyId);
+        generator.writeNumberField("openingBalance", this.openingBalance);
+        generator.writeArrayFieldStart("postings");
+
+        try {
+            this.postingDAO.readPostings(this.account.getId(), this.from, this.to, this.counterpartyId, posting -> {
+                balance[0] = balance[0].add(this.getBalanceChange(posting));
+                this.writeLine(generator, posting, balance[0]);
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        } catch (Exception exception) {
+            throw new IOException(exception);
+        }
+
+        generator.writeEndArray();
+        generator.writeNumberField("closingBalance", balance[0]);
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    /**
+     * Writes a line of the statement.
+     *
+     * @param generator The generator of the statement.
+     * @param posting   The posting.
+     * @param balance   The balance after the posting.
+     */
+    private void writeLine(final JsonGenerator generator, final Posting posting, final BigDecimal balance) {
+        try {
+            generator.writeStartObject();
+            generator.writeObjectField("posting", posting);
+            generator.writeNumberField("balance", balance);
+            generator.writeEndObject();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Determines the change of the balance caused by the posting.
+     *
+     * @param posting The posting.
+     * @return The amount of the posting. Negative, if the posting is a disbursal.
+     */
+    private BigDecimal getBalanceChange(final Posting posting) {
+        if (posting.getType() == PostingType.DISBURSAL) {
+            return posting.getAmount().negate();
+        }
+
+        return posting.getAmount();
+    }
+}
@@ -10,10 +10,11 @@ import org.apache.logging.log4j.Logger;
 
 import backend.dao.BillOfMaterialDao;
 import backend.dao.DAOManager;
-import backend.dao.MaterialDao;
+import backend.exception.CircularReferenceException;
 import backend.exception.DuplicateIdentifierException;
 import backend.exception.EntityExistsException;
 import backend.exception.NoItemsException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.billOfMaterial.BillOfMaterial;
 import backend.model.billOfMaterial.BillOfMaterialArray;
@@ -108,6 +109,41 @@ public class BillOfMaterialService {
         return getBillOfMaterialsResult;
     }
 
+    /**
+     * Provides a page of BillOfMaterials ordered by ID.
+     *
+     * @param material The material on which the BillOfMaterial is based.
+     * @param afterId  Only BillOfMaterials with an ID greater than this ID are provided. Can be null.
+     * @param limit    The maximum number of BillOfMaterials. All objects are provided, if neither limit nor afterId is
+     *                 given. The default limit is used, if only afterId is given.
+     * @return The BillOfMaterials of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getBillOfMaterials(final Material material, final Integer afterId, final Integer limit) {
+        BillOfMaterialArray billOfMaterials = new BillOfMaterialArray();
+        WebServiceResult getBillOfMaterialsResult = new WebServiceResult(null);
+        List<BillOfMaterial> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getBillOfMaterialsResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getBillOfMaterialsResult;
+        }
+
+        try {
+            page = this.billOfMaterialDao.getBillOfMaterials(material, afterId,
+                    Pagination.getQueryLimit(afterId, limit));
+            billOfMaterials.setNextAfterId(Pagination.trimPage(page, afterId, limit, BillOfMaterial::getId));
+            billOfMaterials.setBillOfMaterials(page);
+            getBillOfMaterialsResult.setData(billOfMaterials);
+        } catch (Exception e) {
+            getBillOfMaterialsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("billOfMaterial.getBillOfMaterialsError")));
+
+            LOGGER.error(this.resources.getString("billOfMaterial.getBillOfMaterialsError"), e);
+        }
+
+        return getBillOfMaterialsResult;
+    }
+
     /**
      * Deletes the BillOfMaterial with the given id.
      *
@@ -151,9 +187,10 @@ public class BillOfMaterialService {
     public WebServiceResult updateBillOfMaterial(final BillOfMaterialWS billOfMaterial) {
         BillOfMaterial convertedBillOfMaterial = new BillOfMaterial();
         WebServiceResult updateBillOfMaterialResult = new WebServiceResult();
+        ReferenceResolver references = new ReferenceResolver();
 
         try {
-            convertedBillOfMaterial = this.convertBillOfMaterial(billOfMaterial);
+            convertedBillOfMaterial = this.convertBillOfMaterial(billOfMaterial, references);
         } catch (Exception exception) {
             updateBillOfMaterialResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
                     .format(this.resources.getString("billOfMaterial.updateError"), convertedBillOfMaterial.getId())));
@@ -162,6 +199,11 @@ public class BillOfMaterialService {
             return updateBillOfMaterialResult;
         }
 
+        updateBillOfMaterialResult.addMessages(references.getMissingReferenceMessages());
+        if (WebServiceTools.resultContainsErrorMessage(updateBillOfMaterialResult)) {
+            return updateBillOfMaterialResult;
+        }
+
         updateBillOfMaterialResult.addMessages(this.validate(convertedBillOfMaterial));
         if (WebServiceTools.resultContainsErrorMessage(updateBillOfMaterialResult)) {
             return updateBillOfMaterialResult;
@@ -181,9 +223,10 @@ public class BillOfMaterialService {
     public WebServiceResult addBillOfMaterial(final BillOfMaterialWS billOfMaterial) {
         BillOfMaterial convertedBillOfMaterial = new BillOfMaterial();
         WebServiceResult addBillOfMaterialResult = new WebServiceResult();
+        ReferenceResolver references = new ReferenceResolver();
 
         try {
-            convertedBillOfMaterial = this.convertBillOfMaterial(billOfMaterial);
+            convertedBillOfMaterial = this.convertBillOfMaterial(billOfMaterial, references);
         } catch (Exception exception) {
             addBillOfMaterialResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
                     this.resources.getString("billOfMaterial.addError")));
@@ -191,6 +234,11 @@ public class BillOfMaterialService {
             return addBillOfMaterialResult;
         }
 
+        addBillOfMaterialResult.addMessages(references.getMissingReferenceMessages());
+        if (WebServiceTools.resultContainsErrorMessage(addBillOfMaterialResult)) {
+            return addBillOfMaterialResult;
+        }
+
         addBillOfMaterialResult.addMessages(this.validate(convertedBillOfMaterial));
         if (WebServiceTools.resultContainsErrorMessage(addBillOfMaterialResult)) {
             return addBillOfMaterialResult;
@@ -207,15 +255,25 @@ public class BillOfMaterialService {
      * further processing.
      *
      * @param billOfMaterialWS The lean BillOfMaterial representation provided by the WebService.
-     * @return
+     * @param references       Resolves the materials referenced by the BillOfMaterial.
      * @return The BillOfMaterial model that is used by the backend internally.
      * @throws Exception In case the conversion fails.
      */
-    private BillOfMaterial convertBillOfMaterial(final BillOfMaterialWS billOfMaterialWS) throws Exception {
+    private BillOfMaterial convertBillOfMaterial(final BillOfMaterialWS billOfMaterialWS,
+            final ReferenceResolver references) throws Exception {
         BillOfMaterial convertedBillOfMaterial;
 
-        convertedBillOfMaterial = this.convertBillOfMaterialHead(billOfMaterialWS);
-        convertedBillOfMaterial.setItems(this.convertBillOfMaterialItems(billOfMaterialWS, convertedBillOfMaterial));
+        references.addMaterialId(billOfMaterialWS.getMaterialId());
+
+        for (BillOfMaterialItemWS itemWS : billOfMaterialWS.getItems()) {
+            references.addMaterialId(itemWS.getMaterialId());
+        }
+
+        references.resolve();
+
+        convertedBillOfMaterial = this.convertBillOfMaterialHead(billOfMaterialWS, references);
+        convertedBillOfMaterial
+                .setItems(this.convertBillOfMaterialItems(billOfMaterialWS, convertedBillOfMaterial, references));
 
         return convertedBillOfMaterial;
     }
@@ -225,22 +283,21 @@ public class BillOfMaterialService {
      * of the backend.
      *
      * @param billOfMaterialWS The lean BillOfMaterial representation provided by the WebService.
+     * @param references       The resolved materials referenced by the BillOfMaterial.
      * @return The BillOfMaterial model that is used by the backend internally.
-     * @throws Exception In case the conversion fails.
      */
-    private BillOfMaterial convertBillOfMaterialHead(final BillOfMaterialWS billOfMaterialWS) throws Exception {
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
+    private BillOfMaterial convertBillOfMaterialHead(final BillOfMaterialWS billOfMaterialWS,
+            final ReferenceResolver references) {
         BillOfMaterial billOfMaterial = new BillOfMaterial();
 
         // Basic object data that are copied as-is.
         billOfMaterial.setId(billOfMaterialWS.getBillOfMaterialId());
+        billOfMaterial.setVersion(billOfMaterialWS.getVersion());
         billOfMaterial.setName(billOfMaterialWS.getName());
         billOfMaterial.setDescription(billOfMaterialWS.getDescription());
 
-        // Object references. Only the ID is given and the whole backend object has to be loaded and referenced.
-        if (billOfMaterialWS.getMaterialId() != null) {
-            billOfMaterial.setMaterial(materialDAO.getMaterial(billOfMaterialWS.getMaterialId()));
-        }
+        // Object references. Only the ID is given and the whole backend object has been loaded by the resolver.
+        billOfMaterial.setMaterial(references.getMaterial(billOfMaterialWS.getMaterialId()));
 
         return billOfMaterial;
     }
@@ -251,12 +308,11 @@ public class BillOfMaterialService {
      *
      * @param billOfMaterialWS The lean BillOfMaterial representation provided by the WebService.
      * @param billOfMaterial   The converted BillOfMaterial that is build based on the WebService representation.
+     * @param references       The resolved materials referenced by the BillOfMaterial.
      * @return A list of item models that is used by the backend internally.
-     * @throws Exception In case the conversion fails.
      */
     private List<BillOfMaterialItem> convertBillOfMaterialItems(final BillOfMaterialWS billOfMaterialWS,
-            final BillOfMaterial billOfMaterial) throws Exception {
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
+            final BillOfMaterial billOfMaterial, final ReferenceResolver references) {
         List<BillOfMaterialItem> billOfMaterialItems = new ArrayList<BillOfMaterialItem>();
 
         for (BillOfMaterialItemWS itemWS : billOfMaterialWS.getItems()) {
@@ -264,7 +320,7 @@ public class BillOfMaterialService {
 
             billOfMaterialItem.setId(itemWS.getItemId());
             billOfMaterialItem.setBillOfMaterial(billOfMaterial);
-            billOfMaterialItem.setMaterial(materialDAO.getMaterial(itemWS.getMaterialId()));
+            billOfMaterialItem.setMaterial(references.getMaterial(itemWS.getMaterialId()));
             billOfMaterialItem.setQuantity(itemWS.getQuantity());
 
             billOfMaterialItems.add(billOfMaterialItem);
@@ -314,10 +370,17 @@ public class BillOfMaterialService {
         } catch (ObjectUnchangedException objectUnchangedException) {
             messages.add(new WebServiceMessage(WebServiceMessageType.I, MessageFormat
                     .format(this.resources.getString("billOfMaterial.updateUnchanged"), billOfMaterial.getId())));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            messages.add(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
+                    .format(this.resources.getString("billOfMaterial.updateConflict"), billOfMaterial.getId())));
         } catch (EntityExistsException entityExistsException) {
             messages.add(new WebServiceMessage(WebServiceMessageType.E,
                     MessageFormat.format(this.resources.getString("billOfMaterial.BomForMaterialExists"),
                             billOfMaterial.getMaterial().getId(), entityExistsException.getId())));
+        } catch (CircularReferenceException circularReferenceException) {
+            messages.add(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("billOfMaterial.circularReference"),
+                            circularReferenceException.getId())));
         } catch (Exception e) {
             messages.add(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
                     .format(this.resources.getString("billOfMaterial.updateError"), billOfMaterial.getId())));
@@ -346,6 +409,10 @@ public class BillOfMaterialService {
             messages.add(new WebServiceMessage(WebServiceMessageType.E,
                     MessageFormat.format(this.resources.getString("billOfMaterial.BomForMaterialExists"),
                             billOfMaterial.getMaterial().getId(), entityExistsException.getId())));
+        } catch (CircularReferenceException circularReferenceException) {
+            messages.add(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("billOfMaterial.circularReference"),
+                            circularReferenceException.getId())));
         } catch (Exception exception) {
             messages.add(new WebServiceMessage(WebServiceMessageType.E,
                     this.resources.getString("billOfMaterial.addError")));
@@ -1,6 +1,8 @@
 package backend.webservice.common;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 
 import org.apache.logging.log4j.LogManager;
@@ -9,6 +11,7 @@ import org.apache.logging.log4j.Logger;
 import backend.dao.BusinessPartnerDao;
 import backend.dao.DAOManager;
 import backend.exception.ObjectInUseException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.account.Posting;
 import backend.model.businessPartner.BPTypeQueryParameter;
@@ -19,6 +22,7 @@ import backend.model.salesOrder.SalesOrder;
 import backend.model.webservice.WebServiceMessage;
 import backend.model.webservice.WebServiceMessageType;
 import backend.model.webservice.WebServiceResult;
+import backend.tools.WebServiceTools;
 
 /**
  * Common implementation of the BusinessPartner WebService that is used by the SOAP as well as the REST service.
@@ -97,6 +101,43 @@ public class BusinessPartnerService {
         return getBusinessPartnersResult;
     }
 
+    /**
+     * Provides a page of business partners ordered by ID.
+     *
+     * @param bpTypeQuery The type of the business partners to be queried.
+     * @param afterId     Only business partners with an ID greater than this ID are provided. Can be null.
+     * @param limit       The maximum number of business partners. All objects are provided, if neither limit nor
+     *                    afterId is given. The default limit is used, if only afterId is given.
+     * @return The business partners of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getBusinessPartners(final BPTypeQueryParameter bpTypeQuery, final Integer afterId,
+            final Integer limit) {
+        BusinessPartnerArray businessPartners = new BusinessPartnerArray();
+        WebServiceResult getBusinessPartnersResult = new WebServiceResult(null);
+        List<BusinessPartner> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getBusinessPartnersResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getBusinessPartnersResult;
+        }
+
+        try {
+            this.businessPartnerDAO = DAOManager.getInstance().getBusinessPartnerDAO();
+            page = this.businessPartnerDAO.getBusinessPartners(bpTypeQuery, afterId,
+                    Pagination.getQueryLimit(afterId, limit));
+            businessPartners.setNextAfterId(Pagination.trimPage(page, afterId, limit, BusinessPartner::getId));
+            businessPartners.setBusinessPartners(page);
+            getBusinessPartnersResult.setData(businessPartners);
+        } catch (Exception e) {
+            getBusinessPartnersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("businessPartner.getBusinessPartnersError")));
+
+            LOGGER.error(this.resources.getString("businessPartner.getBusinessPartnersError"), e);
+        }
+
+        return getBusinessPartnersResult;
+    }
+
     /**
      * Adds a business partner.
      *
@@ -131,6 +172,52 @@ public class BusinessPartnerService {
         return addBusinessPartnerResult;
     }
 
+    /**
+     * Adds a list of business partners. The business partners are only added if all of them are valid.
+     *
+     * @param businessPartners The business partners to be added.
+     * @return The result of the add function containing the IDs of the added business partners.
+     */
+    public WebServiceResult addBusinessPartners(final List<BusinessPartner> businessPartners) {
+        List<Integer> businessPartnerIds = new ArrayList<Integer>();
+        WebServiceResult addBusinessPartnersResult = new WebServiceResult();
+        this.businessPartnerDAO = DAOManager.getInstance().getBusinessPartnerDAO();
+
+        // Validate all given business partners.
+        for (BusinessPartner businessPartner : businessPartners) {
+            try {
+                businessPartner.validate();
+            } catch (Exception validationException) {
+                addBusinessPartnersResult
+                        .addMessage(new WebServiceMessage(WebServiceMessageType.E, validationException.getMessage()));
+            }
+        }
+
+        if (WebServiceTools.resultContainsErrorMessage(addBusinessPartnersResult)) {
+            return addBusinessPartnersResult;
+        }
+
+        // Insert business partners if validation is successful.
+        try {
+            this.businessPartnerDAO.insertBusinessPartners(businessPartners);
+
+            for (BusinessPartner businessPartner : businessPartners) {
+                businessPartnerIds.add(businessPartner.getId());
+            }
+
+            addBusinessPartnersResult.addMessage(new WebServiceMessage(WebServiceMessageType.S, MessageFormat.format(
+                    this.resources.getString("businessPartner.addBusinessPartnersSuccess"), businessPartners.size())));
+            addBusinessPartnersResult.setData(businessPartnerIds);
+        } catch (Exception e) {
+            addBusinessPartnersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("businessPartner.addBusinessPartnersError")));
+
+            LOGGER.error(this.resources.getString("businessPartner.addBusinessPartnersError"), e);
+        }
+
+        return addBusinessPartnersResult;
+    }
+
     /**
      * Deletes the business partner with the given id.
      *
@@ -209,6 +296,9 @@ public class BusinessPartnerService {
         } catch (ObjectUnchangedException objectUnchangedException) {
             updateBusinessPartnerResult.addMessage(new WebServiceMessage(WebServiceMessageType.I, MessageFormat
                     .format(this.resources.getString("businessPartner.updateUnchanged"), businessPartner.getId())));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            updateBusinessPartnerResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
+                    .format(this.resources.getString("businessPartner.updateConflict"), businessPartner.getId())));
         } catch (Exception e) {
             updateBusinessPartnerResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
                     .format(this.resources.getString("businessPartner.updateError"), businessPartner.getId())));
@@ -0,0 +1,123 @@
+package backend.webservice.common;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A range of bytes requested by the "Range" header of an HTTP request. Only a single range is supported. Requests
+ * with multiple ranges or other units are answered with the whole content, as permitted by the HTTP specification.
+ *
+ * @author Michael
+ */
+public final class ByteRange {
+    /**
+     * The pattern of a single byte range, for example "bytes=0-499", "bytes=500-" or "bytes=-500".
+     */
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    /**
+     * The position of the first byte of the range.
+     */
+    private final long first;
+
+    /**
+     * The position of the last byte of the range (inclusive).
+     */
+    private final long last;
+
+    /**
+     * The size of the whole content in bytes.
+     */
+    private final long size;
+
+    /**
+     * Initializes the range.
+     *
+     * @param first The position of the first byte of the range.
+     * @param last  The position of the last byte of the range (inclusive).
+     * @param size  The size of the whole content in bytes.
+     */
+    private ByteRange(final long first, final long last, final long size) {
+        this.first = first;
+        this.last = last;
+        this.size = size;
+    }
+
+    /**
+     * Parses the value of a "Range" header.
+     *
+     * @param rangeHeader The value of the "Range" header. Can be null.
+     * @param size        The size of the whole content in bytes.
+     * @return The requested range; null, if no range or no supported range has been requested.
+     */
+    public static ByteRange parse(final String rangeHeader, final long size) {
+        Matcher matcher;
+        String first;
+        String last;
+
+        if (rangeHeader == null) {
+            return null;
+        }
+
+        matcher = RANGE_PATTERN.matcher(rangeHeader.trim());
+
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        first = matcher.group(1);
+        last = matcher.group(2);
+
+        try {
+            if (first.isEmpty() && last.isEmpty()) {
+                return null;
+            } else if (first.isEmpty()) {
+                // A suffix range requests the given number of bytes at the end of the content.
+                return new ByteRange(Math.max(0, size - Long.parseLong(last)), size - 1, size);
+            } else if (last.isEmpty()) {
+                return new ByteRange(Long.parseLong(first), size - 1, size);
+            } else if (Long.parseLong(last) < Long.parseLong(first)) {
+                return null;
+            }
+
+            return new ByteRange(Long.parseLong(first), Math.min(Long.parseLong(last), size - 1), size);
+        } catch (NumberFormatException numberFormatException) {
+            // The positions exceed the range of long.
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the range overlaps the content.
+     *
+     * @return true, if at least one byte of the range is part of the content; false otherwise.
+     */
+    public boolean isSatisfiable() {
+        return this.first < this.size && this.first <= this.last;
+    }
+
+    /**
+     * @return The position of the first byte of the range.
+     */
+    public long getFirst() {
+        return first;
+    }
+
+    /**
+     * @return The number of bytes of the range.
+     */
+    public long getLength() {
+        return this.last - this.first + 1;
+    }
+
+    /**
+     * @return The value of the "Content-Range" header of a response containing the range.
+     */
+    public String getContentRange() {
+        if (!this.isSatisfiable()) {
+            return "bytes */" + this.size;
+        }
+
+        return "bytes " + this.first + "-" + this.last + "/" + this.size;
+    }
+}
@@ -10,6 +10,7 @@ import org.apache.logging.log4j.Logger;
 
 import backend.dao.DAOManager;
 import backend.dao.DepartmentDao;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.department.Department;
 import backend.model.department.DepartmentArray;
@@ -188,6 +189,9 @@ public class DepartmentService {
         } catch (ObjectUnchangedException objectUnchangedException) {
             updateDepartmentResult.addMessage(new WebServiceMessage(WebServiceMessageType.I,
                     this.resources.getString("department.updateUnchanged")));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            updateDepartmentResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("department.updateConflict")));
         } catch (Exception e) {
             updateDepartmentResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
                     MessageFormat.format(this.resources.getString("department.updateError"), department.getCode())));
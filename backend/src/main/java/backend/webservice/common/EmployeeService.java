@@ -1,6 +1,7 @@
 package backend.webservice.common;
 
 import java.text.MessageFormat;
+import java.util.List;
 import java.util.ResourceBundle;
 
 import org.apache.logging.log4j.LogManager;
@@ -8,6 +9,7 @@ import org.apache.logging.log4j.Logger;
 
 import backend.dao.DAOManager;
 import backend.dao.EmployeeDao;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.employee.Employee;
 import backend.model.employee.EmployeeArray;
@@ -93,6 +95,42 @@ public class EmployeeService {
         return getEmployeesResult;
     }
 
+    /**
+     * Provides a page of employees ordered by ID.
+     *
+     * @param employeeHeadQuery Specifies the employees to be selected based on the head attribute.
+     * @param afterId           Only employees with an ID greater than this ID are provided. Can be null.
+     * @param limit             The maximum number of employees. All objects are provided, if neither limit nor afterId
+     *                          is given. The default limit is used, if only afterId is given.
+     * @return The employees of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getEmployees(final EmployeeHeadQueryParameter employeeHeadQuery, final Integer afterId,
+            final Integer limit) {
+        EmployeeArray employees = new EmployeeArray();
+        WebServiceResult getEmployeesResult = new WebServiceResult(null);
+        List<Employee> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getEmployeesResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getEmployeesResult;
+        }
+
+        try {
+            this.employeeDAO = DAOManager.getInstance().getEmployeeDAO();
+            page = this.employeeDAO.getEmployees(employeeHeadQuery, afterId, Pagination.getQueryLimit(afterId, limit));
+            employees.setNextAfterId(Pagination.trimPage(page, afterId, limit, Employee::getId));
+            employees.setEmployees(page);
+            getEmployeesResult.setData(employees);
+        } catch (Exception e) {
+            getEmployeesResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("employee.getEmployeesError")));
+
+            LOGGER.error(this.resources.getString("employee.getEmployeesError"), e);
+        }
+
+        return getEmployeesResult;
+    }
+
     /**
      * Adds an employee.
      *
@@ -150,6 +188,9 @@ public class EmployeeService {
         } catch (ObjectUnchangedException objectUnchangedException) {
             updateEmployeeResult.addMessage(new WebServiceMessage(WebServiceMessageType.I,
                     this.resources.getString("employee.updateUnchanged")));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            updateEmployeeResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("employee.updateConflict")));
         } catch (Exception e) {
             updateEmployeeResult.addMessage(
                     new WebServiceMessage(WebServiceMessageType.E, this.resources.getString("employee.updateError")));
@@ -0,0 +1,116 @@
+package backend.webservice.common;
+
+import java.text.MessageFormat;
+import java.util.HashSet;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeSet;
+
+import backend.model.webservice.WebServiceMessage;
+import backend.model.webservice.WebServiceMessageType;
+
+/**
+ * Provides the view and the relations to be expanded by read requests.
+ *
+ * The lean view is requested explicitly by the view "lean". It references other objects only by their ID. The
+ * relations to be expanded in the lean view are given as a comma separated list, for example "soldToParty,material".
+ * The referenced objects of those relations are provided in addition to their IDs. Without a view, the full objects
+ * are provided, which already contain all referenced objects.
+ *
+ * @author Michael
+ */
+final class Expansion {
+    /**
+     * The separator of the requested relations.
+     */
+    private static final String SEPARATOR = ",";
+
+    /**
+     * The view that requests the lean representation.
+     */
+    static final String LEAN_VIEW = "lean";
+
+    /**
+     * Constructor not to be used.
+     */
+    private Expansion() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Checks if the lean view is requested.
+     *
+     * @param view The requested view. Null, if the full objects are requested.
+     * @return true, if the lean view is requested; false otherwise.
+     */
+    static boolean isLeanView(final String view) {
+        return LEAN_VIEW.equals(view);
+    }
+
+    /**
+     * Checks if the requested view is valid. Relations can only be expanded in the lean view.
+     *
+     * @param view   The requested view. Null, if the full objects are requested.
+     * @param expand The comma separated list of requested relations. Can be null.
+     * @return true, if the view is known and the relations can be expanded in the view; false otherwise.
+     */
+    static boolean isValidView(final String view, final String expand) {
+        return isLeanView(view) || (view == null && expand == null);
+    }
+
+    /**
+     * Provides the message for an invalid requested view.
+     *
+     * @param resources The localized application resources.
+     * @return The error message.
+     */
+    static WebServiceMessage getInvalidViewMessage(final ResourceBundle resources) {
+        return new WebServiceMessage(WebServiceMessageType.E,
+                MessageFormat.format(resources.getString("expansion.invalidView"), LEAN_VIEW));
+    }
+
+    /**
+     * Checks if the requested relations are valid.
+     *
+     * @param expand    The comma separated list of requested relations. Can be null.
+     * @param relations The relations that can be expanded.
+     * @return true, if each requested relation can be expanded; false otherwise.
+     */
+    static boolean isValid(final String expand, final Set<String> relations) {
+        return relations.containsAll(parse(expand));
+    }
+
+    /**
+     * Provides the message for invalid requested relations.
+     *
+     * @param resources The localized application resources.
+     * @param relations The relations that can be expanded.
+     * @return The error message.
+     */
+    static WebServiceMessage getInvalidExpansionMessage(final ResourceBundle resources, final Set<String> relations) {
+        return new WebServiceMessage(WebServiceMessageType.E, MessageFormat
+                .format(resources.getString("expansion.invalidRelation"), String.join(", ", new TreeSet<>(relations))));
+    }
+
+    /**
+     * Parses the requested relations.
+     *
+     * @param expand The comma separated list of requested relations. Null or an empty list request no relation.
+     * @return The requested relations.
+     */
+    static Set<String> parse(final String expand) {
+        Set<String> requestedRelations = new HashSet<String>();
+
+        if (expand == null) {
+            return requestedRelations;
+        }
+
+        for (String relation : expand.split(SEPARATOR)) {
+            if (!relation.isBlank()) {
+                requestedRelations.add(relation.trim());
+            }
+        }
+
+        return requestedRelations;
+    }
+}
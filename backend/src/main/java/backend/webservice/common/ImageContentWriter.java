@@ -0,0 +1,136 @@
+package backend.webservice.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+
+import backend.dao.ImageDao;
+import backend.dao.image.ImageUploadStream;
+import backend.model.image.ImageMetaData;
+
+/**
+ * Writes the binary data of an image. The data are transferred from the image store to the output in chunks. Therefore
+ * the data of an image are never held in memory as a whole. Downscaled derivatives of an image are small and written
+ * from memory instead.
+ *
+ * @author Michael
+ */
+public class ImageContentWriter {
+    /**
+     * The MIME type used if no MIME type is defined for the image.
+     */
+    public static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+    /**
+     * DAO for image access.
+     */
+    private final ImageDao imageDAO;
+
+    /**
+     * The meta data of the image.
+     */
+    private final ImageMetaData imageMetaData;
+
+    /**
+     * The size of the image data in bytes.
+     */
+    private final long size;
+
+    /**
+     * The data of a derivative of the image. Null, if the original image data are written.
+     */
+    private final byte[] derivativeData;
+
+    /**
+     * The key of the derivative in the image store. Null, if the original image data are written.
+     */
+    private final String derivativeKey;
+
+    /**
+     * Initializes the writer.
+     *
+     * @param imageDAO      DAO for image access.
+     * @param imageMetaData The meta data of the image.
+     * @param size          The size of the image data in bytes.
+     */
+    public ImageContentWriter(final ImageDao imageDAO, final ImageMetaData imageMetaData, final long size) {
+        this.imageDAO = imageDAO;
+        this.imageMetaData = imageMetaData;
+        this.size = size;
+        this.derivativeData = null;
+        this.derivativeKey = null;
+    }
+
+    /**
+     * Initializes the writer of a derivative of an image.
+     *
+     * @param imageMetaData  The meta data of the image.
+     * @param derivativeData The data of the derivative.
+     * @param derivativeKey  The key of the derivative in the image store.
+     */
+    public ImageContentWriter(final ImageMetaData imageMetaData, final byte[] derivativeData,
+            final String derivativeKey) {
+        this.imageDAO = null;
+        this.imageMetaData = imageMetaData;
+        this.size = derivativeData.length;
+        this.derivativeData = derivativeData;
+        this.derivativeKey = derivativeKey;
+    }
+
+    /**
+     * Writes a range of the image data to the given output stream. The stream is not closed.
+     *
+     * @param outputStream The output stream.
+     * @param position     The position of the first byte to be written.
+     * @param count        The number of bytes to be written.
+     * @throws IOException In case the image data could not be written.
+     */
+    public void write(final OutputStream outputStream, final long position, final long count) throws IOException {
+        if (this.derivativeData != null) {
+            outputStream.write(this.derivativeData, (int) position, (int) Math.min(count, this.size - position));
+            return;
+        }
+
+        this.imageDAO.transferContent(this.imageMetaData.getContentHash(), position, count,
+                Channels.newChannel(outputStream));
+    }
+
+    /**
+     * @return The hash of the image data or the key of the derivative. The value changes whenever the data change.
+     */
+    public String getContentHash() {
+        if (this.derivativeKey != null) {
+            return this.derivativeKey;
+        }
+
+        return this.imageMetaData.getContentHash();
+    }
+
+    /**
+     * @return The MIME type of the image. The MIME type of a derivative is determined from its data.
+     */
+    public String getMimeType() {
+        String derivativeMimeType;
+
+        if (this.derivativeData != null) {
+            derivativeMimeType = ImageUploadStream.detectMimeType(this.derivativeData, this.derivativeData.length);
+
+            if (derivativeMimeType != null) {
+                return derivativeMimeType;
+            }
+        }
+
+        if (this.imageMetaData.getMimeType() == null) {
+            return DEFAULT_MIME_TYPE;
+        }
+
+        return this.imageMetaData.getMimeType();
+    }
+
+    /**
+     * @return The size of the image data in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+}
@@ -1,16 +1,22 @@
 package backend.webservice.common;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ResourceBundle;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import backend.controller.image.ImageDerivativeGenerator;
 import backend.dao.DAOManager;
 import backend.dao.ImageDao;
+import backend.dao.image.ImageStore;
+import backend.exception.ImageTooLargeException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.image.ImageData;
 import backend.model.image.ImageMetaData;
+import backend.model.image.ImageSize;
 import backend.model.webservice.WebServiceMessage;
 import backend.model.webservice.WebServiceMessageType;
 import backend.model.webservice.WebServiceResult;
@@ -68,6 +74,88 @@ public class ImageService {
         return getImageResult;
     }
 
+    /**
+     * Provides the binary data of the image with the given id. The data are not loaded but written on demand by the
+     * provided ImageContentWriter.
+     *
+     * @param id The id of the image.
+     * @return The ImageContentWriter of the image with the given id, if found.
+     */
+    public WebServiceResult getImageContent(final Integer id) {
+        return this.getImageContent(id, null);
+    }
+
+    /**
+     * Provides the binary data of the image with the given id in the given size. The original image data are provided
+     * if no size is given or if no derivative of the image can be rendered.
+     *
+     * @param id   The id of the image.
+     * @param size The size of the image. Null, if the image is requested in its original size.
+     * @return The ImageContentWriter of the image with the given id, if found.
+     */
+    public WebServiceResult getImageContent(final Integer id, final ImageSize size) {
+        ImageMetaData imageMetaData = null;
+        WebServiceResult getImageContentResult = new WebServiceResult(null);
+
+        try {
+            this.imageDAO = DAOManager.getInstance().getImageDAO();
+            imageMetaData = this.imageDAO.getImageMetaData(id);
+
+            if (imageMetaData != null && imageMetaData.getContentHash() != null) {
+                getImageContentResult.setData(this.getContentWriter(imageMetaData, size));
+            } else {
+                getImageContentResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        MessageFormat.format(this.resources.getString("image.notFound"), id)));
+            }
+        } catch (Exception e) {
+            getImageContentResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("image.getError"), id)));
+
+            LOGGER.error(MessageFormat.format(this.resources.getString("image.getError"), id), e);
+        }
+
+        return getImageContentResult;
+    }
+
+    /**
+     * Provides the writer of the image data in the given size.
+     *
+     * @param imageMetaData The meta data of the image.
+     * @param size          The size of the image. Null, if the image is requested in its original size.
+     * @return The writer of the image data.
+     * @throws IOException In case the image data could not be read.
+     */
+    private ImageContentWriter getContentWriter(final ImageMetaData imageMetaData, final ImageSize size)
+            throws IOException {
+        ImageDerivativeGenerator derivativeGenerator = ImageDerivativeGenerator.getInstance();
+        byte[] derivative = null;
+
+        if (size != null && derivativeGenerator != null) {
+            derivative = derivativeGenerator.getDerivative(imageMetaData, size);
+        }
+
+        if (derivative != null) {
+            return new ImageContentWriter(imageMetaData, derivative,
+                    ImageStore.getDerivativeKey(imageMetaData.getContentHash(), size.getDerivativeName()));
+        }
+
+        return new ImageContentWriter(this.imageDAO, imageMetaData,
+                this.imageDAO.getContentSize(imageMetaData.getContentHash()));
+    }
+
+    /**
+     * Submits the generation of the downscaled derivatives of a newly added image, if the generator is running.
+     *
+     * @param id The id of the image.
+     */
+    private void submitDerivatives(final Integer id) {
+        ImageDerivativeGenerator derivativeGenerator = ImageDerivativeGenerator.getInstance();
+
+        if (derivativeGenerator != null) {
+            derivativeGenerator.submit(id);
+        }
+    }
+
     /**
      * Adds an image.
      *
@@ -89,6 +177,7 @@ public class ImageService {
         // Insert image if validation is successful.
         try {
             this.imageDAO.insertImage(image);
+            this.submitDerivatives(image.getId());
             addImageResult.addMessage(
                     new WebServiceMessage(WebServiceMessageType.S, this.resources.getString("image.addSuccess")));
             addImageResult.setData(image.getId());
@@ -102,6 +191,37 @@ public class ImageService {
         return addImageResult;
     }
 
+    /**
+     * Adds an image whose data are read from the given stream. The data are streamed to the image store without being
+     * held in memory as a whole. The upload is aborted as soon as the data exceed the maximum image size.
+     *
+     * @param data The stream providing the image data.
+     * @return The result of the add function.
+     */
+    public WebServiceResult addImage(final InputStream data) {
+        WebServiceResult addImageResult = new WebServiceResult(null);
+        ImageData image = new ImageData();
+
+        try {
+            this.imageDAO = DAOManager.getInstance().getImageDAO();
+            this.imageDAO.insertImage(image, data);
+            this.submitDerivatives(image.getId());
+            addImageResult.addMessage(
+                    new WebServiceMessage(WebServiceMessageType.S, this.resources.getString("image.addSuccess")));
+            addImageResult.setData(image.getId());
+        } catch (ImageTooLargeException imageTooLargeException) {
+            addImageResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
+                    .format(this.resources.getString("image.tooLarge"), imageTooLargeException.getMaxSize())));
+        } catch (Exception e) {
+            addImageResult.addMessage(
+                    new WebServiceMessage(WebServiceMessageType.E, this.resources.getString("image.addError")));
+
+            LOGGER.error(this.resources.getString("image.addError"), e);
+        }
+
+        return addImageResult;
+    }
+
     /**
      * Deletes the image with the given id.
      *
@@ -109,13 +229,13 @@ public class ImageService {
      * @return The result of the delete function.
      */
     public WebServiceResult deleteImage(final Integer id) {
-        ImageData image = null;
+        ImageMetaData image = null;
         WebServiceResult deleteImageResult = new WebServiceResult(null);
 
         // Check if a material with the given code exists.
         try {
             this.imageDAO = DAOManager.getInstance().getImageDAO();
-            image = this.imageDAO.getImageData(id);
+            image = this.imageDAO.getImageMetaData(id);
 
             if (image != null) {
                 // Delete image if exists.
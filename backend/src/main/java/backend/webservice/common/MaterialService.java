@@ -12,6 +12,7 @@ import backend.dao.DAOManager;
 import backend.dao.ImageDao;
 import backend.dao.MaterialDao;
 import backend.exception.ObjectInUseException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
 import backend.model.billOfMaterial.BillOfMaterial;
 import backend.model.material.Material;
@@ -23,6 +24,7 @@ import backend.model.salesOrder.SalesOrder;
 import backend.model.webservice.WebServiceMessage;
 import backend.model.webservice.WebServiceMessageType;
 import backend.model.webservice.WebServiceResult;
+import backend.tools.WebServiceTools;
 
 /**
  * Common implementation of the Material WebService that is used by the SOAP as well as the REST service.
@@ -100,6 +102,40 @@ public class MaterialService {
         return getMaterialsResult;
     }
 
+    /**
+     * Provides a page of materials ordered by ID.
+     *
+     * @param afterId Only materials with an ID greater than this ID are provided. Can be null.
+     * @param limit   The maximum number of materials. All objects are provided, if neither limit nor afterId is given.
+     *                The default limit is used, if only afterId is given.
+     * @return The materials of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getMaterials(final Integer afterId, final Integer limit) {
+        MaterialArray materials = new MaterialArray();
+        WebServiceResult getMaterialsResult = new WebServiceResult(null);
+        List<Material> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getMaterialsResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getMaterialsResult;
+        }
+
+        try {
+            this.materialDAO = DAOManager.getInstance().getMaterialDAO();
+            page = this.materialDAO.getMaterials(afterId, Pagination.getQueryLimit(afterId, limit));
+            materials.setNextAfterId(Pagination.trimPage(page, afterId, limit, Material::getId));
+            materials.setMaterials(page);
+            getMaterialsResult.setData(materials);
+        } catch (Exception e) {
+            getMaterialsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("material.getMaterialsError")));
+
+            LOGGER.error(this.resources.getString("material.getMaterialsError"), e);
+        }
+
+        return getMaterialsResult;
+    }
+
     /**
      * Adds a material.
      *
@@ -145,6 +181,63 @@ public class MaterialService {
         return addMaterialResult;
     }
 
+    /**
+     * Adds a list of materials. The materials are only added if all of them are valid.
+     *
+     * @param materials The materials to be added.
+     * @return The result of the add function containing the IDs of the added materials.
+     */
+    public WebServiceResult addMaterials(final List<MaterialWS> materials) {
+        List<Material> convertedMaterials = new ArrayList<Material>();
+        List<Integer> materialIds = new ArrayList<Integer>();
+        WebServiceResult addMaterialsResult = new WebServiceResult();
+        this.materialDAO = DAOManager.getInstance().getMaterialDAO();
+
+        try {
+            for (MaterialWS material : materials) {
+                convertedMaterials.add(this.convertMaterial(material));
+            }
+        } catch (Exception exception) {
+            addMaterialsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("material.addMaterialsError")));
+            LOGGER.error(this.resources.getString("material.addMaterialsError"), exception);
+            return addMaterialsResult;
+        }
+
+        // Validate all given materials.
+        for (Material convertedMaterial : convertedMaterials) {
+            try {
+                convertedMaterial.validate();
+            } catch (Exception validationException) {
+                addMaterialsResult
+                        .addMessage(new WebServiceMessage(WebServiceMessageType.E, validationException.getMessage()));
+            }
+        }
+
+        if (WebServiceTools.resultContainsErrorMessage(addMaterialsResult)) {
+            return addMaterialsResult;
+        }
+
+        // Insert materials if validation is successful.
+        try {
+            this.materialDAO.insertMaterials(convertedMaterials);
+            for (Material convertedMaterial : convertedMaterials) {
+                materialIds.add(convertedMaterial.getId());
+            }
+
+            addMaterialsResult.addMessage(new WebServiceMessage(WebServiceMessageType.S, MessageFormat
+                    .format(this.resources.getString("material.addMaterialsSuccess"), convertedMaterials.size())));
+            addMaterialsResult.setData(materialIds);
+        } catch (Exception e) {
+            addMaterialsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("material.addMaterialsError")));
+
+            LOGGER.error(this.resources.getString("material.addMaterialsError"), e);
+        }
+
+        return addMaterialsResult;
+    }
+
     /**
      * Deletes the material with the given id.
      *
@@ -215,6 +308,9 @@ public class MaterialService {
         } catch (ObjectUnchangedException objectUnchangedException) {
             updateMaterialResult.addMessage(new WebServiceMessage(WebServiceMessageType.I, MessageFormat
                     .format(this.resources.getString("material.updateUnchanged"), convertedMaterial.getId())));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            updateMaterialResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
+                    .format(this.resources.getString("material.updateConflict"), convertedMaterial.getId())));
         } catch (Exception e) {
             updateMaterialResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
                     MessageFormat.format(this.resources.getString("material.updateError"), convertedMaterial.getId())));
@@ -284,6 +380,8 @@ public class MaterialService {
         ImageDao imageDAO;
 
         convertedMaterial.setId(materialWS.getMaterialId());
+
+        convertedMaterial.setVersion(materialWS.getVersion());
         convertedMaterial.setName(materialWS.getName());
         convertedMaterial.setDescription(materialWS.getDescription());
         convertedMaterial.setUnit(materialWS.getUnit());
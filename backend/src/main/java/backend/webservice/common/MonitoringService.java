@@ -0,0 +1,117 @@
+package backend.webservice.common;
+
+import java.util.ResourceBundle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import backend.controller.ImageCleanupController;
+import backend.controller.MainController;
+import backend.dao.DAOManager;
+import backend.model.webservice.WebServiceMessage;
+import backend.model.webservice.WebServiceMessageType;
+import backend.model.webservice.WebServiceResult;
+
+/**
+ * Provides runtime information about the state of the backend.
+ *
+ * @author Michael
+ */
+public class MonitoringService {
+    /**
+     * Access to localized application resources.
+     */
+    private ResourceBundle resources = ResourceBundle.getBundle("backend");
+
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(MonitoringService.class);
+
+    /**
+     * Provides the current metrics of the database connection pool.
+     *
+     * @return The connection pool metrics.
+     */
+    public WebServiceResult getConnectionPoolMetrics() {
+        WebServiceResult getMetricsResult = new WebServiceResult(null);
+
+        try {
+            getMetricsResult.setData(DAOManager.getInstance().getConnectionPoolMetrics());
+        } catch (Exception e) {
+            getMetricsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("monitoring.connectionPool.getError")));
+
+            LOGGER.error(this.resources.getString("monitoring.connectionPool.getError"), e);
+        }
+
+        return getMetricsResult;
+    }
+
+    /**
+     * Provides the statistics of all regions of the second-level cache.
+     *
+     * @return The statistics of the cache regions.
+     */
+    public WebServiceResult getCacheRegionMetrics() {
+        WebServiceResult getMetricsResult = new WebServiceResult(null);
+
+        try {
+            getMetricsResult.setData(DAOManager.getInstance().getCacheRegionMetrics());
+        } catch (Exception e) {
+            getMetricsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("monitoring.cache.getError")));
+
+            LOGGER.error(this.resources.getString("monitoring.cache.getError"), e);
+        }
+
+        return getMetricsResult;
+    }
+
+    /**
+     * Removes all entries from the second-level cache.
+     *
+     * @return The result of the eviction.
+     */
+    public WebServiceResult evictCache() {
+        WebServiceResult evictResult = new WebServiceResult(null);
+
+        try {
+            DAOManager.getInstance().evictSecondLevelCache();
+            evictResult.addMessage(new WebServiceMessage(WebServiceMessageType.S,
+                    this.resources.getString("monitoring.cache.evictSuccess")));
+        } catch (Exception e) {
+            evictResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("monitoring.cache.evictError")));
+
+            LOGGER.error(this.resources.getString("monitoring.cache.evictError"), e);
+        }
+
+        return evictResult;
+    }
+
+    /**
+     * Provides the progress of the current or last run of the periodic image cleanup.
+     *
+     * @return The image cleanup metrics. Null, if the image cleanup has not been started.
+     */
+    public WebServiceResult getImageCleanupMetrics() {
+        WebServiceResult getMetricsResult = new WebServiceResult(null);
+        ImageCleanupController imageCleanupController;
+
+        try {
+            imageCleanupController = MainController.getInstance().getImageCleanupController();
+
+            if (imageCleanupController != null) {
+                getMetricsResult.setData(imageCleanupController.getMetrics());
+            }
+        } catch (Exception e) {
+            getMetricsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("monitoring.imageCleanup.getError")));
+
+            LOGGER.error(this.resources.getString("monitoring.imageCleanup.getError"), e);
+        }
+
+        return getMetricsResult;
+    }
+}
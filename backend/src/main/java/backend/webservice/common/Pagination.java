@@ -0,0 +1,124 @@
+package backend.webservice.common;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+
+import backend.model.webservice.WebServiceMessage;
+import backend.model.webservice.WebServiceMessageType;
+
+/**
+ * Provides the limits and the cursor of list requests that are read page by page.
+ *
+ * One more object than the limit is read from the database. If this object exists, there is a next page. The ID of the
+ * last object of the current page is then provided as cursor to read the next page.
+ *
+ * Requests without cursor and limit are not paged. They are provided with all objects, as before the introduction of
+ * paging.
+ *
+ * @author Michael
+ */
+final class Pagination {
+    /**
+     * The number of objects of a page, if a cursor but no limit is requested.
+     */
+    static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * The maximum number of objects of a page.
+     */
+    static final int MAX_LIMIT = 1000;
+
+    /**
+     * Constructor not to be used.
+     */
+    private Pagination() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Checks if the requested limit is valid.
+     *
+     * @param limit The requested limit. Can be null.
+     * @return true, if the limit is null or between 1 and the maximum limit; false otherwise.
+     */
+    static boolean isValidLimit(final Integer limit) {
+        return limit == null || (limit >= 1 && limit <= MAX_LIMIT);
+    }
+
+    /**
+     * Provides the message for an invalid limit.
+     *
+     * @param resources The localized application resources.
+     * @return The error message.
+     */
+    static WebServiceMessage getInvalidLimitMessage(final ResourceBundle resources) {
+        return new WebServiceMessage(WebServiceMessageType.E,
+                MessageFormat.format(resources.getString("pagination.invalidLimit"), MAX_LIMIT));
+    }
+
+    /**
+     * Provides the number of objects to be read from the database for the requested limit. This includes one object
+     * that is used to determine if a next page exists.
+     *
+     * @param afterId The requested cursor. Can be null.
+     * @param limit   The requested limit. Can be null.
+     * @return The number of objects to be read. Null, if the request is not paged.
+     */
+    static Integer getQueryLimit(final Integer afterId, final Integer limit) {
+        if (!isPaged(afterId, limit)) {
+            return null;
+        }
+
+        return getLimit(limit) + 1;
+    }
+
+    /**
+     * Removes the object used to determine if a next page exists from the page.
+     *
+     * @param <T>        The type of the objects.
+     * @param page       The objects read with the query limit.
+     * @param afterId    The requested cursor. Can be null.
+     * @param limit      The requested limit. Can be null.
+     * @param idProvider Provides the ID of an object.
+     * @return The ID of the last object of the page, if a next page exists; null otherwise.
+     */
+    static <T> Integer trimPage(final List<T> page, final Integer afterId, final Integer limit,
+            final Function<T, Integer> idProvider) {
+        int pageSize = getLimit(limit);
+
+        if (!isPaged(afterId, limit) || page.size() <= pageSize) {
+            return null;
+        }
+
+        page.subList(pageSize, page.size()).clear();
+
+        return idProvider.apply(page.get(pageSize - 1));
+    }
+
+    /**
+     * Checks if a request is paged.
+     *
+     * @param afterId The requested cursor. Can be null.
+     * @param limit   The requested limit. Can be null.
+     * @return true, if a cursor or a limit is requested; false otherwise.
+     */
+    private static boolean isPaged(final Integer afterId, final Integer limit) {
+        return afterId != null || limit != null;
+    }
+
+    /**
+     * Provides the limit of a page.
+     *
+     * @param limit The requested limit. Can be null.
+     * @return The requested limit or the default limit, if no limit is requested.
+     */
+    private static int getLimit(final Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+
+        return limit;
+    }
+}
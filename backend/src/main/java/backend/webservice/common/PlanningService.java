@@ -0,0 +1,129 @@
+package backend.webservice.common;
+
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import backend.controller.planning.RequirementsPlanning;
+import backend.dao.DAOManager;
+import backend.dao.PlanningDao;
+import backend.model.billOfMaterial.BillOfMaterialGraph;
+import backend.model.planning.PlanningInput;
+import backend.model.planning.PlanningProposal;
+import backend.model.planning.PlanningProposalArray;
+import backend.model.webservice.WebServiceMessage;
+import backend.model.webservice.WebServiceMessageType;
+import backend.model.webservice.WebServiceResult;
+
+/**
+ * Common implementation of the requirements planning WebService.
+ *
+ * @author Michael
+ */
+public class PlanningService {
+    /**
+     * Indicates if a planning run is active. Only one run is performed at a time.
+     */
+    private static final AtomicBoolean RUN_ACTIVE = new AtomicBoolean(false);
+
+    /**
+     * DAO for requirements planning access.
+     */
+    private PlanningDao planningDAO;
+
+    /**
+     * Access to localized application resources.
+     */
+    private ResourceBundle resources = ResourceBundle.getBundle("backend");
+
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(PlanningService.class);
+
+    /**
+     * Plans the requirements of all materials and replaces the proposals of the previous run.
+     *
+     * @return The result of the planning run.
+     */
+    public WebServiceResult runPlanning() {
+        WebServiceResult runResult = new WebServiceResult(null);
+        Date createdAt = new Date();
+        int today = PlanningInput.toDay(createdAt);
+        PlanningInput input;
+        BillOfMaterialGraph graph;
+        List<PlanningProposal> proposals;
+
+        if (!RUN_ACTIVE.compareAndSet(false, true)) {
+            runResult.addMessage(
+                    new WebServiceMessage(WebServiceMessageType.E, this.resources.getString("planning.runActive")));
+            return runResult;
+        }
+
+        try {
+            this.planningDAO = DAOManager.getInstance().getPlanningDAO();
+            input = this.planningDAO.getPlanningInput(today);
+            graph = DAOManager.getInstance().getBillOfMaterialDAO().getBillOfMaterialGraph();
+            proposals = new RequirementsPlanning(input, graph, today, ForkJoinPool.commonPool()).plan();
+
+            for (PlanningProposal proposal : proposals) {
+                proposal.setCreatedAt(createdAt);
+            }
+
+            this.planningDAO.replacePlanningProposals(proposals);
+            runResult.addMessage(new WebServiceMessage(WebServiceMessageType.S, MessageFormat
+                    .format(this.resources.getString("planning.runSuccess"), input.getMaterialCount(),
+                            proposals.size())));
+        } catch (Exception e) {
+            runResult.addMessage(
+                    new WebServiceMessage(WebServiceMessageType.E, this.resources.getString("planning.runError")));
+
+            LOGGER.error(this.resources.getString("planning.runError"), e);
+        } finally {
+            RUN_ACTIVE.set(false);
+        }
+
+        return runResult;
+    }
+
+    /**
+     * Provides a page of the planning proposals ordered by ID.
+     *
+     * @param materialId Only proposals of this material are provided. Can be null.
+     * @param afterId    Only proposals with an ID greater than this ID are provided. Can be null.
+     * @param limit      The maximum number of proposals. Can be null.
+     * @return The proposals of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getPlanningProposals(final Integer materialId, final Integer afterId,
+            final Integer limit) {
+        PlanningProposalArray proposals = new PlanningProposalArray();
+        WebServiceResult getProposalsResult = new WebServiceResult(null);
+        List<PlanningProposal> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getProposalsResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getProposalsResult;
+        }
+
+        try {
+            this.planningDAO = DAOManager.getInstance().getPlanningDAO();
+            page = this.planningDAO.getPlanningProposals(materialId, afterId, Pagination.getQueryLimit(afterId, limit));
+            proposals.setNextAfterId(Pagination.trimPage(page, afterId, limit, PlanningProposal::getId));
+            proposals.setPlanningProposals(page);
+            getProposalsResult.setData(proposals);
+        } catch (Exception e) {
+            getProposalsResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("planning.getProposalsError")));
+
+            LOGGER.error(this.resources.getString("planning.getProposalsError"), e);
+        }
+
+        return getProposalsResult;
+    }
+}
@@ -9,14 +9,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import backend.controller.ProductionOrderInventoryController;
-import backend.dao.BillOfMaterialDao;
 import backend.dao.DAOManager;
-import backend.dao.MaterialDao;
 import backend.dao.ProductionOrderDao;
 import backend.exception.DuplicateIdentifierException;
+import backend.exception.InsufficientInventoryException;
 import backend.exception.NoItemsException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
-import backend.model.billOfMaterial.BillOfMaterial;
+import backend.model.billOfMaterial.BillOfMaterialGraph;
+import backend.model.material.Material;
 import backend.model.productionOrder.ProductionOrder;
 import backend.model.productionOrder.ProductionOrderArray;
 import backend.model.productionOrder.ProductionOrderItem;
@@ -119,6 +120,42 @@ public class ProductionOrderService {
         return getProductionOrdersResult;
     }
 
+    /**
+     * Provides a page of production orders ordered by ID.
+     *
+     * @param orderStatusQuery Specifies the production orders to be selected based on the status.
+     * @param afterId          Only production orders with an ID greater than this ID are provided. Can be null.
+     * @param limit            The maximum number of production orders. All objects are provided, if neither limit nor
+     *                         afterId is given. The default limit is used, if only afterId is given.
+     * @return The production orders of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getProductionOrders(final ProductionOrderStatus orderStatusQuery, final Integer afterId,
+            final Integer limit) {
+        ProductionOrderArray productionOrders = new ProductionOrderArray();
+        WebServiceResult getProductionOrdersResult = new WebServiceResult(null);
+        List<ProductionOrder> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getProductionOrdersResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getProductionOrdersResult;
+        }
+
+        try {
+            page = this.productionOrderDAO.getProductionOrders(orderStatusQuery, afterId,
+                    Pagination.getQueryLimit(afterId, limit));
+            productionOrders.setNextAfterId(Pagination.trimPage(page, afterId, limit, ProductionOrder::getId));
+            productionOrders.setProductionOrders(page);
+            getProductionOrdersResult.setData(productionOrders);
+        } catch (Exception e) {
+            getProductionOrdersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("productionOrder.getProductionOrdersError")));
+
+            LOGGER.error(this.resources.getString("productionOrder.getProductionOrdersError"), e);
+        }
+
+        return getProductionOrdersResult;
+    }
+
     /**
      * Deletes the production order with the given id.
      *
@@ -126,34 +163,38 @@ public class ProductionOrderService {
      * @return The result of the delete function.
      */
     public WebServiceResult deleteProductionOrder(final Integer id) {
-        ProductionOrder productionOrder = null;
-        WebServiceResult deleteProductionOrderResult = new WebServiceResult(null);
+        return UnitOfWorkExecutor.execute(() -> {
+            ProductionOrder productionOrder = null;
+            WebServiceResult deleteProductionOrderResult = new WebServiceResult(null);
 
-        // Check if a production order with the given id exists.
-        try {
-            productionOrder = this.productionOrderDAO.getProductionOrder(id);
+            // Check if a production order with the given id exists.
+            try {
+                productionOrder = this.productionOrderDAO.getProductionOrder(id);
 
-            if (productionOrder != null) {
-                // Delete production order if exists.
-                this.productionOrderDAO.deleteProductionOrder(productionOrder);
+                if (productionOrder != null) {
+                    // Delete production order if exists.
+                    this.productionOrderDAO.deleteProductionOrder(productionOrder);
 
-                this.inventoryController.updateMaterialInventoryOnOrderDeletion(productionOrder);
+                    this.inventoryController.updateMaterialInventoryOnOrderDeletion(productionOrder);
 
-                deleteProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.S,
-                        MessageFormat.format(this.resources.getString("productionOrder.deleteSuccess"), id)));
-            } else {
-                // Production order not found.
+                    deleteProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.S,
+                            MessageFormat.format(this.resources.getString("productionOrder.deleteSuccess"), id)));
+                } else {
+                    // Production order not found.
+                    deleteProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                            MessageFormat.format(this.resources.getString("productionOrder.notFound"), id)));
+                }
+            } catch (InsufficientInventoryException inventoryException) {
+                deleteProductionOrderResult.addMessage(this.getInsufficientInventoryMessage(inventoryException));
+            } catch (Exception e) {
                 deleteProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
-                        MessageFormat.format(this.resources.getString("productionOrder.notFound"), id)));
-            }
-        } catch (Exception e) {
-            deleteProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
-                    MessageFormat.format(this.resources.getString("productionOrder.deleteError"), id)));
+                        MessageFormat.format(this.resources.getString("productionOrder.deleteError"), id)));
 
-            LOGGER.error(MessageFormat.format(this.resources.getString("productionOrder.deleteError"), id), e);
-        }
+                LOGGER.error(MessageFormat.format(this.resources.getString("productionOrder.deleteError"), id), e);
+            }
 
-        return deleteProductionOrderResult;
+            return deleteProductionOrderResult;
+        });
     }
 
     /**
@@ -163,28 +204,37 @@ public class ProductionOrderService {
      * @return The result of the update function.
      */
     public WebServiceResult updateProductionOrder(final ProductionOrderWS productionOrder) {
-        ProductionOrder convertedProductionOrder = new ProductionOrder();
-        WebServiceResult updateProductionOrderResult = new WebServiceResult(null);
+        return UnitOfWorkExecutor.execute(() -> {
+            ProductionOrder convertedProductionOrder = new ProductionOrder();
+            WebServiceResult updateProductionOrderResult = new WebServiceResult(null);
+            ReferenceResolver references = new ReferenceResolver();
 
-        try {
-            convertedProductionOrder = this.convertProductionOrder(productionOrder);
-        } catch (Exception exception) {
-            updateProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat.format(
-                    this.resources.getString("productionOrder.updateError"), convertedProductionOrder.getId())));
-            LOGGER.error(MessageFormat.format(this.resources.getString("productionOrder.updateError"),
-                    convertedProductionOrder.getId()), exception);
-            return updateProductionOrderResult;
-        }
+            try {
+                convertedProductionOrder = this.convertProductionOrder(productionOrder, references);
+            } catch (Exception exception) {
+                updateProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        MessageFormat.format(this.resources.getString("productionOrder.updateError"),
+                                convertedProductionOrder.getId())));
+                LOGGER.error(MessageFormat.format(this.resources.getString("productionOrder.updateError"),
+                        convertedProductionOrder.getId()), exception);
+                return updateProductionOrderResult;
+            }
 
-        updateProductionOrderResult.addMessages(this.validate(convertedProductionOrder));
-        updateProductionOrderResult.addMessages(this.validateUpdate(convertedProductionOrder));
-        if (WebServiceTools.resultContainsErrorMessage(updateProductionOrderResult)) {
-            return updateProductionOrderResult;
-        }
+            updateProductionOrderResult.addMessages(references.getMissingReferenceMessages());
+            if (WebServiceTools.resultContainsErrorMessage(updateProductionOrderResult)) {
+                return updateProductionOrderResult;
+            }
+
+            updateProductionOrderResult.addMessages(this.validate(convertedProductionOrder));
+            updateProductionOrderResult.addMessages(this.validateUpdate(convertedProductionOrder));
+            if (WebServiceTools.resultContainsErrorMessage(updateProductionOrderResult)) {
+                return updateProductionOrderResult;
+            }
 
-        updateProductionOrderResult.addMessages(this.update(convertedProductionOrder));
+            updateProductionOrderResult.addMessages(this.update(convertedProductionOrder));
 
-        return updateProductionOrderResult;
+            return updateProductionOrderResult;
+        });
     }
 
     /**
@@ -194,27 +244,35 @@ public class ProductionOrderService {
      * @return The result of the add function.
      */
     public WebServiceResult addProductionOrder(final ProductionOrderWS productionOrder) {
-        ProductionOrder convertedProductionOrder = new ProductionOrder();
-        WebServiceResult addProductionOrderResult = new WebServiceResult();
+        return UnitOfWorkExecutor.execute(() -> {
+            ProductionOrder convertedProductionOrder = new ProductionOrder();
+            WebServiceResult addProductionOrderResult = new WebServiceResult();
+            ReferenceResolver references = new ReferenceResolver();
 
-        try {
-            convertedProductionOrder = this.convertProductionOrder(productionOrder);
-        } catch (Exception exception) {
-            addProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
-                    this.resources.getString("productionOrder.addError")));
-            LOGGER.error(this.resources.getString("productionOrder.addError"), exception);
-            return addProductionOrderResult;
-        }
+            try {
+                convertedProductionOrder = this.convertProductionOrder(productionOrder, references);
+            } catch (Exception exception) {
+                addProductionOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        this.resources.getString("productionOrder.addError")));
+                LOGGER.error(this.resources.getString("productionOrder.addError"), exception);
+                return addProductionOrderResult;
+            }
 
-        addProductionOrderResult.addMessages(this.validate(convertedProductionOrder));
-        if (WebServiceTools.resultContainsErrorMessage(addProductionOrderResult)) {
-            return addProductionOrderResult;
-        }
+            addProductionOrderResult.addMessages(references.getMissingReferenceMessages());
+            if (WebServiceTools.resultContainsErrorMessage(addProductionOrderResult)) {
+                return addProductionOrderResult;
+            }
+
+            addProductionOrderResult.addMessages(this.validate(convertedProductionOrder));
+            if (WebServiceTools.resultContainsErrorMessage(addProductionOrderResult)) {
+                return addProductionOrderResult;
+            }
 
-        addProductionOrderResult.addMessages(this.add(convertedProductionOrder));
-        addProductionOrderResult.setData(convertedProductionOrder.getId());
+            addProductionOrderResult.addMessages(this.add(convertedProductionOrder));
+            addProductionOrderResult.setData(convertedProductionOrder.getId());
 
-        return addProductionOrderResult;
+            return addProductionOrderResult;
+        });
     }
 
     /**
@@ -222,15 +280,23 @@ public class ProductionOrderService {
      * for further processing.
      *
      * @param productionOrderWS The lean production order representation provided by the WebService.
+     * @param references        Resolves the objects referenced by the production order.
      * @return The ProductionOrder model that is used by the backend internally.
      * @throws Exception In case the conversion fails.
      */
-    private ProductionOrder convertProductionOrder(final ProductionOrderWS productionOrderWS) throws Exception {
+    private ProductionOrder convertProductionOrder(final ProductionOrderWS productionOrderWS,
+            final ReferenceResolver references) throws Exception {
         ProductionOrder convertedProductionOrder;
 
+        for (ProductionOrderItemWS itemWS : productionOrderWS.getItems()) {
+            references.addMaterialId(itemWS.getMaterialId());
+        }
+
+        references.resolve();
+
         convertedProductionOrder = this.convertProductionOrderHead(productionOrderWS);
         convertedProductionOrder
-                .setItems(this.convertProductionOrderItems(productionOrderWS, convertedProductionOrder));
+                .setItems(this.convertProductionOrderItems(productionOrderWS, convertedProductionOrder, references));
 
         return convertedProductionOrder;
     }
@@ -248,6 +314,7 @@ public class ProductionOrderService {
 
         // Basic object data that are copied as-is.
         productionOrder.setId(productionOrderWS.getProductionOrderId());
+        productionOrder.setVersion(productionOrderWS.getVersion());
         productionOrder.setOrderDate(productionOrderWS.getOrderDate());
         productionOrder.setPlannedExecutionDate(productionOrderWS.getPlannedExecutionDate());
         productionOrder.setExecutionDate(productionOrderWS.getExecutionDate());
@@ -262,18 +329,17 @@ public class ProductionOrderService {
      *
      * @param productionOrderWS The lean production order representation provided by the WebService.
      * @param productionOrder   The converted production order that is build based on the WebService representation.
+     * @param references        The resolved objects referenced by the production order.
      * @return A list of item models that is used by the backend internally.
-     * @throws Exception In case the conversion fails.
      */
     private List<ProductionOrderItem> convertProductionOrderItems(final ProductionOrderWS productionOrderWS,
-            final ProductionOrder productionOrder) throws Exception {
+            final ProductionOrder productionOrder, final ReferenceResolver references) {
         List<ProductionOrderItem> orderItems = new ArrayList<ProductionOrderItem>();
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
 
         for (ProductionOrderItemWS itemWS : productionOrderWS.getItems()) {
             ProductionOrderItem orderItem = new ProductionOrderItem();
             orderItem.setId(itemWS.getItemId());
-            orderItem.setMaterial(materialDAO.getMaterial(itemWS.getMaterialId()));
+            orderItem.setMaterial(references.getMaterial(itemWS.getMaterialId()));
             orderItem.setQuantity(itemWS.getQuantity());
             orderItem.setProductionOrder(productionOrder);
             orderItems.add(orderItem);
@@ -433,12 +499,11 @@ public class ProductionOrderService {
      * @throws Exception In case the bill of material determination for the production order items fails.
      */
     private Integer getIdOfMaterialWithoutBom(final ProductionOrder productionOrder) throws Exception {
-        BillOfMaterialDao billOfMaterialDAO = DAOManager.getInstance().getBillOfMaterialDAO();
-        List<BillOfMaterial> billOfMaterials;
+        BillOfMaterialGraph billOfMaterialGraph = DAOManager.getInstance().getBillOfMaterialDAO()
+                .getBillOfMaterialGraph();
 
         for (ProductionOrderItem item : productionOrder.getItems()) {
-            billOfMaterials = billOfMaterialDAO.getBillOfMaterials(item.getMaterial());
-            if (billOfMaterials.size() == 0) {
+            if (!billOfMaterialGraph.hasBillOfMaterial(item.getMaterial().getId())) {
                 return item.getMaterial().getId();
             }
         }
@@ -458,13 +523,19 @@ public class ProductionOrderService {
 
         try {
             databaseProductionOrder = this.productionOrderDAO.getProductionOrder(productionOrder.getId());
-            this.productionOrderDAO.updateProductionOrder(productionOrder);
+            // The database state is managed by the unit of work. It is overwritten by the update.
             this.inventoryController.updateMaterialInventoryOnOrderUpdate(productionOrder, databaseProductionOrder);
+            this.productionOrderDAO.updateProductionOrder(productionOrder);
             messages.add(new WebServiceMessage(WebServiceMessageType.S, MessageFormat
                     .format(this.resources.getString("productionOrder.updateSuccess"), productionOrder.getId())));
         } catch (ObjectUnchangedException objectUnchangedException) {
             messages.add(new WebServiceMessage(WebServiceMessageType.I, MessageFormat
                     .format(this.resources.getString("productionOrder.updateUnchanged"), productionOrder.getId())));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            messages.add(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
+                    .format(this.resources.getString("productionOrder.updateConflict"), productionOrder.getId())));
+        } catch (InsufficientInventoryException inventoryException) {
+            messages.add(this.getInsufficientInventoryMessage(inventoryException));
         } catch (Exception e) {
             messages.add(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
                     .format(this.resources.getString("productionOrder.updateError"), productionOrder.getId())));
@@ -497,4 +568,19 @@ public class ProductionOrderService {
 
         return messages;
     }
+
+    /**
+     * Provides the message for a material whose inventory is not sufficient for the change of the production order.
+     *
+     * @param insufficientInventoryException The exception of the material with insufficient inventory.
+     * @return The error message.
+     */
+    private WebServiceMessage getInsufficientInventoryMessage(
+            final InsufficientInventoryException insufficientInventoryException) {
+        Material material = insufficientInventoryException.getMaterial();
+
+        return new WebServiceMessage(WebServiceMessageType.E,
+                MessageFormat.format(this.resources.getString("material.insufficientInventory"), material.getId(),
+                        material.getInventory(), material.getUnit()));
+    }
 }
@@ -12,20 +12,21 @@ import org.apache.logging.log4j.Logger;
 
 import backend.controller.PurchaseOrderInventoryController;
 import backend.controller.PurchaseOrderPaymentController;
-import backend.dao.AccountDao;
-import backend.dao.BusinessPartnerDao;
 import backend.dao.DAOManager;
-import backend.dao.MaterialDao;
 import backend.dao.PurchaseOrderDao;
 import backend.exception.DuplicateIdentifierException;
+import backend.exception.InsufficientInventoryException;
 import backend.exception.NoItemsException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
+import backend.model.material.Material;
 import backend.model.purchaseOrder.PurchaseOrder;
 import backend.model.purchaseOrder.PurchaseOrderArray;
 import backend.model.purchaseOrder.PurchaseOrderItem;
 import backend.model.purchaseOrder.PurchaseOrderItemWS;
 import backend.model.purchaseOrder.PurchaseOrderStatus;
 import backend.model.purchaseOrder.PurchaseOrderWS;
+import backend.model.purchaseOrder.PurchaseOrderWSArray;
 import backend.model.webservice.WebServiceMessage;
 import backend.model.webservice.WebServiceMessageType;
 import backend.model.webservice.WebServiceResult;
@@ -37,6 +38,11 @@ import backend.tools.WebServiceTools;
  * @author Michael
  */
 public class PurchaseOrderService {
+    /**
+     * The relations of the lean purchase order representation that can be expanded.
+     */
+    private static final Set<String> EXPANDABLE_RELATIONS = Set.of("vendor", "paymentAccount", "material");
+
     /**
      * DAO for purchase order access.
      */
@@ -102,6 +108,54 @@ public class PurchaseOrderService {
         return getPurchaseOrderResult;
     }
 
+    /**
+     * Provides the purchase order with the given ID. If the lean view is requested, the lean representation of the
+     * purchase order is provided instead of the purchase order.
+     *
+     * @param id     The ID of the purchase order.
+     * @param view   The requested view: "lean" or null, if the purchase order is requested.
+     * @param expand The comma separated list of relations to be expanded in the lean view. Can be null.
+     * @return The purchase order with the given ID.
+     */
+    public WebServiceResult getPurchaseOrder(final Integer id, final String view, final String expand) {
+        WebServiceResult getPurchaseOrderResult = new WebServiceResult(null);
+        PurchaseOrderWS purchaseOrder;
+
+        if (!Expansion.isValidView(view, expand)) {
+            getPurchaseOrderResult.addMessage(Expansion.getInvalidViewMessage(this.resources));
+            return getPurchaseOrderResult;
+        }
+
+        if (!Expansion.isLeanView(view)) {
+            return this.getPurchaseOrder(id);
+        }
+
+        if (!Expansion.isValid(expand, EXPANDABLE_RELATIONS)) {
+            getPurchaseOrderResult
+                    .addMessage(Expansion.getInvalidExpansionMessage(this.resources, EXPANDABLE_RELATIONS));
+            return getPurchaseOrderResult;
+        }
+
+        try {
+            purchaseOrder = this.purchaseOrderDAO.getLeanPurchaseOrder(id);
+
+            if (purchaseOrder != null) {
+                this.expand(List.of(purchaseOrder), Expansion.parse(expand));
+                getPurchaseOrderResult.setData(purchaseOrder);
+            } else {
+                getPurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        MessageFormat.format(this.resources.getString("purchaseOrder.notFound"), id)));
+            }
+        } catch (Exception e) {
+            getPurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("purchaseOrder.getError"), id)));
+
+            LOGGER.error(MessageFormat.format(this.resources.getString("purchaseOrder.getError"), id), e);
+        }
+
+        return getPurchaseOrderResult;
+    }
+
     /**
      * Provides a list of all purchase orders.
      *
@@ -125,6 +179,99 @@ public class PurchaseOrderService {
         return getPurchaseOrdersResult;
     }
 
+    /**
+     * Provides a page of purchase orders ordered by ID.
+     *
+     * @param orderStatusQuery Specifies the purchase orders to be selected based on the status.
+     * @param afterId          Only purchase orders with an ID greater than this ID are provided. Can be null.
+     * @param limit            The maximum number of purchase orders. All objects are provided, if neither limit nor
+     *                         afterId is given. The default limit is used, if only afterId is given.
+     * @return The purchase orders of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getPurchaseOrders(final PurchaseOrderStatus orderStatusQuery, final Integer afterId,
+            final Integer limit) {
+        PurchaseOrderArray purchaseOrders = new PurchaseOrderArray();
+        WebServiceResult getPurchaseOrdersResult = new WebServiceResult(null);
+        List<PurchaseOrder> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getPurchaseOrdersResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getPurchaseOrdersResult;
+        }
+
+        try {
+            page = this.purchaseOrderDAO.getPurchaseOrders(orderStatusQuery, afterId,
+                    Pagination.getQueryLimit(afterId, limit));
+            purchaseOrders.setNextAfterId(Pagination.trimPage(page, afterId, limit, PurchaseOrder::getId));
+            purchaseOrders.setPurchaseOrders(page);
+            getPurchaseOrdersResult.setData(purchaseOrders);
+        } catch (Exception e) {
+            getPurchaseOrdersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("purchaseOrder.getPurchaseOrdersError")));
+
+            LOGGER.error(this.resources.getString("purchaseOrder.getPurchaseOrdersError"), e);
+        }
+
+        return getPurchaseOrdersResult;
+    }
+
+    /**
+     * Provides a page of purchase orders ordered by ID. If the lean view is requested, the lean representation of the
+     * purchase orders is provided instead of the purchase orders. The lean representation is read without
+     * loading the referenced objects. Only the referenced objects of the expanded relations are loaded afterwards.
+     *
+     * @param orderStatusQuery Specifies the purchase orders to be selected based on the status.
+     * @param afterId          Only purchase orders with an ID greater than this ID are provided. Can be null.
+     * @param limit            The maximum number of purchase orders. All objects are provided, if neither limit nor
+     *                         afterId is given. The default limit is used, if only afterId is given.
+     * @param view             The requested view: "lean" or null, if the purchase orders are requested.
+     * @param expand           The comma separated list of relations to be expanded in the lean view. Can be null.
+     * @return The purchase orders of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getPurchaseOrders(final PurchaseOrderStatus orderStatusQuery, final Integer afterId,
+            final Integer limit, final String view, final String expand) {
+        PurchaseOrderWSArray purchaseOrders = new PurchaseOrderWSArray();
+        WebServiceResult getPurchaseOrdersResult = new WebServiceResult(null);
+        List<PurchaseOrderWS> page;
+
+        if (!Expansion.isValidView(view, expand)) {
+            getPurchaseOrdersResult.addMessage(Expansion.getInvalidViewMessage(this.resources));
+            return getPurchaseOrdersResult;
+        }
+
+        if (!Expansion.isLeanView(view)) {
+            return this.getPurchaseOrders(orderStatusQuery, afterId, limit);
+        }
+
+        if (!Pagination.isValidLimit(limit)) {
+            getPurchaseOrdersResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getPurchaseOrdersResult;
+        }
+
+        if (!Expansion.isValid(expand, EXPANDABLE_RELATIONS)) {
+            getPurchaseOrdersResult
+                    .addMessage(Expansion.getInvalidExpansionMessage(this.resources, EXPANDABLE_RELATIONS));
+            return getPurchaseOrdersResult;
+        }
+
+        try {
+            page = this.purchaseOrderDAO.getLeanPurchaseOrders(orderStatusQuery, afterId,
+                    Pagination.getQueryLimit(afterId, limit));
+            purchaseOrders.setNextAfterId(Pagination.trimPage(page, afterId, limit,
+                    PurchaseOrderWS::getPurchaseOrderId));
+            this.expand(page, Expansion.parse(expand));
+            purchaseOrders.setPurchaseOrders(page);
+            getPurchaseOrdersResult.setData(purchaseOrders);
+        } catch (Exception e) {
+            getPurchaseOrdersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("purchaseOrder.getPurchaseOrdersError")));
+
+            LOGGER.error(this.resources.getString("purchaseOrder.getPurchaseOrdersError"), e);
+        }
+
+        return getPurchaseOrdersResult;
+    }
+
     /**
      * Adds a purchase order.
      *
@@ -132,27 +279,35 @@ public class PurchaseOrderService {
      * @return The result of the add function.
      */
     public WebServiceResult addPurchaseOrder(final PurchaseOrderWS purchaseOrder) {
-        PurchaseOrder convertedPurchaseOrder = new PurchaseOrder();
-        WebServiceResult addPurchaseOrderResult = new WebServiceResult();
+        return UnitOfWorkExecutor.execute(() -> {
+            PurchaseOrder convertedPurchaseOrder = new PurchaseOrder();
+            WebServiceResult addPurchaseOrderResult = new WebServiceResult();
+            ReferenceResolver references = new ReferenceResolver();
+
+            try {
+                convertedPurchaseOrder = this.convertPurchaseOrder(purchaseOrder, references);
+            } catch (Exception exception) {
+                addPurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        this.resources.getString("purchaseOrder.addError")));
+                LOGGER.error(this.resources.getString("purchaseOrder.addError"), exception);
+                return addPurchaseOrderResult;
+            }
 
-        try {
-            convertedPurchaseOrder = this.convertPurchaseOrder(purchaseOrder);
-        } catch (Exception exception) {
-            addPurchaseOrderResult.addMessage(
-                    new WebServiceMessage(WebServiceMessageType.E, this.resources.getString("purchaseOrder.addError")));
-            LOGGER.error(this.resources.getString("purchaseOrder.addError"), exception);
-            return addPurchaseOrderResult;
-        }
+            addPurchaseOrderResult.addMessages(references.getMissingReferenceMessages());
+            if (WebServiceTools.resultContainsErrorMessage(addPurchaseOrderResult)) {
+                return addPurchaseOrderResult;
+            }
 
-        addPurchaseOrderResult.addMessages(this.validate(convertedPurchaseOrder));
-        if (WebServiceTools.resultContainsErrorMessage(addPurchaseOrderResult)) {
-            return addPurchaseOrderResult;
-        }
+            addPurchaseOrderResult.addMessages(this.validate(convertedPurchaseOrder));
+            if (WebServiceTools.resultContainsErrorMessage(addPurchaseOrderResult)) {
+                return addPurchaseOrderResult;
+            }
 
-        addPurchaseOrderResult.addMessages(this.add(convertedPurchaseOrder));
-        addPurchaseOrderResult.setData(convertedPurchaseOrder.getId());
+            addPurchaseOrderResult.addMessages(this.add(convertedPurchaseOrder));
+            addPurchaseOrderResult.setData(convertedPurchaseOrder.getId());
 
-        return addPurchaseOrderResult;
+            return addPurchaseOrderResult;
+        });
     }
 
     /**
@@ -162,38 +317,42 @@ public class PurchaseOrderService {
      * @return The result of the delete function.
      */
     public WebServiceResult deletePurchaseOrder(final Integer id) {
-        PurchaseOrder purchaseOrder = null;
-        WebServiceResult deletePurchaseOrderResult = new WebServiceResult(null);
-
-        // Check if a purchase order with the given id exists.
-        try {
-            purchaseOrder = this.purchaseOrderDAO.getPurchaseOrder(id);
-
-            if (purchaseOrder != null) {
-                // Delete purchase order if exists.
-                this.purchaseOrderDAO.deletePurchaseOrder(purchaseOrder);
-
-                this.inventoryController.updateMaterialInventoryOnOrderDeletion(purchaseOrder);
-
-                if (purchaseOrder.isStatusActive(PurchaseOrderStatus.INVOICE_SETTLED)) {
-                    this.paymentController.increaseAccountBalance(purchaseOrder);
+        return UnitOfWorkExecutor.execute(() -> {
+            PurchaseOrder purchaseOrder = null;
+            WebServiceResult deletePurchaseOrderResult = new WebServiceResult(null);
+
+            // Check if a purchase order with the given id exists.
+            try {
+                purchaseOrder = this.purchaseOrderDAO.getPurchaseOrder(id);
+
+                if (purchaseOrder != null) {
+                    // Delete purchase order if exists.
+                    this.purchaseOrderDAO.deletePurchaseOrder(purchaseOrder);
+
+                    this.inventoryController.updateMaterialInventoryOnOrderDeletion(purchaseOrder);
+
+                    if (purchaseOrder.isStatusActive(PurchaseOrderStatus.INVOICE_SETTLED)) {
+                        this.paymentController.increaseAccountBalance(purchaseOrder);
+                    }
+
+                    deletePurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.S,
+                            MessageFormat.format(this.resources.getString("purchaseOrder.deleteSuccess"), id)));
+                } else {
+                    // Purchase order not found.
+                    deletePurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                            MessageFormat.format(this.resources.getString("purchaseOrder.notFound"), id)));
                 }
-
-                deletePurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.S,
-                        MessageFormat.format(this.resources.getString("purchaseOrder.deleteSuccess"), id)));
-            } else {
-                // Purchase order not found.
+            } catch (InsufficientInventoryException inventoryException) {
+                deletePurchaseOrderResult.addMessage(this.getInsufficientInventoryMessage(inventoryException));
+            } catch (Exception e) {
                 deletePurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
-                        MessageFormat.format(this.resources.getString("purchaseOrder.notFound"), id)));
-            }
-        } catch (Exception e) {
-            deletePurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
-                    MessageFormat.format(this.resources.getString("purchaseOrder.deleteError"), id)));
+                        MessageFormat.format(this.resources.getString("purchaseOrder.deleteError"), id)));
 
-            LOGGER.error(MessageFormat.format(this.resources.getString("purchaseOrder.deleteError"), id), e);
-        }
+                LOGGER.error(MessageFormat.format(this.resources.getString("purchaseOrder.deleteError"), id), e);
+            }
 
-        return deletePurchaseOrderResult;
+            return deletePurchaseOrderResult;
+        });
     }
 
     /**
@@ -203,27 +362,36 @@ public class PurchaseOrderService {
      * @return The result of the update function.
      */
     public WebServiceResult updatePurchaseOrder(final PurchaseOrderWS purchaseOrder) {
-        PurchaseOrder convertedPurchaseOrder = new PurchaseOrder();
-        WebServiceResult updatePurchaseOrderResult = new WebServiceResult(null);
+        return UnitOfWorkExecutor.execute(() -> {
+            PurchaseOrder convertedPurchaseOrder = new PurchaseOrder();
+            WebServiceResult updatePurchaseOrderResult = new WebServiceResult(null);
+            ReferenceResolver references = new ReferenceResolver();
+
+            try {
+                convertedPurchaseOrder = this.convertPurchaseOrder(purchaseOrder, references);
+            } catch (Exception exception) {
+                updatePurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        MessageFormat.format(this.resources.getString("purchaseOrder.updateError"),
+                                convertedPurchaseOrder.getId())));
+                LOGGER.error(MessageFormat.format(this.resources.getString("purchaseOrder.updateError"),
+                        convertedPurchaseOrder.getId()), exception);
+                return updatePurchaseOrderResult;
+            }
 
-        try {
-            convertedPurchaseOrder = this.convertPurchaseOrder(purchaseOrder);
-        } catch (Exception exception) {
-            updatePurchaseOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
-                    .format(this.resources.getString("purchaseOrder.updateError"), convertedPurchaseOrder.getId())));
-            LOGGER.error(MessageFormat.format(this.resources.getString("purchaseOrder.updateError"),
-                    convertedPurchaseOrder.getId()), exception);
-            return updatePurchaseOrderResult;
-        }
+            updatePurchaseOrderResult.addMessages(references.getMissingReferenceMessages());
+            if (WebServiceTools.resultContainsErrorMessage(updatePurchaseOrderResult)) {
+                return updatePurchaseOrderResult;
+            }
 
-        updatePurchaseOrderResult.addMessages(this.validate(convertedPurchaseOrder));
-        if (WebServiceTools.resultContainsErrorMessage(updatePurchaseOrderResult)) {
-            return updatePurchaseOrderResult;
-        }
+            updatePurchaseOrderResult.addMessages(this.validate(convertedPurchaseOrder));
+            if (WebServiceTools.resultContainsErrorMessage(updatePurchaseOrderResult)) {
+                return updatePurchaseOrderResult;
+            }
 
-        updatePurchaseOrderResult.addMessages(this.update(convertedPurchaseOrder));
+            updatePurchaseOrderResult.addMessages(this.update(convertedPurchaseOrder));
 
-        return updatePurchaseOrderResult;
+            return updatePurchaseOrderResult;
+        });
     }
 
     /**
@@ -231,14 +399,26 @@ public class PurchaseOrderService {
      * further processing.
      *
      * @param purchaseOrderWS The lean purchase order representation provided by the WebService.
+     * @param references      Resolves the objects referenced by the purchase order.
      * @return The PurchaseOrder model that is used by the backend internally.
      * @throws Exception In case the conversion fails.
      */
-    private PurchaseOrder convertPurchaseOrder(final PurchaseOrderWS purchaseOrderWS) throws Exception {
+    private PurchaseOrder convertPurchaseOrder(final PurchaseOrderWS purchaseOrderWS,
+            final ReferenceResolver references) throws Exception {
         PurchaseOrder convertedPurchaseOrder;
 
-        convertedPurchaseOrder = this.convertPurchaseOrderHead(purchaseOrderWS);
-        convertedPurchaseOrder.setItems(this.convertPurchaseOrderItems(purchaseOrderWS, convertedPurchaseOrder));
+        references.addBusinessPartnerId(purchaseOrderWS.getVendorId());
+        references.addAccountId(purchaseOrderWS.getPaymentAccountId());
+
+        for (PurchaseOrderItemWS itemWS : purchaseOrderWS.getItems()) {
+            references.addMaterialId(itemWS.getMaterialId());
+        }
+
+        references.resolve();
+
+        convertedPurchaseOrder = this.convertPurchaseOrderHead(purchaseOrderWS, references);
+        convertedPurchaseOrder
+                .setItems(this.convertPurchaseOrderItems(purchaseOrderWS, convertedPurchaseOrder, references));
 
         return convertedPurchaseOrder;
     }
@@ -248,28 +428,23 @@ public class PurchaseOrderService {
      * of the backend.
      *
      * @param purchaseOrderWS The lean purchase order representation provided by the WebService.
+     * @param references      The resolved objects referenced by the purchase order.
      * @return The PurchaseOrder model that is used by the backend internally.
-     * @throws Exception In case the conversion fails.
      */
-    private PurchaseOrder convertPurchaseOrderHead(final PurchaseOrderWS purchaseOrderWS) throws Exception {
-        BusinessPartnerDao partnerDAO = DAOManager.getInstance().getBusinessPartnerDAO();
-        AccountDao accountDAO = DAOManager.getInstance().getAccountDAO();
+    private PurchaseOrder convertPurchaseOrderHead(final PurchaseOrderWS purchaseOrderWS,
+            final ReferenceResolver references) {
         PurchaseOrder purchaseOrder = new PurchaseOrder();
 
         // Basic object data that are copied as-is.
         purchaseOrder.setId(purchaseOrderWS.getPurchaseOrderId());
+        purchaseOrder.setVersion(purchaseOrderWS.getVersion());
         purchaseOrder.setOrderDate(purchaseOrderWS.getOrderDate());
         purchaseOrder.setRequestedDeliveryDate(purchaseOrderWS.getRequestedDeliveryDate());
         purchaseOrder.setStatus(purchaseOrderWS.getStatus());
 
-        // Object references. Only the ID is given and the whole backend object has to be loaded and referenced.
-        if (purchaseOrderWS.getVendorId() != null) {
-            purchaseOrder.setVendor(partnerDAO.getBusinessPartner(purchaseOrderWS.getVendorId()));
-        }
-
-        if (purchaseOrderWS.getPaymentAccountId() != null) {
-            purchaseOrder.setPaymentAccount(accountDAO.getAccount(purchaseOrderWS.getPaymentAccountId()));
-        }
+        // Object references. Only the ID is given and the whole backend object has been loaded by the resolver.
+        purchaseOrder.setVendor(references.getBusinessPartner(purchaseOrderWS.getVendorId()));
+        purchaseOrder.setPaymentAccount(references.getAccount(purchaseOrderWS.getPaymentAccountId()));
 
         return purchaseOrder;
     }
@@ -280,19 +455,18 @@ public class PurchaseOrderService {
      *
      * @param purchaseOrderWS The lean purchase order representation provided by the WebService.
      * @param purchaseOrder   The converted purchase order that is build based on the WebService representation.
+     * @param references      The resolved objects referenced by the purchase order.
      * @return A set of item models that is used by the backend internally.
-     * @throws Exception In case the conversion fails.
      */
     private Set<PurchaseOrderItem> convertPurchaseOrderItems(final PurchaseOrderWS purchaseOrderWS,
-            final PurchaseOrder purchaseOrder) throws Exception {
+            final PurchaseOrder purchaseOrder, final ReferenceResolver references) {
         Set<PurchaseOrderItem> orderItems = new HashSet<PurchaseOrderItem>();
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
 
         for (PurchaseOrderItemWS itemWS : purchaseOrderWS.getItems()) {
             PurchaseOrderItem orderItem = new PurchaseOrderItem();
 
             orderItem.setId(itemWS.getItemId());
-            orderItem.setMaterial(materialDAO.getMaterial(itemWS.getMaterialId()));
+            orderItem.setMaterial(references.getMaterial(itemWS.getMaterialId()));
             orderItem.setQuantity(itemWS.getQuantity());
             orderItem.setPurchaseOrder(purchaseOrder);
             orderItems.add(orderItem);
@@ -338,14 +512,20 @@ public class PurchaseOrderService {
 
         try {
             databasePurchaseOrder = this.purchaseOrderDAO.getPurchaseOrder(purchaseOrder.getId());
-            this.purchaseOrderDAO.updatePurchaseOrder(purchaseOrder);
+            // The database state is managed by the unit of work. It is overwritten by the update.
             this.inventoryController.updateMaterialInventoryOnOrderUpdate(purchaseOrder, databasePurchaseOrder);
             this.paymentController.updatePurchaseOrderPayment(purchaseOrder, databasePurchaseOrder);
+            this.purchaseOrderDAO.updatePurchaseOrder(purchaseOrder);
             messages.add(new WebServiceMessage(WebServiceMessageType.S, MessageFormat
                     .format(this.resources.getString("purchaseOrder.updateSuccess"), purchaseOrder.getId())));
         } catch (ObjectUnchangedException objectUnchangedException) {
             messages.add(new WebServiceMessage(WebServiceMessageType.I, MessageFormat
                     .format(this.resources.getString("purchaseOrder.updateUnchanged"), purchaseOrder.getId())));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            messages.add(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
+                    .format(this.resources.getString("purchaseOrder.updateConflict"), purchaseOrder.getId())));
+        } catch (InsufficientInventoryException inventoryException) {
+            messages.add(this.getInsufficientInventoryMessage(inventoryException));
         } catch (Exception e) {
             messages.add(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
                     .format(this.resources.getString("purchaseOrder.updateError"), purchaseOrder.getId())));
@@ -380,4 +560,54 @@ public class PurchaseOrderService {
 
         return messages;
     }
+
+    /**
+     * Provides the message for a material whose inventory is not sufficient for the change of the purchase order.
+     *
+     * @param insufficientInventoryException The exception of the material with insufficient inventory.
+     * @return The error message.
+     */
+    private WebServiceMessage getInsufficientInventoryMessage(
+            final InsufficientInventoryException insufficientInventoryException) {
+        Material material = insufficientInventoryException.getMaterial();
+
+        return new WebServiceMessage(WebServiceMessageType.E,
+                MessageFormat.format(this.resources.getString("material.insufficientInventory"), material.getId(),
+                        material.getInventory(), material.getUnit()));
+    }
+
+    /**
+     * Expands the given relations of the lean purchase orders. The referenced objects of all purchase orders are
+     * loaded at once.
+     *
+     * @param purchaseOrders The lean purchase orders.
+     * @param relations      The relations to be expanded.
+     * @throws Exception In case the referenced objects could not be loaded.
+     */
+    private void expand(final List<PurchaseOrderWS> purchaseOrders, final Set<String> relations) throws Exception {
+        ReferenceResolver references = new ReferenceResolver();
+
+        for (PurchaseOrderWS purchaseOrder : purchaseOrders) {
+            references.addBusinessPartnerId(relations.contains("vendor") ? purchaseOrder.getVendorId() : null);
+            references.addAccountId(relations.contains("paymentAccount") ? purchaseOrder.getPaymentAccountId() : null);
+
+            for (PurchaseOrderItemWS purchaseOrderItem : purchaseOrder.getItems()) {
+                references.addMaterialId(relations.contains("material") ? purchaseOrderItem.getMaterialId() : null);
+            }
+        }
+
+        references.resolve();
+
+        for (PurchaseOrderWS purchaseOrder : purchaseOrders) {
+            purchaseOrder.setVendor(references.getBusinessPartner(
+                    relations.contains("vendor") ? purchaseOrder.getVendorId() : null));
+            purchaseOrder.setPaymentAccount(references.getAccount(
+                    relations.contains("paymentAccount") ? purchaseOrder.getPaymentAccountId() : null));
+
+            for (PurchaseOrderItemWS purchaseOrderItem : purchaseOrder.getItems()) {
+                purchaseOrderItem.setMaterial(references.getMaterial(
+                        relations.contains("material") ? purchaseOrderItem.getMaterialId() : null));
+            }
+        }
+    }
 }
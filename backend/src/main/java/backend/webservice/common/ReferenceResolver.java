@@ -0,0 +1,266 @@
+package backend.webservice.common;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import backend.dao.DAOManager;
+import backend.model.account.Account;
+import backend.model.businessPartner.BusinessPartner;
+import backend.model.material.Material;
+import backend.model.webservice.WebServiceMessage;
+import backend.model.webservice.WebServiceMessageType;
+
+/**
+ * Resolves the object references of the lean WebService representations. The WebService only provides the IDs of
+ * referenced objects. Instead of loading each referenced object on its own, the IDs of all references are collected
+ * first. The objects of each type are then loaded at once.
+ *
+ * <pre>
+ * ReferenceResolver references = new ReferenceResolver();
+ * references.addMaterialId(materialId);
+ * references.resolve();
+ * material = references.getMaterial(materialId);
+ * </pre>
+ *
+ * @author Michael
+ */
+final class ReferenceResolver {
+    /**
+     * Access to localized application resources.
+     */
+    private final ResourceBundle resources = ResourceBundle.getBundle("backend");
+
+    /**
+     * The referenced materials.
+     */
+    private final References<Material> materials = new References<Material>("material.notFound",
+            ids -> DAOManager.getInstance().getMaterialDAO().getMaterialsById(ids), Material::getId);
+
+    /**
+     * The referenced business partners.
+     */
+    private final References<BusinessPartner> businessPartners = new References<BusinessPartner>(
+            "businessPartner.notFound",
+            ids -> DAOManager.getInstance().getBusinessPartnerDAO().getBusinessPartnersById(ids),
+            BusinessPartner::getId);
+
+    /**
+     * The referenced accounts.
+     */
+    private final References<Account> accounts = new References<Account>("account.notFound",
+            ids -> DAOManager.getInstance().getAccountDAO().getAccountsById(ids), Account::getId);
+
+    /**
+     * Adds the ID of a referenced material.
+     *
+     * @param id The ID of the material. Null is ignored.
+     */
+    void addMaterialId(final Integer id) {
+        this.materials.add(id);
+    }
+
+    /**
+     * Adds the ID of a referenced business partner.
+     *
+     * @param id The ID of the business partner. Null is ignored.
+     */
+    void addBusinessPartnerId(final Integer id) {
+        this.businessPartners.add(id);
+    }
+
+    /**
+     * Adds the ID of a referenced account.
+     *
+     * @param id The ID of the account. Null is ignored.
+     */
+    void addAccountId(final Integer id) {
+        this.accounts.add(id);
+    }
+
+    /**
+     * Loads the objects of all IDs that have been added since the last resolution.
+     *
+     * @throws Exception In case the objects could not be loaded.
+     */
+    void resolve() throws Exception {
+        this.materials.resolve();
+        this.businessPartners.resolve();
+        this.accounts.resolve();
+    }
+
+    /**
+     * Provides the resolved material with the given ID.
+     *
+     * @param id The ID of the material.
+     * @return The material, or null if the ID is null or no material with the ID exists.
+     */
+    Material getMaterial(final Integer id) {
+        return this.materials.get(id);
+    }
+
+    /**
+     * Provides the resolved business partner with the given ID.
+     *
+     * @param id The ID of the business partner.
+     * @return The business partner, or null if the ID is null or no business partner with the ID exists.
+     */
+    BusinessPartner getBusinessPartner(final Integer id) {
+        return this.businessPartners.get(id);
+    }
+
+    /**
+     * Provides the resolved account with the given ID.
+     *
+     * @param id The ID of the account.
+     * @return The account, or null if the ID is null or no account with the ID exists.
+     */
+    Account getAccount(final Integer id) {
+        return this.accounts.get(id);
+    }
+
+    /**
+     * Provides an error message for each resolved ID whose object does not exist.
+     *
+     * @return The error messages. Empty, if all referenced objects exist.
+     */
+    List<WebServiceMessage> getMissingReferenceMessages() {
+        List<WebServiceMessage> messages = new ArrayList<WebServiceMessage>();
+
+        this.materials.addMissingReferenceMessages(messages);
+        this.businessPartners.addMissingReferenceMessages(messages);
+        this.accounts.addMissingReferenceMessages(messages);
+
+        return messages;
+    }
+
+    /**
+     * Loads the objects of a type with the given IDs.
+     *
+     * @param <T> The type of the objects.
+     */
+    @FunctionalInterface
+    private interface Loader<T> {
+        /**
+         * Loads the objects with the given IDs.
+         *
+         * @param ids The IDs.
+         * @return The objects that exist.
+         * @throws Exception In case the objects could not be loaded.
+         */
+        List<T> load(Collection<Integer> ids) throws Exception;
+    }
+
+    /**
+     * The references to the objects of a type.
+     *
+     * @param <T> The type of the referenced objects.
+     */
+    private final class References<T> {
+        /**
+         * The key of the message for an object that does not exist.
+         */
+        private final String notFoundKey;
+
+        /**
+         * Loads the referenced objects.
+         */
+        private final Loader<T> loader;
+
+        /**
+         * Provides the ID of an object.
+         */
+        private final Function<T, Integer> idProvider;
+
+        /**
+         * The IDs that have been added but not resolved yet.
+         */
+        private final Set<Integer> pendingIds = new TreeSet<Integer>();
+
+        /**
+         * The resolved objects by their ID. An ID without existing object is mapped to null.
+         */
+        private final Map<Integer, T> objects = new HashMap<Integer, T>();
+
+        /**
+         * Initializes the references.
+         *
+         * @param notFoundKey The key of the message for an object that does not exist.
+         * @param loader      Loads the referenced objects.
+         * @param idProvider  Provides the ID of an object.
+         */
+        References(final String notFoundKey, final Loader<T> loader, final Function<T, Integer> idProvider) {
+            this.notFoundKey = notFoundKey;
+            this.loader = loader;
+            this.idProvider = idProvider;
+        }
+
+        /**
+         * Adds the ID of a referenced object.
+         *
+         * @param id The ID. Null is ignored.
+         */
+        void add(final Integer id) {
+            if (id != null && !this.objects.containsKey(id)) {
+                this.pendingIds.add(id);
+            }
+        }
+
+        /**
+         * Loads the objects of the pending IDs.
+         *
+         * @throws Exception In case the objects could not be loaded.
+         */
+        void resolve() throws Exception {
+            List<T> loadedObjects;
+
+            if (this.pendingIds.isEmpty()) {
+                return;
+            }
+
+            loadedObjects = this.loader.load(this.pendingIds);
+
+            for (Integer id : this.pendingIds) {
+                this.objects.put(id, null);
+            }
+
+            for (T object : loadedObjects) {
+                this.objects.put(this.idProvider.apply(object), object);
+            }
+
+            this.pendingIds.clear();
+        }
+
+        /**
+         * Provides the resolved object with the given ID.
+         *
+         * @param id The ID.
+         * @return The object, or null if the ID is null or no object with the ID exists.
+         */
+        T get(final Integer id) {
+            if (id == null) {
+                return null;
+            }
+
+            return this.objects.get(id);
+        }
+
+        /**
+         * Adds an error message for each resolved ID whose object does not exist.
+         *
+         * @param messages The messages the error messages are added to.
+         */
+        void addMissingReferenceMessages(final List<WebServiceMessage> messages) {
+            new TreeSet<Integer>(this.objects.keySet()).stream().filter(id -> this.objects.get(id) == null)
+                    .forEach(id -> messages.add(new WebServiceMessage(WebServiceMessageType.E,
+                            MessageFormat.format(resources.getString(this.notFoundKey), id))));
+        }
+    }
+}
@@ -10,23 +10,25 @@ import java.util.Set;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import backend.controller.SalesOrderAvailabilityController;
 import backend.controller.SalesOrderInventoryController;
 import backend.controller.SalesOrderPaymentController;
-import backend.dao.AccountDao;
-import backend.dao.BusinessPartnerDao;
 import backend.dao.DAOManager;
-import backend.dao.MaterialDao;
 import backend.dao.SalesOrderDao;
 import backend.exception.DuplicateIdentifierException;
 import backend.exception.NoItemsException;
+import backend.exception.ObjectOutdatedException;
 import backend.exception.ObjectUnchangedException;
+import backend.exception.QuantityExceedsAvailabilityException;
 import backend.exception.QuantityExceedsInventoryException;
+import backend.model.material.Material;
 import backend.model.salesOrder.SalesOrder;
 import backend.model.salesOrder.SalesOrderArray;
 import backend.model.salesOrder.SalesOrderItem;
 import backend.model.salesOrder.SalesOrderItemWS;
 import backend.model.salesOrder.SalesOrderStatus;
 import backend.model.salesOrder.SalesOrderWS;
+import backend.model.salesOrder.SalesOrderWSArray;
 import backend.model.webservice.WebServiceMessage;
 import backend.model.webservice.WebServiceMessageType;
 import backend.model.webservice.WebServiceResult;
@@ -39,6 +41,12 @@ import backend.tools.WebServiceTools;
  *
  */
 public class SalesOrderService {
+    /**
+     * The relations of the lean sales order representation that can be expanded.
+     */
+    private static final Set<String> EXPANDABLE_RELATIONS = Set.of("soldToParty", "shipToParty", "billToParty",
+            "paymentAccount", "material");
+
     /**
      * DAO for sales order access.
      */
@@ -49,6 +57,11 @@ public class SalesOrderService {
      */
     private SalesOrderInventoryController inventoryController;
 
+    /**
+     * Controller for material availability.
+     */
+    private SalesOrderAvailabilityController availabilityController;
+
     /**
      * Controller for sales order payments.
      */
@@ -70,6 +83,7 @@ public class SalesOrderService {
     public SalesOrderService() {
         this.salesOrderDAO = DAOManager.getInstance().getSalesOrderDAO();
         this.inventoryController = new SalesOrderInventoryController();
+        this.availabilityController = new SalesOrderAvailabilityController();
         this.paymentController = new SalesOrderPaymentController();
     }
 
@@ -104,6 +118,53 @@ public class SalesOrderService {
         return getSalesOrderResult;
     }
 
+    /**
+     * Provides the sales order with the given ID. If the lean view is requested, the lean representation of the
+     * sales order is provided instead of the sales order.
+     *
+     * @param id     The ID of the sales order.
+     * @param view   The requested view: "lean" or null, if the sales order is requested.
+     * @param expand The comma separated list of relations to be expanded in the lean view. Can be null.
+     * @return The sales order with the given ID.
+     */
+    public WebServiceResult getSalesOrder(final Integer id, final String view, final String expand) {
+        WebServiceResult getSalesOrderResult = new WebServiceResult(null);
+        SalesOrderWS salesOrder;
+
+        if (!Expansion.isValidView(view, expand)) {
+            getSalesOrderResult.addMessage(Expansion.getInvalidViewMessage(this.resources));
+            return getSalesOrderResult;
+        }
+
+        if (!Expansion.isLeanView(view)) {
+            return this.getSalesOrder(id);
+        }
+
+        if (!Expansion.isValid(expand, EXPANDABLE_RELATIONS)) {
+            getSalesOrderResult.addMessage(Expansion.getInvalidExpansionMessage(this.resources, EXPANDABLE_RELATIONS));
+            return getSalesOrderResult;
+        }
+
+        try {
+            salesOrder = this.salesOrderDAO.getLeanSalesOrder(id);
+
+            if (salesOrder != null) {
+                this.expand(List.of(salesOrder), Expansion.parse(expand));
+                getSalesOrderResult.setData(salesOrder);
+            } else {
+                getSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        MessageFormat.format(this.resources.getString("salesOrder.notFound"), id)));
+            }
+        } catch (Exception e) {
+            getSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("salesOrder.getError"), id)));
+
+            LOGGER.error(MessageFormat.format(this.resources.getString("salesOrder.getError"), id), e);
+        }
+
+        return getSalesOrderResult;
+    }
+
     /**
      * Provides a list of all sales orders.
      *
@@ -127,6 +188,97 @@ public class SalesOrderService {
         return getSalesOrdersResult;
     }
 
+    /**
+     * Provides a page of sales orders ordered by ID.
+     *
+     * @param orderStatusQuery Specifies the sales orders to be selected based on the status.
+     * @param afterId          Only sales orders with an ID greater than this ID are provided. Can be null.
+     * @param limit            The maximum number of sales orders. All objects are provided, if neither limit nor
+     *                         afterId is given. The default limit is used, if only afterId is given.
+     * @return The sales orders of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getSalesOrders(final SalesOrderStatus orderStatusQuery, final Integer afterId,
+            final Integer limit) {
+        SalesOrderArray salesOrders = new SalesOrderArray();
+        WebServiceResult getSalesOrdersResult = new WebServiceResult(null);
+        List<SalesOrder> page;
+
+        if (!Pagination.isValidLimit(limit)) {
+            getSalesOrdersResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getSalesOrdersResult;
+        }
+
+        try {
+            page = this.salesOrderDAO.getSalesOrders(orderStatusQuery, afterId,
+                    Pagination.getQueryLimit(afterId, limit));
+            salesOrders.setNextAfterId(Pagination.trimPage(page, afterId, limit, SalesOrder::getId));
+            salesOrders.setSalesOrders(page);
+            getSalesOrdersResult.setData(salesOrders);
+        } catch (Exception e) {
+            getSalesOrdersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("salesOrder.getSalesOrdersError")));
+
+            LOGGER.error(this.resources.getString("salesOrder.getSalesOrdersError"), e);
+        }
+
+        return getSalesOrdersResult;
+    }
+
+    /**
+     * Provides a page of sales orders ordered by ID. If the lean view is requested, the lean representation of the
+     * sales orders is provided instead of the sales orders. The lean representation is read without loading the
+     * referenced objects. Only the referenced objects of the expanded relations are loaded afterwards.
+     *
+     * @param orderStatusQuery Specifies the sales orders to be selected based on the status.
+     * @param afterId          Only sales orders with an ID greater than this ID are provided. Can be null.
+     * @param limit            The maximum number of sales orders. All objects are provided, if neither limit nor
+     *                         afterId is given. The default limit is used, if only afterId is given.
+     * @param view             The requested view: "lean" or null, if the sales orders are requested.
+     * @param expand           The comma separated list of relations to be expanded in the lean view. Can be null.
+     * @return The sales orders of the page and the ID to be used as afterId for the next page.
+     */
+    public WebServiceResult getSalesOrders(final SalesOrderStatus orderStatusQuery, final Integer afterId,
+            final Integer limit, final String view, final String expand) {
+        SalesOrderWSArray salesOrders = new SalesOrderWSArray();
+        WebServiceResult getSalesOrdersResult = new WebServiceResult(null);
+        List<SalesOrderWS> page;
+
+        if (!Expansion.isValidView(view, expand)) {
+            getSalesOrdersResult.addMessage(Expansion.getInvalidViewMessage(this.resources));
+            return getSalesOrdersResult;
+        }
+
+        if (!Expansion.isLeanView(view)) {
+            return this.getSalesOrders(orderStatusQuery, afterId, limit);
+        }
+
+        if (!Pagination.isValidLimit(limit)) {
+            getSalesOrdersResult.addMessage(Pagination.getInvalidLimitMessage(this.resources));
+            return getSalesOrdersResult;
+        }
+
+        if (!Expansion.isValid(expand, EXPANDABLE_RELATIONS)) {
+            getSalesOrdersResult.addMessage(Expansion.getInvalidExpansionMessage(this.resources, EXPANDABLE_RELATIONS));
+            return getSalesOrdersResult;
+        }
+
+        try {
+            page = this.salesOrderDAO.getLeanSalesOrders(orderStatusQuery, afterId,
+                    Pagination.getQueryLimit(afterId, limit));
+            salesOrders.setNextAfterId(Pagination.trimPage(page, afterId, limit, SalesOrderWS::getSalesOrderId));
+            this.expand(page, Expansion.parse(expand));
+            salesOrders.setSalesOrders(page);
+            getSalesOrdersResult.setData(salesOrders);
+        } catch (Exception e) {
+            getSalesOrdersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("salesOrder.getSalesOrdersError")));
+
+            LOGGER.error(this.resources.getString("salesOrder.getSalesOrdersError"), e);
+        }
+
+        return getSalesOrdersResult;
+    }
+
     /**
      * Adds a sales order.
      *
@@ -134,27 +286,86 @@ public class SalesOrderService {
      * @return The result of the add function.
      */
     public WebServiceResult addSalesOrder(final SalesOrderWS salesOrder) {
-        SalesOrder convertedSalesOrder = new SalesOrder();
-        WebServiceResult addSalesOrderResult = new WebServiceResult();
+        return UnitOfWorkExecutor.execute(() -> {
+            SalesOrder convertedSalesOrder = new SalesOrder();
+            WebServiceResult addSalesOrderResult = new WebServiceResult();
+            ReferenceResolver references = new ReferenceResolver();
+
+            try {
+                convertedSalesOrder = this.convertSalesOrder(salesOrder, references);
+            } catch (Exception exception) {
+                addSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        this.resources.getString("salesOrder.addError")));
+                LOGGER.error(this.resources.getString("salesOrder.addError"), exception);
+                return addSalesOrderResult;
+            }
 
-        try {
-            convertedSalesOrder = this.convertSalesOrder(salesOrder);
-        } catch (Exception exception) {
-            addSalesOrderResult.addMessage(
-                    new WebServiceMessage(WebServiceMessageType.E, this.resources.getString("salesOrder.addError")));
-            LOGGER.error(this.resources.getString("salesOrder.addError"), exception);
-            return addSalesOrderResult;
-        }
+            addSalesOrderResult.addMessages(references.getMissingReferenceMessages());
+            if (WebServiceTools.resultContainsErrorMessage(addSalesOrderResult)) {
+                return addSalesOrderResult;
+            }
+
+            addSalesOrderResult.addMessages(this.validate(convertedSalesOrder));
+            if (WebServiceTools.resultContainsErrorMessage(addSalesOrderResult)) {
+                return addSalesOrderResult;
+            }
+
+            addSalesOrderResult.addMessages(this.add(convertedSalesOrder));
+            addSalesOrderResult.setData(convertedSalesOrder.getId());
 
-        addSalesOrderResult.addMessages(this.validate(convertedSalesOrder));
-        if (WebServiceTools.resultContainsErrorMessage(addSalesOrderResult)) {
             return addSalesOrderResult;
-        }
+        });
+    }
 
-        addSalesOrderResult.addMessages(this.add(convertedSalesOrder));
-        addSalesOrderResult.setData(convertedSalesOrder.getId());
+    /**
+     * Adds a list of sales orders. The sales orders are only added if all of them are valid.
+     *
+     * @param salesOrders The sales orders to be added.
+     * @return The result of the add function containing the IDs of the added sales orders.
+     */
+    public WebServiceResult addSalesOrders(final List<SalesOrderWS> salesOrders) {
+        return UnitOfWorkExecutor.execute(() -> {
+            List<SalesOrder> convertedSalesOrders;
+            List<Integer> salesOrderIds = new ArrayList<Integer>();
+            WebServiceResult addSalesOrdersResult = new WebServiceResult();
+            ReferenceResolver references = new ReferenceResolver();
+
+            try {
+                convertedSalesOrders = this.convertSalesOrders(salesOrders, references);
+            } catch (Exception exception) {
+                addSalesOrdersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        this.resources.getString("salesOrder.addSalesOrdersError")));
+                LOGGER.error(this.resources.getString("salesOrder.addSalesOrdersError"), exception);
+                return addSalesOrdersResult;
+            }
 
-        return addSalesOrderResult;
+            addSalesOrdersResult.addMessages(this.validate(convertedSalesOrders, references));
+            if (WebServiceTools.resultContainsErrorMessage(addSalesOrdersResult)) {
+                return addSalesOrdersResult;
+            }
+
+            try {
+                this.salesOrderDAO.insertSalesOrders(convertedSalesOrders);
+
+                for (SalesOrder convertedSalesOrder : convertedSalesOrders) {
+                    this.inventoryController.reduceMaterialInventory(convertedSalesOrder);
+                    salesOrderIds.add(convertedSalesOrder.getId());
+                }
+
+                addSalesOrdersResult.addMessage(new WebServiceMessage(WebServiceMessageType.S, MessageFormat
+                        .format(this.resources.getString("salesOrder.addSalesOrdersSuccess"), salesOrderIds.size())));
+                addSalesOrdersResult.setData(salesOrderIds);
+            } catch (QuantityExceedsInventoryException quantityException) {
+                addSalesOrdersResult.addMessage(this.getQuantityExceedsInventoryMessage(quantityException));
+            } catch (Exception e) {
+                addSalesOrdersResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                        this.resources.getString("salesOrder.addSalesOrdersError")));
+
+                LOGGER.error(this.resources.getString("salesOrder.addSalesOrdersError"), e);
+            }
+
+            return addSalesOrdersResult;
+        });
     }
 
     /**
@@ -164,38 +375,40 @@ public class SalesOrderService {
      * @return The result of the delete function.
      */
     public WebServiceResult deleteSalesOrder(final Integer id) {
-        SalesOrder salesOrder = null;
-        WebServiceResult deleteSalesOrderResult = new WebServiceResult(null);
-
-        // Check if a sales order with the given id exists.
-        try {
-            salesOrder = this.salesOrderDAO.getSalesOrder(id);
-
-            if (salesOrder != null) {
-                // Delete sales order if exists.
-                this.salesOrderDAO.deleteSalesOrder(salesOrder);
-
-                this.inventoryController.addMaterialInventoryForOrder(salesOrder);
-
-                if (salesOrder.getStatus() == SalesOrderStatus.FINISHED) {
-                    this.paymentController.removePaymentFromAccount(salesOrder);
+        return UnitOfWorkExecutor.execute(() -> {
+            SalesOrder salesOrder = null;
+            WebServiceResult deleteSalesOrderResult = new WebServiceResult(null);
+
+            // Check if a sales order with the given id exists.
+            try {
+                salesOrder = this.salesOrderDAO.getSalesOrder(id);
+
+                if (salesOrder != null) {
+                    // Delete sales order if exists.
+                    this.salesOrderDAO.deleteSalesOrder(salesOrder);
+
+                    this.inventoryController.addMaterialInventoryForOrder(salesOrder);
+
+                    if (salesOrder.getStatus() == SalesOrderStatus.FINISHED) {
+                        this.paymentController.removePaymentFromAccount(salesOrder);
+                    }
+
+                    deleteSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.S,
+                            MessageFormat.format(this.resources.getString("salesOrder.deleteSuccess"), id)));
+                } else {
+                    // Sales order not found.
+                    deleteSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
+                            MessageFormat.format(this.resources.getString("salesOrder.notFound"), id)));
                 }
-
-                deleteSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.S,
-                        MessageFormat.format(this.resources.getString("salesOrder.deleteSuccess"), id)));
-            } else {
-                // Sales order not found.
+            } catch (Exception e) {
                 deleteSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
-                        MessageFormat.format(this.resources.getString("salesOrder.notFound"), id)));
-            }
-        } catch (Exception e) {
-            deleteSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E,
-                    MessageFormat.format(this.resources.getString("salesOrder.deleteError"), id)));
+                        MessageFormat.format(this.resources.getString("salesOrder.deleteError"), id)));
 
-            LOGGER.error(MessageFormat.format(this.resources.getString("salesOrder.deleteError"), id), e);
-        }
+                LOGGER.error(MessageFormat.format(this.resources.getString("salesOrder.deleteError"), id), e);
+            }
 
-        return deleteSalesOrderResult;
+            return deleteSalesOrderResult;
+        });
     }
 
     /**
@@ -205,27 +418,35 @@ public class SalesOrderService {
      * @return The result of the update function.
      */
     public WebServiceResult updateSalesOrder(final SalesOrderWS salesOrder) {
-        SalesOrder convertedSalesOrder = new SalesOrder();
-        WebServiceResult updateSalesOrderResult = new WebServiceResult(null);
+        return UnitOfWorkExecutor.execute(() -> {
+            SalesOrder convertedSalesOrder = new SalesOrder();
+            WebServiceResult updateSalesOrderResult = new WebServiceResult(null);
+            ReferenceResolver references = new ReferenceResolver();
+
+            try {
+                convertedSalesOrder = this.convertSalesOrder(salesOrder, references);
+            } catch (Exception exception) {
+                updateSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
+                        .format(this.resources.getString("salesOrder.updateError"), convertedSalesOrder.getId())));
+                LOGGER.error(MessageFormat.format(this.resources.getString("salesOrder.updateError"),
+                        convertedSalesOrder.getId()), exception);
+                return updateSalesOrderResult;
+            }
 
-        try {
-            convertedSalesOrder = this.convertSalesOrder(salesOrder);
-        } catch (Exception exception) {
-            updateSalesOrderResult.addMessage(new WebServiceMessage(WebServiceMessageType.E, MessageFormat
-                    .format(this.resources.getString("salesOrder.updateError"), convertedSalesOrder.getId())));
-            LOGGER.error(MessageFormat.format(this.resources.getString("salesOrder.updateError"),
-                    convertedSalesOrder.getId()), exception);
-            return updateSalesOrderResult;
-        }
+            updateSalesOrderResult.addMessages(references.getMissingReferenceMessages());
+            if (WebServiceTools.resultContainsErrorMessage(updateSalesOrderResult)) {
+                return updateSalesOrderResult;
+            }
 
-        updateSalesOrderResult.addMessages(this.validate(convertedSalesOrder));
-        if (WebServiceTools.resultContainsErrorMessage(updateSalesOrderResult)) {
-            return updateSalesOrderResult;
-        }
+            updateSalesOrderResult.addMessages(this.validate(convertedSalesOrder));
+            if (WebServiceTools.resultContainsErrorMessage(updateSalesOrderResult)) {
+                return updateSalesOrderResult;
+            }
 
-        updateSalesOrderResult.addMessages(this.update(convertedSalesOrder));
+            updateSalesOrderResult.addMessages(this.update(convertedSalesOrder));
 
-        return updateSalesOrderResult;
+            return updateSalesOrderResult;
+        });
     }
 
     /**
@@ -247,15 +468,39 @@ public class SalesOrderService {
                     MessageFormat.format(this.resources.getString("salesOrder.duplicateItemKey"), salesOrder.getId(),
                             duplicateIdentifierException.getDuplicateIdentifier())));
         } catch (QuantityExceedsInventoryException quantityException) {
-            messages.add(new WebServiceMessage(WebServiceMessageType.E,
-                    MessageFormat.format(this.resources.getString("salesOrder.QuantityExceedsInventory"),
-                            quantityException.getSalesOrderItem().getMaterial().getId(),
-                            quantityException.getSalesOrderItem().getMaterial().getInventory(),
-                            quantityException.getSalesOrderItem().getMaterial().getUnit())));
+            messages.add(this.getQuantityExceedsInventoryMessage(quantityException));
         } catch (Exception validationException) {
             messages.add(new WebServiceMessage(WebServiceMessageType.E, validationException.getMessage()));
         }
 
+        // The availability of an updated sales order is checked against its database state during the update.
+        if (messages.isEmpty() && salesOrder.getId() == null) {
+            messages.addAll(this.validateAvailability(salesOrder));
+        }
+
+        return messages;
+    }
+
+    /**
+     * Checks if the ordered quantities of a new sales order are available at its requested delivery date.
+     *
+     * @param salesOrder The sales order to be added.
+     * @return A list of potential messages that occurred during the check.
+     */
+    private List<WebServiceMessage> validateAvailability(final SalesOrder salesOrder) {
+        List<WebServiceMessage> messages = new ArrayList<WebServiceMessage>();
+
+        try {
+            this.availabilityController.checkAvailability(salesOrder, null);
+        } catch (QuantityExceedsAvailabilityException availabilityException) {
+            messages.add(this.getQuantityExceedsAvailabilityMessage(availabilityException));
+        } catch (Exception e) {
+            messages.add(new WebServiceMessage(WebServiceMessageType.E,
+                    this.resources.getString("salesOrder.availabilityError")));
+
+            LOGGER.error(this.resources.getString("salesOrder.availabilityError"), e);
+        }
+
         return messages;
     }
 
@@ -271,14 +516,23 @@ public class SalesOrderService {
 
         try {
             databaseSalesOrder = this.salesOrderDAO.getSalesOrder(salesOrder.getId());
-            this.salesOrderDAO.updateSalesOrder(salesOrder);
+            this.availabilityController.checkAvailability(salesOrder, databaseSalesOrder);
+            // The database state is managed by the unit of work. It is overwritten by the update.
             this.inventoryController.updateMaterialInventory(salesOrder, databaseSalesOrder);
             this.paymentController.updateSalesOrderPayment(salesOrder, databaseSalesOrder);
+            this.salesOrderDAO.updateSalesOrder(salesOrder);
             messages.add(new WebServiceMessage(WebServiceMessageType.S,
                     MessageFormat.format(this.resources.getString("salesOrder.updateSuccess"), salesOrder.getId())));
         } catch (ObjectUnchangedException objectUnchangedException) {
             messages.add(new WebServiceMessage(WebServiceMessageType.I,
                     MessageFormat.format(this.resources.getString("salesOrder.updateUnchanged"), salesOrder.getId())));
+        } catch (ObjectOutdatedException objectOutdatedException) {
+            messages.add(new WebServiceMessage(WebServiceMessageType.E,
+                    MessageFormat.format(this.resources.getString("salesOrder.updateConflict"), salesOrder.getId())));
+        } catch (QuantityExceedsInventoryException quantityException) {
+            messages.add(this.getQuantityExceedsInventoryMessage(quantityException));
+        } catch (QuantityExceedsAvailabilityException availabilityException) {
+            messages.add(this.getQuantityExceedsAvailabilityMessage(availabilityException));
         } catch (Exception e) {
             messages.add(new WebServiceMessage(WebServiceMessageType.E,
                     MessageFormat.format(this.resources.getString("salesOrder.updateError"), salesOrder.getId())));
@@ -304,6 +558,8 @@ public class SalesOrderService {
             this.inventoryController.reduceMaterialInventory(salesOrder);
             messages.add(
                     new WebServiceMessage(WebServiceMessageType.S, this.resources.getString("salesOrder.addSuccess")));
+        } catch (QuantityExceedsInventoryException quantityException) {
+            messages.add(this.getQuantityExceedsInventoryMessage(quantityException));
         } catch (Exception e) {
             messages.add(
                     new WebServiceMessage(WebServiceMessageType.E, this.resources.getString("salesOrder.addError")));
@@ -314,58 +570,113 @@ public class SalesOrderService {
         return messages;
     }
 
+    /**
+     * Validates the sales orders. The sales orders are only validated if all referenced objects exist.
+     *
+     * @param salesOrders The sales orders to be validated.
+     * @param references  The resolved objects referenced by the sales orders.
+     * @return A list of potential messages that occurred during validation.
+     */
+    private List<WebServiceMessage> validate(final List<SalesOrder> salesOrders, final ReferenceResolver references) {
+        List<WebServiceMessage> messages = references.getMissingReferenceMessages();
+
+        if (!messages.isEmpty()) {
+            return messages;
+        }
+
+        for (SalesOrder salesOrder : salesOrders) {
+            messages.addAll(this.validate(salesOrder));
+        }
+
+        return messages;
+    }
+
+    /**
+     * Converts the lean WebService representations of multiple sales orders to the internal data model. The objects
+     * referenced by all sales orders are loaded at once.
+     *
+     * @param salesOrdersWS The lean sales order representations provided by the WebService.
+     * @param references    Resolves the objects referenced by the sales orders.
+     * @return The SalesOrder models that are used by the backend internally.
+     * @throws Exception In case the conversion fails.
+     */
+    private List<SalesOrder> convertSalesOrders(final List<SalesOrderWS> salesOrdersWS,
+            final ReferenceResolver references) throws Exception {
+        List<SalesOrder> convertedSalesOrders = new ArrayList<SalesOrder>();
+
+        for (SalesOrderWS salesOrderWS : salesOrdersWS) {
+            this.addReferences(salesOrderWS, references);
+        }
+
+        for (SalesOrderWS salesOrderWS : salesOrdersWS) {
+            convertedSalesOrders.add(this.convertSalesOrder(salesOrderWS, references));
+        }
+
+        return convertedSalesOrders;
+    }
+
     /**
      * Converts the lean SalesOrder representation that is provided by the WebService to the internal data model for
      * further processing.
      *
      * @param salesOrderWS The lean sales order representation provided by the WebService.
+     * @param references   Resolves the objects referenced by the sales order.
      * @return The SalesOrder model that is used by the backend internally.
      * @throws Exception In case the conversion fails.
      */
-    private SalesOrder convertSalesOrder(final SalesOrderWS salesOrderWS) throws Exception {
+    private SalesOrder convertSalesOrder(final SalesOrderWS salesOrderWS, final ReferenceResolver references)
+            throws Exception {
         SalesOrder convertedSalesOrder;
 
-        convertedSalesOrder = this.convertSalesOrderHead(salesOrderWS);
-        convertedSalesOrder.setItems(this.convertSalesOrderItems(salesOrderWS, convertedSalesOrder));
+        this.addReferences(salesOrderWS, references);
+        references.resolve();
+
+        convertedSalesOrder = this.convertSalesOrderHead(salesOrderWS, references);
+        convertedSalesOrder.setItems(this.convertSalesOrderItems(salesOrderWS, convertedSalesOrder, references));
 
         return convertedSalesOrder;
     }
 
+    /**
+     * Adds the IDs of the objects referenced by the lean WebService representation of the sales order.
+     *
+     * @param salesOrderWS The lean sales order representation provided by the WebService.
+     * @param references   Resolves the objects referenced by the sales order.
+     */
+    private void addReferences(final SalesOrderWS salesOrderWS, final ReferenceResolver references) {
+        references.addBusinessPartnerId(salesOrderWS.getSoldToId());
+        references.addBusinessPartnerId(salesOrderWS.getShipToId());
+        references.addBusinessPartnerId(salesOrderWS.getBillToId());
+        references.addAccountId(salesOrderWS.getPaymentAccountId());
+
+        for (SalesOrderItemWS itemWS : salesOrderWS.getItems()) {
+            references.addMaterialId(itemWS.getMaterialId());
+        }
+    }
+
     /**
      * Converts the head data of the sales order from the lean WebService representation to the internal data model of
      * the backend.
      *
      * @param salesOrderWS The lean sales order representation provided by the WebService.
+     * @param references   The resolved objects referenced by the sales order.
      * @return The SalesOrder model that is used by the backend internally.
-     * @throws Exception In case the conversion fails.
      */
-    private SalesOrder convertSalesOrderHead(final SalesOrderWS salesOrderWS) throws Exception {
-        BusinessPartnerDao partnerDAO = DAOManager.getInstance().getBusinessPartnerDAO();
-        AccountDao accountDAO = DAOManager.getInstance().getAccountDAO();
+    private SalesOrder convertSalesOrderHead(final SalesOrderWS salesOrderWS, final ReferenceResolver references) {
         SalesOrder salesOrder = new SalesOrder();
 
         // Basic object data that are copied as-is.
         salesOrder.setId(salesOrderWS.getSalesOrderId());
+        salesOrder.setVersion(salesOrderWS.getVersion());
         salesOrder.setOrderDate(salesOrderWS.getOrderDate());
         salesOrder.setRequestedDeliveryDate(salesOrderWS.getRequestedDeliveryDate());
         salesOrder.setStatus(salesOrderWS.getStatus());
 
-        // Object references. Only the ID is given and the whole backend object has to be loaded and referenced.
-        if (salesOrderWS.getSoldToId() != null) {
-            salesOrder.setSoldToParty(partnerDAO.getBusinessPartner(salesOrderWS.getSoldToId()));
-        }
-
-        if (salesOrderWS.getShipToId() != null) {
-            salesOrder.setShipToParty(partnerDAO.getBusinessPartner(salesOrderWS.getShipToId()));
-        }
-
-        if (salesOrderWS.getBillToId() != null) {
-            salesOrder.setBillToParty(partnerDAO.getBusinessPartner(salesOrderWS.getBillToId()));
-        }
-
-        if (salesOrderWS.getPaymentAccountId() != null) {
-            salesOrder.setPaymentAccount(accountDAO.getAccount(salesOrderWS.getPaymentAccountId()));
-        }
+        // Object references. Only the ID is given and the whole backend object has been loaded by the resolver.
+        salesOrder.setSoldToParty(references.getBusinessPartner(salesOrderWS.getSoldToId()));
+        salesOrder.setShipToParty(references.getBusinessPartner(salesOrderWS.getShipToId()));
+        salesOrder.setBillToParty(references.getBusinessPartner(salesOrderWS.getBillToId()));
+        salesOrder.setPaymentAccount(references.getAccount(salesOrderWS.getPaymentAccountId()));
 
         return salesOrder;
     }
@@ -376,18 +687,17 @@ public class SalesOrderService {
      *
      * @param salesOrderWS The lean sales order representation provided by the WebService.
      * @param salesOrder   The converted sales order that is build based on the WebService representation.
+     * @param references   The resolved objects referenced by the sales order.
      * @return A set of item models that is used by the backend internally.
-     * @throws Exception In case the conversion fails.
      */
-    private Set<SalesOrderItem> convertSalesOrderItems(final SalesOrderWS salesOrderWS, final SalesOrder salesOrder)
-            throws Exception {
+    private Set<SalesOrderItem> convertSalesOrderItems(final SalesOrderWS salesOrderWS, final SalesOrder salesOrder,
+            final ReferenceResolver references) {
         Set<SalesOrderItem> orderItems = new HashSet<SalesOrderItem>();
-        MaterialDao materialDAO = DAOManager.getInstance().getMaterialDAO();
 
         for (SalesOrderItemWS itemWS : salesOrderWS.getItems()) {
             SalesOrderItem orderItem = new SalesOrderItem();
             orderItem.setId(itemWS.getItemId());
-            orderItem.setMaterial(materialDAO.getMaterial(itemWS.getMaterialId()));
+            orderItem.setMaterial(references.getMaterial(itemWS.getMaterialId()));
             orderItem.setQuantity(itemWS.getQuantity());
             orderItem.setSalesOrder(salesOrder);
             orderItems.add(orderItem);
@@ -395,4 +705,75 @@ public class SalesOrderService {
 
         return orderItems;
     }
+
+    /**
+     * Provides the message for an ordered quantity that exceeds the inventory of the material.
+     *
+     * @param quantityException The exception of the sales order item whose quantity exceeds the inventory.
+     * @return The error message.
+     */
+    private WebServiceMessage getQuantityExceedsInventoryMessage(
+            final QuantityExceedsInventoryException quantityException) {
+        Material material = quantityException.getSalesOrderItem().getMaterial();
+
+        return new WebServiceMessage(WebServiceMessageType.E,
+                MessageFormat.format(this.resources.getString("salesOrder.QuantityExceedsInventory"), material.getId(),
+                        material.getInventory(), material.getUnit()));
+    }
+
+    /**
+     * Provides the message for an ordered quantity that exceeds the quantity available at the requested delivery date.
+     *
+     * @param availabilityException The exception of the sales order item whose quantity is not available.
+     * @return The error message.
+     */
+    private WebServiceMessage getQuantityExceedsAvailabilityMessage(
+            final QuantityExceedsAvailabilityException availabilityException) {
+        Material material = availabilityException.getSalesOrderItem().getMaterial();
+
+        return new WebServiceMessage(WebServiceMessageType.E,
+                MessageFormat.format(this.resources.getString("salesOrder.quantityExceedsAvailability"),
+                        material.getId(), availabilityException.getAvailableQuantity(), material.getUnit()));
+    }
+
+    /**
+     * Expands the given relations of the lean sales orders. The referenced objects of all sales orders are loaded at
+     * once.
+     *
+     * @param salesOrders The lean sales orders.
+     * @param relations   The relations to be expanded.
+     * @throws Exception In case the referenced objects could not be loaded.
+     */
+    private void expand(final List<SalesOrderWS> salesOrders, final Set<String> relations) throws Exception {
+        ReferenceResolver references = new ReferenceResolver();
+
+        for (SalesOrderWS salesOrder : salesOrders) {
+            references.addBusinessPartnerId(relations.contains("soldToParty") ? salesOrder.getSoldToId() : null);
+            references.addBusinessPartnerId(relations.contains("shipToParty") ? salesOrder.getShipToId() : null);
+            references.addBusinessPartnerId(relations.contains("billToParty") ? salesOrder.getBillToId() : null);
+            references.addAccountId(relations.contains("paymentAccount") ? salesOrder.getPaymentAccountId() : null);
+
+            for (SalesOrderItemWS salesOrderItem : salesOrder.getItems()) {
+                references.addMaterialId(relations.contains("material") ? salesOrderItem.getMaterialId() : null);
+            }
+        }
+
+        references.resolve();
+
+        for (SalesOrderWS salesOrder : salesOrders) {
+            salesOrder.setSoldToParty(references.getBusinessPartner(
+                    relations.contains("soldToParty") ? salesOrder.getSoldToId() : null));
+            salesOrder.setShipToParty(references.getBusinessPartner(
+                    relations.contains("shipToParty") ? salesOrder.getShipToId() : null));
+            salesOrder.setBillToParty(references.getBusinessPartner(
+                    relations.contains("billToParty") ? salesOrder.getBillToId() : null));
+            salesOrder.setPaymentAccount(references.getAccount(
+                    relations.contains("paymentAccount") ? salesOrder.getPaymentAccountId() : null));
+
+            for (SalesOrderItemWS salesOrderItem : salesOrder.getItems()) {
+                salesOrderItem.setMaterial(references.getMaterial(
+                        relations.contains("material") ? salesOrderItem.getMaterialId() : null));
+            }
+        }
+    }
 }
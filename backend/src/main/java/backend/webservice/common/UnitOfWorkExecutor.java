@@ -0,0 +1,94 @@
+package backend.webservice.common;
+
+import java.util.ArrayList;
+import java.util.ResourceBundle;
+import java.util.function.Supplier;
+
+import jakarta.persistence.OptimisticLockException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.StaleStateException;
+
+import backend.dao.DAOManager;
+import backend.dao.UnitOfWork;
+import backend.model.webservice.WebServiceMessage;
+import backend.model.webservice.WebServiceMessageType;
+import backend.model.webservice.WebServiceResult;
+import backend.tools.WebServiceTools;
+
+/**
+ * Executes a service operation within a single unit of work.
+ *
+ * All DAO calls of the operation share one EntityManager and one transaction. The work of the operation is committed,
+ * if the result of the operation contains no error message. Otherwise, all work of the operation is rolled back.
+ *
+ * @author Michael
+ */
+final class UnitOfWorkExecutor {
+    /**
+     * Application logging.
+     */
+    public static final Logger LOGGER = LogManager.getLogger(UnitOfWorkExecutor.class);
+
+    /**
+     * Constructor not to be used.
+     */
+    private UnitOfWorkExecutor() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Executes the given service operation within a unit of work.
+     *
+     * @param operation The service operation.
+     * @return The result of the service operation. If the commit fails, the result contains an error message instead
+     *         of the messages of the operation.
+     */
+    static WebServiceResult execute(final Supplier<WebServiceResult> operation) {
+        ResourceBundle resources = ResourceBundle.getBundle("backend");
+        WebServiceResult result;
+
+        try (UnitOfWork unitOfWork = DAOManager.getInstance().beginUnitOfWork()) {
+            result = operation.get();
+
+            if (WebServiceTools.resultContainsErrorMessage(result)) {
+                return result; // The unit of work is rolled back on close.
+            }
+
+            try {
+                unitOfWork.commit();
+            } catch (RuntimeException exception) {
+                String messageKey = isConflict(exception) ? "unitOfWork.commitConflict" : "unitOfWork.commitError";
+
+                result.setMessages(new ArrayList<WebServiceMessage>());
+                result.setData(null);
+                result.addMessage(new WebServiceMessage(WebServiceMessageType.E, resources.getString(messageKey)));
+
+                LOGGER.error(resources.getString(messageKey), exception);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks if the given exception has been caused by a concurrent modification of an object written on commit.
+     *
+     * @param exception The exception thrown by the commit.
+     * @return true, if the version of an object has been changed by someone else; false otherwise.
+     */
+    private static boolean isConflict(final Throwable exception) {
+        Throwable cause = exception;
+
+        while (cause != null) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+
+            cause = cause.getCause();
+        }
+
+        return false;
+    }
+}
@@ -1,5 +1,8 @@
 package backend.webservice.rest;
 
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -8,11 +11,21 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.Providers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import backend.model.account.Account;
 import backend.model.webservice.WebServiceResult;
+import backend.tools.WebServiceTools;
 import backend.webservice.common.AccountService;
+import backend.webservice.common.AccountStatementWriter;
 
 /**
  * WebService for account access using REST technology..
@@ -21,6 +34,12 @@ import backend.webservice.common.AccountService;
  */
 @Path("/accounts")
 public class AccountRestService {
+    /**
+     * The providers of the REST WebServices. They provide the ObjectMapper used for JSON responses.
+     */
+    @Context
+    private Providers providers;
+
     /**
      * Provides the account with the given ID.
      *
@@ -36,15 +55,93 @@ public class AccountRestService {
     }
 
     /**
-     * Provides a list of all accounts.
+     * Provides a page of accounts ordered by ID.
+     *
+     * @param afterId Only accounts with an ID greater than this ID are provided. Optional.
+     * @param limit   The maximum number of accounts. Optional.
+     * @return The accounts of the page and the ID to be used as afterId for the next page.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult getAccounts(@QueryParam("afterId") final Integer afterId,
+            @QueryParam("limit") final Integer limit) {
+        AccountService accountService = new AccountService();
+        return accountService.getAccounts(afterId, limit);
+    }
+
+    /**
+     * Provides a page of the postings of the account with the given ID ordered by ID.
+     *
+     * @param id      The ID of the account.
+     * @param afterId Only postings with an ID greater than this ID are provided. Optional.
+     * @param limit   The maximum number of postings. Optional.
+     * @return The postings of the page and the ID to be used as afterId for the next page.
+     */
+    @GET
+    @Path("/{id}/postings")
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult getPostings(@PathParam("id") final Integer id, @QueryParam("afterId") final Integer afterId,
+            @QueryParam("limit") final Integer limit) {
+        AccountService accountService = new AccountService();
+        return accountService.getPostings(id, afterId, limit);
+    }
+
+    /**
+     * Provides the statement of the account with the given ID for a time range. The statement contains the opening
+     * balance, the postings ordered by time with the balance after each posting and the closing balance. The postings
+     * are streamed, so that statements of any length can be provided.
      *
-     * @return A list of all accounts.
+     * @param id             The ID of the account.
+     * @param from           The first day of the time range in the format yyyy-MM-dd.
+     * @param to             The last day of the time range in the format yyyy-MM-dd.
+     * @param counterpartyId Only postings with the business partner of this ID are provided. Optional.
+     * @return The statement. The WebServiceResult with the error messages, if the statement can't be provided. The
+     *         status is 400 for an invalid time range, 404 for an unknown account and 500 for other errors.
      */
     @GET
+    @Path("/{id}/statement")
     @Produces(MediaType.APPLICATION_JSON)
-    public WebServiceResult getAccounts() {
+    public Response getAccountStatement(@PathParam("id") final Integer id, @QueryParam("from") final String from,
+            @QueryParam("to") final String to, @QueryParam("counterpartyId") final Integer counterpartyId) {
         AccountService accountService = new AccountService();
-        return accountService.getAccounts();
+        WebServiceResult statementResult = accountService.getAccountStatement(id, from, to, counterpartyId);
+        AccountStatementWriter statementWriter;
+        ObjectMapper objectMapper;
+
+        if (WebServiceTools.resultContainsErrorMessage(statementResult)) {
+            return Response.status(this.getStatementErrorStatus(statementResult, id)).entity(statementResult)
+                    .build();
+        }
+
+        statementWriter = (AccountStatementWriter) statementResult.getData();
+        objectMapper = this.providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE)
+                .getContext(AccountStatementWriter.class);
+        StreamingOutput statement = outputStream -> statementWriter.write(outputStream, objectMapper);
+
+        return Response.ok(statement).build();
+    }
+
+    /**
+     * Determines the HTTP status of a statement that can't be provided.
+     *
+     * @param statementResult The result of the statement retrieval containing the error message.
+     * @param id              The ID of the account.
+     * @return The HTTP status.
+     */
+    private Status getStatementErrorStatus(final WebServiceResult statementResult, final Integer id) {
+        ResourceBundle resources = ResourceBundle.getBundle("backend");
+        String message = statementResult.getMessages().get(0).getText();
+
+        if (message.equals(resources.getString("account.statementInvalidDate"))
+                || message.equals(resources.getString("account.statementInvalidPeriod"))) {
+            return Status.BAD_REQUEST;
+        }
+
+        if (message.equals(MessageFormat.format(resources.getString("account.notFound"), id))) {
+            return Status.NOT_FOUND;
+        }
+
+        return Status.INTERNAL_SERVER_ERROR;
     }
 
     /**
@@ -8,6 +8,7 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 
 import backend.model.billOfMaterial.BillOfMaterialWS;
@@ -36,15 +37,18 @@ public class BillOfMaterialRestService {
     }
 
     /**
-     * Provides a list of all BillOfMaterials.
+     * Provides a page of BillOfMaterials ordered by ID.
      *
-     * @return A list of all BillOfMaterials.
+     * @param afterId Only BillOfMaterials with an ID greater than this ID are provided. Optional.
+     * @param limit   The maximum number of BillOfMaterials. Optional.
+     * @return The BillOfMaterials of the page and the ID to be used as afterId for the next page.
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public WebServiceResult getBillOfMaterials() {
+    public WebServiceResult getBillOfMaterials(@QueryParam("afterId") final Integer afterId,
+            @QueryParam("limit") final Integer limit) {
         BillOfMaterialService billOfMaterialService = new BillOfMaterialService();
-        return billOfMaterialService.getBillOfMaterials(null);
+        return billOfMaterialService.getBillOfMaterials(null, afterId, limit);
     }
 
     /**
@@ -1,5 +1,7 @@
 package backend.webservice.rest;
 
+import java.util.List;
+
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -38,16 +40,19 @@ public class BusinessPartnerRestService {
     }
 
     /**
-     * Provides a list of all business partners.
+     * Provides a page of business partners ordered by ID.
      *
      * @param bpTypeQuery The type of the business partners to be queried.
-     * @return A list of all business partners.
+     * @param afterId     Only business partners with an ID greater than this ID are provided. Optional.
+     * @param limit       The maximum number of business partners. Optional.
+     * @return The business partners of the page and the ID to be used as afterId for the next page.
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public WebServiceResult getBusinessPartners(@QueryParam("bpTypeQuery") final BPTypeQueryParameter bpTypeQuery) {
+    public WebServiceResult getBusinessPartners(@QueryParam("bpTypeQuery") final BPTypeQueryParameter bpTypeQuery,
+            @QueryParam("afterId") final Integer afterId, @QueryParam("limit") final Integer limit) {
         BusinessPartnerService businessPartnerService = new BusinessPartnerService();
-        return businessPartnerService.getBusinessPartners(bpTypeQuery);
+        return businessPartnerService.getBusinessPartners(bpTypeQuery, afterId, limit);
     }
 
     /**
@@ -64,6 +69,21 @@ public class BusinessPartnerRestService {
         return businessPartnerService.addBusinessPartner(businessPartner);
     }
 
+    /**
+     * Adds a list of business partners within a single transaction.
+     *
+     * @param businessPartners The business partners to be added.
+     * @return The result of the add function.
+     */
+    @POST
+    @Path("/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult addBusinessPartners(final List<BusinessPartner> businessPartners) {
+        BusinessPartnerService businessPartnerService = new BusinessPartnerService();
+        return businessPartnerService.addBusinessPartners(businessPartners);
+    }
+
     /**
      * Updates an existing business partner.
      *
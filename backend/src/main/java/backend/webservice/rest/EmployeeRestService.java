@@ -38,17 +38,20 @@ public class EmployeeRestService {
     }
 
     /**
-     * Provides a list of all employees.
+     * Provides a page of employees ordered by ID.
      *
      * @param employeeHeadQuery The type of employees to be queried.
-     * @return A list of all employees.
+     * @param afterId           Only employees with an ID greater than this ID are provided. Optional.
+     * @param limit             The maximum number of employees. Optional.
+     * @return The employees of the page and the ID to be used as afterId for the next page.
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public WebServiceResult getEmployees(
-            @QueryParam("employeeHeadQuery") final EmployeeHeadQueryParameter employeeHeadQuery) {
+            @QueryParam("employeeHeadQuery") final EmployeeHeadQueryParameter employeeHeadQuery,
+            @QueryParam("afterId") final Integer afterId, @QueryParam("limit") final Integer limit) {
         EmployeeService employeeService = new EmployeeService();
-        return employeeService.getEmployees(employeeHeadQuery);
+        return employeeService.getEmployees(employeeHeadQuery, afterId, limit);
     }
 
     /**
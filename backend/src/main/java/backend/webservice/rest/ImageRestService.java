@@ -1,30 +1,39 @@
 package backend.webservice.rest;
 
-import java.io.IOException;
 import java.io.InputStream;
-import java.util.ResourceBundle;
 
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.core.StreamingOutput;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 
-import backend.model.image.ImageData;
 import backend.model.image.ImageMetaData;
-import backend.model.webservice.WebServiceMessage;
-import backend.model.webservice.WebServiceMessageType;
+import backend.model.image.ImageSize;
 import backend.model.webservice.WebServiceResult;
+import backend.tools.WebServiceTools;
+import backend.webservice.common.ByteRange;
+import backend.webservice.common.ImageContentWriter;
 import backend.webservice.common.ImageService;
 
 /**
@@ -40,9 +49,10 @@ public class ImageRestService {
     public static final Logger LOGGER = LogManager.getLogger(ImageRestService.class);
 
     /**
-     * Access to localized application resources.
+     * The time in seconds clients may cache the content of an image without revalidation. The content of an image
+     * never changes; only its meta data can be updated.
      */
-    private ResourceBundle resources = ResourceBundle.getBundle("backend");
+    private static final int CONTENT_MAX_AGE = 3600;
 
     /**
      * Adds an image.
@@ -57,21 +67,8 @@ public class ImageRestService {
     @Produces(MediaType.APPLICATION_JSON)
     public WebServiceResult addImage(@FormDataParam("file") final InputStream uploadedInputStream,
             @FormDataParam("file") final FormDataContentDisposition fileDetail) {
-        WebServiceResult addImageResult = new WebServiceResult();
         ImageService imageService = new ImageService();
-        ImageData image;
-
-        try {
-            image = this.getImageObject(uploadedInputStream);
-            addImageResult = imageService.addImage(image);
-        } catch (IOException e) {
-            addImageResult.addMessage(
-                    new WebServiceMessage(WebServiceMessageType.E, this.resources.getString("image.addError")));
-
-            LOGGER.error(this.resources.getString("image.addError"), e);
-        }
-
-        return addImageResult;
+        return imageService.addImage(uploadedInputStream);
     }
 
     /**
@@ -103,6 +100,51 @@ public class ImageRestService {
         return imageService.getImage(id);
     }
 
+    /**
+     * Provides the binary data of the image with the given ID. The data are streamed with the MIME type of the image.
+     * The ETag of the response is the hash of the data. Requests with a matching "If-None-Match" header are answered
+     * with status 304. A single byte range can be requested using the "Range" header. A downscaled derivative of the
+     * image is provided if a size is requested.
+     *
+     * @param id          The ID of the image.
+     * @param size        The requested size of the image, for example "thumbnail". Null for the original size.
+     * @param request     The request used to evaluate the preconditions.
+     * @param rangeHeader The value of the "Range" header, if any.
+     * @param ifRange     The value of the "If-Range" header, if any. The range is only applied if it matches the ETag.
+     * @return The binary data of the image or the error messages as JSON, if the image could not be found.
+     */
+    @GET
+    @Path("/{id}/content")
+    public Response getImageContent(@PathParam("id") final Integer id, @QueryParam("size") final ImageSize size,
+            @Context final Request request, @HeaderParam("Range") final String rangeHeader,
+            @HeaderParam("If-Range") final String ifRange) {
+        ImageService imageService = new ImageService();
+        WebServiceResult contentResult = imageService.getImageContent(id, size);
+        ImageContentWriter contentWriter;
+        EntityTag entityTag;
+        ResponseBuilder notModified;
+        ByteRange range = null;
+
+        if (WebServiceTools.resultContainsErrorMessage(contentResult)) {
+            return Response.status(Status.NOT_FOUND).entity(contentResult).type(MediaType.APPLICATION_JSON).build();
+        }
+
+        contentWriter = (ImageContentWriter) contentResult.getData();
+        entityTag = new EntityTag(contentWriter.getContentHash());
+        notModified = request.evaluatePreconditions(entityTag);
+
+        if (notModified != null) {
+            return notModified.cacheControl(this.getContentCacheControl()).build();
+        }
+
+        if (ifRange == null || ifRange.equals(entityTag.toString())) {
+            range = ByteRange.parse(rangeHeader, contentWriter.getSize());
+        }
+
+        return this.getContentResponse(contentWriter, range).tag(entityTag).cacheControl(this.getContentCacheControl())
+                .header("Accept-Ranges", "bytes").build();
+    }
+
     /**
      * Updates meta data of an existing image.
      *
@@ -133,16 +175,42 @@ public class ImageRestService {
     }
 
     /**
-     * Provides an image object based on the given input stream.
+     * Provides the response containing the requested range of the image data.
+     *
+     * @param contentWriter The writer of the image data.
+     * @param range         The requested range. Null, if the whole image data are requested.
+     * @return The response builder.
+     */
+    private ResponseBuilder getContentResponse(final ImageContentWriter contentWriter, final ByteRange range) {
+        StreamingOutput content;
+
+        if (range == null) {
+            content = outputStream -> contentWriter.write(outputStream, 0, contentWriter.getSize());
+
+            return Response.ok(content, contentWriter.getMimeType()).header(HttpHeaders.CONTENT_LENGTH,
+                    contentWriter.getSize());
+        }
+
+        if (!range.isSatisfiable()) {
+            return Response.status(Status.REQUESTED_RANGE_NOT_SATISFIABLE).header("Content-Range",
+                    range.getContentRange());
+        }
+
+        content = outputStream -> contentWriter.write(outputStream, range.getFirst(), range.getLength());
+
+        return Response.status(Status.PARTIAL_CONTENT).entity(content).type(contentWriter.getMimeType())
+                .header("Content-Range", range.getContentRange()).header(HttpHeaders.CONTENT_LENGTH, range.getLength());
+    }
+
+    /**
+     * Provides the cache control of responses containing image data.
      *
-     * @param uploadedInputStream The input stream containing the image data.
-     * @return An image object with the data of the given input stream.
-     * @throws IOException If an I/O error occurs.
+     * @return The cache control.
      */
-    private ImageData getImageObject(final InputStream uploadedInputStream) throws IOException {
-        ImageData image = new ImageData();
-        image.setData(IOUtils.toByteArray(uploadedInputStream));
+    private CacheControl getContentCacheControl() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge(CONTENT_MAX_AGE);
 
-        return image;
+        return cacheControl;
     }
 }
@@ -1,5 +1,7 @@
 package backend.webservice.rest;
 
+import java.util.List;
+
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -8,6 +10,7 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 
 import backend.model.material.MaterialWS;
@@ -36,15 +39,18 @@ public class MaterialRestService {
     }
 
     /**
-     * Provides a list of all materials.
+     * Provides a page of materials ordered by ID.
      *
-     * @return A list of all materials.
+     * @param afterId Only materials with an ID greater than this ID are provided. Optional.
+     * @param limit   The maximum number of materials. Optional.
+     * @return The materials of the page and the ID to be used as afterId for the next page.
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public WebServiceResult getMaterials() {
+    public WebServiceResult getMaterials(@QueryParam("afterId") final Integer afterId,
+            @QueryParam("limit") final Integer limit) {
         MaterialService materialService = new MaterialService();
-        return materialService.getMaterials();
+        return materialService.getMaterials(afterId, limit);
     }
 
     /**
@@ -61,6 +67,21 @@ public class MaterialRestService {
         return materialService.addMaterial(material);
     }
 
+    /**
+     * Adds a list of materials within a single transaction.
+     *
+     * @param materials The materials to be added.
+     * @return The result of the add function.
+     */
+    @POST
+    @Path("/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult addMaterials(final List<MaterialWS> materials) {
+        MaterialService materialService = new MaterialService();
+        return materialService.addMaterials(materials);
+    }
+
     /**
      * Updates an existing material.
      *
@@ -0,0 +1,70 @@
+package backend.webservice.rest;
+
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import backend.model.webservice.WebServiceResult;
+import backend.webservice.common.MonitoringService;
+
+/**
+ * WebService for access to runtime information of the backend using REST technology.
+ *
+ * @author Michael
+ */
+@Path("/monitoring")
+public class MonitoringRestService {
+    /**
+     * Provides the current metrics of the database connection pool.
+     *
+     * @return The connection pool metrics.
+     */
+    @GET
+    @Path("/connectionPool")
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult getConnectionPoolMetrics() {
+        MonitoringService monitoringService = new MonitoringService();
+        return monitoringService.getConnectionPoolMetrics();
+    }
+
+    /**
+     * Provides the statistics of all regions of the second-level cache.
+     *
+     * @return The statistics of the cache regions.
+     */
+    @GET
+    @Path("/cache")
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult getCacheRegionMetrics() {
+        MonitoringService monitoringService = new MonitoringService();
+        return monitoringService.getCacheRegionMetrics();
+    }
+
+    /**
+     * Removes all entries from the second-level cache.
+     *
+     * @return The result of the eviction.
+     */
+    @DELETE
+    @Path("/cache")
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult evictCache() {
+        MonitoringService monitoringService = new MonitoringService();
+        return monitoringService.evictCache();
+    }
+
+    /**
+     * Provides the progress of the current or last run of the periodic image cleanup.
+     *
+     * @return The image cleanup metrics.
+     */
+    @GET
+    @Path("/imageCleanup")
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult getImageCleanupMetrics() {
+        MonitoringService monitoringService = new MonitoringService();
+        return monitoringService.getImageCleanupMetrics();
+    }
+}
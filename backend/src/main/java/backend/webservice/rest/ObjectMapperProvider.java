@@ -0,0 +1,42 @@
+package backend.webservice.rest;
+
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.ContextResolver;
+import jakarta.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.module.jakarta.xmlbind.JakartaXmlBindAnnotationIntrospector;
+
+/**
+ * Provides the ObjectMapper that converts the objects of all REST WebServices to JSON. Responses written by the
+ * WebServices themselves, like streamed statements, use the same ObjectMapper and therefore the same representation.
+ *
+ * The ObjectMapper evaluates the Jackson annotations and the Jakarta XML Binding annotations, like the default
+ * ObjectMapper of the Jersey JSON support.
+ *
+ * @author Michael
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class ObjectMapperProvider implements ContextResolver<ObjectMapper> {
+    /**
+     * The ObjectMapper of the REST WebServices.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .annotationIntrospector(AnnotationIntrospector.pair(new JacksonAnnotationIntrospector(),
+                    new JakartaXmlBindAnnotationIntrospector(TypeFactory.defaultInstance())))
+            .findAndAddModules().build();
+
+    /**
+     * Provides the ObjectMapper of the REST WebServices.
+     */
+    @Override
+    public ObjectMapper getContext(final Class<?> type) {
+        return OBJECT_MAPPER;
+    }
+}
@@ -0,0 +1,49 @@
+package backend.webservice.rest;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+import backend.model.webservice.WebServiceResult;
+import backend.webservice.common.PlanningService;
+
+/**
+ * WebService for requirements planning using REST technology.
+ *
+ * @author Michael
+ */
+@Path("/planning")
+public class PlanningRestService {
+    /**
+     * Plans the requirements of all materials and replaces the proposals of the previous run.
+     *
+     * @return The result of the planning run.
+     */
+    @POST
+    @Path("/runs")
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult runPlanning() {
+        PlanningService planningService = new PlanningService();
+        return planningService.runPlanning();
+    }
+
+    /**
+     * Provides a page of the planning proposals ordered by ID.
+     *
+     * @param materialId Only proposals of this material are provided. Optional.
+     * @param afterId    Only proposals with an ID greater than this ID are provided. Optional.
+     * @param limit      The maximum number of proposals. Optional.
+     * @return The proposals of the page and the ID to be used as afterId for the next page.
+     */
+    @GET
+    @Path("/proposals")
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult getPlanningProposals(@QueryParam("materialId") final Integer materialId,
+            @QueryParam("afterId") final Integer afterId, @QueryParam("limit") final Integer limit) {
+        PlanningService planningService = new PlanningService();
+        return planningService.getPlanningProposals(materialId, afterId, limit);
+    }
+}
@@ -38,17 +38,20 @@ public class ProductionOrderRestService {
     }
 
     /**
-     * Provides a list of all production orders.
+     * Provides a page of production orders ordered by ID.
      *
      * @param orderStatusQuery Specifies the production orders to be selected based on the status.
-     * @return A list of all production orders.
+     * @param afterId          Only production orders with an ID greater than this ID are provided. Optional.
+     * @param limit            The maximum number of production orders. Optional.
+     * @return The production orders of the page and the ID to be used as afterId for the next page.
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public WebServiceResult getProductionOrders(
-            @QueryParam("orderStatusQuery") final ProductionOrderStatus orderStatusQuery) {
+            @QueryParam("orderStatusQuery") final ProductionOrderStatus orderStatusQuery,
+            @QueryParam("afterId") final Integer afterId, @QueryParam("limit") final Integer limit) {
         ProductionOrderService productionOrderService = new ProductionOrderService();
-        return productionOrderService.getProductionOrders(orderStatusQuery);
+        return productionOrderService.getProductionOrders(orderStatusQuery, afterId, limit);
     }
 
     /**
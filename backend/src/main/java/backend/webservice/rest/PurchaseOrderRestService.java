@@ -24,31 +24,44 @@ import backend.webservice.common.PurchaseOrderService;
 @Path("/purchaseOrders")
 public class PurchaseOrderRestService {
     /**
-     * Provides the purchase order with the given ID.
+     * Provides the purchase order with the given ID. If the view "lean" is requested, the lean representation is
+     * provided, which references business partners, accounts and materials by their ID.
      *
-     * @param id The ID of the purchase order.
+     * @param id     The ID of the purchase order.
+     * @param view   The view "lean" requests the lean representation. Optional.
+     * @param expand The comma separated list of references to be provided as objects in the lean representation:
+     *               vendor, paymentAccount, material. Optional. Requires the lean view.
      * @return The purchase order with the given ID.
      */
     @GET
     @Path("/{id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public WebServiceResult getPurchaseOrder(@PathParam("id") final Integer id) {
+    public WebServiceResult getPurchaseOrder(@PathParam("id") final Integer id,
+            @QueryParam("view") final String view, @QueryParam("expand") final String expand) {
         PurchaseOrderService purchaseOrderService = new PurchaseOrderService();
-        return purchaseOrderService.getPurchaseOrder(id);
+        return purchaseOrderService.getPurchaseOrder(id, view, expand);
     }
 
     /**
-     * Provides a list of all purchase orders.
+     * Provides a page of purchase orders ordered by ID.
      *
      * @param orderStatusQuery Specifies the purchase orders to be selected based on the status.
-     * @return A list of all purchase orders.
+     * @param afterId          Only purchase orders with an ID greater than this ID are provided. Optional.
+     * @param limit            The maximum number of purchase orders. Optional.
+     * @param view             The view "lean" requests the lean representation, which references business partners,
+     *                         accounts and materials by their ID. Optional.
+     * @param expand           The comma separated list of references to be provided as objects in the lean
+     *                         representation: vendor, paymentAccount, material. Optional. Requires the lean view.
+     * @return The purchase orders of the page and the ID to be used as afterId for the next page.
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public WebServiceResult getPurchaseOrders(
-            @QueryParam("orderStatusQuery") final PurchaseOrderStatus orderStatusQuery) {
+            @QueryParam("orderStatusQuery") final PurchaseOrderStatus orderStatusQuery,
+            @QueryParam("afterId") final Integer afterId, @QueryParam("limit") final Integer limit,
+            @QueryParam("view") final String view, @QueryParam("expand") final String expand) {
         PurchaseOrderService purchaseOrderService = new PurchaseOrderService();
-        return purchaseOrderService.getPurchaseOrders(orderStatusQuery);
+        return purchaseOrderService.getPurchaseOrders(orderStatusQuery, afterId, limit, view, expand);
     }
 
     /**
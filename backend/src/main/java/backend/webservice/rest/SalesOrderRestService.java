@@ -1,5 +1,7 @@
 package backend.webservice.rest;
 
+import java.util.List;
+
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -24,30 +26,45 @@ import backend.webservice.common.SalesOrderService;
 @Path("/salesOrders")
 public class SalesOrderRestService {
     /**
-     * Provides the sales order with the given ID.
+     * Provides the sales order with the given ID. If the view "lean" is requested, the lean representation is
+     * provided, which references business partners, accounts and materials by their ID.
      *
-     * @param id The ID of the sales order.
+     * @param id     The ID of the sales order.
+     * @param view   The view "lean" requests the lean representation. Optional.
+     * @param expand The comma separated list of references to be provided as objects in the lean representation:
+     *               soldToParty, shipToParty, billToParty, paymentAccount, material. Optional. Requires the lean
+     *               view.
      * @return The sales order with the given ID.
      */
     @GET
     @Path("/{id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public WebServiceResult getSalesOrder(@PathParam("id") final Integer id) {
+    public WebServiceResult getSalesOrder(@PathParam("id") final Integer id,
+            @QueryParam("view") final String view, @QueryParam("expand") final String expand) {
         SalesOrderService salesOrderService = new SalesOrderService();
-        return salesOrderService.getSalesOrder(id);
+        return salesOrderService.getSalesOrder(id, view, expand);
     }
 
     /**
-     * Provides a list of all sales orders.
+     * Provides a page of sales orders ordered by ID.
      *
      * @param orderStatusQuery Specifies the sales orders to be selected based on the status.
-     * @return A list of all sales orders.
+     * @param afterId          Only sales orders with an ID greater than this ID are provided. Optional.
+     * @param limit            The maximum number of sales orders. Optional.
+     * @param view             The view "lean" requests the lean representation, which references business partners,
+     *                         accounts and materials by their ID. Optional.
+     * @param expand           The comma separated list of references to be provided as objects in the lean
+     *                         representation: soldToParty, shipToParty, billToParty, paymentAccount, material.
+     *                         Optional. Requires the lean view.
+     * @return The sales orders of the page and the ID to be used as afterId for the next page.
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public WebServiceResult getSalesOrders(@QueryParam("orderStatusQuery") final SalesOrderStatus orderStatusQuery) {
+    public WebServiceResult getSalesOrders(@QueryParam("orderStatusQuery") final SalesOrderStatus orderStatusQuery,
+            @QueryParam("afterId") final Integer afterId, @QueryParam("limit") final Integer limit,
+            @QueryParam("view") final String view, @QueryParam("expand") final String expand) {
         SalesOrderService salesOrderService = new SalesOrderService();
-        return salesOrderService.getSalesOrders(orderStatusQuery);
+        return salesOrderService.getSalesOrders(orderStatusQuery, afterId, limit, view, expand);
     }
 
     /**
@@ -64,6 +81,21 @@ public class SalesOrderRestService {
         return salesOrderService.addSalesOrder(salesOrder);
     }
 
+    /**
+     * Adds a list of sales orders within a single transaction.
+     *
+     * @param salesOrders The sales orders to be added.
+     * @return The result of the add function.
+     */
+    @POST
+    @Path("/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public WebServiceResult addSalesOrders(final List<SalesOrderWS> salesOrders) {
+        SalesOrderService salesOrderService = new SalesOrderService();
+        return salesOrderService.addSalesOrders(salesOrders);
+    }
+
     /**
      * Updates an existing sales order.
      *
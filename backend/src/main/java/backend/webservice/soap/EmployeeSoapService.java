@@ -31,12 +31,17 @@ public interface EmployeeSoapService {
     WebServiceResult getEmployee(@WebParam(name = "id") Integer id);
 
     /**
-     * Provides a list of all employees.
+     * Provides a page of employees ordered by ID.
      *
      * @param employeeHeadQuery Specifies the employees to be selected based on the head attribute.
-     * @return A list of all employees that match the given query parameters.
+     * @param afterId           Only employees with an ID greater than this ID are provided. Optional.
+     * @param limit             The maximum number of employees. Optional. All employees are provided, if neither
+     *                          limit nor afterId is given, as expected by clients that do not know the paging.
+     * @return The employees of the page that match the given query parameters and the ID to be used as afterId for
+     *         the next page.
      */
-    WebServiceResult getEmployees(@WebParam(name = "employeeHeadQuery") EmployeeHeadQueryParameter employeeHeadQuery);
+    WebServiceResult getEmployees(@WebParam(name = "employeeHeadQuery") EmployeeHeadQueryParameter employeeHeadQuery,
+            @WebParam(name = "afterId") Integer afterId, @WebParam(name = "limit") Integer limit);
 
     /**
      * Adds an employee.
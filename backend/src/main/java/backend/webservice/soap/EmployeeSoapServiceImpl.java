@@ -43,11 +43,12 @@ public class EmployeeSoapServiceImpl implements EmployeeSoapService {
     }
 
     /**
-     * Provides a list of all employees.
+     * Provides a page of employees ordered by ID.
      */
     @Override
-    public WebServiceResult getEmployees(final EmployeeHeadQueryParameter employeeHeadQuery) {
-        return this.employeeService.getEmployees(employeeHeadQuery);
+    public WebServiceResult getEmployees(final EmployeeHeadQueryParameter employeeHeadQuery, final Integer afterId,
+            final Integer limit) {
+        return this.employeeService.getEmployees(employeeHeadQuery, afterId, limit);
     }
 
     /**
@@ -1,5 +1,6 @@
 package backend.controller;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -196,4 +197,32 @@ public class ImageCleanupControllerTest {
 			fail(exception.getMessage());
 		}
     }
+
+
+	@Test
+	/**
+	 * Tests that the progress of the cleanup is provided.
+	 */
+	public void testCleanupProgress() {
+		ImageCleanupController imageCleanupController = new ImageCleanupController();
+		ImageCleanupMetrics metrics;
+
+		try {
+			imageCleanupController.cleanup();
+			metrics = imageCleanupController.getMetrics();
+
+			assertTrue(imageCleanupController.getDeletedImages() >= 1);
+			assertTrue(imageCleanupController.getCheckedImageId() >= this.dummyImageMetaData.getId());
+			assertFalse(metrics.isRunning());
+			assertEquals(imageCleanupController.getDeletedImages(), metrics.getDeletedImages());
+			assertEquals(metrics.getMaxImageId(), metrics.getCheckedImageId());
+			assertTrue(metrics.getDuration() >= 0);
+			assertNull(imageDAO.getImageMetaData(this.dummyImageMetaData.getId()));
+
+			//Add the previously deleted image back to the database to assure the tearDown method can run correctly.
+			this.createDummyImage();
+		} catch (Exception exception) {
+			fail(exception.getMessage());
+		}
+	}
 }
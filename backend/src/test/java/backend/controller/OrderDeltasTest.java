@@ -0,0 +1,169 @@
+package backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.model.material.InventoryDelta;
+import backend.model.material.Material;
+import backend.model.salesOrder.SalesOrderItem;
+
+/**
+ * Tests the determination of inventory deltas of order items.
+ *
+ * @author Michael
+ */
+public class OrderDeltasTest {
+	/**
+	 * The engine under test.
+	 */
+	private OrderDeltas<SalesOrderItem> orderDeltas;
+
+	/**
+	 * The items of the updated order.
+	 */
+	private List<SalesOrderItem> items;
+
+	/**
+	 * The items of the database state of the order.
+	 */
+	private List<SalesOrderItem> databaseItems;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		this.orderDeltas = new OrderDeltas<SalesOrderItem>(SalesOrderItem::getMaterial, SalesOrderItem::getQuantity,
+				(item, quantity) -> new InventoryDelta(item.getMaterial(), quantity));
+		this.items = new ArrayList<SalesOrderItem>();
+		this.databaseItems = new ArrayList<SalesOrderItem>();
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		this.orderDeltas = null;
+		this.items = null;
+		this.databaseItems = null;
+	}
+
+
+	/**
+	 * Creates an order item.
+	 *
+	 * @param id The ID of the item.
+	 * @param materialId The ID of the ordered material.
+	 * @param quantity The ordered quantity.
+	 * @return The order item.
+	 */
+	private SalesOrderItem getItem(final int id, final int materialId, final long quantity) {
+		SalesOrderItem item = new SalesOrderItem();
+		Material material = new Material();
+
+		material.setId(materialId);
+		item.setId(id);
+		item.setMaterial(material);
+		item.setQuantity(quantity);
+
+		return item;
+	}
+
+
+	@Test
+	/**
+	 * Tests the determination of the deltas of all items of an order.
+	 */
+	public void testGetDeltas() {
+		List<InventoryDelta> deltas;
+
+		this.items.add(this.getItem(1, 1, 5));
+		this.items.add(this.getItem(2, 1, 3));
+
+		deltas = this.orderDeltas.getDeltas(this.items, -1);
+
+		assertEquals(2, deltas.size());
+		assertEquals(-5, deltas.get(0).getQuantity());
+		assertEquals(-3, deltas.get(1).getQuantity());
+	}
+
+
+	@Test
+	/**
+	 * Tests the determination of the deltas of an updated order with added, removed, changed and unchanged materials.
+	 */
+	public void testGetChanges() {
+		List<InventoryDelta> deltas;
+
+		this.databaseItems.add(this.getItem(1, 1, 5));
+		this.databaseItems.add(this.getItem(2, 2, 3));
+		this.databaseItems.add(this.getItem(3, 3, 4));
+		this.items.add(this.getItem(1, 1, 7));
+		this.items.add(this.getItem(3, 3, 4));
+		this.items.add(this.getItem(4, 4, 2));
+
+		deltas = this.orderDeltas.getChanges(this.items, this.databaseItems, -1);
+
+		assertEquals(3, deltas.size());
+		assertEquals(Integer.valueOf(1), deltas.get(0).getMaterial().getId());
+		assertEquals(-2, deltas.get(0).getQuantity());
+		assertEquals(Integer.valueOf(2), deltas.get(1).getMaterial().getId());
+		assertEquals(3, deltas.get(1).getQuantity());
+		assertEquals(Integer.valueOf(4), deltas.get(2).getMaterial().getId());
+		assertEquals(-2, deltas.get(2).getQuantity());
+	}
+
+
+	@Test
+	/**
+	 * Tests the determination of the deltas of an updated order whose materials are ordered on several items.
+	 */
+	public void testGetChangesOfMaterialOnSeveralItems() {
+		List<InventoryDelta> deltas;
+
+		this.databaseItems.add(this.getItem(1, 1, 5));
+		this.databaseItems.add(this.getItem(2, 1, 5));
+		this.databaseItems.add(this.getItem(3, 2, 4));
+		this.items.add(this.getItem(1, 1, 8));
+		this.items.add(this.getItem(3, 2, 1));
+		this.items.add(this.getItem(4, 2, 3));
+
+		deltas = this.orderDeltas.getChanges(this.items, this.databaseItems, -1);
+
+		assertEquals(1, deltas.size());
+		assertEquals(Integer.valueOf(1), deltas.get(0).getMaterial().getId());
+		assertEquals(2, deltas.get(0).getQuantity());
+	}
+
+
+	@Test
+	/**
+	 * Tests the determination of the deltas of an updated order with many materials.
+	 */
+	public void testGetChangesOfManyMaterials() {
+		List<InventoryDelta> deltas;
+
+		for (int i = 1; i <= 20000; i++) {
+			this.databaseItems.add(this.getItem(i, i, 10));
+			this.items.add(this.getItem(i, i, i % 2 == 0 ? 10 : 12));
+		}
+
+		deltas = this.orderDeltas.getChanges(this.items, this.databaseItems, 1);
+
+		assertEquals(10000, deltas.size());
+
+		for (InventoryDelta delta : deltas) {
+			assertEquals(1, delta.getMaterial().getId() % 2);
+			assertEquals(2, delta.getQuantity());
+		}
+	}
+}
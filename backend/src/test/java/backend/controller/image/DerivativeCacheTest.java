@@ -0,0 +1,106 @@
+package backend.controller.image;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the cache of image derivatives.
+ *
+ * @author Michael
+ */
+public class DerivativeCacheTest {
+	/**
+	 * The maximum size of the cache in bytes.
+	 */
+	private static final int MAX_SIZE = 100;
+
+	/**
+	 * The cache under test.
+	 */
+	private DerivativeCache cache;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		this.cache = new DerivativeCache(MAX_SIZE);
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		this.cache = null;
+	}
+
+
+	@Test
+	/**
+	 * Tests that cached data are provided.
+	 */
+	public void testGet() {
+		byte[] data = new byte[] {1, 2, 3};
+
+		this.cache.put("a", data);
+
+		assertArrayEquals(data, this.cache.get("a"));
+		assertNull(this.cache.get("b"));
+		assertEquals(data.length, this.cache.getSize());
+	}
+
+
+	@Test
+	/**
+	 * Tests that the least recently used data are evicted if the maximum size is exceeded.
+	 */
+	public void testEviction() {
+		this.cache.put("a", new byte[40]);
+		this.cache.put("b", new byte[40]);
+		this.cache.get("a");
+		this.cache.put("c", new byte[40]);
+
+		assertNull(this.cache.get("b"), "The least recently used data have to be evicted.");
+		assertEquals(40, this.cache.get("a").length);
+		assertEquals(40, this.cache.get("c").length);
+		assertEquals(80, this.cache.getSize());
+	}
+
+
+	@Test
+	/**
+	 * Tests that data larger than the whole cache are not cached.
+	 */
+	public void testDataTooLarge() {
+		this.cache.put("a", new byte[40]);
+		this.cache.put("b", new byte[MAX_SIZE + 1]);
+
+		assertNull(this.cache.get("b"));
+		assertEquals(40, this.cache.getSize());
+	}
+
+
+	@Test
+	/**
+	 * Tests that replaced and removed data are no longer counted.
+	 */
+	public void testReplaceAndRemove() {
+		this.cache.put("a", new byte[40]);
+		this.cache.put("a", new byte[20]);
+
+		assertEquals(20, this.cache.getSize());
+
+		this.cache.remove("a");
+
+		assertNull(this.cache.get("a"));
+		assertEquals(0, this.cache.getSize());
+	}
+}
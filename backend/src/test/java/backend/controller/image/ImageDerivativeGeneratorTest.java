@@ -0,0 +1,111 @@
+package backend.controller.image;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import backend.model.image.ImageSize;
+
+/**
+ * Tests the rendering of image derivatives.
+ *
+ * @author Michael
+ */
+public class ImageDerivativeGeneratorTest {
+	/**
+	 * Creates the data of an image with the given size.
+	 *
+	 * @param width    The width of the image.
+	 * @param height   The height of the image.
+	 * @param type     The type of the image.
+	 * @param format   The format of the image data.
+	 * @return The image data.
+	 * @throws IOException In case the image could not be encoded.
+	 */
+	private byte[] createImage(final int width, final int height, final int type, final String format)
+			throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		ImageIO.write(new BufferedImage(width, height, type), format, output);
+
+		return output.toByteArray();
+	}
+
+
+	@Test
+	/**
+	 * Tests the rendering of a thumbnail of a large JPEG image. The aspect ratio has to be kept.
+	 */
+	public void testRenderThumbnail() {
+		try {
+			byte[] data = this.createImage(1000, 500, BufferedImage.TYPE_INT_RGB, "jpg");
+			BufferedImage thumbnail = ImageIO.read(
+					new ByteArrayInputStream(ImageDerivativeGenerator.render(data, ImageSize.THUMBNAIL)));
+
+			assertNotNull(thumbnail);
+			assertEquals(128, thumbnail.getWidth());
+			assertEquals(64, thumbnail.getHeight());
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests that the transparency of an image is kept by encoding the derivative as PNG.
+	 */
+	public void testRenderTransparentImage() {
+		try {
+			byte[] data = this.createImage(600, 1200, BufferedImage.TYPE_INT_ARGB, "png");
+			BufferedImage preview = ImageIO.read(
+					new ByteArrayInputStream(ImageDerivativeGenerator.render(data, ImageSize.PREVIEW)));
+
+			assertEquals(256, preview.getWidth());
+			assertEquals(512, preview.getHeight());
+			assertTrue(preview.getColorModel().hasAlpha());
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests that small images are not upscaled.
+	 */
+	public void testRenderSmallImage() {
+		try {
+			byte[] data = this.createImage(100, 50, BufferedImage.TYPE_INT_RGB, "png");
+
+			assertSame(data, ImageDerivativeGenerator.render(data, ImageSize.THUMBNAIL));
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests that data of an unknown format are not rendered.
+	 */
+	public void testRenderUnknownFormat() {
+		try {
+			assertNull(ImageDerivativeGenerator.render(new byte[] {1, 2, 3, 4}, ImageSize.THUMBNAIL));
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+}
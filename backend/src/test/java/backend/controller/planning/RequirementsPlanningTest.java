@@ -0,0 +1,267 @@
+package backend.controller.planning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.model.billOfMaterial.BillOfMaterial;
+import backend.model.billOfMaterial.BillOfMaterialGraph;
+import backend.model.billOfMaterial.BillOfMaterialItem;
+import backend.model.material.Material;
+import backend.model.planning.PlanningInput;
+import backend.model.planning.PlanningProposal;
+import backend.model.planning.PlanningProposalType;
+
+/**
+ * Tests the material requirements planning.
+ *
+ * @author Michael
+ */
+public class RequirementsPlanningTest {
+	/**
+	 * The current day of the planning.
+	 */
+	private static final int TODAY = 20000;
+
+	/**
+	 * The ID of the bicycle. Produced from two wheels and a frame.
+	 */
+	private static final int BICYCLE = 1;
+
+	/**
+	 * The ID of the wheel. Produced from a rim and 32 spokes.
+	 */
+	private static final int WHEEL = 2;
+
+	/**
+	 * The ID of the frame. Produced from four tubes and ten spokes.
+	 */
+	private static final int FRAME = 3;
+
+	/**
+	 * The ID of the rim.
+	 */
+	private static final int RIM = 4;
+
+	/**
+	 * The ID of the spoke.
+	 */
+	private static final int SPOKE = 5;
+
+	/**
+	 * The ID of the tube.
+	 */
+	private static final int TUBE = 6;
+
+	/**
+	 * The bills of material of the bicycle.
+	 */
+	private List<BillOfMaterial> billOfMaterials;
+
+	/**
+	 * The input of the planning.
+	 */
+	private PlanningInput input;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		this.billOfMaterials = new ArrayList<BillOfMaterial>();
+		this.billOfMaterials.add(this.getBillOfMaterial(BICYCLE, new int[] {WHEEL, FRAME}, new int[] {2, 1}));
+		this.billOfMaterials.add(this.getBillOfMaterial(WHEEL, new int[] {RIM, SPOKE}, new int[] {1, 32}));
+		this.billOfMaterials.add(this.getBillOfMaterial(FRAME, new int[] {TUBE, SPOKE}, new int[] {4, 10}));
+
+		this.input = new PlanningInput();
+		this.input.addMaterial(BICYCLE, 1);
+		this.input.addMaterial(WHEEL, 0);
+		this.input.addMaterial(FRAME, 0);
+		this.input.addMaterial(RIM, 1);
+		this.input.addMaterial(SPOKE, 100);
+		this.input.addMaterial(TUBE, 0);
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		this.billOfMaterials = null;
+		this.input = null;
+	}
+
+
+	/**
+	 * Creates a BillOfMaterial.
+	 *
+	 * @param materialId The ID of the produced material.
+	 * @param componentIds The IDs of the components.
+	 * @param quantities The quantities of the components.
+	 * @return The BillOfMaterial.
+	 */
+	private BillOfMaterial getBillOfMaterial(final int materialId, final int[] componentIds, final int[] quantities) {
+		BillOfMaterial billOfMaterial = new BillOfMaterial();
+
+		billOfMaterial.setMaterial(this.getMaterial(materialId));
+
+		for (int i = 0; i < componentIds.length; i++) {
+			BillOfMaterialItem item = new BillOfMaterialItem();
+			item.setId(i + 1);
+			item.setMaterial(this.getMaterial(componentIds[i]));
+			item.setQuantity(quantities[i]);
+			billOfMaterial.addItem(item);
+		}
+
+		return billOfMaterial;
+	}
+
+
+	/**
+	 * Creates a material.
+	 *
+	 * @param id The ID of the material.
+	 * @return The material.
+	 */
+	private Material getMaterial(final int id) {
+		Material material = new Material();
+
+		material.setId(id);
+
+		return material;
+	}
+
+
+	/**
+	 * Plans the requirements of the input.
+	 *
+	 * @return The proposals.
+	 */
+	private List<PlanningProposal> plan() {
+		RequirementsPlanning planning = new RequirementsPlanning(this.input,
+				new BillOfMaterialGraph(this.billOfMaterials), TODAY, ForkJoinPool.commonPool());
+
+		return planning.plan();
+	}
+
+
+	/**
+	 * Checks a proposal.
+	 *
+	 * @param proposal The proposal.
+	 * @param materialId The expected ID of the material.
+	 * @param type The expected type.
+	 * @param day The expected day of the requirement.
+	 * @param quantity The expected quantity.
+	 */
+	private void assertProposal(final PlanningProposal proposal, final int materialId, final PlanningProposalType type,
+			final int day, final long quantity) {
+
+		assertEquals(Integer.valueOf(materialId), proposal.getMaterialId());
+		assertEquals(type, proposal.getType());
+		assertEquals(day, PlanningInput.toDay(proposal.getRequirementDate()));
+		assertEquals(Long.valueOf(quantity), proposal.getQuantity());
+	}
+
+
+	@Test
+	/**
+	 * Tests the planning of a demand that is passed to the components of the bill of material.
+	 */
+	public void testPlanDependentDemand() {
+		List<PlanningProposal> proposals;
+
+		this.input.addDemand(BICYCLE, TODAY + 10, 3);
+		this.input.addSupply(TUBE, TODAY + 5, 4);
+
+		proposals = this.plan();
+
+		assertEquals(4, proposals.size());
+		this.assertProposal(proposals.get(0), BICYCLE, PlanningProposalType.PRODUCTION, TODAY + 10, 2);
+		this.assertProposal(proposals.get(1), RIM, PlanningProposalType.PURCHASE, TODAY + 10, 3);
+		this.assertProposal(proposals.get(2), SPOKE, PlanningProposalType.PURCHASE, TODAY + 10, 48);
+		this.assertProposal(proposals.get(3), TUBE, PlanningProposalType.PURCHASE, TODAY + 10, 4);
+	}
+
+
+	@Test
+	/**
+	 * Tests the planning of a production order consuming the components of the bill of material.
+	 */
+	public void testPlanProductionOrder() {
+		List<PlanningProposal> proposals;
+
+		this.input.addProduction(WHEEL, TODAY + 2, 1);
+		this.input.addDemand(WHEEL, TODAY + 4, 4);
+
+		proposals = this.plan();
+
+		assertEquals(3, proposals.size());
+		this.assertProposal(proposals.get(0), WHEEL, PlanningProposalType.PRODUCTION, TODAY + 4, 3);
+		this.assertProposal(proposals.get(1), RIM, PlanningProposalType.PURCHASE, TODAY + 4, 3);
+		this.assertProposal(proposals.get(2), SPOKE, PlanningProposalType.PURCHASE, TODAY + 4, 28);
+	}
+
+
+	@Test
+	/**
+	 * Tests the planning of demands that are past due or have already been deducted from the inventory.
+	 */
+	public void testPlanPastDueAndReservedDemand() {
+		List<PlanningProposal> proposals;
+
+		this.input.addDemand(RIM, TODAY - 5, 2);
+		this.input.addDemand(RIM, TODAY - 3, 4);
+		this.input.addDemand(RIM, TODAY + 1, 1);
+		this.input.addReservedDemand(TUBE, TODAY + 1, 5);
+
+		proposals = this.plan();
+
+		assertEquals(2, proposals.size());
+		this.assertProposal(proposals.get(0), RIM, PlanningProposalType.PURCHASE, TODAY, 5);
+		this.assertProposal(proposals.get(1), RIM, PlanningProposalType.PURCHASE, TODAY + 1, 1);
+	}
+
+
+	@Test
+	/**
+	 * Tests the planning of many materials.
+	 */
+	public void testPlanManyMaterials() {
+		final int products = 50000;
+		List<PlanningProposal> proposals;
+
+		this.billOfMaterials.clear();
+		this.input = new PlanningInput();
+
+		for (int i = 1; i <= products; i++) {
+			this.billOfMaterials.add(this.getBillOfMaterial(i,
+					new int[] {products + i, products + 1 + i % products}, new int[] {1, 1}));
+			this.input.addDemand(i, TODAY + 1, 1);
+		}
+
+		for (int i = 1; i <= 2 * products; i++) {
+			this.input.addMaterial(i, 0);
+		}
+
+		proposals = this.plan();
+
+		assertEquals(2 * products, proposals.size());
+
+		for (int i = 0; i < products; i++) {
+			this.assertProposal(proposals.get(i), i + 1, PlanningProposalType.PRODUCTION, TODAY + 1, 1);
+		}
+
+		for (int i = products; i < 2 * products; i++) {
+			this.assertProposal(proposals.get(i), i + 1, PlanningProposalType.PURCHASE, TODAY + 1, 2);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package backend.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.model.Currency;
+import backend.model.account.Account;
+import backend.model.account.Posting;
+import backend.model.account.PostingType;
+import backend.model.businessPartner.BusinessPartner;
+import backend.model.businessPartner.BusinessPartnerType;
+
+/**
+ * Tests the AccountHibernateDao.
+ * 
+ * @author Michael
+ */
+public class AccountHibernateDaoTest {
+	/**
+	 * DAO to access account data.
+	 */
+	private static AccountDao accountDao;
+	
+	/**
+	 * DAO to access business partner data.
+	 */
+	private static BusinessPartnerDao partnerDao;
+	
+	/**
+	 * The account the posting is booked on.
+	 */
+	private Account bookedAccount;
+	
+	/**
+	 * An account that is not affected by the posting.
+	 */
+	private Account otherAccount;
+	
+	/**
+	 * The counterparty of the posting.
+	 */
+	private BusinessPartner counterparty;
+	
+	
+	@BeforeAll
+	/**
+	 * Tasks to be performed once at startup of test class.
+	 */
+	public static void setUpClass() {
+		accountDao = DAOManager.getInstance().getAccountDAO();
+		partnerDao = DAOManager.getInstance().getBusinessPartnerDAO();
+	}
+	
+	
+	@AfterAll
+	/**
+	 * Tasks to be performed once at end of test class.
+	 */
+	public static void tearDownClass() {
+		try {
+			DAOManager.getInstance().close();
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	protected void setUp() {
+		this.counterparty = new BusinessPartner();
+		this.counterparty.setCompanyName("A Company Making Everything");
+		this.counterparty.setFirstName("Wile E.");
+		this.counterparty.setLastName("Coyote");
+		this.counterparty.setStreetName("Desert Road");
+		this.counterparty.setHouseNumber("2");
+		this.counterparty.setZipCode("1111");
+		this.counterparty.setCityName("Durango");
+		this.counterparty.setPhoneNumber("+1 456-125-7");
+		this.counterparty.addType(BusinessPartnerType.VENDOR);
+		
+		this.bookedAccount = this.getDummyAccount("Booked account");
+		this.otherAccount = this.getDummyAccount("Other account");
+		
+		try {
+			partnerDao.insertBusinessPartner(this.counterparty);
+			accountDao.insertAccount(this.bookedAccount);
+			accountDao.insertAccount(this.otherAccount);
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	protected void tearDown() {
+		try {
+			accountDao.deleteAccount(this.otherAccount);
+			accountDao.deleteAccount(this.bookedAccount);
+			partnerDao.deleteBusinessPartner(this.counterparty);
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	/**
+	 * Initializes and returns a dummy account.
+	 * 
+	 * @param description The description of the account.
+	 * @return The dummy account.
+	 */
+	private Account getDummyAccount(final String description) {
+		Account account = new Account();
+		
+		account.setDescription(description);
+		account.setBalance(BigDecimal.valueOf(1500));
+		account.setCurrency(Currency.EUR);
+		
+		return account;
+	}
+	
+	
+	/**
+	 * Provides the number of cache hits of the given cache region.
+	 * 
+	 * @param regionName The name of the cache region.
+	 * @return The number of cache hits.
+	 */
+	private long getCacheHits(final String regionName) {
+		for (CacheRegionMetrics metrics : DAOManager.getInstance().getCacheRegionMetrics()) {
+			if (metrics.getRegionName().equals(regionName)) {
+				return metrics.getHitCount();
+			}
+		}
+		
+		fail("The cache region " + regionName + " does not exist.");
+		return 0;
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that booking a posting only removes the booked account from the second-level cache.
+	 */
+	public void testBookPostingKeepsOtherAccountsCached() {
+		Posting posting = new Posting();
+		long hitsBefore;
+		
+		posting.setType(PostingType.DISBURSAL);
+		posting.setTimestamp(new Date());
+		posting.setCounterparty(this.counterparty);
+		posting.setReferenceNumber("A1234");
+		posting.setAmount(BigDecimal.valueOf(500));
+		posting.setCurrency(Currency.EUR);
+		
+		try {
+			DAOManager.getInstance().evictSecondLevelCache();
+			accountDao.getAccount(this.otherAccount.getId());
+			
+			accountDao.bookPosting(this.bookedAccount, posting);
+			
+			//The other account is still served from the cache.
+			hitsBefore = this.getCacheHits("account");
+			accountDao.getAccount(this.otherAccount.getId());
+			assertEquals(hitsBefore + 1, this.getCacheHits("account"));
+			
+			//The booked account is read with its new balance.
+			assertEquals(0, BigDecimal.valueOf(1000).compareTo(
+					accountDao.getAccount(this.bookedAccount.getId()).getBalance()));
+			assertEquals(0, BigDecimal.valueOf(1000).compareTo(this.bookedAccount.getBalance()));
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+}
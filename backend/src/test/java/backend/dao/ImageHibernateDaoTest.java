@@ -2,10 +2,13 @@ package backend.dao;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.junit.jupiter.api.AfterAll;
@@ -169,4 +172,21 @@ public class ImageHibernateDaoTest {
 			fail(exception.getMessage());
 		}
 	}
+	
+	
+	@Test
+	/**
+	 * Tests that the data of an uploaded image are removed from the image store, if the image could not be persisted.
+	 */
+	public void testInsertImageFailureRemovesData() {
+		ImageData image = new ImageData();
+		byte[] data = ("Unreferenced image " + System.nanoTime()).getBytes(StandardCharsets.US_ASCII);
+		
+		//The MIME type exceeds the length of its column.
+		image.setMimeType("image/unknown-image-format");
+		
+		assertThrows(Exception.class, () -> imageDAO.insertImage(image, new ByteArrayInputStream(data)));
+		assertNotNull(image.getContentHash());
+		assertThrows(IOException.class, () -> imageDAO.getContentSize(image.getContentHash()));
+	}
 }
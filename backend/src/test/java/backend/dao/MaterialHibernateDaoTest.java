@@ -3,11 +3,15 @@ package backend.dao;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.AfterAll;
@@ -16,9 +20,16 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import backend.exception.ObjectInUseException;
+import backend.exception.ObjectOutdatedException;
 import backend.model.Currency;
+import backend.model.billOfMaterial.BillOfMaterial;
 import backend.model.image.ImageData;
 import backend.model.image.ImageMetaData;
+import backend.model.material.InventoryDelta;
+import backend.model.material.InventoryDeltaStatus;
+import backend.model.material.InventoryMovement;
+import backend.model.material.InventoryMovementType;
 import backend.model.material.Material;
 import backend.model.material.UnitOfMeasurement;
 import backend.tools.test.FileReader;
@@ -194,21 +205,347 @@ public class MaterialHibernateDaoTest {
 	
 	@Test
 	/**
-	 * Tests the retrieval of all image IDs that are linked to any material.
+	 * Tests the insertion of multiple materials within a single transaction.
 	 */
-	public void testGetAllImageIds() {
-		Set<Integer> imagesInUse = null;
+	public void testInsertMaterials() {
+		List<Material> materials = new ArrayList<Material>();
+		Material material;
+		
+		//Create more materials than fit into a single JDBC batch.
+		for (int i = 0; i < 120; i++) {
+			material = new Material();
+			material.setName("Screw M" + i);
+			material.setDescription("Metric screw");
+			material.setUnit(UnitOfMeasurement.ST);
+			material.setPricePerUnit(BigDecimal.valueOf(Double.valueOf(0.1)));
+			material.setCurrency(Currency.EUR);
+			material.setInventory(Long.valueOf(1000));
+			materials.add(material);
+		}
+		
+		try {
+			materialDAO.insertMaterials(materials);
+			
+			//Verify that all materials have been persisted.
+			for (Material insertedMaterial : materials) {
+				assertNotNull(insertedMaterial.getId());
+				assertEquals(insertedMaterial.getName(), materialDAO.getMaterial(insertedMaterial.getId()).getName());
+			}
+			
+			for (Material insertedMaterial : materials) {
+				materialDAO.deleteMaterial(insertedMaterial);
+			}
+		} catch (Exception exception) {
+			fail(exception.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests if a material that has been read once is served from the second-level cache afterwards.
+	 */
+	public void testGetMaterialFromSecondLevelCache() {
+		long hitsBefore;
+		long hitsAfter;
 		
 		try {
-			//Get all referenced image IDs.
-			imagesInUse = materialDAO.getAllImageIds();
+			DAOManager.getInstance().evictSecondLevelCache();
+			
+			//The first read loads the material from the database and puts it into the cache.
+			materialDAO.getMaterial(this.rx570.getId());
+			hitsBefore = this.getCacheHits("material");
 			
-			//Verify the result.
-			assertNotNull(imagesInUse);
-			assertEquals(1, imagesInUse.size());
-			assertTrue(imagesInUse.contains(this.dummyImageMetaData.getId()));
+			//The second read is served from the cache.
+			materialDAO.getMaterial(this.rx570.getId());
+			hitsAfter = this.getCacheHits("material");
+			
+			assertEquals(hitsBefore + 1, hitsAfter);
 		} catch (Exception exception) {
 			fail(exception.getMessage());
 		}
 	}
+	
+	
+	@Test
+	/**
+	 * Tests the update of a material that has been changed by someone else since it has been read.
+	 */
+	public void testUpdateOutdatedMaterial() {
+		Material firstCopy;
+		Material secondCopy;
+		
+		try {
+			firstCopy = materialDAO.getMaterial(this.rx570.getId());
+			secondCopy = materialDAO.getMaterial(this.rx570.getId());
+			
+			//The first update increments the version of the material.
+			firstCopy.setName("Radeon RX 570 Nitro+");
+			materialDAO.updateMaterial(firstCopy);
+			assertEquals(secondCopy.getVersion() + 1, firstCopy.getVersion().longValue());
+			
+			//The second update is based on an outdated version and has to be rejected.
+			secondCopy.setName("Radeon RX 570 Pulse");
+			assertThrows(ObjectOutdatedException.class, () -> materialDAO.updateMaterial(secondCopy));
+			
+			//The database still contains the data of the first update.
+			assertEquals("Radeon RX 570 Nitro+", materialDAO.getMaterial(this.rx570.getId()).getName());
+		} catch (Exception exception) {
+			fail(exception.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests the update of a material whose version is unknown.
+	 */
+	public void testUpdateMaterialWithoutVersion() {
+		Material material;
+
+		try {
+			material = materialDAO.getMaterial(this.rx570.getId());
+			material.setVersion(null);
+			material.setInventory(Long.valueOf(40));
+
+			//It is unknown which state the changes are based on. Therefore the update has to be rejected.
+			assertThrows(ObjectOutdatedException.class, () -> materialDAO.updateMaterial(material));
+
+			assertEquals(this.rx570.getInventory(), materialDAO.getMaterial(this.rx570.getId()).getInventory());
+		} catch (Exception exception) {
+			fail(exception.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the determination of materials that are referenced by another business object.
+	 */
+	public void testGetMaterialIdsInUse() {
+		BillOfMaterialDao billOfMaterialDAO = DAOManager.getInstance().getBillOfMaterialDAO();
+		BillOfMaterial billOfMaterial = new BillOfMaterial();
+		List<Integer> materialIds = new ArrayList<Integer>();
+		Set<Integer> materialIdsInUse;
+		
+		billOfMaterial.setName("RX570 assembly");
+		billOfMaterial.setDescription("Assembly of the graphic card");
+		billOfMaterial.setMaterial(this.rx570);
+		
+		materialIds.add(this.rx570.getId());
+		materialIds.add(this.g4560.getId());
+		
+		try {
+			billOfMaterialDAO.insertBillOfMaterial(billOfMaterial);
+			
+			//Only the material of the BillOfMaterial is in use.
+			materialIdsInUse = materialDAO.getMaterialIdsInUse(materialIds);
+			assertEquals(1, materialIdsInUse.size());
+			assertTrue(materialIdsInUse.contains(this.rx570.getId()));
+			
+			//The deletion names the BillOfMaterial that uses the material.
+			ObjectInUseException exception = assertThrows(ObjectInUseException.class,
+					() -> materialDAO.deleteMaterial(this.rx570));
+			assertEquals(billOfMaterial.getId(), exception.getUsedById());
+			assertTrue(exception.getUsedByObject() instanceof BillOfMaterial);
+			
+			billOfMaterialDAO.deleteBillOfMaterial(billOfMaterial);
+			assertTrue(materialDAO.getMaterialIdsInUse(materialIds).isEmpty());
+		} catch (Exception exception) {
+			fail(exception.getMessage());
+		}
+	}
+	
+	
+	/**
+	 * Determines the number of hits of the given second-level cache region.
+	 * 
+	 * @param regionName The name of the cache region.
+	 * @return The number of hits.
+	 */
+	private long getCacheHits(final String regionName) {
+		for (CacheRegionMetrics metrics : DAOManager.getInstance().getCacheRegionMetrics()) {
+			if (metrics.getRegionName().equals(regionName)) {
+				return metrics.getHitCount();
+			}
+		}
+		
+		fail("The cache region " + regionName + " does not exist.");
+		return 0;
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the conditional update of material inventories.
+	 */
+	public void testUpdateInventories() {
+		List<InventoryDelta> deltas = new ArrayList<InventoryDelta>();
+		List<InventoryDeltaStatus> statuses;
+		Material unknownMaterial = new Material();
+		
+		try {
+			//Both deltas are applied. The given materials get the new inventory. The version is not incremented.
+			deltas.add(new InventoryDelta(this.rx570, -10));
+			deltas.add(new InventoryDelta(this.g4560, 5));
+			statuses = materialDAO.updateInventories(deltas);
+			
+			assertEquals(InventoryDeltaStatus.OK, statuses.get(0));
+			assertEquals(InventoryDeltaStatus.OK, statuses.get(1));
+			assertEquals(Long.valueOf(0), this.rx570.getInventory());
+			assertEquals(Long.valueOf(30), this.g4560.getInventory());
+			assertEquals(Long.valueOf(0), materialDAO.getMaterial(this.rx570.getId()).getInventory());
+			assertEquals(this.g4560.getVersion(), materialDAO.getMaterial(this.g4560.getId()).getVersion());
+			
+			//The inventory of rx570 is not sufficient. None of the deltas is applied.
+			deltas.clear();
+			deltas.add(new InventoryDelta(this.g4560, -5));
+			deltas.add(new InventoryDelta(this.rx570, -1));
+			statuses = materialDAO.updateInventories(deltas);
+			
+			assertEquals(InventoryDeltaStatus.OK, statuses.get(0));
+			assertEquals(InventoryDeltaStatus.INSUFFICIENT_INVENTORY, statuses.get(1));
+			assertEquals(Long.valueOf(30), materialDAO.getMaterial(this.g4560.getId()).getInventory());
+			assertEquals(Long.valueOf(0), materialDAO.getMaterial(this.rx570.getId()).getInventory());
+			
+			//A delta of a material that does not exist is rejected.
+			unknownMaterial.setId(Integer.MAX_VALUE);
+			deltas.clear();
+			deltas.add(new InventoryDelta(unknownMaterial, 1));
+			statuses = materialDAO.updateInventories(deltas);
+			
+			assertEquals(InventoryDeltaStatus.MATERIAL_NOT_FOUND, statuses.get(0));
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the inventory deltas of a material whose inventory is negative.
+	 */
+	public void testUpdateNegativeInventory() {
+		List<InventoryDelta> deltas = new ArrayList<InventoryDelta>();
+		List<InventoryDeltaStatus> statuses;
+		Long version;
+		
+		try {
+			this.rx570.setInventory(Long.valueOf(-3));
+			materialDAO.updateMaterial(this.rx570);
+			version = materialDAO.getMaterial(this.rx570.getId()).getVersion();
+			
+			//A receipt is applied, even if the inventory stays negative.
+			deltas.add(new InventoryDelta(this.rx570, 1));
+			statuses = materialDAO.updateInventories(deltas);
+			
+			assertEquals(InventoryDeltaStatus.OK, statuses.get(0));
+			assertEquals(Long.valueOf(-2), materialDAO.getMaterial(this.rx570.getId()).getInventory());
+			
+			//A reduction is rejected.
+			deltas.clear();
+			deltas.add(new InventoryDelta(this.rx570, -1));
+			statuses = materialDAO.updateInventories(deltas);
+			
+			assertEquals(InventoryDeltaStatus.INSUFFICIENT_INVENTORY, statuses.get(0));
+			assertEquals(Long.valueOf(-2), materialDAO.getMaterial(this.rx570.getId()).getInventory());
+			
+			//Inventory deltas do not increment the version.
+			assertEquals(version, materialDAO.getMaterial(this.rx570.getId()).getVersion());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the inventory movements that are appended when inventories are changed and the inventory snapshots.
+	 */
+	public void testInventoryMovements() {
+		InventoryMovementDao inventoryMovementDAO = DAOManager.getInstance().getInventoryMovementDAO();
+		List<InventoryDelta> deltas = new ArrayList<InventoryDelta>();
+		List<InventoryMovement> movements;
+		
+		try {
+			deltas.add(new InventoryDelta(this.rx570, -4, InventoryMovementType.SALES_ORDER, 1, 2));
+			materialDAO.updateInventories(deltas);
+			
+			//The initial inventory and the delta are appended.
+			movements = inventoryMovementDAO.getInventoryMovements(this.rx570.getId(), null, null);
+			assertEquals(2, movements.size());
+			assertEquals(InventoryMovementType.INITIAL_INVENTORY, movements.get(0).getType());
+			assertEquals(Long.valueOf(10), movements.get(0).getQuantity());
+			assertEquals(InventoryMovementType.SALES_ORDER, movements.get(1).getType());
+			assertEquals(Long.valueOf(-4), movements.get(1).getQuantity());
+			assertEquals(Integer.valueOf(1), movements.get(1).getSourceId());
+			assertEquals(Integer.valueOf(2), movements.get(1).getSourceItemId());
+			assertEquals(Long.valueOf(6), inventoryMovementDAO.getInventory(this.rx570.getId()));
+			
+			//The inventory is determined based on the snapshot and the movements after it.
+			assertEquals(2, inventoryMovementDAO.createSnapshots(new Date(System.currentTimeMillis() + 1000)));
+			this.rx570.setInventory(Long.valueOf(8));
+			materialDAO.updateMaterial(this.rx570);
+			assertEquals(Long.valueOf(8), inventoryMovementDAO.getInventory(this.rx570.getId()));
+			assertEquals(Long.valueOf(25), inventoryMovementDAO.getInventory(this.g4560.getId()));
+			assertTrue(inventoryMovementDAO.getInventoryDifferences(
+					List.of(this.rx570.getId(), this.g4560.getId())).isEmpty());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that the inventory is still determined correctly after superseded snapshots have been deleted.
+	 */
+	public void testInventorySnapshotsPruned() {
+		InventoryMovementDao inventoryMovementDAO = DAOManager.getInstance().getInventoryMovementDAO();
+		
+		try {
+			assertEquals(2, inventoryMovementDAO.createSnapshots(new Date(System.currentTimeMillis() + 1000)));
+			
+			this.rx570.setInventory(Long.valueOf(3));
+			materialDAO.updateMaterial(this.rx570);
+			
+			//The second run creates a snapshot of rx570 only and deletes its first snapshot.
+			assertEquals(1, inventoryMovementDAO.createSnapshots(new Date(System.currentTimeMillis() + 1000)));
+			assertEquals(Long.valueOf(3), inventoryMovementDAO.getInventory(this.rx570.getId()));
+			assertEquals(Long.valueOf(25), inventoryMovementDAO.getInventory(this.g4560.getId()));
+			assertTrue(inventoryMovementDAO.getInventoryDifferences(
+					List.of(this.rx570.getId(), this.g4560.getId())).isEmpty());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the opening balances of materials whose inventory has not been journaled before.
+	 */
+	public void testCreateOpeningBalances() {
+		InventoryMovementDao inventoryMovementDAO = DAOManager.getInstance().getInventoryMovementDAO();
+		List<InventoryMovement> movements;
+		
+		try {
+			//Simulate a material of a database created before the introduction of the inventory movements.
+			DAOManager.getInstance().getNativeSqlDAO().executeStatement(
+					"DELETE FROM INVENTORY_MOVEMENT WHERE MATERIAL_ID = " + this.rx570.getId());
+			assertEquals(Long.valueOf(0), inventoryMovementDAO.getInventory(this.rx570.getId()));
+			
+			assertEquals(1, inventoryMovementDAO.createOpeningBalances());
+			movements = inventoryMovementDAO.getInventoryMovements(this.rx570.getId(), null, null);
+			assertEquals(1, movements.size());
+			assertEquals(InventoryMovementType.INITIAL_INVENTORY, movements.get(0).getType());
+			assertEquals(Long.valueOf(10), movements.get(0).getQuantity());
+			assertTrue(inventoryMovementDAO.getInventoryDifferences(List.of(this.rx570.getId())).isEmpty());
+			
+			//The opening balances are only created once.
+			assertEquals(0, inventoryMovementDAO.createOpeningBalances());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
 }
@@ -0,0 +1,191 @@
+package backend.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.model.SequenceConfiguration;
+
+/**
+ * Tests the SequenceMigration.
+ * 
+ * @author Michael
+ */
+public class SequenceMigrationTest {
+	/**
+	 * The name of the persistence unit whose entities are mapped.
+	 */
+	private static final String PERSISTENCE_UNIT = "my-persistence-unit";
+	
+	/**
+	 * Connection to an in-memory database.
+	 */
+	private Connection connection;
+	
+	/**
+	 * The names of the sequences of the mapped entities.
+	 */
+	private Set<String> sequenceNames;
+	
+	
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	protected void setUp() {
+		try {
+			this.connection = DriverManager.getConnection("jdbc:hsqldb:mem:sequenceMigrationTest", "SA", "");
+			this.executeUpdate("CREATE SEQUENCE materialSequence START WITH 1 INCREMENT BY 1");
+			this.sequenceNames = SequenceConfiguration
+					.getSequenceNames(DatabaseMigration.getEntityClasses(PERSISTENCE_UNIT));
+		} catch (SQLException | IOException | ClassNotFoundException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	protected void tearDown() {
+		try {
+			this.executeUpdate("DROP SEQUENCE materialSequence");
+			this.connection.close();
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	/**
+	 * Executes the given SQL statement.
+	 * 
+	 * @param sql The SQL statement.
+	 * @throws SQLException In case the execution failed.
+	 */
+	private void executeUpdate(final String sql) throws SQLException {
+		try (Statement statement = this.connection.createStatement()) {
+			statement.executeUpdate(sql);
+		}
+	}
+	
+	
+	/**
+	 * Provides the next value of the material sequence.
+	 * 
+	 * @return The next value.
+	 * @throws SQLException In case the value could not be determined.
+	 */
+	private long getNextMaterialId() throws SQLException {
+		try (Statement statement = this.connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("VALUES (NEXT VALUE FOR materialSequence)")) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+	
+	
+	/**
+	 * Provides the increment of the given sequence.
+	 * 
+	 * @param sequenceName The name of the sequence.
+	 * @return The increment.
+	 * @throws SQLException In case the increment could not be determined.
+	 */
+	private long getIncrement(final String sequenceName) throws SQLException {
+		String query = "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = '"
+				+ sequenceName.toUpperCase() + "'";
+		
+		try (Statement statement = this.connection.createStatement();
+				ResultSet resultSet = statement.executeQuery(query)) {
+			resultSet.next();
+			return Long.parseLong(resultSet.getString(1).trim());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the migration of a sequence with an increment of 1 that already provided IDs.
+	 */
+	public void testMigrateKeepsCurrentValue() {
+		SequenceMigration migration = new SequenceMigration(this.connection, this.sequenceNames);
+		
+		try {
+			// Simulate three existing materials.
+			this.getNextMaterialId();
+			this.getNextMaterialId();
+			this.getNextMaterialId();
+			
+			assertEquals(1, migration.migrate(SequenceConfiguration.getAllocationSize()));
+			
+			// The next block starts right after the existing IDs.
+			assertEquals(4, this.getNextMaterialId());
+			assertEquals(4 + SequenceConfiguration.getAllocationSize(), this.getNextMaterialId());
+			
+			// A second migration does not change anything.
+			assertEquals(0, migration.migrate(SequenceConfiguration.getAllocationSize()));
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that the sequences of all entities with a block sequence generator are determined from the mapping.
+	 */
+	public void testSequenceNamesOfMappedEntities() {
+		assertTrue(this.sequenceNames.containsAll(Set.of("accountSequence", "billOfMaterialSequence", "bpSequence",
+				"employeeSequence", "imageSequence", "materialSequence", "postingSequence", "productionOrderSequence",
+				"purchaseOrderSequence", "salesOrderSequence")));
+		
+		// The sequences of entities added later are determined as well.
+		assertTrue(this.sequenceNames.containsAll(Set.of("inventoryMovementSequence", "inventorySnapshotSequence",
+				"accountBalanceSnapshotSequence", "planningProposalSequence")));
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the migration of the sequences of all mapped entities.
+	 */
+	public void testMigrateAllMappedSequences() {
+		SequenceMigration migration = new SequenceMigration(this.connection, this.sequenceNames);
+		
+		try {
+			for (String sequenceName : this.sequenceNames) {
+				if (!"materialSequence".equals(sequenceName)) {
+					this.executeUpdate("CREATE SEQUENCE " + sequenceName + " START WITH 1 INCREMENT BY 1");
+				}
+			}
+			
+			assertEquals(this.sequenceNames.size(), migration.migrate(SequenceConfiguration.getAllocationSize()));
+			
+			for (String sequenceName : this.sequenceNames) {
+				assertEquals(SequenceConfiguration.getAllocationSize(), this.getIncrement(sequenceName));
+			}
+			
+			for (String sequenceName : this.sequenceNames) {
+				if (!"materialSequence".equals(sequenceName)) {
+					this.executeUpdate("DROP SEQUENCE " + sequenceName);
+				}
+			}
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package backend.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import backend.model.Currency;
+import backend.model.material.InventoryMovement;
+import backend.model.material.InventoryMovementType;
+import backend.model.material.Material;
+import backend.model.material.UnitOfMeasurement;
+
+/**
+ * Tests the UnitOfWork.
+ *
+ * @author Michael
+ */
+public class UnitOfWorkTest {
+	/**
+	 * DAO to access material data.
+	 */
+	private static MaterialDao materialDAO;
+	
+	
+	@BeforeAll
+	/**
+	 * Tasks to be performed once at startup of test class.
+	 */
+	public static void setUpClass() {
+		materialDAO = DAOManager.getInstance().getMaterialDAO();
+	}
+	
+	
+	@AfterAll
+	/**
+	 * Tasks to be performed once at end of test class.
+	 */
+	public static void tearDownClass() {
+		try {
+			DAOManager.getInstance().close();
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	/**
+	 * Provides a new material for testing purpose.
+	 *
+	 * @return The material.
+	 */
+	private Material getTestMaterial() {
+		Material material = new Material();
+		
+		material.setName("Screw M6");
+		material.setDescription("Metric screw");
+		material.setUnit(UnitOfMeasurement.ST);
+		material.setPricePerUnit(BigDecimal.valueOf(Double.valueOf(0.1)));
+		material.setCurrency(Currency.EUR);
+		material.setInventory(Long.valueOf(1000));
+		
+		return material;
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the commit of multiple DAO calls that participate in a unit of work.
+	 */
+	public void testCommit() {
+		Material material = this.getTestMaterial();
+		Material databaseMaterial;
+		List<InventoryMovement> movements;
+		
+		try {
+			try (UnitOfWork unitOfWork = DAOManager.getInstance().beginUnitOfWork()) {
+				materialDAO.insertMaterial(material);
+				
+				//The material read within the unit of work is the same instance that has been inserted.
+				databaseMaterial = materialDAO.getMaterial(material.getId());
+				databaseMaterial.setInventory(Long.valueOf(900));
+				materialDAO.updateMaterial(databaseMaterial);
+				
+				unitOfWork.commit();
+			}
+			
+			databaseMaterial = materialDAO.getMaterial(material.getId());
+			assertNotNull(databaseMaterial);
+			assertEquals(Long.valueOf(900), databaseMaterial.getInventory());
+			
+			//The update of the material managed by the unit of work journals the correction of the inventory.
+			movements = DAOManager.getInstance().getInventoryMovementDAO().getInventoryMovements(material.getId(),
+					null, null);
+			assertEquals(2, movements.size());
+			assertEquals(InventoryMovementType.CORRECTION, movements.get(1).getType());
+			assertEquals(Long.valueOf(-100), movements.get(1).getQuantity());
+			
+			materialDAO.deleteMaterial(databaseMaterial);
+		} catch (Exception exception) {
+			fail(exception.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that all DAO calls of a unit of work are rolled back, if the unit of work is closed without commit.
+	 */
+	public void testRollbackWithoutCommit() {
+		Material material = this.getTestMaterial();
+		
+		try {
+			try (UnitOfWork unitOfWork = DAOManager.getInstance().beginUnitOfWork()) {
+				materialDAO.insertMaterial(material);
+				assertNotNull(material.getId());
+			}
+			
+			assertNull(materialDAO.getMaterial(material.getId()));
+		} catch (Exception exception) {
+			fail(exception.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that a second unit of work can not be started while the current thread has an active unit of work.
+	 */
+	public void testNestedUnitOfWork() {
+		try (UnitOfWork unitOfWork = DAOManager.getInstance().beginUnitOfWork()) {
+			assertThrows(IllegalStateException.class, () -> DAOManager.getInstance().beginUnitOfWork());
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package backend.dao.image;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the FileSystemImageStore.
+ *
+ * @author Michael
+ */
+public class FileSystemImageStoreTest {
+	/**
+	 * The SHA-256 hash of the test data.
+	 */
+	private static final String TEST_DATA_HASH = "a591a6d40bf420404a011733cfb7b190d62c65bf0bcda32b57b277d9ad9f146e";
+
+	/**
+	 * The test data.
+	 */
+	private static final byte[] TEST_DATA = "Hello World".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * The root directory of the store.
+	 */
+	private Path rootDirectory;
+
+	/**
+	 * The store under test.
+	 */
+	private ImageStore imageStore;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		try {
+			this.rootDirectory = Files.createTempDirectory("imageStore");
+			this.imageStore = new FileSystemImageStore(this.rootDirectory);
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		try (Stream<Path> paths = Files.walk(this.rootDirectory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+
+		this.imageStore = null;
+		this.rootDirectory = null;
+	}
+
+
+	/**
+	 * Counts the files of the store.
+	 *
+	 * @return The number of files.
+	 * @throws IOException In case the files could not be determined.
+	 */
+	private long countFiles() throws IOException {
+		try (Stream<Path> paths = Files.walk(this.rootDirectory)) {
+			return paths.filter(Files::isRegularFile).count();
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests storing and reading data.
+	 */
+	public void testStoreAndRead() {
+		try {
+			String hash = this.imageStore.store(TEST_DATA);
+
+			assertEquals(TEST_DATA_HASH, hash);
+			assertTrue(Files.isRegularFile(this.rootDirectory.resolve("a5").resolve("91").resolve(hash)));
+			assertArrayEquals(TEST_DATA, this.imageStore.read(hash));
+			assertEquals(TEST_DATA.length, this.imageStore.getSize(hash));
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests that identical data are only stored once, regardless of whether they are provided as array or stream.
+	 */
+	public void testDeduplication() {
+		try {
+			String arrayHash = this.imageStore.store(TEST_DATA);
+			String streamHash = this.imageStore.store(new ByteArrayInputStream(TEST_DATA));
+			String otherHash = this.imageStore.store("Hello Store".getBytes(StandardCharsets.US_ASCII));
+
+			assertEquals(arrayHash, streamHash);
+			assertNotEquals(arrayHash, otherHash);
+			assertEquals(2, this.countFiles());
+
+			this.imageStore.delete(arrayHash);
+			assertFalse(this.imageStore.exists(arrayHash));
+			assertTrue(this.imageStore.exists(otherHash));
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests that staged data are only visible after they have been committed and are discarded otherwise.
+	 */
+	public void testStage() {
+		try {
+			try (StagedContent content = this.imageStore.stage(new ByteArrayInputStream(TEST_DATA))) {
+				assertEquals(TEST_DATA_HASH, content.getHash());
+				assertFalse(this.imageStore.exists(TEST_DATA_HASH));
+			}
+
+			assertFalse(this.imageStore.exists(TEST_DATA_HASH));
+			assertEquals(0, this.countFiles());
+
+			try (StagedContent content = this.imageStore.stage(new ByteArrayInputStream(TEST_DATA))) {
+				content.commit();
+			}
+
+			assertArrayEquals(TEST_DATA, this.imageStore.read(TEST_DATA_HASH));
+			assertEquals(1, this.countFiles());
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests the transfer of a range of the data to a channel.
+	 */
+	public void testTransferTo() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try {
+			String hash = this.imageStore.store(TEST_DATA);
+
+			assertEquals(5, this.imageStore.transferTo(hash, 6, 100, Channels.newChannel(outputStream)));
+			assertEquals("World", outputStream.toString(StandardCharsets.US_ASCII));
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests that derivatives are stored next to the data and deleted together with the data.
+	 */
+	public void testDerivatives() {
+		byte[] thumbnail = "Hello".getBytes(StandardCharsets.US_ASCII);
+
+		try {
+			String hash = this.imageStore.store(TEST_DATA);
+			String key = this.imageStore.storeDerivative(hash, "thumbnail", thumbnail);
+
+			assertEquals(ImageStore.getDerivativeKey(hash, "thumbnail"), key);
+			assertTrue(Files.isRegularFile(this.rootDirectory.resolve("a5").resolve("91").resolve(key)));
+			assertArrayEquals(thumbnail, this.imageStore.read(key));
+
+			this.imageStore.delete(hash);
+			assertFalse(this.imageStore.exists(key));
+			assertEquals(0, this.countFiles());
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+
+		assertThrows(IllegalArgumentException.class,
+				() -> this.imageStore.storeDerivative(TEST_DATA_HASH, "../x", thumbnail));
+	}
+
+
+	@Test
+	/**
+	 * Tests that values that are no hash are rejected.
+	 */
+	public void testInvalidHash() {
+		assertThrows(IllegalArgumentException.class, () -> this.imageStore.read("../../etc/passwd"));
+		assertThrows(IllegalArgumentException.class, () -> this.imageStore.exists(null));
+	}
+}
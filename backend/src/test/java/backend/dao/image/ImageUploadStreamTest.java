@@ -0,0 +1,279 @@
+package backend.dao.image;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.exception.ImageTooLargeException;
+
+/**
+ * Tests the ImageUploadStream.
+ *
+ * @author Michael
+ */
+public class ImageUploadStreamTest {
+	/**
+	 * The size of the large upload. The upload is larger than the heap of the separate test execution of this class
+	 * defined in the pom.xml.
+	 */
+	private static final long LARGE_UPLOAD_SIZE = 192L * 1024 * 1024;
+
+	/**
+	 * The maximum number of bytes that may be requested from the upload at once.
+	 */
+	private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The root directory of the store.
+	 */
+	private Path rootDirectory;
+
+	/**
+	 * The store the uploads are written to.
+	 */
+	private ImageStore imageStore;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		try {
+			this.rootDirectory = Files.createTempDirectory("imageUpload");
+			this.imageStore = new FileSystemImageStore(this.rootDirectory);
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		try (Stream<Path> paths = Files.walk(this.rootDirectory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+
+		this.imageStore = null;
+		this.rootDirectory = null;
+	}
+
+
+	/**
+	 * Counts the files of the store.
+	 *
+	 * @return The number of files.
+	 * @throws IOException In case the files could not be determined.
+	 */
+	private long countFiles() throws IOException {
+		try (Stream<Path> paths = Files.walk(this.rootDirectory)) {
+			return paths.filter(Files::isRegularFile).count();
+		}
+	}
+
+
+	/**
+	 * Determines the MIME type of the given data.
+	 *
+	 * @param data The data.
+	 * @return The MIME type.
+	 * @throws IOException In case the data could not be read.
+	 */
+	private String getMimeType(final byte[] data) throws IOException {
+		try (ImageUploadStream uploadStream = new ImageUploadStream(new ByteArrayInputStream(data), data.length)) {
+			uploadStream.readAllBytes();
+			return uploadStream.getMimeType();
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests that an upload larger than the share of the heap of a single upload is stored using a bounded buffer.
+	 */
+	public void testLargeUpload() {
+		GeneratedInputStream upload = new GeneratedInputStream(LARGE_UPLOAD_SIZE);
+		ImageUploadStream uploadStream = new ImageUploadStream(upload, LARGE_UPLOAD_SIZE);
+
+		try {
+			String hash = this.imageStore.store(uploadStream);
+
+			assertEquals(new GeneratedInputStream(LARGE_UPLOAD_SIZE).getHash(), hash);
+			assertEquals(LARGE_UPLOAD_SIZE, uploadStream.getSize());
+			assertEquals(LARGE_UPLOAD_SIZE, this.imageStore.getSize(hash));
+			assertTrue(upload.getMaxReadLength() <= MAX_BUFFER_SIZE);
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests that an upload exceeding the maximum size is aborted early and leaves no data in the store.
+	 */
+	public void testMaxSizeExceeded() {
+		GeneratedInputStream upload = new GeneratedInputStream(LARGE_UPLOAD_SIZE);
+		ImageUploadStream uploadStream = new ImageUploadStream(upload, MAX_BUFFER_SIZE);
+
+		ImageTooLargeException exception = assertThrows(ImageTooLargeException.class,
+				() -> this.imageStore.store(uploadStream));
+
+		assertEquals(MAX_BUFFER_SIZE, exception.getMaxSize());
+		assertTrue(upload.getPosition() <= 2 * MAX_BUFFER_SIZE);
+
+		try {
+			assertEquals(0, this.countFiles());
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	@Test
+	/**
+	 * Tests the determination of the MIME type based on the leading bytes.
+	 */
+	public void testMimeType() {
+		try {
+			assertEquals("image/png",
+					this.getMimeType(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0}));
+			assertEquals("image/jpeg", this.getMimeType(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0}));
+			assertEquals("image/gif", this.getMimeType("GIF89a".getBytes()));
+			assertEquals("image/webp", this.getMimeType("RIFF\0\0\0\0WEBPVP8 ".getBytes()));
+			assertEquals("image/bmp", this.getMimeType("BM\0\0".getBytes()));
+			assertNull(this.getMimeType("RIFF\0\0\0\0WAVE".getBytes()));
+			assertNull(this.getMimeType("<html>".getBytes()));
+			assertNull(this.getMimeType(new byte[0]));
+		} catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	/**
+	 * Provides generated data of the given size without holding them in memory.
+	 */
+	private static class GeneratedInputStream extends InputStream {
+		/**
+		 * The size of the data.
+		 */
+		private final long size;
+
+		/**
+		 * The number of bytes provided so far.
+		 */
+		private long position;
+
+		/**
+		 * The largest number of bytes requested at once.
+		 */
+		private int maxReadLength;
+
+		/**
+		 * Initializes the stream.
+		 *
+		 * @param size The size of the data.
+		 */
+		GeneratedInputStream(final long size) {
+			this.size = size;
+		}
+
+		/**
+		 * Provides the next byte.
+		 */
+		@Override
+		public int read() {
+			byte[] singleByte = new byte[1];
+
+			if (this.read(singleByte, 0, 1) < 0) {
+				return -1;
+			}
+
+			return Byte.toUnsignedInt(singleByte[0]);
+		}
+
+		/**
+		 * Provides up to the given number of bytes.
+		 */
+		@Override
+		public int read(final byte[] buffer, final int offset, final int length) {
+			int bytes = (int) Math.min(length, this.size - this.position);
+
+			this.maxReadLength = Math.max(this.maxReadLength, length);
+
+			if (bytes <= 0) {
+				return length == 0 ? 0 : -1;
+			}
+
+			for (int i = 0; i < bytes; i++) {
+				buffer[offset + i] = (byte) ((this.position + i) % 251);
+			}
+
+			this.position += bytes;
+
+			return bytes;
+		}
+
+		/**
+		 * Determines the SHA-256 hash of the remaining data.
+		 *
+		 * @return The hash as hexadecimal string.
+		 */
+		String getHash() {
+			byte[] buffer = new byte[MAX_BUFFER_SIZE];
+			int bytes;
+
+			try {
+				MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+				while ((bytes = this.read(buffer, 0, buffer.length)) > 0) {
+					digest.update(buffer, 0, bytes);
+				}
+
+				return HexFormat.of().formatHex(digest.digest());
+			} catch (NoSuchAlgorithmException e) {
+				fail(e.getMessage());
+				return null;
+			}
+		}
+
+		/**
+		 * @return The number of bytes provided so far.
+		 */
+		long getPosition() {
+			return position;
+		}
+
+		/**
+		 * @return The largest number of bytes requested at once.
+		 */
+		int getMaxReadLength() {
+			return maxReadLength;
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package backend.dao.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ConnectionPool.
+ * 
+ * @author Michael
+ */
+public class ConnectionPoolTest {
+	/**
+	 * The URL of the in-memory database used for testing.
+	 */
+	private static final String URL = "jdbc:hsqldb:mem:connectionPoolTest";
+	
+	/**
+	 * The pool under test.
+	 */
+	private ConnectionPool connectionPool;
+	
+	
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	protected void setUp() {
+		Properties poolProperties = new Properties();
+		Properties connectionProperties = new Properties();
+		
+		poolProperties.setProperty("pool.minSize", "1");
+		poolProperties.setProperty("pool.maxSize", "2");
+		poolProperties.setProperty("pool.acquireTimeout", "100");
+		poolProperties.setProperty("pool.statementCacheSize", "5");
+		connectionProperties.setProperty("user", "SA");
+		connectionProperties.setProperty("password", "");
+		
+		try {
+			this.connectionPool = new ConnectionPool(new ConnectionPoolConfiguration(poolProperties), URL, 
+					connectionProperties);
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	protected void tearDown() {
+		this.connectionPool.close();
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that a closed connection is returned to the pool and reused.
+	 */
+	public void testConnectionReturnedToPool() {
+		ConnectionPoolMetrics metrics;
+		
+		try {
+			Connection connection = this.connectionPool.getConnection();
+			metrics = this.connectionPool.getMetrics();
+			assertEquals(1, metrics.getActiveConnections());
+			assertEquals(0, metrics.getIdleConnections());
+			
+			connection.close();
+			assertTrue(connection.isClosed());
+			
+			metrics = this.connectionPool.getMetrics();
+			assertEquals(0, metrics.getActiveConnections());
+			assertEquals(1, metrics.getIdleConnections());
+			assertEquals(1, metrics.getAcquireCount());
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that acquiring a connection fails after the timeout if all connections are in use.
+	 */
+	public void testAcquireTimeout() {
+		try {
+			Connection first = this.connectionPool.getConnection();
+			Connection second = this.connectionPool.getConnection();
+			
+			assertThrows(SQLException.class, () -> this.connectionPool.getConnection());
+			assertEquals(1, this.connectionPool.getMetrics().getAcquireTimeoutCount());
+			
+			first.close();
+			second.close();
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that a closed prepared statement is reused from the statement cache.
+	 */
+	public void testStatementCache() {
+		final String sql = "VALUES (CAST(? AS INTEGER))";
+		PreparedStatement first, second;
+		
+		try {
+			Connection connection = this.connectionPool.getConnection();
+			
+			first = connection.prepareStatement(sql);
+			first.close();
+			second = connection.prepareStatement(sql);
+			
+			assertSame(first, second);
+			assertFalse(second.isClosed());
+			assertEquals(1, this.connectionPool.getMetrics().getStatementCacheHits());
+			assertEquals(1, this.connectionPool.getMetrics().getStatementCacheMisses());
+			
+			second.close();
+			connection.close();
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that a connection can not be used after it has been returned to the pool.
+	 */
+	public void testUseAfterClose() {
+		try {
+			Connection connection = this.connectionPool.getConnection();
+			connection.close();
+			
+			assertThrows(SQLException.class, () -> connection.createStatement());
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that an open transaction is rolled back and the connection settings are restored on return to the pool.
+	 */
+	public void testConnectionStateReset() {
+		try {
+			Connection connection = this.connectionPool.getConnection();
+			connection.createStatement().execute("CREATE TABLE RESET_TEST (ID INTEGER)");
+			
+			connection.setAutoCommit(false);
+			connection.createStatement().execute("INSERT INTO RESET_TEST VALUES (1)");
+			connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+			connection.close();
+			
+			//The same physical connection is handed out again.
+			connection = this.connectionPool.getConnection();
+			assertTrue(connection.getAutoCommit());
+			assertEquals(Connection.TRANSACTION_READ_COMMITTED, connection.getTransactionIsolation());
+			
+			try (ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM RESET_TEST")) {
+				resultSet.next();
+				assertEquals(0, resultSet.getInt(1));
+			}
+			
+			connection.createStatement().execute("DROP TABLE RESET_TEST");
+			connection.close();
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that the fetch settings of a cached statement are not passed on to the next user of the statement.
+	 */
+	public void testStatementFetchSettingsReset() {
+		final String sql = "VALUES (CAST(? AS INTEGER))";
+		PreparedStatement statement;
+		
+		try {
+			Connection connection = this.connectionPool.getConnection();
+			
+			statement = connection.prepareStatement(sql);
+			statement.setFetchSize(500);
+			statement.close();
+			
+			statement = connection.prepareStatement(sql);
+			assertEquals(0, statement.getFetchSize());
+			assertEquals(ResultSet.FETCH_FORWARD, statement.getFetchDirection());
+			
+			statement.close();
+			connection.close();
+		} catch (SQLException e) {
+			fail(e.getMessage());
+		}
+	}
+}
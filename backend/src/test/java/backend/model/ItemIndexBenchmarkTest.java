@@ -0,0 +1,161 @@
+package backend.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import backend.model.material.Material;
+import backend.model.material.UnitOfMeasurement;
+import backend.model.productionOrder.ProductionOrder;
+import backend.model.productionOrder.ProductionOrderItem;
+import backend.model.salesOrder.SalesOrder;
+import backend.model.salesOrder.SalesOrderItem;
+
+/**
+ * Checks that the item based operations of very large orders stay within the latency budget.
+ *
+ * The durations depend on the machine running the tests. Therefore the benchmark is not part of the default test run.
+ * It is run by the profile "benchmark". The behaviour of the index is tested by the ItemIndexTest.
+ *
+ * @author Michael
+ */
+@Tag("benchmark")
+public class ItemIndexBenchmarkTest {
+	/**
+	 * The number of items of each order.
+	 */
+	private static final int ITEM_COUNT = 20000;
+
+	/**
+	 * The maximum duration of all operations of a test.
+	 */
+	private static final Duration LATENCY_BUDGET = Duration.ofMillis(1000);
+
+	/**
+	 * The material that is being ordered.
+	 */
+	private Material material;
+
+	/**
+	 * The date of the orders.
+	 */
+	private Date orderDate;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		this.material = new Material();
+		this.material.setId(1);
+		this.material.setName("AMD RX570");
+		this.material.setUnit(UnitOfMeasurement.ST);
+		this.material.setPricePerUnit(BigDecimal.valueOf(2));
+		this.material.setCurrency(Currency.EUR);
+		this.material.setInventory(Long.valueOf(ITEM_COUNT));
+		this.orderDate = new Date();
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		this.material = null;
+		this.orderDate = null;
+	}
+
+
+	/**
+	 * Creates a sales order with the number of items of the benchmark.
+	 *
+	 * @return The sales order.
+	 */
+	private SalesOrder createSalesOrder() {
+		SalesOrder salesOrder = new SalesOrder();
+		salesOrder.setOrderDate(this.orderDate);
+
+		for (int i = 1; i <= ITEM_COUNT; i++) {
+			SalesOrderItem item = new SalesOrderItem();
+			item.setId(i);
+			item.setMaterial(this.material);
+			item.setQuantity(Long.valueOf(1));
+			salesOrder.addItem(item);
+		}
+
+		return salesOrder;
+	}
+
+
+	/**
+	 * Creates a production order with the number of items of the benchmark.
+	 *
+	 * @return The production order.
+	 */
+	private ProductionOrder createProductionOrder() {
+		ProductionOrder productionOrder = new ProductionOrder();
+		productionOrder.setOrderDate(this.orderDate);
+
+		for (int i = 1; i <= ITEM_COUNT; i++) {
+			ProductionOrderItem item = new ProductionOrderItem();
+			item.setId(i);
+			item.setMaterial(this.material);
+			item.setQuantity(Long.valueOf(1));
+			productionOrder.addItem(item);
+		}
+
+		return productionOrder;
+	}
+
+
+	@Test
+	/**
+	 * Tests the comparison, the item lookup and the price total of two large sales orders.
+	 */
+	public void testLargeSalesOrder() {
+		SalesOrder salesOrder = this.createSalesOrder();
+		SalesOrder databaseSalesOrder = this.createSalesOrder();
+
+		assertTimeout(LATENCY_BUDGET, () -> {
+			assertTrue(salesOrder.equals(databaseSalesOrder));
+
+			for (SalesOrderItem item : salesOrder.getItems()) {
+				assertNotNull(databaseSalesOrder.getItemWithId(item.getId()));
+			}
+
+			for (int i = 0; i < ITEM_COUNT; i++) {
+				assertEquals(0, BigDecimal.valueOf(2L * ITEM_COUNT).compareTo(salesOrder.getPriceTotal()));
+			}
+		});
+	}
+
+
+	@Test
+	/**
+	 * Tests the comparison and the item lookup of two large production orders as done by the update validation.
+	 */
+	public void testLargeProductionOrder() {
+		ProductionOrder productionOrder = this.createProductionOrder();
+		ProductionOrder databaseProductionOrder = this.createProductionOrder();
+
+		assertTimeout(LATENCY_BUDGET, () -> {
+			assertTrue(productionOrder.equals(databaseProductionOrder));
+
+			for (ProductionOrderItem item : productionOrder.getItems()) {
+				assertNotNull(databaseProductionOrder.getItemWithId(item.getId()));
+			}
+		});
+	}
+}
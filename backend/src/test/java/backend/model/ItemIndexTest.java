@@ -0,0 +1,147 @@
+package backend.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ItemIndex. The items are represented by their ID. The price of an item equals its ID.
+ *
+ * @author Michael
+ */
+public class ItemIndexTest {
+	/**
+	 * The index under test.
+	 */
+	private ItemIndex<Integer> itemIndex;
+
+	/**
+	 * The number of items whose price has been determined.
+	 */
+	private int priceCalculations;
+
+	/**
+	 * Provides the price of an item and counts the calculations.
+	 */
+	private Function<Integer, BigDecimal> priceProvider;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		this.itemIndex = new ItemIndex<Integer>(Function.identity());
+		this.priceCalculations = 0;
+		this.priceProvider = item -> {
+			this.priceCalculations++;
+			return BigDecimal.valueOf(item);
+		};
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		this.itemIndex = null;
+		this.priceProvider = null;
+	}
+
+
+	@Test
+	/**
+	 * Tests the lookup of items by their ID.
+	 */
+	public void testGetItem() {
+		Set<Integer> items = this.itemIndex.track(new HashSet<Integer>(Arrays.asList(1, 2, 3)));
+
+		assertEquals(Integer.valueOf(2), this.itemIndex.getItem(items, 2));
+		assertNull(this.itemIndex.getItem(items, 4));
+
+		//Changes made by the view are found by the next lookup.
+		items.add(4);
+		assertEquals(Integer.valueOf(4), this.itemIndex.getItem(items, 4));
+
+		items.remove(2);
+		assertNull(this.itemIndex.getItem(items, 2));
+	}
+
+
+	@Test
+	/**
+	 * Tests that the price total is only recalculated, if the items have been changed by the view.
+	 */
+	public void testPriceTotalOfSet() {
+		Set<Integer> items = this.itemIndex.track(new HashSet<Integer>(Arrays.asList(1, 2, 3)));
+		Iterator<Integer> iterator;
+
+		assertEquals(0, BigDecimal.valueOf(6).compareTo(this.itemIndex.getPriceTotal(items, this.priceProvider)));
+		assertEquals(0, BigDecimal.valueOf(6).compareTo(this.itemIndex.getPriceTotal(items, this.priceProvider)));
+		assertEquals(3, this.priceCalculations);
+
+		//Adding an item increases the modification count.
+		items.add(4);
+		assertEquals(0, BigDecimal.valueOf(10).compareTo(this.itemIndex.getPriceTotal(items, this.priceProvider)));
+		assertEquals(7, this.priceCalculations);
+
+		//Removing an item by the iterator increases the modification count.
+		iterator = items.iterator();
+		iterator.next();
+		iterator.remove();
+		this.itemIndex.getPriceTotal(items, this.priceProvider);
+		this.itemIndex.getPriceTotal(items, this.priceProvider);
+		assertEquals(10, this.priceCalculations);
+	}
+
+
+	@Test
+	/**
+	 * Tests that the price total of a list is recalculated, if an item has been replaced by the view.
+	 */
+	public void testPriceTotalOfList() {
+		List<Integer> items = this.itemIndex.track(new ArrayList<Integer>(Arrays.asList(1, 2, 3)));
+
+		this.itemIndex.getPriceTotal(items, this.priceProvider);
+		assertEquals(3, this.priceCalculations);
+
+		//Replacing an item keeps the size, but increases the modification count.
+		items.set(0, 5);
+		assertEquals(0, BigDecimal.valueOf(10).compareTo(this.itemIndex.getPriceTotal(items, this.priceProvider)));
+		assertEquals(6, this.priceCalculations);
+		assertEquals(Integer.valueOf(5), this.itemIndex.getItem(items, 5));
+		assertNull(this.itemIndex.getItem(items, 1));
+		assertEquals(6, this.priceCalculations);
+	}
+
+
+	@Test
+	/**
+	 * Tests that the index is rebuilt, if the items have been replaced or invalidated.
+	 */
+	public void testReplacedItems() {
+		Set<Integer> items = this.itemIndex.track(new HashSet<Integer>(Arrays.asList(1, 2, 3)));
+		Set<Integer> newItems = this.itemIndex.track(new HashSet<Integer>(Arrays.asList(1, 2)));
+
+		this.itemIndex.getPriceTotal(items, this.priceProvider);
+		assertEquals(0, BigDecimal.valueOf(3).compareTo(this.itemIndex.getPriceTotal(newItems, this.priceProvider)));
+		assertEquals(5, this.priceCalculations);
+
+		this.itemIndex.invalidate();
+		this.itemIndex.getPriceTotal(newItems, this.priceProvider);
+		assertEquals(7, this.priceCalculations);
+	}
+}
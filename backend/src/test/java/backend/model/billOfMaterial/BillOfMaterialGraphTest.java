@@ -0,0 +1,165 @@
+package backend.model.billOfMaterial;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.model.material.Material;
+
+/**
+ * Tests the BillOfMaterial graph.
+ *
+ * @author Michael
+ */
+public class BillOfMaterialGraphTest {
+	/**
+	 * The ID of the bicycle. Produced from two wheels and a frame.
+	 */
+	private static final int BICYCLE = 1;
+
+	/**
+	 * The ID of the wheel. Produced from a rim and 32 spokes.
+	 */
+	private static final int WHEEL = 2;
+
+	/**
+	 * The ID of the frame. Produced from four tubes and ten spokes.
+	 */
+	private static final int FRAME = 3;
+
+	/**
+	 * The ID of the rim.
+	 */
+	private static final int RIM = 4;
+
+	/**
+	 * The ID of the spoke.
+	 */
+	private static final int SPOKE = 5;
+
+	/**
+	 * The ID of the tube.
+	 */
+	private static final int TUBE = 6;
+
+	/**
+	 * The BillOfMaterial graph under test.
+	 */
+	private BillOfMaterialGraph graph;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		List<BillOfMaterial> billOfMaterials = new ArrayList<BillOfMaterial>();
+
+		billOfMaterials.add(this.getBillOfMaterial(BICYCLE, new int[] {WHEEL, FRAME}, new int[] {2, 1}));
+		billOfMaterials.add(this.getBillOfMaterial(WHEEL, new int[] {RIM, SPOKE}, new int[] {1, 32}));
+		billOfMaterials.add(this.getBillOfMaterial(FRAME, new int[] {TUBE, SPOKE}, new int[] {4, 10}));
+
+		this.graph = new BillOfMaterialGraph(billOfMaterials);
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		this.graph = null;
+	}
+
+
+	/**
+	 * Creates a BillOfMaterial.
+	 *
+	 * @param materialId The ID of the produced material.
+	 * @param componentIds The IDs of the components.
+	 * @param quantities The quantities of the components.
+	 * @return The BillOfMaterial.
+	 */
+	private BillOfMaterial getBillOfMaterial(final int materialId, final int[] componentIds, final int[] quantities) {
+		BillOfMaterial billOfMaterial = new BillOfMaterial();
+
+		billOfMaterial.setMaterial(this.getMaterial(materialId));
+
+		for (int i = 0; i < componentIds.length; i++) {
+			BillOfMaterialItem item = new BillOfMaterialItem();
+			item.setId(i + 1);
+			item.setMaterial(this.getMaterial(componentIds[i]));
+			item.setQuantity(quantities[i]);
+			billOfMaterial.addItem(item);
+		}
+
+		return billOfMaterial;
+	}
+
+
+	/**
+	 * Creates a material.
+	 *
+	 * @param id The ID of the material.
+	 * @return The material.
+	 */
+	private Material getMaterial(final int id) {
+		Material material = new Material();
+
+		material.setId(id);
+
+		return material;
+	}
+
+
+	@Test
+	/**
+	 * Tests the explosion of a material over multiple levels.
+	 */
+	public void testExplode() {
+		BillOfMaterialExplosion explosion = this.graph.explode(BICYCLE);
+
+		assertEquals(3, explosion.size());
+		assertEquals(RIM, explosion.getMaterialId(0));
+		assertEquals(2, explosion.getQuantity(0));
+		assertEquals(SPOKE, explosion.getMaterialId(1));
+		assertEquals(74, explosion.getQuantity(1));
+		assertEquals(TUBE, explosion.getMaterialId(2));
+		assertEquals(4, explosion.getQuantity(2));
+
+		//The explosion is memoized.
+		assertSame(explosion, this.graph.explode(BICYCLE));
+	}
+
+
+	@Test
+	/**
+	 * Tests the explosion of a material without BillOfMaterial.
+	 */
+	public void testExplodeWithoutBillOfMaterial() {
+		assertFalse(this.graph.hasBillOfMaterial(SPOKE));
+		assertEquals(0, this.graph.explode(SPOKE).size());
+	}
+
+
+	@Test
+	/**
+	 * Tests the detection of BillOfMaterials that make a material a component of itself.
+	 */
+	public void testCreatesCycle() {
+		assertTrue(this.graph.createsCycle(this.getBillOfMaterial(RIM, new int[] {TUBE, BICYCLE}, new int[] {1, 1})));
+		assertTrue(this.graph.createsCycle(this.getBillOfMaterial(TUBE, new int[] {TUBE}, new int[] {1})));
+		assertFalse(this.graph.createsCycle(this.getBillOfMaterial(RIM, new int[] {TUBE, SPOKE}, new int[] {1, 2})));
+
+		//Replacing the BillOfMaterial of the wheel without using the bicycle does not create a cycle.
+		assertFalse(this.graph.createsCycle(this.getBillOfMaterial(WHEEL, new int[] {RIM}, new int[] {1})));
+	}
+}
@@ -0,0 +1,150 @@
+package backend.model.planning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the availability projection.
+ *
+ * @author Michael
+ */
+public class AvailabilityProjectionTest {
+	/**
+	 * The current day.
+	 */
+	private static final int TODAY = 20000;
+
+	/**
+	 * The ID of the wheel. Produced from the rim.
+	 */
+	private static final int WHEEL = 1;
+
+	/**
+	 * The ID of the rim. Purchased.
+	 */
+	private static final int RIM = 2;
+
+	/**
+	 * The projection under test.
+	 */
+	private AvailabilityProjection projection;
+
+
+	@BeforeEach
+	/**
+	 * Tasks to be performed before each test is run.
+	 */
+	private void setUp() {
+		this.projection = new AvailabilityProjection();
+		this.projection.setInventory(WHEEL, 5);
+		this.projection.setInventory(RIM, 10);
+	}
+
+
+	@AfterEach
+	/**
+	 * Tasks to be performed after each test has been run.
+	 */
+	private void tearDown() {
+		this.projection = null;
+	}
+
+
+	@Test
+	/**
+	 * Tests the availability of materials without scheduled quantities.
+	 */
+	public void testInventoryOnly() {
+		assertEquals(5, this.projection.getAvailableQuantity(WHEEL, TODAY));
+		assertEquals(10, this.projection.getAvailableQuantity(RIM, TODAY));
+		assertEquals(0, this.projection.getAvailableQuantity(3, TODAY));
+	}
+
+
+	@Test
+	/**
+	 * Tests that a later demand reduces the quantity available at an earlier day.
+	 */
+	public void testLaterDemandReducesAvailability() {
+		// A production order of 8 wheels in ten days requires 8 rims.
+		this.projection.setOrder("ProductionOrder:1", new int[] {WHEEL, RIM}, new int[] {TODAY + 10, TODAY + 10},
+				new long[] {8, -8});
+
+		assertEquals(2, this.projection.getAvailableQuantity(RIM, TODAY));
+		assertEquals(2, this.projection.getAvailableQuantity(RIM, TODAY + 20));
+		assertEquals(5, this.projection.getAvailableQuantity(WHEEL, TODAY));
+		assertEquals(13, this.projection.getAvailableQuantity(WHEEL, TODAY + 10));
+	}
+
+
+	@Test
+	/**
+	 * Tests that a supply only increases the quantity available at its day and later.
+	 */
+	public void testSupplyIncreasesLaterAvailability() {
+		this.projection.setOrder("PurchaseOrder:1", new int[] {RIM}, new int[] {TODAY + 5}, new long[] {20});
+		this.projection.setOrder("ProductionOrder:1", new int[] {WHEEL, RIM}, new int[] {TODAY + 10, TODAY + 10},
+				new long[] {25, -25});
+
+		// The purchase order covers most of the demand of the production order.
+		assertEquals(5, this.projection.getAvailableQuantity(RIM, TODAY));
+		assertEquals(5, this.projection.getAvailableQuantity(RIM, TODAY + 5));
+		assertEquals(5, this.projection.getAvailableQuantity(RIM, TODAY + 10));
+
+		// Without the production order the purchased rims are available at the delivery day.
+		this.projection.removeOrder("ProductionOrder:1");
+		assertEquals(10, this.projection.getAvailableQuantity(RIM, TODAY));
+		assertEquals(30, this.projection.getAvailableQuantity(RIM, TODAY + 5));
+		assertEquals(5, this.projection.getAvailableQuantity(WHEEL, TODAY + 10));
+	}
+
+
+	@Test
+	/**
+	 * Tests that the quantities of an order are replaced when the order is set again.
+	 */
+	public void testReplaceOrder() {
+		this.projection.setOrder("ProductionOrder:1", new int[] {WHEEL, RIM}, new int[] {TODAY + 10, TODAY + 10},
+				new long[] {8, -8});
+		this.projection.setOrder("ProductionOrder:1", new int[] {WHEEL, RIM}, new int[] {TODAY + 3, TODAY + 3},
+				new long[] {4, -4});
+
+		assertEquals(6, this.projection.getAvailableQuantity(RIM, TODAY));
+		assertEquals(5, this.projection.getAvailableQuantity(WHEEL, TODAY + 2));
+		assertEquals(9, this.projection.getAvailableQuantity(WHEEL, TODAY + 3));
+	}
+
+
+	@Test
+	/**
+	 * Tests that no negative quantity is available if the demand exceeds the inventory and supply.
+	 */
+	public void testDemandExceedsInventory() {
+		this.projection.setOrder("ProductionOrder:1", new int[] {WHEEL, RIM}, new int[] {TODAY + 10, TODAY + 10},
+				new long[] {15, -15});
+
+		assertEquals(0, this.projection.getAvailableQuantity(RIM, TODAY));
+
+		this.projection.setInventory(RIM, 18);
+		assertEquals(3, this.projection.getAvailableQuantity(RIM, TODAY));
+	}
+
+
+	@Test
+	/**
+	 * Tests that the timelines of a bulk update are published when the bulk update ends.
+	 */
+	public void testBulkUpdate() {
+		this.projection.beginBulkUpdate();
+		this.projection.setInventory(RIM, 50);
+		this.projection.setOrder("PurchaseOrder:1", new int[] {RIM}, new int[] {TODAY}, new long[] {5});
+
+		assertEquals(10, this.projection.getAvailableQuantity(RIM, TODAY));
+
+		this.projection.endBulkUpdate();
+		assertEquals(55, this.projection.getAvailableQuantity(RIM, TODAY));
+	}
+}
@@ -2,6 +2,8 @@ package backend.model.salesOrder;
 
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.math.BigDecimal;
 
@@ -355,4 +357,66 @@ public class SalesOrderTest {
 		
 		assertEquals(expectedErrorMessage, errorMessage);
 	}
+	
+	
+	@Test
+	/**
+	 * Tests the lookup of items whose ID is outside of the range of cached Integer objects.
+	 */
+	public void testGetItemWithLargeId() {
+		SalesOrderItem largeIdItem = new SalesOrderItem();
+		largeIdItem.setId(1000);
+		largeIdItem.setMaterial(this.material);
+		largeIdItem.setQuantity(Long.valueOf(1));
+		this.order.addItem(largeIdItem);
+		
+		assertSame(largeIdItem, this.order.getItemWithId(Integer.valueOf(1000)));
+		assertSame(this.orderItem, this.order.getItemWithId(1));
+		
+		//The index follows changes of the item ID and of the item collection.
+		largeIdItem.setId(2000);
+		assertNull(this.order.getItemWithId(1000));
+		assertSame(largeIdItem, this.order.getItemWithId(2000));
+		
+		this.order.getItems().clear();
+		assertNull(this.order.getItemWithId(2000));
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that the index follows the replacement of an item by another item, although the number of items does not
+	 * change.
+	 */
+	public void testGetItemAfterItemReplaced() {
+		SalesOrderItem replacement = new SalesOrderItem();
+		replacement.setId(2);
+		replacement.setMaterial(this.material);
+		replacement.setQuantity(Long.valueOf(1));
+		
+		assertSame(this.orderItem, this.order.getItemWithId(1));
+		assertEquals(0, BigDecimal.valueOf(379.98).compareTo(this.order.getPriceTotal()));
+		
+		this.order.getItems().remove(this.orderItem);
+		this.order.getItems().add(replacement);
+		
+		assertNull(this.order.getItemWithId(1));
+		assertSame(replacement, this.order.getItemWithId(2));
+		assertEquals(0, BigDecimal.valueOf(189.99).compareTo(this.order.getPriceTotal()));
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that the price total follows changes of the items.
+	 */
+	public void testPriceTotalUpdatedOnItemChange() {
+		assertEquals(0, BigDecimal.valueOf(379.98).compareTo(this.order.getPriceTotal()));
+		
+		this.orderItem.setQuantity(Long.valueOf(3));
+		assertEquals(0, BigDecimal.valueOf(569.97).compareTo(this.order.getPriceTotal()));
+		
+		this.order.getItems().clear();
+		assertEquals(0, BigDecimal.ZERO.compareTo(this.order.getPriceTotal()));
+	}
 }
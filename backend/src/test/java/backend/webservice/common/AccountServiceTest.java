@@ -6,9 +6,11 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.ResourceBundle;
 
@@ -18,6 +20,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import backend.dao.AccountDao;
 import backend.dao.BusinessPartnerDao;
 import backend.dao.DAOManager;
@@ -26,6 +31,7 @@ import backend.model.Currency;
 import backend.model.account.Account;
 import backend.model.account.AccountArray;
 import backend.model.account.Posting;
+import backend.model.account.PostingArray;
 import backend.model.account.PostingType;
 import backend.model.businessPartner.BusinessPartner;
 import backend.model.businessPartner.BusinessPartnerType;
@@ -33,6 +39,7 @@ import backend.model.webservice.WebServiceMessageType;
 import backend.model.webservice.WebServiceResult;
 import backend.tools.WebServiceTools;
 import backend.tools.test.ValidationMessageProvider;
+import backend.webservice.rest.ObjectMapperProvider;
 
 /**
  * Tests the account service.
@@ -110,7 +117,6 @@ public class AccountServiceTest {
         this.createDummyCounterparty();
         this.createDummyAccounts();
         this.createDummyPosting();
-        this.addPostingToAccount2();
     }
 
     @AfterEach
@@ -182,6 +188,7 @@ public class AccountServiceTest {
         this.posting.setReferenceNumber("A1234");
         this.posting.setAmount(BigDecimal.valueOf(99.95));
         this.posting.setCurrency(Currency.EUR);
+        this.posting.setAccount(this.account2);
 
         try {
             postingDAO.insertPosting(this.posting);
@@ -201,19 +208,6 @@ public class AccountServiceTest {
         }
     }
 
-    /**
-     * Adds a Posting to Account 2.
-     */
-    private void addPostingToAccount2() {
-        this.account2.getPostings().add(this.posting);
-
-        try {
-            accountDAO.updateAccount(this.account2);
-        } catch (Exception e) {
-            fail(e.getMessage());
-        }
-    }
-
     /**
      * Initializes and returns dummy account 1.
      *
@@ -265,7 +259,6 @@ public class AccountServiceTest {
     public void testGetAccount() {
         WebServiceResult getAccountResult;
         Account account;
-        Posting posting;
 
         // Get the account
         AccountService service = new AccountService();
@@ -284,11 +277,117 @@ public class AccountServiceTest {
         assertEquals(account.getDescription(), this.account2.getDescription());
         assertTrue(account.getBalance().compareTo(this.account2.getBalance()) == 0);
         assertEquals(account.getCurrency(), this.account2.getCurrency());
-        assertEquals(1, account.getPostings().size());
+    }
+
+    @Test
+    /**
+     * Tests the retrieval of the postings of an account.
+     */
+    public void testGetPostings() {
+        WebServiceResult getPostingsResult;
+        PostingArray postings;
+        Posting posting;
+
+        // Get the postings of account 2.
+        AccountService service = new AccountService();
+        getPostingsResult = service.getPostings(this.account2.getId(), null, null);
 
-        // Read data of the referenced Posting
-        posting = account.getPostingWithId(this.posting.getId());
+        // Assure no error message exists
+        assertTrue(WebServiceTools.resultContainsErrorMessage(getPostingsResult) == false);
+
+        // Assure that the posting of account 2 is returned and that there is no further page.
+        postings = (PostingArray) getPostingsResult.getData();
+        assertEquals(1, postings.getPostings().size());
+        assertNull(postings.getNextAfterId());
+
+        // Read data of the referenced counterparty
+        posting = postings.getPostings().get(0);
+        assertEquals(this.posting.getId(), posting.getId());
         assertEquals(this.posting.getCounterparty().getCityName(), posting.getCounterparty().getCityName());
+
+        // Account 1 has no postings.
+        getPostingsResult = service.getPostings(this.account1.getId(), null, null);
+        postings = (PostingArray) getPostingsResult.getData();
+        assertTrue(postings.getPostings().isEmpty());
+    }
+
+    @Test
+    /**
+     * Tests the statement of an account for the current day.
+     */
+    public void testGetAccountStatement() {
+        String today = LocalDate.now().toString();
+        AccountService service = new AccountService();
+
+        // The statement is determined by the postings only.
+        this.checkAccountStatement(service.getAccountStatement(this.account2.getId(), today, today, null));
+
+        // The statement is determined by the balance snapshot of the current month.
+        try {
+            assertTrue(accountDAO.createBalanceSnapshots(this.account2.getId()) > 0);
+            assertEquals(0, accountDAO.createBalanceSnapshots(this.account2.getId()));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+
+        this.checkAccountStatement(service.getAccountStatement(this.account2.getId(), today, today, null));
+    }
+
+    /**
+     * Checks the statement of account 2 for the current day.
+     *
+     * @param getStatementResult The result of the statement retrieval.
+     */
+    private void checkAccountStatement(final WebServiceResult getStatementResult) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ObjectMapper objectMapper = new ObjectMapperProvider().getContext(AccountStatementWriter.class);
+        BigDecimal expectedOpeningBalance = this.account2.getBalance().add(this.posting.getAmount());
+        JsonNode statement = null;
+        JsonNode line;
+
+        // Assure no error message exists
+        assertTrue(WebServiceTools.resultContainsErrorMessage(getStatementResult) == false);
+        assertTrue(getStatementResult.getData() instanceof AccountStatementWriter);
+
+        try {
+            ((AccountStatementWriter) getStatementResult.getData()).write(outputStream, objectMapper);
+            statement = objectMapper.readTree(outputStream.toByteArray());
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        // The disbursal of the current day leads from the opening balance to the current balance.
+        assertEquals(this.account2.getId().intValue(), statement.get("accountId").asInt());
+        assertTrue(expectedOpeningBalance.compareTo(statement.get("openingBalance").decimalValue()) == 0);
+        assertEquals(1, statement.get("postings").size());
+
+        line = statement.get("postings").get(0);
+        assertEquals(this.posting.getId().intValue(), line.get("posting").get("id").asInt());
+        assertTrue(this.account2.getBalance().compareTo(line.get("balance").decimalValue()) == 0);
+        assertTrue(this.account2.getBalance().compareTo(statement.get("closingBalance").decimalValue()) == 0);
+    }
+
+    @Test
+    /**
+     * Tests the statement of an account with an invalid time range.
+     */
+    public void testGetAccountStatementInvalidPeriod() {
+        AccountService service = new AccountService();
+        WebServiceResult getStatementResult;
+
+        // The day is not given in the format yyyy-MM-dd.
+        getStatementResult = service.getAccountStatement(this.account2.getId(), "01.01.2024", "2024-01-31", null);
+        assertEquals(1, getStatementResult.getMessages().size());
+        assertEquals(WebServiceMessageType.E, getStatementResult.getMessages().get(0).getType());
+        assertEquals(this.resources.getString("account.statementInvalidDate"),
+                getStatementResult.getMessages().get(0).getText());
+
+        // The first day is after the last day.
+        getStatementResult = service.getAccountStatement(this.account2.getId(), "2024-02-01", "2024-01-31", null);
+        assertEquals(1, getStatementResult.getMessages().size());
+        assertEquals(this.resources.getString("account.statementInvalidPeriod"),
+                getStatementResult.getMessages().get(0).getText());
+        assertNull(getStatementResult.getData());
     }
 
     @Test
@@ -325,7 +424,6 @@ public class AccountServiceTest {
         WebServiceResult getAccountsResult;
         AccountArray accounts;
         Account account;
-        Posting posting;
 
         // Get the accounts.
         AccountService service = new AccountService();
@@ -350,10 +448,6 @@ public class AccountServiceTest {
         assertEquals(account.getDescription(), this.account2.getDescription());
         assertTrue(account.getBalance().compareTo(this.account2.getBalance()) == 0);
         assertEquals(account.getCurrency(), this.account2.getCurrency());
-
-        // Read data of the referenced Posting
-        posting = account.getPostingWithId(this.posting.getId());
-        assertEquals(this.posting.getCounterparty().getCityName(), posting.getCounterparty().getCityName());
     }
 
     @Test
@@ -299,6 +299,7 @@ public class BillOfMaterialServiceTest {
 		wsBOM.setBillOfMaterialId(billOfMaterial.getId());
 		wsBOM.setName(billOfMaterial.getName());
 		wsBOM.setDescription(billOfMaterial.getDescription());
+		wsBOM.setVersion(billOfMaterial.getVersion());
 		
 		if(billOfMaterial.getMaterial() != null)
 			wsBOM.setMaterialId(billOfMaterial.getMaterial().getId());
@@ -846,4 +847,42 @@ public class BillOfMaterialServiceTest {
 		actualErrorMessage = updateBillOfMaterialResult.getMessages().get(0).getText();
 		assertEquals(expectedErrorMessage, actualErrorMessage);
 	}
+	
+	
+	@Test
+	/**
+	 * Tests adding a BillOfMaterial that uses a material whose BillOfMaterial contains the material to be produced.
+	 */
+	public void testAddCircularBillOfMaterial() {
+		BillOfMaterial newBillOfMaterial = new BillOfMaterial();
+		BillOfMaterialItem newBillOfMaterialItem = new BillOfMaterialItem();
+		WebServiceResult addBillOfMaterialResult;
+		BillOfMaterialService service = new BillOfMaterialService();
+		String actualErrorMessage, expectedErrorMessage;
+		
+		//The box would be produced using boxed screws that themselves consist of a box.
+		newBillOfMaterialItem.setId(1);
+		newBillOfMaterialItem.setMaterial(this.boxedScrews30mm);
+		newBillOfMaterialItem.setQuantity(1);
+		
+		newBillOfMaterial.setName("Circular reference");
+		newBillOfMaterial.setDescription("The box is a component of the boxed screws");
+		newBillOfMaterial.setMaterial(this.box);
+		newBillOfMaterial.addItem(newBillOfMaterialItem);
+		
+		addBillOfMaterialResult = service.addBillOfMaterial(this.convertToWsBOM(newBillOfMaterial));
+		
+		//There should be a return message of type E.
+		assertTrue(addBillOfMaterialResult.getMessages().size() == 1);
+		assertTrue(addBillOfMaterialResult.getMessages().get(0).getType() == WebServiceMessageType.E);
+		
+		//A proper message should be provided.
+		expectedErrorMessage = MessageFormat.format(this.resources.getString("billOfMaterial.circularReference"), 
+			this.box.getId());
+		actualErrorMessage = addBillOfMaterialResult.getMessages().get(0).getText();
+		assertEquals(expectedErrorMessage, actualErrorMessage);
+		
+		//The new BillOfMaterial should not have been persisted
+		assertNull(newBillOfMaterial.getId());
+	}
 }
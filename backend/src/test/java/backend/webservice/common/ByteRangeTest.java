@@ -0,0 +1,88 @@
+package backend.webservice.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ByteRange.
+ *
+ * @author Michael
+ */
+public class ByteRangeTest {
+	/**
+	 * The size of the content the ranges are requested for.
+	 */
+	private static final long SIZE = 1000;
+
+
+	@Test
+	/**
+	 * Tests ranges with first and last position.
+	 */
+	public void testBoundedRange() {
+		ByteRange range = ByteRange.parse("bytes=0-499", SIZE);
+
+		assertTrue(range.isSatisfiable());
+		assertEquals(0, range.getFirst());
+		assertEquals(500, range.getLength());
+		assertEquals("bytes 0-499/1000", range.getContentRange());
+
+		// The last position is limited to the end of the content.
+		range = ByteRange.parse("bytes=900-2000", SIZE);
+		assertEquals(100, range.getLength());
+		assertEquals("bytes 900-999/1000", range.getContentRange());
+	}
+
+
+	@Test
+	/**
+	 * Tests ranges without last position and suffix ranges.
+	 */
+	public void testOpenRange() {
+		ByteRange range = ByteRange.parse("bytes=600-", SIZE);
+
+		assertEquals(600, range.getFirst());
+		assertEquals(400, range.getLength());
+
+		range = ByteRange.parse("bytes=-300", SIZE);
+		assertEquals(700, range.getFirst());
+		assertEquals(300, range.getLength());
+
+		// A suffix larger than the content requests the whole content.
+		range = ByteRange.parse("bytes=-5000", SIZE);
+		assertEquals(0, range.getFirst());
+		assertEquals(SIZE, range.getLength());
+	}
+
+
+	@Test
+	/**
+	 * Tests ranges that do not overlap the content.
+	 */
+	public void testUnsatisfiableRange() {
+		ByteRange range = ByteRange.parse("bytes=1000-1100", SIZE);
+
+		assertFalse(range.isSatisfiable());
+		assertEquals("bytes */1000", range.getContentRange());
+		assertFalse(ByteRange.parse("bytes=-0", SIZE).isSatisfiable());
+		assertFalse(ByteRange.parse("bytes=0-", 0).isSatisfiable());
+	}
+
+
+	@Test
+	/**
+	 * Tests that missing, invalid and unsupported ranges are ignored.
+	 */
+	public void testIgnoredRange() {
+		assertNull(ByteRange.parse(null, SIZE));
+		assertNull(ByteRange.parse("bytes=500-100", SIZE));
+		assertNull(ByteRange.parse("bytes=0-10,20-30", SIZE));
+		assertNull(ByteRange.parse("items=0-10", SIZE));
+		assertNull(ByteRange.parse("bytes=-", SIZE));
+		assertNull(ByteRange.parse("bytes=99999999999999999999-", SIZE));
+	}
+}
@@ -0,0 +1,85 @@
+package backend.webservice.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ResourceBundle;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import backend.model.webservice.WebServiceMessage;
+import backend.model.webservice.WebServiceMessageType;
+
+/**
+ * Tests the Expansion.
+ *
+ * @author Michael
+ */
+public class ExpansionTest {
+	/**
+	 * The relations that can be expanded.
+	 */
+	private static final Set<String> RELATIONS = Set.of("vendor", "paymentAccount", "material");
+
+
+	@Test
+	/**
+	 * Tests the parsing of the requested relations.
+	 */
+	public void testParse() {
+		assertEquals(Set.of("vendor", "material"), Expansion.parse("vendor,material"));
+		assertEquals(Set.of("vendor", "material"), Expansion.parse(" vendor , material,,vendor"));
+
+		// An empty list requests the lean representation without expanded relations.
+		assertTrue(Expansion.parse("").isEmpty());
+		assertTrue(Expansion.parse(null).isEmpty());
+	}
+
+
+	@Test
+	/**
+	 * Tests the validation of the requested view.
+	 */
+	public void testIsValidView() {
+		assertTrue(Expansion.isValidView(null, null));
+		assertTrue(Expansion.isValidView("lean", null));
+		assertTrue(Expansion.isValidView("lean", "vendor"));
+		assertFalse(Expansion.isValidView(null, "vendor"));
+		assertFalse(Expansion.isValidView(null, ""));
+		assertFalse(Expansion.isValidView("full", null));
+		assertTrue(Expansion.isLeanView("lean"));
+		assertFalse(Expansion.isLeanView(null));
+	}
+
+
+	@Test
+	/**
+	 * Tests the validation of the requested relations.
+	 */
+	public void testIsValid() {
+		assertTrue(Expansion.isValid("", RELATIONS));
+		assertTrue(Expansion.isValid("vendor,paymentAccount,material", RELATIONS));
+		assertFalse(Expansion.isValid("vendor,soldToParty", RELATIONS));
+		assertFalse(Expansion.isValid("Vendor", RELATIONS));
+	}
+
+
+	@Test
+	/**
+	 * Tests the message for invalid requested relations.
+	 */
+	public void testInvalidExpansionMessage() {
+		WebServiceMessage message = Expansion.getInvalidExpansionMessage(ResourceBundle.getBundle("backend"),
+				RELATIONS);
+
+		assertEquals(WebServiceMessageType.E, message.getType());
+		assertTrue(message.getText().contains("material, paymentAccount, vendor"));
+
+		message = Expansion.getInvalidViewMessage(ResourceBundle.getBundle("backend"));
+
+		assertEquals(WebServiceMessageType.E, message.getType());
+		assertTrue(message.getText().contains("\"lean\""));
+	}
+}
@@ -9,6 +9,9 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -284,6 +287,51 @@ public class ImageServiceTest {
     }
     
     
+    @Test
+    /**
+     * Tests adding of an image whose data are streamed.
+     */
+    public void testAddImageFromStream() {
+    	WebServiceResult addImageResult;
+    	ImageData addedImageData = null;
+    	ImageService imageService = new ImageService();
+    	
+    	try (InputStream data = Files.newInputStream(Path.of(DUMMY_IMAGE_FILE_PATH))) {
+    		//Add a new image to the database via WebService
+    		addImageResult = imageService.addImage(data);
+    		
+			//Assure no error message exists
+			assertTrue(WebServiceTools.resultContainsErrorMessage(addImageResult) == false);
+			
+			//There should be a success message
+			assertTrue(addImageResult.getMessages().size() == 1);
+			assertTrue(addImageResult.getMessages().get(0).getType() == WebServiceMessageType.S);
+			
+			//The ID of the newly created image should be provided in the data part of the result message.
+			assertTrue(addImageResult.getData() instanceof Integer);
+			
+			//Read the persisted image via DAO. The MIME type has been determined from the data.
+			addedImageData = imageDAO.getImageData((Integer) addImageResult.getData());
+			assertNotNull(addedImageData);
+			assertEquals("image/png", addedImageData.getMimeType());
+			assertArrayEquals(FileReader.readFile(DUMMY_IMAGE_FILE_PATH), addedImageData.getData());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+		finally {
+			//Delete the newly added image
+			try {
+				if (addedImageData != null) {
+					imageDAO.deleteImage(addedImageData.getId());
+				}
+			} 
+			catch (Exception e) {
+				fail(e.getMessage());
+			}
+		}
+    }
+    
+    
     @Test
     /**
      * Tests updating of image meta data.
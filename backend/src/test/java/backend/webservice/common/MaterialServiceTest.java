@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
@@ -884,6 +885,52 @@ public class MaterialServiceTest {
 	}
 	
 	
+	@Test
+	/**
+	 * Tests the retrieval of materials page by page.
+	 */
+	public void testGetMaterialsPaged() {
+		WebServiceResult getMaterialsResult;
+		MaterialArray materials;
+		MaterialService materialService = new MaterialService();
+		
+		//Get the first page that consists of a single material.
+		getMaterialsResult = materialService.getMaterials(null, 1);
+		materials = (MaterialArray) getMaterialsResult.getData();
+		
+		assertFalse(WebServiceTools.resultContainsErrorMessage(getMaterialsResult));
+		assertEquals(1, materials.getMaterials().size());
+		assertEquals(this.rx570.getId(), materials.getMaterials().get(0).getId());
+		assertEquals(this.rx570.getId(), materials.getNextAfterId());
+		
+		//Get the second page using the cursor of the first page.
+		getMaterialsResult = materialService.getMaterials(materials.getNextAfterId(), 1);
+		materials = (MaterialArray) getMaterialsResult.getData();
+		
+		assertFalse(WebServiceTools.resultContainsErrorMessage(getMaterialsResult));
+		assertEquals(1, materials.getMaterials().size());
+		assertEquals(this.g4560.getId(), materials.getMaterials().get(0).getId());
+		
+		//There are no further materials.
+		assertNull(materials.getNextAfterId());
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the retrieval of materials with a limit that exceeds the maximum limit.
+	 */
+	public void testGetMaterialsWithInvalidLimit() {
+		WebServiceResult getMaterialsResult;
+		MaterialService materialService = new MaterialService();
+		
+		getMaterialsResult = materialService.getMaterials(null, Integer.valueOf(100000));
+		
+		assertTrue(WebServiceTools.resultContainsErrorMessage(getMaterialsResult));
+		assertNull(getMaterialsResult.getData());
+	}
+	
+	
 	@Test
 	/**
 	 * Tests adding a material which is invalid.
@@ -0,0 +1,74 @@
+package backend.webservice.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the Pagination.
+ *
+ * @author Michael
+ */
+public class PaginationTest {
+	@Test
+	/**
+	 * Tests the query limit of requests without cursor and limit. Those requests are not paged.
+	 */
+	public void testUnpagedRequest() {
+		List<Integer> ids = this.getIds(Pagination.DEFAULT_LIMIT + 1);
+
+		assertNull(Pagination.getQueryLimit(null, null));
+
+		// All objects are provided, even if they exceed the default limit.
+		assertNull(Pagination.trimPage(ids, null, null, Function.identity()));
+		assertEquals(Pagination.DEFAULT_LIMIT + 1, ids.size());
+	}
+
+
+	@Test
+	/**
+	 * Tests the query limit and the trimming of a page with requested limit.
+	 */
+	public void testPageWithLimit() {
+		List<Integer> ids = this.getIds(3);
+
+		assertEquals(Integer.valueOf(3), Pagination.getQueryLimit(null, 2));
+		assertEquals(Integer.valueOf(2), Pagination.trimPage(ids, null, 2, Function.identity()));
+		assertEquals(List.of(1, 2), ids);
+	}
+
+
+	@Test
+	/**
+	 * Tests the query limit and the trimming of a page requested with cursor but without limit.
+	 */
+	public void testPageWithCursorOnly() {
+		List<Integer> ids = this.getIds(Pagination.DEFAULT_LIMIT + 1);
+
+		assertEquals(Integer.valueOf(Pagination.DEFAULT_LIMIT + 1), Pagination.getQueryLimit(5, null));
+		assertEquals(Integer.valueOf(Pagination.DEFAULT_LIMIT), Pagination.trimPage(ids, 5, null, Function.identity()));
+		assertEquals(Pagination.DEFAULT_LIMIT, ids.size());
+	}
+
+
+	/**
+	 * Provides a list of consecutive IDs starting at 1.
+	 *
+	 * @param count The number of IDs.
+	 * @return The IDs.
+	 */
+	private List<Integer> getIds(final int count) {
+		List<Integer> ids = new ArrayList<>();
+
+		for (int i = 1; i <= count; i++) {
+			ids.add(i);
+		}
+
+		return ids;
+	}
+}
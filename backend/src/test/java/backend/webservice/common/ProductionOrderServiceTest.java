@@ -1424,6 +1424,7 @@ public class ProductionOrderServiceTest {
         wsOrder.setPlannedExecutionDate(order.getPlannedExecutionDate());
         wsOrder.setExecutionDate(order.getExecutionDate());
         wsOrder.setStatus(order.getStatus());
+        wsOrder.setVersion(order.getVersion());
 
         // Item level
         for (ProductionOrderItem orderItem : order.getItems()) {
@@ -44,6 +44,7 @@ import backend.model.purchaseOrder.PurchaseOrderItem;
 import backend.model.purchaseOrder.PurchaseOrderItemWS;
 import backend.model.purchaseOrder.PurchaseOrderStatus;
 import backend.model.purchaseOrder.PurchaseOrderWS;
+import backend.model.purchaseOrder.PurchaseOrderWSArray;
 import backend.model.webservice.WebServiceMessageType;
 import backend.model.webservice.WebServiceResult;
 import backend.tools.WebServiceTools;
@@ -168,7 +169,6 @@ public class PurchaseOrderServiceTest {
         this.createDummyPartner();
         this.createDummyAccount();
         this.createDummyPosting();
-        this.addPostingToAccount();
         this.createDummyOrders();
     }
 
@@ -307,6 +307,7 @@ public class PurchaseOrderServiceTest {
         this.posting.setReferenceNumber("A1234");
         this.posting.setAmount(BigDecimal.valueOf(99.95));
         this.posting.setCurrency(Currency.EUR);
+        this.posting.setAccount(this.paymentAccount);
 
         try {
             postingDAO.insertPosting(this.posting);
@@ -315,19 +316,6 @@ public class PurchaseOrderServiceTest {
         }
     }
 
-    /**
-     * Adds a Posting to Account.
-     */
-    private void addPostingToAccount() {
-        this.paymentAccount.getPostings().add(this.posting);
-
-        try {
-            accountDAO.updateAccount(this.paymentAccount);
-        } catch (Exception e) {
-            fail(e.getMessage());
-        }
-    }
-
     /**
      * Deletes the dummy purchase order from the database.
      */
@@ -438,6 +426,70 @@ public class PurchaseOrderServiceTest {
         }
     }
 
+    @Test
+    /**
+     * Tests the retrieval of the lean representation of a purchase order with expanded relations.
+     */
+    public void testGetLeanPurchaseOrder() {
+        WebServiceResult getPurchaseOrderResult;
+        PurchaseOrderWS purchaseOrder;
+
+        // Get the purchase order with the expanded vendor.
+        PurchaseOrderService service = new PurchaseOrderService();
+        getPurchaseOrderResult = service.getPurchaseOrder(this.order2.getId(), "lean", "vendor");
+
+        // Assure no error message exists
+        assertTrue(WebServiceTools.resultContainsErrorMessage(getPurchaseOrderResult) == false);
+
+        // Assure that the lean representation of the purchase order is returned
+        assertTrue(getPurchaseOrderResult.getData() instanceof PurchaseOrderWS);
+
+        purchaseOrder = (PurchaseOrderWS) getPurchaseOrderResult.getData();
+
+        // Check the attributes and the references of the purchase order
+        assertEquals(this.order2.getId(), purchaseOrder.getPurchaseOrderId());
+        assertEquals(this.order2.getVendor().getId(), purchaseOrder.getVendorId());
+        assertEquals(this.order2.getPaymentAccount().getId(), purchaseOrder.getPaymentAccountId());
+        assertEquals(this.order2.getStatus(), purchaseOrder.getStatus());
+        assertEquals(this.order2.getVendor(), purchaseOrder.getVendor());
+
+        // Relations that have not been requested are not expanded.
+        assertNull(purchaseOrder.getPaymentAccount());
+
+        // The items are provided with the IDs of their materials only.
+        assertEquals(this.order2.getItems().size(), purchaseOrder.getItems().size());
+
+        for (PurchaseOrderItemWS purchaseOrderItem : purchaseOrder.getItems()) {
+            assertEquals(this.order2.getItemWithId(purchaseOrderItem.getItemId()).getMaterial().getId(),
+                    purchaseOrderItem.getMaterialId());
+            assertNull(purchaseOrderItem.getMaterial());
+        }
+    }
+
+    @Test
+    /**
+     * Tests the retrieval of a page of lean purchase orders.
+     */
+    public void testGetLeanPurchaseOrdersPage() {
+        WebServiceResult getPurchaseOrdersResult;
+        PurchaseOrderWSArray purchaseOrders;
+
+        // Get the first page of the lean view without expanded relations.
+        PurchaseOrderService service = new PurchaseOrderService();
+        getPurchaseOrdersResult = service.getPurchaseOrders(null, null, 1, "lean", null);
+
+        // Assure no error message exists
+        assertTrue(WebServiceTools.resultContainsErrorMessage(getPurchaseOrdersResult) == false);
+
+        purchaseOrders = (PurchaseOrderWSArray) getPurchaseOrdersResult.getData();
+
+        // The first page contains the first purchase order and refers to the next page.
+        assertEquals(1, purchaseOrders.getPurchaseOrders().size());
+        assertEquals(this.order1.getId(), purchaseOrders.getPurchaseOrders().get(0).getPurchaseOrderId());
+        assertEquals(this.order1.getId(), purchaseOrders.getNextAfterId());
+        assertNull(purchaseOrders.getPurchaseOrders().get(0).getVendor());
+    }
+
     @Test
     /**
      * Tests the retrieval of all purchase orders.
@@ -875,6 +927,48 @@ public class PurchaseOrderServiceTest {
         assertNull(newPurchaseOrder.getId());
     }
 
+    @Test
+    /**
+     * Tests adding of a purchase order that references a vendor and a material that do not exist.
+     */
+    public void testAddPurchaseOrderWithUnknownReferences() {
+        PurchaseOrder newPurchaseOrder = new PurchaseOrder();
+        PurchaseOrderItem newPurchaseOrderItem = new PurchaseOrderItem();
+        PurchaseOrderWS newPurchaseOrderWS;
+        WebServiceResult addPurchaseOrderResult;
+        PurchaseOrderService orderService = new PurchaseOrderService();
+        final Integer unknownId = 999999;
+
+        // Define the new purchase order
+        newPurchaseOrderItem.setId(1);
+        newPurchaseOrderItem.setMaterial(this.g4560);
+        newPurchaseOrderItem.setQuantity(Long.valueOf(1));
+
+        newPurchaseOrder.setVendor(this.partner);
+        newPurchaseOrder.setPaymentAccount(this.paymentAccount);
+        newPurchaseOrder.addItem(newPurchaseOrderItem);
+
+        // Reference a vendor and a material that do not exist.
+        newPurchaseOrderWS = this.convertToWsOrder(newPurchaseOrder);
+        newPurchaseOrderWS.setVendorId(unknownId);
+        newPurchaseOrderWS.getItems().get(0).setMaterialId(unknownId);
+
+        // Add a new purchase order to the database via WebService
+        addPurchaseOrderResult = orderService.addPurchaseOrder(newPurchaseOrderWS);
+
+        // There should be an error message for each missing object.
+        assertEquals(2, addPurchaseOrderResult.getMessages().size());
+        assertEquals(WebServiceMessageType.E, addPurchaseOrderResult.getMessages().get(0).getType());
+        assertEquals(MessageFormat.format(this.resources.getString("material.notFound"), unknownId),
+                addPurchaseOrderResult.getMessages().get(0).getText());
+        assertEquals(WebServiceMessageType.E, addPurchaseOrderResult.getMessages().get(1).getType());
+        assertEquals(MessageFormat.format(this.resources.getString("businessPartner.notFound"), unknownId),
+                addPurchaseOrderResult.getMessages().get(1).getText());
+
+        // The new purchase order should not have been persisted
+        assertNull(addPurchaseOrderResult.getData());
+    }
+
     @Test
     /**
      * Tests if the ordered material quantity is added to the material inventory if status GOODS_RECEIPT is set to
@@ -1427,7 +1521,7 @@ public class PurchaseOrderServiceTest {
             account = accountDAO.getAccount(this.paymentAccount.getId());
 
             // Check if expected posting is referenced in the payment account.
-            postings = account.getPostings();
+            postings = new HashSet<Posting>(postingDAO.getPostings(this.paymentAccount.getId(), null, null));
             assertEquals(2, postings.size());
 
             iterator = postings.iterator();
@@ -1473,7 +1567,7 @@ public class PurchaseOrderServiceTest {
 
             // There should be two additional postings. One DISBURSAL for settled invoice of purchase order and one receipt for the
             // reversion of 'invoice settled'.
-            postings = account.getPostings();
+            postings = new HashSet<Posting>(postingDAO.getPostings(this.paymentAccount.getId(), null, null));
             assertEquals(3, postings.size());
 
             postingIterator = postings.iterator();
@@ -1519,7 +1613,7 @@ public class PurchaseOrderServiceTest {
 
             // There should be two additional postings. One DISBURSAL for status 'invoice settled' of purchase order and one
             // RECEIPT for purchase order deletion.
-            postings = account.getPostings();
+            postings = new HashSet<Posting>(postingDAO.getPostings(this.paymentAccount.getId(), null, null));
             assertEquals(3, postings.size());
 
             postingIterator = postings.iterator();
@@ -1570,6 +1664,7 @@ public class PurchaseOrderServiceTest {
         wsOrder.setPurchaseOrderId(order.getId());
         wsOrder.setOrderDate(order.getOrderDate());
         wsOrder.setRequestedDeliveryDate(order.getRequestedDeliveryDate());
+        wsOrder.setVersion(order.getVersion());
 
         if (order.getVendor() != null)
             wsOrder.setVendorId(order.getVendor().getId());
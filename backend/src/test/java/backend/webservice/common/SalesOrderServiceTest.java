@@ -30,6 +30,7 @@ import backend.dao.AccountDao;
 import backend.dao.BusinessPartnerDao;
 import backend.dao.DAOManager;
 import backend.dao.MaterialDao;
+import backend.dao.PostingDao;
 import backend.dao.SalesOrderDao;
 import backend.model.Currency;
 import backend.model.account.Account;
@@ -81,6 +82,11 @@ public class SalesOrderServiceTest {
 	 */
 	private static AccountDao accountDAO;
 	
+	/**
+	 * DAO to access posting data.
+	 */
+	private static PostingDao postingDAO;
+	
 	/**
 	 * The sales order under test.
 	 */
@@ -136,6 +142,7 @@ public class SalesOrderServiceTest {
 		partnerDAO = DAOManager.getInstance().getBusinessPartnerDAO();
 		orderDAO = DAOManager.getInstance().getSalesOrderDAO();
 		accountDAO = DAOManager.getInstance().getAccountDAO();
+		postingDAO = DAOManager.getInstance().getPostingDAO();
 	}
 	
 	
@@ -390,6 +397,86 @@ public class SalesOrderServiceTest {
 	}
 	
 	
+	@Test
+	/**
+	 * Tests the retrieval of the lean representation of a sales order with expanded relations.
+	 */
+	public void testGetLeanSalesOrder() {
+		WebServiceResult getSalesOrderResult;
+		SalesOrderWS salesOrder;
+		SalesOrderItemWS salesOrderItem;
+		
+		//Get the sales order with the expanded sold-to party and materials.
+		SalesOrderService service = new SalesOrderService();
+		getSalesOrderResult = service.getSalesOrder(this.order1.getId(), "lean", "soldToParty,material");
+		
+		//Assure no error message exists
+		assertTrue(WebServiceTools.resultContainsErrorMessage(getSalesOrderResult) == false);
+		
+		//Assure that the lean representation of the sales order is returned
+		assertTrue(getSalesOrderResult.getData() instanceof SalesOrderWS);
+		
+		salesOrder = (SalesOrderWS) getSalesOrderResult.getData();
+		
+		//Check the attributes and the references of the sales order
+		assertEquals(this.order1.getId(), salesOrder.getSalesOrderId());
+		assertEquals(this.order1.getSoldToParty().getId(), salesOrder.getSoldToId());
+		assertEquals(this.order1.getShipToParty().getId(), salesOrder.getShipToId());
+		assertEquals(this.order1.getPaymentAccount().getId(), salesOrder.getPaymentAccountId());
+		assertEquals(this.order1.getStatus(), salesOrder.getStatus());
+		assertEquals(this.order1.getSoldToParty(), salesOrder.getSoldToParty());
+		
+		//Relations that have not been requested are not expanded.
+		assertNull(salesOrder.getShipToParty());
+		assertNull(salesOrder.getPaymentAccount());
+		
+		//Check the item and its expanded material
+		assertEquals(this.order1.getItems().size(), salesOrder.getItems().size());
+		salesOrderItem = salesOrder.getItems().get(0);
+		assertEquals(this.orderItem1.getId(), salesOrderItem.getItemId());
+		assertEquals(this.orderItem1.getMaterial().getId(), salesOrderItem.getMaterialId());
+		assertEquals(this.orderItem1.getQuantity(), salesOrderItem.getQuantity());
+		assertEquals(this.orderItem1.getMaterial(), salesOrderItem.getMaterial());
+	}
+	
+	
+	@Test
+	/**
+	 * Tests the retrieval of the lean representation of a sales order with a relation that can not be expanded.
+	 */
+	public void testGetLeanSalesOrderWithInvalidExpansion() {
+		WebServiceResult getSalesOrderResult;
+		
+		SalesOrderService service = new SalesOrderService();
+		getSalesOrderResult = service.getSalesOrder(this.order1.getId(), "lean", "vendor");
+		
+		//Assure that an error message exists and no sales order is returned
+		assertTrue(WebServiceTools.resultContainsErrorMessage(getSalesOrderResult));
+		assertNull(getSalesOrderResult.getData());
+	}
+	
+	
+	@Test
+	/**
+	 * Tests that relations can only be expanded, if the lean view is requested.
+	 */
+	public void testGetSalesOrderWithExpansionWithoutLeanView() {
+		WebServiceResult getSalesOrderResult;
+		
+		SalesOrderService service = new SalesOrderService();
+		getSalesOrderResult = service.getSalesOrder(this.order1.getId(), null, "soldToParty");
+		
+		//Assure that an error message exists and no sales order is returned
+		assertTrue(WebServiceTools.resultContainsErrorMessage(getSalesOrderResult));
+		assertNull(getSalesOrderResult.getData());
+		
+		//An unknown view is rejected as well.
+		getSalesOrderResult = service.getSalesOrder(this.order1.getId(), "full", null);
+		assertTrue(WebServiceTools.resultContainsErrorMessage(getSalesOrderResult));
+		assertNull(getSalesOrderResult.getData());
+	}
+	
+	
 	@Test
 	/**
 	 * Tests the retrieval of all sales orders.
@@ -1382,7 +1469,7 @@ public class SalesOrderServiceTest {
 			account = accountDAO.getAccount(this.paymentAccount.getId());
 			
 			//Check if expected posting is referenced in the payment account.
-			postings = account.getPostings();
+			postings = new HashSet<Posting>(postingDAO.getPostings(this.paymentAccount.getId(), null, null));
 			assertEquals(1, postings.size());
 			
 			posting = postings.iterator().next();
@@ -1421,7 +1508,7 @@ public class SalesOrderServiceTest {
 			account = accountDAO.getAccount(this.paymentAccount.getId());
 			
 			//There should be two postings. One RECEIPT for finished sales order and one disbursal for the reversion of 'finished'.
-			postings = account.getPostings();
+			postings = new HashSet<Posting>(postingDAO.getPostings(this.paymentAccount.getId(), null, null));
 			assertEquals(2, postings.size());
 			
 			postingIterator = postings.iterator();
@@ -1466,7 +1553,7 @@ public class SalesOrderServiceTest {
 			account = accountDAO.getAccount(this.paymentAccount.getId());
 			
 			//There should be two postings. One RECEIPT for finished sales order and one disbursal for sales order deletion.
-			postings = account.getPostings();
+			postings = new HashSet<Posting>(postingDAO.getPostings(this.paymentAccount.getId(), null, null));
 			assertEquals(2, postings.size());
 			
 			postingIterator = postings.iterator();
@@ -1519,6 +1606,7 @@ public class SalesOrderServiceTest {
 		wsOrder.setOrderDate(order.getOrderDate());
 		wsOrder.setRequestedDeliveryDate(order.getRequestedDeliveryDate());
 		wsOrder.setStatus(order.getStatus());
+		wsOrder.setVersion(order.getVersion());
 		
 		if(order.getSoldToParty() != null)
 			wsOrder.setSoldToId(order.getSoldToParty().getId());
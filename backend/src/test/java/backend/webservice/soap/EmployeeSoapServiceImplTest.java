@@ -222,7 +222,7 @@ public class EmployeeSoapServiceImplTest {
 
 		//Get all employees
 		EmployeeSoapServiceImpl service = new EmployeeSoapServiceImpl();
-		getEmployeesResult = service.getEmployees(EmployeeHeadQueryParameter.ALL);
+		getEmployeesResult = service.getEmployees(EmployeeHeadQueryParameter.ALL, null, null);
 		employees = (EmployeeArray) getEmployeesResult.getData();
 
 		//Assure no error message exists
@@ -258,7 +258,7 @@ public class EmployeeSoapServiceImplTest {
 
 		//Get all employees
 		EmployeeSoapServiceImpl service = new EmployeeSoapServiceImpl();
-		getEmployeesResult = service.getEmployees(EmployeeHeadQueryParameter.NO_HEAD_ONLY);
+		getEmployeesResult = service.getEmployees(EmployeeHeadQueryParameter.NO_HEAD_ONLY, null, null);
 		employees = (EmployeeArray) getEmployeesResult.getData();
 
 		//Assure no error message exists
@@ -288,7 +288,7 @@ public class EmployeeSoapServiceImplTest {
 
 		//Get all employees
 		EmployeeSoapServiceImpl service = new EmployeeSoapServiceImpl();
-		getEmployeesResult = service.getEmployees(EmployeeHeadQueryParameter.HEAD_ONLY);
+		getEmployeesResult = service.getEmployees(EmployeeHeadQueryParameter.HEAD_ONLY, null, null);
 		employees = (EmployeeArray) getEmployeesResult.getData();
 
 		//Assure no error message exists
@@ -88,6 +88,15 @@ public class DepartmentWebServiceDao extends WebServiceDao implements Department
 
         webServiceResult = this.departmentService.updateDepartment(department.getWebServiceDepartment());
         this.raiseExceptionForErrors(webServiceResult.getMessages());
+
+        // The update has incremented the version. Further updates of the department have to use the new version.
+        webServiceResult = this.departmentService.getDepartment(department.getCode());
+        this.raiseExceptionForErrors(webServiceResult.getMessages());
+
+        if (webServiceResult.getData() instanceof frontend.generated.ws.soap.department.Department) {
+            department.setVersion(
+                    ((frontend.generated.ws.soap.department.Department) webServiceResult.getData()).getVersion());
+        }
     }
 
 }
@@ -89,5 +89,14 @@ public class EmployeeWebServiceDao extends WebServiceDao implements EmployeeDao
 
         webServiceResult = this.employeeService.updateEmployee(employee.getWebServiceEmployeeForEmployeeService());
         this.raiseExceptionForErrors(webServiceResult.getMessages());
+
+        // The update has incremented the version. Further updates of the employee have to use the new version.
+        webServiceResult = this.employeeService.getEmployee(employee.getId());
+        this.raiseExceptionForErrors(webServiceResult.getMessages());
+
+        if (webServiceResult.getData() instanceof frontend.generated.ws.soap.employee.Employee) {
+            employee.setVersion(
+                    ((frontend.generated.ws.soap.employee.Employee) webServiceResult.getData()).getVersion());
+        }
     }
 }
@@ -14,14 +14,14 @@ import jakarta.xml.bind.annotation.XmlType;
  * <pre>
  * &lt;complexType name="department">
  *   &lt;complexContent>
- *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *     &lt;extension base="{http://soap.webservice.backend/}versionedEntity">
  *       &lt;sequence>
  *         &lt;element name="code" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *         &lt;element name="description" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *         &lt;element name="head" type="{http://soap.webservice.backend/}employee" minOccurs="0"/>
  *         &lt;element name="name" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *       &lt;/sequence>
- *     &lt;/restriction>
+ *     &lt;/extension>
  *   &lt;/complexContent>
  * &lt;/complexType>
  * </pre>
@@ -35,7 +35,9 @@ import jakarta.xml.bind.annotation.XmlType;
     "head",
     "name"
 })
-public class Department {
+public class Department
+    extends VersionedEntity
+{
 
     protected String code;
     protected String description;
@@ -19,7 +19,7 @@ import jakarta.xml.bind.annotation.XmlType;
  * <pre>
  * &lt;complexType name="account">
  *   &lt;complexContent>
- *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *     &lt;extension base="{http://soap.webservice.backend/}versionedEntity">
  *       &lt;sequence>
  *         &lt;element name="balance" type="{http://www.w3.org/2001/XMLSchema}decimal" minOccurs="0"/>
  *         &lt;element name="currency" type="{http://soap.webservice.backend/}currency" minOccurs="0"/>
@@ -27,7 +27,7 @@ import jakarta.xml.bind.annotation.XmlType;
  *         &lt;element name="id" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/>
  *         &lt;element name="postings" type="{http://soap.webservice.backend/}posting" maxOccurs="unbounded" minOccurs="0"/>
  *       &lt;/sequence>
- *     &lt;/restriction>
+ *     &lt;/extension>
  *   &lt;/complexContent>
  * &lt;/complexType>
  * </pre>
@@ -42,7 +42,9 @@ import jakarta.xml.bind.annotation.XmlType;
     "id",
     "postings"
 })
-public class Account {
+public class Account
+    extends VersionedEntity
+{
 
     protected BigDecimal balance;
     @XmlSchemaType(name = "string")
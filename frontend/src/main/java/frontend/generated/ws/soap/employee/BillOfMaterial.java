@@ -17,7 +17,7 @@ import jakarta.xml.bind.annotation.XmlType;
  * <pre>
  * &lt;complexType name="billOfMaterial">
  *   &lt;complexContent>
- *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *     &lt;extension base="{http://soap.webservice.backend/}versionedEntity">
  *       &lt;sequence>
  *         &lt;element name="description" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *         &lt;element name="id" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/>
@@ -25,7 +25,7 @@ import jakarta.xml.bind.annotation.XmlType;
  *         &lt;element name="material" type="{http://soap.webservice.backend/}material" minOccurs="0"/>
  *         &lt;element name="name" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *       &lt;/sequence>
- *     &lt;/restriction>
+ *     &lt;/extension>
  *   &lt;/complexContent>
  * &lt;/complexType>
  * </pre>
@@ -40,7 +40,9 @@ import jakarta.xml.bind.annotation.XmlType;
     "material",
     "name"
 })
-public class BillOfMaterial {
+public class BillOfMaterial
+    extends VersionedEntity
+{
 
     protected String description;
     protected Integer id;
@@ -18,7 +18,7 @@ import jakarta.xml.bind.annotation.XmlType;
  * <pre>
  * &lt;complexType name="businessPartner">
  *   &lt;complexContent>
- *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *     &lt;extension base="{http://soap.webservice.backend/}versionedEntity">
  *       &lt;sequence>
  *         &lt;element name="cityName" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *         &lt;element name="companyName" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
@@ -31,7 +31,7 @@ import jakarta.xml.bind.annotation.XmlType;
  *         &lt;element name="types" type="{http://soap.webservice.backend/}businessPartnerType" maxOccurs="unbounded" minOccurs="0"/>
  *         &lt;element name="zipCode" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *       &lt;/sequence>
- *     &lt;/restriction>
+ *     &lt;/extension>
  *   &lt;/complexContent>
  * &lt;/complexType>
  * </pre>
@@ -51,7 +51,9 @@ import jakarta.xml.bind.annotation.XmlType;
     "types",
     "zipCode"
 })
-public class BusinessPartner {
+public class BusinessPartner
+    extends VersionedEntity
+{
 
     protected String cityName;
     protected String companyName;
@@ -15,7 +15,7 @@ import jakarta.xml.bind.annotation.XmlType;
  * <pre>
  * &lt;complexType name="employee">
  *   &lt;complexContent>
- *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *     &lt;extension base="{http://soap.webservice.backend/}versionedEntity">
  *       &lt;sequence>
  *         &lt;element name="firstName" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *         &lt;element name="gender" type="{http://soap.webservice.backend/}gender" minOccurs="0"/>
@@ -23,7 +23,7 @@ import jakarta.xml.bind.annotation.XmlType;
  *         &lt;element name="lastName" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *         &lt;element name="salaryData" type="{http://soap.webservice.backend/}employeeSalary" minOccurs="0"/>
  *       &lt;/sequence>
- *     &lt;/restriction>
+ *     &lt;/extension>
  *   &lt;/complexContent>
  * &lt;/complexType>
  * </pre>
@@ -38,7 +38,9 @@ import jakarta.xml.bind.annotation.XmlType;
     "lastName",
     "salaryData"
 })
-public class Employee {
+public class Employee
+    extends VersionedEntity
+{
 
     protected String firstName;
     @XmlSchemaType(name = "string")
@@ -16,7 +16,7 @@ import jakarta.xml.bind.annotation.XmlType;
  * <pre>
  * &lt;complexType name="material">
  *   &lt;complexContent>
- *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *     &lt;extension base="{http://soap.webservice.backend/}versionedEntity">
  *       &lt;sequence>
  *         &lt;element name="currency" type="{http://soap.webservice.backend/}currency" minOccurs="0"/>
  *         &lt;element name="description" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
@@ -27,7 +27,7 @@ import jakarta.xml.bind.annotation.XmlType;
  *         &lt;element name="pricePerUnit" type="{http://www.w3.org/2001/XMLSchema}decimal" minOccurs="0"/>
  *         &lt;element name="unit" type="{http://soap.webservice.backend/}unitOfMeasurement" minOccurs="0"/>
  *       &lt;/sequence>
- *     &lt;/restriction>
+ *     &lt;/extension>
  *   &lt;/complexContent>
  * &lt;/complexType>
  * </pre>
@@ -45,7 +45,9 @@ import jakarta.xml.bind.annotation.XmlType;
     "pricePerUnit",
     "unit"
 })
-public class Material {
+public class Material
+    extends VersionedEntity
+{
 
     @XmlSchemaType(name = "string")
     protected Currency currency;
@@ -19,7 +19,7 @@ import javax.xml.datatype.XMLGregorianCalendar;
  * <pre>
  * &lt;complexType name="purchaseOrder">
  *   &lt;complexContent>
- *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *     &lt;extension base="{http://soap.webservice.backend/}versionedEntity">
  *       &lt;sequence>
  *         &lt;element name="id" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/>
  *         &lt;element name="items" type="{http://soap.webservice.backend/}purchaseOrderItem" maxOccurs="unbounded" minOccurs="0"/>
@@ -29,7 +29,7 @@ import javax.xml.datatype.XMLGregorianCalendar;
  *         &lt;element name="status" type="{http://soap.webservice.backend/}purchaseOrderStatus" maxOccurs="unbounded" minOccurs="0"/>
  *         &lt;element name="vendor" type="{http://soap.webservice.backend/}businessPartner" minOccurs="0"/>
  *       &lt;/sequence>
- *     &lt;/restriction>
+ *     &lt;/extension>
  *   &lt;/complexContent>
  * &lt;/complexType>
  * </pre>
@@ -46,7 +46,9 @@ import javax.xml.datatype.XMLGregorianCalendar;
     "status",
     "vendor"
 })
-public class PurchaseOrder {
+public class PurchaseOrder
+    extends VersionedEntity
+{
 
     protected Integer id;
     @XmlElement(nillable = true)
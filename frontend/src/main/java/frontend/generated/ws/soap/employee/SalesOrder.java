@@ -19,7 +19,7 @@ import javax.xml.datatype.XMLGregorianCalendar;
  * <pre>
  * &lt;complexType name="salesOrder">
  *   &lt;complexContent>
- *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *     &lt;extension base="{http://soap.webservice.backend/}versionedEntity">
  *       &lt;sequence>
  *         &lt;element name="billToParty" type="{http://soap.webservice.backend/}businessPartner" minOccurs="0"/>
  *         &lt;element name="id" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/>
@@ -31,7 +31,7 @@ import javax.xml.datatype.XMLGregorianCalendar;
  *         &lt;element name="soldToParty" type="{http://soap.webservice.backend/}businessPartner" minOccurs="0"/>
  *         &lt;element name="status" type="{http://soap.webservice.backend/}salesOrderStatus" minOccurs="0"/>
  *       &lt;/sequence>
- *     &lt;/restriction>
+ *     &lt;/extension>
  *   &lt;/complexContent>
  * &lt;/complexType>
  * </pre>
@@ -50,7 +50,9 @@ import javax.xml.datatype.XMLGregorianCalendar;
     "soldToParty",
     "status"
 })
-public class SalesOrder {
+public class SalesOrder
+    extends VersionedEntity
+{
 
     protected BusinessPartner billToParty;
     protected Integer id;
@@ -0,0 +1,72 @@
+
+package frontend.generated.ws.soap.employee;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlSeeAlso;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java-Klasse fr versionedEntity complex type.
+ *
+ * <p>Das folgende Schemafragment gibt den erwarteten Content an, der in dieser Klasse enthalten ist.
+ *
+ * <pre>
+ * &lt;complexType name="versionedEntity">
+ *   &lt;complexContent>
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       &lt;sequence>
+ *         &lt;element name="version" type="{http://www.w3.org/2001/XMLSchema}long" minOccurs="0"/>
+ *       &lt;/sequence>
+ *     &lt;/restriction>
+ *   &lt;/complexContent>
+ * &lt;/complexType>
+ * </pre>
+ *
+ *
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "versionedEntity", propOrder = {
+    "version"
+})
+@XmlSeeAlso({
+    Account.class,
+    BillOfMaterial.class,
+    BusinessPartner.class,
+    Department.class,
+    Employee.class,
+    Material.class,
+    ProductionOrder.class,
+    PurchaseOrder.class,
+    SalesOrder.class
+})
+public abstract class VersionedEntity {
+
+    protected Long version;
+
+    /**
+     * Ruft den Wert der version-Eigenschaft ab.
+     *
+     * @return
+     *     possible object is
+     *     {@link Long }
+     *
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Legt den Wert der version-Eigenschaft fest.
+     *
+     * @param value
+     *     allowed object is
+     *     {@link Long }
+     *
+     */
+    public void setVersion(Long value) {
+        this.version = value;
+    }
+
+}
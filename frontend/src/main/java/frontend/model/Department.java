@@ -28,6 +28,11 @@ public class Department {
      */
     private Employee head;
 
+    /**
+     * The version of the department that has been read from the backend. The backend rejects updates without version.
+     */
+    private Long version;
+
     /**
      * The HashCode of the department state that has been persisted to the backend database.
      */
@@ -50,6 +55,7 @@ public class Department {
         this.name = department.name;
         this.description = department.description;
         this.head = department.head;
+        this.version = department.version;
         this.persistedHash = department.persistedHash;
     }
 
@@ -62,6 +68,7 @@ public class Department {
         this.code = webServiceDepartment.getCode();
         this.name = webServiceDepartment.getName();
         this.description = webServiceDepartment.getDescription();
+        this.version = webServiceDepartment.getVersion();
 
         if (webServiceDepartment.getHead() != null) {
             this.head = new Employee(webServiceDepartment.getHead());
@@ -84,6 +91,7 @@ public class Department {
         wsDepartment.setCode(this.code);
         wsDepartment.setName(this.name);
         wsDepartment.setDescription(this.description);
+        wsDepartment.setVersion(this.version);
 
         if (this.head != null) {
             wsDepartment.setHead(this.head.getWebServiceEmployeeForDepartmentService());
@@ -230,4 +238,18 @@ public class Department {
     public void setHead(final Employee head) {
         this.head = head;
     }
+
+    /**
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version the version to set
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
 }
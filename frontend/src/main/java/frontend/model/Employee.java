@@ -33,6 +33,11 @@ public class Employee {
      */
     private EmployeeSalary salaryData;
 
+    /**
+     * The version of the employee that has been read from the backend. The backend rejects updates without version.
+     */
+    private Long version;
+
     /**
      * The HashCode of the employee state that has been persisted to the backend database.
      */
@@ -63,6 +68,7 @@ public class Employee {
         this.firstName = webServiceEmployee.getFirstName();
         this.lastName = webServiceEmployee.getLastName();
         this.gender = Gender.convertToGender(webServiceEmployee.getGender());
+        this.version = webServiceEmployee.getVersion();
 
         if (webServiceEmployee.getSalaryData() != null) {
             this.salaryData = new EmployeeSalary(webServiceEmployee.getSalaryData());
@@ -81,6 +87,7 @@ public class Employee {
         this.firstName = webServiceEmployee.getFirstName();
         this.lastName = webServiceEmployee.getLastName();
         this.gender = Gender.convertToGender(webServiceEmployee.getGender());
+        this.version = webServiceEmployee.getVersion();
 
         if (webServiceEmployee.getSalaryData() != null) {
             this.salaryData = new EmployeeSalary(webServiceEmployee.getSalaryData());
@@ -159,6 +166,20 @@ public class Employee {
         this.salaryData = salaryData;
     }
 
+    /**
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version the version to set
+     */
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
     /**
      * Converts the current employee into a type that is used by the employee WebService.
      *
@@ -174,6 +195,7 @@ public class Employee {
         webServiceEmployee.setFirstName(this.firstName);
         webServiceEmployee.setLastName(this.lastName);
         webServiceEmployee.setGender(Gender.convertoToEmployeeWebServiceGender(this.gender));
+        webServiceEmployee.setVersion(this.version);
 
         if (this.salaryData != null) {
             webServiceEmployee.setSalaryData(this.salaryData.getEmployeeWebServiceSalary());
@@ -197,6 +219,7 @@ public class Employee {
         webServiceEmployee.setFirstName(this.firstName);
         webServiceEmployee.setLastName(this.lastName);
         webServiceEmployee.setGender(Gender.convertoToDepartmentWebServiceGender(this.gender));
+        webServiceEmployee.setVersion(this.version);
 
         if (this.salaryData != null) {
             webServiceEmployee.setSalaryData(this.salaryData.getDepartmentWebServiceSalary());